@@ -0,0 +1,2 @@
+CREATE INDEX IF NOT EXISTS `osm_node_tags_name` ON `osm_node_tags` (`name`);
+CREATE INDEX IF NOT EXISTS `osm_way_tags_name` ON `osm_way_tags` (`name`);
\ No newline at end of file
@@ -7,6 +7,7 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,7 +20,9 @@ import de.unifreiburg.informatik.cobweb.commands.ECommand;
 import de.unifreiburg.informatik.cobweb.config.ConfigLoader;
 import de.unifreiburg.informatik.cobweb.config.ConfigStore;
 import de.unifreiburg.informatik.cobweb.db.ADatabase;
+import de.unifreiburg.informatik.cobweb.db.CachingDatabase;
 import de.unifreiburg.informatik.cobweb.db.ExternalDatabase;
+import de.unifreiburg.informatik.cobweb.db.MappedDatabase;
 import de.unifreiburg.informatik.cobweb.db.MemoryDatabase;
 import de.unifreiburg.informatik.cobweb.db.OsmDatabaseHandler;
 import de.unifreiburg.informatik.cobweb.parsing.DataParser;
@@ -27,15 +30,17 @@ import de.unifreiburg.informatik.cobweb.parsing.ParseException;
 import de.unifreiburg.informatik.cobweb.parsing.osm.IOsmFileHandler;
 import de.unifreiburg.informatik.cobweb.parsing.osm.OsmReducer;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.INearestNeighborComputation;
-import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.ShortestPathComputationFactory;
+import de.unifreiburg.informatik.cobweb.routing.model.ERoutingModelMode;
+import de.unifreiburg.informatik.cobweb.routing.model.OsmChangeWatcher;
 import de.unifreiburg.informatik.cobweb.routing.model.RoutingModel;
+import de.unifreiburg.informatik.cobweb.routing.model.SnapshotNearestNeighborComputation;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
-import de.unifreiburg.informatik.cobweb.routing.model.graph.IGetNodeById;
 import de.unifreiburg.informatik.cobweb.routing.parsing.osm.OsmRoadFilter;
 import de.unifreiburg.informatik.cobweb.routing.server.RoutingServer;
 import de.unifreiburg.informatik.cobweb.searching.name.server.NameSearchServer;
 import de.unifreiburg.informatik.cobweb.searching.nearest.server.NearestSearchServer;
 import de.unifreiburg.informatik.cobweb.util.CleanUtil;
+import de.unifreiburg.informatik.cobweb.util.http.HttpServer;
 
 /**
  * The whole application. Supports various commands, see the documentation of
@@ -71,6 +76,11 @@ public final class Application {
    * Database to use for storing meta data.
    */
   private ADatabase mDatabase;
+  /**
+   * Server serving all REST APIs on a single port, or <code>null</code> if
+   * each API uses its own server.
+   */
+  private HttpServer mHttpServer;
   /**
    * Logger to use for logging.
    */
@@ -87,6 +97,11 @@ public final class Application {
    * Server to use for responding to nearest search requests. Offers a REST API.
    */
   private NearestSearchServer mNearestSearchServer;
+  /**
+   * Watcher which applies OSM change files to the routing model or
+   * <code>null</code> if changes are not applied.
+   */
+  private OsmChangeWatcher mOsmChangeWatcher;
   /**
    * The model to use for routing.
    */
@@ -182,7 +197,12 @@ public final class Application {
       mLogger.info("Shutting down application");
     }
     try {
-      if (mRoutingServer != null) {
+      if (mOsmChangeWatcher != null) {
+        mOsmChangeWatcher.shutdown();
+      }
+      if (mHttpServer != null) {
+        mHttpServer.shutdown();
+      } else if (mRoutingServer != null) {
         mRoutingServer.shutdown();
       }
       if (mDatabase != null) {
@@ -209,9 +229,16 @@ public final class Application {
       mLogger.info("Starting application");
       switch (mCommandData.getCommand()) {
         case START:
-          mRoutingServer.start();
-          mNameSearchServer.start();
-          mNearestSearchServer.start();
+          if (mHttpServer != null) {
+            mHttpServer.start();
+          } else {
+            mRoutingServer.start();
+            mNameSearchServer.start();
+            mNearestSearchServer.start();
+          }
+          if (mOsmChangeWatcher != null) {
+            mOsmChangeWatcher.start();
+          }
           break;
         case CLEAN:
           CleanUtil.clean(mConfig, mConfig);
@@ -292,6 +319,7 @@ public final class Application {
     // Parse all data
     final Instant parseStartTime = Instant.now();
     dataParser.parseData();
+    mDatabase.finishImport();
     final Instant parseEndTime = Instant.now();
     mLogger.info("Parsing took: {}", Duration.between(parseStartTime, parseEndTime));
     dataParser.clearHandler();
@@ -303,9 +331,16 @@ public final class Application {
     mLogger.info("Model size: {}", mRoutingModel.getSizeInformation());
 
     if (mCommandData.getCommand() == ECommand.START) {
+      // Serve requests from snapshots of the model, applying OSM changes
+      // publishes new snapshots while the servers are running
+      mRoutingModel.publishSnapshot();
+      mNearestNeighborComputation = new SnapshotNearestNeighborComputation(mRoutingModel::getSnapshot);
       initializeRouting();
       initializeNameSearch();
       initializeNearestSearch();
+      if (mConfig.useSharedHttpServer()) {
+        initializeHttpServer();
+      }
     }
 
     final Instant initEndTime = Instant.now();
@@ -327,6 +362,12 @@ public final class Application {
 
     if (mConfig.useExternalDb()) {
       mDatabase = new ExternalDatabase(mConfig);
+      // Cache lookups that would otherwise access the external database
+      if (mConfig.getDbCacheSize() > 0) {
+        mDatabase = new CachingDatabase(mDatabase, mConfig.getDbCacheSize(), mConfig.useDbCacheWarmUp());
+      }
+    } else if (mConfig.useMappedDb()) {
+      mDatabase = new MappedDatabase(mConfig.getMappedDbDirectory());
     } else {
       mDatabase = new MemoryDatabase();
     }
@@ -334,6 +375,38 @@ public final class Application {
     mDatabase.initialize();
   }
 
+  /**
+   * Initializes the shared HTTP server which serves the routing, name search
+   * and nearest search API on a single port. The handlers of the individual
+   * servers are registered at it, which are then not started themselves.
+   */
+  private void initializeHttpServer() {
+    mLogger.info("Initializing shared HTTP server");
+    int amountOfWorkers = mConfig.getHttpServerAmountOfWorkers();
+    if (amountOfWorkers <= 0) {
+      amountOfWorkers = Runtime.getRuntime().availableProcessors();
+    }
+
+    final int keepAliveTimeout = (int) TimeUnit.SECONDS.toMillis(mConfig.getHttpKeepAliveTimeout());
+
+    mHttpServer = new HttpServer(mConfig.getHttpServerPort(), amountOfWorkers, keepAliveTimeout,
+        mConfig.getHttpMaxRequestsPerConnection(), mConfig.getHttpRetryAfter());
+    // The client handlers of all APIs share the same simple name
+    mHttpServer.addHandler(de.unifreiburg.informatik.cobweb.routing.server.ClientHandler.API_RESOURCE,
+        mRoutingServer.getClientHandler());
+    mHttpServer.addHandler(de.unifreiburg.informatik.cobweb.routing.server.ClientHandler.MATRIX_RESOURCE,
+        mRoutingServer.getClientHandler());
+    mHttpServer.addHandler(de.unifreiburg.informatik.cobweb.routing.server.ClientHandler.ISOCHRONE_RESOURCE,
+        mRoutingServer.getClientHandler());
+    mHttpServer.addHandler(
+        de.unifreiburg.informatik.cobweb.searching.name.server.ClientHandler.API_RESOURCE,
+        mNameSearchServer.getClientHandler());
+    mHttpServer.addHandler(
+        de.unifreiburg.informatik.cobweb.searching.nearest.server.ClientHandler.API_RESOURCE,
+        mNearestSearchServer.getClientHandler());
+    mHttpServer.initialize();
+  }
+
   /**
    * Initializes the logger to use for logging. This sets system wide properties
    * such that all subsequent calls to {@link LoggerFactory} are affected. As
@@ -352,7 +425,7 @@ public final class Application {
    */
   private void initializeNameSearch() {
     mLogger.info("Initializing name search");
-    mNameSearchServer = new NameSearchServer(mConfig, mDatabase);
+    mNameSearchServer = new NameSearchServer(mConfig, mConfig, mDatabase);
     mNameSearchServer.initialize();
   }
 
@@ -363,23 +436,27 @@ public final class Application {
    */
   private void initializeNearestSearch() {
     mLogger.info("Initializing nearest search");
-    mNearestSearchServer = new NearestSearchServer(mConfig, mNearestNeighborComputation, mDatabase);
+    mNearestSearchServer = new NearestSearchServer(mConfig, mConfig, mNearestNeighborComputation, mDatabase);
     mNearestSearchServer.initialize();
   }
 
   /**
    * Initializes the routing server and algorithms used to answer routing
    * requests. Depending on the size of the graph and the used algorithms this
-   * method may take a while for all precomputations to finish.
+   * method may take a while for all precomputations to finish. Also creates the
+   * watcher for OSM change files if they should be applied.
    */
   private void initializeRouting() {
     mLogger.info("Initializing routing");
 
-    final IGetNodeById<ICoreNode> nodeProvider = mRoutingModel.getNodeProvider();
-    final ShortestPathComputationFactory computationFactory = mRoutingModel.createShortestPathComputationFactory();
-
-    mRoutingServer = new RoutingServer(mConfig, nodeProvider, computationFactory, mDatabase);
+    mRoutingServer = new RoutingServer(mConfig, mConfig, mRoutingModel::getSnapshot, mDatabase);
     mRoutingServer.initialize();
+
+    if (mConfig.getOsmChangePollInterval() > 0
+        && mRoutingModel.getMode() == ERoutingModelMode.GRAPH_WITH_TIMETABLE) {
+      mOsmChangeWatcher = new OsmChangeWatcher(mRoutingModel, mConfig.getOsmChangeDirectory(),
+          mConfig.getOsmChangePollInterval());
+    }
   }
 
   /**
@@ -28,6 +28,7 @@ import org.slf4j.LoggerFactory;
 
 import de.unifreiburg.informatik.cobweb.routing.algorithms.metrics.AsTheCrowFliesMetric;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.CoverTree;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.ComputationDeadline;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.IHasPathCost;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.IShortestPathComputation;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.ShortestPathComputationFactory;
@@ -356,14 +357,15 @@ public final class BenchmarkSuite implements IQueryNodeProvider {
       writeLine("#Hybrid");
       writeLine("DijkstraRank(2^i)\tTime(ns)");
 
-      baseLineComputation = mFactory.createAlgorithmHybridRoadTimetable(depTime, restrictedModes);
+      baseLineComputation = mFactory.createAlgorithmHybridRoadTimetable(depTime, restrictedModes,
+          ComputationDeadline.none());
     } else if (mModel.getMode() == ERoutingModelMode.LINK_GRAPH) {
       // Measuring LinkGraph
       LOGGER.info("Measuring LinkGraph");
       writeLine("#LinkGraph");
       writeLine("DijkstraRank(2^i)\tTime(ns)");
 
-      baseLineComputation = mFactory.createAlgorithmLinkGraph(depTime, restrictedModes);
+      baseLineComputation = mFactory.createAlgorithmLinkGraph(depTime, restrictedModes, ComputationDeadline.none());
     } else {
       throw new IllegalStateException("Unknown routing model mode: " + mModel.getMode());
     }
@@ -411,14 +413,15 @@ public final class BenchmarkSuite implements IQueryNodeProvider {
       writeLine("#Hybrid");
       writeLine("DijkstraRank(2^i)\tTime(ns)");
 
-      restrictedComputation = mFactory.createAlgorithmHybridRoadTimetable(depTime, restrictedModes);
+      restrictedComputation = mFactory.createAlgorithmHybridRoadTimetable(depTime, restrictedModes,
+          ComputationDeadline.none());
     } else if (mModel.getMode() == ERoutingModelMode.LINK_GRAPH) {
       // Measuring LinkGraph
       LOGGER.info("Measuring LinkGraph");
       writeLine("#LinkGraph");
       writeLine("DijkstraRank(2^i)\tTime(ns)");
 
-      restrictedComputation = mFactory.createAlgorithmLinkGraph(depTime, restrictedModes);
+      restrictedComputation = mFactory.createAlgorithmLinkGraph(depTime, restrictedModes, ComputationDeadline.none());
     } else {
       throw new IllegalStateException("Unknown routing model mode: " + mModel.getMode());
     }
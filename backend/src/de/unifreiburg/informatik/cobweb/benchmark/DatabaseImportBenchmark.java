@@ -0,0 +1,188 @@
+package de.unifreiburg.informatik.cobweb.benchmark;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.slimjars.dist.gnu.trove.list.array.TLongArrayList;
+
+import de.topobyte.osm4j.core.model.iface.OsmEntity;
+import de.topobyte.osm4j.core.model.impl.Node;
+import de.topobyte.osm4j.core.model.impl.Tag;
+import de.topobyte.osm4j.core.model.impl.Way;
+import de.unifreiburg.informatik.cobweb.config.ConfigStore;
+import de.unifreiburg.informatik.cobweb.db.ExternalDatabase;
+import de.unifreiburg.informatik.cobweb.db.ScriptExecutor;
+import de.unifreiburg.informatik.cobweb.routing.parsing.osm.IdMapping;
+
+/**
+ * Benchmark which measures the import of OSM data into an external database
+ * with different batch settings.<br>
+ * <br>
+ * The data is generated synthetically with a fixed seed, hence runs are
+ * reproducible. For every variant the database tables are dropped and
+ * created again, then all entities and ID mappings are offered and the
+ * inserted rows per second are logged. Afterwards the time needed to create
+ * the indices by {@link ExternalDatabase#finishImport()} is logged.<br>
+ * <br>
+ * Run with {@link #main(String[])}. By default a local SQLite file is used,
+ * which needs the SQLite JDBC driver on the class path.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class DatabaseImportBenchmark {
+  /**
+   * The amount of generated nodes.
+   */
+  private static final int AMOUNT_OF_NODES = 200_000;
+  /**
+   * The amount of generated ways.
+   */
+  private static final int AMOUNT_OF_WAYS = 50_000;
+  /**
+   * The JDBC URL of the database used if no URL is given.
+   */
+  private static final String DEFAULT_JDBC_URL = "jdbc:sqlite:res/cache/db/benchmark.db";
+  /**
+   * Logger used for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(DatabaseImportBenchmark.class);
+  /**
+   * The seed used to generate the data.
+   */
+  private static final long SEED = 42L;
+
+  /**
+   * Starts the benchmark.
+   *
+   * @param args Optionally the JDBC URL of the database to use. All routing
+   *             tables of the database are dropped.
+   * @throws SQLException If an SQL exception occurred while trying to reset the
+   *                      database
+   * @throws IOException  If an I/O exception occurred while trying to read the
+   *                      database scripts
+   */
+  public static void main(final String[] args) throws SQLException, IOException {
+    String jdbcUrl;
+    if (args.length > 0) {
+      jdbcUrl = args[0];
+    } else {
+      jdbcUrl = DEFAULT_JDBC_URL;
+    }
+
+    final List<OsmEntity> entities = DatabaseImportBenchmark.createEntities();
+    final List<IdMapping> mappings = DatabaseImportBenchmark.createMappings();
+
+    DatabaseImportBenchmark.measure(jdbcUrl, 1, 1, entities, mappings);
+    DatabaseImportBenchmark.measure(jdbcUrl, 1, 10_000, entities, mappings);
+    DatabaseImportBenchmark.measure(jdbcUrl, 100, 10_000, entities, mappings);
+  }
+
+  /**
+   * Creates the OSM nodes and ways to import. Every fifth node and every
+   * second way has a name.
+   *
+   * @return The created entities
+   */
+  private static List<OsmEntity> createEntities() {
+    final Random random = new Random(SEED);
+    final List<OsmEntity> entities = new ArrayList<>(AMOUNT_OF_NODES + AMOUNT_OF_WAYS);
+    for (int i = 0; i < AMOUNT_OF_NODES; i++) {
+      final double latitude = 47.9 + random.nextDouble() * 0.2;
+      final double longitude = 7.7 + random.nextDouble() * 0.2;
+      if (i % 5 == 0) {
+        entities.add(new Node(i, longitude, latitude, Collections.singletonList(new Tag("name", "Node " + i))));
+      } else {
+        entities.add(new Node(i, longitude, latitude));
+      }
+    }
+
+    for (int i = 0; i < AMOUNT_OF_WAYS; i++) {
+      final TLongArrayList nodes = new TLongArrayList();
+      nodes.add(random.nextInt(AMOUNT_OF_NODES));
+      nodes.add(random.nextInt(AMOUNT_OF_NODES));
+      final List<Tag> tags = new ArrayList<>();
+      tags.add(new Tag("highway", "residential"));
+      tags.add(new Tag("maxspeed", String.valueOf(30 + random.nextInt(4) * 10)));
+      if (i % 2 == 0) {
+        tags.add(new Tag("name", "Street " + i));
+      }
+      entities.add(new Way(i, nodes, tags));
+    }
+    return entities;
+  }
+
+  /**
+   * Creates ID mappings for all generated nodes and ways.
+   *
+   * @return The created mappings
+   */
+  private static List<IdMapping> createMappings() {
+    final List<IdMapping> mappings = new ArrayList<>(AMOUNT_OF_NODES + AMOUNT_OF_WAYS);
+    for (int i = 0; i < AMOUNT_OF_NODES; i++) {
+      mappings.add(new IdMapping(i, i, true));
+    }
+    for (int i = 0; i < AMOUNT_OF_WAYS; i++) {
+      mappings.add(new IdMapping(i, i, false));
+    }
+    return mappings;
+  }
+
+  /**
+   * Imports the given data into an empty database with the given settings and
+   * logs the inserted rows per second.
+   *
+   * @param jdbcUrl          The JDBC URL of the database to use
+   * @param rowsPerStatement The amount of rows inserted by a single statement
+   * @param batchSize        The amount of rows after which a batch is executed
+   * @param entities         The entities to import
+   * @param mappings         The ID mappings to import
+   * @throws SQLException If an SQL exception occurred while trying to reset the
+   *                      database
+   * @throws IOException  If an I/O exception occurred while trying to read the
+   *                      database scripts
+   */
+  private static void measure(final String jdbcUrl, final int rowsPerStatement, final int batchSize,
+      final List<OsmEntity> entities, final List<IdMapping> mappings) throws SQLException, IOException {
+    final ConfigStore config = new ConfigStore();
+    config.setSetting("jdbcUrl", jdbcUrl);
+    config.setSetting("dbInsertRowsPerStatement", String.valueOf(rowsPerStatement));
+    config.setSetting("dbBatchSize", String.valueOf(batchSize));
+
+    // Start with an empty database
+    try (Connection connection = DriverManager.getConnection(jdbcUrl)) {
+      ScriptExecutor.executeScript(config.getCleanDbScript(), connection);
+    }
+    final ExternalDatabase database = new ExternalDatabase(config);
+    database.initialize();
+
+    final long startTime = System.nanoTime();
+    database.offerOsmEntities(entities, entities.size());
+    database.offerIdMappings(mappings, mappings.size());
+    final long importTime = System.nanoTime() - startTime;
+    database.finishImport();
+    final long indexTime = System.nanoTime() - startTime - importTime;
+    database.shutdown();
+
+    // Every node is inserted into two tables
+    final long rows = 2L * AMOUNT_OF_NODES + AMOUNT_OF_WAYS + mappings.size();
+    final double seconds = importTime / 1_000_000_000.0;
+    LOGGER.info("{} rows per statement, batch size {}: {} rows in {} s, {} rows/s, indices took {} ms",
+        rowsPerStatement, batchSize, rows, seconds, (long) (rows / seconds), indexTime / 1_000_000L);
+  }
+
+  /**
+   * Utility class. No implementation.
+   */
+  private DatabaseImportBenchmark() {
+
+  }
+}
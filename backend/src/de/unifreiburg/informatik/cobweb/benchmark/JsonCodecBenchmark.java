@@ -0,0 +1,152 @@
+package de.unifreiburg.informatik.cobweb.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.routing.server.model.ERouteElementType;
+import de.unifreiburg.informatik.cobweb.routing.server.model.Journey;
+import de.unifreiburg.informatik.cobweb.routing.server.model.RouteElement;
+import de.unifreiburg.informatik.cobweb.routing.server.model.RoutingRequest;
+import de.unifreiburg.informatik.cobweb.routing.server.model.RoutingResponse;
+import de.unifreiburg.informatik.cobweb.util.MemberFieldNamingStrategy;
+import de.unifreiburg.informatik.cobweb.util.http.json.JsonCodecs;
+
+/**
+ * Micro-benchmark which compares the JSON encoding of requests and responses
+ * using reflection with the type adapters of {@link JsonCodecs}.<br>
+ * <br>
+ * For both variants it measures the average time and the average amount of
+ * allocated bytes per request, once for decoding a routing request and once
+ * for encoding a routing response with a route of realistic size. The
+ * reflection based variant builds a new GSON object for every request, like
+ * the servers did before. The results are logged. Run with
+ * {@link #main(String[])}, it needs no data files.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class JsonCodecBenchmark {
+  /**
+   * The amount of coordinates of the route used for encoding.
+   */
+  private static final int COORDINATES_PER_ROUTE = 500;
+  /**
+   * The amount of measured iterations.
+   */
+  private static final int ITERATIONS = 20_000;
+  /**
+   * Logger used for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(JsonCodecBenchmark.class);
+  /**
+   * The request used for decoding.
+   */
+  private static final String REQUEST = "{\"from\":1,\"to\":2,\"depTime\":1539165600000,\"modes\":[0,2]}";
+  /**
+   * The amount of iterations used to warm up before measuring.
+   */
+  private static final int WARMUP_ITERATIONS = 20_000;
+
+  /**
+   * Starts the benchmark.
+   *
+   * @param args Not supported
+   */
+  public static void main(final String[] args) {
+    final RoutingResponse response = JsonCodecBenchmark.createResponse();
+    final Gson sharedGson = JsonCodecs.getGson();
+
+    JsonCodecBenchmark.measure("Decode request, reflection",
+        () -> JsonCodecBenchmark.createReflectionGson().fromJson(REQUEST, RoutingRequest.class));
+    JsonCodecBenchmark.measure("Decode request, codecs", () -> sharedGson.fromJson(REQUEST, RoutingRequest.class));
+    JsonCodecBenchmark.measure("Encode response, reflection",
+        () -> JsonCodecBenchmark.createReflectionGson().toJson(response));
+    JsonCodecBenchmark.measure("Encode response, codecs", () -> sharedGson.toJson(response));
+  }
+
+  /**
+   * Creates a GSON object which uses reflection, like the servers did before.
+   *
+   * @return The created GSON object
+   */
+  private static Gson createReflectionGson() {
+    return new GsonBuilder().setFieldNamingStrategy(new MemberFieldNamingStrategy()).create();
+  }
+
+  /**
+   * Creates the routing response used for encoding.
+   *
+   * @return The created response
+   */
+  private static RoutingResponse createResponse() {
+    final List<float[]> geom = new ArrayList<>(COORDINATES_PER_ROUTE);
+    for (int i = 0; i < COORDINATES_PER_ROUTE; i++) {
+      geom.add(new float[] { 48.0F + i * 0.0001F, 7.8F + i * 0.0001F });
+    }
+    final List<RouteElement> route = new ArrayList<>();
+    route.add(new RouteElement(ERouteElementType.NODE, "Start", Collections.singletonList(geom.get(0))));
+    route.add(new RouteElement(ERouteElementType.PATH, ETransportationMode.CAR, "Hauptstraße", geom));
+    route.add(new RouteElement(ERouteElementType.NODE, "Destination",
+        Collections.singletonList(geom.get(geom.size() - 1))));
+    final Journey journey = new Journey(1_539_165_600_000L, 1_539_166_200_000L, route);
+    return new RoutingResponse(5L, 3L, 1L, 2L, Collections.singletonList(journey));
+  }
+
+  /**
+   * Gets the amount of bytes allocated by the current thread so far.
+   *
+   * @return The amount of allocated bytes or <code>-1</code> if the runtime
+   *         does not support measuring it
+   */
+  private static long getAllocatedBytes() {
+    final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (bean instanceof com.sun.management.ThreadMXBean) {
+      return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().threadId());
+    }
+    return -1L;
+  }
+
+  /**
+   * Measures the given task and logs the average time and allocated bytes per
+   * execution.
+   *
+   * @param name The name of the task used for logging
+   * @param task The task to measure
+   */
+  private static void measure(final String name, final Supplier<?> task) {
+    // Use the results such that the computation can not be eliminated
+    int checksum = 0;
+    for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+      checksum += task.get().hashCode();
+    }
+
+    final long startBytes = JsonCodecBenchmark.getAllocatedBytes();
+    final long startTime = System.nanoTime();
+    for (int i = 0; i < ITERATIONS; i++) {
+      checksum += task.get().hashCode();
+    }
+    final long endTime = System.nanoTime();
+    final long endBytes = JsonCodecBenchmark.getAllocatedBytes();
+
+    final long nanosPerRequest = (endTime - startTime) / ITERATIONS;
+    final long bytesPerRequest = (endBytes - startBytes) / ITERATIONS;
+    LOGGER.info("{}: {} ns/request, {} bytes/request (checksum {})", name, nanosPerRequest, bytesPerRequest,
+        checksum);
+  }
+
+  /**
+   * Utility class. No implementation.
+   */
+  private JsonCodecBenchmark() {
+
+  }
+}
@@ -20,7 +20,7 @@ import de.unifreiburg.informatik.cobweb.routing.model.ERoutingModelMode;
  * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
  */
 public final class ConfigStore implements IConfigProvider, IParseConfigProvider, IRoutingConfigProvider,
-    INameSearchConfigProvider, IDatabaseConfigProvider, INearestSearchConfigProvider {
+    INameSearchConfigProvider, IDatabaseConfigProvider, INearestSearchConfigProvider, IHttpServerConfigProvider {
   /**
    * The logger to use for logging.
    */
@@ -49,6 +49,16 @@ public final class ConfigStore implements IConfigProvider, IParseConfigProvider,
     return Integer.valueOf(getSetting(ConfigUtil.KEY_ABORT_TRAVEL_TIME_TO_ACCESS_NODES));
   }
 
+  @Override
+  public int getAccessLegCacheSize() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_ACCESS_LEG_CACHE_SIZE));
+  }
+
+  @Override
+  public int getAccessLegCacheTimeToLive() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_ACCESS_LEG_CACHE_TIME_TO_LIVE));
+  }
+
   @Override
   public int getAccessNodesMaximum() {
     return Integer.valueOf(getSetting(ConfigUtil.KEY_ACCESS_NODES_MAXIMUM));
@@ -69,11 +79,41 @@ public final class ConfigStore implements IConfigProvider, IParseConfigProvider,
     return Paths.get(getSetting(ConfigUtil.KEY_CLEAN_DB_SCRIPT));
   }
 
+  @Override
+  public int getDbBatchSize() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_DB_BATCH_SIZE));
+  }
+
+  @Override
+  public int getDbCacheSize() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_DB_CACHE_SIZE));
+  }
+
   @Override
   public Path getDbInfo() {
     return Paths.get(getSetting(ConfigUtil.KEY_DB_INFO));
   }
 
+  @Override
+  public int getDbInsertRowsPerStatement() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_DB_INSERT_ROWS_PER_STATEMENT));
+  }
+
+  @Override
+  public int getDbPoolSize() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_DB_POOL_SIZE));
+  }
+
+  @Override
+  public int getDbPoolTimeout() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_DB_POOL_TIMEOUT));
+  }
+
+  @Override
+  public int getDbStatementCacheSize() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_DB_STATEMENT_CACHE_SIZE));
+  }
+
   @Override
   public int getFootpathReachability() {
     return Integer.valueOf(getSetting(ConfigUtil.KEY_FOOTPATH_REACHABILITY));
@@ -94,6 +134,41 @@ public final class ConfigStore implements IConfigProvider, IParseConfigProvider,
     return Paths.get(getSetting(ConfigUtil.KEY_GTFS_DIRECTORY));
   }
 
+  @Override
+  public int getHttpKeepAliveTimeout() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_HTTP_KEEP_ALIVE_TIMEOUT));
+  }
+
+  @Override
+  public int getHttpMaxQueueTime() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_HTTP_MAX_QUEUE_TIME));
+  }
+
+  @Override
+  public int getHttpMaxRequestsPerConnection() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_HTTP_MAX_REQUESTS_PER_CONNECTION));
+  }
+
+  @Override
+  public int getHttpRetryAfter() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_HTTP_RETRY_AFTER));
+  }
+
+  @Override
+  public int getHttpServerAmountOfWorkers() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_HTTP_SERVER_AMOUNT_OF_WORKERS));
+  }
+
+  @Override
+  public int getHttpServerPort() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_HTTP_SERVER_PORT));
+  }
+
+  @Override
+  public Path getIndexDbScript() {
+    return Paths.get(getSetting(ConfigUtil.KEY_INDEX_DB_SCRIPT));
+  }
+
   @Override
   public Path getInitDbScript() {
     return Paths.get(getSetting(ConfigUtil.KEY_INIT_DB_SCRIPT));
@@ -104,21 +179,56 @@ public final class ConfigStore implements IConfigProvider, IParseConfigProvider,
     return getSetting(ConfigUtil.KEY_JDBC_URL);
   }
 
+  @Override
+  public Path getMappedDbDirectory() {
+    return Paths.get(getSetting(ConfigUtil.KEY_MAPPED_DB_DIRECTORY));
+  }
+
   @Override
   public int getMatchLimit() {
     return Integer.valueOf(getSetting(ConfigUtil.KEY_NAME_SEARCH_SERVER_MATCH_LIMIT));
   }
 
+  @Override
+  public int getNameSearchMaxConcurrentRequests() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_NAME_SEARCH_MAX_CONCURRENT_REQUESTS));
+  }
+
+  @Override
+  public int getNameSearchRequestQueueSize() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_NAME_SEARCH_REQUEST_QUEUE_SIZE));
+  }
+
   @Override
   public int getNameSearchServerPort() {
     return Integer.valueOf(getSetting(ConfigUtil.KEY_NAME_SEARCH_SERVER_PORT));
   }
 
+  @Override
+  public int getNearestSearchMaxConcurrentRequests() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_NEAREST_SEARCH_MAX_CONCURRENT_REQUESTS));
+  }
+
+  @Override
+  public int getNearestSearchRequestQueueSize() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_NEAREST_SEARCH_REQUEST_QUEUE_SIZE));
+  }
+
   @Override
   public int getNearestSearchServerPort() {
     return Integer.valueOf(getSetting(ConfigUtil.KEY_NEAREST_SEARCH_SERVER_PORT));
   }
 
+  @Override
+  public Path getOsmChangeDirectory() {
+    return Paths.get(getSetting(ConfigUtil.KEY_OSM_CHANGE_DIRECTORY));
+  }
+
+  @Override
+  public int getOsmChangePollInterval() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_OSM_CHANGE_POLL_INTERVAL));
+  }
+
   @Override
   public Path getOsmDirectory() {
     return Paths.get(getSetting(ConfigUtil.KEY_OSM_DIRECTORY));
@@ -129,11 +239,51 @@ public final class ConfigStore implements IConfigProvider, IParseConfigProvider,
     return Paths.get(getSetting(ConfigUtil.KEY_OSM_ROAD_FILTER));
   }
 
+  @Override
+  public int getRoutingComputationTimeout() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_ROUTING_COMPUTATION_TIMEOUT));
+  }
+
+  @Override
+  public int getRoutingDepTimeRounding() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_ROUTING_DEP_TIME_ROUNDING));
+  }
+
+  @Override
+  public int getRoutingIsochroneMaxBudget() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_ROUTING_ISOCHRONE_MAX_BUDGET));
+  }
+
+  @Override
+  public int getRoutingMatrixMaxSize() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_ROUTING_MATRIX_MAX_SIZE));
+  }
+
+  @Override
+  public int getRoutingMaxConcurrentRequests() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_ROUTING_MAX_CONCURRENT_REQUESTS));
+  }
+
   @Override
   public ERoutingModelMode getRoutingModelMode() {
     return ERoutingModelMode.valueOf(getSetting(ConfigUtil.KEY_ROUTING_MODEL_MODE));
   }
 
+  @Override
+  public int getRoutingRequestQueueSize() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_ROUTING_REQUEST_QUEUE_SIZE));
+  }
+
+  @Override
+  public int getRoutingResultCacheSize() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_ROUTING_RESULT_CACHE_SIZE));
+  }
+
+  @Override
+  public int getRoutingResultCacheTimeToLive() {
+    return Integer.valueOf(getSetting(ConfigUtil.KEY_ROUTING_RESULT_CACHE_TIME_TO_LIVE));
+  }
+
   @Override
   public int getRoutingServerPort() {
     return Integer.valueOf(getSetting(ConfigUtil.KEY_ROUTING_SERVER_PORT));
@@ -166,6 +316,16 @@ public final class ConfigStore implements IConfigProvider, IParseConfigProvider,
     mSettings.put(key, value);
   }
 
+  @Override
+  public boolean useCompactTransitGraph() {
+    return Boolean.valueOf(getSetting(ConfigUtil.KEY_USE_COMPACT_TRANSIT_GRAPH));
+  }
+
+  @Override
+  public boolean useDbCacheWarmUp() {
+    return Boolean.valueOf(getSetting(ConfigUtil.KEY_USE_DB_CACHE_WARM_UP));
+  }
+
   @Override
   public boolean useExternalDb() {
     return Boolean.valueOf(getSetting(ConfigUtil.KEY_USE_EXTERNAL_DB));
@@ -176,6 +336,31 @@ public final class ConfigStore implements IConfigProvider, IParseConfigProvider,
     return Boolean.valueOf(getSetting(ConfigUtil.KEY_USE_GRAPH_CACHE));
   }
 
+  @Override
+  public boolean useLightweightGtfsReader() {
+    return Boolean.valueOf(getSetting(ConfigUtil.KEY_USE_LIGHTWEIGHT_GTFS_READER));
+  }
+
+  @Override
+  public boolean useMappedDb() {
+    return Boolean.valueOf(getSetting(ConfigUtil.KEY_USE_MAPPED_DB));
+  }
+
+  @Override
+  public boolean useSharedHttpServer() {
+    return Boolean.valueOf(getSetting(ConfigUtil.KEY_USE_SHARED_HTTP_SERVER));
+  }
+
+  @Override
+  public boolean useTwoPassRoadImport() {
+    return Boolean.valueOf(getSetting(ConfigUtil.KEY_USE_TWO_PASS_ROAD_IMPORT));
+  }
+
+  @Override
+  public boolean useVirtualThreads() {
+    return Boolean.valueOf(getSetting(ConfigUtil.KEY_USE_VIRTUAL_THREADS));
+  }
+
   /**
    * Gets the default value stored for the given key or <code>null</code> if there
    * is no.
@@ -197,13 +382,27 @@ public final class ConfigStore implements IConfigProvider, IParseConfigProvider,
     // Database settings
     mDefaultSettings.put(ConfigUtil.KEY_JDBC_URL, ConfigUtil.VALUE_JDBC_URL);
     mDefaultSettings.put(ConfigUtil.KEY_INIT_DB_SCRIPT, ConfigUtil.VALUE_INIT_DB_SCRIPT.toString());
+    mDefaultSettings.put(ConfigUtil.KEY_INDEX_DB_SCRIPT, ConfigUtil.VALUE_INDEX_DB_SCRIPT.toString());
     mDefaultSettings.put(ConfigUtil.KEY_CLEAN_DB_SCRIPT, ConfigUtil.VALUE_CLEAN_DB_SCRIPT.toString());
     mDefaultSettings.put(ConfigUtil.KEY_USE_EXTERNAL_DB, String.valueOf(ConfigUtil.VALUE_USE_EXTERNAL_DB));
     mDefaultSettings.put(ConfigUtil.KEY_DB_INFO, ConfigUtil.VALUE_DB_INFO.toString());
+    mDefaultSettings.put(ConfigUtil.KEY_DB_POOL_SIZE, String.valueOf(ConfigUtil.VALUE_DB_POOL_SIZE));
+    mDefaultSettings.put(ConfigUtil.KEY_DB_POOL_TIMEOUT, String.valueOf(ConfigUtil.VALUE_DB_POOL_TIMEOUT));
+    mDefaultSettings.put(ConfigUtil.KEY_DB_STATEMENT_CACHE_SIZE,
+        String.valueOf(ConfigUtil.VALUE_DB_STATEMENT_CACHE_SIZE));
+    mDefaultSettings.put(ConfigUtil.KEY_DB_BATCH_SIZE, String.valueOf(ConfigUtil.VALUE_DB_BATCH_SIZE));
+    mDefaultSettings.put(ConfigUtil.KEY_DB_INSERT_ROWS_PER_STATEMENT,
+        String.valueOf(ConfigUtil.VALUE_DB_INSERT_ROWS_PER_STATEMENT));
+    mDefaultSettings.put(ConfigUtil.KEY_DB_CACHE_SIZE, String.valueOf(ConfigUtil.VALUE_DB_CACHE_SIZE));
+    mDefaultSettings.put(ConfigUtil.KEY_USE_DB_CACHE_WARM_UP, String.valueOf(ConfigUtil.VALUE_USE_DB_CACHE_WARM_UP));
+    mDefaultSettings.put(ConfigUtil.KEY_USE_MAPPED_DB, String.valueOf(ConfigUtil.VALUE_USE_MAPPED_DB));
+    mDefaultSettings.put(ConfigUtil.KEY_MAPPED_DB_DIRECTORY, ConfigUtil.VALUE_MAPPED_DB_DIRECTORY.toString());
 
     // Parse settings
     mDefaultSettings.put(ConfigUtil.KEY_OSM_DIRECTORY, ConfigUtil.VALUE_OSM_DIRECTORY.toString());
     mDefaultSettings.put(ConfigUtil.KEY_GTFS_DIRECTORY, ConfigUtil.VALUE_GTFS_DIRECTORY.toString());
+    mDefaultSettings.put(ConfigUtil.KEY_USE_LIGHTWEIGHT_GTFS_READER,
+        String.valueOf(ConfigUtil.VALUE_USE_LIGHTWEIGHT_GTFS_READER));
 
     // Routing settings
     mDefaultSettings.put(ConfigUtil.KEY_GRAPH_CACHE, ConfigUtil.VALUE_GRAPH_CACHE.toString());
@@ -211,6 +410,9 @@ public final class ConfigStore implements IConfigProvider, IParseConfigProvider,
     mDefaultSettings.put(ConfigUtil.KEY_GRAPH_CACHE_INFO, ConfigUtil.VALUE_GRAPH_CACHE_INFO.toString());
     mDefaultSettings.put(ConfigUtil.KEY_ROUTING_SERVER_PORT, String.valueOf(ConfigUtil.VALUE_ROUTING_SERVER_PORT));
     mDefaultSettings.put(ConfigUtil.KEY_OSM_ROAD_FILTER, ConfigUtil.VALUE_OSM_ROAD_FILTER.toString());
+    mDefaultSettings.put(ConfigUtil.KEY_OSM_CHANGE_DIRECTORY, ConfigUtil.VALUE_OSM_CHANGE_DIRECTORY.toString());
+    mDefaultSettings.put(ConfigUtil.KEY_OSM_CHANGE_POLL_INTERVAL,
+        String.valueOf(ConfigUtil.VALUE_OSM_CHANGE_POLL_INTERVAL));
     mDefaultSettings.put(ConfigUtil.KEY_ROUTING_MODEL_MODE, ConfigUtil.VALUE_ROUTING_MODEL_MODE);
     mDefaultSettings.put(ConfigUtil.KEY_ACCESS_NODES_MAXIMUM, String.valueOf(ConfigUtil.VALUE_ACCESS_NODES_MAXIMUM));
     mDefaultSettings.put(ConfigUtil.KEY_FOOTPATH_REACHABILITY, String.valueOf(ConfigUtil.VALUE_FOOTPATH_REACHABILITY));
@@ -218,16 +420,61 @@ public final class ConfigStore implements IConfigProvider, IParseConfigProvider,
     mDefaultSettings.put(ConfigUtil.KEY_ABORT_TRAVEL_TIME_TO_ACCESS_NODES,
         String.valueOf(ConfigUtil.VALUE_ABORT_TRAVEL_TIME_TO_ACCESS_NODES));
     mDefaultSettings.put(ConfigUtil.KEY_AMOUNT_OF_LANDMARKS, String.valueOf(ConfigUtil.VALUE_AMOUNT_OF_LANDMARKS));
+    mDefaultSettings.put(ConfigUtil.KEY_USE_COMPACT_TRANSIT_GRAPH,
+        String.valueOf(ConfigUtil.VALUE_USE_COMPACT_TRANSIT_GRAPH));
+    mDefaultSettings.put(ConfigUtil.KEY_ACCESS_LEG_CACHE_SIZE, String.valueOf(ConfigUtil.VALUE_ACCESS_LEG_CACHE_SIZE));
+    mDefaultSettings.put(ConfigUtil.KEY_ACCESS_LEG_CACHE_TIME_TO_LIVE,
+        String.valueOf(ConfigUtil.VALUE_ACCESS_LEG_CACHE_TIME_TO_LIVE));
+    mDefaultSettings.put(ConfigUtil.KEY_ROUTING_MAX_CONCURRENT_REQUESTS,
+        String.valueOf(ConfigUtil.VALUE_ROUTING_MAX_CONCURRENT_REQUESTS));
+    mDefaultSettings.put(ConfigUtil.KEY_ROUTING_REQUEST_QUEUE_SIZE,
+        String.valueOf(ConfigUtil.VALUE_ROUTING_REQUEST_QUEUE_SIZE));
+    mDefaultSettings.put(ConfigUtil.KEY_ROUTING_COMPUTATION_TIMEOUT,
+        String.valueOf(ConfigUtil.VALUE_ROUTING_COMPUTATION_TIMEOUT));
+    mDefaultSettings.put(ConfigUtil.KEY_ROUTING_MATRIX_MAX_SIZE,
+        String.valueOf(ConfigUtil.VALUE_ROUTING_MATRIX_MAX_SIZE));
+    mDefaultSettings.put(ConfigUtil.KEY_ROUTING_ISOCHRONE_MAX_BUDGET,
+        String.valueOf(ConfigUtil.VALUE_ROUTING_ISOCHRONE_MAX_BUDGET));
+    mDefaultSettings.put(ConfigUtil.KEY_ROUTING_DEP_TIME_ROUNDING,
+        String.valueOf(ConfigUtil.VALUE_ROUTING_DEP_TIME_ROUNDING));
+    mDefaultSettings.put(ConfigUtil.KEY_ROUTING_RESULT_CACHE_SIZE,
+        String.valueOf(ConfigUtil.VALUE_ROUTING_RESULT_CACHE_SIZE));
+    mDefaultSettings.put(ConfigUtil.KEY_ROUTING_RESULT_CACHE_TIME_TO_LIVE,
+        String.valueOf(ConfigUtil.VALUE_ROUTING_RESULT_CACHE_TIME_TO_LIVE));
+    mDefaultSettings.put(ConfigUtil.KEY_USE_TWO_PASS_ROAD_IMPORT,
+        String.valueOf(ConfigUtil.VALUE_USE_TWO_PASS_ROAD_IMPORT));
 
     // Name search settings
     mDefaultSettings.put(ConfigUtil.KEY_NAME_SEARCH_SERVER_PORT,
         String.valueOf(ConfigUtil.VALUE_NAME_SEARCH_SERVER_PORT));
     mDefaultSettings.put(ConfigUtil.KEY_NAME_SEARCH_SERVER_MATCH_LIMIT,
         String.valueOf(ConfigUtil.VALUE_NAME_SEARCH_SERVER_MATCH_LIMIT));
+    mDefaultSettings.put(ConfigUtil.KEY_NAME_SEARCH_MAX_CONCURRENT_REQUESTS,
+        String.valueOf(ConfigUtil.VALUE_NAME_SEARCH_MAX_CONCURRENT_REQUESTS));
+    mDefaultSettings.put(ConfigUtil.KEY_NAME_SEARCH_REQUEST_QUEUE_SIZE,
+        String.valueOf(ConfigUtil.VALUE_NAME_SEARCH_REQUEST_QUEUE_SIZE));
 
     // Nearest search settings
     mDefaultSettings.put(ConfigUtil.KEY_NEAREST_SEARCH_SERVER_PORT,
         String.valueOf(ConfigUtil.VALUE_NEAREST_SEARCH_SERVER_PORT));
+    mDefaultSettings.put(ConfigUtil.KEY_NEAREST_SEARCH_MAX_CONCURRENT_REQUESTS,
+        String.valueOf(ConfigUtil.VALUE_NEAREST_SEARCH_MAX_CONCURRENT_REQUESTS));
+    mDefaultSettings.put(ConfigUtil.KEY_NEAREST_SEARCH_REQUEST_QUEUE_SIZE,
+        String.valueOf(ConfigUtil.VALUE_NEAREST_SEARCH_REQUEST_QUEUE_SIZE));
+
+    // HTTP server settings
+    mDefaultSettings.put(ConfigUtil.KEY_HTTP_SERVER_PORT, String.valueOf(ConfigUtil.VALUE_HTTP_SERVER_PORT));
+    mDefaultSettings.put(ConfigUtil.KEY_HTTP_SERVER_AMOUNT_OF_WORKERS,
+        String.valueOf(ConfigUtil.VALUE_HTTP_SERVER_AMOUNT_OF_WORKERS));
+    mDefaultSettings.put(ConfigUtil.KEY_HTTP_KEEP_ALIVE_TIMEOUT,
+        String.valueOf(ConfigUtil.VALUE_HTTP_KEEP_ALIVE_TIMEOUT));
+    mDefaultSettings.put(ConfigUtil.KEY_HTTP_MAX_REQUESTS_PER_CONNECTION,
+        String.valueOf(ConfigUtil.VALUE_HTTP_MAX_REQUESTS_PER_CONNECTION));
+    mDefaultSettings.put(ConfigUtil.KEY_HTTP_MAX_QUEUE_TIME, String.valueOf(ConfigUtil.VALUE_HTTP_MAX_QUEUE_TIME));
+    mDefaultSettings.put(ConfigUtil.KEY_HTTP_RETRY_AFTER, String.valueOf(ConfigUtil.VALUE_HTTP_RETRY_AFTER));
+    mDefaultSettings.put(ConfigUtil.KEY_USE_SHARED_HTTP_SERVER,
+        String.valueOf(ConfigUtil.VALUE_USE_SHARED_HTTP_SERVER));
+    mDefaultSettings.put(ConfigUtil.KEY_USE_VIRTUAL_THREADS, String.valueOf(ConfigUtil.VALUE_USE_VIRTUAL_THREADS));
   }
 
 }
@@ -15,6 +15,16 @@ final class ConfigUtil {
    * shortest path computation to access nodes.
    */
   static final String KEY_ABORT_TRAVEL_TIME_TO_ACCESS_NODES = "abortTravelTimeToAccessNodes";
+  /**
+   * Name of the key that stores the maximal amount of entries of the access
+   * leg cache.
+   */
+  static final String KEY_ACCESS_LEG_CACHE_SIZE = "accessLegCacheSize";
+  /**
+   * Name of the key that stores the time in seconds after which entries of the
+   * access leg cache expire.
+   */
+  static final String KEY_ACCESS_LEG_CACHE_TIME_TO_LIVE = "accessLegCacheTimeToLive";
   /**
    * Name of the key that stores the maximal allowed amount of access nodes to
    * use when transferring from a road node to a transit stop.
@@ -30,10 +40,40 @@ final class ConfigUtil {
    * cleaning the external database.
    */
   static final String KEY_CLEAN_DB_SCRIPT = "cleanDbScript";
+  /**
+   * Name of the key that stores the amount of rows after which a batch of
+   * insertions into the external database is executed.
+   */
+  static final String KEY_DB_BATCH_SIZE = "dbBatchSize";
+  /**
+   * Name of the key that stores the maximal amount of entries cached per kind
+   * of lookup of the external database, <code>0</code> to disable the cache.
+   */
+  static final String KEY_DB_CACHE_SIZE = "dbCacheSize";
   /**
    * Name of the key that stores the path to the database info object.
    */
   static final String KEY_DB_INFO = "dbInfo";
+  /**
+   * Name of the key that stores the amount of rows inserted into the external
+   * database by a single insert statement.
+   */
+  static final String KEY_DB_INSERT_ROWS_PER_STATEMENT = "dbInsertRowsPerStatement";
+  /**
+   * Name of the key that stores the maximal amount of connections to the
+   * external database.
+   */
+  static final String KEY_DB_POOL_SIZE = "dbPoolSize";
+  /**
+   * Name of the key that stores the time in seconds after which waiting for a
+   * connection to the external database is aborted.
+   */
+  static final String KEY_DB_POOL_TIMEOUT = "dbPoolTimeout";
+  /**
+   * Name of the key that stores the maximal amount of prepared statements
+   * cached per connection to the external database.
+   */
+  static final String KEY_DB_STATEMENT_CACHE_SIZE = "dbStatementCacheSize";
   /**
    * Name of the key that stores the range in meters stops should get connected
    * by footpaths.
@@ -52,6 +92,40 @@ final class ConfigUtil {
    * data are stored.
    */
   static final String KEY_GTFS_DIRECTORY = "gtfsDirectory";
+  /**
+   * Name of the key that stores the time in seconds a persistent HTTP
+   * connection may be idle before it is closed.
+   */
+  static final String KEY_HTTP_KEEP_ALIVE_TIMEOUT = "httpKeepAliveTimeout";
+  /**
+   * Name of the key that stores the maximal time in seconds a request waits
+   * for admission before it is rejected.
+   */
+  static final String KEY_HTTP_MAX_QUEUE_TIME = "httpMaxQueueTime";
+  /**
+   * Name of the key that stores the maximal amount of requests answered over
+   * a single persistent HTTP connection.
+   */
+  static final String KEY_HTTP_MAX_REQUESTS_PER_CONNECTION = "httpMaxRequestsPerConnection";
+  /**
+   * Name of the key that stores the time in seconds after which clients whose
+   * request was rejected are advised to retry.
+   */
+  static final String KEY_HTTP_RETRY_AFTER = "httpRetryAfter";
+  /**
+   * Name of the key that stores the amount of worker threads of the shared
+   * HTTP server.
+   */
+  static final String KEY_HTTP_SERVER_AMOUNT_OF_WORKERS = "httpServerAmountOfWorkers";
+  /**
+   * Name of the key that stores the port the shared HTTP server should use.
+   */
+  static final String KEY_HTTP_SERVER_PORT = "httpServerPort";
+  /**
+   * Name of the key that stores the path to the SQL script to execute when
+   * the import into the external database finished.
+   */
+  static final String KEY_INDEX_DB_SCRIPT = "indexDbScript";
   /**
    * Name of the key that stores the path to the SQL script to execute when
    * initializing the external database.
@@ -62,6 +136,21 @@ final class ConfigUtil {
    * external database.
    */
   static final String KEY_JDBC_URL = "jdbcUrl";
+  /**
+   * Name of the key that stores the path to the directory of the memory-mapped
+   * database.
+   */
+  static final String KEY_MAPPED_DB_DIRECTORY = "mappedDbDirectory";
+  /**
+   * Name of the key that stores the maximal amount of name search requests
+   * that are handled concurrently.
+   */
+  static final String KEY_NAME_SEARCH_MAX_CONCURRENT_REQUESTS = "nameSearchMaxConcurrentRequests";
+  /**
+   * Name of the key that stores the maximal amount of name search requests
+   * that wait for admission.
+   */
+  static final String KEY_NAME_SEARCH_REQUEST_QUEUE_SIZE = "nameSearchRequestQueueSize";
   /**
    * Name of the key that stores the maximal amount of matches the name search
    * server should send.
@@ -71,10 +160,31 @@ final class ConfigUtil {
    * Name of the key that stores the port the name search server should use.
    */
   static final String KEY_NAME_SEARCH_SERVER_PORT = "nameSearchServerPort";
+  /**
+   * Name of the key that stores the maximal amount of nearest search requests
+   * that are handled concurrently.
+   */
+  static final String KEY_NEAREST_SEARCH_MAX_CONCURRENT_REQUESTS = "nearestSearchMaxConcurrentRequests";
+  /**
+   * Name of the key that stores the maximal amount of nearest search requests
+   * that wait for admission.
+   */
+  static final String KEY_NEAREST_SEARCH_REQUEST_QUEUE_SIZE = "nearestSearchRequestQueueSize";
   /**
    * Name of the key that stores the port the nearest search server should use.
    */
   static final String KEY_NEAREST_SEARCH_SERVER_PORT = "nearestSearchServerPort";
+  /**
+   * Name of the key that stores the path to the directory where OSM change
+   * files are stored which are applied to the running routing model.
+   */
+  static final String KEY_OSM_CHANGE_DIRECTORY = "osmChangeDirectory";
+  /**
+   * Name of the key that stores the interval in seconds in which the OSM
+   * change directory is checked for new change files, <code>0</code> to not
+   * apply change files.
+   */
+  static final String KEY_OSM_CHANGE_POLL_INTERVAL = "osmChangePollInterval";
   /**
    * Name of the key that stores the path to the directory where all OSM input
    * data are stored.
@@ -85,10 +195,50 @@ final class ConfigUtil {
    * ways in OSM data.
    */
   static final String KEY_OSM_ROAD_FILTER = "osmRoadFilter";
+  /**
+   * Name of the key that stores the time in seconds after which the
+   * computation of a routing request is aborted.
+   */
+  static final String KEY_ROUTING_COMPUTATION_TIMEOUT = "routingComputationTimeout";
+  /**
+   * Name of the key that stores the interval in seconds departure times of
+   * routing requests are rounded up to.
+   */
+  static final String KEY_ROUTING_DEP_TIME_ROUNDING = "routingDepTimeRounding";
+  /**
+   * Name of the key that stores the maximal travel time budget in seconds of
+   * an isochrone.
+   */
+  static final String KEY_ROUTING_ISOCHRONE_MAX_BUDGET = "routingIsochroneMaxBudget";
+  /**
+   * Name of the key that stores the maximal amount of entries of a travel time
+   * matrix.
+   */
+  static final String KEY_ROUTING_MATRIX_MAX_SIZE = "routingMatrixMaxSize";
+  /**
+   * Name of the key that stores the maximal amount of routing requests that
+   * are handled concurrently.
+   */
+  static final String KEY_ROUTING_MAX_CONCURRENT_REQUESTS = "routingMaxConcurrentRequests";
   /**
    * Name of the key that stores the mode to use for the routing model.
    */
   static final String KEY_ROUTING_MODEL_MODE = "routingModelMode";
+  /**
+   * Name of the key that stores the maximal amount of routing requests that
+   * wait for admission.
+   */
+  static final String KEY_ROUTING_REQUEST_QUEUE_SIZE = "routingRequestQueueSize";
+  /**
+   * Name of the key that stores the maximal amount of entries of the routing
+   * result cache.
+   */
+  static final String KEY_ROUTING_RESULT_CACHE_SIZE = "routingResultCacheSize";
+  /**
+   * Name of the key that stores the time in seconds after which entries of the
+   * routing result cache expire.
+   */
+  static final String KEY_ROUTING_RESULT_CACHE_TIME_TO_LIVE = "routingResultCacheTimeToLive";
   /**
    * Name of the key that stores the port the routing server should use.
    */
@@ -98,6 +248,16 @@ final class ConfigUtil {
    * stop takes.
    */
   static final String KEY_TRANSFER_DELAY = "transferDelay";
+  /**
+   * Name of the key that stores whether or not a compact transit graph should
+   * be used in the link graph routing model.
+   */
+  static final String KEY_USE_COMPACT_TRANSIT_GRAPH = "useCompactTransitGraph";
+  /**
+   * Name of the key that stores whether the cache of the external database
+   * should be filled when the import finished.
+   */
+  static final String KEY_USE_DB_CACHE_WARM_UP = "useDbCacheWarmUp";
   /**
    * Name of the key that stores whether the external or an internal in-memory
    * database should be used.
@@ -107,11 +267,46 @@ final class ConfigUtil {
    * Name of the key that stores whether or not the graph cache should be used.
    */
   static final String KEY_USE_GRAPH_CACHE = "useGraphCache";
+  /**
+   * Name of the key that stores whether or not the lightweight GTFS reader
+   * should be used instead of the onebusaway reader.
+   */
+  static final String KEY_USE_LIGHTWEIGHT_GTFS_READER = "useLightweightGtfsReader";
+  /**
+   * Name of the key that stores whether the memory-mapped database should be
+   * used if no external database is used.
+   */
+  static final String KEY_USE_MAPPED_DB = "useMappedDb";
+  /**
+   * Name of the key that stores whether or not all APIs should be served by
+   * the shared HTTP server.
+   */
+  static final String KEY_USE_SHARED_HTTP_SERVER = "useSharedHttpServer";
+  /**
+   * Name of the key that stores whether or not the road graph should be built
+   * in two passes over the OSM files, resolving node coordinates from the
+   * files instead of the database.
+   */
+  static final String KEY_USE_TWO_PASS_ROAD_IMPORT = "useTwoPassRoadImport";
+  /**
+   * Name of the key that stores whether or not requests should be handled on
+   * virtual threads.
+   */
+  static final String KEY_USE_VIRTUAL_THREADS = "useVirtualThreads";
   /**
    * Default travel time in seconds after which to abort shortest path
    * computation to access nodes.
    */
   static final int VALUE_ABORT_TRAVEL_TIME_TO_ACCESS_NODES = 900;
+  /**
+   * Default maximal amount of entries of the access leg cache.
+   */
+  static final int VALUE_ACCESS_LEG_CACHE_SIZE = 10_000;
+  /**
+   * Default time in seconds after which entries of the access leg cache
+   * expire.
+   */
+  static final int VALUE_ACCESS_LEG_CACHE_TIME_TO_LIVE = 3_600;
   /**
    * Default maximal allowed amount of access nodes to use when transferring
    * from a road node to a transit stop.
@@ -126,10 +321,40 @@ final class ConfigUtil {
    * database.
    */
   static final Path VALUE_CLEAN_DB_SCRIPT = Paths.get("res", "cache", "db", "scripts", "cleanDb.sql");
+  /**
+   * Default amount of rows after which a batch of insertions into the external
+   * database is executed.
+   */
+  static final int VALUE_DB_BATCH_SIZE = 10_000;
+  /**
+   * Default maximal amount of entries cached per kind of lookup of the
+   * external database. The cache is disabled by default.
+   */
+  static final int VALUE_DB_CACHE_SIZE = 0;
   /**
    * Default path to the database info object.
    */
   static final Path VALUE_DB_INFO = Paths.get("res", "cache", "db", "db.info");
+  /**
+   * Default amount of rows inserted into the external database by a single
+   * insert statement. Kept small enough to not exceed the limit of
+   * <code>999</code> parameters per statement of older SQLite versions.
+   */
+  static final int VALUE_DB_INSERT_ROWS_PER_STATEMENT = 100;
+  /**
+   * Default maximal amount of connections to the external database.
+   */
+  static final int VALUE_DB_POOL_SIZE = 8;
+  /**
+   * Default time in seconds after which waiting for a connection to the
+   * external database is aborted.
+   */
+  static final int VALUE_DB_POOL_TIMEOUT = 30;
+  /**
+   * Default maximal amount of prepared statements cached per connection to the
+   * external database.
+   */
+  static final int VALUE_DB_STATEMENT_CACHE_SIZE = 32;
   /**
    * Default range in meters stops should get connected by footpaths.
    */
@@ -146,6 +371,40 @@ final class ConfigUtil {
    * Default path to the directory that contains all GTFS data.
    */
   static final Path VALUE_GTFS_DIRECTORY = Paths.get("res", "input", "gtfs");
+  /**
+   * Default time in seconds a persistent HTTP connection may be idle before it
+   * is closed.
+   */
+  static final int VALUE_HTTP_KEEP_ALIVE_TIMEOUT = 5;
+  /**
+   * Default maximal time in seconds a request waits for admission before it
+   * is rejected.
+   */
+  static final int VALUE_HTTP_MAX_QUEUE_TIME = 10;
+  /**
+   * Default maximal amount of requests answered over a single persistent HTTP
+   * connection.
+   */
+  static final int VALUE_HTTP_MAX_REQUESTS_PER_CONNECTION = 100;
+  /**
+   * Default time in seconds after which clients whose request was rejected are
+   * advised to retry.
+   */
+  static final int VALUE_HTTP_RETRY_AFTER = 1;
+  /**
+   * Default amount of worker threads of the shared HTTP server,
+   * <code>0</code> uses one thread per available processor.
+   */
+  static final int VALUE_HTTP_SERVER_AMOUNT_OF_WORKERS = 0;
+  /**
+   * Default port to use by the shared HTTP server.
+   */
+  static final int VALUE_HTTP_SERVER_PORT = 2845;
+  /**
+   * Default path to the SQL script that is executed when the import into the
+   * external database finished.
+   */
+  static final Path VALUE_INDEX_DB_SCRIPT = Paths.get("res", "cache", "db", "scripts", "indexDb.sql");
   /**
    * Default path to the SQL script that is executed when initializing the
    * external database.
@@ -155,6 +414,19 @@ final class ConfigUtil {
    * Default JDBC URL to use when connecting to the external database.
    */
   static final String VALUE_JDBC_URL = "jdbc:sqlite:res/cache/db/routing.db";
+  /**
+   * Default path to the directory of the memory-mapped database.
+   */
+  static final Path VALUE_MAPPED_DB_DIRECTORY = Paths.get("res", "cache", "db", "mapped");
+  /**
+   * Default maximal amount of name search requests that are handled
+   * concurrently, <code>0</code> uses one per available processor.
+   */
+  static final int VALUE_NAME_SEARCH_MAX_CONCURRENT_REQUESTS = 0;
+  /**
+   * Default maximal amount of name search requests that wait for admission.
+   */
+  static final int VALUE_NAME_SEARCH_REQUEST_QUEUE_SIZE = 256;
   /**
    * Default maximal amount of matches the name search server sends.
    */
@@ -163,10 +435,31 @@ final class ConfigUtil {
    * Default port to use by the name search server.
    */
   static final int VALUE_NAME_SEARCH_SERVER_PORT = 2846;
+  /**
+   * Default maximal amount of nearest search requests that are handled
+   * concurrently, <code>0</code> uses one per available processor.
+   */
+  static final int VALUE_NEAREST_SEARCH_MAX_CONCURRENT_REQUESTS = 0;
+  /**
+   * Default maximal amount of nearest search requests that wait for
+   * admission.
+   */
+  static final int VALUE_NEAREST_SEARCH_REQUEST_QUEUE_SIZE = 256;
   /**
    * Default port to use by the nearest search server.
    */
   static final int VALUE_NEAREST_SEARCH_SERVER_PORT = 2847;
+  /**
+   * Default path to the directory that contains OSM change files. It must not
+   * be inside of the OSM directory, else the files would also be read as OSM
+   * data.
+   */
+  static final Path VALUE_OSM_CHANGE_DIRECTORY = Paths.get("res", "input", "osc");
+  /**
+   * Default interval in seconds in which the OSM change directory is checked
+   * for new change files. Change files are not applied by default.
+   */
+  static final int VALUE_OSM_CHANGE_POLL_INTERVAL = 0;
   /**
    * Default path to the directory that contains all OSM data.
    */
@@ -175,10 +468,47 @@ final class ConfigUtil {
    * Default path to the filter file used to filter road ways in OSM data.
    */
   static final Path VALUE_OSM_ROAD_FILTER = Paths.get("res", "filter", "osm", "road.filter");
+  /**
+   * Default time in seconds after which the computation of a routing request
+   * is aborted, <code>0</code> does not abort computations.
+   */
+  static final int VALUE_ROUTING_COMPUTATION_TIMEOUT = 30;
+  /**
+   * Default interval in seconds departure times of routing requests are
+   * rounded up to, <code>0</code> does not round departure times.
+   */
+  static final int VALUE_ROUTING_DEP_TIME_ROUNDING = 60;
+  /**
+   * Default maximal travel time budget in seconds of an isochrone.
+   */
+  static final int VALUE_ROUTING_ISOCHRONE_MAX_BUDGET = 3_600;
+  /**
+   * Default maximal amount of entries of a travel time matrix.
+   */
+  static final int VALUE_ROUTING_MATRIX_MAX_SIZE = 10_000;
+  /**
+   * Default maximal amount of routing requests that are handled concurrently,
+   * <code>0</code> uses one per available processor.
+   */
+  static final int VALUE_ROUTING_MAX_CONCURRENT_REQUESTS = 0;
   /**
    * The default mode to use for the routing model.
    */
   static final String VALUE_ROUTING_MODEL_MODE = "GRAPH_WITH_TIMETABLE";
+  /**
+   * Default maximal amount of routing requests that wait for admission.
+   */
+  static final int VALUE_ROUTING_REQUEST_QUEUE_SIZE = 64;
+  /**
+   * Default maximal amount of entries of the routing result cache,
+   * <code>0</code> disables the cache.
+   */
+  static final int VALUE_ROUTING_RESULT_CACHE_SIZE = 1_000;
+  /**
+   * Default time in seconds after which entries of the routing result cache
+   * expire.
+   */
+  static final int VALUE_ROUTING_RESULT_CACHE_TIME_TO_LIVE = 30;
   /**
    * Default port to use by the routing server.
    */
@@ -187,6 +517,16 @@ final class ConfigUtil {
    * Default amount in seconds a transfer at the same stop takes.
    */
   static final int VALUE_TRANSFER_DELAY = 180;
+  /**
+   * Whether or not a compact transit graph should be used in the link graph
+   * routing model.
+   */
+  static final boolean VALUE_USE_COMPACT_TRANSIT_GRAPH = false;
+  /**
+   * Whether the cache of the external database should be filled when the
+   * import finished.
+   */
+  static final boolean VALUE_USE_DB_CACHE_WARM_UP = false;
   /**
    * Whether an external or an internal in-memory database should be used.
    */
@@ -195,6 +535,29 @@ final class ConfigUtil {
    * Whether or not the graph cache should be used.
    */
   static final boolean VALUE_USE_GRAPH_CACHE = true;
+  /**
+   * Whether or not the lightweight GTFS reader should be used instead of the
+   * onebusaway reader.
+   */
+  static final boolean VALUE_USE_LIGHTWEIGHT_GTFS_READER = false;
+  /**
+   * Whether or not the memory-mapped database should be used if no external
+   * database is used.
+   */
+  static final boolean VALUE_USE_MAPPED_DB = false;
+  /**
+   * Whether or not all APIs should be served by the shared HTTP server.
+   */
+  static final boolean VALUE_USE_SHARED_HTTP_SERVER = false;
+  /**
+   * Whether or not the road graph should be built in two passes over the OSM
+   * files, resolving node coordinates from the files instead of the database.
+   */
+  static final boolean VALUE_USE_TWO_PASS_ROAD_IMPORT = false;
+  /**
+   * Whether or not requests should be handled on virtual threads.
+   */
+  static final boolean VALUE_USE_VIRTUAL_THREADS = false;
 
   /**
    * Utility class. No implementation.
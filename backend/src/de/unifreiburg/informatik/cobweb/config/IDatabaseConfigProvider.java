@@ -16,6 +16,22 @@ public interface IDatabaseConfigProvider {
    */
   Path getCleanDbScript();
 
+  /**
+   * Gets the amount of rows after which a batch of insertions into the
+   * external database is executed.
+   *
+   * @return The amount of rows per batch
+   */
+  int getDbBatchSize();
+
+  /**
+   * Gets the maximal amount of entries cached per kind of lookup of the
+   * external database. A value of <code>0</code> disables the cache.
+   *
+   * @return The maximal amount of cached entries
+   */
+  int getDbCacheSize();
+
   /**
    * Gets the path to the database info object that stores information about the
    * content of the database. Can be used to determine which data files need to
@@ -25,6 +41,47 @@ public interface IDatabaseConfigProvider {
    */
   Path getDbInfo();
 
+  /**
+   * Gets the amount of rows inserted into the external database by a single
+   * insert statement. A value of <code>1</code> only uses single-row
+   * statements, which are supported by all databases.
+   *
+   * @return The amount of rows per insert statement
+   */
+  int getDbInsertRowsPerStatement();
+
+  /**
+   * Gets the maximal amount of connections to the external database that are
+   * in use at the same time.
+   *
+   * @return The maximal amount of connections
+   */
+  int getDbPoolSize();
+
+  /**
+   * Gets the time in seconds after which waiting for a connection to the
+   * external database is aborted.
+   *
+   * @return The time in seconds after which waiting is aborted
+   */
+  int getDbPoolTimeout();
+
+  /**
+   * Gets the maximal amount of prepared statements that are cached per
+   * connection to the external database.
+   *
+   * @return The maximal amount of cached prepared statements
+   */
+  int getDbStatementCacheSize();
+
+  /**
+   * Gets the path to the SQL script that is executed once the import into an
+   * external database finished. It creates the indices used for lookups.
+   *
+   * @return The path to the SQL script
+   */
+  Path getIndexDbScript();
+
   /**
    * Gets the path to the SQL script that is executed to initialize an external
    * database.
@@ -40,6 +97,23 @@ public interface IDatabaseConfigProvider {
    */
   String getJdbcUrl();
 
+  /**
+   * Gets the path to the directory which stores the files of the memory-mapped
+   * database.
+   *
+   * @return The path to the directory
+   */
+  Path getMappedDbDirectory();
+
+  /**
+   * Whether the cache of the external database should be filled with the names
+   * of all named nodes when the import finished.
+   *
+   * @return <code>True</code> if the cache should be filled,
+   *         <code>false</code> otherwise
+   */
+  boolean useDbCacheWarmUp();
+
   /**
    * Whether an external or an internal in-memory database should be used.
    *
@@ -47,4 +121,13 @@ public interface IDatabaseConfigProvider {
    *         <code>false</code> otherwise
    */
   boolean useExternalDb();
+
+  /**
+   * Whether the memory-mapped or the internal in-memory database should be
+   * used if no external database is used.
+   *
+   * @return <code>True</code> if the memory-mapped database should be used,
+   *         <code>false</code> otherwise
+   */
+  boolean useMappedDb();
 }
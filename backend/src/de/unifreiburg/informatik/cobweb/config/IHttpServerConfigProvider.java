@@ -0,0 +1,80 @@
+package de.unifreiburg.informatik.cobweb.config;
+
+/**
+ * Interface for classes that provide configuration settings of the HTTP
+ * servers, like the shared HTTP server which serves all APIs on a single port,
+ * the handling of persistent connections and the admission control of
+ * requests.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public interface IHttpServerConfigProvider {
+  /**
+   * Gets the time in seconds a persistent HTTP connection may be idle before
+   * it is closed by the server.
+   *
+   * @return The keep-alive timeout in seconds
+   */
+  int getHttpKeepAliveTimeout();
+
+  /**
+   * Gets the maximal time in seconds a request waits for admission before it
+   * is rejected.
+   *
+   * @return The maximal queue time in seconds
+   */
+  int getHttpMaxQueueTime();
+
+  /**
+   * Gets the maximal amount of requests answered over a single persistent
+   * HTTP connection.
+   *
+   * @return The maximal amount of requests per connection, <code>1</code> or
+   *         less to close connections after the first response
+   */
+  int getHttpMaxRequestsPerConnection();
+
+  /**
+   * Gets the time in seconds after which clients whose request was rejected
+   * are advised to retry.
+   *
+   * @return The time in seconds to send in the <code>Retry-After</code> header
+   */
+  int getHttpRetryAfter();
+
+  /**
+   * Gets the amount of worker threads the shared HTTP server uses to compute
+   * responses of handlers without admission control. Handlers with admission
+   * control run on pools of their own.
+   *
+   * @return The amount of worker threads, <code>0</code> or less to use one
+   *         thread per available processor
+   */
+  int getHttpServerAmountOfWorkers();
+
+  /**
+   * Gets the port used by the shared HTTP server.
+   *
+   * @return The port used by the shared HTTP server
+   */
+  int getHttpServerPort();
+
+  /**
+   * Whether or not all APIs should be served by a shared non-blocking HTTP
+   * server on a single port instead of one blocking server per API.
+   *
+   * @return <code>True</code> if the shared HTTP server should be used,
+   *         <code>false</code> otherwise
+   */
+  boolean useSharedHttpServer();
+
+  /**
+   * Whether or not requests should be handled on virtual threads instead of
+   * platform threads. Route computations are then run on a fixed pool of
+   * platform threads.
+   *
+   * @return <code>True</code> if virtual threads should be used,
+   *         <code>false</code> otherwise
+   */
+  boolean useVirtualThreads();
+}
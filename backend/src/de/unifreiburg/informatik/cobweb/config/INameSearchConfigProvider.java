@@ -15,6 +15,23 @@ public interface INameSearchConfigProvider {
    */
   int getMatchLimit();
 
+  /**
+   * Gets the maximal amount of name search requests that are handled
+   * concurrently.
+   *
+   * @return The maximal amount of concurrent requests, <code>0</code> or less
+   *         to use one per available processor
+   */
+  int getNameSearchMaxConcurrentRequests();
+
+  /**
+   * Gets the maximal amount of name search requests that wait for admission.
+   * Further requests are rejected.
+   *
+   * @return The maximal amount of waiting requests
+   */
+  int getNameSearchRequestQueueSize();
+
   /**
    * Gets the port used by the name search server.
    *
@@ -7,6 +7,23 @@ package de.unifreiburg.informatik.cobweb.config;
  * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
  */
 public interface INearestSearchConfigProvider {
+  /**
+   * Gets the maximal amount of nearest search requests that are handled
+   * concurrently.
+   *
+   * @return The maximal amount of concurrent requests, <code>0</code> or less
+   *         to use one per available processor
+   */
+  int getNearestSearchMaxConcurrentRequests();
+
+  /**
+   * Gets the maximal amount of nearest search requests that wait for
+   * admission. Further requests are rejected.
+   *
+   * @return The maximal amount of waiting requests
+   */
+  int getNearestSearchRequestQueueSize();
+
   /**
    * Gets the port used by the nearest search server.
    *
@@ -21,4 +21,14 @@ public interface IParseConfigProvider {
    * @return The path to the OSM data
    */
   Path getOsmDirectory();
+
+  /**
+   * Whether or not the lightweight GTFS reader should be used instead of the
+   * onebusaway reader. The lightweight reader only reads the data needed for
+   * routing.
+   *
+   * @return <code>True</code> if the lightweight reader should be used,
+   *         <code>false</code> otherwise
+   */
+  boolean useLightweightGtfsReader();
 }
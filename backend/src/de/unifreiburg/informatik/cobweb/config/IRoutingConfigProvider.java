@@ -19,6 +19,24 @@ public interface IRoutingConfigProvider {
    */
   int getAbortTravelTimeToAccessNodes();
 
+  /**
+   * Gets the maximal amount of entries of the cache for access legs, i.e. the
+   * road paths between a node and its access nodes. A value of <code>0</code>
+   * disables the cache.
+   *
+   * @return The maximal amount of entries of the access leg cache
+   */
+  int getAccessLegCacheSize();
+
+  /**
+   * Gets the time in seconds after which entries of the access leg cache
+   * expire.
+   *
+   * @return The time in seconds after which entries of the access leg cache
+   *         expire
+   */
+  int getAccessLegCacheTimeToLive();
+
   /**
    * Gets the maximal allowed amount of access nodes to use when transferring
    * from a road node to a transit stop.
@@ -60,6 +78,23 @@ public interface IRoutingConfigProvider {
    */
   Path getGraphCacheInfo();
 
+  /**
+   * Gets the path to the directory that contains OSM change files, which are
+   * applied to the running routing model.
+   *
+   * @return The path to the directory
+   */
+  Path getOsmChangeDirectory();
+
+  /**
+   * Gets the interval in seconds in which the OSM change directory is checked
+   * for new change files.
+   *
+   * @return The interval in seconds, <code>0</code> or less to not apply
+   *         change files
+   */
+  int getOsmChangePollInterval();
+
   /**
    * Gets the path to the filter used to filter OSM roads.
    *
@@ -67,6 +102,52 @@ public interface IRoutingConfigProvider {
    */
   Path getOsmRoadFilter();
 
+  /**
+   * Gets the time in seconds after which the computation of a routing request
+   * is aborted. Requests whose computation was aborted are answered with
+   * <code>SERVICE UNAVAILABLE</code>.
+   *
+   * @return The computation timeout in seconds, <code>0</code> or less to not
+   *         abort computations
+   */
+  int getRoutingComputationTimeout();
+
+  /**
+   * Gets the interval in seconds departure times of routing requests are
+   * rounded up to. Requests that only differ in their departure time within
+   * the same interval are answered by the same computation.
+   *
+   * @return The rounding interval in seconds, <code>0</code> or less to not
+   *         round departure times
+   */
+  int getRoutingDepTimeRounding();
+
+  /**
+   * Gets the maximal travel time budget in seconds of an isochrone. Isochrone
+   * requests with larger budgets are rejected.
+   *
+   * @return The maximal travel time budget of an isochrone in seconds
+   */
+  int getRoutingIsochroneMaxBudget();
+
+  /**
+   * Gets the maximal amount of entries of a travel time matrix, i.e. the
+   * amount of sources times the amount of targets. Larger matrix requests are
+   * rejected.
+   *
+   * @return The maximal amount of entries of a travel time matrix
+   */
+  int getRoutingMatrixMaxSize();
+
+  /**
+   * Gets the maximal amount of routing requests that are handled
+   * concurrently.
+   *
+   * @return The maximal amount of concurrent requests, <code>0</code> or less
+   *         to use one per available processor
+   */
+  int getRoutingMaxConcurrentRequests();
+
   /**
    * The mode to use for the routing model.
    *
@@ -74,6 +155,30 @@ public interface IRoutingConfigProvider {
    */
   ERoutingModelMode getRoutingModelMode();
 
+  /**
+   * Gets the maximal amount of routing requests that wait for admission.
+   * Further requests are rejected.
+   *
+   * @return The maximal amount of waiting requests
+   */
+  int getRoutingRequestQueueSize();
+
+  /**
+   * Gets the maximal amount of entries of the routing result cache.
+   *
+   * @return The maximal amount of entries, <code>0</code> or less to disable
+   *         the cache
+   */
+  int getRoutingResultCacheSize();
+
+  /**
+   * Gets the time in seconds after which entries of the routing result cache
+   * expire.
+   *
+   * @return The time to live of entries in seconds
+   */
+  int getRoutingResultCacheTimeToLive();
+
   /**
    * Gets the port used by the routing server.
    *
@@ -88,6 +193,16 @@ public interface IRoutingConfigProvider {
    */
   int getTransferDelay();
 
+  /**
+   * Whether or not a compact transit graph should be used in the link graph
+   * routing model. The compact graph does not materialize node and edge
+   * objects.
+   *
+   * @return <code>True</code> if the compact transit graph should be used,
+   *         <code>false</code> otherwise
+   */
+  boolean useCompactTransitGraph();
+
   /**
    * Whether or not the graph cache should be used.
    *
@@ -95,4 +210,15 @@ public interface IRoutingConfigProvider {
    *         otherwise
    */
   boolean useGraphCache();
+
+  /**
+   * Whether or not the road graph should be built in two passes over the OSM
+   * files. The first pass builds the graph from the ways, the second pass
+   * resolves the coordinates of their nodes. Otherwise the coordinates are
+   * requested from the database.
+   *
+   * @return <code>True</code> if the two-pass road import should be used,
+   *         <code>false</code> otherwise
+   */
+  boolean useTwoPassRoadImport();
 }
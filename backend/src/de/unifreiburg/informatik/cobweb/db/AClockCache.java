@@ -0,0 +1,246 @@
+package de.unifreiburg.informatik.cobweb.db;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Abstract bounded cache with primitive <code>long</code> keys which evicts
+ * entries using the CLOCK algorithm, see {@link ClockRing}.<br>
+ * <br>
+ * The keys are spread over independent stripes, each with a ring of its own
+ * and guarded by a lock of its own. Threads looking up keys of different
+ * stripes do not contend. Each stripe holds an equal share of the capacity and
+ * evicts once it is full, hence a striped cache may evict before it holds as
+ * many entries as its capacity. Small caches use a single stripe, hence they
+ * evict exactly like a single ring. Implementations store the values in arrays
+ * indexed by stripe and slot and access them only while holding the lock of
+ * the stripe, see {@link #getRing(int)}.<br>
+ * <br>
+ * Clearing the cache increments its generation. Values computed from data
+ * that may have changed in between can be inserted conditionally, they are
+ * dropped if the cache was cleared since the generation was read, see
+ * {@link #getGeneration()}. The cache records hits and misses, see
+ * {@link #getHitRate()}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+abstract class AClockCache {
+  /**
+   * The maximal amount of stripes.
+   */
+  private static final int MAX_STRIPES = 16;
+  /**
+   * The minimal capacity of a stripe. Caches which are too small for two
+   * stripes of this capacity use a single stripe.
+   */
+  private static final int MIN_STRIPE_CAPACITY = 256;
+
+  /**
+   * Computes the amount of stripes to use for a cache with the given capacity.
+   *
+   * @param capacity The maximal amount of entries in the cache
+   * @return The amount of stripes, a power of two
+   */
+  private static int computeAmountOfStripes(final int capacity) {
+    int stripes = 1;
+    while (stripes < MAX_STRIPES && capacity / (stripes * 2) >= MIN_STRIPE_CAPACITY) {
+      stripes *= 2;
+    }
+    return stripes;
+  }
+
+  /**
+   * The generation of the cache, incremented whenever it is cleared.
+   */
+  private final AtomicLong mGeneration;
+  /**
+   * The amount of lookups that found an entry.
+   */
+  private final LongAdder mHits;
+  /**
+   * The amount of lookups that did not find an entry.
+   */
+  private final LongAdder mMisses;
+  /**
+   * The rings of the stripes, indexed by stripe. Each ring is the lock of its
+   * stripe.
+   */
+  private final ClockRing[] mRings;
+
+  /**
+   * Creates a new empty cache.
+   *
+   * @param capacity The maximal amount of entries in the cache, must be
+   *                 positive
+   */
+  protected AClockCache(final int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+    }
+    final int stripes = AClockCache.computeAmountOfStripes(capacity);
+    final int stripeCapacity = (capacity + stripes - 1) / stripes;
+    mRings = new ClockRing[stripes];
+    for (int i = 0; i < stripes; i++) {
+      mRings[i] = new ClockRing(stripeCapacity);
+    }
+    mGeneration = new AtomicLong();
+    mHits = new LongAdder();
+    mMisses = new LongAdder();
+  }
+
+  /**
+   * Removes all entries from the cache and increments its generation. The
+   * statistics are kept.
+   */
+  final void clear() {
+    // Increment first, such that inserts racing with the clear are dropped
+    mGeneration.incrementAndGet();
+    for (int stripe = 0; stripe < mRings.length; stripe++) {
+      final ClockRing ring = mRings[stripe];
+      synchronized (ring) {
+        ring.clear();
+        clearValues(stripe);
+      }
+    }
+  }
+
+  /**
+   * Gets the amount of entries that were evicted because the cache exceeded
+   * its capacity.
+   *
+   * @return The amount of evicted entries
+   */
+  final long getEvictions() {
+    long evictions = 0L;
+    for (final ClockRing ring : mRings) {
+      synchronized (ring) {
+        evictions += ring.getEvictions();
+      }
+    }
+    return evictions;
+  }
+
+  /**
+   * Gets the current generation of the cache. It is incremented whenever the
+   * cache is cleared. Read it before computing a value which is inserted
+   * conditionally.
+   *
+   * @return The current generation
+   */
+  final long getGeneration() {
+    return mGeneration.get();
+  }
+
+  /**
+   * Gets the amount of lookups that found an entry.
+   *
+   * @return The amount of hits
+   */
+  final long getHits() {
+    return mHits.sum();
+  }
+
+  /**
+   * Gets the ratio of lookups that found an entry.
+   *
+   * @return The hit rate, between <code>0.0</code> and <code>1.0</code>.
+   *         <code>0.0</code> if there were no lookups yet.
+   */
+  final double getHitRate() {
+    final long hits = getHits();
+    final long lookups = hits + getMisses();
+    if (lookups == 0) {
+      return 0.0;
+    }
+    return (double) hits / lookups;
+  }
+
+  /**
+   * Gets the amount of lookups that did not find an entry.
+   *
+   * @return The amount of misses
+   */
+  final long getMisses() {
+    return mMisses.sum();
+  }
+
+  /**
+   * Gets the amount of entries in the cache.
+   *
+   * @return The amount of entries
+   */
+  final int size() {
+    int size = 0;
+    for (final ClockRing ring : mRings) {
+      synchronized (ring) {
+        size += ring.size();
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Clears the values of the given stripe. Called while holding the lock of
+   * the stripe.
+   *
+   * @param stripe The stripe to clear
+   */
+  protected abstract void clearValues(int stripe);
+
+  /**
+   * Gets the ring of the given stripe. It is also the lock of the stripe.
+   *
+   * @param stripe The stripe to get the ring of
+   * @return The ring of the stripe
+   */
+  protected final ClockRing getRing(final int stripe) {
+    return mRings[stripe];
+  }
+
+  /**
+   * Gets the amount of stripes of the cache.
+   *
+   * @return The amount of stripes
+   */
+  protected final int getStripes() {
+    return mRings.length;
+  }
+
+  /**
+   * Whether the given generation is still the current generation of the
+   * cache, i.e. it was not cleared since. Call it while holding the lock of
+   * the stripe to insert into.
+   *
+   * @param generation The generation to check
+   * @return <code>True</code> if the generation is current, <code>false</code>
+   *         otherwise
+   */
+  protected final boolean isCurrentGeneration(final long generation) {
+    return mGeneration.get() == generation;
+  }
+
+  /**
+   * Records the result of a lookup.
+   *
+   * @param hit Whether the lookup found an entry
+   */
+  protected final void recordLookup(final boolean hit) {
+    if (hit) {
+      mHits.increment();
+    } else {
+      mMisses.increment();
+    }
+  }
+
+  /**
+   * Gets the stripe of the given key.
+   *
+   * @param key The key to get the stripe of
+   * @return The stripe of the key
+   */
+  protected final int stripeOf(final long key) {
+    // Mix the bits, consecutive IDs should spread over all stripes
+    final long mixed = key * 0x9E3779B97F4A7C15L;
+    return (int) (mixed >>> 32) & (mRings.length - 1);
+  }
+}
@@ -0,0 +1,197 @@
+package de.unifreiburg.informatik.cobweb.db;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Inserts rows into a table of an external database by using JDBC batches.<br>
+ * <br>
+ * Rows are collected with {@link #addRow(Object...)}. Every
+ * <code>rowsPerStatement</code> rows are bound to a single multi-row insert
+ * statement, see {@link DatabaseUtil#createMultiRowInsert(String, int)}, which
+ * is added to the batch of the statement. The batch is executed once it
+ * contains at least <code>batchSize</code> rows. Use {@link #flush()} to insert
+ * all remaining rows.<br>
+ * <br>
+ * The object does not commit on its own, auto-commit of the connection should
+ * be disabled while inserting. It must only be used by the thread that
+ * acquired the connection.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+final class BatchInserter {
+  /**
+   * The amount of rows after which the batch is executed.
+   */
+  private final int mBatchSize;
+  /**
+   * The amount of rows in the batch of the statement that were not executed
+   * yet.
+   */
+  private int mBatchedRows;
+  /**
+   * The amount of rows collected in {@link #mValues} that were not bound to
+   * the statement yet.
+   */
+  private int mBufferedRows;
+  /**
+   * The SQL types of the values of a row, as defined by
+   * {@link java.sql.Types}.
+   */
+  private final int[] mColumnTypes;
+  /**
+   * The connection to insert rows with.
+   */
+  private final PooledConnection mConnection;
+  /**
+   * The amount of rows that were inserted.
+   */
+  private long mInsertedRows;
+  /**
+   * The query which inserts a single row.
+   */
+  private final String mQuery;
+  /**
+   * The amount of rows inserted by a single statement.
+   */
+  private final int mRowsPerStatement;
+  /**
+   * The statement which inserts {@link #mRowsPerStatement} rows, prepared on
+   * first use.
+   */
+  private PreparedStatement mStatement;
+  /**
+   * The values of the collected rows, row after row.
+   */
+  private final Object[] mValues;
+
+  /**
+   * Creates a new inserter which inserts rows with the given query.
+   *
+   * @param connection       The connection to insert rows with
+   * @param query            The query which inserts a single row, like
+   *                         {@link DatabaseUtil#QUERY_INSERT_NODE}
+   * @param columnTypes      The SQL types of the values of a row, as defined
+   *                         by {@link java.sql.Types}
+   * @param rowsPerStatement The amount of rows inserted by a single statement,
+   *                         values less than <code>1</code> are treated as
+   *                         <code>1</code>
+   * @param batchSize        The amount of rows after which the batch is
+   *                         executed
+   */
+  BatchInserter(final PooledConnection connection, final String query, final int[] columnTypes,
+      final int rowsPerStatement, final int batchSize) {
+    mConnection = connection;
+    mQuery = query;
+    mColumnTypes = columnTypes;
+    mRowsPerStatement = Math.max(rowsPerStatement, 1);
+    mBatchSize = batchSize;
+    mValues = new Object[mRowsPerStatement * columnTypes.length];
+  }
+
+  /**
+   * Adds the given row. It is inserted once enough rows were collected or on
+   * {@link #flush()}.
+   *
+   * @param values The values of the row, one per column. Values may be
+   *               <code>null</code> to insert <code>SQL NULL</code>.
+   * @throws SQLException If an SQL exception occurred while trying to execute
+   *                      the batch
+   */
+  void addRow(final Object... values) throws SQLException {
+    System.arraycopy(values, 0, mValues, mBufferedRows * mColumnTypes.length, mColumnTypes.length);
+    mBufferedRows++;
+    if (mBufferedRows < mRowsPerStatement) {
+      return;
+    }
+
+    if (mStatement == null) {
+      mStatement = mConnection.prepareStatement(DatabaseUtil.createMultiRowInsert(mQuery, mRowsPerStatement));
+      // The cached statement may still hold the batch of a failed insertion
+      mStatement.clearBatch();
+    }
+    bindValues(mStatement);
+    mStatement.addBatch();
+    mBatchedRows += mBufferedRows;
+    mBufferedRows = 0;
+
+    if (mBatchedRows >= mBatchSize) {
+      executeBatch();
+    }
+  }
+
+  /**
+   * Inserts all rows that were added but not inserted yet.
+   *
+   * @throws SQLException If an SQL exception occurred while trying to execute
+   *                      the inserts
+   */
+  void flush() throws SQLException {
+    executeBatch();
+    if (mBufferedRows == 0) {
+      return;
+    }
+
+    // The remaining rows do not fill a statement, it is not cached
+    try (PreparedStatement statement = mConnection.getConnection()
+        .prepareStatement(DatabaseUtil.createMultiRowInsert(mQuery, mBufferedRows))) {
+      bindValues(statement);
+      statement.executeUpdate();
+    }
+    mInsertedRows += mBufferedRows;
+    mBufferedRows = 0;
+  }
+
+  /**
+   * Gets the amount of rows that were inserted so far.
+   *
+   * @return The amount of inserted rows
+   */
+  long getInsertedRows() {
+    return mInsertedRows;
+  }
+
+  /**
+   * Binds the values of all collected rows to the given statement.
+   *
+   * @param statement The statement to bind the values to, it must insert
+   *                  exactly the amount of collected rows
+   * @throws SQLException If an SQL exception occurred while trying to set a
+   *                      value
+   */
+  private void bindValues(final PreparedStatement statement) throws SQLException {
+    final int amountOfValues = mBufferedRows * mColumnTypes.length;
+    for (int i = 0; i < amountOfValues; i++) {
+      final int type = mColumnTypes[i % mColumnTypes.length];
+      if (mValues[i] == null) {
+        statement.setNull(i + 1, type);
+      } else {
+        statement.setObject(i + 1, mValues[i], type);
+      }
+      // Do not keep references to inserted data
+      mValues[i] = null;
+    }
+  }
+
+  /**
+   * Executes the batch of the statement if it contains rows.
+   *
+   * @throws SQLException If an SQL exception occurred while trying to execute
+   *                      the batch
+   */
+  private void executeBatch() throws SQLException {
+    if (mBatchedRows == 0) {
+      return;
+    }
+    final int rows = mBatchedRows;
+    mBatchedRows = 0;
+    try {
+      mStatement.executeBatch();
+    } catch (final SQLException e) {
+      // Rows of a failed batch are dropped, they must not be inserted again
+      mStatement.clearBatch();
+      throw e;
+    }
+    mInsertedRows += rows;
+  }
+}
@@ -0,0 +1,481 @@
+package de.unifreiburg.informatik.cobweb.db;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.LongFunction;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import org.eclipse.collections.api.list.primitive.MutableIntList;
+import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.eclipse.collections.api.map.primitive.IntLongMap;
+import org.eclipse.collections.api.map.primitive.LongObjectMap;
+import org.eclipse.collections.api.map.primitive.MutableIntLongMap;
+import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
+import org.eclipse.collections.impl.factory.primitive.IntLists;
+import org.eclipse.collections.impl.factory.primitive.LongLists;
+import org.eclipse.collections.impl.map.mutable.primitive.IntLongHashMap;
+import org.eclipse.collections.impl.map.mutable.primitive.LongObjectHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.topobyte.osm4j.core.model.iface.OsmEntity;
+import de.unifreiburg.informatik.cobweb.routing.parsing.osm.IdMapping;
+
+/**
+ * Implementation of a {@link IRoutingDatabase} which caches the lookups of
+ * another database in memory. Intended to be put in front of an
+ * {@link ExternalDatabase}.<br>
+ * <br>
+ * The mappings between OSM and internal IDs and the names of nodes and ways
+ * are cached, including lookups that found nothing. Each kind of lookup has
+ * its own cache with the given capacity, IDs are cached without boxing in a
+ * {@link LongClockCache}. Bulk lookups only ask the underlying database for
+ * IDs that are not cached. All other methods are passed through. Offering data
+ * to the database clears the caches. Values computed while the caches were
+ * cleared are not stored, since they may stem from the old data.<br>
+ * <br>
+ * If warm-up is enabled, the caches are filled with the names of all named
+ * nodes when {@link #finishImport()} is called. The caches record hits and
+ * misses, see {@link #getHitRate()}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class CachingDatabase extends ADatabase {
+  /**
+   * The logger to use for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(CachingDatabase.class);
+
+  /**
+   * Gets the value for the given key from the given cache. If it is not
+   * cached, it is computed and stored.
+   *
+   * @param <V>     The type of the cached values
+   * @param cache   The cache to use
+   * @param key     The key of the value
+   * @param compute Function computing the value of a key
+   * @return The value of the key
+   */
+  private static <V> V getOrCompute(final ClockCache<V> cache, final long key, final LongFunction<V> compute) {
+    V value = cache.get(key);
+    if (value == null) {
+      final long generation = cache.getGeneration();
+      value = compute.apply(key);
+      cache.put(key, value, generation);
+    }
+    return value;
+  }
+
+  /**
+   * Gets the ID for the given key from the given cache. If it is not cached,
+   * it is computed and stored.
+   *
+   * @param <T>        The type of the IDs
+   * @param cache      The cache to use
+   * @param key        The key of the ID
+   * @param compute    Function computing the ID of a key
+   * @param fromCached Function converting a cached value back to an ID
+   * @return The ID of the key or empty if it has none
+   */
+  private static <T extends Number> Optional<T> getOrComputeId(final LongClockCache cache, final long key,
+      final LongFunction<Optional<T>> compute, final LongFunction<T> fromCached) {
+    final long cached = cache.get(key);
+    if (cached == LongClockCache.NO_VALUE) {
+      return Optional.empty();
+    }
+    if (cached != LongClockCache.NOT_CACHED) {
+      return Optional.of(fromCached.apply(cached));
+    }
+
+    final long generation = cache.getGeneration();
+    final Optional<T> id = compute.apply(key);
+    long value = LongClockCache.NO_VALUE;
+    if (id.isPresent()) {
+      value = id.get().longValue();
+    }
+    cache.put(key, value, generation);
+    return id;
+  }
+
+  /**
+   * All caches of the database, used for clearing and statistics.
+   */
+  private final List<AClockCache> mCaches;
+  /**
+   * The maximal amount of entries per cache.
+   */
+  private final int mCapacity;
+  /**
+   * The database whose lookups are cached.
+   */
+  private final ADatabase mDatabase;
+  /**
+   * Cache connecting internal node IDs to their OSM IDs.
+   */
+  private final LongClockCache mInternalToNodeId;
+  /**
+   * Cache connecting internal way IDs to their OSM IDs.
+   */
+  private final LongClockCache mInternalToWayId;
+  /**
+   * Cache connecting node IDs to their OSM names.
+   */
+  private final ClockCache<Optional<String>> mNodeToName;
+  /**
+   * Cache connecting OSM node IDs to their internal IDs.
+   */
+  private final LongClockCache mOsmToNodeId;
+  /**
+   * Cache connecting OSM way IDs to their internal IDs.
+   */
+  private final LongClockCache mOsmToWayId;
+  /**
+   * Whether the caches are filled when the import finished.
+   */
+  private final boolean mWarmUp;
+  /**
+   * Cache connecting way IDs to their OSM names.
+   */
+  private final ClockCache<Optional<String>> mWayToName;
+
+  /**
+   * Creates a new database which caches the lookups of the given database.<br>
+   * <br>
+   * Use {@link #initialize()} before using the database and {@link #shutdown()}
+   * when finished using it. Both are passed to the given database.
+   *
+   * @param database The database whose lookups are cached
+   * @param capacity The maximal amount of entries per kind of lookup, must be
+   *                 positive
+   * @param warmUp   Whether the caches are filled with the names of all named
+   *                 nodes when the import finished
+   */
+  public CachingDatabase(final ADatabase database, final int capacity, final boolean warmUp) {
+    mDatabase = database;
+    mCapacity = capacity;
+    mWarmUp = warmUp;
+    mInternalToNodeId = new LongClockCache(capacity);
+    mInternalToWayId = new LongClockCache(capacity);
+    mOsmToNodeId = new LongClockCache(capacity);
+    mOsmToWayId = new LongClockCache(capacity);
+    mNodeToName = new ClockCache<>(capacity);
+    mWayToName = new ClockCache<>(capacity);
+    mCaches = Arrays.asList(mInternalToNodeId, mInternalToWayId, mOsmToNodeId, mOsmToWayId, mNodeToName,
+        mWayToName);
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#finishChange()
+   */
+  @Override
+  public void finishChange() {
+    // The caches were already cleared when the change was offered
+    mDatabase.finishChange();
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#finishImport()
+   */
+  @Override
+  public void finishImport() {
+    mDatabase.finishImport();
+    if (!mWarmUp) {
+      return;
+    }
+
+    LOGGER.info("Warming up database cache");
+    for (final NodeNameData nodeNameData : mDatabase.getAllNodeNameData()) {
+      if (mNodeToName.size() >= mCapacity) {
+        break;
+      }
+      mNodeToName.put(nodeNameData.getId(), Optional.of(nodeNameData.getName()));
+    }
+    LOGGER.info("Warmed up database cache with {} node names", mNodeToName.size());
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.INameSearchDatabase#getAllNodeNameData
+   * ()
+   */
+  @Override
+  public Collection<NodeNameData> getAllNodeNameData() {
+    return mDatabase.getAllNodeNameData();
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getHighwayData(java.
+   * util.stream.LongStream, int)
+   */
+  @Override
+  public Collection<HighwayData> getHighwayData(final LongStream wayIds, final int size) {
+    return mDatabase.getHighwayData(wayIds, size);
+  }
+
+  /**
+   * Gets the amount of lookups of all caches that found an entry.
+   *
+   * @return The amount of hits
+   */
+  public long getHits() {
+    return mCaches.stream().mapToLong(AClockCache::getHits).sum();
+  }
+
+  /**
+   * Gets the ratio of lookups of all caches that found an entry.
+   *
+   * @return The hit rate, between <code>0.0</code> and <code>1.0</code>.
+   *         <code>0.0</code> if there were no lookups yet.
+   */
+  public double getHitRate() {
+    final long hits = getHits();
+    final long lookups = hits + getMisses();
+    if (lookups == 0) {
+      return 0.0;
+    }
+    return (double) hits / lookups;
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getInternalNodeByOsm(
+   * long)
+   */
+  @Override
+  public Optional<Integer> getInternalNodeByOsm(final long osmId) {
+    return CachingDatabase.getOrComputeId(mOsmToNodeId, osmId, mDatabase::getInternalNodeByOsm,
+        cached -> Integer.valueOf((int) cached));
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getInternalWayByOsm(
+   * long)
+   */
+  @Override
+  public Optional<Integer> getInternalWayByOsm(final long osmId) {
+    return CachingDatabase.getOrComputeId(mOsmToWayId, osmId, mDatabase::getInternalWayByOsm,
+        cached -> Integer.valueOf((int) cached));
+  }
+
+  /**
+   * Gets the amount of lookups of all caches that did not find an entry.
+   *
+   * @return The amount of misses
+   */
+  public long getMisses() {
+    return mCaches.stream().mapToLong(AClockCache::getMisses).sum();
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getNodeByName(java.
+   * lang.String)
+   */
+  @Override
+  public Optional<Long> getNodeByName(final String name) {
+    return mDatabase.getNodeByName(name);
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getNodeName(long)
+   */
+  @Override
+  public Optional<String> getNodeName(final long id) {
+    return CachingDatabase.getOrCompute(mNodeToName, id, mDatabase::getNodeName);
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getNodeNames(java.util
+   * .stream.LongStream, int)
+   */
+  @Override
+  public LongObjectMap<String> getNodeNames(final LongStream ids, final int size) {
+    final MutableLongObjectMap<String> nodeNames = new LongObjectHashMap<>(size);
+    final MutableLongList missingIds = LongLists.mutable.empty();
+    final long generation = mNodeToName.getGeneration();
+    ids.forEach(id -> {
+      final Optional<String> name = mNodeToName.get(id);
+      if (name == null) {
+        missingIds.add(id);
+      } else {
+        name.ifPresent(presentName -> nodeNames.put(id, presentName));
+      }
+    });
+    if (missingIds.isEmpty()) {
+      return nodeNames;
+    }
+
+    // Fetch all missing names at once
+    final LongObjectMap<String> fetchedNames =
+        mDatabase.getNodeNames(LongStream.of(missingIds.toArray()), missingIds.size());
+    missingIds.forEach(id -> {
+      final String name = fetchedNames.get(id);
+      mNodeToName.put(id, Optional.ofNullable(name), generation);
+      if (name != null) {
+        nodeNames.put(id, name);
+      }
+    });
+    return nodeNames;
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getOsmNodeByInternal(
+   * int)
+   */
+  @Override
+  public Optional<Long> getOsmNodeByInternal(final int internalId) {
+    return CachingDatabase.getOrComputeId(mInternalToNodeId, internalId,
+        id -> mDatabase.getOsmNodeByInternal((int) id), Long::valueOf);
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getOsmNodesByInternal
+   * (java.util.stream.IntStream, int)
+   */
+  @Override
+  public IntLongMap getOsmNodesByInternal(final IntStream internalIds, final int size) {
+    final MutableIntLongMap internalToOsm = new IntLongHashMap(size);
+    final MutableIntList missingIds = IntLists.mutable.empty();
+    final long generation = mInternalToNodeId.getGeneration();
+    internalIds.forEach(internalId -> {
+      final long osmId = mInternalToNodeId.get(internalId);
+      if (osmId == LongClockCache.NOT_CACHED) {
+        missingIds.add(internalId);
+      } else if (osmId != LongClockCache.NO_VALUE) {
+        internalToOsm.put(internalId, osmId);
+      }
+    });
+    if (missingIds.isEmpty()) {
+      return internalToOsm;
+    }
+
+    // Fetch all missing IDs at once
+    final IntLongMap fetchedIds =
+        mDatabase.getOsmNodesByInternal(IntStream.of(missingIds.toArray()), missingIds.size());
+    missingIds.forEach(internalId -> {
+      if (fetchedIds.containsKey(internalId)) {
+        final long osmId = fetchedIds.get(internalId);
+        mInternalToNodeId.put(internalId, osmId, generation);
+        internalToOsm.put(internalId, osmId);
+      } else {
+        mInternalToNodeId.put(internalId, LongClockCache.NO_VALUE, generation);
+      }
+    });
+    return internalToOsm;
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getOsmWayByInternal(
+   * int)
+   */
+  @Override
+  public Optional<Long> getOsmWayByInternal(final int internalId) {
+    return CachingDatabase.getOrComputeId(mInternalToWayId, internalId,
+        id -> mDatabase.getOsmWayByInternal((int) id), Long::valueOf);
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getSpatialNodeData(
+   * java.util.stream.LongStream, int)
+   */
+  @Override
+  public Collection<SpatialNodeData> getSpatialNodeData(final LongStream nodeIds, final int size) {
+    return mDatabase.getSpatialNodeData(nodeIds, size);
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getWayByName(java.lang
+   * .String)
+   */
+  @Override
+  public Optional<Long> getWayByName(final String name) {
+    return mDatabase.getWayByName(name);
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getWayName(long)
+   */
+  @Override
+  public Optional<String> getWayName(final long id) {
+    return CachingDatabase.getOrCompute(mWayToName, id, mDatabase::getWayName);
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#initialize()
+   */
+  @Override
+  public void initialize() {
+    mDatabase.initialize();
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#offerIdMappings(java.
+   * util.stream.Stream, int)
+   */
+  @Override
+  public void offerIdMappings(final Stream<IdMapping> mappings, final int size) {
+    mDatabase.offerIdMappings(mappings, size);
+    clearCaches();
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#offerOsmEntities(java
+   * .util.stream.Stream, int)
+   */
+  @Override
+  public void offerOsmEntities(final Stream<OsmEntity> entities, final int size) {
+    mDatabase.offerOsmEntities(entities, size);
+    clearCaches();
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#shutdown()
+   */
+  @Override
+  public void shutdown() {
+    LOGGER.info("Shutting down database cache after {} hits and {} misses, hit rate {}", getHits(), getMisses(),
+        getHitRate());
+    mDatabase.shutdown();
+  }
+
+  /**
+   * Removes all entries from the caches since the data of the underlying
+   * database may have changed.
+   */
+  private void clearCaches() {
+    mCaches.forEach(AClockCache::clear);
+  }
+}
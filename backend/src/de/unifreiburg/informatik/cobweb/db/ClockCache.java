@@ -0,0 +1,103 @@
+package de.unifreiburg.informatik.cobweb.db;
+
+import java.util.Arrays;
+
+/**
+ * Bounded cache with primitive <code>long</code> keys and object values which
+ * evicts entries using the CLOCK algorithm, an approximation of least recently
+ * used.<br>
+ * <br>
+ * Entries are stored in fixed rings of slots, see {@link AClockCache}. Keys
+ * are mapped to their slots by a primitive map, hence lookups do not box keys.
+ * Use {@link LongClockCache} for primitive values.<br>
+ * <br>
+ * The cache is safe to use by multiple threads. It records hits and misses,
+ * see {@link #getHitRate()}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ * @param <V> The type of the cached values
+ */
+final class ClockCache<V> extends AClockCache {
+  /**
+   * The values of the entries, indexed by stripe and slot.
+   */
+  private final Object[][] mValues;
+
+  /**
+   * Creates a new empty cache.
+   *
+   * @param capacity The maximal amount of entries in the cache, must be
+   *                 positive
+   */
+  ClockCache(final int capacity) {
+    super(capacity);
+    mValues = new Object[getStripes()][];
+    for (int stripe = 0; stripe < mValues.length; stripe++) {
+      mValues[stripe] = new Object[getRing(stripe).getCapacity()];
+    }
+  }
+
+  /**
+   * Gets the value stored for the given key and marks the entry as
+   * referenced.
+   *
+   * @param key The key of the value
+   * @return The value or <code>null</code> if no entry is present
+   */
+  @SuppressWarnings("unchecked")
+  V get(final long key) {
+    final int stripe = stripeOf(key);
+    final ClockRing ring = getRing(stripe);
+    final Object value;
+    synchronized (ring) {
+      final int slot = ring.find(key);
+      if (slot == -1) {
+        value = null;
+      } else {
+        value = mValues[stripe][slot];
+      }
+    }
+    recordLookup(value != null);
+    return (V) value;
+  }
+
+  /**
+   * Stores the given value for the given key, replacing a previous entry.
+   * Evicts an entry that was not referenced recently if the cache is full.
+   *
+   * @param key   The key of the value
+   * @param value The value to store, not <code>null</code>
+   */
+  void put(final long key, final V value) {
+    put(key, value, getGeneration());
+  }
+
+  /**
+   * Stores the given value for the given key if the cache was not cleared
+   * since the given generation was read, see {@link #getGeneration()}.
+   * Replaces a previous entry and evicts an entry that was not referenced
+   * recently if the cache is full.
+   *
+   * @param key        The key of the value
+   * @param value      The value to store, not <code>null</code>
+   * @param generation The generation read before the value was computed
+   * @return <code>True</code> if the value was stored, <code>false</code> if
+   *         the cache was cleared in between
+   */
+  boolean put(final long key, final V value, final long generation) {
+    final int stripe = stripeOf(key);
+    final ClockRing ring = getRing(stripe);
+    synchronized (ring) {
+      if (!isCurrentGeneration(generation)) {
+        return false;
+      }
+      mValues[stripe][ring.insert(key)] = value;
+      return true;
+    }
+  }
+
+  @Override
+  protected void clearValues(final int stripe) {
+    Arrays.fill(mValues[stripe], null);
+  }
+}
@@ -0,0 +1,146 @@
+package de.unifreiburg.informatik.cobweb.db;
+
+import java.util.Arrays;
+
+import org.eclipse.collections.api.map.primitive.MutableLongIntMap;
+import org.eclipse.collections.impl.map.mutable.primitive.LongIntHashMap;
+
+/**
+ * Fixed ring of slots for primitive <code>long</code> keys which evicts keys
+ * using the CLOCK algorithm, an approximation of least recently used.<br>
+ * <br>
+ * A lookup marks the key as referenced. If the ring is full, a hand moves
+ * along the ring, clears the marks of referenced keys and evicts the first key
+ * that was not referenced since the hand passed it last. Keys are mapped to
+ * their slots by a primitive map, hence lookups do not box keys. The ring only
+ * manages slots, the values are stored by the caller in arrays indexed by
+ * slot.<br>
+ * <br>
+ * The ring is not safe to use by multiple threads, callers synchronize on it.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+final class ClockRing {
+  /**
+   * The amount of evicted keys.
+   */
+  private long mEvictions;
+  /**
+   * The slot the hand currently points to.
+   */
+  private int mHand;
+  /**
+   * Map connecting keys to their slot.
+   */
+  private final MutableLongIntMap mKeyToSlot;
+  /**
+   * The keys, indexed by slot.
+   */
+  private final long[] mKeys;
+  /**
+   * Whether the keys were referenced since the hand passed them last, indexed
+   * by slot.
+   */
+  private final boolean[] mReferenced;
+  /**
+   * The amount of used slots.
+   */
+  private int mSize;
+
+  /**
+   * Creates a new empty ring.
+   *
+   * @param capacity The amount of slots, must be positive
+   */
+  ClockRing(final int capacity) {
+    mKeyToSlot = new LongIntHashMap(capacity);
+    mKeys = new long[capacity];
+    mReferenced = new boolean[capacity];
+  }
+
+  /**
+   * Removes all keys from the ring. The amount of evictions is kept.
+   */
+  void clear() {
+    mKeyToSlot.clear();
+    Arrays.fill(mReferenced, false);
+    mSize = 0;
+    mHand = 0;
+  }
+
+  /**
+   * Gets the slot of the given key and marks the key as referenced.
+   *
+   * @param key The key to search
+   * @return The slot of the key or <code>-1</code> if it is not present
+   */
+  int find(final long key) {
+    final int slot = mKeyToSlot.getIfAbsent(key, -1);
+    if (slot != -1) {
+      mReferenced[slot] = true;
+    }
+    return slot;
+  }
+
+  /**
+   * Gets the amount of slots of the ring.
+   *
+   * @return The amount of slots
+   */
+  int getCapacity() {
+    return mKeys.length;
+  }
+
+  /**
+   * Gets the amount of keys that were evicted because the ring was full.
+   *
+   * @return The amount of evicted keys
+   */
+  long getEvictions() {
+    return mEvictions;
+  }
+
+  /**
+   * Gets the slot for the given key, inserting the key if it is not present.
+   * Evicts a key that was not referenced recently if the ring is full, its
+   * slot is then reused.
+   *
+   * @param key The key to insert
+   * @return The slot of the key
+   */
+  int insert(final long key) {
+    int slot = mKeyToSlot.getIfAbsent(key, -1);
+    if (slot != -1) {
+      return slot;
+    }
+
+    if (mSize < mKeys.length) {
+      slot = mSize;
+      mSize++;
+    } else {
+      // Give referenced keys a second chance
+      while (mReferenced[mHand]) {
+        mReferenced[mHand] = false;
+        mHand = (mHand + 1) % mKeys.length;
+      }
+      slot = mHand;
+      mHand = (mHand + 1) % mKeys.length;
+      mKeyToSlot.remove(mKeys[slot]);
+      mEvictions++;
+    }
+
+    mKeys[slot] = key;
+    mReferenced[slot] = false;
+    mKeyToSlot.put(key, slot);
+    return slot;
+  }
+
+  /**
+   * Gets the amount of keys in the ring.
+   *
+   * @return The amount of keys
+   */
+  int size() {
+    return mSize;
+  }
+}
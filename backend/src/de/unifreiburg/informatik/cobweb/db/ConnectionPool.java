@@ -0,0 +1,310 @@
+package de.unifreiburg.informatik.cobweb.db;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded pool of JDBC connections to an external database, shared by all
+ * threads using the database.<br>
+ * <br>
+ * Connections are acquired with {@link #acquire()} and given back by closing
+ * the returned {@link PooledConnection}. They are created lazily, at most
+ * {@link #getSize()} connections are in use at the same time. Threads that
+ * request a connection while all are in use wait until one is given back or
+ * the timeout exceeds. Each connection caches its prepared statements, see
+ * {@link PooledConnection#prepareStatement(String)}.<br>
+ * <br>
+ * The pool records the time threads waited for a connection, see
+ * {@link #getAverageWaitTime()} and {@link #getMaxWaitTime()}, and how often
+ * they gave up, see {@link #getTimeouts()}. Use
+ * {@link #shutdown()} to close all connections when finished using the pool.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class ConnectionPool {
+  /**
+   * The amount of acquisitions after which the statistics of the pool are
+   * logged.
+   */
+  private static final int LOG_INTERVAL = 10_000;
+  /**
+   * Logger to use for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(ConnectionPool.class);
+
+  /**
+   * The amount of connections that were acquired.
+   */
+  private final LongAdder mAcquisitions;
+  /**
+   * The object used to create new connections.
+   */
+  private final IConnectionFactory mConnectionFactory;
+  /**
+   * Connections that are open but not in use.
+   */
+  private final Queue<PooledConnection> mIdleConnections;
+  /**
+   * The longest time a thread waited for a connection, in nanoseconds.
+   */
+  private final LongAccumulator mMaxWaitTime;
+  /**
+   * Permits for connections that may be in use, one per connection.
+   */
+  private final Semaphore mPermits;
+  /**
+   * Whether the pool was shutdown.
+   */
+  private volatile boolean mShutdown;
+  /**
+   * The maximal amount of connections.
+   */
+  private final int mSize;
+  /**
+   * The maximal amount of prepared statements cached per connection.
+   */
+  private final int mStatementCacheSize;
+  /**
+   * The time in milliseconds after which threads waiting for a connection
+   * give up.
+   */
+  private final long mTimeout;
+  /**
+   * The amount of threads that gave up waiting for a connection.
+   */
+  private final LongAdder mTimeouts;
+  /**
+   * The total time threads waited for a connection, in nanoseconds.
+   */
+  private final LongAdder mTotalWaitTime;
+
+  /**
+   * Creates a new empty pool which connects to the database with the given
+   * JDBC URL.
+   *
+   * @param jdbcUrl            The JDBC URL used to connect to the database
+   * @param size               The maximal amount of connections, must be
+   *                           positive
+   * @param timeout            The time in milliseconds after which threads
+   *                           waiting for a connection give up
+   * @param statementCacheSize The maximal amount of prepared statements cached
+   *                           per connection, must be positive
+   */
+  public ConnectionPool(final String jdbcUrl, final int size, final long timeout, final int statementCacheSize) {
+    this(() -> DriverManager.getConnection(jdbcUrl), size, timeout, statementCacheSize);
+  }
+
+  /**
+   * Creates a new empty pool which creates connections with the given factory.
+   *
+   * @param connectionFactory  The object used to create new connections
+   * @param size               The maximal amount of connections, must be
+   *                           positive
+   * @param timeout            The time in milliseconds after which threads
+   *                           waiting for a connection give up
+   * @param statementCacheSize The maximal amount of prepared statements cached
+   *                           per connection, must be positive
+   */
+  ConnectionPool(final IConnectionFactory connectionFactory, final int size, final long timeout,
+      final int statementCacheSize) {
+    if (size <= 0) {
+      throw new IllegalArgumentException("Size must be positive: " + size);
+    }
+    if (statementCacheSize <= 0) {
+      throw new IllegalArgumentException("Statement cache size must be positive: " + statementCacheSize);
+    }
+    mConnectionFactory = connectionFactory;
+    mSize = size;
+    mTimeout = timeout;
+    mStatementCacheSize = statementCacheSize;
+    mIdleConnections = new ConcurrentLinkedQueue<>();
+    mPermits = new Semaphore(size, true);
+    mAcquisitions = new LongAdder();
+    mTimeouts = new LongAdder();
+    mTotalWaitTime = new LongAdder();
+    mMaxWaitTime = new LongAccumulator(Math::max, 0L);
+  }
+
+  /**
+   * Acquires a connection of the pool. Waits if all connections are in use.
+   * The connection must be given back by closing it, preferably by using a
+   * try-with-resources statement.
+   *
+   * @return The acquired connection, it has auto-commit enabled
+   * @throws SQLException If no connection was given back before the timeout
+   *                      exceeded, if the pool was shutdown or if a new
+   *                      connection could not be created
+   */
+  public PooledConnection acquire() throws SQLException {
+    if (mShutdown) {
+      throw new SQLException("The connection pool was shutdown");
+    }
+    final long startTime = System.nanoTime();
+    try {
+      if (!mPermits.tryAcquire(mTimeout, TimeUnit.MILLISECONDS)) {
+        mTimeouts.increment();
+        LOGGER.warn("Timed out waiting for a database connection, all {} connections are in use", mSize);
+        throw new SQLException("Timed out after " + mTimeout + " ms waiting for a database connection");
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLException("Interrupted while waiting for a database connection", e);
+    }
+    final long waitTime = System.nanoTime() - startTime;
+    mTotalWaitTime.add(waitTime);
+    mMaxWaitTime.accumulate(waitTime);
+    mAcquisitions.increment();
+
+    PooledConnection connection = mIdleConnections.poll();
+    try {
+      if (connection == null || connection.getConnection().isClosed()) {
+        connection = new PooledConnection(mConnectionFactory.createConnection(), mStatementCacheSize, this);
+      }
+    } catch (final SQLException e) {
+      mPermits.release();
+      throw e;
+    }
+
+    if (LOGGER.isDebugEnabled()) {
+      final long acquisitions = getAcquisitions();
+      if (acquisitions % LOG_INTERVAL == 0) {
+        LOGGER.debug("Connection pool: {} acquisitions, average wait {} ms, max wait {} ms, {} timeouts",
+            acquisitions, getAverageWaitTime(), getMaxWaitTime(), getTimeouts());
+      }
+    }
+    return connection;
+  }
+
+  /**
+   * Gets the amount of connections that were acquired.
+   *
+   * @return The amount of acquisitions
+   */
+  public long getAcquisitions() {
+    return mAcquisitions.sum();
+  }
+
+  /**
+   * Gets the average time threads waited for a connection.
+   *
+   * @return The average wait time in milliseconds, <code>0.0</code> if there
+   *         were no acquisitions yet
+   */
+  public double getAverageWaitTime() {
+    final long acquisitions = getAcquisitions();
+    if (acquisitions == 0) {
+      return 0.0;
+    }
+    return (double) mTotalWaitTime.sum() / acquisitions / TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  /**
+   * Gets the amount of connections that are open but not in use.
+   *
+   * @return The amount of idle connections
+   */
+  public int getIdleConnections() {
+    return mIdleConnections.size();
+  }
+
+  /**
+   * Gets the longest time a thread waited for a connection.
+   *
+   * @return The longest wait time in milliseconds
+   */
+  public double getMaxWaitTime() {
+    return (double) mMaxWaitTime.get() / TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  /**
+   * Gets the maximal amount of connections of the pool.
+   *
+   * @return The maximal amount of connections
+   */
+  public int getSize() {
+    return mSize;
+  }
+
+  /**
+   * Gets the amount of threads that gave up waiting for a connection because
+   * the timeout exceeded.
+   *
+   * @return The amount of timeouts
+   */
+  public long getTimeouts() {
+    return mTimeouts.sum();
+  }
+
+  /**
+   * Shuts the pool down and closes all idle connections. Connections in use
+   * are closed once they are given back. Afterwards no connections can be
+   * acquired anymore.
+   */
+  public void shutdown() {
+    mShutdown = true;
+    LOGGER.info("Shutting down connection pool after {} acquisitions, average wait {} ms, max wait {} ms, {} timeouts",
+        getAcquisitions(), getAverageWaitTime(), getMaxWaitTime(), getTimeouts());
+    while (true) {
+      final PooledConnection connection = mIdleConnections.poll();
+      if (connection == null) {
+        break;
+      }
+      connection.closeConnection();
+    }
+  }
+
+  /**
+   * Gives the given connection back to the pool. Is called when a connection
+   * is closed. Connections with an open transaction are rolled back, broken
+   * connections are discarded.
+   *
+   * @param connection The connection to give back
+   */
+  void release(final PooledConnection connection) {
+    try {
+      final Connection jdbcConnection = connection.getConnection();
+      if (mShutdown || jdbcConnection.isClosed()) {
+        connection.closeConnection();
+        return;
+      }
+      if (!jdbcConnection.getAutoCommit()) {
+        // Transactions are not shared between users of the connection
+        jdbcConnection.rollback();
+        jdbcConnection.setAutoCommit(true);
+      }
+      mIdleConnections.add(connection);
+    } catch (final SQLException e) {
+      LOGGER.warn("Discarding broken database connection", e);
+      connection.closeConnection();
+    } finally {
+      mPermits.release();
+    }
+  }
+
+  /**
+   * Interface for objects that create new connections to a database.
+   *
+   * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+   */
+  @FunctionalInterface
+  interface IConnectionFactory {
+    /**
+     * Creates a new connection to the database.
+     *
+     * @return The created connection
+     * @throws SQLException If an SQL exception occurred while trying to connect
+     *                      to the database
+     */
+    Connection createConnection() throws SQLException;
+  }
+}
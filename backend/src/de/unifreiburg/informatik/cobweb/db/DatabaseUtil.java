@@ -1,8 +1,7 @@
 package de.unifreiburg.informatik.cobweb.db;
 
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
 import java.sql.Types;
+import java.util.StringJoiner;
 
 /**
  * Utility class that provides common methods and values used by databases. Such
@@ -71,11 +70,21 @@ public final class DatabaseUtil {
    * value for the node ID.
    */
   static final String QUERY_NODE_NAME_BY_ID = "SELECT name FROM osm_node_tags WHERE id = ?";
+  /**
+   * Prefix of the SQL query to fetch the names of nodes for given node IDs.
+   */
+  static final String QUERY_NODE_NAMES_PREFIX = "SELECT id, name FROM osm_node_tags WHERE id IN (";
   /**
    * SQL query to fetch the OSM ID of a node by its internal ID. Contains a
    * placeholder value for the internal ID.
    */
   static final String QUERY_NODE_OSM_BY_INTERNAL = "SELECT osm_id FROM osm_node_mappings WHERE internal_id = ?";
+  /**
+   * Prefix of the SQL query to fetch the OSM IDs of nodes for given internal
+   * IDs.
+   */
+  static final String QUERY_NODE_OSM_BY_INTERNAL_PREFIX =
+      "SELECT internal_id, osm_id FROM osm_node_mappings WHERE internal_id IN (";
   /**
    * Placeholder value to use for prepared SQL statements.
    */
@@ -86,6 +95,11 @@ public final class DatabaseUtil {
   static final String QUERY_SPATIAL_NODE_DATA_PREFIX =
       "SELECT mappings.osm_id, mappings.internal_id, nodes.latitude, nodes.longitude FROM osm_nodes AS nodes,"
           + " osm_node_mappings AS mappings WHERE nodes.id = mappings.osm_id AND nodes.id IN (";
+  /**
+   * Keyword of SQL insert queries that is followed by the data that is to be
+   * inserted.
+   */
+  static final String QUERY_VALUES = "VALUES ";
   /**
    * SQL query to fetch the id of a way by its name. Contains a placeholder
    * value for the way name.
@@ -106,53 +120,41 @@ public final class DatabaseUtil {
    * placeholder value for the internal ID.
    */
   static final String QUERY_WAY_OSM_BY_INTERNAL = "SELECT osm_id FROM osm_way_mappings WHERE internal_id = ?";
-
   /**
-   * Sets the given value to the given index position of the statement or
-   * <code>SQL NULL</code> if the value is <code>null</code>.<br>
-   * <br>
-   * The implementation is equivalent to calling
-   * {@code statement.setNull(index, Types.INTEGER)} if <code>value</code> is
-   * <code>null</code> or {@code statement.setInt(index, value)} otherwise.
-   *
-   * @param index     The index position of the statement to set the value to
-   * @param value     The value to set or <code>null</code> if it should be set to
-   *                  <code>SQL NULL</code>
-   * @param statement The statement to set the value for
-   * @throws SQLException If an SQLException occurred while setting the value,
-   *                      like an invalid index
-   */
-  static void setIntOrNull(final int index, final Integer value, final PreparedStatement statement)
-      throws SQLException {
-    if (value == null) {
-      statement.setNull(index, Types.INTEGER);
-    } else {
-      statement.setInt(index, value);
-    }
-  }
+   * The SQL types of the values of {@link #QUERY_INSERT_NODE_MAPPING} and
+   * {@link #QUERY_INSERT_WAY_MAPPING}.
+   */
+  static final int[] TYPES_INSERT_MAPPING = { Types.INTEGER, Types.BIGINT };
+  /**
+   * The SQL types of the values of {@link #QUERY_INSERT_NODE}.
+   */
+  static final int[] TYPES_INSERT_NODE = { Types.BIGINT, Types.REAL, Types.REAL };
+  /**
+   * The SQL types of the values of {@link #QUERY_INSERT_NODE_TAGS}.
+   */
+  static final int[] TYPES_INSERT_NODE_TAGS = { Types.BIGINT, Types.VARCHAR, Types.VARCHAR };
+  /**
+   * The SQL types of the values of {@link #QUERY_INSERT_WAY_TAGS}.
+   */
+  static final int[] TYPES_INSERT_WAY_TAGS = { Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.INTEGER };
 
   /**
-   * Sets the given value to the given index position of the statement or
-   * <code>SQL NULL</code> if the value is <code>null</code>.<br>
-   * <br>
-   * The implementation is equivalent to calling
-   * {@code statement.setNull(index, Types.VARCHAR)} if <code>value</code> is
-   * <code>null</code> or {@code statement.setString(index, value)} otherwise.
+   * Creates an SQL insert query which inserts the given amount of rows at
+   * once, based on the given query which inserts a single row.
    *
-   * @param index     The index position of the statement to set the value to
-   * @param value     The value to set or <code>null</code> if it should be set to
-   *                  <code>SQL NULL</code>
-   * @param statement The statement to set the value for
-   * @throws SQLException If an SQLException occurred while setting the value,
-   *                      like an invalid index
-   */
-  static void setStringOrNull(final int index, final String value, final PreparedStatement statement)
-      throws SQLException {
-    if (value == null) {
-      statement.setNull(index, Types.VARCHAR);
-    } else {
-      statement.setString(index, value);
+   * @param query The query which inserts a single row, like
+   *              {@link #QUERY_INSERT_NODE}
+   * @param rows  The amount of rows to insert, must be positive
+   * @return The query which inserts the given amount of rows
+   */
+  static String createMultiRowInsert(final String query, final int rows) {
+    final int valuesEnd = query.indexOf(QUERY_VALUES) + QUERY_VALUES.length();
+    final String rowPlaceholders = query.substring(valuesEnd);
+    final StringJoiner queryBuilder = new StringJoiner(QUERY_DATA_DELIMITER, query.substring(0, valuesEnd), "");
+    for (int i = 0; i < rows; i++) {
+      queryBuilder.add(rowPlaceholders);
     }
+    return queryBuilder.toString();
   }
 
   /**
@@ -0,0 +1,224 @@
+package de.unifreiburg.informatik.cobweb.db;
+
+import java.util.Arrays;
+
+import org.eclipse.collections.api.map.primitive.MutableLongIntMap;
+import org.eclipse.collections.impl.factory.primitive.LongIntMaps;
+
+/**
+ * Mapping between OSM IDs and internal IDs which avoids hashing for lookups.
+ * <br>
+ * <br>
+ * Internal IDs are generated contiguously, hence the OSM IDs are stored in a
+ * dense array indexed by the internal ID. The reverse direction is stored as
+ * pairs of OSM and internal IDs, sorted by the OSM ID and searched by a binary
+ * search.<br>
+ * <br>
+ * Pairs added by {@link #put(long, int)} are collected in a map until
+ * {@link #compact()} merges them into the sorted pairs. Lookups consider the
+ * collected pairs, hence the mapping can be used while it is filled.<br>
+ * <br>
+ * The mapping is not safe to modify by multiple threads. Concurrent reads are
+ * safe once all pairs were added and the mapping was compacted.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+final class DenseIdMapping {
+  /**
+   * The initial capacity of the dense array.
+   */
+  private static final int INITIAL_CAPACITY = 16;
+  /**
+   * Value returned for OSM IDs that have no internal ID.
+   */
+  static final int NO_INTERNAL_ID = -1;
+  /**
+   * Value stored in the dense array for internal IDs that have no OSM ID.
+   */
+  private static final long NO_OSM_ID = Long.MIN_VALUE;
+
+  /**
+   * The amount of internal IDs with an OSM ID.
+   */
+  private int mAmountOfInternalIds;
+  /**
+   * The OSM IDs, indexed by their internal ID. Gaps are marked by
+   * {@link #NO_OSM_ID}.
+   */
+  private long[] mInternalToOsm;
+  /**
+   * Pairs that were added but not merged into the sorted pairs yet.
+   */
+  private final MutableLongIntMap mPendingOsmToInternal;
+  /**
+   * The internal IDs, aligned with {@link #mSortedOsmIds}.
+   */
+  private int[] mSortedInternalIds;
+  /**
+   * The OSM IDs of all merged pairs, sorted ascending.
+   */
+  private long[] mSortedOsmIds;
+
+  /**
+   * Creates a new empty mapping.
+   */
+  DenseIdMapping() {
+    mInternalToOsm = new long[INITIAL_CAPACITY];
+    Arrays.fill(mInternalToOsm, NO_OSM_ID);
+    mPendingOsmToInternal = LongIntMaps.mutable.empty();
+    mSortedOsmIds = new long[0];
+    mSortedInternalIds = new int[0];
+  }
+
+  /**
+   * Merges all collected pairs into the sorted pairs. Pairs that were added
+   * later replace previous pairs with the same OSM ID.
+   */
+  void compact() {
+    if (mPendingOsmToInternal.isEmpty()) {
+      return;
+    }
+    final long[] pendingOsmIds = mPendingOsmToInternal.keySet().toSortedArray();
+    final long[] osmIds = new long[mSortedOsmIds.length + pendingOsmIds.length];
+    final int[] internalIds = new int[osmIds.length];
+
+    // Merge both sorted sequences, pending pairs take precedence
+    int size = 0;
+    int sortedIndex = 0;
+    int pendingIndex = 0;
+    while (sortedIndex < mSortedOsmIds.length || pendingIndex < pendingOsmIds.length) {
+      if (pendingIndex == pendingOsmIds.length || sortedIndex < mSortedOsmIds.length
+          && mSortedOsmIds[sortedIndex] < pendingOsmIds[pendingIndex]) {
+        osmIds[size] = mSortedOsmIds[sortedIndex];
+        internalIds[size] = mSortedInternalIds[sortedIndex];
+        sortedIndex++;
+      } else {
+        final long osmId = pendingOsmIds[pendingIndex];
+        if (sortedIndex < mSortedOsmIds.length && mSortedOsmIds[sortedIndex] == osmId) {
+          sortedIndex++;
+        }
+        osmIds[size] = osmId;
+        internalIds[size] = mPendingOsmToInternal.get(osmId);
+        pendingIndex++;
+      }
+      size++;
+    }
+
+    mSortedOsmIds = Arrays.copyOf(osmIds, size);
+    mSortedInternalIds = Arrays.copyOf(internalIds, size);
+    mPendingOsmToInternal.clear();
+  }
+
+  /**
+   * Whether the given internal ID has an OSM ID.
+   *
+   * @param internalId The internal ID
+   * @return <code>True</code> if the internal ID has an OSM ID,
+   *         <code>false</code> otherwise
+   */
+  boolean containsInternal(final int internalId) {
+    return internalId >= 0 && internalId < mInternalToOsm.length && mInternalToOsm[internalId] != NO_OSM_ID;
+  }
+
+  /**
+   * Gets all internal IDs that have an OSM ID.
+   *
+   * @return The internal IDs, sorted ascending
+   */
+  int[] getInternalIds() {
+    final int[] internalIds = new int[mAmountOfInternalIds];
+    int index = 0;
+    for (int internalId = 0; internalId < mInternalToOsm.length; internalId++) {
+      if (mInternalToOsm[internalId] != NO_OSM_ID) {
+        internalIds[index] = internalId;
+        index++;
+      }
+    }
+    return internalIds;
+  }
+
+  /**
+   * Gets the internal ID of the given OSM ID.
+   *
+   * @param osmId The OSM ID
+   * @return The internal ID or {@link #NO_INTERNAL_ID} if the OSM ID has no
+   *         internal ID
+   */
+  int getInternal(final long osmId) {
+    if (!mPendingOsmToInternal.isEmpty()) {
+      final int internalId = mPendingOsmToInternal.getIfAbsent(osmId, NO_INTERNAL_ID);
+      if (internalId != NO_INTERNAL_ID) {
+        return internalId;
+      }
+    }
+    final int index = Arrays.binarySearch(mSortedOsmIds, osmId);
+    if (index < 0) {
+      return NO_INTERNAL_ID;
+    }
+    return mSortedInternalIds[index];
+  }
+
+  /**
+   * Gets the OSM ID of the given internal ID. Use
+   * {@link #containsInternal(int)} to check if it has one.
+   *
+   * @param internalId The internal ID, it must have an OSM ID
+   * @return The OSM ID of the internal ID
+   */
+  long getOsm(final int internalId) {
+    return mInternalToOsm[internalId];
+  }
+
+  /**
+   * Gets the internal IDs of the sorted pairs, aligned with
+   * {@link #getSortedOsmIds()}. Compacts the mapping first.
+   *
+   * @return The internal IDs, the array must not be modified
+   */
+  int[] getSortedInternalIds() {
+    compact();
+    return mSortedInternalIds;
+  }
+
+  /**
+   * Gets the OSM IDs of the sorted pairs. Compacts the mapping first.
+   *
+   * @return The OSM IDs sorted ascending, the array must not be modified
+   */
+  long[] getSortedOsmIds() {
+    compact();
+    return mSortedOsmIds;
+  }
+
+  /**
+   * Adds the given pair, replacing a previous pair of the OSM ID. An internal
+   * ID is expected to be added with only one OSM ID.
+   *
+   * @param osmId      The OSM ID
+   * @param internalId The internal ID, must not be negative
+   */
+  void put(final long osmId, final int internalId) {
+    if (internalId < 0) {
+      throw new IllegalArgumentException("Internal IDs must not be negative: " + internalId);
+    }
+    if (internalId >= mInternalToOsm.length) {
+      final int previousLength = mInternalToOsm.length;
+      mInternalToOsm = Arrays.copyOf(mInternalToOsm, Math.max(2 * previousLength, internalId + 1));
+      Arrays.fill(mInternalToOsm, previousLength, mInternalToOsm.length, NO_OSM_ID);
+    }
+    if (mInternalToOsm[internalId] == NO_OSM_ID) {
+      mAmountOfInternalIds++;
+    }
+    mInternalToOsm[internalId] = osmId;
+    mPendingOsmToInternal.put(osmId, internalId);
+  }
+
+  /**
+   * Gets the amount of internal IDs that have an OSM ID.
+   *
+   * @return The amount of internal IDs
+   */
+  int size() {
+    return mAmountOfInternalIds;
+  }
+}
@@ -2,8 +2,6 @@ package de.unifreiburg.informatik.cobweb.db;
 
 import java.io.IOException;
 import java.nio.file.Path;
-import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -13,11 +11,18 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
 import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
+import org.eclipse.collections.api.map.primitive.IntLongMap;
+import org.eclipse.collections.api.map.primitive.LongObjectMap;
+import org.eclipse.collections.api.map.primitive.MutableIntLongMap;
+import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
+import org.eclipse.collections.impl.map.mutable.primitive.IntLongHashMap;
+import org.eclipse.collections.impl.map.mutable.primitive.LongObjectHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,8 +44,17 @@ import de.unifreiburg.informatik.cobweb.routing.parsing.osm.IdMapping;
  * a constructor. Use {@link #initialize()} before using the database and
  * {@link #shutdown()} when finished using the it.<br>
  * <br>
+ * Connections are taken from a bounded {@link ConnectionPool} which is created
+ * with the settings of the provider. The prepared statements of lookups and
+ * insertions are cached per connection, statements with a varying amount of
+ * parameters are prepared for every call. Lookups of node names and OSM node
+ * IDs are split into chunks of {@value #LOOKUP_CHUNK_SIZE} IDs, which use
+ * cached statements except for the last chunk.<br>
+ * <br>
  * Push data to the database by using {@link #offerOsmEntities(Iterable, int)}
- * and similar methods.
+ * and similar methods. Insertions are sent in JDBC batches of multi-row
+ * statements, see {@link BatchInserter}. Call {@link #finishImport()} once all
+ * data was pushed to create the lookup indices.
  *
  * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
  */
@@ -49,48 +63,124 @@ public final class ExternalDatabase extends ADatabase {
    * The logger to use for logging.
    */
   private static final Logger LOGGER = LoggerFactory.getLogger(ExternalDatabase.class);
+  /**
+   * The maximal amount of IDs looked up by a single statement.
+   */
+  private static final int LOOKUP_CHUNK_SIZE = 500;
+  /**
+   * Query for the names of a full chunk of nodes, see
+   * {@link #LOOKUP_CHUNK_SIZE}.
+   */
+  private static final String QUERY_NODE_NAMES_CHUNK =
+      ExternalDatabase.buildLookupQuery(DatabaseUtil.QUERY_NODE_NAMES_PREFIX, LOOKUP_CHUNK_SIZE);
+  /**
+   * Query for the OSM IDs of a full chunk of internal nodes, see
+   * {@link #LOOKUP_CHUNK_SIZE}.
+   */
+  private static final String QUERY_NODE_OSM_BY_INTERNAL_CHUNK =
+      ExternalDatabase.buildLookupQuery(DatabaseUtil.QUERY_NODE_OSM_BY_INTERNAL_PREFIX, LOOKUP_CHUNK_SIZE);
 
   /**
-   * Pushes the given ID mapping to the database if not already contained.<br>
-   * <br>
-   * In case multiple mappings are to be pushed, auto-commit should be set to
-   * <code>false</code> before calling the method. The method will not force a
-   * commit on its own.
+   * Builds a lookup query with the given prefix and amount of parameters.
+   *
+   * @param prefix The prefix of the query, ending with the opening bracket of
+   *               the parameter list
+   * @param amount The amount of parameters
+   * @return The query
+   */
+  private static String buildLookupQuery(final String prefix, final int amount) {
+    final StringJoiner queryBuilder =
+        new StringJoiner(DatabaseUtil.QUERY_DATA_DELIMITER, prefix, DatabaseUtil.QUERY_INSERT_SUFFIX);
+    IntStream.range(0, amount).forEach(i -> queryBuilder.add(DatabaseUtil.QUERY_PLACEHOLDER));
+    return queryBuilder.toString();
+  }
+
+  /**
+   * Looks up the names of the given chunk of nodes.
+   *
+   * @param statement The statement to use, it has one parameter per node of
+   *                  the chunk
+   * @param ids       The IDs of all nodes to look up
+   * @param from      The index of the first node of the chunk, inclusive
+   * @param to        The index of the last node of the chunk, exclusive
+   * @param nodeNames Map to put the names of the nodes to, nodes without name
+   *                  are not put
+   * @throws SQLException If an SQL exception occurred while executing the
+   *                      statement
+   */
+  private static void queryNodeNames(final PreparedStatement statement, final long[] ids, final int from,
+      final int to, final MutableLongObjectMap<String> nodeNames) throws SQLException {
+    for (int i = from; i < to; i++) {
+      statement.setLong(i - from + 1, ids[i]);
+    }
+    try (ResultSet result = statement.executeQuery()) {
+      while (result.next()) {
+        final String name = result.getString(2);
+        if (name != null) {
+          nodeNames.put(result.getLong(1), name);
+        }
+      }
+    }
+  }
+
+  /**
+   * Looks up the OSM IDs of the given chunk of internal nodes.
+   *
+   * @param statement     The statement to use, it has one parameter per node
+   *                      of the chunk
+   * @param internalIds   The internal IDs of all nodes to look up
+   * @param from          The index of the first node of the chunk, inclusive
+   * @param to            The index of the last node of the chunk, exclusive
+   * @param internalToOsm Map to put the OSM IDs of the nodes to, by their
+   *                      internal ID
+   * @throws SQLException If an SQL exception occurred while executing the
+   *                      statement
+   */
+  private static void queryOsmNodesByInternal(final PreparedStatement statement, final int[] internalIds,
+      final int from, final int to, final MutableIntLongMap internalToOsm) throws SQLException {
+    for (int i = from; i < to; i++) {
+      statement.setInt(i - from + 1, internalIds[i]);
+    }
+    try (ResultSet result = statement.executeQuery()) {
+      while (result.next()) {
+        internalToOsm.put(result.getInt(1), result.getLong(2));
+      }
+    }
+  }
+
+  /**
+   * Queues the given ID mapping for insertion into the database. It is
+   * inserted once the inserter executes its batch.
    *
-   * @param mapping    The mapping to push to the database
-   * @param connection The connection to the database
+   * @param mapping      The mapping to push to the database
+   * @param nodeInserter The inserter for node mappings
+   * @param wayInserter  The inserter for way mappings
    * @throws SQLException If an SQL exception occurred while trying to execute
-   *                      the update
+   *                      a batch
    */
-  private static void queueMapping(final IdMapping mapping, final Connection connection) throws SQLException {
-    String query;
+  private static void queueMapping(final IdMapping mapping, final BatchInserter nodeInserter,
+      final BatchInserter wayInserter) throws SQLException {
+    BatchInserter inserter;
     if (mapping.isNode()) {
-      query = DatabaseUtil.QUERY_INSERT_NODE_MAPPING;
+      inserter = nodeInserter;
     } else {
-      query = DatabaseUtil.QUERY_INSERT_WAY_MAPPING;
-    }
-
-    // Insert mapping
-    try (PreparedStatement nodeStatement = connection.prepareStatement(query)) {
-      nodeStatement.setInt(1, mapping.getInternalId());
-      nodeStatement.setLong(2, mapping.getOsmId());
-      nodeStatement.executeUpdate();
+      inserter = wayInserter;
     }
+    inserter.addRow(mapping.getInternalId(), mapping.getOsmId());
   }
 
   /**
-   * Pushes the given OSM node to the database if not already contained.<br>
-   * <br>
-   * In case multiple nodes are to be pushed, auto-commit should be set to
-   * <code>false</code> before calling the method. The method will not force a
-   * commit on its own.
+   * Queues the given OSM node for insertion into the database. It is inserted
+   * once the inserters execute their batches.
    *
-   * @param node       The node to push to the database
-   * @param connection The connection to the database
+   * @param node         The node to push to the database
+   * @param nodeInserter The inserter for node data
+   * @param tagInserter  The inserter for node tag data
    * @throws SQLException If an SQL exception occurred while trying to execute
-   *                      the update
+   *                      a batch
    */
-  private static void queueOsmNode(final OsmNode node, final Connection connection) throws SQLException {
+  private static void queueOsmNode(final OsmNode node, final BatchInserter nodeInserter,
+      final BatchInserter tagInserter) throws SQLException {
     // Retrieve information
     final long id = node.getId();
     final float latitude = (float) node.getLatitude();
@@ -99,36 +189,20 @@ public final class ExternalDatabase extends ADatabase {
     final String name = tagToValue.get(OsmParseUtil.NAME_TAG);
     final String highway = tagToValue.get(OsmParseUtil.HIGHWAY_TAG);
 
-    // Insert node data
-    try (PreparedStatement nodeStatement = connection.prepareStatement(DatabaseUtil.QUERY_INSERT_NODE)) {
-      nodeStatement.setLong(1, id);
-      nodeStatement.setFloat(2, latitude);
-      nodeStatement.setFloat(3, longitude);
-      nodeStatement.executeUpdate();
-    }
-
-    // Insert tag data
-    try (PreparedStatement tagStatement = connection.prepareStatement(DatabaseUtil.QUERY_INSERT_NODE_TAGS)) {
-      tagStatement.setLong(1, id);
-      DatabaseUtil.setStringOrNull(2, name, tagStatement);
-      DatabaseUtil.setStringOrNull(3, highway, tagStatement);
-      tagStatement.executeUpdate();
-    }
+    nodeInserter.addRow(id, latitude, longitude);
+    tagInserter.addRow(id, name, highway);
   }
 
   /**
-   * Pushes the given OSM way to the database if not already contained.<br>
-   * <br>
-   * In case multiple ways are to be pushed, auto-commit should be set to
-   * <code>false</code> before calling the method. The method will not force a
-   * commit on its own.
+   * Queues the given OSM way for insertion into the database. It is inserted
+   * once the inserter executes its batch.
    *
-   * @param way        The way to push to the database
-   * @param connection The connection to the database
+   * @param way         The way to push to the database
+   * @param tagInserter The inserter for way tag data
    * @throws SQLException If an SQL exception occurred while trying to execute
-   *                      the update
+   *                      a batch
    */
-  private static void queueOsmWay(final OsmWay way, final Connection connection) throws SQLException {
+  private static void queueOsmWay(final OsmWay way, final BatchInserter tagInserter) throws SQLException {
     // Retrieve information
     final long wayId = way.getId();
     final Map<String, String> tagToValue = OsmModelUtil.getTagsAsMap(way);
@@ -139,20 +213,25 @@ public final class ExternalDatabase extends ADatabase {
       maxSpeed = null;
     }
 
-    // Insert tag data
-    try (PreparedStatement tagStatement = connection.prepareStatement(DatabaseUtil.QUERY_INSERT_WAY_TAGS)) {
-      tagStatement.setLong(1, wayId);
-      DatabaseUtil.setStringOrNull(2, name, tagStatement);
-      DatabaseUtil.setStringOrNull(3, highway, tagStatement);
-      DatabaseUtil.setIntOrNull(4, maxSpeed, tagStatement);
-      tagStatement.executeUpdate();
-    }
+    tagInserter.addRow(wayId, name, highway, maxSpeed);
   }
 
+  /**
+   * The amount of rows after which a batch of insertions is executed.
+   */
+  private final int mBatchSize;
   /**
    * The configuration provider.
    */
   private final IDatabaseConfigProvider mConfig;
+  /**
+   * The pool of connections to the external database.
+   */
+  private final ConnectionPool mPool;
+  /**
+   * The amount of rows inserted by a single insert statement.
+   */
+  private final int mRowsPerStatement;
 
   /**
    * Creates a new external database object which uses the configuration given
@@ -165,6 +244,38 @@ public final class ExternalDatabase extends ADatabase {
    */
   public ExternalDatabase(final IDatabaseConfigProvider config) {
     mConfig = config;
+    mPool = new ConnectionPool(config.getJdbcUrl(), config.getDbPoolSize(),
+        TimeUnit.SECONDS.toMillis(config.getDbPoolTimeout()), config.getDbStatementCacheSize());
+    mBatchSize = config.getDbBatchSize();
+    mRowsPerStatement = config.getDbInsertRowsPerStatement();
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#finishChange()
+   */
+  @Override
+  public void finishChange() {
+    // Indices already exist and are maintained while inserting
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#finishImport()
+   */
+  @Override
+  public void finishImport() throws ParseException {
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Creating database indices");
+    }
+    // Indices are created after the import since maintaining them while
+    // inserting slows the insertion down
+    final Path indexDbScript = mConfig.getIndexDbScript();
+    try (PooledConnection connection = mPool.acquire()) {
+      ScriptExecutor.executeScript(indexDbScript, connection.getConnection());
+    } catch (SQLException | IOException e) {
+      throw new ParseException(e);
+    }
   }
 
   /*
@@ -179,15 +290,14 @@ public final class ExternalDatabase extends ADatabase {
       LOGGER.debug("Getting all node name data");
     }
     final List<NodeNameData> nodeData = new ArrayList<>();
-    try (Connection connection = createConnection()) {
-      try (PreparedStatement statement = connection.prepareStatement(DatabaseUtil.QUERY_ALL_NODE_NAME_DATA)) {
-        // Execute the statement and collect the result
-        try (ResultSet result = statement.executeQuery()) {
-          while (result.next()) {
-            final long id = result.getLong(1);
-            final String name = result.getString(2);
-            nodeData.add(new NodeNameData(id, name));
-          }
+    try (PooledConnection connection = mPool.acquire()) {
+      final PreparedStatement statement = connection.prepareStatement(DatabaseUtil.QUERY_ALL_NODE_NAME_DATA);
+      // Execute the statement and collect the result
+      try (ResultSet result = statement.executeQuery()) {
+        while (result.next()) {
+          final long id = result.getLong(1);
+          final String name = result.getString(2);
+          nodeData.add(new NodeNameData(id, name));
         }
       }
     } catch (final SQLException e) {
@@ -197,6 +307,16 @@ public final class ExternalDatabase extends ADatabase {
     return nodeData;
   }
 
+  /**
+   * Gets the pool of connections to the external database. Can be used to
+   * inspect the time spent waiting for connections.
+   *
+   * @return The connection pool
+   */
+  public ConnectionPool getConnectionPool() {
+    return mPool;
+  }
+
   /*
    * (non-Javadoc)
    * @see
@@ -214,8 +334,9 @@ public final class ExternalDatabase extends ADatabase {
       LOGGER.debug("Getting highway data for {} ways", size);
     }
     final List<HighwayData> wayData = new ArrayList<>(size);
-    try (Connection connection = createConnection()) {
-      try (PreparedStatement statement = connection.prepareStatement(queryBuilder.toString())) {
+    try (PooledConnection connection = mPool.acquire()) {
+      // The amount of parameters varies, the statement is not cached
+      try (PreparedStatement statement = connection.getConnection().prepareStatement(queryBuilder.toString())) {
         // Fill the statement
         final AtomicInteger counter = new AtomicInteger();
         wayIds.forEach(id -> {
@@ -255,15 +376,14 @@ public final class ExternalDatabase extends ADatabase {
    */
   @Override
   public Optional<Integer> getInternalNodeByOsm(final long osmId) {
-    try (Connection connection = createConnection()) {
-      try (PreparedStatement statement = connection.prepareStatement(DatabaseUtil.QUERY_NODE_INTERNAL_BY_OSM)) {
-        statement.setLong(1, osmId);
-        try (ResultSet result = statement.executeQuery()) {
-          if (result.next()) {
-            return Optional.of(result.getInt(1));
-          }
-          return Optional.empty();
+    try (PooledConnection connection = mPool.acquire()) {
+      final PreparedStatement statement = connection.prepareStatement(DatabaseUtil.QUERY_NODE_INTERNAL_BY_OSM);
+      statement.setLong(1, osmId);
+      try (ResultSet result = statement.executeQuery()) {
+        if (result.next()) {
+          return Optional.of(result.getInt(1));
         }
+        return Optional.empty();
       }
     } catch (final SQLException e) {
       LOGGER.error("Error getting internal node by OSM: {}", osmId, e);
@@ -279,15 +399,14 @@ public final class ExternalDatabase extends ADatabase {
    */
   @Override
   public Optional<Integer> getInternalWayByOsm(final long osmId) {
-    try (Connection connection = createConnection()) {
-      try (PreparedStatement statement = connection.prepareStatement(DatabaseUtil.QUERY_WAY_INTERNAL_BY_OSM)) {
-        statement.setLong(1, osmId);
-        try (ResultSet result = statement.executeQuery()) {
-          if (result.next()) {
-            return Optional.of(result.getInt(1));
-          }
-          return Optional.empty();
+    try (PooledConnection connection = mPool.acquire()) {
+      final PreparedStatement statement = connection.prepareStatement(DatabaseUtil.QUERY_WAY_INTERNAL_BY_OSM);
+      statement.setLong(1, osmId);
+      try (ResultSet result = statement.executeQuery()) {
+        if (result.next()) {
+          return Optional.of(result.getInt(1));
         }
+        return Optional.empty();
       }
     } catch (final SQLException e) {
       LOGGER.error("Error getting internal way by OSM: {}", osmId, e);
@@ -303,15 +422,14 @@ public final class ExternalDatabase extends ADatabase {
    */
   @Override
   public Optional<Long> getNodeByName(final String name) {
-    try (Connection connection = createConnection()) {
-      try (PreparedStatement statement = connection.prepareStatement(DatabaseUtil.QUERY_NODE_ID_BY_NAME)) {
-        statement.setString(1, name);
-        try (ResultSet result = statement.executeQuery()) {
-          if (result.next()) {
-            return Optional.of(result.getLong(1));
-          }
-          return Optional.empty();
+    try (PooledConnection connection = mPool.acquire()) {
+      final PreparedStatement statement = connection.prepareStatement(DatabaseUtil.QUERY_NODE_ID_BY_NAME);
+      statement.setString(1, name);
+      try (ResultSet result = statement.executeQuery()) {
+        if (result.next()) {
+          return Optional.of(result.getLong(1));
         }
+        return Optional.empty();
       }
     } catch (final SQLException e) {
       LOGGER.error("Error getting node by name: {}", name, e);
@@ -325,15 +443,14 @@ public final class ExternalDatabase extends ADatabase {
    */
   @Override
   public Optional<String> getNodeName(final long id) {
-    try (Connection connection = createConnection()) {
-      try (PreparedStatement statement = connection.prepareStatement(DatabaseUtil.QUERY_NODE_NAME_BY_ID)) {
-        statement.setLong(1, id);
-        try (ResultSet result = statement.executeQuery()) {
-          if (result.next()) {
-            return Optional.ofNullable(result.getString(1));
-          }
-          return Optional.empty();
+    try (PooledConnection connection = mPool.acquire()) {
+      final PreparedStatement statement = connection.prepareStatement(DatabaseUtil.QUERY_NODE_NAME_BY_ID);
+      statement.setLong(1, id);
+      try (ResultSet result = statement.executeQuery()) {
+        if (result.next()) {
+          return Optional.ofNullable(result.getString(1));
         }
+        return Optional.empty();
       }
     } catch (final SQLException e) {
       LOGGER.error("Error getting node name by id: {}", id, e);
@@ -341,6 +458,45 @@ public final class ExternalDatabase extends ADatabase {
     }
   }
 
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getNodeNames(java.util
+   * .stream.LongStream, int)
+   */
+  @Override
+  public LongObjectMap<String> getNodeNames(final LongStream ids, final int size) {
+    final MutableLongObjectMap<String> nodeNames = new LongObjectHashMap<>(size);
+    if (size == 0) {
+      return nodeNames;
+    }
+
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Getting node names for {} nodes", size);
+    }
+    final long[] idsArray = ids.toArray();
+    try (PooledConnection connection = mPool.acquire()) {
+      for (int from = 0; from < idsArray.length; from += LOOKUP_CHUNK_SIZE) {
+        final int to = Math.min(from + LOOKUP_CHUNK_SIZE, idsArray.length);
+        if (to - from == LOOKUP_CHUNK_SIZE) {
+          ExternalDatabase.queryNodeNames(connection.prepareStatement(QUERY_NODE_NAMES_CHUNK), idsArray, from, to,
+              nodeNames);
+          continue;
+        }
+        // The amount of parameters of the last chunk varies, the statement is
+        // not cached
+        try (PreparedStatement statement = connection.getConnection()
+            .prepareStatement(ExternalDatabase.buildLookupQuery(DatabaseUtil.QUERY_NODE_NAMES_PREFIX, to - from))) {
+          ExternalDatabase.queryNodeNames(statement, idsArray, from, to, nodeNames);
+        }
+      }
+    } catch (final SQLException e) {
+      LOGGER.error("Error getting node names for {} nodes, current result is {}", size, nodeNames, e);
+    }
+
+    return nodeNames;
+  }
+
   /*
    * (non-Javadoc)
    * @see
@@ -349,15 +505,14 @@ public final class ExternalDatabase extends ADatabase {
    */
   @Override
   public Optional<Long> getOsmNodeByInternal(final int internalId) {
-    try (Connection connection = createConnection()) {
-      try (PreparedStatement statement = connection.prepareStatement(DatabaseUtil.QUERY_NODE_OSM_BY_INTERNAL)) {
-        statement.setInt(1, internalId);
-        try (ResultSet result = statement.executeQuery()) {
-          if (result.next()) {
-            return Optional.of(result.getLong(1));
-          }
-          return Optional.empty();
+    try (PooledConnection connection = mPool.acquire()) {
+      final PreparedStatement statement = connection.prepareStatement(DatabaseUtil.QUERY_NODE_OSM_BY_INTERNAL);
+      statement.setInt(1, internalId);
+      try (ResultSet result = statement.executeQuery()) {
+        if (result.next()) {
+          return Optional.of(result.getLong(1));
         }
+        return Optional.empty();
       }
     } catch (final SQLException e) {
       LOGGER.error("Error getting OSM node by internal: {}", internalId, e);
@@ -365,6 +520,45 @@ public final class ExternalDatabase extends ADatabase {
     }
   }
 
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getOsmNodesByInternal
+   * (java.util.stream.IntStream, int)
+   */
+  @Override
+  public IntLongMap getOsmNodesByInternal(final IntStream internalIds, final int size) {
+    final MutableIntLongMap internalToOsm = new IntLongHashMap(size);
+    if (size == 0) {
+      return internalToOsm;
+    }
+
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Getting OSM nodes for {} internal nodes", size);
+    }
+    final int[] internalIdsArray = internalIds.toArray();
+    try (PooledConnection connection = mPool.acquire()) {
+      for (int from = 0; from < internalIdsArray.length; from += LOOKUP_CHUNK_SIZE) {
+        final int to = Math.min(from + LOOKUP_CHUNK_SIZE, internalIdsArray.length);
+        if (to - from == LOOKUP_CHUNK_SIZE) {
+          ExternalDatabase.queryOsmNodesByInternal(connection.prepareStatement(QUERY_NODE_OSM_BY_INTERNAL_CHUNK),
+              internalIdsArray, from, to, internalToOsm);
+          continue;
+        }
+        // The amount of parameters of the last chunk varies, the statement is
+        // not cached
+        try (PreparedStatement statement = connection.getConnection().prepareStatement(
+            ExternalDatabase.buildLookupQuery(DatabaseUtil.QUERY_NODE_OSM_BY_INTERNAL_PREFIX, to - from))) {
+          ExternalDatabase.queryOsmNodesByInternal(statement, internalIdsArray, from, to, internalToOsm);
+        }
+      }
+    } catch (final SQLException e) {
+      LOGGER.error("Error getting OSM nodes for {} internal nodes, current result is {}", size, internalToOsm, e);
+    }
+
+    return internalToOsm;
+  }
+
   /*
    * (non-Javadoc)
    * @see
@@ -373,15 +567,14 @@ public final class ExternalDatabase extends ADatabase {
    */
   @Override
   public Optional<Long> getOsmWayByInternal(final int internalId) {
-    try (Connection connection = createConnection()) {
-      try (PreparedStatement statement = connection.prepareStatement(DatabaseUtil.QUERY_WAY_OSM_BY_INTERNAL)) {
-        statement.setInt(1, internalId);
-        try (ResultSet result = statement.executeQuery()) {
-          if (result.next()) {
-            return Optional.of(result.getLong(1));
-          }
-          return Optional.empty();
+    try (PooledConnection connection = mPool.acquire()) {
+      final PreparedStatement statement = connection.prepareStatement(DatabaseUtil.QUERY_WAY_OSM_BY_INTERNAL);
+      statement.setInt(1, internalId);
+      try (ResultSet result = statement.executeQuery()) {
+        if (result.next()) {
+          return Optional.of(result.getLong(1));
         }
+        return Optional.empty();
       }
     } catch (final SQLException e) {
       LOGGER.error("Error getting OSM way by internal: {}", internalId, e);
@@ -406,8 +599,9 @@ public final class ExternalDatabase extends ADatabase {
       LOGGER.debug("Getting spatial data for {} nodes", size);
     }
     final List<SpatialNodeData> nodeData = new ArrayList<>(size);
-    try (Connection connection = createConnection()) {
-      try (PreparedStatement statement = connection.prepareStatement(queryBuilder.toString())) {
+    try (PooledConnection connection = mPool.acquire()) {
+      // The amount of parameters varies, the statement is not cached
+      try (PreparedStatement statement = connection.getConnection().prepareStatement(queryBuilder.toString())) {
         // Fill the statement
         final AtomicInteger counter = new AtomicInteger();
         nodeIds.forEach(id -> {
@@ -445,15 +639,14 @@ public final class ExternalDatabase extends ADatabase {
    */
   @Override
   public Optional<Long> getWayByName(final String name) {
-    try (Connection connection = createConnection()) {
-      try (PreparedStatement statement = connection.prepareStatement(DatabaseUtil.QUERY_WAY_ID_BY_NAME)) {
-        statement.setString(1, name);
-        try (ResultSet result = statement.executeQuery()) {
-          if (result.next()) {
-            return Optional.of(result.getLong(1));
-          }
-          return Optional.empty();
+    try (PooledConnection connection = mPool.acquire()) {
+      final PreparedStatement statement = connection.prepareStatement(DatabaseUtil.QUERY_WAY_ID_BY_NAME);
+      statement.setString(1, name);
+      try (ResultSet result = statement.executeQuery()) {
+        if (result.next()) {
+          return Optional.of(result.getLong(1));
         }
+        return Optional.empty();
       }
     } catch (final SQLException e) {
       LOGGER.error("Error getting way by name: {}", name, e);
@@ -467,15 +660,14 @@ public final class ExternalDatabase extends ADatabase {
    */
   @Override
   public Optional<String> getWayName(final long id) {
-    try (Connection connection = createConnection()) {
-      try (PreparedStatement statement = connection.prepareStatement(DatabaseUtil.QUERY_WAY_NAME_BY_ID)) {
-        statement.setLong(1, id);
-        try (ResultSet result = statement.executeQuery()) {
-          if (result.next()) {
-            return Optional.ofNullable(result.getString(1));
-          }
-          return Optional.empty();
+    try (PooledConnection connection = mPool.acquire()) {
+      final PreparedStatement statement = connection.prepareStatement(DatabaseUtil.QUERY_WAY_NAME_BY_ID);
+      statement.setLong(1, id);
+      try (ResultSet result = statement.executeQuery()) {
+        if (result.next()) {
+          return Optional.ofNullable(result.getString(1));
         }
+        return Optional.empty();
       }
     } catch (final SQLException e) {
       LOGGER.error("Error getting way name by id: {}", id, e);
@@ -494,8 +686,8 @@ public final class ExternalDatabase extends ADatabase {
     }
     // Create database tables if they don't exist already
     final Path initDbScript = mConfig.getInitDbScript();
-    try {
-      ScriptExecutor.executeScript(initDbScript, createConnection());
+    try (PooledConnection connection = mPool.acquire()) {
+      ScriptExecutor.executeScript(initDbScript, connection.getConnection());
     } catch (SQLException | IOException e) {
       throw new ParseException(e);
     }
@@ -512,21 +704,27 @@ public final class ExternalDatabase extends ADatabase {
     if (LOGGER.isDebugEnabled()) {
       LOGGER.debug("Offering {} ID mappings to the database", size);
     }
-    try (Connection connection = createConnection()) {
-      connection.setAutoCommit(false);
+    try (PooledConnection connection = mPool.acquire()) {
+      connection.getConnection().setAutoCommit(false);
+      final BatchInserter nodeInserter = new BatchInserter(connection, DatabaseUtil.QUERY_INSERT_NODE_MAPPING,
+          DatabaseUtil.TYPES_INSERT_MAPPING, mRowsPerStatement, mBatchSize);
+      final BatchInserter wayInserter = new BatchInserter(connection, DatabaseUtil.QUERY_INSERT_WAY_MAPPING,
+          DatabaseUtil.TYPES_INSERT_MAPPING, mRowsPerStatement, mBatchSize);
 
       // Queue all queries
       mappings.forEach(mapping -> {
         try {
-          ExternalDatabase.queueMapping(mapping, connection);
+          ExternalDatabase.queueMapping(mapping, nodeInserter, wayInserter);
         } catch (final SQLException e) {
           LOGGER.error("Error queueing mapping for database insertion: {}", mapping, e);
         }
       });
 
       // Submit all queries
-      connection.commit();
-      connection.setAutoCommit(true);
+      nodeInserter.flush();
+      wayInserter.flush();
+      connection.getConnection().commit();
+      connection.getConnection().setAutoCommit(true);
     } catch (final SQLException e) {
       LOGGER.error("Error offering {} mappings to the database", size, e);
     }
@@ -543,16 +741,22 @@ public final class ExternalDatabase extends ADatabase {
     if (LOGGER.isDebugEnabled()) {
       LOGGER.debug("Offering {} entities to the database", size);
     }
-    try (Connection connection = createConnection()) {
-      connection.setAutoCommit(false);
+    try (PooledConnection connection = mPool.acquire()) {
+      connection.getConnection().setAutoCommit(false);
+      final BatchInserter nodeInserter = new BatchInserter(connection, DatabaseUtil.QUERY_INSERT_NODE,
+          DatabaseUtil.TYPES_INSERT_NODE, mRowsPerStatement, mBatchSize);
+      final BatchInserter nodeTagInserter = new BatchInserter(connection, DatabaseUtil.QUERY_INSERT_NODE_TAGS,
+          DatabaseUtil.TYPES_INSERT_NODE_TAGS, mRowsPerStatement, mBatchSize);
+      final BatchInserter wayTagInserter = new BatchInserter(connection, DatabaseUtil.QUERY_INSERT_WAY_TAGS,
+          DatabaseUtil.TYPES_INSERT_WAY_TAGS, mRowsPerStatement, mBatchSize);
 
       // Queue all queries
       entities.forEach(entity -> {
         try {
           if (entity instanceof OsmNode) {
-            ExternalDatabase.queueOsmNode((OsmNode) entity, connection);
+            ExternalDatabase.queueOsmNode((OsmNode) entity, nodeInserter, nodeTagInserter);
           } else if (entity instanceof OsmWay) {
-            ExternalDatabase.queueOsmWay((OsmWay) entity, connection);
+            ExternalDatabase.queueOsmWay((OsmWay) entity, wayTagInserter);
           }
         } catch (final SQLException e) {
           LOGGER.error("Error queueing entity for database insertion: {}", entity, e);
@@ -560,8 +764,11 @@ public final class ExternalDatabase extends ADatabase {
       });
 
       // Submit all queries
-      connection.commit();
-      connection.setAutoCommit(true);
+      nodeInserter.flush();
+      nodeTagInserter.flush();
+      wayTagInserter.flush();
+      connection.getConnection().commit();
+      connection.getConnection().setAutoCommit(true);
     } catch (final SQLException e) {
       LOGGER.error("Error offering {} entities to the database", size, e);
     }
@@ -573,21 +780,7 @@ public final class ExternalDatabase extends ADatabase {
    */
   @Override
   public void shutdown() {
-    // Nothing needs to be done
     LOGGER.info("Shutting down database");
+    mPool.shutdown();
   }
-
-  /**
-   * Creates a connection to the external database by using the JDBC URL
-   * provided by the configuration provider.
-   *
-   * @return The connection to the external database
-   * @throws SQLException If an SQL exception occurred while trying to connect
-   *                      to the external database. For example if the JDB URL
-   *                      was invalid.
-   */
-  private Connection createConnection() throws SQLException {
-    return DriverManager.getConnection(mConfig.getJdbcUrl());
-  }
-
 }
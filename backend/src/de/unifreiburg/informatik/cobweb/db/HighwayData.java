@@ -9,6 +9,43 @@ import de.unifreiburg.informatik.cobweb.parsing.osm.EHighwayType;
  * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
  */
 public final class HighwayData {
+  /**
+   * All highway types, indexed by their ordinal.
+   */
+  private static final EHighwayType[] TYPES = EHighwayType.values();
+  /**
+   * The encoded type of highways whose type is unknown.
+   */
+  private static final byte UNKNOWN_TYPE = -1;
+
+  /**
+   * Decodes the given highway type, as encoded by
+   * {@link #encodeType(EHighwayType)}.
+   *
+   * @param encodedType The encoded highway type
+   * @return The highway type or <code>null</code> if unknown
+   */
+  static EHighwayType decodeType(final byte encodedType) {
+    if (encodedType == UNKNOWN_TYPE) {
+      return null;
+    }
+    return TYPES[encodedType];
+  }
+
+  /**
+   * Encodes the given highway type into a single byte, which is used to store
+   * highway data in packed columns.
+   *
+   * @param type The highway type or <code>null</code> if unknown
+   * @return The encoded highway type
+   */
+  static byte encodeType(final EHighwayType type) {
+    if (type == null) {
+      return UNKNOWN_TYPE;
+    }
+    return (byte) type.ordinal();
+  }
+
   /**
    * Maximal allowed speed in <code>km/h</code>.
    */
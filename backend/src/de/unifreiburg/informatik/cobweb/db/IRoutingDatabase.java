@@ -2,9 +2,13 @@ package de.unifreiburg.informatik.cobweb.db;
 
 import java.util.Collection;
 import java.util.Optional;
+import java.util.stream.IntStream;
 import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
+import org.eclipse.collections.api.map.primitive.IntLongMap;
+import org.eclipse.collections.api.map.primitive.LongObjectMap;
+
 import de.topobyte.osm4j.core.model.iface.OsmEntity;
 import de.unifreiburg.informatik.cobweb.routing.parsing.osm.IdMapping;
 
@@ -14,6 +18,22 @@ import de.unifreiburg.informatik.cobweb.routing.parsing.osm.IdMapping;
  * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
  */
 public interface IRoutingDatabase {
+  /**
+   * Finishes the import of data into the database. Call this method once all
+   * data was offered, before using the database for lookups. Databases may
+   * defer work that slows insertions down, like creating indices, until then.
+   */
+  void finishImport();
+
+  /**
+   * Finishes a change of the data of the database. Call this method once all
+   * data of a change was offered after the import already finished. Unlike
+   * {@link #finishImport()}, databases may keep changed data in memory instead
+   * of rebuilding their storage, hence it is suited for small and frequent
+   * changes.
+   */
+  void finishChange();
+
   /**
    * Gets highway data for all highways in the database that have one of the
    * given way IDs.
@@ -80,6 +100,21 @@ public interface IRoutingDatabase {
    */
   Optional<String> getNodeName(long id);
 
+  /**
+   * Gets the names of all nodes in the database that have one of the given
+   * unique OSM IDs.<br>
+   * <br>
+   * Use this method instead of {@link #getNodeName(long)} when names of
+   * multiple nodes are needed, it only accesses the database once.
+   *
+   * @param ids  The IDs of the nodes
+   * @param size The amount of IDs to get names for, i.e. the size of
+   *             <code>ids</code>. This value must be set correctly.
+   * @return Map connecting the IDs to the names of the nodes. If a node has no
+   *         name or could not be found, then its ID is not contained.
+   */
+  LongObjectMap<String> getNodeNames(LongStream ids, int size);
+
   /**
    * Attempts to get the unique OSM ID of a node by its internal ID.
    *
@@ -89,6 +124,22 @@ public interface IRoutingDatabase {
    */
   Optional<Long> getOsmNodeByInternal(int internalId);
 
+  /**
+   * Gets the unique OSM IDs of all nodes in the database that have one of the
+   * given internal IDs.<br>
+   * <br>
+   * Use this method instead of {@link #getOsmNodeByInternal(int)} when IDs of
+   * multiple nodes are needed, it only accesses the database once.
+   *
+   * @param internalIds The unique internal IDs of the nodes
+   * @param size        The amount of internal IDs to get OSM IDs for, i.e. the
+   *                    size of <code>internalIds</code>. This value must be
+   *                    set correctly.
+   * @return Map connecting the internal IDs to the OSM IDs of the nodes. If no
+   *         node with an internal ID could be found, then it is not contained.
+   */
+  IntLongMap getOsmNodesByInternal(IntStream internalIds, int size);
+
   /**
    * Attempts to get the unique OSM ID of a way by its internal ID.
    *
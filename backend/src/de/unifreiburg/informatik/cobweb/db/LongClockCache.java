@@ -0,0 +1,103 @@
+package de.unifreiburg.informatik.cobweb.db;
+
+/**
+ * Bounded cache with primitive <code>long</code> keys and values which evicts
+ * entries using the CLOCK algorithm, an approximation of least recently
+ * used.<br>
+ * <br>
+ * Like {@link ClockCache} but neither keys nor values are boxed. The cache can
+ * remember that a key has no value, see {@link #NO_VALUE}. The values
+ * {@link #NOT_CACHED} and {@link #NO_VALUE} are reserved and can not be stored
+ * as regular values.<br>
+ * <br>
+ * The cache is safe to use by multiple threads. It records hits and misses,
+ * see {@link #getHitRate()}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+final class LongClockCache extends AClockCache {
+  /**
+   * Value stored for keys which are known to have no value.
+   */
+  static final long NO_VALUE = Long.MIN_VALUE + 1;
+  /**
+   * Value returned by {@link #get(long)} if no entry is present.
+   */
+  static final long NOT_CACHED = Long.MIN_VALUE;
+
+  /**
+   * The values of the entries, indexed by stripe and slot.
+   */
+  private final long[][] mValues;
+
+  /**
+   * Creates a new empty cache.
+   *
+   * @param capacity The maximal amount of entries in the cache, must be
+   *                 positive
+   */
+  LongClockCache(final int capacity) {
+    super(capacity);
+    mValues = new long[getStripes()][];
+    for (int stripe = 0; stripe < mValues.length; stripe++) {
+      mValues[stripe] = new long[getRing(stripe).getCapacity()];
+    }
+  }
+
+  /**
+   * Gets the value stored for the given key and marks the entry as
+   * referenced.
+   *
+   * @param key The key of the value
+   * @return The value, {@link #NO_VALUE} if the key is known to have no value
+   *         or {@link #NOT_CACHED} if no entry is present
+   */
+  long get(final long key) {
+    final int stripe = stripeOf(key);
+    final ClockRing ring = getRing(stripe);
+    final long value;
+    synchronized (ring) {
+      final int slot = ring.find(key);
+      if (slot == -1) {
+        value = NOT_CACHED;
+      } else {
+        value = mValues[stripe][slot];
+      }
+    }
+    recordLookup(value != NOT_CACHED);
+    return value;
+  }
+
+  /**
+   * Stores the given value for the given key if the cache was not cleared
+   * since the given generation was read, see {@link #getGeneration()}.
+   * Replaces a previous entry and evicts an entry that was not referenced
+   * recently if the cache is full.
+   *
+   * @param key        The key of the value
+   * @param value      The value to store or {@link #NO_VALUE} if the key has no
+   *                   value, not {@link #NOT_CACHED}
+   * @param generation The generation read before the value was computed
+   * @return <code>True</code> if the value was stored, <code>false</code> if
+   *         the cache was cleared in between
+   */
+  boolean put(final long key, final long value, final long generation) {
+    if (value == NOT_CACHED) {
+      throw new IllegalArgumentException("The value is reserved: " + value);
+    }
+    final int stripe = stripeOf(key);
+    final ClockRing ring = getRing(stripe);
+    synchronized (ring) {
+      if (!isCurrentGeneration(generation)) {
+        return false;
+      }
+      mValues[stripe][ring.insert(key)] = value;
+      return true;
+    }
+  }
+
+  @Override
+  protected void clearValues(final int stripe) {
+    // Values of unused slots are never read
+  }
+}
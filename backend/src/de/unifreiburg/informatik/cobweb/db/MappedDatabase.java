@@ -0,0 +1,684 @@
+package de.unifreiburg.informatik.cobweb.db;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import org.eclipse.collections.api.map.primitive.IntLongMap;
+import org.eclipse.collections.api.map.primitive.LongObjectMap;
+import org.eclipse.collections.api.map.primitive.MutableIntLongMap;
+import org.eclipse.collections.api.map.primitive.MutableLongIntMap;
+import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
+import org.eclipse.collections.api.set.primitive.LongSet;
+import org.eclipse.collections.impl.factory.primitive.IntLongMaps;
+import org.eclipse.collections.impl.factory.primitive.LongIntMaps;
+import org.eclipse.collections.impl.map.mutable.primitive.IntLongHashMap;
+import org.eclipse.collections.impl.map.mutable.primitive.LongObjectHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.topobyte.osm4j.core.model.iface.OsmEntity;
+import de.unifreiburg.informatik.cobweb.parsing.ParseException;
+import de.unifreiburg.informatik.cobweb.routing.parsing.osm.IdMapping;
+
+/**
+ * Implementation of a {@link IRoutingDatabase} which persists its data in
+ * memory-mapped files of a directory. The files are opened read-only on
+ * {@link #initialize()}, hence a restart does not need to import the data
+ * again and the data does not occupy heap memory, see {@link MappedStore}.<br>
+ * <br>
+ * Data pushed by {@link #offerOsmEntities(Iterable, int)} and similar methods
+ * before the import finished is collected in a {@link MemoryDatabase},
+ * together with the data of the files. Queries are answered by the collected
+ * data until {@link #finishImport()} is called, which writes all data to the
+ * files and opens them again.<br>
+ * <br>
+ * Data pushed after the import finished is a change. Changes are kept in
+ * memory on top of the opened files, lookups consider them first. Hence a
+ * change neither copies the data of the files nor rewrites them, see
+ * {@link #finishChange()}. Changes are only written to the files by the next
+ * {@link #finishImport()}, they are lost on shutdown otherwise. Since the
+ * files are read-only, name lookups may still find a changed node or way by
+ * its previous name.<br>
+ * <br>
+ * The database is safe to use by multiple threads. Use {@link #initialize()}
+ * before using the database and {@link #shutdown()} when finished using it.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class MappedDatabase extends ADatabase {
+  /**
+   * The name of the file in the directory of the database which stores the
+   * info about the imported data files.
+   */
+  public static final String INFO_FILE_NAME = "mapped.info";
+  /**
+   * The logger to use for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(MappedDatabase.class);
+  /**
+   * Value used for OSM IDs that have no changed internal ID.
+   */
+  private static final int NO_INTERNAL_ID = -1;
+
+  /**
+   * The nodes and ways offered as change since the files were written. Its ID
+   * mappings are not used, see {@link #mChangedNodeIds} and similar.
+   */
+  private MemoryDatabase mChangedEntities;
+  /**
+   * Map connecting OSM IDs of nodes to their internal IDs, for mappings
+   * offered as change since the files were written.
+   */
+  private final MutableLongIntMap mChangedNodeIds;
+  /**
+   * Map connecting internal IDs of nodes to their OSM IDs, for mappings
+   * offered as change since the files were written.
+   */
+  private final MutableIntLongMap mChangedNodeOsmIds;
+  /**
+   * Map connecting OSM IDs of ways to their internal IDs, for mappings offered
+   * as change since the files were written.
+   */
+  private final MutableLongIntMap mChangedWayIds;
+  /**
+   * Map connecting internal IDs of ways to their OSM IDs, for mappings offered
+   * as change since the files were written.
+   */
+  private final MutableIntLongMap mChangedWayOsmIds;
+  /**
+   * Lock guarding the changes. Lookups hold the read lock while they consider
+   * the changes, offering a change holds the write lock.
+   */
+  private final ReentrantReadWriteLock mChangeLock;
+  /**
+   * The directory the files of the database are stored in.
+   */
+  private final Path mDirectory;
+  /**
+   * Whether changes were offered since the files were written. Lookups skip
+   * the changes if not set.
+   */
+  private volatile boolean mHasChanges;
+  /**
+   * The database which collects offered data until the import finished or
+   * <code>null</code> if no import is running.
+   */
+  private MemoryDatabase mImport;
+  /**
+   * Whether the import finished, data offered afterwards is a change.
+   */
+  private boolean mImportFinished;
+  /**
+   * The database that answers queries. Either the database collecting the
+   * imported data, the opened files or an empty database if there are no
+   * files.
+   */
+  private volatile ADatabase mSource;
+
+  /**
+   * Creates a new database which stores its files in the given directory.<br>
+   * <br>
+   * Use {@link #initialize()} before using the database and {@link #shutdown()}
+   * when finished using it.
+   *
+   * @param directory The directory to store the files of the database in
+   */
+  public MappedDatabase(final Path directory) {
+    mDirectory = directory;
+    mSource = new MemoryDatabase();
+    mChangeLock = new ReentrantReadWriteLock();
+    mChangedEntities = new MemoryDatabase();
+    mChangedNodeIds = LongIntMaps.mutable.empty();
+    mChangedNodeOsmIds = IntLongMaps.mutable.empty();
+    mChangedWayIds = LongIntMaps.mutable.empty();
+    mChangedWayOsmIds = IntLongMaps.mutable.empty();
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#finishChange()
+   */
+  @Override
+  public synchronized void finishChange() {
+    // Changes stay in memory, rewriting the files is left to the next import
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Keeping {} changed node mappings in memory", mChangedNodeIds.size());
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#finishImport()
+   */
+  @Override
+  public synchronized void finishImport() throws ParseException {
+    mImportFinished = true;
+    if (mImport == null && !mHasChanges) {
+      return;
+    }
+    LOGGER.info("Writing mapped database to {}", mDirectory);
+    final long startTime = System.nanoTime();
+    final MemoryDatabase importDatabase = startImport();
+    if (mHasChanges) {
+      copyChangesTo(importDatabase);
+    }
+    try {
+      MappedStore.write(mDirectory, importDatabase);
+    } catch (final IOException e) {
+      throw new ParseException(e);
+    }
+    mImport = null;
+    openStore();
+    clearChanges();
+    LOGGER.info("Wrote mapped database in {} ms", (System.nanoTime() - startTime) / 1_000_000L);
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.INameSearchDatabase#getAllNodeNameData
+   * ()
+   */
+  @Override
+  public Collection<NodeNameData> getAllNodeNameData() {
+    if (!mHasChanges) {
+      return mSource.getAllNodeNameData();
+    }
+    mChangeLock.readLock().lock();
+    try {
+      final LongObjectMap<SpatialNodeData> changedNodes = mChangedEntities.getNodeToSpatialData();
+      final List<NodeNameData> result = mSource.getAllNodeNameData().stream()
+          .filter(data -> !changedNodes.containsKey(data.getId())).collect(Collectors.toList());
+      result.addAll(mChangedEntities.getAllNodeNameData());
+      return result;
+    } finally {
+      mChangeLock.readLock().unlock();
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getHighwayData(java.
+   * util.stream.LongStream, int)
+   */
+  @Override
+  public Collection<HighwayData> getHighwayData(final LongStream wayIds, final int size) {
+    if (!mHasChanges) {
+      return mSource.getHighwayData(wayIds, size);
+    }
+    mChangeLock.readLock().lock();
+    try {
+      final LongSet changedWays = mChangedEntities.getHighwayWays();
+      final long[] ids = wayIds.toArray();
+      final long[] changedIds = Arrays.stream(ids).filter(changedWays::contains).toArray();
+      final long[] unchangedIds = Arrays.stream(ids).filter(id -> !changedWays.contains(id)).toArray();
+      final List<HighwayData> result = new ArrayList<>(size);
+      result.addAll(mChangedEntities.getHighwayData(Arrays.stream(changedIds), changedIds.length));
+      result.addAll(mSource.getHighwayData(Arrays.stream(unchangedIds), unchangedIds.length));
+      return result;
+    } finally {
+      mChangeLock.readLock().unlock();
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getInternalNodeByOsm(
+   * long)
+   */
+  @Override
+  public Optional<Integer> getInternalNodeByOsm(final long osmId) {
+    if (mHasChanges) {
+      final int internalId = getChangedInternal(mChangedNodeIds, osmId);
+      if (internalId != NO_INTERNAL_ID) {
+        return Optional.of(internalId);
+      }
+    }
+    return mSource.getInternalNodeByOsm(osmId);
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getInternalWayByOsm(
+   * long)
+   */
+  @Override
+  public Optional<Integer> getInternalWayByOsm(final long osmId) {
+    if (mHasChanges) {
+      final int internalId = getChangedInternal(mChangedWayIds, osmId);
+      if (internalId != NO_INTERNAL_ID) {
+        return Optional.of(internalId);
+      }
+    }
+    return mSource.getInternalWayByOsm(osmId);
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getNodeByName(java.
+   * lang.String)
+   */
+  @Override
+  public Optional<Long> getNodeByName(final String name) {
+    if (mHasChanges) {
+      mChangeLock.readLock().lock();
+      try {
+        final Optional<Long> changedNode = mChangedEntities.getNodeByName(name);
+        if (changedNode.isPresent()) {
+          return changedNode;
+        }
+      } finally {
+        mChangeLock.readLock().unlock();
+      }
+    }
+    return mSource.getNodeByName(name);
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getNodeName(long)
+   */
+  @Override
+  public Optional<String> getNodeName(final long id) {
+    if (mHasChanges) {
+      mChangeLock.readLock().lock();
+      try {
+        if (mChangedEntities.getNodeToSpatialData().containsKey(id)) {
+          return mChangedEntities.getNodeName(id);
+        }
+      } finally {
+        mChangeLock.readLock().unlock();
+      }
+    }
+    return mSource.getNodeName(id);
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getNodeNames(java.util
+   * .stream.LongStream, int)
+   */
+  @Override
+  public LongObjectMap<String> getNodeNames(final LongStream ids, final int size) {
+    if (!mHasChanges) {
+      return mSource.getNodeNames(ids, size);
+    }
+    mChangeLock.readLock().lock();
+    try {
+      final LongObjectMap<SpatialNodeData> changedNodes = mChangedEntities.getNodeToSpatialData();
+      final long[] allIds = ids.toArray();
+      final long[] changedIds = Arrays.stream(allIds).filter(changedNodes::containsKey).toArray();
+      final long[] unchangedIds = Arrays.stream(allIds).filter(id -> !changedNodes.containsKey(id)).toArray();
+      final MutableLongObjectMap<String> result = new LongObjectHashMap<>(size);
+      result.putAll(mChangedEntities.getNodeNames(Arrays.stream(changedIds), changedIds.length));
+      result.putAll(mSource.getNodeNames(Arrays.stream(unchangedIds), unchangedIds.length));
+      return result;
+    } finally {
+      mChangeLock.readLock().unlock();
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getOsmNodeByInternal(
+   * int)
+   */
+  @Override
+  public Optional<Long> getOsmNodeByInternal(final int internalId) {
+    if (mHasChanges) {
+      final Optional<Long> osmId = getChangedOsm(mChangedNodeOsmIds, internalId);
+      if (osmId.isPresent()) {
+        return osmId;
+      }
+    }
+    return mSource.getOsmNodeByInternal(internalId);
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getOsmNodesByInternal
+   * (java.util.stream.IntStream, int)
+   */
+  @Override
+  public IntLongMap getOsmNodesByInternal(final IntStream internalIds, final int size) {
+    if (!mHasChanges) {
+      return mSource.getOsmNodesByInternal(internalIds, size);
+    }
+    mChangeLock.readLock().lock();
+    try {
+      final int[] ids = internalIds.toArray();
+      final int[] unchangedIds = Arrays.stream(ids).filter(id -> !mChangedNodeOsmIds.containsKey(id)).toArray();
+      final MutableIntLongMap result = new IntLongHashMap(size);
+      for (final int id : ids) {
+        if (mChangedNodeOsmIds.containsKey(id)) {
+          result.put(id, mChangedNodeOsmIds.get(id));
+        }
+      }
+      result.putAll(mSource.getOsmNodesByInternal(Arrays.stream(unchangedIds), unchangedIds.length));
+      return result;
+    } finally {
+      mChangeLock.readLock().unlock();
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getOsmWayByInternal(
+   * int)
+   */
+  @Override
+  public Optional<Long> getOsmWayByInternal(final int internalId) {
+    if (mHasChanges) {
+      final Optional<Long> osmId = getChangedOsm(mChangedWayOsmIds, internalId);
+      if (osmId.isPresent()) {
+        return osmId;
+      }
+    }
+    return mSource.getOsmWayByInternal(internalId);
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getSpatialNodeData(
+   * java.util.stream.LongStream, int)
+   */
+  @Override
+  public Collection<SpatialNodeData> getSpatialNodeData(final LongStream nodeIds, final int size) {
+    if (!mHasChanges) {
+      return mSource.getSpatialNodeData(nodeIds, size);
+    }
+    mChangeLock.readLock().lock();
+    try {
+      final LongObjectMap<SpatialNodeData> changedNodes = mChangedEntities.getNodeToSpatialData();
+      final long[] ids = nodeIds.toArray();
+      final long[] unchangedIds = Arrays.stream(ids).filter(id -> !changedNodes.containsKey(id)).toArray();
+      final List<SpatialNodeData> result = new ArrayList<>(size);
+      for (final long id : ids) {
+        final SpatialNodeData data = changedNodes.get(id);
+        if (data != null) {
+          result.add(withInternalId(data));
+        }
+      }
+      // The internal ID of unchanged nodes may have been changed
+      for (final SpatialNodeData data : mSource.getSpatialNodeData(Arrays.stream(unchangedIds),
+          unchangedIds.length)) {
+        if (mChangedNodeIds.containsKey(data.getOsmId())) {
+          result.add(withInternalId(data));
+        } else {
+          result.add(data);
+        }
+      }
+      return result;
+    } finally {
+      mChangeLock.readLock().unlock();
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getWayByName(java.
+   * lang.String)
+   */
+  @Override
+  public Optional<Long> getWayByName(final String name) {
+    if (mHasChanges) {
+      mChangeLock.readLock().lock();
+      try {
+        final Optional<Long> changedWay = mChangedEntities.getWayByName(name);
+        if (changedWay.isPresent()) {
+          return changedWay;
+        }
+      } finally {
+        mChangeLock.readLock().unlock();
+      }
+    }
+    return mSource.getWayByName(name);
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getWayName(long)
+   */
+  @Override
+  public Optional<String> getWayName(final long id) {
+    if (mHasChanges) {
+      mChangeLock.readLock().lock();
+      try {
+        if (mChangedEntities.getHighwayWays().contains(id)) {
+          return mChangedEntities.getWayName(id);
+        }
+      } finally {
+        mChangeLock.readLock().unlock();
+      }
+    }
+    return mSource.getWayName(id);
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#initialize()
+   */
+  @Override
+  public synchronized void initialize() throws ParseException {
+    openStore();
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#offerIdMappings(java.
+   * util.stream.Stream, int)
+   */
+  @Override
+  public synchronized void offerIdMappings(final Stream<IdMapping> mappings, final int size) {
+    if (!mImportFinished) {
+      startImport().offerIdMappings(mappings, size);
+      return;
+    }
+    mChangeLock.writeLock().lock();
+    try {
+      mappings.forEach(mapping -> {
+        if (mapping.isNode()) {
+          mChangedNodeIds.put(mapping.getOsmId(), mapping.getInternalId());
+          mChangedNodeOsmIds.put(mapping.getInternalId(), mapping.getOsmId());
+        } else {
+          mChangedWayIds.put(mapping.getOsmId(), mapping.getInternalId());
+          mChangedWayOsmIds.put(mapping.getInternalId(), mapping.getOsmId());
+        }
+      });
+      mHasChanges = true;
+    } finally {
+      mChangeLock.writeLock().unlock();
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#offerOsmEntities(java
+   * .util.stream.Stream, int)
+   */
+  @Override
+  public synchronized void offerOsmEntities(final Stream<OsmEntity> entities, final int size) {
+    if (!mImportFinished) {
+      startImport().offerOsmEntities(entities, size);
+      return;
+    }
+    mChangeLock.writeLock().lock();
+    try {
+      mChangedEntities.offerOsmEntities(entities, size);
+      mHasChanges = true;
+    } finally {
+      mChangeLock.writeLock().unlock();
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#shutdown()
+   */
+  @Override
+  public synchronized void shutdown() {
+    LOGGER.info("Shutting down database");
+    if (mImport != null) {
+      LOGGER.warn("Shutting down before the import finished, offered data is not written");
+    }
+    if (mHasChanges) {
+      LOGGER.info("Changes offered after the import are not written");
+    }
+  }
+
+  /**
+   * Removes all changes, used once they were written to the files.
+   */
+  private void clearChanges() {
+    mChangeLock.writeLock().lock();
+    try {
+      mHasChanges = false;
+      mChangedEntities = new MemoryDatabase();
+      mChangedNodeIds.clear();
+      mChangedNodeOsmIds.clear();
+      mChangedWayIds.clear();
+      mChangedWayOsmIds.clear();
+    } finally {
+      mChangeLock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Copies all changes to the given database, replacing its data of the
+   * changed nodes and ways.
+   *
+   * @param target The database to copy the changes to
+   */
+  private void copyChangesTo(final MemoryDatabase target) {
+    mChangeLock.readLock().lock();
+    try {
+      mChangedEntities.copyTo(target);
+      final List<IdMapping> mappings = new ArrayList<>(mChangedNodeIds.size() + mChangedWayIds.size());
+      mChangedNodeIds.forEachKeyValue((osmId, internalId) -> mappings.add(new IdMapping(osmId, internalId, true)));
+      mChangedWayIds.forEachKeyValue((osmId, internalId) -> mappings.add(new IdMapping(osmId, internalId, false)));
+      target.offerIdMappings(mappings, mappings.size());
+    } finally {
+      mChangeLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Gets the changed internal ID of the given OSM ID from the given map.
+   *
+   * @param osmToInternal Map of changed mappings connecting OSM IDs to
+   *                      internal IDs
+   * @param osmId         The OSM ID
+   * @return The changed internal ID or {@link #NO_INTERNAL_ID} if the mapping
+   *         of the OSM ID was not changed
+   */
+  private int getChangedInternal(final MutableLongIntMap osmToInternal, final long osmId) {
+    mChangeLock.readLock().lock();
+    try {
+      return osmToInternal.getIfAbsent(osmId, NO_INTERNAL_ID);
+    } finally {
+      mChangeLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Gets the changed OSM ID of the given internal ID from the given map.
+   *
+   * @param internalToOsm Map of changed mappings connecting internal IDs to
+   *                      OSM IDs
+   * @param internalId    The internal ID
+   * @return The changed OSM ID or empty if the mapping of the internal ID was
+   *         not changed
+   */
+  private Optional<Long> getChangedOsm(final MutableIntLongMap internalToOsm, final int internalId) {
+    mChangeLock.readLock().lock();
+    try {
+      if (!internalToOsm.containsKey(internalId)) {
+        return Optional.empty();
+      }
+      return Optional.of(internalToOsm.get(internalId));
+    } finally {
+      mChangeLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Opens the files of the database, if present, and uses them to answer
+   * queries.
+   *
+   * @throws ParseException If an I/O exception occurred while trying to open
+   *                        the files
+   */
+  private void openStore() throws ParseException {
+    final MappedStore store;
+    try {
+      store = MappedStore.open(mDirectory);
+    } catch (final IOException e) {
+      throw new ParseException(e);
+    }
+    if (store == null) {
+      LOGGER.info("No mapped database present in {}", mDirectory);
+      return;
+    }
+    LOGGER.info("Opened mapped database with {} nodes from {}", store.getAmountOfNodes(), mDirectory);
+    mSource = store;
+  }
+
+  /**
+   * Starts an import if not already running. The data of the opened files is
+   * copied to the database collecting the imported data, which then answers
+   * queries.
+   *
+   * @return The database collecting the imported data
+   */
+  private MemoryDatabase startImport() {
+    if (mImport != null) {
+      return mImport;
+    }
+    final MemoryDatabase importDatabase = new MemoryDatabase();
+    if (mSource instanceof MappedStore) {
+      LOGGER.info("Loading mapped database for the import");
+      ((MappedStore) mSource).copyTo(importDatabase);
+    }
+    mImport = importDatabase;
+    mSource = importDatabase;
+    return importDatabase;
+  }
+
+  /**
+   * Gets the given spatial data with the internal ID of its node, considering
+   * the changes. Must be called while holding the read lock of the changes.
+   *
+   * @param data The spatial data of a node
+   * @return The spatial data with the internal ID of the node, the default ID
+   *         if the node has no internal ID
+   */
+  private SpatialNodeData withInternalId(final SpatialNodeData data) {
+    int internalId = mChangedNodeIds.getIfAbsent(data.getOsmId(), NO_INTERNAL_ID);
+    if (internalId == NO_INTERNAL_ID) {
+      internalId = mSource.getInternalNodeByOsm(data.getOsmId()).orElse(0);
+    }
+    return new SpatialNodeData(internalId, data.getOsmId(), data.getLatitude(), data.getLongitude());
+  }
+}
@@ -0,0 +1,212 @@
+package de.unifreiburg.informatik.cobweb.db;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Utility class which provides methods to write columns of primitive values to
+ * files and to map them read-only into memory.<br>
+ * <br>
+ * Columns are written in big-endian order, which is the default order of
+ * {@link ByteBuffer}. A column is first written to a temporary file which then
+ * atomically replaces the target, hence readers never see a partially written
+ * column.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+final class MappedFileUtil {
+  /**
+   * The size of the buffer used when writing columns, in bytes.
+   */
+  private static final int BUFFER_SIZE = 1 << 16;
+  /**
+   * The suffix of temporary files that are written before they replace their
+   * target.
+   */
+  private static final String TEMPORARY_SUFFIX = ".tmp";
+
+  /**
+   * Searches the given key in the given column, which must be sorted
+   * ascending.
+   *
+   * @param column The column to search in
+   * @param key    The key to search
+   * @return The index of the key or <code>-1</code> if it is not contained
+   */
+  static int binarySearch(final IntBuffer column, final int key) {
+    int low = 0;
+    int high = column.limit() - 1;
+    while (low <= high) {
+      final int middle = (low + high) >>> 1;
+      final int value = column.get(middle);
+      if (value < key) {
+        low = middle + 1;
+      } else if (value > key) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Searches the given key in the given column, which must be sorted
+   * ascending.
+   *
+   * @param column The column to search in
+   * @param key    The key to search
+   * @return The index of the key or <code>-1</code> if it is not contained
+   */
+  static int binarySearch(final LongBuffer column, final long key) {
+    int low = 0;
+    int high = column.limit() - 1;
+    while (low <= high) {
+      final int middle = (low + high) >>> 1;
+      final long value = column.get(middle);
+      if (value < key) {
+        low = middle + 1;
+      } else if (value > key) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Maps the given file read-only into memory. The mapping stays valid after
+   * the file channel was closed.
+   *
+   * @param file The file to map
+   * @return The mapped content of the file
+   * @throws IOException If an I/O exception occurred while trying to map the
+   *                     file
+   */
+  static ByteBuffer map(final Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+  }
+
+  /**
+   * Writes the given bytes as column to the given file.
+   *
+   * @param file   The file to write to
+   * @param values The values to write
+   * @throws IOException If an I/O exception occurred while trying to write the
+   *                     file
+   */
+  static void writeBytes(final Path file, final byte[] values) throws IOException {
+    final Path temporary = MappedFileUtil.getTemporaryFile(file);
+    Files.write(temporary, values);
+    MappedFileUtil.replace(temporary, file);
+  }
+
+  /**
+   * Writes the given floats as column to the given file.
+   *
+   * @param file   The file to write to
+   * @param values The values to write
+   * @throws IOException If an I/O exception occurred while trying to write the
+   *                     file
+   */
+  static void writeFloats(final Path file, final float[] values) throws IOException {
+    final Path temporary = MappedFileUtil.getTemporaryFile(file);
+    try (DataOutputStream output = MappedFileUtil.createOutput(temporary)) {
+      for (final float value : values) {
+        output.writeFloat(value);
+      }
+    }
+    MappedFileUtil.replace(temporary, file);
+  }
+
+  /**
+   * Writes the given integers as column to the given file.
+   *
+   * @param file   The file to write to
+   * @param values The values to write
+   * @throws IOException If an I/O exception occurred while trying to write the
+   *                     file
+   */
+  static void writeInts(final Path file, final int[] values) throws IOException {
+    final Path temporary = MappedFileUtil.getTemporaryFile(file);
+    try (DataOutputStream output = MappedFileUtil.createOutput(temporary)) {
+      for (final int value : values) {
+        output.writeInt(value);
+      }
+    }
+    MappedFileUtil.replace(temporary, file);
+  }
+
+  /**
+   * Writes the given longs as column to the given file.
+   *
+   * @param file   The file to write to
+   * @param values The values to write
+   * @throws IOException If an I/O exception occurred while trying to write the
+   *                     file
+   */
+  static void writeLongs(final Path file, final long[] values) throws IOException {
+    final Path temporary = MappedFileUtil.getTemporaryFile(file);
+    try (DataOutputStream output = MappedFileUtil.createOutput(temporary)) {
+      for (final long value : values) {
+        output.writeLong(value);
+      }
+    }
+    MappedFileUtil.replace(temporary, file);
+  }
+
+  /**
+   * Creates a buffered output stream which writes to the given file, replacing
+   * its content.
+   *
+   * @param file The file to write to
+   * @return The created output stream
+   * @throws IOException If an I/O exception occurred while trying to open the
+   *                     file
+   */
+  private static DataOutputStream createOutput(final Path file) throws IOException {
+    return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE));
+  }
+
+  /**
+   * Gets the temporary file which is written before it replaces the given
+   * file.
+   *
+   * @param file The file to get the temporary file for
+   * @return The temporary file
+   */
+  private static Path getTemporaryFile(final Path file) {
+    return file.resolveSibling(file.getFileName() + TEMPORARY_SUFFIX);
+  }
+
+  /**
+   * Replaces the given target by the given temporary file.
+   *
+   * @param temporary The temporary file to move
+   * @param target    The file to replace
+   * @throws IOException If an I/O exception occurred while trying to move the
+   *                     file
+   */
+  private static void replace(final Path temporary, final Path target) throws IOException {
+    Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Utility class. No implementation.
+   */
+  private MappedFileUtil() {
+
+  }
+}
@@ -0,0 +1,646 @@
+package de.unifreiburg.informatik.cobweb.db;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import org.eclipse.collections.api.map.primitive.IntLongMap;
+import org.eclipse.collections.api.map.primitive.LongObjectMap;
+import org.eclipse.collections.api.map.primitive.MutableIntLongMap;
+import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
+import org.eclipse.collections.impl.map.mutable.primitive.IntLongHashMap;
+import org.eclipse.collections.impl.map.mutable.primitive.LongObjectHashMap;
+
+import de.topobyte.osm4j.core.model.iface.OsmEntity;
+import de.unifreiburg.informatik.cobweb.routing.parsing.osm.IdMapping;
+
+/**
+ * Read-only database which operates on columns of memory-mapped files, as
+ * written by {@link #write(Path, MemoryDatabase)}.<br>
+ * <br>
+ * Every attribute is stored in its own column. Columns of the same table are
+ * aligned and sorted ascending by their key column, lookups use a binary
+ * search on the key column. Names are stored in {@link MappedStringPool}s. The
+ * data is not loaded into the heap, instead the operating system pages it in
+ * on access and may share it between runs.<br>
+ * <br>
+ * Offering data is not supported. The store is safe to use by multiple
+ * threads.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+final class MappedStore extends ADatabase {
+  /**
+   * The suffix of the file storing the latitudes of nodes.
+   */
+  private static final String NODE_LATITUDES_SUFFIX = "_latitudes.bin";
+  /**
+   * The suffix of the file storing the longitudes of nodes.
+   */
+  private static final String NODE_LONGITUDES_SUFFIX = "_longitudes.bin";
+  /**
+   * The prefix of the files storing node data.
+   */
+  private static final String NODE_PREFIX = "node";
+  /**
+   * The suffix of the file storing the OSM IDs of nodes or ways.
+   */
+  private static final String OSM_IDS_SUFFIX = "_ids.bin";
+  /**
+   * The version of the file layout. Stores written with a different version
+   * are not opened.
+   */
+  private static final String VERSION = "1";
+  /**
+   * The name of the file which stores the version of the file layout. It is
+   * written last, hence the store is only opened if it was written completely.
+   */
+  private static final String VERSION_FILE = "store.version";
+  /**
+   * The suffix of the file storing the highway types of ways.
+   */
+  private static final String WAY_HIGHWAY_TYPES_SUFFIX = "_highway_types.bin";
+  /**
+   * The suffix of the file storing the maximal speeds of ways.
+   */
+  private static final String WAY_MAX_SPEEDS_SUFFIX = "_max_speeds.bin";
+  /**
+   * The prefix of the files storing way data.
+   */
+  private static final String WAY_PREFIX = "way";
+
+  /**
+   * Opens the store that was written to the given directory.
+   *
+   * @param directory The directory the store is stored in
+   * @return The opened store or <code>null</code> if the directory does not
+   *         contain a completely written store of the current version
+   * @throws IOException If an I/O exception occurred while trying to map the
+   *                     files of the store
+   */
+  static MappedStore open(final Path directory) throws IOException {
+    final Path versionFile = directory.resolve(VERSION_FILE);
+    if (!Files.isRegularFile(versionFile)
+        || !VERSION.equals(new String(Files.readAllBytes(versionFile), StandardCharsets.UTF_8))) {
+      return null;
+    }
+    return new MappedStore(directory);
+  }
+
+  /**
+   * Writes the content of the given database as store to the given directory.
+   * An existing store in the directory is replaced, it must not be used
+   * anymore.
+   *
+   * @param directory The directory to write the store to
+   * @param data      The database whose content to write
+   * @throws IOException If an I/O exception occurred while trying to write the
+   *                     files of the store
+   */
+  static void write(final Path directory, final MemoryDatabase data) throws IOException {
+    Files.createDirectories(directory);
+    // Invalidate the store until all columns are written
+    final Path versionFile = directory.resolve(VERSION_FILE);
+    Files.deleteIfExists(versionFile);
+
+    MappedIdColumns.write(directory, NODE_PREFIX, data.getNodeMapping());
+    MappedIdColumns.write(directory, WAY_PREFIX, data.getWayMapping());
+    MappedStringPool.write(directory, NODE_PREFIX, data.getNodeToName(), data.getNames());
+    MappedStringPool.write(directory, WAY_PREFIX, data.getWayToName(), data.getNames());
+
+    final LongObjectMap<SpatialNodeData> nodeToSpatialData = data.getNodeToSpatialData();
+    final long[] nodeIds = nodeToSpatialData.keySet().toSortedArray();
+    final float[] latitudes = new float[nodeIds.length];
+    final float[] longitudes = new float[nodeIds.length];
+    for (int i = 0; i < nodeIds.length; i++) {
+      final SpatialNodeData spatialData = nodeToSpatialData.get(nodeIds[i]);
+      latitudes[i] = spatialData.getLatitude();
+      longitudes[i] = spatialData.getLongitude();
+    }
+    MappedFileUtil.writeLongs(directory.resolve(NODE_PREFIX + OSM_IDS_SUFFIX), nodeIds);
+    MappedFileUtil.writeFloats(directory.resolve(NODE_PREFIX + NODE_LATITUDES_SUFFIX), latitudes);
+    MappedFileUtil.writeFloats(directory.resolve(NODE_PREFIX + NODE_LONGITUDES_SUFFIX), longitudes);
+
+    final long[] wayIds = data.getHighwayWays().toSortedArray();
+    final byte[] highwayTypes = new byte[wayIds.length];
+    final int[] maxSpeeds = new int[wayIds.length];
+    int index = 0;
+    // The highway data is returned in the order of the given IDs
+    for (final HighwayData highwayData : data.getHighwayData(LongStream.of(wayIds), wayIds.length)) {
+      highwayTypes[index] = HighwayData.encodeType(highwayData.getType());
+      maxSpeeds[index] = highwayData.getMaxSpeed();
+      index++;
+    }
+    MappedFileUtil.writeLongs(directory.resolve(WAY_PREFIX + OSM_IDS_SUFFIX), wayIds);
+    MappedFileUtil.writeBytes(directory.resolve(WAY_PREFIX + WAY_HIGHWAY_TYPES_SUFFIX), highwayTypes);
+    MappedFileUtil.writeInts(directory.resolve(WAY_PREFIX + WAY_MAX_SPEEDS_SUFFIX), maxSpeeds);
+
+    Files.write(versionFile, VERSION.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * The OSM IDs of all nodes with spatial data, sorted ascending.
+   */
+  private final LongBuffer mNodeIds;
+  /**
+   * The latitudes of the nodes, aligned with {@link #mNodeIds}.
+   */
+  private final FloatBuffer mNodeLatitudes;
+  /**
+   * The longitudes of the nodes, aligned with {@link #mNodeIds}.
+   */
+  private final FloatBuffer mNodeLongitudes;
+  /**
+   * The mapping between OSM and internal node IDs.
+   */
+  private final MappedIdColumns mNodeMapping;
+  /**
+   * The names of named nodes.
+   */
+  private final MappedStringPool mNodeNames;
+  /**
+   * The highway types of the ways as ordinal, aligned with {@link #mWayIds}.
+   */
+  private final ByteBuffer mWayHighwayTypes;
+  /**
+   * The OSM IDs of all ways with highway data, sorted ascending.
+   */
+  private final LongBuffer mWayIds;
+  /**
+   * The mapping between OSM and internal way IDs.
+   */
+  private final MappedIdColumns mWayMapping;
+  /**
+   * The maximal speeds of the ways, aligned with {@link #mWayIds}.
+   */
+  private final IntBuffer mWayMaxSpeeds;
+  /**
+   * The names of named ways.
+   */
+  private final MappedStringPool mWayNames;
+
+  /**
+   * Creates a new store which maps the files in the given directory.
+   *
+   * @param directory The directory the store is stored in
+   * @throws IOException If an I/O exception occurred while trying to map the
+   *                     files of the store
+   */
+  private MappedStore(final Path directory) throws IOException {
+    mNodeMapping = MappedIdColumns.open(directory, NODE_PREFIX);
+    mWayMapping = MappedIdColumns.open(directory, WAY_PREFIX);
+    mNodeNames = MappedStringPool.open(directory, NODE_PREFIX);
+    mWayNames = MappedStringPool.open(directory, WAY_PREFIX);
+
+    mNodeIds = MappedFileUtil.map(directory.resolve(NODE_PREFIX + OSM_IDS_SUFFIX)).asLongBuffer();
+    mNodeLatitudes = MappedFileUtil.map(directory.resolve(NODE_PREFIX + NODE_LATITUDES_SUFFIX)).asFloatBuffer();
+    mNodeLongitudes = MappedFileUtil.map(directory.resolve(NODE_PREFIX + NODE_LONGITUDES_SUFFIX)).asFloatBuffer();
+
+    mWayIds = MappedFileUtil.map(directory.resolve(WAY_PREFIX + OSM_IDS_SUFFIX)).asLongBuffer();
+    mWayHighwayTypes = MappedFileUtil.map(directory.resolve(WAY_PREFIX + WAY_HIGHWAY_TYPES_SUFFIX));
+    mWayMaxSpeeds = MappedFileUtil.map(directory.resolve(WAY_PREFIX + WAY_MAX_SPEEDS_SUFFIX)).asIntBuffer();
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#finishImport()
+   */
+  @Override
+  public void finishImport() {
+    // Do nothing
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#finishChange()
+   */
+  @Override
+  public void finishChange() {
+    // Do nothing
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.INameSearchDatabase#getAllNodeNameData
+   * ()
+   */
+  @Override
+  public Collection<NodeNameData> getAllNodeNameData() {
+    final int size = mNodeNames.size();
+    final List<NodeNameData> result = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      result.add(new NodeNameData(mNodeNames.getId(i), mNodeNames.getName(i)));
+    }
+    return result;
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getHighwayData(java.
+   * util.stream.LongStream, int)
+   */
+  @Override
+  public Collection<HighwayData> getHighwayData(final LongStream wayIds, final int size) {
+    final List<HighwayData> result = new ArrayList<>(size);
+    wayIds.forEach(wayId -> {
+      final int index = MappedFileUtil.binarySearch(mWayIds, wayId);
+      if (index != -1) {
+        result.add(getHighwayData(index));
+      }
+    });
+    return result;
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getInternalNodeByOsm(
+   * long)
+   */
+  @Override
+  public Optional<Integer> getInternalNodeByOsm(final long osmId) {
+    return mNodeMapping.getInternalByOsm(osmId);
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getInternalWayByOsm(
+   * long)
+   */
+  @Override
+  public Optional<Integer> getInternalWayByOsm(final long osmId) {
+    return mWayMapping.getInternalByOsm(osmId);
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getNodeByName(java.
+   * lang.String)
+   */
+  @Override
+  public Optional<Long> getNodeByName(final String name) {
+    return mNodeNames.getIdByName(name);
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getNodeName(long)
+   */
+  @Override
+  public Optional<String> getNodeName(final long id) {
+    return Optional.ofNullable(mNodeNames.getNameById(id));
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getNodeNames(java.util
+   * .stream.LongStream, int)
+   */
+  @Override
+  public LongObjectMap<String> getNodeNames(final LongStream ids, final int size) {
+    final MutableLongObjectMap<String> result = new LongObjectHashMap<>(size);
+    ids.forEach(id -> {
+      final String name = mNodeNames.getNameById(id);
+      if (name != null) {
+        result.put(id, name);
+      }
+    });
+    return result;
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getOsmNodeByInternal(
+   * int)
+   */
+  @Override
+  public Optional<Long> getOsmNodeByInternal(final int internalId) {
+    return mNodeMapping.getOsmByInternal(internalId);
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getOsmNodesByInternal
+   * (java.util.stream.IntStream, int)
+   */
+  @Override
+  public IntLongMap getOsmNodesByInternal(final IntStream internalIds, final int size) {
+    final MutableIntLongMap result = new IntLongHashMap(size);
+    internalIds.forEach(internalId -> {
+      final int index = MappedFileUtil.binarySearch(mNodeMapping.mInternalIds, internalId);
+      if (index != -1) {
+        result.put(internalId, mNodeMapping.mInternalToOsm.get(index));
+      }
+    });
+    return result;
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getOsmWayByInternal(
+   * int)
+   */
+  @Override
+  public Optional<Long> getOsmWayByInternal(final int internalId) {
+    return mWayMapping.getOsmByInternal(internalId);
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getSpatialNodeData(
+   * java.util.stream.LongStream, int)
+   */
+  @Override
+  public Collection<SpatialNodeData> getSpatialNodeData(final LongStream nodeIds, final int size) {
+    final List<SpatialNodeData> result = new ArrayList<>(size);
+    nodeIds.forEach(nodeId -> {
+      final int index = MappedFileUtil.binarySearch(mNodeIds, nodeId);
+      if (index == -1) {
+        return;
+      }
+      // Nodes without internal ID get the default ID, like in the memory
+      // database
+      int internalId = 0;
+      final int mappingIndex = MappedFileUtil.binarySearch(mNodeMapping.mOsmIds, nodeId);
+      if (mappingIndex != -1) {
+        internalId = mNodeMapping.mOsmToInternal.get(mappingIndex);
+      }
+      result.add(
+          new SpatialNodeData(internalId, nodeId, mNodeLatitudes.get(index), mNodeLongitudes.get(index)));
+    });
+    return result;
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getWayByName(java.
+   * lang.String)
+   */
+  @Override
+  public Optional<Long> getWayByName(final String name) {
+    return mWayNames.getIdByName(name);
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getWayName(long)
+   */
+  @Override
+  public Optional<String> getWayName(final long id) {
+    return Optional.ofNullable(mWayNames.getNameById(id));
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#initialize()
+   */
+  @Override
+  public void initialize() {
+    // Do nothing
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#offerIdMappings(java.
+   * util.stream.Stream, int)
+   */
+  @Override
+  public void offerIdMappings(final Stream<IdMapping> mappings, final int size) {
+    throw new UnsupportedOperationException("The mapped store is read-only");
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#offerOsmEntities(java
+   * .util.stream.Stream, int)
+   */
+  @Override
+  public void offerOsmEntities(final Stream<OsmEntity> entities, final int size) {
+    throw new UnsupportedOperationException("The mapped store is read-only");
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#shutdown()
+   */
+  @Override
+  public void shutdown() {
+    // Do nothing, the mappings are released once the store is garbage
+    // collected
+  }
+
+  /**
+   * Copies the content of the store to the given database.
+   *
+   * @param target The database to copy the content to
+   */
+  void copyTo(final MemoryDatabase target) {
+    target.offerIdMappings(mNodeMapping.streamMappings(true), mNodeMapping.size());
+    target.offerIdMappings(mWayMapping.streamMappings(false), mWayMapping.size());
+
+    final int amountOfNodes = mNodeIds.limit();
+    for (int i = 0; i < amountOfNodes; i++) {
+      final long nodeId = mNodeIds.get(i);
+      target.addNode(nodeId, mNodeLatitudes.get(i), mNodeLongitudes.get(i), mNodeNames.getNameById(nodeId));
+    }
+
+    final int amountOfWays = mWayIds.limit();
+    for (int i = 0; i < amountOfWays; i++) {
+      final HighwayData highwayData = getHighwayData(i);
+      target.addWay(highwayData.getWayId(), mWayNames.getNameById(highwayData.getWayId()), highwayData.getType(),
+          highwayData.getMaxSpeed());
+    }
+  }
+
+  /**
+   * Gets the amount of nodes with spatial data in the store.
+   *
+   * @return The amount of nodes
+   */
+  int getAmountOfNodes() {
+    return mNodeIds.limit();
+  }
+
+  /**
+   * Gets the highway data of the way stored at the given index.
+   *
+   * @param index The index of the way
+   * @return The highway data of the way
+   */
+  private HighwayData getHighwayData(final int index) {
+    return new HighwayData(mWayIds.get(index), HighwayData.decodeType(mWayHighwayTypes.get(index)),
+        mWayMaxSpeeds.get(index));
+  }
+
+  /**
+   * Columns of memory-mapped files which store the mapping between OSM and
+   * internal IDs of nodes or ways. The mapping is stored twice, sorted by OSM
+   * IDs and sorted by internal IDs.
+   *
+   * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+   */
+  private static final class MappedIdColumns {
+    /**
+     * The suffix of the file storing the sorted internal IDs.
+     */
+    private static final String INTERNAL_IDS_SUFFIX = "_mapping_internal_ids.bin";
+    /**
+     * The suffix of the file storing the OSM IDs aligned with the internal
+     * IDs.
+     */
+    private static final String INTERNAL_TO_OSM_SUFFIX = "_mapping_internal_to_osm.bin";
+    /**
+     * The suffix of the file storing the sorted OSM IDs.
+     */
+    private static final String OSM_IDS_SUFFIX = "_mapping_osm_ids.bin";
+    /**
+     * The suffix of the file storing the internal IDs aligned with the OSM
+     * IDs.
+     */
+    private static final String OSM_TO_INTERNAL_SUFFIX = "_mapping_osm_to_internal.bin";
+
+    /**
+     * Opens the mapping with the given prefix that was written to the given
+     * directory.
+     *
+     * @param directory The directory the mapping is stored in
+     * @param prefix    The prefix of the files of the mapping
+     * @return The opened mapping
+     * @throws IOException If an I/O exception occurred while trying to map the
+     *                     files of the mapping
+     */
+    static MappedIdColumns open(final Path directory, final String prefix) throws IOException {
+      return new MappedIdColumns(MappedFileUtil.map(directory.resolve(prefix + OSM_IDS_SUFFIX)).asLongBuffer(),
+          MappedFileUtil.map(directory.resolve(prefix + OSM_TO_INTERNAL_SUFFIX)).asIntBuffer(),
+          MappedFileUtil.map(directory.resolve(prefix + INTERNAL_IDS_SUFFIX)).asIntBuffer(),
+          MappedFileUtil.map(directory.resolve(prefix + INTERNAL_TO_OSM_SUFFIX)).asLongBuffer());
+    }
+
+    /**
+     * Writes the given mapping with the given prefix to the given directory.
+     *
+     * @param directory The directory to write the mapping to
+     * @param prefix    The prefix of the files of the mapping
+     * @param mapping   The mapping to write
+     * @throws IOException If an I/O exception occurred while trying to write
+     *                     the files of the mapping
+     */
+    static void write(final Path directory, final String prefix, final DenseIdMapping mapping) throws IOException {
+      final int[] internalIds = mapping.getInternalIds();
+      final long[] internalToOsmValues = new long[internalIds.length];
+      for (int i = 0; i < internalIds.length; i++) {
+        internalToOsmValues[i] = mapping.getOsm(internalIds[i]);
+      }
+
+      MappedFileUtil.writeLongs(directory.resolve(prefix + OSM_IDS_SUFFIX), mapping.getSortedOsmIds());
+      MappedFileUtil.writeInts(directory.resolve(prefix + OSM_TO_INTERNAL_SUFFIX), mapping.getSortedInternalIds());
+      MappedFileUtil.writeInts(directory.resolve(prefix + INTERNAL_IDS_SUFFIX), internalIds);
+      MappedFileUtil.writeLongs(directory.resolve(prefix + INTERNAL_TO_OSM_SUFFIX), internalToOsmValues);
+    }
+
+    /**
+     * The internal IDs, sorted ascending.
+     */
+    private final IntBuffer mInternalIds;
+    /**
+     * The OSM IDs, aligned with {@link #mInternalIds}.
+     */
+    private final LongBuffer mInternalToOsm;
+    /**
+     * The OSM IDs, sorted ascending.
+     */
+    private final LongBuffer mOsmIds;
+    /**
+     * The internal IDs, aligned with {@link #mOsmIds}.
+     */
+    private final IntBuffer mOsmToInternal;
+
+    /**
+     * Creates a new mapping which operates on the given columns.
+     *
+     * @param osmIds        The OSM IDs, sorted ascending
+     * @param osmToInternal The internal IDs, aligned with the OSM IDs
+     * @param internalIds   The internal IDs, sorted ascending
+     * @param internalToOsm The OSM IDs, aligned with the internal IDs
+     */
+    private MappedIdColumns(final LongBuffer osmIds, final IntBuffer osmToInternal, final IntBuffer internalIds,
+        final LongBuffer internalToOsm) {
+      mOsmIds = osmIds;
+      mOsmToInternal = osmToInternal;
+      mInternalIds = internalIds;
+      mInternalToOsm = internalToOsm;
+    }
+
+    /**
+     * Gets the internal ID of the given OSM ID.
+     *
+     * @param osmId The OSM ID
+     * @return The internal ID if present
+     */
+    Optional<Integer> getInternalByOsm(final long osmId) {
+      final int index = MappedFileUtil.binarySearch(mOsmIds, osmId);
+      if (index == -1) {
+        return Optional.empty();
+      }
+      return Optional.of(mOsmToInternal.get(index));
+    }
+
+    /**
+     * Gets the OSM ID of the given internal ID.
+     *
+     * @param internalId The internal ID
+     * @return The OSM ID if present
+     */
+    Optional<Long> getOsmByInternal(final int internalId) {
+      final int index = MappedFileUtil.binarySearch(mInternalIds, internalId);
+      if (index == -1) {
+        return Optional.empty();
+      }
+      return Optional.of(mInternalToOsm.get(index));
+    }
+
+    /**
+     * Gets the amount of mapped OSM IDs.
+     *
+     * @return The amount of mapped OSM IDs
+     */
+    int size() {
+      return mOsmIds.limit();
+    }
+
+    /**
+     * Streams all mappings, ordered by their OSM IDs.
+     *
+     * @param isNode Whether the mappings belong to nodes or to ways
+     * @return A stream of all mappings
+     */
+    Stream<IdMapping> streamMappings(final boolean isNode) {
+      return IntStream.range(0, size())
+          .mapToObj(index -> new IdMapping(mOsmIds.get(index), mOsmToInternal.get(index), isNode));
+    }
+  }
+}
@@ -0,0 +1,216 @@
+package de.unifreiburg.informatik.cobweb.db;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import org.eclipse.collections.api.map.primitive.LongIntMap;
+
+/**
+ * Read-only pool of names that are stored off-heap in memory-mapped files.<br>
+ * <br>
+ * The pool consists of four columns which share a common file prefix:
+ * <ul>
+ * <li>the IDs the names belong to, sorted ascending,</li>
+ * <li>the offsets of the names in the pool, aligned with the IDs and followed
+ * by the end of the pool,</li>
+ * <li>the UTF-8 encoded names, one after another, and</li>
+ * <li>the indices of the IDs sorted by their names.</li>
+ * </ul>
+ * Names are found by a binary search on the IDs and IDs by a binary search on
+ * the names. A name is only decoded to a {@link String} when it is accessed,
+ * hence the pool does not occupy heap memory.<br>
+ * <br>
+ * The pool is safe to use by multiple threads.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+final class MappedStringPool {
+  /**
+   * The suffix of the file storing the IDs.
+   */
+  private static final String IDS_SUFFIX = "_name_ids.bin";
+  /**
+   * The suffix of the file storing the offsets of the names.
+   */
+  private static final String OFFSETS_SUFFIX = "_name_offsets.bin";
+  /**
+   * The suffix of the file storing the indices sorted by names.
+   */
+  private static final String ORDER_SUFFIX = "_name_order.bin";
+  /**
+   * The suffix of the file storing the encoded names.
+   */
+  private static final String POOL_SUFFIX = "_name_pool.bin";
+
+  /**
+   * Opens the pool with the given prefix that was written to the given
+   * directory by {@link #write(Path, String, LongIntMap, StringPool)}.
+   *
+   * @param directory The directory the pool is stored in
+   * @param prefix    The prefix of the files of the pool
+   * @return The opened pool
+   * @throws IOException If an I/O exception occurred while trying to map the
+   *                     files of the pool
+   */
+  static MappedStringPool open(final Path directory, final String prefix) throws IOException {
+    return new MappedStringPool(MappedFileUtil.map(directory.resolve(prefix + IDS_SUFFIX)).asLongBuffer(),
+        MappedFileUtil.map(directory.resolve(prefix + OFFSETS_SUFFIX)).asIntBuffer(),
+        MappedFileUtil.map(directory.resolve(prefix + POOL_SUFFIX)),
+        MappedFileUtil.map(directory.resolve(prefix + ORDER_SUFFIX)).asIntBuffer());
+  }
+
+  /**
+   * Writes the given names as pool with the given prefix to the given
+   * directory. Existing files of a pool with the same prefix are replaced.
+   *
+   * @param directory  The directory to write the pool to
+   * @param prefix     The prefix of the files of the pool
+   * @param idToName   Map connecting IDs to the handles of their names
+   * @param stringPool The pool containing the names
+   * @throws IOException If an I/O exception occurred while trying to write the
+   *                     files of the pool
+   */
+  static void write(final Path directory, final String prefix, final LongIntMap idToName,
+      final StringPool stringPool) throws IOException {
+    final long[] ids = idToName.keySet().toSortedArray();
+    final String[] names = new String[ids.length];
+    final int[] offsets = new int[ids.length + 1];
+    final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+    for (int i = 0; i < ids.length; i++) {
+      names[i] = stringPool.get(idToName.get(ids[i]));
+      offsets[i] = pool.size();
+      final byte[] encodedName = names[i].getBytes(StandardCharsets.UTF_8);
+      pool.write(encodedName, 0, encodedName.length);
+    }
+    offsets[ids.length] = pool.size();
+
+    // Use the natural order of strings, the same order is used when searching
+    final int[] order = IntStream.range(0, ids.length).boxed().sorted(Comparator.comparing(index -> names[index]))
+        .mapToInt(Integer::intValue).toArray();
+
+    MappedFileUtil.writeLongs(directory.resolve(prefix + IDS_SUFFIX), ids);
+    MappedFileUtil.writeInts(directory.resolve(prefix + OFFSETS_SUFFIX), offsets);
+    MappedFileUtil.writeBytes(directory.resolve(prefix + POOL_SUFFIX), pool.toByteArray());
+    MappedFileUtil.writeInts(directory.resolve(prefix + ORDER_SUFFIX), order);
+  }
+
+  /**
+   * The IDs the names belong to, sorted ascending.
+   */
+  private final LongBuffer mIds;
+  /**
+   * The offsets of the names in the pool, aligned with the IDs and followed by
+   * the end of the pool.
+   */
+  private final IntBuffer mOffsets;
+  /**
+   * The indices of the IDs sorted by their names.
+   */
+  private final IntBuffer mOrder;
+  /**
+   * The UTF-8 encoded names, one after another.
+   */
+  private final ByteBuffer mPool;
+
+  /**
+   * Creates a new pool which operates on the given columns.
+   *
+   * @param ids     The IDs the names belong to, sorted ascending
+   * @param offsets The offsets of the names in the pool, aligned with the IDs
+   *                and followed by the end of the pool
+   * @param pool    The UTF-8 encoded names, one after another
+   * @param order   The indices of the IDs sorted by their names
+   */
+  private MappedStringPool(final LongBuffer ids, final IntBuffer offsets, final ByteBuffer pool,
+      final IntBuffer order) {
+    mIds = ids;
+    mOffsets = offsets;
+    mPool = pool;
+    mOrder = order;
+  }
+
+  /**
+   * Gets the ID stored at the given index.
+   *
+   * @param index The index of the entry, between <code>0</code> (inclusive)
+   *              and {@link #size()} (exclusive)
+   * @return The ID of the entry
+   */
+  long getId(final int index) {
+    return mIds.get(index);
+  }
+
+  /**
+   * Gets the ID of an entry with the given name. If multiple entries share the
+   * name, any of them is chosen.
+   *
+   * @param name The name to search
+   * @return The ID of an entry with the given name if present
+   */
+  Optional<Long> getIdByName(final String name) {
+    int low = 0;
+    int high = size() - 1;
+    while (low <= high) {
+      final int middle = (low + high) >>> 1;
+      final int index = mOrder.get(middle);
+      final int comparison = getName(index).compareTo(name);
+      if (comparison < 0) {
+        low = middle + 1;
+      } else if (comparison > 0) {
+        high = middle - 1;
+      } else {
+        return Optional.of(mIds.get(index));
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Gets the name stored at the given index.
+   *
+   * @param index The index of the entry, between <code>0</code> (inclusive)
+   *              and {@link #size()} (exclusive)
+   * @return The name of the entry
+   */
+  String getName(final int index) {
+    final int offset = mOffsets.get(index);
+    final byte[] encodedName = new byte[mOffsets.get(index + 1) - offset];
+    // Use a view to not interfere with concurrent readers
+    final ByteBuffer view = mPool.duplicate();
+    view.position(offset);
+    view.get(encodedName);
+    return new String(encodedName, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Gets the name of the entry with the given ID.
+   *
+   * @param id The ID of the entry
+   * @return The name of the entry or <code>null</code> if there is no entry
+   *         with the given ID
+   */
+  String getNameById(final long id) {
+    final int index = MappedFileUtil.binarySearch(mIds, id);
+    if (index == -1) {
+      return null;
+    }
+    return getName(index);
+  }
+
+  /**
+   * Gets the amount of entries in the pool.
+   *
+   * @return The amount of entries
+   */
+  int size() {
+    return mIds.limit();
+  }
+}
@@ -1,22 +1,33 @@
 package de.unifreiburg.informatik.cobweb.db;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
 import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
+import org.eclipse.collections.api.list.primitive.MutableByteList;
+import org.eclipse.collections.api.list.primitive.MutableIntList;
+import org.eclipse.collections.api.map.primitive.IntLongMap;
+import org.eclipse.collections.api.map.primitive.LongIntMap;
+import org.eclipse.collections.api.map.primitive.LongObjectMap;
 import org.eclipse.collections.api.map.primitive.MutableIntLongMap;
 import org.eclipse.collections.api.map.primitive.MutableLongIntMap;
 import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
-import org.eclipse.collections.api.map.primitive.MutableObjectLongMap;
+import org.eclipse.collections.api.set.primitive.LongSet;
+import org.eclipse.collections.impl.factory.primitive.ByteLists;
+import org.eclipse.collections.impl.factory.primitive.IntLists;
 import org.eclipse.collections.impl.factory.primitive.IntLongMaps;
 import org.eclipse.collections.impl.factory.primitive.LongIntMaps;
 import org.eclipse.collections.impl.factory.primitive.LongObjectMaps;
-import org.eclipse.collections.impl.factory.primitive.ObjectLongMaps;
+import org.eclipse.collections.impl.map.mutable.primitive.IntLongHashMap;
+import org.eclipse.collections.impl.map.mutable.primitive.LongObjectHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,6 +44,18 @@ import de.unifreiburg.informatik.cobweb.routing.parsing.osm.IdMapping;
  * in-memory database. Depending on the size of the database the memory
  * consumption can be quite high.<br>
  * <br>
+ * Names are interned into a {@link StringPool}, hence names shared by many
+ * nodes and ways, like street names, are stored only once. Highway data is
+ * stored in packed primitive columns and only wrapped into
+ * {@link HighwayData} objects when requested.<br>
+ * <br>
+ * The database is safe to use by multiple threads. Lookups share a read lock,
+ * offering data takes a write lock for the whole batch. Hence lookups never
+ * see a partially offered batch and the non thread-safe structures, like the
+ * {@link StringPool} and the {@link DenseIdMapping}, are never modified while
+ * they are read. The package-private methods giving access to these
+ * structures bypass the lock, they must not be used while data is offered.<br>
+ * <br>
  * Use {@link #initialize()} before using the database and {@link #shutdown()}
  * when finished using the it.<br>
  * <br>
@@ -46,46 +69,100 @@ public class MemoryDatabase extends ADatabase {
    * The logger to use for logging.
    */
   private static final Logger LOGGER = LoggerFactory.getLogger(MemoryDatabase.class);
+
   /**
-   * Map connecting internal node IDs to their OSM IDs.
+   * Gets the internal ID of the given OSM ID from the given mapping.
+   *
+   * @param mapping The mapping to use
+   * @param osmId   The OSM ID
+   * @return The internal ID or empty if the OSM ID has no internal ID
    */
-  private final MutableIntLongMap mInternalToNodeId;
+  private static Optional<Integer> getInternal(final DenseIdMapping mapping, final long osmId) {
+    final int internalId = mapping.getInternal(osmId);
+    if (internalId == DenseIdMapping.NO_INTERNAL_ID) {
+      return Optional.empty();
+    }
+    return Optional.of(internalId);
+  }
+
   /**
-   * Map connecting internal way IDs to their OSM IDs.
+   * Gets the OSM ID of the given internal ID from the given mapping.
+   *
+   * @param mapping    The mapping to use
+   * @param internalId The internal ID
+   * @return The OSM ID or empty if the internal ID has no OSM ID
    */
-  private final MutableIntLongMap mInternalToWayId;
+  private static Optional<Long> getOsm(final DenseIdMapping mapping, final int internalId) {
+    if (!mapping.containsInternal(internalId)) {
+      return Optional.empty();
+    }
+    return Optional.of(mapping.getOsm(internalId));
+  }
+
   /**
-   * Map connecting node names to their unique OSM IDs.
+   * Streams the pairs of the given mapping.
+   *
+   * @param mapping The mapping to stream
+   * @param isNode  <code>True</code> if the mapping is for nodes,
+   *                <code>false</code> for ways
+   * @return The pairs of the mapping
    */
-  private final MutableObjectLongMap<String> mNameToNode;
+  private static Stream<IdMapping> streamMappings(final DenseIdMapping mapping, final boolean isNode) {
+    return Arrays.stream(mapping.getInternalIds())
+        .mapToObj(internalId -> new IdMapping(mapping.getOsm(internalId), internalId, isNode));
+  }
+
   /**
-   * Map connecting way names to their unique OSM IDs.
+   * The maximal allowed speeds of highways, indexed by the row of their way.
    */
-  private final MutableObjectLongMap<String> mNameToWay;
+  private final MutableIntList mHighwayMaxSpeeds;
   /**
-   * Map connecting nodes IDs to their OSM name.
+   * The encoded types of highways, indexed by the row of their way. See
+   * {@link HighwayData#encodeType(EHighwayType)}.
    */
-  private final MutableLongObjectMap<String> mNodeToName;
+  private final MutableByteList mHighwayTypes;
   /**
-   * Map connecting node IDs to their spatial data.
+   * Lock guarding all data of the database. Lookups hold the read lock,
+   * modifications the write lock.
    */
-  private final MutableLongObjectMap<SpatialNodeData> mNodeToSpatialData;
+  private final ReentrantReadWriteLock mLock;
+  /**
+   * The pool containing the names of all nodes and ways.
+   */
+  private final StringPool mNames;
+  /**
+   * Map connecting handles of node names to their unique OSM IDs.
+   */
+  private final MutableIntLongMap mNameToNode;
+  /**
+   * Map connecting handles of way names to their unique OSM IDs.
+   */
+  private final MutableIntLongMap mNameToWay;
   /**
-   * Map connecting OSM node IDs to their internal IDs.
+   * Mapping between OSM and internal node IDs.
    */
-  private final MutableLongIntMap mOsmToNodeId;
+  private final DenseIdMapping mNodeMapping;
   /**
-   * Map connecting OSM way IDs to their internal IDs.
+   * Map connecting nodes IDs to the handles of their OSM name.
    */
-  private final MutableLongIntMap mOsmToWayId;
+  private final MutableLongIntMap mNodeToName;
+  /**
+   * Map connecting node IDs to their spatial data.
+   */
+  private final MutableLongObjectMap<SpatialNodeData> mNodeToSpatialData;
   /**
-   * Map connecting way IDs to their highway data.
+   * Map connecting way IDs to the row of their highway data in the highway
+   * columns.
    */
-  private final MutableLongObjectMap<HighwayData> mWayToHighwayData;
+  private final MutableLongIntMap mWayToHighwayRow;
   /**
-   * Map connecting way IDs to their OSM names.
+   * Mapping between OSM and internal way IDs.
    */
-  private final MutableLongObjectMap<String> mWayToName;
+  private final DenseIdMapping mWayMapping;
+  /**
+   * Map connecting way IDs to the handles of their OSM names.
+   */
+  private final MutableLongIntMap mWayToName;
 
   /**
    * Creates a new empty database.<br>
@@ -94,16 +171,44 @@ public class MemoryDatabase extends ADatabase {
    * when finished using it.
    */
   public MemoryDatabase() {
-    mNameToNode = ObjectLongMaps.mutable.empty();
+    mLock = new ReentrantReadWriteLock();
+    mNames = new StringPool();
+    mNameToNode = IntLongMaps.mutable.empty();
     mNodeToSpatialData = LongObjectMaps.mutable.empty();
-    mNameToWay = ObjectLongMaps.mutable.empty();
-    mNodeToName = LongObjectMaps.mutable.empty();
-    mWayToName = LongObjectMaps.mutable.empty();
-    mWayToHighwayData = LongObjectMaps.mutable.empty();
-    mInternalToNodeId = IntLongMaps.mutable.empty();
-    mInternalToWayId = IntLongMaps.mutable.empty();
-    mOsmToNodeId = LongIntMaps.mutable.empty();
-    mOsmToWayId = LongIntMaps.mutable.empty();
+    mNameToWay = IntLongMaps.mutable.empty();
+    mNodeToName = LongIntMaps.mutable.empty();
+    mWayToName = LongIntMaps.mutable.empty();
+    mWayToHighwayRow = LongIntMaps.mutable.empty();
+    mHighwayTypes = ByteLists.mutable.empty();
+    mHighwayMaxSpeeds = IntLists.mutable.empty();
+    mNodeMapping = new DenseIdMapping();
+    mWayMapping = new DenseIdMapping();
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#finishImport()
+   */
+  @Override
+  public void finishImport() {
+    mLock.writeLock().lock();
+    try {
+      // Sort the offered mappings for lookups by OSM IDs
+      mNodeMapping.compact();
+      mWayMapping.compact();
+    } finally {
+      mLock.writeLock().unlock();
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#finishChange()
+   */
+  @Override
+  public void finishChange() {
+    // Changes are stored like imported data
+    finishImport();
   }
 
   /*
@@ -114,7 +219,13 @@ public class MemoryDatabase extends ADatabase {
    */
   @Override
   public Collection<NodeNameData> getAllNodeNameData() {
-    return mNodeToName.keyValuesView().collect(entry -> new NodeNameData(entry.getOne(), entry.getTwo())).toList();
+    mLock.readLock().lock();
+    try {
+      return mNodeToName.keyValuesView()
+          .collect(entry -> new NodeNameData(entry.getOne(), mNames.get(entry.getTwo()))).toList();
+    } finally {
+      mLock.readLock().unlock();
+    }
   }
 
   /*
@@ -129,7 +240,18 @@ public class MemoryDatabase extends ADatabase {
       LOGGER.debug("Getting highway data for {} ways", size);
     }
     final List<HighwayData> result = new ArrayList<>(size);
-    wayIds.mapToObj(mWayToHighwayData::get).filter(Objects::nonNull).forEach(result::add);
+    mLock.readLock().lock();
+    try {
+      wayIds.forEach(wayId -> {
+        final int row = mWayToHighwayRow.getIfAbsent(wayId, -1);
+        if (row != -1) {
+          result.add(new HighwayData(wayId, HighwayData.decodeType(mHighwayTypes.get(row)),
+              mHighwayMaxSpeeds.get(row)));
+        }
+      });
+    } finally {
+      mLock.readLock().unlock();
+    }
     return result;
   }
 
@@ -141,10 +263,12 @@ public class MemoryDatabase extends ADatabase {
    */
   @Override
   public Optional<Integer> getInternalNodeByOsm(final long osmId) {
-    if (mOsmToNodeId.containsKey(osmId)) {
-      return Optional.of(mOsmToNodeId.get(osmId));
+    mLock.readLock().lock();
+    try {
+      return MemoryDatabase.getInternal(mNodeMapping, osmId);
+    } finally {
+      mLock.readLock().unlock();
     }
-    return Optional.empty();
   }
 
   /*
@@ -155,10 +279,12 @@ public class MemoryDatabase extends ADatabase {
    */
   @Override
   public Optional<Integer> getInternalWayByOsm(final long osmId) {
-    if (mOsmToWayId.containsKey(osmId)) {
-      return Optional.of(mOsmToWayId.get(osmId));
+    mLock.readLock().lock();
+    try {
+      return MemoryDatabase.getInternal(mWayMapping, osmId);
+    } finally {
+      mLock.readLock().unlock();
     }
-    return Optional.empty();
   }
 
   /*
@@ -169,10 +295,16 @@ public class MemoryDatabase extends ADatabase {
    */
   @Override
   public Optional<Long> getNodeByName(final String name) {
-    if (mNameToNode.containsKey(name)) {
-      return Optional.of(mNameToNode.get(name));
+    mLock.readLock().lock();
+    try {
+      final int handle = mNames.find(name);
+      if (handle != -1 && mNameToNode.containsKey(handle)) {
+        return Optional.of(mNameToNode.get(handle));
+      }
+      return Optional.empty();
+    } finally {
+      mLock.readLock().unlock();
     }
-    return Optional.empty();
   }
 
   /*
@@ -181,7 +313,30 @@ public class MemoryDatabase extends ADatabase {
    */
   @Override
   public Optional<String> getNodeName(final long id) {
-    return Optional.ofNullable(mNodeToName.get(id));
+    return getName(mNodeToName, id);
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getNodeNames(java.util
+   * .stream.LongStream, int)
+   */
+  @Override
+  public LongObjectMap<String> getNodeNames(final LongStream ids, final int size) {
+    final MutableLongObjectMap<String> result = new LongObjectHashMap<>(size);
+    mLock.readLock().lock();
+    try {
+      ids.forEach(id -> {
+        final int handle = mNodeToName.getIfAbsent(id, -1);
+        if (handle != -1) {
+          result.put(id, mNames.get(handle));
+        }
+      });
+    } finally {
+      mLock.readLock().unlock();
+    }
+    return result;
   }
 
   /*
@@ -192,10 +347,34 @@ public class MemoryDatabase extends ADatabase {
    */
   @Override
   public Optional<Long> getOsmNodeByInternal(final int internalId) {
-    if (mInternalToNodeId.containsKey(internalId)) {
-      return Optional.of(mInternalToNodeId.get(internalId));
+    mLock.readLock().lock();
+    try {
+      return MemoryDatabase.getOsm(mNodeMapping, internalId);
+    } finally {
+      mLock.readLock().unlock();
     }
-    return Optional.empty();
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see
+   * de.unifreiburg.informatik.cobweb.db.IRoutingDatabase#getOsmNodesByInternal
+   * (java.util.stream.IntStream, int)
+   */
+  @Override
+  public IntLongMap getOsmNodesByInternal(final IntStream internalIds, final int size) {
+    final MutableIntLongMap result = new IntLongHashMap(size);
+    mLock.readLock().lock();
+    try {
+      internalIds.forEach(internalId -> {
+        if (mNodeMapping.containsInternal(internalId)) {
+          result.put(internalId, mNodeMapping.getOsm(internalId));
+        }
+      });
+    } finally {
+      mLock.readLock().unlock();
+    }
+    return result;
   }
 
   /*
@@ -206,10 +385,12 @@ public class MemoryDatabase extends ADatabase {
    */
   @Override
   public Optional<Long> getOsmWayByInternal(final int internalId) {
-    if (mInternalToWayId.containsKey(internalId)) {
-      return Optional.of(mInternalToWayId.get(internalId));
+    mLock.readLock().lock();
+    try {
+      return MemoryDatabase.getOsm(mWayMapping, internalId);
+    } finally {
+      mLock.readLock().unlock();
     }
-    return Optional.empty();
   }
 
   /*
@@ -224,12 +405,19 @@ public class MemoryDatabase extends ADatabase {
       LOGGER.debug("Getting spatial data for {} nodes", size);
     }
     final List<SpatialNodeData> result = new ArrayList<>(size);
-    nodeIds.mapToObj(mNodeToSpatialData::get).filter(Objects::nonNull).forEach(data -> {
-      // Fetch internal ID of the node
-      final SpatialNodeData fullData = new SpatialNodeData(mOsmToNodeId.get(data.getOsmId()), data.getOsmId(),
-          data.getLatitude(), data.getLongitude());
-      result.add(fullData);
-    });
+    mLock.readLock().lock();
+    try {
+      nodeIds.mapToObj(mNodeToSpatialData::get).filter(Objects::nonNull).forEach(data -> {
+        // Fetch internal ID of the node, nodes without internal ID get the
+        // default ID
+        final int internalId = Math.max(mNodeMapping.getInternal(data.getOsmId()), 0);
+        final SpatialNodeData fullData =
+            new SpatialNodeData(internalId, data.getOsmId(), data.getLatitude(), data.getLongitude());
+        result.add(fullData);
+      });
+    } finally {
+      mLock.readLock().unlock();
+    }
     return result;
   }
 
@@ -241,10 +429,16 @@ public class MemoryDatabase extends ADatabase {
    */
   @Override
   public Optional<Long> getWayByName(final String name) {
-    if (mNameToWay.containsKey(name)) {
-      return Optional.of(mNameToWay.get(name));
+    mLock.readLock().lock();
+    try {
+      final int handle = mNames.find(name);
+      if (handle != -1 && mNameToWay.containsKey(handle)) {
+        return Optional.of(mNameToWay.get(handle));
+      }
+      return Optional.empty();
+    } finally {
+      mLock.readLock().unlock();
     }
-    return Optional.empty();
   }
 
   /*
@@ -253,7 +447,7 @@ public class MemoryDatabase extends ADatabase {
    */
   @Override
   public Optional<String> getWayName(final long id) {
-    return Optional.ofNullable(mWayToName.get(id));
+    return getName(mWayToName, id);
   }
 
   /*
@@ -277,15 +471,18 @@ public class MemoryDatabase extends ADatabase {
       LOGGER.debug("Offering {} mappings to the database", size);
     }
 
-    mappings.forEach(mapping -> {
-      if (mapping.isNode()) {
-        mInternalToNodeId.put(mapping.getInternalId(), mapping.getOsmId());
-        mOsmToNodeId.put(mapping.getOsmId(), mapping.getInternalId());
-      } else {
-        mInternalToWayId.put(mapping.getInternalId(), mapping.getOsmId());
-        mOsmToWayId.put(mapping.getOsmId(), mapping.getInternalId());
-      }
-    });
+    mLock.writeLock().lock();
+    try {
+      mappings.forEach(mapping -> {
+        if (mapping.isNode()) {
+          mNodeMapping.put(mapping.getOsmId(), mapping.getInternalId());
+        } else {
+          mWayMapping.put(mapping.getOsmId(), mapping.getInternalId());
+        }
+      });
+    } finally {
+      mLock.writeLock().unlock();
+    }
   }
 
   /*
@@ -300,13 +497,18 @@ public class MemoryDatabase extends ADatabase {
       LOGGER.debug("Offering {} nodes to the database", size);
     }
 
-    entities.forEach(entity -> {
-      if (entity instanceof OsmNode) {
-        addOsmNode((OsmNode) entity);
-      } else if (entity instanceof OsmWay) {
-        addOsmWay((OsmWay) entity);
-      }
-    });
+    mLock.writeLock().lock();
+    try {
+      entities.forEach(entity -> {
+        if (entity instanceof OsmNode) {
+          addOsmNode((OsmNode) entity);
+        } else if (entity instanceof OsmWay) {
+          addOsmWay((OsmWay) entity);
+        }
+      });
+    } finally {
+      mLock.writeLock().unlock();
+    }
   }
 
   /*
@@ -319,6 +521,154 @@ public class MemoryDatabase extends ADatabase {
     // Do nothing
   }
 
+  /**
+   * Adds a node with the given data to the database, replacing previous data
+   * of the node.
+   *
+   * @param osmId     The OSM ID of the node
+   * @param latitude  The latitude of the node
+   * @param longitude The longitude of the node
+   * @param name      The name of the node or <code>null</code> if it has no
+   *                  name
+   */
+  void addNode(final long osmId, final float latitude, final float longitude, final String name) {
+    mLock.writeLock().lock();
+    try {
+      // Insert node data, internal ID is implicitly fetched at request time
+      mNodeToSpatialData.put(osmId, new SpatialNodeData(-1, osmId, latitude, longitude));
+
+      // Insert tag data
+      if (name != null) {
+        final int handle = mNames.intern(name);
+        mNameToNode.put(handle, osmId);
+        mNodeToName.put(osmId, handle);
+      }
+    } finally {
+      mLock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Adds a way with the given data to the database, replacing previous data of
+   * the way.
+   *
+   * @param id       The OSM ID of the way
+   * @param name     The name of the way or <code>null</code> if it has no name
+   * @param highway  The highway type of the way or <code>null</code> if
+   *                 unknown
+   * @param maxSpeed The maximal allowed speed on the way in <code>km/h</code>
+   */
+  void addWay(final long id, final String name, final EHighwayType highway, final int maxSpeed) {
+    mLock.writeLock().lock();
+    try {
+      // Insert tag data
+      if (name != null) {
+        final int handle = mNames.intern(name);
+        mNameToWay.put(handle, id);
+        mWayToName.put(id, handle);
+      }
+
+      // Insert highway data, reuse the row of the way if present
+      final int row = mWayToHighwayRow.getIfAbsent(id, -1);
+      if (row == -1) {
+        mWayToHighwayRow.put(id, mHighwayTypes.size());
+        mHighwayTypes.add(HighwayData.encodeType(highway));
+        mHighwayMaxSpeeds.add(maxSpeed);
+      } else {
+        mHighwayTypes.set(row, HighwayData.encodeType(highway));
+        mHighwayMaxSpeeds.set(row, maxSpeed);
+      }
+    } finally {
+      mLock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Copies all data of the database to the given database, replacing data of
+   * the same nodes and ways.
+   *
+   * @param target The database to copy the data to
+   */
+  void copyTo(final MemoryDatabase target) {
+    mLock.readLock().lock();
+    try {
+      target.offerIdMappings(MemoryDatabase.streamMappings(mNodeMapping, true), mNodeMapping.size());
+      target.offerIdMappings(MemoryDatabase.streamMappings(mWayMapping, false), mWayMapping.size());
+      mNodeToSpatialData.forEachKeyValue((osmId, data) -> target.addNode(osmId, data.getLatitude(),
+          data.getLongitude(), getName(mNodeToName, osmId).orElse(null)));
+      mWayToHighwayRow.forEachKeyValue((wayId, row) -> target.addWay(wayId, getName(mWayToName, wayId).orElse(null),
+          HighwayData.decodeType(mHighwayTypes.get(row)), mHighwayMaxSpeeds.get(row)));
+    } finally {
+      mLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Gets the IDs of all ways with highway data.
+   *
+   * @return The IDs of the ways, the set must not be modified
+   */
+  LongSet getHighwayWays() {
+    return mWayToHighwayRow.keySet();
+  }
+
+  /**
+   * Gets the pool containing the names of all nodes and ways.
+   *
+   * @return The pool, it must not be modified
+   */
+  StringPool getNames() {
+    return mNames;
+  }
+
+  /**
+   * Gets the mapping between OSM and internal node IDs.
+   *
+   * @return The mapping, it must not be modified
+   */
+  DenseIdMapping getNodeMapping() {
+    return mNodeMapping;
+  }
+
+  /**
+   * Gets the map connecting node IDs to the handles of their OSM names in
+   * {@link #getNames()}.
+   *
+   * @return The map, it must not be modified
+   */
+  LongIntMap getNodeToName() {
+    return mNodeToName;
+  }
+
+  /**
+   * Gets the map connecting node IDs to their spatial data. The internal IDs
+   * of the spatial data are not set.
+   *
+   * @return The map, it must not be modified
+   */
+  LongObjectMap<SpatialNodeData> getNodeToSpatialData() {
+    return mNodeToSpatialData;
+  }
+
+  /**
+   * Gets the mapping between OSM and internal way IDs.
+   *
+   * @return The mapping, it must not be modified
+   */
+  DenseIdMapping getWayMapping() {
+    return mWayMapping;
+  }
+
+  /**
+   * Gets the map connecting way IDs to the handles of their OSM names in
+   * {@link #getNames()}.
+   *
+   * @return The map, it must not be modified
+   */
+  LongIntMap getWayToName() {
+    return mWayToName;
+  }
+
   /**
    * Adds the given OSM node to the database if not already contained.
    *
@@ -332,14 +682,7 @@ public class MemoryDatabase extends ADatabase {
     final Map<String, String> tagToValue = OsmModelUtil.getTagsAsMap(node);
     final String name = tagToValue.get(OsmParseUtil.NAME_TAG);
 
-    // Insert node data, internal ID is implicitly fetched at request time
-    mNodeToSpatialData.put(osmId, new SpatialNodeData(-1, osmId, latitude, longitude));
-
-    // Insert tag data
-    if (name != null) {
-      mNameToNode.put(name, osmId);
-      mNodeToName.put(osmId, name);
-    }
+    addNode(osmId, latitude, longitude, name);
   }
 
   /**
@@ -355,12 +698,27 @@ public class MemoryDatabase extends ADatabase {
     final EHighwayType highway = OsmParseUtil.parseHighwayType(tagToValue);
     final int maxSpeed = OsmParseUtil.parseMaxSpeed(tagToValue);
 
-    // Insert tag data
-    if (name != null) {
-      mNameToWay.put(name, id);
-      mWayToName.put(id, name);
+    addWay(id, name, highway, maxSpeed);
+  }
+
+  /**
+   * Gets the name of the given ID from the given map.
+   *
+   * @param idToName Map connecting IDs to the handles of their names
+   * @param id       The ID to get the name of
+   * @return The name of the ID or empty if it has no name
+   */
+  private Optional<String> getName(final LongIntMap idToName, final long id) {
+    mLock.readLock().lock();
+    try {
+      final int handle = idToName.getIfAbsent(id, -1);
+      if (handle == -1) {
+        return Optional.empty();
+      }
+      return Optional.of(mNames.get(handle));
+    } finally {
+      mLock.readLock().unlock();
     }
-    mWayToHighwayData.put(id, new HighwayData(id, highway, maxSpeed));
   }
 
 }
@@ -57,14 +57,15 @@ public final class OsmDatabaseHandler implements IOsmFileHandler {
   /**
    * The handler to use which determines the OSM files that contain more recent
    * or new data than the data already stored in the database. Will only be used
-   * if the configuration has set the use of an external database.
+   * if the configuration has set the use of a persistent database.
    */
   private final RecentHandler mRecentHandler;
   /**
-   * Whether or not an external database is to be used. This determines if OSM
-   * files should be filtered by a {@link RecentHandler} or not.
+   * Whether or not a persistent database, i.e. an external or a memory-mapped
+   * database, is to be used. This determines if OSM files should be filtered
+   * by a {@link RecentHandler} or not.
    */
-  private final boolean mUseExternalDb;
+  private final boolean mUsePersistentDb;
 
   /**
    * Creates a new OSM database handler which operates on the given database
@@ -79,9 +80,12 @@ public final class OsmDatabaseHandler implements IOsmFileHandler {
     mEntityBuffer = new OsmEntity[BUFFER_SIZE];
     mDatabase = database;
 
-    mUseExternalDb = config.useExternalDb();
-    if (mUseExternalDb) {
+    mUsePersistentDb = config.useExternalDb() || config.useMappedDb();
+    if (config.useExternalDb()) {
       mRecentHandler = new RecentHandler(config.getDbInfo());
+    } else if (config.useMappedDb()) {
+      // The info is stored next to the data, since it describes their content
+      mRecentHandler = new RecentHandler(config.getMappedDbDirectory().resolve(MappedDatabase.INFO_FILE_NAME));
     } else {
       mRecentHandler = null;
     }
@@ -96,7 +100,7 @@ public final class OsmDatabaseHandler implements IOsmFileHandler {
     // Submit buffer
     offerBuffer();
 
-    if (mUseExternalDb) {
+    if (mUsePersistentDb) {
       mRecentHandler.updateInfo();
     }
   }
@@ -157,7 +161,7 @@ public final class OsmDatabaseHandler implements IOsmFileHandler {
   @Override
   public boolean isAcceptingFile(final Path file) {
     // Check if the files content is not already included in the database
-    if (mUseExternalDb && !mRecentHandler.isAcceptingFile(file)) {
+    if (mUsePersistentDb && !mRecentHandler.isAcceptingFile(file)) {
       return false;
     }
 
@@ -0,0 +1,137 @@
+package de.unifreiburg.informatik.cobweb.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Connection of a {@link ConnectionPool}. Closing the object gives the
+ * connection back to the pool instead of closing it.<br>
+ * <br>
+ * The connection caches its prepared statements by their query, see
+ * {@link #prepareStatement(String)}. If the cache exceeds its capacity the
+ * least recently used statement is closed. The object must only be used by
+ * one thread at a time, i.e. the thread that acquired it.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class PooledConnection implements AutoCloseable {
+  /**
+   * Logger to use for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(PooledConnection.class);
+
+  /**
+   * Closes the given statement. Errors are logged but not thrown.
+   *
+   * @param statement The statement to close
+   */
+  private static void closeStatement(final PreparedStatement statement) {
+    try {
+      statement.close();
+    } catch (final SQLException e) {
+      LOGGER.warn("Error closing cached statement", e);
+    }
+  }
+
+  /**
+   * The underlying JDBC connection.
+   */
+  private final Connection mConnection;
+  /**
+   * The pool the connection belongs to.
+   */
+  private final ConnectionPool mPool;
+  /**
+   * Map connecting queries to their cached prepared statements, in the order
+   * they were last used.
+   */
+  private final Map<String, PreparedStatement> mQueryToStatement;
+
+  /**
+   * Creates a new pooled connection.
+   *
+   * @param connection         The underlying JDBC connection
+   * @param statementCacheSize The maximal amount of cached prepared statements
+   * @param pool               The pool the connection belongs to
+   */
+  PooledConnection(final Connection connection, final int statementCacheSize, final ConnectionPool pool) {
+    mConnection = connection;
+    mPool = pool;
+    mQueryToStatement = new LinkedHashMap<String, PreparedStatement>(statementCacheSize, 0.75F, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<String, PreparedStatement> eldest) {
+        if (size() <= statementCacheSize) {
+          return false;
+        }
+        PooledConnection.closeStatement(eldest.getValue());
+        return true;
+      }
+    };
+  }
+
+  /**
+   * Gives the connection back to its pool. The connection must not be used
+   * afterwards.
+   */
+  @Override
+  public void close() {
+    mPool.release(this);
+  }
+
+  /**
+   * Gets the underlying JDBC connection. It must not be closed, statements
+   * prepared on it directly are not cached and must be closed by the caller.
+   *
+   * @return The underlying JDBC connection
+   */
+  public Connection getConnection() {
+    return mConnection;
+  }
+
+  /**
+   * Gets a prepared statement for the given query. The statement is prepared
+   * once and then reused, its parameters are cleared. The statement must not
+   * be closed by the caller.<br>
+   * <br>
+   * Only use this method for queries that are reused, queries with a varying
+   * amount of parameters should be prepared on {@link #getConnection()}
+   * instead.
+   *
+   * @param query The query to get a prepared statement for
+   * @return The prepared statement
+   * @throws SQLException If an SQL exception occurred while trying to prepare
+   *                      the statement
+   */
+  public PreparedStatement prepareStatement(final String query) throws SQLException {
+    PreparedStatement statement = mQueryToStatement.get(query);
+    if (statement == null || statement.isClosed()) {
+      statement = mConnection.prepareStatement(query);
+      mQueryToStatement.put(query, statement);
+    } else {
+      statement.clearParameters();
+    }
+    return statement;
+  }
+
+  /**
+   * Closes all cached statements and the underlying JDBC connection. Errors
+   * are logged but not thrown.
+   */
+  void closeConnection() {
+    mQueryToStatement.values().forEach(PooledConnection::closeStatement);
+    mQueryToStatement.clear();
+    try {
+      mConnection.close();
+    } catch (final SQLException e) {
+      LOGGER.warn("Error closing database connection", e);
+    }
+  }
+}
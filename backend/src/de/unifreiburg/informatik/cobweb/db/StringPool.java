@@ -0,0 +1,212 @@
+package de.unifreiburg.informatik.cobweb.db;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Pool which interns strings into a compact array of UTF-8 encoded bytes.<br>
+ * <br>
+ * Every distinct string is stored only once and identified by an
+ * <code>int</code> handle, see {@link #intern(String)}. The pool does not keep
+ * {@link String} objects, a string is only decoded when it is accessed by
+ * {@link #get(int)}. Strings are deduplicated by an open addressing hash table
+ * of handles which compares the encoded bytes, hence it also does not keep
+ * references to strings.<br>
+ * <br>
+ * The pool is not safe to modify by multiple threads. Concurrent reads are
+ * safe once all strings were interned.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+final class StringPool {
+  /**
+   * The initial capacity of the pool, in bytes.
+   */
+  private static final int INITIAL_BYTE_CAPACITY = 1 << 12;
+  /**
+   * The initial amount of slots of the hash table, must be a power of two.
+   */
+  private static final int INITIAL_TABLE_CAPACITY = 1 << 8;
+  /**
+   * Value of a slot of the hash table that contains no handle.
+   */
+  private static final int NO_HANDLE = -1;
+
+  /**
+   * Computes the hash of the given encoded string.
+   *
+   * @param bytes  The array containing the encoded string
+   * @param offset The offset of the encoded string in the array
+   * @param length The length of the encoded string
+   * @return The hash of the encoded string
+   */
+  private static int hash(final byte[] bytes, final int offset, final int length) {
+    int hash = 1;
+    for (int i = offset; i < offset + length; i++) {
+      hash = 31 * hash + bytes[i];
+    }
+    // Spread the higher bits since only the lower bits select the slot
+    return hash ^ hash >>> 16;
+  }
+
+  /**
+   * The UTF-8 encoded strings, one after another.
+   */
+  private byte[] mBytes;
+  /**
+   * The offsets of the strings in {@link #mBytes}, indexed by handle. The
+   * entry after the last string marks the end of the used bytes.
+   */
+  private int[] mOffsets;
+  /**
+   * The amount of interned strings.
+   */
+  private int mSize;
+  /**
+   * Hash table containing the handles of all strings or {@link #NO_HANDLE}
+   * for empty slots.
+   */
+  private int[] mTable;
+
+  /**
+   * Creates a new empty pool.
+   */
+  StringPool() {
+    mBytes = new byte[INITIAL_BYTE_CAPACITY];
+    mOffsets = new int[INITIAL_TABLE_CAPACITY / 2 + 1];
+    mTable = new int[INITIAL_TABLE_CAPACITY];
+    Arrays.fill(mTable, NO_HANDLE);
+  }
+
+  /**
+   * Gets the handle of the given string if it was interned.
+   *
+   * @param value The string to search
+   * @return The handle of the string or <code>-1</code> if it was not
+   *         interned
+   */
+  int find(final String value) {
+    final byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+    return mTable[findSlot(encoded)];
+  }
+
+  /**
+   * Gets the string with the given handle.
+   *
+   * @param handle The handle of the string, as returned by
+   *               {@link #intern(String)}
+   * @return The string with the given handle
+   */
+  String get(final int handle) {
+    final int offset = mOffsets[handle];
+    return new String(mBytes, offset, mOffsets[handle + 1] - offset, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Gets the amount of bytes used by the encoded strings.
+   *
+   * @return The amount of used bytes
+   */
+  int getSizeInBytes() {
+    return mOffsets[mSize];
+  }
+
+  /**
+   * Interns the given string. If an equal string was interned already, its
+   * handle is returned, otherwise the string is added to the pool.
+   *
+   * @param value The string to intern
+   * @return The handle of the string, between <code>0</code> (inclusive) and
+   *         {@link #size()} (exclusive)
+   */
+  int intern(final String value) {
+    final byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+    final int slot = findSlot(encoded);
+    if (mTable[slot] != NO_HANDLE) {
+      return mTable[slot];
+    }
+
+    // Append the string
+    final int offset = mOffsets[mSize];
+    if (offset + encoded.length > mBytes.length) {
+      mBytes = Arrays.copyOf(mBytes, Math.max(2 * mBytes.length, offset + encoded.length));
+    }
+    System.arraycopy(encoded, 0, mBytes, offset, encoded.length);
+    if (mSize + 2 > mOffsets.length) {
+      mOffsets = Arrays.copyOf(mOffsets, 2 * mOffsets.length);
+    }
+    final int handle = mSize;
+    mOffsets[handle + 1] = offset + encoded.length;
+    mTable[slot] = handle;
+    mSize++;
+
+    // Keep the load factor of the table at most one half
+    if (2 * mSize > mTable.length) {
+      rehash();
+    }
+    return handle;
+  }
+
+  /**
+   * Gets the amount of interned strings.
+   *
+   * @return The amount of interned strings
+   */
+  int size() {
+    return mSize;
+  }
+
+  /**
+   * Finds the slot of the hash table which contains the handle of the given
+   * encoded string or the empty slot where it would be inserted.
+   *
+   * @param encoded The encoded string
+   * @return The slot of the string
+   */
+  private int findSlot(final byte[] encoded) {
+    final int mask = mTable.length - 1;
+    int slot = StringPool.hash(encoded, 0, encoded.length) & mask;
+    while (mTable[slot] != NO_HANDLE && !isEqual(mTable[slot], encoded)) {
+      slot = slot + 1 & mask;
+    }
+    return slot;
+  }
+
+  /**
+   * Whether the string with the given handle equals the given encoded string.
+   *
+   * @param handle  The handle of the string
+   * @param encoded The encoded string to compare with
+   * @return <code>True</code> if both strings are equal, <code>false</code>
+   *         otherwise
+   */
+  private boolean isEqual(final int handle, final byte[] encoded) {
+    final int offset = mOffsets[handle];
+    if (mOffsets[handle + 1] - offset != encoded.length) {
+      return false;
+    }
+    for (int i = 0; i < encoded.length; i++) {
+      if (mBytes[offset + i] != encoded[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Doubles the size of the hash table and inserts all handles again.
+   */
+  private void rehash() {
+    mTable = new int[2 * mTable.length];
+    Arrays.fill(mTable, NO_HANDLE);
+    final int mask = mTable.length - 1;
+    for (int handle = 0; handle < mSize; handle++) {
+      final int offset = mOffsets[handle];
+      int slot = StringPool.hash(mBytes, offset, mOffsets[handle + 1] - offset) & mask;
+      while (mTable[slot] != NO_HANDLE) {
+        slot = slot + 1 & mask;
+      }
+      mTable[slot] = handle;
+    }
+  }
+}
@@ -171,7 +171,8 @@ public final class DataParser {
         filesToUse = null;
       }
       // Choose the right configuration
-      final GtfsParser gtfsParser = new GtfsParser(directoryToUse, filesToUse, mGtfsHandler);
+      final GtfsParser gtfsParser =
+          new GtfsParser(directoryToUse, filesToUse, mGtfsHandler, mConfig.useLightweightGtfsReader());
 
       gtfsParser.parseGtfsFiles();
     } else if (LOGGER.isDebugEnabled()) {
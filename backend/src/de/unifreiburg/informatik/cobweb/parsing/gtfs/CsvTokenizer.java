@@ -0,0 +1,446 @@
+package de.unifreiburg.informatik.cobweb.parsing.gtfs;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Tokenizer for CSV data as used by GTFS feeds. Reads the data record by
+ * record, the fields of the current record can then be accessed by their
+ * index.<br>
+ * <br>
+ * Fields may be quoted, quotes inside quoted fields are escaped by doubling
+ * them. Records are separated by <code>LF</code> or <code>CRLF</code>, empty
+ * lines are skipped. A leading byte order mark is ignored.<br>
+ * <br>
+ * Fields are only converted to objects when requested, numbers and times can
+ * be parsed directly from the internal buffer.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class CsvTokenizer implements Closeable {
+  /**
+   * The byte order mark which may start the data.
+   */
+  private static final char BYTE_ORDER_MARK = '\uFEFF';
+  /**
+   * The character that separates fields.
+   */
+  private static final char DELIMITER = ',';
+  /**
+   * The value indicating the end of the data.
+   */
+  private static final int END_OF_DATA = -1;
+  /**
+   * The initial capacity of the buffers holding the current record.
+   */
+  private static final int INITIAL_RECORD_CAPACITY = 256;
+  /**
+   * The value indicating that no character was pushed back.
+   */
+  private static final int NO_PUSHBACK = -2;
+  /**
+   * The character used to quote fields.
+   */
+  private static final char QUOTE = '"';
+  /**
+   * The size of the buffer used for reading.
+   */
+  private static final int READ_BUFFER_SIZE = 1 << 16;
+
+  /**
+   * The amount of fields of the current record.
+   */
+  private int mAmountOfFields;
+  /**
+   * The unescaped characters of all fields of the current record,
+   * concatenated.
+   */
+  private char[] mFieldChars;
+  /**
+   * The end position of each field of the current record in
+   * {@link #mFieldChars}, exclusive.
+   */
+  private int[] mFieldEnds;
+  /**
+   * Whether the first character was not read yet.
+   */
+  private boolean mIsAtStart;
+  /**
+   * The amount of characters of the current record in {@link #mFieldChars}.
+   */
+  private int mLength;
+  /**
+   * A character that was read ahead and pushed back, or {@link #NO_PUSHBACK}.
+   */
+  private int mPushback;
+  /**
+   * The buffer used for reading.
+   */
+  private final char[] mReadBuffer;
+  /**
+   * The amount of valid characters in {@link #mReadBuffer}.
+   */
+  private int mReadLimit;
+  /**
+   * The position of the next character to read in {@link #mReadBuffer}.
+   */
+  private int mReadPosition;
+  /**
+   * The reader to read the data from.
+   */
+  private final Reader mReader;
+
+  /**
+   * Creates a new tokenizer which reads from the given reader.
+   *
+   * @param reader The reader to read from, the tokenizer buffers the data
+   *               itself
+   */
+  public CsvTokenizer(final Reader reader) {
+    mReader = reader;
+    mReadBuffer = new char[READ_BUFFER_SIZE];
+    mFieldChars = new char[INITIAL_RECORD_CAPACITY];
+    mFieldEnds = new int[INITIAL_RECORD_CAPACITY];
+    mPushback = NO_PUSHBACK;
+    mIsAtStart = true;
+  }
+
+  @Override
+  public void close() throws IOException {
+    mReader.close();
+  }
+
+  /**
+   * Gets the amount of fields of the current record.
+   *
+   * @return The amount of fields
+   */
+  public int getAmountOfFields() {
+    return mAmountOfFields;
+  }
+
+  /**
+   * Gets the content of the given field of the current record.
+   *
+   * @param index The index of the field
+   * @return The content of the field, an empty text if the record does not
+   *         have such a field
+   */
+  public String getField(final int index) {
+    if (index < 0 || index >= mAmountOfFields) {
+      return "";
+    }
+    final int begin = getFieldBegin(index);
+    return new String(mFieldChars, begin, mFieldEnds[index] - begin);
+  }
+
+  /**
+   * Whether the given field of the current record is empty or only consists
+   * of whitespace.
+   *
+   * @param index The index of the field
+   * @return <code>True</code> if the field is empty or the record does not
+   *         have such a field, <code>false</code> otherwise
+   */
+  public boolean isFieldEmpty(final int index) {
+    if (index < 0 || index >= mAmountOfFields) {
+      return true;
+    }
+    for (int i = getFieldBegin(index); i < mFieldEnds[index]; i++) {
+      if (!Character.isWhitespace(mFieldChars[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Whether the content of the given field of the current record equals the
+   * given text. Does not create any objects.
+   *
+   * @param index The index of the field
+   * @param text  The text to compare to
+   * @return <code>True</code> if the content equals the text,
+   *         <code>false</code> otherwise
+   */
+  public boolean isFieldEqualTo(final int index, final String text) {
+    if (index < 0 || index >= mAmountOfFields) {
+      return text.isEmpty();
+    }
+    final int begin = getFieldBegin(index);
+    if (mFieldEnds[index] - begin != text.length()) {
+      return false;
+    }
+    for (int i = 0; i < text.length(); i++) {
+      if (mFieldChars[begin + i] != text.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Advances to the next record, skipping empty lines.
+   *
+   * @return <code>True</code> if there is a next record, <code>false</code>
+   *         if the end of the data was reached
+   * @throws IOException If an I/O exception occurred while reading
+   */
+  public boolean nextRecord() throws IOException {
+    while (readRecord()) {
+      if (mAmountOfFields > 1 || mLength > 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Parses the given field of the current record as decimal number.
+   *
+   * @param index The index of the field
+   * @return The parsed number
+   * @throws NumberFormatException If the field does not contain a number
+   */
+  public double parseFieldAsDouble(final int index) throws NumberFormatException {
+    return Double.parseDouble(getField(index).trim());
+  }
+
+  /**
+   * Parses the given field of the current record as integer. Surrounding
+   * whitespace is ignored. Does not create any objects.
+   *
+   * @param index The index of the field
+   * @return The parsed integer
+   * @throws NumberFormatException If the field does not contain an integer
+   */
+  public int parseFieldAsInt(final int index) throws NumberFormatException {
+    final int end = trimmedEnd(index);
+    int position = trimmedBegin(index);
+    final boolean isNegative = position < end && mFieldChars[position] == '-';
+    if (position < end && (mFieldChars[position] == '-' || mFieldChars[position] == '+')) {
+      position++;
+    }
+    if (position == end) {
+      throw new NumberFormatException("Field " + index + " is not an integer: " + getField(index));
+    }
+
+    int value = 0;
+    for (; position < end; position++) {
+      final int digit = mFieldChars[position] - '0';
+      if (digit < 0 || digit > 9) {
+        throw new NumberFormatException("Field " + index + " is not an integer: " + getField(index));
+      }
+      value = value * 10 + digit;
+    }
+    if (isNegative) {
+      return -value;
+    }
+    return value;
+  }
+
+  /**
+   * Parses the given field of the current record as GTFS time of the format
+   * <code>H:MM:SS</code>. Hours may exceed <code>24</code> for times after
+   * midnight of the service day. Surrounding whitespace is ignored. Does not
+   * create any objects.
+   *
+   * @param index The index of the field
+   * @return The parsed time in seconds since midnight
+   * @throws NumberFormatException If the field does not contain a time
+   */
+  public int parseFieldAsTime(final int index) throws NumberFormatException {
+    final int end = trimmedEnd(index);
+    int time = 0;
+    int value = 0;
+    int amountOfParts = 0;
+    int amountOfDigits = 0;
+    for (int position = trimmedBegin(index); position <= end; position++) {
+      if (position == end || mFieldChars[position] == ':') {
+        if (amountOfDigits == 0) {
+          throw new NumberFormatException("Field " + index + " is not a time: " + getField(index));
+        }
+        time = time * 60 + value;
+        value = 0;
+        amountOfDigits = 0;
+        amountOfParts++;
+        continue;
+      }
+      final int digit = mFieldChars[position] - '0';
+      if (digit < 0 || digit > 9) {
+        throw new NumberFormatException("Field " + index + " is not a time: " + getField(index));
+      }
+      value = value * 10 + digit;
+      amountOfDigits++;
+    }
+    if (amountOfParts != 3) {
+      throw new NumberFormatException("Field " + index + " is not a time: " + getField(index));
+    }
+    return time;
+  }
+
+  /**
+   * Appends the given character to the current field.
+   *
+   * @param character The character to append
+   */
+  private void append(final int character) {
+    if (mLength == mFieldChars.length) {
+      mFieldChars = Arrays.copyOf(mFieldChars, mLength * 2);
+    }
+    mFieldChars[mLength] = (char) character;
+    mLength++;
+  }
+
+  /**
+   * Ends the current field.
+   */
+  private void endField() {
+    if (mAmountOfFields == mFieldEnds.length) {
+      mFieldEnds = Arrays.copyOf(mFieldEnds, mAmountOfFields * 2);
+    }
+    mFieldEnds[mAmountOfFields] = mLength;
+    mAmountOfFields++;
+  }
+
+  /**
+   * Gets the begin position of the given field in {@link #mFieldChars}.
+   *
+   * @param index The index of the field
+   * @return The begin position, inclusive
+   */
+  private int getFieldBegin(final int index) {
+    if (index == 0) {
+      return 0;
+    }
+    return mFieldEnds[index - 1];
+  }
+
+  /**
+   * Reads the next character.
+   *
+   * @return The next character or {@link #END_OF_DATA}
+   * @throws IOException If an I/O exception occurred while reading
+   */
+  private int read() throws IOException {
+    if (mPushback != NO_PUSHBACK) {
+      final int character = mPushback;
+      mPushback = NO_PUSHBACK;
+      return character;
+    }
+    if (mReadPosition == mReadLimit) {
+      final int amountRead = mReader.read(mReadBuffer, 0, mReadBuffer.length);
+      if (amountRead <= 0) {
+        return END_OF_DATA;
+      }
+      mReadPosition = 0;
+      mReadLimit = amountRead;
+    }
+    final char character = mReadBuffer[mReadPosition];
+    mReadPosition++;
+    if (mIsAtStart) {
+      mIsAtStart = false;
+      if (character == BYTE_ORDER_MARK) {
+        return read();
+      }
+    }
+    return character;
+  }
+
+  /**
+   * Reads the next record, including empty ones.
+   *
+   * @return <code>True</code> if a record was read, <code>false</code> if the
+   *         end of the data was reached
+   * @throws IOException If an I/O exception occurred while reading
+   */
+  private boolean readRecord() throws IOException {
+    mAmountOfFields = 0;
+    mLength = 0;
+
+    int character = read();
+    if (character == END_OF_DATA) {
+      return false;
+    }
+
+    boolean isInQuotes = false;
+    while (true) {
+      if (isInQuotes) {
+        if (character == END_OF_DATA) {
+          // Unterminated quote, accept what was read
+          endField();
+          return true;
+        }
+        if (character == QUOTE) {
+          final int next = read();
+          if (next == QUOTE) {
+            // Escaped quote
+            append(QUOTE);
+          } else {
+            isInQuotes = false;
+            character = next;
+            continue;
+          }
+        } else {
+          append(character);
+        }
+      } else if (character == END_OF_DATA || character == '\n') {
+        endField();
+        return true;
+      } else if (character == '\r') {
+        final int next = read();
+        if (next != '\n') {
+          mPushback = next;
+        }
+        endField();
+        return true;
+      } else if (character == DELIMITER) {
+        endField();
+      } else if (character == QUOTE) {
+        isInQuotes = true;
+      } else {
+        append(character);
+      }
+      character = read();
+    }
+  }
+
+  /**
+   * Gets the begin position of the given field in {@link #mFieldChars},
+   * skipping leading whitespace.
+   *
+   * @param index The index of the field
+   * @return The begin position, inclusive
+   */
+  private int trimmedBegin(final int index) {
+    if (index < 0 || index >= mAmountOfFields) {
+      return 0;
+    }
+    int begin = getFieldBegin(index);
+    while (begin < mFieldEnds[index] && Character.isWhitespace(mFieldChars[begin])) {
+      begin++;
+    }
+    return begin;
+  }
+
+  /**
+   * Gets the end position of the given field in {@link #mFieldChars},
+   * skipping trailing whitespace.
+   *
+   * @param index The index of the field
+   * @return The end position, exclusive
+   */
+  private int trimmedEnd(final int index) {
+    if (index < 0 || index >= mAmountOfFields) {
+      return 0;
+    }
+    final int begin = getFieldBegin(index);
+    int end = mFieldEnds[index];
+    while (end > begin && Character.isWhitespace(mFieldChars[end - 1])) {
+      end--;
+    }
+    return end;
+  }
+}
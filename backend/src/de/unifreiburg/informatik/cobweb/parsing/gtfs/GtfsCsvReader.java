@@ -0,0 +1,336 @@
+package de.unifreiburg.informatik.cobweb.parsing.gtfs;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.eclipse.collections.impl.factory.Maps;
+import org.onebusaway.gtfs.model.AgencyAndId;
+import org.onebusaway.gtfs.model.Stop;
+import org.onebusaway.gtfs.model.StopTime;
+import org.onebusaway.gtfs.model.Transfer;
+import org.onebusaway.gtfs.model.Trip;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Lightweight reader for GTFS archives which is used as alternative to the
+ * reader of the onebusaway library. The archive is opened as NIO file system
+ * and its files are streamed using a {@link CsvTokenizer}.<br>
+ * <br>
+ * Only the entities and columns needed for routing are read, that are stops,
+ * trips, stop times and transfers. Entities are passed to the given handler in
+ * that order. Only stops and trips are kept while reading, since other
+ * entities reference them.<br>
+ * <br>
+ * The same {@link StopTime} instance is reused for all stop times, handler
+ * must not keep references to it.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class GtfsCsvReader {
+  /**
+   * Name of the GTFS file that contains agencies.
+   */
+  private static final String FILE_AGENCY = "agency.txt";
+  /**
+   * Name of the GTFS file that contains stop times.
+   */
+  private static final String FILE_STOP_TIMES = "stop_times.txt";
+  /**
+   * Name of the GTFS file that contains stops.
+   */
+  private static final String FILE_STOPS = "stops.txt";
+  /**
+   * Name of the GTFS file that contains transfers.
+   */
+  private static final String FILE_TRANSFERS = "transfers.txt";
+  /**
+   * Name of the GTFS file that contains trips.
+   */
+  private static final String FILE_TRIPS = "trips.txt";
+  /**
+   * Logger to use for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(GtfsCsvReader.class);
+  /**
+   * Value indicating that a column is not present.
+   */
+  private static final int NO_COLUMN = -1;
+
+  /**
+   * Gets the index of the column with the given name.
+   *
+   * @param header     The tokenizer positioned at the header record
+   * @param name       The name of the column
+   * @param isRequired Whether the column is required
+   * @param file       The file the header belongs to, used for error messages
+   * @return The index of the column or {@link #NO_COLUMN} if it is not present
+   *         and not required
+   * @throws IOException If the column is required but not present
+   */
+  private static int getColumnIndex(final CsvTokenizer header, final String name, final boolean isRequired,
+      final String file) throws IOException {
+    for (int i = 0; i < header.getAmountOfFields(); i++) {
+      if (header.getField(i).trim().equals(name)) {
+        return i;
+      }
+    }
+    if (isRequired) {
+      throw new IOException("Missing required column " + name + " in " + file);
+    }
+    return NO_COLUMN;
+  }
+
+  /**
+   * The GTFS archive to read.
+   */
+  private final Path mGtfsArchive;
+
+  /**
+   * Creates a new reader for the given GTFS archive.
+   *
+   * @param gtfsArchive The GTFS archive to read, a ZIP file
+   */
+  public GtfsCsvReader(final Path gtfsArchive) {
+    mGtfsArchive = gtfsArchive;
+  }
+
+  /**
+   * Reads the GTFS archive and passes all read entities to the given handler.
+   * Does not call {@link IBaseEntityHandler#complete()}.
+   *
+   * @param handler The handler to pass entities to
+   * @throws IOException If an I/O exception occurred while reading the archive
+   *                     or if it is in a wrong format
+   */
+  public void run(final IBaseEntityHandler handler) throws IOException {
+    try (FileSystem archive = FileSystems.newFileSystem(mGtfsArchive, (ClassLoader) null)) {
+      final Path root = archive.getPath("/");
+      final String agencyId = readDefaultAgencyId(root.resolve(FILE_AGENCY));
+
+      final Map<String, Stop> idToStop = readStops(root.resolve(FILE_STOPS), agencyId, handler);
+      final Map<String, Trip> idToTrip = readTrips(root.resolve(FILE_TRIPS), agencyId, handler);
+      readStopTimes(root.resolve(FILE_STOP_TIMES), idToStop, idToTrip, handler);
+
+      final Path transfers = root.resolve(FILE_TRANSFERS);
+      if (Files.exists(transfers)) {
+        readTransfers(transfers, idToStop, handler);
+      }
+    }
+  }
+
+  /**
+   * Opens a tokenizer for the given GTFS file and positions it at the header.
+   *
+   * @param file The file to open
+   * @return The tokenizer positioned at the header record
+   * @throws IOException If an I/O exception occurred while opening the file or
+   *                     if it has no header
+   */
+  private CsvTokenizer openFile(final Path file) throws IOException {
+    LOGGER.info("Reading {} of {}", file.getFileName(), mGtfsArchive);
+    final CsvTokenizer tokenizer = new CsvTokenizer(Files.newBufferedReader(file, StandardCharsets.UTF_8));
+    if (!tokenizer.nextRecord()) {
+      tokenizer.close();
+      throw new IOException("Missing header in " + file.getFileName());
+    }
+    return tokenizer;
+  }
+
+  /**
+   * Reads the ID of the default agency of the feed, that is the first agency.
+   * It is used to build the IDs of all entities.
+   *
+   * @param file The agency file
+   * @return The ID of the default agency, its name if it has no ID or an empty
+   *         text if there is no agency
+   * @throws IOException If an I/O exception occurred while reading the file
+   */
+  private String readDefaultAgencyId(final Path file) throws IOException {
+    if (!Files.exists(file)) {
+      return "";
+    }
+    try (CsvTokenizer tokenizer = openFile(file)) {
+      final int idColumn = GtfsCsvReader.getColumnIndex(tokenizer, "agency_id", false, FILE_AGENCY);
+      final int nameColumn = GtfsCsvReader.getColumnIndex(tokenizer, "agency_name", false, FILE_AGENCY);
+      if (!tokenizer.nextRecord()) {
+        return "";
+      }
+      if (!tokenizer.isFieldEmpty(idColumn)) {
+        return tokenizer.getField(idColumn);
+      }
+      return tokenizer.getField(nameColumn);
+    }
+  }
+
+  /**
+   * Reads all stops of the given file and passes them to the handler.
+   *
+   * @param file     The stop file
+   * @param agencyId The ID of the default agency
+   * @param handler  The handler to pass entities to
+   * @return Map connecting the IDs of the read stops to the stops
+   * @throws IOException If an I/O exception occurred while reading the file or
+   *                     if it is in a wrong format
+   */
+  private Map<String, Stop> readStops(final Path file, final String agencyId, final IBaseEntityHandler handler)
+      throws IOException {
+    final Map<String, Stop> idToStop = Maps.mutable.empty();
+    try (CsvTokenizer tokenizer = openFile(file)) {
+      final int idColumn = GtfsCsvReader.getColumnIndex(tokenizer, "stop_id", true, FILE_STOPS);
+      final int latColumn = GtfsCsvReader.getColumnIndex(tokenizer, "stop_lat", true, FILE_STOPS);
+      final int lonColumn = GtfsCsvReader.getColumnIndex(tokenizer, "stop_lon", true, FILE_STOPS);
+
+      while (tokenizer.nextRecord()) {
+        final String id = tokenizer.getField(idColumn);
+        final Stop stop = new Stop();
+        stop.setId(new AgencyAndId(agencyId, id));
+        try {
+          stop.setLat(tokenizer.parseFieldAsDouble(latColumn));
+          stop.setLon(tokenizer.parseFieldAsDouble(lonColumn));
+        } catch (final NumberFormatException e) {
+          throw new IOException("Invalid coordinates of stop " + id + " in " + FILE_STOPS, e);
+        }
+        idToStop.put(id, stop);
+        handler.handleEntity(stop);
+      }
+    }
+    return idToStop;
+  }
+
+  /**
+   * Reads all stop times of the given file and passes them to the handler.
+   * Reuses the same stop time instance for all stop times.
+   *
+   * @param file     The stop time file
+   * @param idToStop Map connecting the IDs of stops to the stops
+   * @param idToTrip Map connecting the IDs of trips to the trips
+   * @param handler  The handler to pass entities to
+   * @throws IOException If an I/O exception occurred while reading the file or
+   *                     if it is in a wrong format
+   */
+  private void readStopTimes(final Path file, final Map<String, Stop> idToStop, final Map<String, Trip> idToTrip,
+      final IBaseEntityHandler handler) throws IOException {
+    try (CsvTokenizer tokenizer = openFile(file)) {
+      final int tripColumn = GtfsCsvReader.getColumnIndex(tokenizer, "trip_id", true, FILE_STOP_TIMES);
+      final int arrColumn = GtfsCsvReader.getColumnIndex(tokenizer, "arrival_time", true, FILE_STOP_TIMES);
+      final int depColumn = GtfsCsvReader.getColumnIndex(tokenizer, "departure_time", true, FILE_STOP_TIMES);
+      final int stopColumn = GtfsCsvReader.getColumnIndex(tokenizer, "stop_id", true, FILE_STOP_TIMES);
+      final int sequenceColumn = GtfsCsvReader.getColumnIndex(tokenizer, "stop_sequence", true, FILE_STOP_TIMES);
+
+      final StopTime stopTime = new StopTime();
+      // Stop times are usually grouped by trip, avoid looking up the trip for
+      // each of them
+      String lastTripId = null;
+      Trip lastTrip = null;
+      while (tokenizer.nextRecord()) {
+        if (lastTripId == null || !tokenizer.isFieldEqualTo(tripColumn, lastTripId)) {
+          lastTripId = tokenizer.getField(tripColumn);
+          lastTrip = idToTrip.get(lastTripId);
+          if (lastTrip == null) {
+            throw new IOException("Unknown trip " + lastTripId + " in " + FILE_STOP_TIMES);
+          }
+        }
+        final String stopId = tokenizer.getField(stopColumn);
+        final Stop stop = idToStop.get(stopId);
+        if (stop == null) {
+          throw new IOException("Unknown stop " + stopId + " in " + FILE_STOP_TIMES);
+        }
+
+        try {
+          stopTime.setTrip(lastTrip);
+          stopTime.setStop(stop);
+          stopTime.setStopSequence(tokenizer.parseFieldAsInt(sequenceColumn));
+          if (tokenizer.isFieldEmpty(arrColumn)) {
+            stopTime.setArrivalTime(StopTime.MISSING_VALUE);
+          } else {
+            stopTime.setArrivalTime(tokenizer.parseFieldAsTime(arrColumn));
+          }
+          if (tokenizer.isFieldEmpty(depColumn)) {
+            stopTime.setDepartureTime(StopTime.MISSING_VALUE);
+          } else {
+            stopTime.setDepartureTime(tokenizer.parseFieldAsTime(depColumn));
+          }
+        } catch (final NumberFormatException e) {
+          throw new IOException("Invalid stop time of trip " + lastTripId + " in " + FILE_STOP_TIMES, e);
+        }
+        handler.handleEntity(stopTime);
+      }
+    }
+  }
+
+  /**
+   * Reads all transfers of the given file and passes them to the handler.
+   * Transfers referencing unknown stops are skipped.
+   *
+   * @param file     The transfer file
+   * @param idToStop Map connecting the IDs of stops to the stops
+   * @param handler  The handler to pass entities to
+   * @throws IOException If an I/O exception occurred while reading the file or
+   *                     if it is in a wrong format
+   */
+  private void readTransfers(final Path file, final Map<String, Stop> idToStop, final IBaseEntityHandler handler)
+      throws IOException {
+    try (CsvTokenizer tokenizer = openFile(file)) {
+      final int fromColumn = GtfsCsvReader.getColumnIndex(tokenizer, "from_stop_id", true, FILE_TRANSFERS);
+      final int toColumn = GtfsCsvReader.getColumnIndex(tokenizer, "to_stop_id", true, FILE_TRANSFERS);
+      final int typeColumn = GtfsCsvReader.getColumnIndex(tokenizer, "transfer_type", false, FILE_TRANSFERS);
+      final int timeColumn = GtfsCsvReader.getColumnIndex(tokenizer, "min_transfer_time", false, FILE_TRANSFERS);
+
+      while (tokenizer.nextRecord()) {
+        final Stop fromStop = idToStop.get(tokenizer.getField(fromColumn));
+        final Stop toStop = idToStop.get(tokenizer.getField(toColumn));
+        if (fromStop == null || toStop == null) {
+          continue;
+        }
+
+        final Transfer transfer = new Transfer();
+        transfer.setFromStop(fromStop);
+        transfer.setToStop(toStop);
+        try {
+          if (!tokenizer.isFieldEmpty(typeColumn)) {
+            transfer.setTransferType(tokenizer.parseFieldAsInt(typeColumn));
+          }
+          if (!tokenizer.isFieldEmpty(timeColumn)) {
+            transfer.setMinTransferTime(tokenizer.parseFieldAsInt(timeColumn));
+          }
+        } catch (final NumberFormatException e) {
+          throw new IOException("Invalid transfer in " + FILE_TRANSFERS, e);
+        }
+        handler.handleEntity(transfer);
+      }
+    }
+  }
+
+  /**
+   * Reads all trips of the given file and passes them to the handler.
+   *
+   * @param file     The trip file
+   * @param agencyId The ID of the default agency
+   * @param handler  The handler to pass entities to
+   * @return Map connecting the IDs of the read trips to the trips
+   * @throws IOException If an I/O exception occurred while reading the file or
+   *                     if it is in a wrong format
+   */
+  private Map<String, Trip> readTrips(final Path file, final String agencyId, final IBaseEntityHandler handler)
+      throws IOException {
+    final Map<String, Trip> idToTrip = Maps.mutable.empty();
+    try (CsvTokenizer tokenizer = openFile(file)) {
+      final int idColumn = GtfsCsvReader.getColumnIndex(tokenizer, "trip_id", true, FILE_TRIPS);
+
+      while (tokenizer.nextRecord()) {
+        final String id = tokenizer.getField(idColumn);
+        final Trip trip = new Trip();
+        trip.setId(new AgencyAndId(agencyId, id));
+        idToTrip.put(id, trip);
+        handler.handleEntity(trip);
+      }
+    }
+    return idToTrip;
+  }
+}
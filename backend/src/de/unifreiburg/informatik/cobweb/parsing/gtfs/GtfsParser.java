@@ -76,19 +76,27 @@ public final class GtfsParser {
   /**
    * Streams the given GTFS file and notifies all given handler.
    *
-   * @param file              GTFS file to stream
-   * @param interestedHandler All handler that are interested in this file
+   * @param file                 GTFS file to stream
+   * @param interestedHandler    All handler that are interested in this file
+   * @param useLightweightReader Whether the {@link GtfsCsvReader} should be
+   *                             used instead of the onebusaway reader
    * @throws IOException If an I/O exception occurred while reading the file or
    *                     if the file is in a the wrong format
    */
-  private static void streamFile(final Path file, final Collection<IGtfsFileHandler> interestedHandler)
-      throws IOException {
-    // Ignore file
+  private static void streamFile(final Path file, final Collection<IGtfsFileHandler> interestedHandler,
+      final boolean useLightweightReader) throws IOException {
     final GtfsHandlerForwarder forwarder = new GtfsHandlerForwarder(interestedHandler);
-    final GtfsReader reader = new GtfsReader();
-    reader.setInputLocation(file.toFile());
-    reader.addEntityHandler(forwarder);
-    reader.run();
+    if (useLightweightReader) {
+      new GtfsCsvReader(file).run(forwarder);
+    } else {
+      final GtfsReader reader = new GtfsReader();
+      // Entities are streamed to the handler, the reader does not need to keep
+      // all of them
+      reader.setEntityStore(new GtfsStreamingEntityStore());
+      reader.setInputLocation(file.toFile());
+      reader.addEntityHandler(forwarder);
+      reader.run();
+    }
     forwarder.complete();
   }
 
@@ -107,6 +115,11 @@ public final class GtfsParser {
    * {@link #mDirectory} is used.
    */
   private final Collection<Path> mFiles;
+  /**
+   * Whether the {@link GtfsCsvReader} should be used instead of the onebusaway
+   * reader.
+   */
+  private final boolean mUseLightweightReader;
 
   /**
    * Creates a new GTFS parser which will parse GTFS files in the given
@@ -120,9 +133,30 @@ public final class GtfsParser {
    * @param allHandler The handler to notify when parsing entities
    */
   public GtfsParser(final Path directory, final Collection<Path> files, final Collection<IGtfsFileHandler> allHandler) {
+    this(directory, files, allHandler, false);
+  }
+
+  /**
+   * Creates a new GTFS parser which will parse GTFS files in the given
+   * directory or collection of files and notify the given handler for all
+   * parsed GTFS entities.
+   *
+   * @param directory            The directory that contains the GTFS files or
+   *                             <code>null</code> if <code>files</code> is used
+   * @param files                Collection of files that contain the GTFS files
+   *                             or <code>null</code> if <code>directory</code>
+   *                             is used
+   * @param allHandler           The handler to notify when parsing entities
+   * @param useLightweightReader Whether the {@link GtfsCsvReader} should be
+   *                             used instead of the onebusaway reader. It only
+   *                             reads the entities needed for routing.
+   */
+  public GtfsParser(final Path directory, final Collection<Path> files, final Collection<IGtfsFileHandler> allHandler,
+      final boolean useLightweightReader) {
     mDirectory = directory;
     mFiles = files;
     mAllHandler = allHandler;
+    mUseLightweightReader = useLightweightReader;
   }
 
   /**
@@ -147,7 +181,7 @@ public final class GtfsParser {
           continue;
         }
         // Parse the file and notify all interested handler
-        GtfsParser.streamFile(file, interestedHandler);
+        GtfsParser.streamFile(file, interestedHandler, mUseLightweightReader);
       }
     } catch (final IOException e) {
       throw new ParseException(e);
@@ -0,0 +1,28 @@
+package de.unifreiburg.informatik.cobweb.parsing.gtfs;
+
+import org.onebusaway.gtfs.impl.GtfsDaoImpl;
+import org.onebusaway.gtfs.model.ShapePoint;
+import org.onebusaway.gtfs.model.StopTime;
+
+/**
+ * Entity store for a GTFS reader which does not keep entities that are only
+ * streamed to handler. That are stop times and shape points, which are not
+ * referenced by other entities but make up most of the data of a feed.<br>
+ * <br>
+ * All other entities are kept, since the reader needs them to resolve
+ * references while parsing.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class GtfsStreamingEntityStore extends GtfsDaoImpl {
+  /**
+   * Saves the given entity unless it is only streamed to handler.
+   */
+  @Override
+  public void saveEntity(final Object entity) {
+    if (entity instanceof StopTime || entity instanceof ShapePoint) {
+      return;
+    }
+    super.saveEntity(entity);
+  }
+}
@@ -0,0 +1,25 @@
+package de.unifreiburg.informatik.cobweb.parsing.osm;
+
+/**
+ * Actions of an OSM change file, each applied to the entities listed in its
+ * section of the file.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public enum EOsmChangeAction {
+  /**
+   * Action representing entities that were created, known under the element
+   * <code>create</code>.
+   */
+  CREATE,
+  /**
+   * Action representing entities that were deleted, known under the element
+   * <code>delete</code>.
+   */
+  DELETE,
+  /**
+   * Action representing entities that were modified, known under the element
+   * <code>modify</code>. A modified entity is given with its full new state.
+   */
+  MODIFY
+}
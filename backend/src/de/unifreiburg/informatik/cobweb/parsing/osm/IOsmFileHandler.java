@@ -9,6 +9,18 @@ import de.unifreiburg.informatik.cobweb.parsing.IFileHandler;
  * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
  */
 public interface IOsmFileHandler extends OsmHandler, IFileHandler {
-  // The interface is currently empty and serves as combination of several
-  // interfaces
+  /**
+   * Whether or not the handler requests another pass over the current file.
+   * The method is asked after the file was completely streamed, including
+   * {@link #complete()}. The file is then streamed again only to the handler
+   * that requested it.<br>
+   * <br>
+   * The default implementation never requests another pass.
+   *
+   * @return <code>True</code> if the file should be streamed again,
+   *         <code>false</code> otherwise
+   */
+  default boolean isRequestingAnotherPass() {
+    return false;
+  }
 }
@@ -0,0 +1,103 @@
+package de.unifreiburg.informatik.cobweb.parsing.osm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import de.topobyte.osm4j.core.model.iface.OsmNode;
+import de.topobyte.osm4j.core.model.iface.OsmWay;
+
+/**
+ * The nodes and ways of an OSM change file, grouped by the action that
+ * changed them. Use {@link OsmChangeParser} to read a change file.<br>
+ * <br>
+ * Entities are kept in the order of the file. Relations are not represented
+ * since they are not used by the routing model.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class OsmChange {
+  /**
+   * The changed nodes, grouped by their action.
+   */
+  private final Map<EOsmChangeAction, List<OsmNode>> mActionToNodes;
+  /**
+   * The changed ways, grouped by their action.
+   */
+  private final Map<EOsmChangeAction, List<OsmWay>> mActionToWays;
+
+  /**
+   * Creates a new empty change.
+   */
+  public OsmChange() {
+    mActionToNodes = new EnumMap<>(EOsmChangeAction.class);
+    mActionToWays = new EnumMap<>(EOsmChangeAction.class);
+    for (final EOsmChangeAction action : EOsmChangeAction.values()) {
+      mActionToNodes.put(action, new ArrayList<>());
+      mActionToWays.put(action, new ArrayList<>());
+    }
+  }
+
+  /**
+   * Adds the given node which was changed by the given action.
+   *
+   * @param action The action that changed the node
+   * @param node   The node to add
+   */
+  public void addNode(final EOsmChangeAction action, final OsmNode node) {
+    mActionToNodes.get(action).add(node);
+  }
+
+  /**
+   * Adds the given way which was changed by the given action.
+   *
+   * @param action The action that changed the way
+   * @param way    The way to add
+   */
+  public void addWay(final EOsmChangeAction action, final OsmWay way) {
+    mActionToWays.get(action).add(way);
+  }
+
+  /**
+   * Gets the nodes that were changed by the given action.
+   *
+   * @param action The action to get nodes of
+   * @return An unmodifiable list of the nodes, in the order of the file
+   */
+  public List<OsmNode> getNodes(final EOsmChangeAction action) {
+    return Collections.unmodifiableList(mActionToNodes.get(action));
+  }
+
+  /**
+   * Gets the ways that were changed by the given action.
+   *
+   * @param action The action to get ways of
+   * @return An unmodifiable list of the ways, in the order of the file
+   */
+  public List<OsmWay> getWays(final EOsmChangeAction action) {
+    return Collections.unmodifiableList(mActionToWays.get(action));
+  }
+
+  /**
+   * Whether the change contains no nodes and no ways.
+   *
+   * @return <code>True</code> if the change is empty, <code>false</code>
+   *         otherwise
+   */
+  public boolean isEmpty() {
+    return mActionToNodes.values().stream().allMatch(List::isEmpty)
+        && mActionToWays.values().stream().allMatch(List::isEmpty);
+  }
+
+  /**
+   * Gets the total amount of nodes and ways of the change.
+   *
+   * @return The amount of entities
+   */
+  public int size() {
+    return mActionToNodes.values().stream().mapToInt(List::size).sum()
+        + mActionToWays.values().stream().mapToInt(List::size).sum();
+  }
+}
@@ -0,0 +1,201 @@
+package de.unifreiburg.informatik.cobweb.parsing.osm;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.slimjars.dist.gnu.trove.list.TLongList;
+import com.slimjars.dist.gnu.trove.list.array.TLongArrayList;
+
+import de.topobyte.osm4j.core.model.iface.OsmTag;
+import de.topobyte.osm4j.core.model.impl.Node;
+import de.topobyte.osm4j.core.model.impl.Tag;
+import de.topobyte.osm4j.core.model.impl.Way;
+import de.unifreiburg.informatik.cobweb.parsing.ParseException;
+import de.unifreiburg.informatik.cobweb.util.EFileExtension;
+import de.unifreiburg.informatik.cobweb.util.FileUtil;
+
+/**
+ * Parser for OSM change files, also known as <code>osc</code> files. A change
+ * file lists the nodes, ways and relations that were created, modified or
+ * deleted in the sections <code>create</code>, <code>modify</code> and
+ * <code>delete</code>, see {@link EOsmChangeAction}.<br>
+ * <br>
+ * The file is streamed, only the parsed nodes and ways are kept in memory.
+ * Relations and meta data of entities are skipped. Deleted nodes may omit
+ * their coordinates, they are then set to {@link Double#NaN}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class OsmChangeParser {
+  /**
+   * Parses the given OSM change file. Will correctly handle compressed files
+   * like <code>bz2</code>, <code>gz</code> or <code>xz</code> files.
+   *
+   * @param file The change file to parse
+   * @return The parsed change
+   * @throws IOException    If an I/O exception occurred while reading the file
+   * @throws ParseException If the file is not a valid change file
+   */
+  public static OsmChange parse(final Path file) throws IOException, ParseException {
+    final InputStream input;
+    if (FileUtil.getFileExtension(file) == EFileExtension.OSC) {
+      input = new BufferedInputStream(Files.newInputStream(file));
+    } else {
+      input = OsmParser.pathToStream(file);
+    }
+    if (input == null) {
+      throw new IllegalArgumentException("File type is not supported: " + file);
+    }
+    try (InputStream closeableInput = input) {
+      return OsmChangeParser.parse(closeableInput);
+    }
+  }
+
+  /**
+   * Parses an OSM change from the given input stream. The stream is not
+   * closed.
+   *
+   * @param input The input stream to parse
+   * @return The parsed change
+   * @throws ParseException If the input is not a valid change file
+   */
+  public static OsmChange parse(final InputStream input) throws ParseException {
+    final XMLInputFactory factory = XMLInputFactory.newInstance();
+    // Change files do not use document types, do not resolve them
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+    final OsmChange change = new OsmChange();
+    try {
+      final XMLStreamReader reader = factory.createXMLStreamReader(input);
+      try {
+        EOsmChangeAction action = null;
+        // State of the node or way that is currently parsed
+        long id = -1;
+        double latitude = Double.NaN;
+        double longitude = Double.NaN;
+        List<OsmTag> tags = null;
+        TLongList nodeIds = null;
+
+        while (reader.hasNext()) {
+          final int event = reader.next();
+          if (event == XMLStreamConstants.START_ELEMENT) {
+            switch (reader.getLocalName()) {
+              case "create":
+                action = EOsmChangeAction.CREATE;
+                break;
+              case "modify":
+                action = EOsmChangeAction.MODIFY;
+                break;
+              case "delete":
+                action = EOsmChangeAction.DELETE;
+                break;
+              case "node":
+                id = OsmChangeParser.parseId(reader, "id");
+                latitude = OsmChangeParser.parseCoordinate(reader, "lat");
+                longitude = OsmChangeParser.parseCoordinate(reader, "lon");
+                tags = new ArrayList<>();
+                break;
+              case "way":
+                id = OsmChangeParser.parseId(reader, "id");
+                tags = new ArrayList<>();
+                nodeIds = new TLongArrayList();
+                break;
+              case "tag":
+                // Ignore tags of relations
+                if (tags != null) {
+                  tags.add(new Tag(reader.getAttributeValue(null, "k"), reader.getAttributeValue(null, "v")));
+                }
+                break;
+              case "nd":
+                if (nodeIds != null) {
+                  nodeIds.add(OsmChangeParser.parseId(reader, "ref"));
+                }
+                break;
+              default:
+                // Ignore the element
+                break;
+            }
+          } else if (event == XMLStreamConstants.END_ELEMENT) {
+            switch (reader.getLocalName()) {
+              case "create":
+              case "modify":
+              case "delete":
+                action = null;
+                break;
+              case "node":
+                if (action != null) {
+                  change.addNode(action, new Node(id, longitude, latitude, tags));
+                }
+                tags = null;
+                break;
+              case "way":
+                if (action != null) {
+                  change.addWay(action, new Way(id, nodeIds, tags));
+                }
+                tags = null;
+                nodeIds = null;
+                break;
+              default:
+                // Ignore the element
+                break;
+            }
+          }
+        }
+      } finally {
+        reader.close();
+      }
+    } catch (final XMLStreamException | NumberFormatException e) {
+      throw new ParseException(e);
+    }
+    return change;
+  }
+
+  /**
+   * Parses the given coordinate attribute of the current element.
+   *
+   * @param reader    The reader positioned at the element
+   * @param attribute The name of the attribute
+   * @return The coordinate or {@link Double#NaN} if the element has no such
+   *         attribute
+   * @throws NumberFormatException If the attribute is no valid coordinate
+   */
+  private static double parseCoordinate(final XMLStreamReader reader, final String attribute)
+      throws NumberFormatException {
+    final String value = reader.getAttributeValue(null, attribute);
+    if (value == null) {
+      return Double.NaN;
+    }
+    return Double.parseDouble(value);
+  }
+
+  /**
+   * Parses the given ID attribute of the current element.
+   *
+   * @param reader    The reader positioned at the element
+   * @param attribute The name of the attribute
+   * @return The ID
+   * @throws NumberFormatException If the element has no such attribute or if
+   *                               it is no valid ID
+   */
+  private static long parseId(final XMLStreamReader reader, final String attribute) throws NumberFormatException {
+    return Long.parseLong(reader.getAttributeValue(null, attribute));
+  }
+
+  /**
+   * Utility class. No implementation.
+   */
+  private OsmChangeParser() {
+
+  }
+}
@@ -1,6 +1,13 @@
 package de.unifreiburg.informatik.cobweb.parsing.osm;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
 
 import de.topobyte.osm4j.core.access.OsmHandler;
 import de.topobyte.osm4j.core.model.iface.OsmBounds;
@@ -11,31 +18,150 @@ import de.topobyte.osm4j.core.model.iface.OsmWay;
 /**
  * OSM handler which forwards OSM entities to a collection of given handler.<br>
  * <br>
- * This is needed since the OSM API does not support adding multiple handlers.
+ * This is needed since the OSM API does not support adding multiple
+ * handlers.<br>
+ * <br>
+ * The forwarder pipelines the import. Entities are collected into batches
+ * which are put into a bounded queue per handler. Every handler consumes its
+ * queue on an own thread, hence reading the file and all handler run
+ * concurrently. Each handler still receives the entities in the order of the
+ * file.<br>
+ * <br>
+ * {@link #complete()} waits until all handler consumed all entities. Then it
+ * forwards the completion to the handler one after another, in the order they
+ * were given. Handler can rely on this, for example to query data that a
+ * previous handler pushed to a database in its completion. Exceptions thrown by
+ * a handler are rethrown when forwarding the next batch or the completion.<br>
+ * <br>
+ * The forwarder must be closed using {@link #close()} if reading is aborted
+ * before {@link #complete()} was called, in order to stop the threads.
  *
  * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
  */
-public final class OsmHandlerForwarder implements OsmHandler {
+public final class OsmHandlerForwarder implements OsmHandler, AutoCloseable {
+  /**
+   * The amount of entities collected into a batch before it is forwarded.
+   */
+  private static final int BATCH_SIZE = 1_000;
+  /**
+   * Batch put into the queues to indicate that no further batches follow.
+   * Compared by identity.
+   */
+  private static final Object[] END_OF_STREAM = new Object[0];
+  /**
+   * The amount of batches a queue can hold before forwarding blocks.
+   */
+  private static final int QUEUE_CAPACITY = 64;
+
+  /**
+   * Forwards the given entity to the given handler.
+   *
+   * @param handler The handler to forward to
+   * @param entity  The entity to forward, either a node, way, relation or
+   *                bounds
+   * @throws IOException If the handler threw an I/O exception
+   */
+  private static void forward(final OsmHandler handler, final Object entity) throws IOException {
+    if (entity instanceof OsmNode) {
+      handler.handle((OsmNode) entity);
+    } else if (entity instanceof OsmWay) {
+      handler.handle((OsmWay) entity);
+    } else if (entity instanceof OsmRelation) {
+      handler.handle((OsmRelation) entity);
+    } else if (entity instanceof OsmBounds) {
+      handler.handle((OsmBounds) entity);
+    }
+  }
+
   /**
    * The handler to forward OSM entities to.
    */
-  private final Iterable<? extends OsmHandler> mAllHandler;
+  private final List<OsmHandler> mAllHandler;
+  /**
+   * The batch currently collecting entities.
+   */
+  private Object[] mBatch;
+  /**
+   * The amount of entities in the current batch.
+   */
+  private int mBatchIndex;
+  /**
+   * The threads consuming the queues, aligned with {@link #mAllHandler}.
+   */
+  private final List<Thread> mConsumers;
+  /**
+   * The first exception thrown by a handler or <code>null</code> if there was
+   * none.
+   */
+  private final AtomicReference<Throwable> mFailure;
+  /**
+   * Whether or not the consumers have been stopped already.
+   */
+  private boolean mIsClosed;
+  /**
+   * The queues of batches, aligned with {@link #mAllHandler}.
+   */
+  private final List<BlockingQueue<Object[]>> mQueues;
 
   /**
    * Creates a new OSM handler which forwards all OSM entities to the given
-   * handler.
+   * handler. Starts a consumer thread for each handler.
    *
    * @param allHandler The handler to forward entities to
    */
   public OsmHandlerForwarder(final Iterable<? extends OsmHandler> allHandler) {
-    mAllHandler = allHandler;
+    mAllHandler = new ArrayList<>();
+    allHandler.forEach(mAllHandler::add);
+    mBatch = new Object[BATCH_SIZE];
+    mFailure = new AtomicReference<>();
+    mQueues = new ArrayList<>(mAllHandler.size());
+    mConsumers = new ArrayList<>(mAllHandler.size());
+
+    for (final OsmHandler handler : mAllHandler) {
+      final BlockingQueue<Object[]> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+      final Thread consumer = new Thread(() -> consume(handler, queue), "osm-handler-" + mConsumers.size());
+      consumer.setDaemon(true);
+      mQueues.add(queue);
+      mConsumers.add(consumer);
+      consumer.start();
+    }
   }
 
   /**
-   * Forwards the method to all given handler.
+   * Stops the consumer threads after they consumed all forwarded batches and
+   * waits for them. Does nothing if the forwarder was closed already.
+   *
+   * @throws InterruptedIOException If the thread was interrupted while waiting
+   */
+  @Override
+  public void close() throws InterruptedIOException {
+    if (mIsClosed) {
+      return;
+    }
+    mIsClosed = true;
+    try {
+      for (final BlockingQueue<Object[]> queue : mQueues) {
+        queue.put(END_OF_STREAM);
+      }
+      for (final Thread consumer : mConsumers) {
+        consumer.join();
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException();
+    }
+  }
+
+  /**
+   * Waits until all handler consumed all entities and then forwards the method
+   * to all given handler, one after another.
    */
   @Override
   public void complete() throws IOException {
+    publishBatch();
+    close();
+    throwFailure();
+
     for (final OsmHandler handler : mAllHandler) {
       handler.complete();
     }
@@ -46,9 +172,7 @@ public final class OsmHandlerForwarder implements OsmHandler {
    */
   @Override
   public void handle(final OsmBounds bounds) throws IOException {
-    for (final OsmHandler handler : mAllHandler) {
-      handler.handle(bounds);
-    }
+    collect(bounds);
   }
 
   /**
@@ -56,9 +180,7 @@ public final class OsmHandlerForwarder implements OsmHandler {
    */
   @Override
   public void handle(final OsmNode node) throws IOException {
-    for (final OsmHandler handler : mAllHandler) {
-      handler.handle(node);
-    }
+    collect(node);
   }
 
   /**
@@ -66,9 +188,7 @@ public final class OsmHandlerForwarder implements OsmHandler {
    */
   @Override
   public void handle(final OsmRelation relation) throws IOException {
-    for (final OsmHandler handler : mAllHandler) {
-      handler.handle(relation);
-    }
+    collect(relation);
   }
 
   /**
@@ -76,9 +196,123 @@ public final class OsmHandlerForwarder implements OsmHandler {
    */
   @Override
   public void handle(final OsmWay way) throws IOException {
-    for (final OsmHandler handler : mAllHandler) {
-      handler.handle(way);
+    collect(way);
+  }
+
+  /**
+   * Collects the given entity into the current batch. Forwards the batch if it
+   * is full.
+   *
+   * @param entity The entity to collect
+   * @throws IOException If a handler threw an exception or if the thread was
+   *                     interrupted while forwarding
+   */
+  private void collect(final Object entity) throws IOException {
+    mBatch[mBatchIndex] = entity;
+    mBatchIndex++;
+    if (mBatchIndex == mBatch.length) {
+      publishBatch();
+    }
+  }
+
+  /**
+   * Forwards the batches of the given queue to the given handler until the end
+   * of the stream is reached. After a handler failed, the remaining batches
+   * are only drained in order to not block the reading thread.
+   *
+   * @param handler The handler to forward to
+   * @param queue   The queue to consume
+   */
+  private void consume(final OsmHandler handler, final BlockingQueue<Object[]> queue) {
+    try {
+      Object[] batch = queue.take();
+      while (batch != END_OF_STREAM) {
+        if (mFailure.get() == null) {
+          for (final Object entity : batch) {
+            OsmHandlerForwarder.forward(handler, entity);
+          }
+        }
+        batch = queue.take();
+      }
+    } catch (final InterruptedException e) {
+      mFailure.compareAndSet(null, e);
+      Thread.currentThread().interrupt();
+    } catch (final Throwable e) {
+      // Also catch errors, the reading thread would otherwise wait forever
+      mFailure.compareAndSet(null, e);
+      drain(queue);
+    }
+  }
+
+  /**
+   * Takes batches from the given queue until the end of the stream is reached.
+   *
+   * @param queue The queue to drain
+   */
+  private void drain(final BlockingQueue<Object[]> queue) {
+    try {
+      while (queue.take() != END_OF_STREAM) {
+        // Discard the batch
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Forwards the current batch to all queues and starts a new batch. Does
+   * nothing if the current batch is empty.
+   *
+   * @throws IOException If a handler threw an exception or if the thread was
+   *                     interrupted while forwarding
+   */
+  private void publishBatch() throws IOException {
+    throwFailure();
+    if (mBatchIndex == 0) {
+      return;
+    }
+
+    // The batch is shared by all handler, it is not modified anymore
+    final Object[] batch;
+    if (mBatchIndex == mBatch.length) {
+      batch = mBatch;
+      mBatch = new Object[BATCH_SIZE];
+    } else {
+      batch = Arrays.copyOf(mBatch, mBatchIndex);
+    }
+    mBatchIndex = 0;
+
+    try {
+      for (final BlockingQueue<Object[]> queue : mQueues) {
+        queue.put(batch);
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException();
+    }
+  }
+
+  /**
+   * Rethrows the first exception thrown by a handler, if any.
+   *
+   * @throws IOException If a handler threw an I/O exception or a checked
+   *                     exception which is wrapped
+   */
+  private void throwFailure() throws IOException {
+    final Throwable failure = mFailure.get();
+    if (failure == null) {
+      return;
+    }
+    if (failure instanceof IOException) {
+      throw (IOException) failure;
+    }
+    if (failure instanceof RuntimeException) {
+      throw (RuntimeException) failure;
+    }
+    if (failure instanceof Error) {
+      throw (Error) failure;
     }
+    throw new IOException(failure);
   }
 
 }
@@ -27,7 +27,9 @@ import de.unifreiburg.informatik.cobweb.util.FileUtil;
 
 /**
  * Parser that is able to stream OSM files and parse OSM entities. Will notify
- * and forward all entities to all registered {@link IOsmFileHandler}.
+ * and forward all entities to all registered {@link IOsmFileHandler}. A file
+ * is streamed again to handler that request another pass, see
+ * {@link IOsmFileHandler#isRequestingAnotherPass()}.
  *
  * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
  */
@@ -42,6 +44,17 @@ public final class OsmParser {
    */
   static final String REDUCED_PREFIX = "reduced_";
 
+  /**
+   * Collects all of the given handler that request another pass over the
+   * current file.
+   *
+   * @param allHandler The handler to filter
+   * @return The handler that request another pass
+   */
+  private static List<IOsmFileHandler> collectRequestingHandler(final Collection<IOsmFileHandler> allHandler) {
+    return allHandler.stream().filter(IOsmFileHandler::isRequestingAnotherPass).collect(Collectors.toList());
+  }
+
   /**
    * Walks through the given directory or list of files and collects all OSM
    * files that should be considered for parsing. If a file is prefixed with
@@ -113,7 +126,7 @@ public final class OsmParser {
    * @return An input stream for the given OSM file
    * @throws IOException If an I/O exception occurred while opening the file
    */
-  private static InputStream pathToStream(final Path osmFile) throws IOException {
+  static InputStream pathToStream(final Path osmFile) throws IOException {
     final BufferedInputStream bufferedInput = new BufferedInputStream(Files.newInputStream(osmFile));
     final EFileExtension extension = FileUtil.getFileExtension(osmFile);
     switch (extension) {
@@ -255,6 +268,12 @@ public final class OsmParser {
         if (mStreamTwice) {
           streamFile(file, interestedHandler);
         }
+        // Stream again for handler that need further passes
+        List<IOsmFileHandler> requestingHandler = OsmParser.collectRequestingHandler(interestedHandler);
+        while (!requestingHandler.isEmpty()) {
+          streamFile(file, requestingHandler);
+          requestingHandler = OsmParser.collectRequestingHandler(requestingHandler);
+        }
       }
     } catch (IOException | OsmInputException e) {
       throw new ParseException(e);
@@ -262,7 +281,8 @@ public final class OsmParser {
   }
 
   /**
-   * Streams the given OSM file and notifies all given handler.
+   * Streams the given OSM file and notifies all given handler. Each handler is
+   * notified on an own thread, see {@link OsmHandlerForwarder}.
    *
    * @param file              OSM file to stream
    * @param interestedHandler All handler that are interested in this file
@@ -280,10 +300,12 @@ public final class OsmParser {
         }
         return;
       }
-      final OsmHandlerForwarder forwarder = new OsmHandlerForwarder(interestedHandler);
-      final OsmReader reader = new OsmXmlReader(input, mUseMetaData);
-      reader.setHandler(forwarder);
-      reader.read();
+      // The forwarder pipelines the import, reading and handling run concurrently
+      try (OsmHandlerForwarder forwarder = new OsmHandlerForwarder(interestedHandler)) {
+        final OsmReader reader = new OsmXmlReader(input, mUseMetaData);
+        reader.setHandler(forwarder);
+        reader.read();
+      }
     }
   }
 }
@@ -0,0 +1,134 @@
+package de.unifreiburg.informatik.cobweb.routing.algorithms.isochrone;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utility class which computes a concave hull of a set of coordinates around a
+ * center, like the source of an isochrone.<br>
+ * <br>
+ * The plane around the center is divided into sectors of equal angle. Each
+ * sector is bounded by the coordinate in it that is farthest away from the
+ * center. The hull follows these bounds, hence it retracts towards the center
+ * in directions with short reach, for example at lakes or along rivers,
+ * instead of spanning them like the {@link ConvexHull}. The hull is
+ * star-shaped around the center and encloses all coordinates. It is computed
+ * in <code>O(n + s)</code> for <code>n</code> coordinates and <code>s</code>
+ * sectors, without creating an object per coordinate.<br>
+ * <br>
+ * Distances are measured in an equirectangular projection around the center,
+ * which is accurate for the extent of isochrones.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class ConcaveHull {
+  /**
+   * Factor by which the bounds of the sectors are enlarged to compensate
+   * rounding when converting the vertices back to coordinates.
+   */
+  private static final double ROUNDING_TOLERANCE = 1.0 + 1.0E-6;
+
+  /**
+   * Computes a concave hull of the given coordinates around the given center.
+   * The first <code>amount</code> entries of the arrays are used.<br>
+   * <br>
+   * The vertices of the hull are given in counter-clockwise order, starting in
+   * western direction of the center, the first vertex is not repeated at the
+   * end. Consecutive duplicate vertices are only contained once. Sectors
+   * without coordinates contribute the center itself as vertex. If less than
+   * three coordinates are given, their convex hull is returned.
+   *
+   * @param latitudes       The latitudes of the coordinates
+   * @param longitudes      The longitudes of the coordinates, in the same order
+   * @param amount          The amount of coordinates to use, must not be
+   *                        greater than the length of the arrays
+   * @param centerLatitude  The latitude of the center
+   * @param centerLongitude The longitude of the center
+   * @param sectors         The amount of sectors, at least <code>3</code>.
+   *                        More sectors result in a more detailed hull.
+   * @return A list of latitude and longitude coordinates forming the vertices
+   *         of the hull. Thus, the size of the arrays is <code>2</code>.
+   */
+  public static List<float[]> compute(final float[] latitudes, final float[] longitudes, final int amount,
+      final float centerLatitude, final float centerLongitude, final int sectors) {
+    if (sectors < 3) {
+      throw new IllegalArgumentException("At least three sectors are required: " + sectors);
+    }
+    if (amount < 3) {
+      return ConvexHull.compute(latitudes, longitudes, amount);
+    }
+
+    // Shrink longitudes such that distances are comparable in all directions
+    final double longitudeScale = Math.cos(Math.toRadians(centerLatitude));
+    final double sectorAngle = 2 * Math.PI / sectors;
+    final double[] sectorToRadius = new double[sectors];
+    for (int i = 0; i < amount; i++) {
+      final double x = (longitudes[i] - (double) centerLongitude) * longitudeScale;
+      final double y = latitudes[i] - (double) centerLatitude;
+      final double radius = Math.hypot(x, y);
+      if (radius == 0.0) {
+        continue;
+      }
+      // The angle is in [-pi, pi]
+      final int sector = Math.min((int) ((Math.atan2(y, x) + Math.PI) / sectorAngle), sectors - 1);
+      sectorToRadius[sector] = Math.max(sectorToRadius[sector], radius);
+    }
+
+    // The straight bound of a sector must enclose the arc of its radius
+    final double arcScale = ROUNDING_TOLERANCE / Math.cos(sectorAngle / 2);
+    final List<float[]> hull = new ArrayList<>(2 * sectors);
+    for (int sector = 0; sector < sectors; sector++) {
+      final double radius = sectorToRadius[sector] * arcScale;
+      if (radius == 0.0) {
+        ConcaveHull.addVertex(hull, centerLatitude, centerLongitude);
+        continue;
+      }
+      for (int side = 0; side < 2; side++) {
+        final double angle = (sector + side) * sectorAngle - Math.PI;
+        final float latitude = (float) (centerLatitude + radius * Math.sin(angle));
+        final float longitude = (float) (centerLongitude + radius * Math.cos(angle) / longitudeScale);
+        ConcaveHull.addVertex(hull, latitude, longitude);
+      }
+    }
+
+    // The ring is closed implicitly
+    final int last = hull.size() - 1;
+    if (last > 0 && ConcaveHull.isSameVertex(hull.get(0), hull.get(last))) {
+      hull.remove(last);
+    }
+    return hull;
+  }
+
+  /**
+   * Adds the given vertex to the hull unless it equals the last vertex.
+   *
+   * @param hull      The vertices of the hull
+   * @param latitude  The latitude of the vertex
+   * @param longitude The longitude of the vertex
+   */
+  private static void addVertex(final List<float[]> hull, final float latitude, final float longitude) {
+    final float[] vertex = { latitude, longitude };
+    if (hull.isEmpty() || !ConcaveHull.isSameVertex(hull.get(hull.size() - 1), vertex)) {
+      hull.add(vertex);
+    }
+  }
+
+  /**
+   * Whether the given vertices have the same coordinates.
+   *
+   * @param first  The first vertex
+   * @param second The second vertex
+   * @return <code>True</code> if the vertices are equal, <code>false</code>
+   *         otherwise
+   */
+  private static boolean isSameVertex(final float[] first, final float[] second) {
+    return first[0] == second[0] && first[1] == second[1];
+  }
+
+  /**
+   * Utility class. No implementation.
+   */
+  private ConcaveHull() {
+
+  }
+}
@@ -0,0 +1,147 @@
+package de.unifreiburg.informatik.cobweb.routing.algorithms.isochrone;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Utility class which computes the convex hull of a set of coordinates.<br>
+ * <br>
+ * The coordinates are given as primitive arrays and are processed without
+ * creating an object per coordinate. The hull is computed using Andrew's
+ * monotone chain algorithm, which runs in <code>O(n log n)</code>. The
+ * coordinates are sorted by packing longitude and latitude into a single
+ * primitive <code>long</code> key.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class ConvexHull {
+  /**
+   * Mask which flips the sign bit of an integer.
+   */
+  private static final int SIGN_BIT = 0x8000_0000;
+
+  /**
+   * Computes the convex hull of the given coordinates. The first
+   * <code>amount</code> entries of the arrays are used.<br>
+   * <br>
+   * The vertices of the hull are given in counter-clockwise order, the first
+   * vertex is not repeated at the end. Duplicate coordinates are only
+   * contained once. Vertices lying on an edge of the hull are not included.
+   * If less than three distinct coordinates are given, the distinct
+   * coordinates themselves are returned.
+   *
+   * @param latitudes  The latitudes of the coordinates
+   * @param longitudes The longitudes of the coordinates, in the same order
+   * @param amount     The amount of coordinates to use, must not be greater
+   *                   than the length of the arrays
+   * @return A list of latitude and longitude coordinates forming the vertices
+   *         of the hull. Thus, the size of the arrays is <code>2</code>.
+   */
+  public static List<float[]> compute(final float[] latitudes, final float[] longitudes, final int amount) {
+    // Sort the coordinates by longitude first and latitude second
+    final long[] keys = new long[amount];
+    for (int i = 0; i < amount; i++) {
+      keys[i] = ((long) ConvexHull.toSortable(longitudes[i]) << Integer.SIZE)
+          | Integer.toUnsignedLong(ConvexHull.toSortable(latitudes[i]) ^ SIGN_BIT);
+    }
+    Arrays.sort(keys);
+
+    // Decode the keys, dropping duplicates
+    final float[] xs = new float[amount];
+    final float[] ys = new float[amount];
+    int size = 0;
+    for (int i = 0; i < amount; i++) {
+      if (i > 0 && keys[i] == keys[i - 1]) {
+        continue;
+      }
+      xs[size] = ConvexHull.fromSortable((int) (keys[i] >>> Integer.SIZE));
+      ys[size] = ConvexHull.fromSortable((int) keys[i] ^ SIGN_BIT);
+      size++;
+    }
+
+    if (size < 3) {
+      final List<float[]> hull = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        hull.add(new float[] { ys[i], xs[i] });
+      }
+      return hull;
+    }
+
+    // Build the lower and then the upper hull
+    final int[] hullIndices = new int[2 * size];
+    int hullSize = 0;
+    for (int i = 0; i < size; i++) {
+      while (hullSize >= 2 && ConvexHull.cross(xs, ys, hullIndices[hullSize - 2], hullIndices[hullSize - 1], i) <= 0) {
+        hullSize--;
+      }
+      hullIndices[hullSize] = i;
+      hullSize++;
+    }
+    final int lowerHullSize = hullSize + 1;
+    for (int i = size - 2; i >= 0; i--) {
+      while (hullSize >= lowerHullSize
+          && ConvexHull.cross(xs, ys, hullIndices[hullSize - 2], hullIndices[hullSize - 1], i) <= 0) {
+        hullSize--;
+      }
+      hullIndices[hullSize] = i;
+      hullSize++;
+    }
+
+    // The last vertex equals the first
+    final List<float[]> hull = new ArrayList<>(hullSize - 1);
+    for (int i = 0; i < hullSize - 1; i++) {
+      final int index = hullIndices[i];
+      hull.add(new float[] { ys[index], xs[index] });
+    }
+    return hull;
+  }
+
+  /**
+   * Computes the cross product of the vectors from the origin to the first and
+   * from the origin to the second point.
+   *
+   * @param xs     The x-coordinates of the points
+   * @param ys     The y-coordinates of the points
+   * @param origin The index of the origin
+   * @param first  The index of the first point
+   * @param second The index of the second point
+   * @return The cross product, positive if the points make a counter-clockwise
+   *         turn, negative if clockwise and <code>0</code> if collinear
+   */
+  private static double cross(final float[] xs, final float[] ys, final int origin, final int first,
+      final int second) {
+    return ((double) xs[first] - xs[origin]) * ((double) ys[second] - ys[origin])
+        - ((double) ys[first] - ys[origin]) * ((double) xs[second] - xs[origin]);
+  }
+
+  /**
+   * Converts the given sortable integer back to the float it was created from
+   * by {@link #toSortable(float)}.
+   *
+   * @param sortable The sortable integer to convert
+   * @return The original float
+   */
+  private static float fromSortable(final int sortable) {
+    return Float.intBitsToFloat(sortable ^ (sortable >> 31 & Integer.MAX_VALUE));
+  }
+
+  /**
+   * Converts the given float to an integer whose signed order matches the
+   * order of the floats.
+   *
+   * @param value The float to convert
+   * @return The sortable integer
+   */
+  private static int toSortable(final float value) {
+    final int bits = Float.floatToIntBits(value);
+    return bits ^ (bits >> 31 & Integer.MAX_VALUE);
+  }
+
+  /**
+   * Utility class. No implementation.
+   */
+  private ConvexHull() {
+
+  }
+}
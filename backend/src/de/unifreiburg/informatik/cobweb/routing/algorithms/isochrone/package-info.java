@@ -0,0 +1,7 @@
+/**
+ * The package contains algorithms used to compute isochrones. Like the convex
+ * or a concave hull of the nodes reachable within a travel time budget.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+package de.unifreiburg.informatik.cobweb.routing.algorithms.isochrone;
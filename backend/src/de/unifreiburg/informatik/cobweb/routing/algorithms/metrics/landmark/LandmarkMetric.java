@@ -73,6 +73,25 @@ public final class LandmarkMetric<N extends INode, E extends IEdge<N>, G extends
     initialize(amount, graph, landmarkProvider, new Dijkstra<>(graph));
   }
 
+  /**
+   * Creates a new landmark metric that uses the given landmarks, for example
+   * the landmarks of a previous metric, see {@link #getLandmarks()}.<br>
+   * <br>
+   * Due to the computation of shortest paths, the creation of this metric
+   * might take a while.
+   *
+   * @param graph     The graph to define the metric on
+   * @param landmarks The landmarks to use, must be contained in the graph
+   */
+  public LandmarkMetric(final G graph, final Collection<N> landmarks) {
+    mLandmarkToNodeDistance = new NestedDoubleMap<>(landmarks.size());
+    mNodeToLandmarkDistance = new NestedDoubleMap<>(graph.size());
+    mNodeToLandmarkDistance.setNestedInitialCapacity(landmarks.size());
+
+    mLandmarks = landmarks;
+    computeDistances(graph, new Dijkstra<>(graph));
+  }
+
   /**
    * Approximates the distance between the given two nodes by comparing shortest
    * paths from the nodes to the landmarks. The distance depends on the
@@ -107,25 +126,70 @@ public final class LandmarkMetric<N extends INode, E extends IEdge<N>, G extends
   }
 
   /**
-   * Initializes this metric. It generates landmarks using the given provider
-   * and computes shortest path distances from the landmarks to all nodes and
+   * Gets the landmarks used by this metric.
+   *
+   * @return The landmarks used by this metric, must not be modified
+   */
+  public Collection<N> getLandmarks() {
+    return mLandmarks;
+  }
+
+  /**
+   * Whether the distances of this metric are still valid after the given
+   * edges were added to the graph. Removing edges or increasing their cost
+   * does not invalidate the metric, since the distances can only grow.<br>
+   * <br>
+   * The metric is valid if, for every given edge and landmark, the distances
+   * of both nodes of the edge to and from the landmark differ by at most the
+   * cost of the edge. The metric then still estimates distances admissible and
+   * consistent, hence A-star computes shortest paths with it.
+   *
+   * @param edges The edges that were added to the graph, edges whose cost
+   *              decreased should be included too
+   * @return <code>True</code> if the metric is still valid, <code>false</code>
+   *         if it needs to be computed again
+   */
+  public boolean isValidFor(final Collection<? extends E> edges) {
+    for (final E edge : edges) {
+      final N source = edge.getSource();
+      final N destination = edge.getDestination();
+      final double cost = edge.getCost();
+      for (final N landmark : mLandmarks) {
+        final boolean isSourceKnown =
+            mNodeToLandmarkDistance.contains(source, landmark) && mLandmarkToNodeDistance.contains(landmark, source);
+        final boolean isDestinationKnown = mNodeToLandmarkDistance.contains(destination, landmark)
+            && mLandmarkToNodeDistance.contains(landmark, destination);
+        // The landmark must be used for either both or none of the nodes
+        if (isSourceKnown != isDestinationKnown) {
+          return false;
+        }
+        if (!isSourceKnown) {
+          continue;
+        }
+
+        final double sourceToLandmark = mNodeToLandmarkDistance.get(source, landmark);
+        final double destinationToLandmark = mNodeToLandmarkDistance.get(destination, landmark);
+        final double landmarkToSource = mLandmarkToNodeDistance.get(landmark, source);
+        final double landmarkToDestination = mLandmarkToNodeDistance.get(landmark, destination);
+        if (sourceToLandmark > cost + destinationToLandmark || landmarkToDestination > landmarkToSource + cost) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Computes the shortest path distances from the landmarks to all nodes and
    * vice versa.<br>
    * <br>
    * Depending on the size of the graph and the amount of landmarks this method
    * may take a while.
    *
-   * @param amount           The amount of landmarks to generate
-   * @param graph            The graph to operate on
-   * @param landmarkProvider The provider to use to generate landmarks
-   * @param computation      The algorithm to use for computing shortest paths
+   * @param graph       The graph to operate on
+   * @param computation The algorithm to use for computing shortest paths
    */
-  private void initialize(final int amount, final G graph, final ILandmarkProvider<N> landmarkProvider,
-      final IShortestPathComputation<N, E> computation) {
-    if (LOGGER.isDebugEnabled()) {
-      LOGGER.debug("Computing landmarks");
-    }
-    mLandmarks = landmarkProvider.getLandmarks(amount);
-
+  private void computeDistances(final G graph, final IShortestPathComputation<N, E> computation) {
     // Compute distances from landmarks to all other nodes
     if (LOGGER.isDebugEnabled()) {
       LOGGER.debug("Computing distances from {} landmarks to {} nodes", mLandmarks.size(), graph.size());
@@ -151,4 +215,26 @@ public final class LandmarkMetric<N extends INode, E extends IEdge<N>, G extends
     }
     graph.reverse();
   }
+
+  /**
+   * Initializes this metric. It generates landmarks using the given provider
+   * and computes shortest path distances from the landmarks to all nodes and
+   * vice versa.<br>
+   * <br>
+   * Depending on the size of the graph and the amount of landmarks this method
+   * may take a while.
+   *
+   * @param amount           The amount of landmarks to generate
+   * @param graph            The graph to operate on
+   * @param landmarkProvider The provider to use to generate landmarks
+   * @param computation      The algorithm to use for computing shortest paths
+   */
+  private void initialize(final int amount, final G graph, final ILandmarkProvider<N> landmarkProvider,
+      final IShortestPathComputation<N, E> computation) {
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Computing landmarks");
+    }
+    mLandmarks = landmarkProvider.getLandmarks(amount);
+    computeDistances(graph, computation);
+  }
 }
@@ -0,0 +1,132 @@
+package de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import de.unifreiburg.informatik.cobweb.routing.algorithms.metrics.IMetric;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ISpatial;
+
+/**
+ * Nearest neighbor computation which combines a computation over a base set of
+ * elements with a computation over elements added later on. Only elements
+ * accepted by a given filter are yielded.<br>
+ * <br>
+ * This allows to reuse a computation that does not support removing elements
+ * after the set of elements changed. Removed elements are rejected by the
+ * filter and new elements are contained in the computation of the added
+ * elements. The given computations are only queried and can be shared with
+ * other instances.<br>
+ * <br>
+ * In order to get the <code>k</code> nearest neighbors, more neighbors are
+ * requested from the computations as long as too many of them are rejected by
+ * the filter.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ * @param <E> Type of the elements which must offer spatial data
+ */
+public final class FilteredNearestNeighborComputation<E extends ISpatial> implements INearestNeighborComputation<E> {
+  /**
+   * The computation over the elements added to the base set.
+   */
+  private final INearestNeighborComputation<E> mAdded;
+  /**
+   * The computation over the base set of elements.
+   */
+  private final INearestNeighborComputation<E> mBase;
+  /**
+   * The filter which accepts all elements that should be yielded.
+   */
+  private final Predicate<E> mFilter;
+  /**
+   * The metric to use for determining distance between elements.
+   */
+  private final IMetric<E> mMetric;
+
+  /**
+   * Creates a new computation which combines the given computations.
+   *
+   * @param base   The computation over the base set of elements
+   * @param added  The computation over the elements added to the base set
+   * @param filter The filter which accepts all elements that should be
+   *               yielded, for example elements that are still contained
+   * @param metric The metric to use for determining distance between elements,
+   *               must be the metric used by the given computations
+   */
+  public FilteredNearestNeighborComputation(final INearestNeighborComputation<E> base,
+      final INearestNeighborComputation<E> added, final Predicate<E> filter, final IMetric<E> metric) {
+    mBase = base;
+    mAdded = added;
+    mFilter = filter;
+    mMetric = metric;
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.
+   * INearestNeighborComputation#getKNearestNeighbors(de.unifreiburg.informatik.
+   * cobweb.routing.model.graph.ISpatial, int)
+   */
+  @Override
+  public Collection<E> getKNearestNeighbors(final E point, final int k) {
+    if (k == 0) {
+      return Collections.emptyList();
+    }
+    return Stream.concat(getKNearestAccepted(mBase, point, k).stream(), getKNearestAccepted(mAdded, point, k).stream())
+        .sorted(Comparator.comparingDouble(element -> mMetric.distance(element, point))).limit(k)
+        .collect(Collectors.toList());
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.
+   * INearestNeighborComputation#getNearestNeighbor(de.unifreiburg.informatik.
+   * cobweb.routing.model.graph.ISpatial)
+   */
+  @Override
+  public Optional<E> getNearestNeighbor(final E point) {
+    return getKNearestNeighbors(point, 1).stream().findFirst();
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.
+   * INearestNeighborComputation#getNeighborhood(de.unifreiburg.informatik.
+   * cobweb.routing.model.graph.ISpatial, double)
+   */
+  @Override
+  public Collection<E> getNeighborhood(final E point, final double range) {
+    return Stream.concat(mBase.getNeighborhood(point, range).stream(), mAdded.getNeighborhood(point, range).stream())
+        .filter(mFilter).collect(Collectors.toList());
+  }
+
+  /**
+   * Gets the <code>k</code> neighbors nearest to the given point that are
+   * accepted by the filter. The amount of requested neighbors is doubled until
+   * enough of them are accepted or the computation has no more elements.
+   *
+   * @param computation The computation to get the neighbors from
+   * @param point       The point in question
+   * @param k           The amount of neighbors to get, must be positive
+   * @return At least <code>k</code> accepted neighbors nearest to the given
+   *         point, ascending in distance to the point, or less if there are
+   *         not more
+   */
+  private List<E> getKNearestAccepted(final INearestNeighborComputation<E> computation, final E point,
+      final int k) {
+    int amount = k;
+    while (true) {
+      final Collection<E> neighbors = computation.getKNearestNeighbors(point, amount);
+      final List<E> acceptedNeighbors = neighbors.stream().filter(mFilter).collect(Collectors.toList());
+      if (acceptedNeighbors.size() >= k || neighbors.size() < amount || amount > Integer.MAX_VALUE / 2) {
+        return acceptedNeighbors;
+      }
+      amount *= 2;
+    }
+  }
+}
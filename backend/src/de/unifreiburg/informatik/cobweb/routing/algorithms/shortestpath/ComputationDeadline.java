@@ -0,0 +1,109 @@
+package de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point in time after which a shortest path computation should be aborted.
+ * Algorithms check the deadline while computing, using {@link #checkAbort()},
+ * and stop early once it has expired, results computed until then may be
+ * incomplete. Whether a computation actually stopped early is reported by
+ * {@link #wasAborted()}.<br>
+ * <br>
+ * Use {@link #after(long, TimeUnit)} to create a deadline and {@link #none()}
+ * for computations without deadline.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class ComputationDeadline {
+  /**
+   * The deadline used for computations that should never be aborted.
+   */
+  private static final ComputationDeadline NONE = new ComputationDeadline(0L, false);
+
+  /**
+   * Creates a deadline which expires after the given amount of time from now.
+   *
+   * @param timeout The amount of time after which the deadline expires
+   * @param unit    The unit of the timeout
+   * @return The created deadline
+   */
+  public static ComputationDeadline after(final long timeout, final TimeUnit unit) {
+    return new ComputationDeadline(System.nanoTime() + unit.toNanos(timeout), true);
+  }
+
+  /**
+   * Gets a deadline which never expires.
+   *
+   * @return A deadline which never expires
+   */
+  public static ComputationDeadline none() {
+    return NONE;
+  }
+
+  /**
+   * The time the deadline expires at, in nanoseconds. Compatible with
+   * {@link System#nanoTime()}.
+   */
+  private final long mExpirationTime;
+  /**
+   * Whether the deadline can expire at all.
+   */
+  private final boolean mIsBounded;
+  /**
+   * Whether a computation was aborted because the deadline has expired.
+   */
+  private volatile boolean mWasAborted;
+
+  /**
+   * Creates a new deadline.
+   *
+   * @param expirationTime The time the deadline expires at, in nanoseconds.
+   *                       Compatible with {@link System#nanoTime()}.
+   * @param isBounded      Whether the deadline can expire at all
+   */
+  private ComputationDeadline(final long expirationTime, final boolean isBounded) {
+    mExpirationTime = expirationTime;
+    mIsBounded = isBounded;
+  }
+
+  /**
+   * Checks whether a computation should be aborted because the deadline has
+   * expired. Computations that stop early use this method instead of
+   * {@link #hasExpired()}, such that the abort is reported by
+   * {@link #wasAborted()}.
+   *
+   * @return <code>True</code> if the deadline has expired and the computation
+   *         must be aborted, <code>false</code> otherwise
+   */
+  public boolean checkAbort() {
+    if (!hasExpired()) {
+      return false;
+    }
+    mWasAborted = true;
+    return true;
+  }
+
+  /**
+   * Whether the deadline has expired, i.e. computation should be aborted.
+   *
+   * @return <code>True</code> if the deadline has expired, <code>false</code>
+   *         otherwise
+   */
+  public boolean hasExpired() {
+    // Compare the difference since nano times may overflow
+    return mIsBounded && System.nanoTime() - mExpirationTime >= 0;
+  }
+
+  /**
+   * Whether a computation bounded by this deadline was aborted because the
+   * deadline has expired, see {@link #checkAbort()}. Computations that
+   * finished in time before the deadline expired are not reported, their
+   * results are complete.
+   *
+   * @return <code>True</code> if a computation was aborted, <code>false</code>
+   *         otherwise
+   */
+  public boolean wasAborted() {
+    return mWasAborted;
+  }
+}
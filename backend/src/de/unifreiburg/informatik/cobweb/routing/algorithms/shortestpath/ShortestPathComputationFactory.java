@@ -12,9 +12,11 @@ import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.connecti
 import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.dijkstra.Dijkstra;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.dijkstra.modules.AStarModule;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.dijkstra.modules.AbortAfterModule;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.dijkstra.modules.DeadlineModule;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.dijkstra.modules.ModuleDijkstra;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.dijkstra.modules.MultiModalModule;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.dijkstra.modules.TransitModule;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.hybridmodel.AccessLegCache;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.hybridmodel.HybridRoadTimetable;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.hybridmodel.IAccessNodeComputation;
 import de.unifreiburg.informatik.cobweb.routing.model.ERoutingModelMode;
@@ -27,7 +29,7 @@ import de.unifreiburg.informatik.cobweb.routing.model.timetable.Timetable;
 /**
  * Factory that generates algorithms for shortest path computation.<br>
  * <br>
- * Call {@link #initialize()} after creation. Then use
+ * Call {@link #initialize()} or {@link #initialize(IMetric)} after creation. Then use
  * {@link #createAlgorithm()} and similar methods to create algorithms.
  *
  * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
@@ -38,6 +40,11 @@ public final class ShortestPathComputationFactory {
    * to access nodes.
    */
   private final int mAbortTravelTimeToAccessNodes;
+  /**
+   * Cache for access legs shared by all hybrid algorithms created by this
+   * factory. Or <code>null</code> if not used.
+   */
+  private final AccessLegCache mAccessLegCache;
   /**
    * Object to use for computing access nodes. Or <code>null</code> if not used.
    */
@@ -84,6 +91,9 @@ public final class ShortestPathComputationFactory {
    *                                     <code>null</code> if not used
    * @param accessNodeComputation        The access node computation to use, or
    *                                     <code>null</code> if not used.
+   * @param accessLegCache               Cache for access legs shared by all
+   *                                     hybrid algorithms, or <code>null</code>
+   *                                     if not used.
    * @param stopToNearestRoadNode        Object to use for retrieving the
    *                                     nearest road node to a given stop, or
    *                                     <code>null</code> if not used.
@@ -95,12 +105,13 @@ public final class ShortestPathComputationFactory {
    *                                     landmark heuristic
    */
   public ShortestPathComputationFactory(final IGraph<ICoreNode, ICoreEdge<ICoreNode>> graph, final Timetable table,
-      final IAccessNodeComputation<ICoreNode, ICoreNode> accessNodeComputation,
+      final IAccessNodeComputation<ICoreNode, ICoreNode> accessNodeComputation, final AccessLegCache accessLegCache,
       final INearestNeighborComputation<ICoreNode> stopToNearestRoadNode, final ERoutingModelMode mode,
       final int abortTravelTimeToAccessNodes, final int amountOfLandmarks) {
     mGraph = graph;
     mTable = table;
     mAccessNodeComputation = accessNodeComputation;
+    mAccessLegCache = accessLegCache;
     mStopToNearestRoadNode = stopToNearestRoadNode;
     mMode = mode;
     mAbortTravelTimeToAccessNodes = abortTravelTimeToAccessNodes;
@@ -132,11 +143,30 @@ public final class ShortestPathComputationFactory {
    */
   public IShortestPathComputation<ICoreNode, ICoreEdge<ICoreNode>> createAlgorithm(final long depTime,
       final Set<ETransportationMode> modes) {
+    return createAlgorithm(depTime, modes, ComputationDeadline.none());
+  }
+
+  /**
+   * Creates a shortest path algorithm which respects the given departure time
+   * and transportation mode restrictions and aborts computation once the given
+   * deadline has expired.<br>
+   * <br>
+   * Note that the resulting algorithm is not necessarily a new instance, the
+   * factory is allowed to returned cached instances.
+   *
+   * @param depTime  The departure time in milliseconds since epoch
+   * @param modes    The transportation mode restrictions
+   * @param deadline The deadline after which to abort computation, results
+   *                 computed after it expired may be incomplete
+   * @return A shortest path algorithm with the given constraints
+   */
+  public IShortestPathComputation<ICoreNode, ICoreEdge<ICoreNode>> createAlgorithm(final long depTime,
+      final Set<ETransportationMode> modes, final ComputationDeadline deadline) {
     switch (mMode) {
       case GRAPH_WITH_TIMETABLE:
-        return createAlgorithmHybridRoadTimetable(depTime, modes);
+        return createAlgorithmHybridRoadTimetable(depTime, modes, deadline);
       case LINK_GRAPH:
-        return createAlgorithmLinkGraph(depTime, modes);
+        return createAlgorithmLinkGraph(depTime, modes, deadline);
       default:
         throw new AssertionError();
     }
@@ -183,30 +213,76 @@ public final class ShortestPathComputationFactory {
 
   /**
    * Creates an instance of an algorithm for a hybrid approach connecting road
-   * and timetable models.
+   * and timetable models.<br>
+   * <br>
+   * The deadline bounds the road and the transit computation. The computation
+   * to access nodes is already bounded by a travel time and its results may be
+   * cached, it is thus not aborted.
    *
-   * @param depTime The departure time in milliseconds since epoch
-   * @param modes   The transportation mode restrictions
+   * @param depTime  The departure time in milliseconds since epoch
+   * @param modes    The transportation mode restrictions
+   * @param deadline The deadline after which to abort computation
    * @return The created algorithm
    */
-  public IShortestPathComputation<ICoreNode, ICoreEdge<ICoreNode>>
-      createAlgorithmHybridRoadTimetable(final long depTime, final Set<ETransportationMode> modes) {
-    return new HybridRoadTimetable(ModuleDijkstra.of(mGraph, AStarModule.of(mMetric), MultiModalModule.of(modes)),
+  public IShortestPathComputation<ICoreNode, ICoreEdge<ICoreNode>> createAlgorithmHybridRoadTimetable(
+      final long depTime, final Set<ETransportationMode> modes, final ComputationDeadline deadline) {
+    return new HybridRoadTimetable(
+        ModuleDijkstra.of(mGraph, AStarModule.of(mMetric), MultiModalModule.of(modes), DeadlineModule.of(deadline)),
         ModuleDijkstra.of(mGraph, AStarModule.of(mMetric), AbortAfterModule.of(mAbortTravelTimeToAccessNodes),
             MultiModalModule.of(modes)),
-        new ConnectionScan(mTable), mAccessNodeComputation, mStopToNearestRoadNode, modes, depTime);
+        new ConnectionScan(mTable, deadline), mAccessNodeComputation, mAccessLegCache, mStopToNearestRoadNode, modes,
+        depTime);
+  }
+
+  /**
+   * Creates a one-to-all algorithm for isochrones which respects the given
+   * departure time and transportation mode restrictions. It settles nodes only
+   * until the given travel time budget is exceeded, the node exceeding the
+   * budget may still be part of the result.<br>
+   * <br>
+   * For the {@link ERoutingModelMode#GRAPH_WITH_TIMETABLE} mode only the road
+   * graph is searched since the hybrid algorithm does not support one-to-all
+   * computations. Transit modes are thus not supported, see
+   * {@link #isIsochroneSupported(Set)}.
+   *
+   * @param depTime  The departure time in milliseconds since epoch
+   * @param modes    The transportation mode restrictions
+   * @param budget   The travel time budget in seconds
+   * @param deadline The deadline after which to abort computation
+   * @return The created algorithm
+   * @throws IllegalArgumentException If isochrones are not supported for the
+   *                                  given modes
+   */
+  public IShortestPathComputation<ICoreNode, ICoreEdge<ICoreNode>> createAlgorithmIsochrone(final long depTime,
+      final Set<ETransportationMode> modes, final double budget, final ComputationDeadline deadline)
+      throws IllegalArgumentException {
+    if (!isIsochroneSupported(modes)) {
+      throw new IllegalArgumentException("Isochrones are not supported for the modes: " + modes);
+    }
+    switch (mMode) {
+      case GRAPH_WITH_TIMETABLE:
+        return ModuleDijkstra.of(mGraph, MultiModalModule.of(modes), AbortAfterModule.of(budget),
+            DeadlineModule.of(deadline));
+      case LINK_GRAPH:
+        return ModuleDijkstra.of(mGraph, TransitModule.of(depTime), MultiModalModule.of(modes),
+            AbortAfterModule.of(budget), DeadlineModule.of(deadline));
+      default:
+        throw new AssertionError();
+    }
   }
 
   /**
    * Creates an instance of an algorithm for a link graph.
    *
-   * @param depTime The departure time in milliseconds since epoch
-   * @param modes   The transportation mode restrictions
+   * @param depTime  The departure time in milliseconds since epoch
+   * @param modes    The transportation mode restrictions
+   * @param deadline The deadline after which to abort computation
    * @return The created algorithm
    */
   public IShortestPathComputation<ICoreNode, ICoreEdge<ICoreNode>> createAlgorithmLinkGraph(final long depTime,
-      final Set<ETransportationMode> modes) {
-    return ModuleDijkstra.of(mGraph, AStarModule.of(mMetric), TransitModule.of(depTime), MultiModalModule.of(modes));
+      final Set<ETransportationMode> modes, final ComputationDeadline deadline) {
+    return ModuleDijkstra.of(mGraph, AStarModule.of(mMetric), TransitModule.of(depTime), MultiModalModule.of(modes),
+        DeadlineModule.of(deadline));
   }
 
   /**
@@ -219,6 +295,16 @@ public final class ShortestPathComputationFactory {
     return ModuleDijkstra.of(mGraph, AStarModule.of(mMetric), TransitModule.of(depTime));
   }
 
+  /**
+   * Gets the cache for access legs used by this factory.
+   *
+   * @return The cache for access legs used by this factory, or <code>null</code>
+   *         if not used
+   */
+  public AccessLegCache getAccessLegCache() {
+    return mAccessLegCache;
+  }
+
   /**
    * Gets the access node computation used by this factory.
    *
@@ -245,7 +331,49 @@ public final class ShortestPathComputationFactory {
    */
   public void initialize() {
     final ILandmarkProvider<ICoreNode> landmarkProvider = new RandomLandmarks<>(mGraph);
-    mMetric = new LandmarkMetric<>(mAmountOfLandmarks, mGraph, landmarkProvider);
+    initialize(new LandmarkMetric<>(mAmountOfLandmarks, mGraph, landmarkProvider));
+  }
+
+  /**
+   * Initializes the factory using the given metric for the {@link AStarModule}
+   * module instead of computing landmarks. For example to reuse the landmark
+   * metric of a previous factory. Must be used prior to usage, alternatively
+   * to {@link #initialize()}.
+   *
+   * @param metric The metric to use, it must estimate distances admissible and
+   *               consistent for the graph of this factory
+   */
+  public void initialize(final IMetric<ICoreNode> metric) {
+    mMetric = metric;
     mBaseComputation = ModuleDijkstra.of(mGraph, AStarModule.of(mMetric));
   }
+
+  /**
+   * Whether isochrones can be computed for the given transportation mode
+   * restrictions, see
+   * {@link #createAlgorithmIsochrone(long, Set, double, ComputationDeadline)}.
+   * In the {@link ERoutingModelMode#GRAPH_WITH_TIMETABLE} mode transit is not
+   * supported.
+   *
+   * @param modes The transportation mode restrictions
+   * @return <code>True</code> if isochrones are supported, <code>false</code>
+   *         otherwise
+   */
+  public boolean isIsochroneSupported(final Set<ETransportationMode> modes) {
+    return mMode != ERoutingModelMode.GRAPH_WITH_TIMETABLE || !modes.contains(ETransportationMode.TRAM);
+  }
+
+  /**
+   * Whether the algorithms created by
+   * {@link #createAlgorithm(long, Set, ComputationDeadline)} support computing
+   * the costs to all reachable nodes, i.e.
+   * {@link IShortestPathComputation#computeShortestPathCostsReachable(java.util.Collection)}.
+   * Otherwise only single shortest paths can be computed.
+   *
+   * @return <code>True</code> if one-to-all computations are supported,
+   *         <code>false</code> otherwise
+   */
+  public boolean isOneToAllSupported() {
+    return mMode != ERoutingModelMode.GRAPH_WITH_TIMETABLE;
+  }
 }
@@ -20,6 +20,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.AShortestPathComputation;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.ComputationDeadline;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.EdgePath;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.IHasPathCost;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.PathCost;
@@ -47,10 +48,18 @@ import de.unifreiburg.informatik.cobweb.routing.model.timetable.Trip;
  * and Wagner D. - 2017 -
  * <a href="https://arxiv.org/abs/1703.05997">arxiv.org/abs/1703.05997</a></li>
  * </ul>
+ * <br>
+ * The scan can be bounded by a {@link ComputationDeadline}. Once it has
+ * expired, the scan stops and the results may be incomplete.
  *
  * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
  */
 public final class ConnectionScan extends AShortestPathComputation<ICoreNode, ICoreEdge<ICoreNode>> {
+  /**
+   * Bit mask selecting the connections after which the deadline is checked,
+   * i.e. it is checked every <code>1024</code> connections.
+   */
+  private static final int DEADLINE_CHECK_MASK = 1_024 - 1;
   /**
    * Logger used for logging.
    */
@@ -133,6 +142,10 @@ public final class ConnectionScan extends AShortestPathComputation<ICoreNode, IC
     return time;
   }
 
+  /**
+   * The deadline after which to abort the scan.
+   */
+  private final ComputationDeadline mDeadline;
   /**
    * The timetable data to route on.
    */
@@ -144,7 +157,19 @@ public final class ConnectionScan extends AShortestPathComputation<ICoreNode, IC
    * @param table The timetable data to route on
    */
   public ConnectionScan(final Timetable table) {
+    this(table, ComputationDeadline.none());
+  }
+
+  /**
+   * Creates a new connection scan algorithm which aborts once the given
+   * deadline has expired.
+   *
+   * @param table    The timetable data to route on
+   * @param deadline The deadline after which to abort the scan
+   */
+  public ConnectionScan(final Timetable table, final ComputationDeadline deadline) {
     mTable = table;
+    mDeadline = deadline;
   }
 
   @Override
@@ -351,7 +376,15 @@ public final class ConnectionScan extends AShortestPathComputation<ICoreNode, IC
     // Process all connections ordered starting from the first after the
     // starting time
     final Iterator<Connection> connections = mTable.getConnectionsStartingSince(startingTime);
+    int amountOfScanned = 0;
     while (connections.hasNext()) {
+      // Abort if the deadline has expired, checking the clock is too
+      // expensive to do it for every connection
+      amountOfScanned++;
+      if ((amountOfScanned & DEADLINE_CHECK_MASK) == 0 && mDeadline.checkAbort()) {
+        break;
+      }
+
       final Connection connection = connections.next();
       final int depTime = ConnectionScan.validateTimeBeforeAfter(connection.getDepTime(), startingTime);
       final int depStopId = connection.getDepStopId();
@@ -0,0 +1,54 @@
+package de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.dijkstra.modules;
+
+import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.ComputationDeadline;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.dijkstra.TentativeDistance;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.IEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.INode;
+
+/**
+ * Module for a {@link ModuleDijkstra} that aborts computation of the shortest
+ * path once a given deadline has expired.<br>
+ * <br>
+ * The factory method {@link #of(ComputationDeadline)} can be used for
+ * convenient instance creation.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ * @param <N> Type of the nodes
+ * @param <E> Type of the edges
+ */
+public final class DeadlineModule<N extends INode, E extends IEdge<N>> implements IModule<N, E> {
+
+  /**
+   * Creates an module which aborts computation once the given deadline has
+   * expired.
+   *
+   * @param          <N> Type of the nodes
+   * @param          <E> Type of the edges
+   * @param deadline The deadline after which to abort
+   * @return The created module
+   */
+  public static <N extends INode, E extends IEdge<N>> DeadlineModule<N, E> of(final ComputationDeadline deadline) {
+    return new DeadlineModule<>(deadline);
+  }
+
+  /**
+   * The deadline after which to abort.
+   */
+  private final ComputationDeadline mDeadline;
+
+  /**
+   * Creates an module which aborts computation once the given deadline has
+   * expired.
+   *
+   * @param deadline The deadline after which to abort
+   */
+  public DeadlineModule(final ComputationDeadline deadline) {
+    mDeadline = deadline;
+  }
+
+  @Override
+  public boolean shouldAbort(final TentativeDistance<N, E> tentativeDistance) {
+    return mDeadline.checkAbort();
+  }
+
+}
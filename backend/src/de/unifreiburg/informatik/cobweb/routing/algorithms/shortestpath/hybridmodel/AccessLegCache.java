@@ -0,0 +1,310 @@
+package de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.hybridmodel;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntPredicate;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.IPath;
+
+/**
+ * Bounded cache for access legs of the {@link HybridRoadTimetable} algorithm,
+ * shared by all queries. An access leg is the shortest road path between a
+ * road node and one of its access nodes.<br>
+ * <br>
+ * Entries are keyed by the road node, the allowed transportation modes and
+ * whether the node is a source or a destination, see
+ * {@link #createKey(ICoreNode, Set, boolean)}. The access legs of an entry map
+ * the reachable access nodes to the path from or to them.<br>
+ * <br>
+ * The cache is safe to use by multiple threads. Reads do not block. If the
+ * cache exceeds its capacity the oldest entries are evicted first. Entries
+ * older than the time to live are treated as absent. The cache records hits
+ * and misses, see {@link #getHitRate()}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class AccessLegCache {
+  /**
+   * The amount of lookups after which the statistics of the cache are logged.
+   */
+  private static final int LOG_INTERVAL = 10_000;
+  /**
+   * Logger to use for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(AccessLegCache.class);
+
+  /**
+   * Creates the key used to identify the access legs of the given node.
+   *
+   * @param node     The road node the access legs belong to
+   * @param modes    The allowed transportation modes
+   * @param isSource Whether the node is a source, i.e. the legs lead to the
+   *                 access nodes, or a destination, i.e. the legs lead from the
+   *                 access nodes to the node
+   * @return The key of the access legs
+   */
+  public static long createKey(final ICoreNode node, final Set<ETransportationMode> modes, final boolean isSource) {
+    int modeMask = 0;
+    for (final ETransportationMode mode : modes) {
+      modeMask |= 1 << mode.ordinal();
+    }
+    final int directionBit;
+    if (isSource) {
+      directionBit = 1;
+    } else {
+      directionBit = 0;
+    }
+    return (long) node.getId() << Integer.SIZE | (long) modeMask << 1 | directionBit;
+  }
+
+  /**
+   * The maximal amount of entries in the cache.
+   */
+  private final int mCapacity;
+  /**
+   * The clock used to determine the age of entries, in milliseconds.
+   */
+  private final LongSupplier mClock;
+  /**
+   * The amount of evicted entries.
+   */
+  private final LongAdder mEvictions;
+  /**
+   * The amount of lookups that found a valid entry.
+   */
+  private final LongAdder mHits;
+  /**
+   * The keys of all entries in the order they were inserted, used for
+   * eviction.
+   */
+  private final Queue<Long> mInsertionOrder;
+  /**
+   * Map connecting keys to their cached entries.
+   */
+  private final Map<Long, CacheEntry> mKeyToEntry;
+  /**
+   * The amount of lookups that did not find a valid entry.
+   */
+  private final LongAdder mMisses;
+  /**
+   * The time in milliseconds after which entries expire.
+   */
+  private final long mTimeToLive;
+
+  /**
+   * Creates a new empty cache.
+   *
+   * @param capacity   The maximal amount of entries in the cache, must be
+   *                   positive
+   * @param timeToLive The time in milliseconds after which entries expire
+   */
+  public AccessLegCache(final int capacity, final long timeToLive) {
+    this(capacity, timeToLive, System::currentTimeMillis);
+  }
+
+  /**
+   * Creates a new empty cache which uses the given clock.
+   *
+   * @param capacity   The maximal amount of entries in the cache, must be
+   *                   positive
+   * @param timeToLive The time in milliseconds after which entries expire
+   * @param clock      The clock used to determine the age of entries, in
+   *                   milliseconds
+   */
+  AccessLegCache(final int capacity, final long timeToLive, final LongSupplier clock) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+    }
+    mCapacity = capacity;
+    mTimeToLive = timeToLive;
+    mClock = clock;
+    mKeyToEntry = new ConcurrentHashMap<>(capacity);
+    mInsertionOrder = new ConcurrentLinkedQueue<>();
+    mHits = new LongAdder();
+    mMisses = new LongAdder();
+    mEvictions = new LongAdder();
+  }
+
+  /**
+   * Creates a copy of this cache which only contains the entries of the road
+   * nodes accepted by the given filter. The copied entries keep their age, the
+   * statistics of the copy start empty. Entries added to this cache afterwards
+   * are not contained in the copy.<br>
+   * <br>
+   * Used to keep the access legs that are still valid after the road graph
+   * changed, while requests on the previous graph still use this cache.
+   *
+   * @param isNodeKept Filter that accepts the IDs of the road nodes whose
+   *                   entries to keep
+   * @return The copy of this cache
+   */
+  public AccessLegCache copy(final IntPredicate isNodeKept) {
+    final AccessLegCache copy = new AccessLegCache(mCapacity, mTimeToLive, mClock);
+    for (final Long key : mInsertionOrder) {
+      final CacheEntry entry = mKeyToEntry.get(key);
+      // The upper half of the key is the node ID, see createKey
+      if (entry != null && isNodeKept.test((int) (key >>> Integer.SIZE))) {
+        copy.mKeyToEntry.put(key, entry);
+        copy.mInsertionOrder.add(key);
+      }
+    }
+    return copy;
+  }
+
+  /**
+   * Gets the access legs stored for the given key.
+   *
+   * @param key The key of the access legs, as created by
+   *            {@link #createKey(ICoreNode, Set, boolean)}
+   * @return Map connecting the access nodes to their legs or <code>null</code>
+   *         if no valid entry is present. The map must not be modified.
+   */
+  public Map<ICoreNode, IPath<ICoreNode, ICoreEdge<ICoreNode>>> get(final long key) {
+    final CacheEntry entry = mKeyToEntry.get(key);
+    final Map<ICoreNode, IPath<ICoreNode, ICoreEdge<ICoreNode>>> legs;
+    if (entry == null || mClock.getAsLong() - entry.mCreationTime > mTimeToLive) {
+      // Expired entries are kept until they are replaced or evicted
+      mMisses.increment();
+      legs = null;
+    } else {
+      mHits.increment();
+      legs = entry.mLegs;
+    }
+
+    if (LOGGER.isDebugEnabled()) {
+      final long lookups = getLookups();
+      if (lookups % LOG_INTERVAL == 0) {
+        LOGGER.debug("Access leg cache: {} entries, {} lookups, hit rate {}, {} evictions", size(), lookups,
+            getHitRate(), getEvictions());
+      }
+    }
+    return legs;
+  }
+
+  /**
+   * Gets the amount of entries that were evicted because the cache exceeded
+   * its capacity.
+   *
+   * @return The amount of evicted entries
+   */
+  public long getEvictions() {
+    return mEvictions.sum();
+  }
+
+  /**
+   * Gets the amount of lookups that found a valid entry.
+   *
+   * @return The amount of hits
+   */
+  public long getHits() {
+    return mHits.sum();
+  }
+
+  /**
+   * Gets the ratio of lookups that found a valid entry.
+   *
+   * @return The hit rate, between <code>0.0</code> and <code>1.0</code>.
+   *         <code>0.0</code> if there were no lookups yet.
+   */
+  public double getHitRate() {
+    final long lookups = getLookups();
+    if (lookups == 0) {
+      return 0.0;
+    }
+    return (double) getHits() / lookups;
+  }
+
+  /**
+   * Gets the amount of lookups that did not find a valid entry.
+   *
+   * @return The amount of misses
+   */
+  public long getMisses() {
+    return mMisses.sum();
+  }
+
+  /**
+   * Stores the given access legs for the given key, replacing a previous
+   * entry. Evicts the oldest entries if the cache exceeds its capacity.
+   *
+   * @param key  The key of the access legs, as created by
+   *             {@link #createKey(ICoreNode, Set, boolean)}
+   * @param legs Map connecting the access nodes to their legs. The map must
+   *             not be modified afterwards.
+   */
+  public void put(final long key, final Map<ICoreNode, IPath<ICoreNode, ICoreEdge<ICoreNode>>> legs) {
+    final CacheEntry previous = mKeyToEntry.put(key, new CacheEntry(legs, mClock.getAsLong()));
+    if (previous != null) {
+      // The key is already queued for eviction
+      return;
+    }
+    mInsertionOrder.add(key);
+
+    while (mKeyToEntry.size() > mCapacity) {
+      final Long oldestKey = mInsertionOrder.poll();
+      if (oldestKey == null) {
+        break;
+      }
+      mKeyToEntry.remove(oldestKey);
+      mEvictions.increment();
+    }
+  }
+
+  /**
+   * Gets the amount of entries in the cache, including expired entries that
+   * were not replaced or evicted yet.
+   *
+   * @return The amount of entries
+   */
+  public int size() {
+    return mKeyToEntry.size();
+  }
+
+  /**
+   * Gets the total amount of lookups.
+   *
+   * @return The amount of lookups
+   */
+  private long getLookups() {
+    return mHits.sum() + mMisses.sum();
+  }
+
+  /**
+   * Entry of the cache, consisting of the access legs and the time they were
+   * stored.
+   *
+   * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+   */
+  private static final class CacheEntry {
+    /**
+     * The time the entry was created, in milliseconds.
+     */
+    private final long mCreationTime;
+    /**
+     * Map connecting the access nodes to their legs.
+     */
+    private final Map<ICoreNode, IPath<ICoreNode, ICoreEdge<ICoreNode>>> mLegs;
+
+    /**
+     * Creates a new entry.
+     *
+     * @param legs         Map connecting the access nodes to their legs
+     * @param creationTime The time the entry was created, in milliseconds
+     */
+    CacheEntry(final Map<ICoreNode, IPath<ICoreNode, ICoreEdge<ICoreNode>>> legs, final long creationTime) {
+      mLegs = legs;
+      mCreationTime = creationTime;
+    }
+  }
+}
@@ -4,14 +4,12 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 import de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.INearestNeighborComputation;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.AShortestPathComputation;
@@ -35,7 +33,11 @@ import de.unifreiburg.informatik.cobweb.util.collections.NestedMap;
  * network. It then computes shortest paths from the sources and destinations to
  * their corresponding access nodes using the road algorithm and then from all
  * source to destination access nodes using the transit algorithm. Afterwards it
- * combines the shortest paths and computes the shortest of them.
+ * combines the shortest paths and computes the shortest of them.<br>
+ * <br>
+ * The paths between sources or destinations and their access nodes only
+ * depend on the node and the transportation modes. If an
+ * {@link AccessLegCache} is given, they are shared between queries.
  *
  * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
  */
@@ -56,10 +58,19 @@ public final class HybridRoadTimetable extends AShortestPathComputation<ICoreNod
    * Object used to compute access nodes.
    */
   private final IAccessNodeComputation<ICoreNode, ICoreNode> mAccessNodeComputation;
+  /**
+   * Cache for paths between nodes and their access nodes, or <code>null</code>
+   * if not used.
+   */
+  private final AccessLegCache mAccessLegCache;
   /**
    * Departure time to start routing at, in seconds since midnight.
    */
   private final long mDepTime;
+  /**
+   * The allowed transportation modes.
+   */
+  private final Set<ETransportationMode> mModes;
   /**
    * The algorithm to compute shortest paths on road data, used as fallback if
    * no hybrid route was found
@@ -98,6 +109,9 @@ public final class HybridRoadTimetable extends AShortestPathComputation<ICoreNod
    * @param transitComputation           The algorithm to compute shortest paths
    *                                     on transit data
    * @param accessNodeComputation        Object used to compute access nodes
+   * @param accessLegCache               Cache for paths between nodes and
+   *                                     their access nodes, or
+   *                                     <code>null</code> if not used
    * @param stopToNearestRoadNode        Object to use for retrieving the
    *                                     nearest road node to a given stop
    * @param modes                        The allowed transportation modes
@@ -107,14 +121,16 @@ public final class HybridRoadTimetable extends AShortestPathComputation<ICoreNod
   public HybridRoadTimetable(final IShortestPathComputation<ICoreNode, ICoreEdge<ICoreNode>> roadComputationFallback,
       final IShortestPathComputation<ICoreNode, ICoreEdge<ICoreNode>> roadComputationToAccessNodes,
       final IShortestPathComputation<ICoreNode, ICoreEdge<ICoreNode>> transitComputation,
-      final IAccessNodeComputation<ICoreNode, ICoreNode> accessNodeComputation,
+      final IAccessNodeComputation<ICoreNode, ICoreNode> accessNodeComputation, final AccessLegCache accessLegCache,
       final INearestNeighborComputation<ICoreNode> stopToNearestRoadNode, final Set<ETransportationMode> modes,
       final long depTime) {
     mRoadComputationFallback = roadComputationFallback;
     mRoadComputationToAccessNodes = roadComputationToAccessNodes;
     mTransitComputation = transitComputation;
     mAccessNodeComputation = accessNodeComputation;
+    mAccessLegCache = accessLegCache;
     mStopToNearestRoadNode = stopToNearestRoadNode;
+    mModes = modes;
     mUseRoadOnly = !modes.contains(ETransportationMode.TRAM);
     mDepTime = depTime;
   }
@@ -133,57 +149,31 @@ public final class HybridRoadTimetable extends AShortestPathComputation<ICoreNod
       return roadOnlyPath;
     }
 
-    final Map<ICoreNode, Collection<ICoreNode>> sourceToAccessNodes =
-        sources.stream().collect(Collectors.toMap(Function.identity(), mAccessNodeComputation::computeAccessNodes));
-    final Collection<ICoreNode> destinationAccessNodes = mAccessNodeComputation.computeAccessNodes(destination);
-
-    final Map<ICoreNode, IPath<ICoreNode, ICoreEdge<ICoreNode>>> shortestPathToSourceAccess = new HashMap<>();
-    final Map<ICoreNode, IPath<ICoreNode, ICoreEdge<ICoreNode>>> destinationAccessPaths = new HashMap<>();
-    final Set<ICoreNode> reachableSourceAccessNodes = new HashSet<>();
-    final Set<ICoreNode> reachableDestinationAccessNodes = new HashSet<>();
-
     // Paths from source to access nodes
-    for (final Entry<ICoreNode, Collection<ICoreNode>> sourceWithAccessNodes : sourceToAccessNodes.entrySet()) {
-      final ICoreNode source = sourceWithAccessNodes.getKey();
-      for (final ICoreNode accessNode : sourceWithAccessNodes.getValue()) {
-        final Optional<ICoreNode> roadRepresentative = mStopToNearestRoadNode.getNearestNeighbor(accessNode);
-        if (!roadRepresentative.isPresent()) {
-          continue;
-        }
-        final Optional<IPath<ICoreNode, ICoreEdge<ICoreNode>>> path =
-            mRoadComputationToAccessNodes.computeShortestPath(source, roadRepresentative.get());
-        if (!path.isPresent()) {
-          continue;
-        }
-
-        reachableSourceAccessNodes.add(accessNode);
+    final Map<ICoreNode, IPath<ICoreNode, ICoreEdge<ICoreNode>>> shortestPathToSourceAccess = new HashMap<>();
+    for (final ICoreNode source : sources) {
+      final Map<ICoreNode, IPath<ICoreNode, ICoreEdge<ICoreNode>>> sourceAccessPaths = getAccessLegs(source, true);
+      for (final Entry<ICoreNode, IPath<ICoreNode, ICoreEdge<ICoreNode>>> accessWithPath : sourceAccessPaths
+          .entrySet()) {
+        final ICoreNode accessNode = accessWithPath.getKey();
+        final IPath<ICoreNode, ICoreEdge<ICoreNode>> path = accessWithPath.getValue();
         final IPath<ICoreNode, ICoreEdge<ICoreNode>> currentShortestPathToAccess =
             shortestPathToSourceAccess.get(accessNode);
-        if (currentShortestPathToAccess == null
-            || path.get().getTotalCost() < currentShortestPathToAccess.getTotalCost()) {
-          shortestPathToSourceAccess.put(accessNode, path.get());
+        if (currentShortestPathToAccess == null || path.getTotalCost() < currentShortestPathToAccess.getTotalCost()) {
+          shortestPathToSourceAccess.put(accessNode, path);
         }
       }
     }
+    final Set<ICoreNode> reachableSourceAccessNodes = shortestPathToSourceAccess.keySet();
 
     if (reachableSourceAccessNodes.isEmpty()) {
       return roadOnlyPath;
     }
 
     // Paths from destination access nodes to destination
-    for (final ICoreNode destinationAccess : destinationAccessNodes) {
-      final Optional<ICoreNode> roadRepresentative = mStopToNearestRoadNode.getNearestNeighbor(destinationAccess);
-      if (!roadRepresentative.isPresent()) {
-        continue;
-      }
-      final Optional<IPath<ICoreNode, ICoreEdge<ICoreNode>>> path =
-          mRoadComputationToAccessNodes.computeShortestPath(roadRepresentative.get(), destination);
-      if (!path.isPresent()) {
-        continue;
-      }
-      reachableDestinationAccessNodes.add(destinationAccess);
-      destinationAccessPaths.put(destinationAccess, path.get());
-    }
+    final Map<ICoreNode, IPath<ICoreNode, ICoreEdge<ICoreNode>>> destinationAccessPaths =
+        getAccessLegs(destination, false);
+    final Set<ICoreNode> reachableDestinationAccessNodes = destinationAccessPaths.keySet();
 
     if (reachableDestinationAccessNodes.isEmpty()) {
       return roadOnlyPath;
@@ -249,4 +239,51 @@ public final class HybridRoadTimetable extends AShortestPathComputation<ICoreNod
     throw new UnsupportedOperationException();
   }
 
+  /**
+   * Computes the paths between the given node and all of its reachable access
+   * nodes. Consults the access leg cache first, if present.
+   *
+   * @param node     The road node to compute access legs for
+   * @param isSource Whether the node is a source, then the paths lead from the
+   *                 node to the access nodes. Otherwise they lead from the
+   *                 access nodes to the node.
+   * @return Map connecting all reachable access nodes to the corresponding
+   *         path, must not be modified
+   */
+  private Map<ICoreNode, IPath<ICoreNode, ICoreEdge<ICoreNode>>> getAccessLegs(final ICoreNode node,
+      final boolean isSource) {
+    long key = 0;
+    if (mAccessLegCache != null) {
+      key = AccessLegCache.createKey(node, mModes, isSource);
+      final Map<ICoreNode, IPath<ICoreNode, ICoreEdge<ICoreNode>>> cachedLegs = mAccessLegCache.get(key);
+      if (cachedLegs != null) {
+        return cachedLegs;
+      }
+    }
+
+    final Map<ICoreNode, IPath<ICoreNode, ICoreEdge<ICoreNode>>> accessToPath = new HashMap<>();
+    for (final ICoreNode accessNode : mAccessNodeComputation.computeAccessNodes(node)) {
+      final Optional<ICoreNode> roadRepresentative = mStopToNearestRoadNode.getNearestNeighbor(accessNode);
+      if (!roadRepresentative.isPresent()) {
+        continue;
+      }
+      final Optional<IPath<ICoreNode, ICoreEdge<ICoreNode>>> path;
+      if (isSource) {
+        path = mRoadComputationToAccessNodes.computeShortestPath(node, roadRepresentative.get());
+      } else {
+        path = mRoadComputationToAccessNodes.computeShortestPath(roadRepresentative.get(), node);
+      }
+      if (!path.isPresent()) {
+        continue;
+      }
+      accessToPath.put(accessNode, path.get());
+    }
+
+    final Map<ICoreNode, IPath<ICoreNode, ICoreEdge<ICoreNode>>> legs = Collections.unmodifiableMap(accessToPath);
+    if (mAccessLegCache != null) {
+      mAccessLegCache.put(key, legs);
+    }
+    return legs;
+  }
+
 }
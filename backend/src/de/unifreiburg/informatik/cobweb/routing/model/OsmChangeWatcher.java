@@ -0,0 +1,169 @@
+package de.unifreiburg.informatik.cobweb.routing.model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.unifreiburg.informatik.cobweb.parsing.osm.OsmChange;
+import de.unifreiburg.informatik.cobweb.parsing.osm.OsmChangeParser;
+
+/**
+ * Watches a directory for OSM change files and applies them to a routing
+ * model, see {@link RoutingModel#applyOsmChange(OsmChange)}.<br>
+ * <br>
+ * The directory is checked periodically after {@link #start()} was called.
+ * New files are applied in the order of their names, hence change files should
+ * be named such that older changes come first, like the sequence numbers of
+ * OSM replication diffs.<br>
+ * <br>
+ * Once handled, a file is moved into the sub-directory {@value #APPLIED_DIRECTORY}
+ * of the watched directory, or into {@value #FAILED_DIRECTORY} if it could not
+ * be applied. Hence every file is applied only once, also over restarts. Since
+ * the model is built from the OSM data on the next start, changes that should
+ * be kept have to be merged into the OSM data or their files moved back into
+ * the watched directory.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class OsmChangeWatcher implements Runnable {
+  /**
+   * Name of the sub-directory into which applied change files are moved.
+   */
+  public static final String APPLIED_DIRECTORY = "applied";
+  /**
+   * Name of the sub-directory into which change files that could not be
+   * applied are moved.
+   */
+  public static final String FAILED_DIRECTORY = "failed";
+  /**
+   * Logger used for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(OsmChangeWatcher.class);
+
+  /**
+   * The directory to watch.
+   */
+  private final Path mDirectory;
+  /**
+   * The executor which periodically checks the directory or <code>null</code>
+   * if the watcher was not started yet.
+   */
+  private ScheduledExecutorService mExecutor;
+  /**
+   * The model to apply changes to.
+   */
+  private final RoutingModel mModel;
+  /**
+   * The interval in seconds in which the directory is checked.
+   */
+  private final int mPollInterval;
+  /**
+   * The change files that were handled already but could not be moved out of
+   * the directory.
+   */
+  private final Set<Path> mUnmovableFiles;
+
+  /**
+   * Creates a new watcher which applies the change files of the given
+   * directory to the given model. Use {@link #start()} to start watching.
+   *
+   * @param model        The model to apply changes to
+   * @param directory    The directory to watch, it does not need to exist
+   * @param pollInterval The interval in seconds in which the directory is
+   *                     checked, must be positive
+   */
+  public OsmChangeWatcher(final RoutingModel model, final Path directory, final int pollInterval) {
+    mModel = model;
+    mDirectory = directory;
+    mPollInterval = pollInterval;
+    mUnmovableFiles = new HashSet<>();
+  }
+
+  /**
+   * Applies all files of the directory in the order of their names and moves
+   * them out of the directory.
+   */
+  @Override
+  public void run() {
+    if (!Files.isDirectory(mDirectory)) {
+      return;
+    }
+    final List<Path> newFiles;
+    try (Stream<Path> files = Files.list(mDirectory)) {
+      newFiles = files.filter(Files::isRegularFile).filter(file -> !mUnmovableFiles.contains(file)).sorted()
+          .collect(Collectors.toList());
+    } catch (final IOException e) {
+      LOGGER.error("Error while checking OSM change directory {}", mDirectory, e);
+      return;
+    }
+
+    for (final Path file : newFiles) {
+      LOGGER.info("Applying OSM change file {}", file);
+      String target = APPLIED_DIRECTORY;
+      try {
+        mModel.applyOsmChange(OsmChangeParser.parse(file));
+      } catch (final Exception e) {
+        // Log every exception and try to stay alive, the executor would stop
+        // running the watcher otherwise
+        LOGGER.error("Error while applying OSM change file {}", file, e);
+        target = FAILED_DIRECTORY;
+      }
+      // Do not try a file again, even if it fails
+      moveFile(file, mDirectory.resolve(target));
+    }
+  }
+
+  /**
+   * Stops watching the directory. Does not wait for a change that is currently
+   * applied.
+   */
+  public void shutdown() {
+    if (mExecutor != null) {
+      mExecutor.shutdownNow();
+    }
+  }
+
+  /**
+   * Starts watching the directory. The directory is checked immediately and
+   * then periodically on a background thread.
+   */
+  public void start() {
+    LOGGER.info("Watching OSM change directory {}", mDirectory);
+    mExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      final Thread thread = new Thread(runnable, "osm-change-watcher");
+      thread.setDaemon(true);
+      return thread;
+    });
+    mExecutor.scheduleWithFixedDelay(this, 0, mPollInterval, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Moves the given change file into the given directory. If that fails, the
+   * file is remembered such that it is not applied again while running.
+   *
+   * @param file      The file to move
+   * @param directory The directory to move the file into, it does not need to
+   *                  exist
+   */
+  private void moveFile(final Path file, final Path directory) {
+    try {
+      Files.createDirectories(directory);
+      Files.move(file, directory.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+    } catch (final IOException e) {
+      LOGGER.error("Error while moving OSM change file {} to {}", file, directory, e);
+      mUnmovableFiles.add(file);
+    }
+  }
+}
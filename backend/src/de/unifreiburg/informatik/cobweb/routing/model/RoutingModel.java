@@ -5,9 +5,21 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,10 +30,16 @@ import de.unifreiburg.informatik.cobweb.parsing.ParseException;
 import de.unifreiburg.informatik.cobweb.parsing.gtfs.IGtfsFileHandler;
 import de.unifreiburg.informatik.cobweb.parsing.osm.IOsmFileHandler;
 import de.unifreiburg.informatik.cobweb.parsing.osm.IOsmFilter;
+import de.unifreiburg.informatik.cobweb.parsing.osm.OsmChange;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.metrics.AsTheCrowFliesMetric;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.metrics.IMetric;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.metrics.landmark.LandmarkMetric;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.metrics.landmark.RandomLandmarks;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.CoverTree;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.FilteredNearestNeighborComputation;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.INearestNeighborComputation;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.ShortestPathComputationFactory;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.hybridmodel.AccessLegCache;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.hybridmodel.IAccessNodeComputation;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.hybridmodel.RoadToKNearestTransitAccess;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
@@ -31,9 +49,12 @@ import de.unifreiburg.informatik.cobweb.routing.model.graph.IGraph;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.link.LinkGraph;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadGraph;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadNode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.transit.CompactTransitGraph;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.transit.ITransitGraph;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.transit.TransitGraph;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.transit.TransitStop;
 import de.unifreiburg.informatik.cobweb.routing.model.timetable.Timetable;
+import de.unifreiburg.informatik.cobweb.routing.parsing.gtfs.GtfsCompactTimeExpandedHandler;
 import de.unifreiburg.informatik.cobweb.routing.parsing.gtfs.GtfsConnectionBuilder;
 import de.unifreiburg.informatik.cobweb.routing.parsing.gtfs.GtfsRealisticTimeExpandedHandler;
 import de.unifreiburg.informatik.cobweb.routing.parsing.gtfs.GtfsTimetableHandler;
@@ -42,11 +63,20 @@ import de.unifreiburg.informatik.cobweb.routing.parsing.osm.IOsmRoadBuilder;
 import de.unifreiburg.informatik.cobweb.routing.parsing.osm.OsmRoadBuilder;
 import de.unifreiburg.informatik.cobweb.routing.parsing.osm.OsmRoadFilter;
 import de.unifreiburg.informatik.cobweb.routing.parsing.osm.OsmRoadHandler;
+import de.unifreiburg.informatik.cobweb.routing.parsing.osm.RoadGraphChangeApplier;
+import de.unifreiburg.informatik.cobweb.routing.parsing.osm.WayNodeIndex;
 import de.unifreiburg.informatik.cobweb.util.SerializationUtil;
 
 /**
  * The routing model to use for routing. The model and algorithms can be changed
- * by using modes.
+ * by using modes.<br>
+ * <br>
+ * Requests are answered using a {@link RoutingSnapshot} of the model, see
+ * {@link #publishSnapshot()} and {@link #getSnapshot()}. OSM changes are
+ * applied to a copy of the model which is then published as a new snapshot,
+ * see {@link #applyOsmChange(OsmChange)}. Requests that use the previous
+ * snapshot are not affected by that. The copy shares all unchanged parts with
+ * the previous snapshot.
  *
  * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
  */
@@ -55,6 +85,11 @@ public final class RoutingModel {
    * Logger used for logging.
    */
   private static final Logger LOGGER = LoggerFactory.getLogger(RoutingModel.class);
+  /**
+   * The road nodes that were created or moved by OSM changes and are not
+   * contained in {@link #mRoadNodeTree}.
+   */
+  private List<ICoreNode> mChangedRoadNodes;
   /**
    * The routing configuration provider.
    */
@@ -69,6 +104,27 @@ public final class RoutingModel {
    * mode.
    */
   private int mGraphSizeBeforeData;
+  /**
+   * Whether the landmark metric is outdated, i.e. not valid for the current
+   * road graph anymore. Snapshots then use the as-the-crow-flies metric until
+   * the landmark metric was refreshed, see {@link #refreshLandmarkMetric()}.
+   */
+  private boolean mIsLandmarkMetricOutdated;
+  /**
+   * Whether a refresh of the landmark metric is scheduled or running, see
+   * {@link #refreshLandmarkMetric()}.
+   */
+  private boolean mIsLandmarkRefreshPending;
+  /**
+   * The landmark metric computed last for the road graph or <code>null</code>
+   * if not used according to the mode. May be outdated, see
+   * {@link #mIsLandmarkMetricOutdated}.
+   */
+  private LandmarkMetric<ICoreNode, ICoreEdge<ICoreNode>, IGraph<ICoreNode, ICoreEdge<ICoreNode>>> mLandmarkMetric;
+  /**
+   * Executor used to refresh the landmark metric in the background.
+   */
+  private final ExecutorService mLandmarkRefresher;
   /**
    * Link graph to route on or <code>null</code> if not used according to the mode.
    */
@@ -85,6 +141,17 @@ public final class RoutingModel {
    * Road graph to route on.
    */
   private RoadGraph<ICoreNode, ICoreEdge<ICoreNode>> mRoadGraph;
+  /**
+   * The nearest road node computation built for the initial road graph. It is
+   * reused by OSM changes, see
+   * {@link #updateNearestRoadNodeComputation(IGetNodeById, Collection)}.
+   */
+  private CoverTree<ICoreNode> mRoadNodeTree;
+  /**
+   * The snapshot of the model to answer requests with or <code>null</code> if
+   * no snapshot was published yet.
+   */
+  private volatile RoutingSnapshot mSnapshot;
   /**
    * The timetable to route on or <code>null</code> if not used according to the
    * mode.
@@ -94,7 +161,13 @@ public final class RoutingModel {
    * Transit graph to route on or <code>null</code> if not used according to the
    * mode.
    */
-  private TransitGraph<ICoreNode, ICoreEdge<ICoreNode>> mTransitGraph;
+  private ITransitGraph<ICoreNode, ICoreEdge<ICoreNode>> mTransitGraph;
+  /**
+   * The index of the ways of the road graph used to apply OSM changes or
+   * <code>null</code> if not built yet. It is built on the first change and
+   * then kept up to date by the changes.
+   */
+  private WayNodeIndex mWayNodeIndex;
 
   /**
    * Creates a new routing model.
@@ -106,6 +179,75 @@ public final class RoutingModel {
     mDatabase = database;
     mConfig = config;
     mMode = config.getRoutingModelMode();
+    mLandmarkRefresher = Executors.newSingleThreadExecutor(runnable -> {
+      final Thread thread = new Thread(runnable, "landmark-refresh");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Applies the given OSM change to the road graph and the database. The
+   * change is applied to a copy of the road graph which shares all unchanged
+   * nodes and edges, see {@link RoadGraph#copy()}. The copy is then published
+   * as a new snapshot.<br>
+   * <br>
+   * The snapshot reuses the landmark metric if it is still valid for the
+   * changed graph, see {@link LandmarkMetric#isValidFor(Collection)}.
+   * Otherwise it uses the as-the-crow-flies metric and the landmark metric is
+   * refreshed in the background, see {@link #refreshLandmarkMetric()}. Access
+   * legs that can not be affected by the change are kept. The nearest road
+   * node computation only indexes the created and moved nodes, see
+   * {@link #updateNearestRoadNodeComputation(IGetNodeById, Collection)}.<br>
+   * <br>
+   * The database is changed in place and finished by
+   * {@link IRoutingDatabase#finishChange()}, it guards its data against
+   * concurrent requests. Requests may already see the changed data before the
+   * new snapshot is published. Node IDs are kept by changes, hence they still
+   * resolve to the same nodes of the previous snapshot. Only new nodes are not
+   * found in it, like nodes that are not part of the road graph.
+   *
+   * @param change The change to apply
+   * @throws UnsupportedOperationException If the routing model mode is not
+   *                                       {@link ERoutingModelMode#GRAPH_WITH_TIMETABLE}
+   * @throws ParseException                If an exception occurred while
+   *                                       parsing data like configuration
+   *                                       files
+   */
+  public synchronized void applyOsmChange(final OsmChange change) throws UnsupportedOperationException, ParseException {
+    if (mMode != ERoutingModelMode.GRAPH_WITH_TIMETABLE) {
+      throw new UnsupportedOperationException("OSM changes are not supported by the mode " + mMode);
+    }
+    LOGGER.info("Applying OSM change");
+    final Instant applyStartTime = Instant.now();
+
+    final RoadGraph<ICoreNode, ICoreEdge<ICoreNode>> previousRoadGraph = mRoadGraph;
+    final RoadGraph<ICoreNode, ICoreEdge<ICoreNode>> roadGraph = previousRoadGraph.copy();
+    final WayNodeIndex wayNodeIndex;
+    if (mWayNodeIndex == null) {
+      wayNodeIndex = new WayNodeIndex(previousRoadGraph);
+    } else {
+      wayNodeIndex = mWayNodeIndex;
+    }
+    // The index does not match the road graph anymore if applying fails, it is
+    // built again for the next change then
+    mWayNodeIndex = null;
+    final RoadGraphChangeApplier applier =
+        new RoadGraphChangeApplier(roadGraph, new OsmRoadFilter(mConfig), mDatabase, wayNodeIndex);
+    applier.apply(change);
+    mDatabase.finishChange();
+    mWayNodeIndex = wayNodeIndex;
+
+    mRoadGraph = roadGraph;
+    updateNearestRoadNodeComputation(previousRoadGraph, applier.getAddedEdges());
+    if (mSnapshot == null) {
+      publishSnapshot();
+    } else {
+      publishSnapshot(createChangedShortestPathComputationFactory(mSnapshot.getComputationFactory(), applier));
+    }
+
+    final Instant applyEndTime = Instant.now();
+    LOGGER.info("Applying OSM change took: {}", Duration.between(applyStartTime, applyEndTime));
   }
 
   /**
@@ -124,11 +266,17 @@ public final class RoutingModel {
         final IGtfsFileHandler timetableHandler = new GtfsTimetableHandler(mTimetable, mTimetable);
         return Collections.singletonList(timetableHandler);
       case LINK_GRAPH:
-        final IGtfsConnectionBuilder<ICoreNode, ICoreEdge<ICoreNode>> connectionBuilder =
-            new GtfsConnectionBuilder(mTransitGraph);
         try {
-          final IGtfsFileHandler transitHandler =
-              new GtfsRealisticTimeExpandedHandler<>(mTransitGraph, connectionBuilder, mConfig);
+          final IGtfsFileHandler transitHandler;
+          if (mTransitGraph instanceof CompactTransitGraph) {
+            transitHandler = new GtfsCompactTimeExpandedHandler((CompactTransitGraph) mTransitGraph, mConfig);
+          } else {
+            final TransitGraph<ICoreNode, ICoreEdge<ICoreNode>> transitGraph =
+                (TransitGraph<ICoreNode, ICoreEdge<ICoreNode>>) mTransitGraph;
+            final IGtfsConnectionBuilder<ICoreNode, ICoreEdge<ICoreNode>> connectionBuilder =
+                new GtfsConnectionBuilder(transitGraph);
+            transitHandler = new GtfsRealisticTimeExpandedHandler<>(transitGraph, connectionBuilder, mConfig);
+          }
           return Collections.singletonList(transitHandler);
         } catch (final IOException e) {
           throw new ParseException(e);
@@ -170,20 +318,28 @@ public final class RoutingModel {
     final ShortestPathComputationFactory factory;
     switch (mMode) {
       case GRAPH_WITH_TIMETABLE:
-        final IAccessNodeComputation<ICoreNode, ICoreNode> accessNodeComputation =
-            new RoadToKNearestTransitAccess(mTimetable, mConfig.getAccessNodesMaximum());
-        factory = new ShortestPathComputationFactory(mRoadGraph, mTimetable, accessNodeComputation,
-            mNearestRoadNodeComputation, mMode, mConfig.getAbortTravelTimeToAccessNodes(),
-            mConfig.getAmountOfLandmarks());
+        final AccessLegCache accessLegCache;
+        if (mConfig.getAccessLegCacheSize() > 0) {
+          accessLegCache = new AccessLegCache(mConfig.getAccessLegCacheSize(),
+              TimeUnit.SECONDS.toMillis(mConfig.getAccessLegCacheTimeToLive()));
+        } else {
+          accessLegCache = null;
+        }
+        mLandmarkMetric =
+            new LandmarkMetric<>(mConfig.getAmountOfLandmarks(), mRoadGraph, new RandomLandmarks<>(mRoadGraph));
+        mIsLandmarkMetricOutdated = false;
+        factory = createRoadShortestPathComputationFactory(
+            new RoadToKNearestTransitAccess(mTimetable, mConfig.getAccessNodesMaximum()), accessLegCache,
+            mLandmarkMetric);
         break;
       case LINK_GRAPH:
-        factory = new ShortestPathComputationFactory(mLinkGraph, null, null, null, mMode,
+        factory = new ShortestPathComputationFactory(mLinkGraph, null, null, null, null, mMode,
             mConfig.getAbortTravelTimeToAccessNodes(), mConfig.getAmountOfLandmarks());
+        factory.initialize();
         break;
       default:
         throw new AssertionError();
     }
-    factory.initialize();
 
     final Instant preCompTimeEnd = Instant.now();
     LOGGER.info("Precomputation took: {}", Duration.between(preCompTimeStart, preCompTimeEnd));
@@ -274,6 +430,17 @@ public final class RoutingModel {
     }
   }
 
+  /**
+   * Gets the snapshot of the model to answer requests with. A request should
+   * get the snapshot once and use it for all of its computations.
+   *
+   * @return The current snapshot or <code>null</code> if no snapshot was
+   *         published yet, see {@link #publishSnapshot()}
+   */
+  public RoutingSnapshot getSnapshot() {
+    return mSnapshot;
+  }
+
   /**
    * Gets the query graph used by this model. That is the graph that provides
    * the nodes to query on.
@@ -293,6 +460,18 @@ public final class RoutingModel {
     return toString();
   }
 
+  /**
+   * Publishes a snapshot of the current model, see {@link #getSnapshot()}.
+   * Should be called after {@link #prepareModelAfterData()}.<br>
+   * <br>
+   * This creates a new shortest path computation factory, see
+   * {@link #createShortestPathComputationFactory()}, which might take a while
+   * depending on the size of the model.
+   */
+  public synchronized void publishSnapshot() {
+    publishSnapshot(createShortestPathComputationFactory());
+  }
+
   /**
    * Prepares the model after reading in new data. Should be called after
    * {@link #prepareModelBeforeData()} and before {@link #finishModel()}.
@@ -333,7 +512,11 @@ public final class RoutingModel {
     if (!mConfig.useGraphCache() || !Files.isRegularFile(graphCache)) {
       mRoadGraph = new RoadGraph<>();
       if (mMode == ERoutingModelMode.LINK_GRAPH) {
-        mTransitGraph = new TransitGraph<>();
+        if (mConfig.useCompactTransitGraph()) {
+          mTransitGraph = new CompactTransitGraph(mConfig.getTransferDelay());
+        } else {
+          mTransitGraph = new TransitGraph<>();
+        }
         mLinkGraph = new LinkGraph(mRoadGraph, mTransitGraph);
       }
       return;
@@ -392,6 +575,71 @@ public final class RoutingModel {
     }
   }
 
+  /**
+   * Creates a factory used for creating shortest path computation algorithms
+   * on the road graph after the given change was applied to it. Reuses the
+   * parts of the given factory that are still valid.<br>
+   * <br>
+   * The landmark metric is reused if it is still valid for the added edges.
+   * Otherwise the as-the-crow-flies metric is used and a refresh of the
+   * landmark metric is scheduled, see {@link #refreshLandmarkMetric()}. The
+   * access node computation only depends on the timetable and is reused. The
+   * access legs are copied, except for the legs of nodes that might reach a
+   * changed edge within the travel time bound of access legs.<br>
+   * <br>
+   * Must only be called if the routing model mode is
+   * {@link ERoutingModelMode#GRAPH_WITH_TIMETABLE}.
+   *
+   * @param previousFactory The factory used before the change was applied
+   * @param applier         The applier which applied the change
+   * @return The constructed factory
+   */
+  private ShortestPathComputationFactory createChangedShortestPathComputationFactory(
+      final ShortestPathComputationFactory previousFactory, final RoadGraphChangeApplier applier) {
+    final IMetric<ICoreNode> metric;
+    if (!mIsLandmarkMetricOutdated && mLandmarkMetric.isValidFor(applier.getAddedEdges())) {
+      metric = mLandmarkMetric;
+    } else {
+      LOGGER.info("Landmark metric is outdated, using as-the-crow-flies metric until it is refreshed");
+      mIsLandmarkMetricOutdated = true;
+      scheduleLandmarkRefresh();
+      metric = new AsTheCrowFliesMetric<>();
+    }
+
+    AccessLegCache accessLegCache = previousFactory.getAccessLegCache();
+    if (accessLegCache != null) {
+      final List<ICoreNode> changedNodes =
+          Stream.concat(applier.getAddedEdges().stream(), applier.getRemovedEdges().stream())
+              .flatMap(edge -> Stream.of(edge.getSource(), edge.getDestination())).collect(Collectors.toList());
+      accessLegCache = accessLegCache.copy(nodeId -> isAccessLegUnaffected(nodeId, changedNodes));
+    }
+
+    return createRoadShortestPathComputationFactory(previousFactory.getAccessNodeComputation(), accessLegCache,
+        metric);
+  }
+
+  /**
+   * Creates a factory used for creating shortest path computation algorithms
+   * on the road graph and the timetable, using the given parts. Must only be
+   * called if the routing model mode is
+   * {@link ERoutingModelMode#GRAPH_WITH_TIMETABLE}.
+   *
+   * @param accessNodeComputation The access node computation to use
+   * @param accessLegCache        Cache for access legs, or <code>null</code> if
+   *                              not used
+   * @param metric                The metric to use for the A-star algorithms
+   * @return The constructed factory
+   */
+  private ShortestPathComputationFactory createRoadShortestPathComputationFactory(
+      final IAccessNodeComputation<ICoreNode, ICoreNode> accessNodeComputation, final AccessLegCache accessLegCache,
+      final IMetric<ICoreNode> metric) {
+    final ShortestPathComputationFactory factory = new ShortestPathComputationFactory(mRoadGraph, mTimetable,
+        accessNodeComputation, accessLegCache, mNearestRoadNodeComputation, mMode,
+        mConfig.getAbortTravelTimeToAccessNodes(), mConfig.getAmountOfLandmarks());
+    factory.initialize(metric);
+    return factory;
+  }
+
   /**
    * Initializes the nearest road node computation.
    */
@@ -404,12 +652,35 @@ public final class RoutingModel {
       nearestRoadNodeComputation.insert(node);
     }
 
+    mRoadNodeTree = nearestRoadNodeComputation;
     mNearestRoadNodeComputation = nearestRoadNodeComputation;
+    mChangedRoadNodes = Collections.emptyList();
 
     final Instant nearestNeighborsEndTime = Instant.now();
     LOGGER.info("Nearest road node took: {}", Duration.between(nearestNeighborsStartTime, nearestNeighborsEndTime));
   }
 
+  /**
+   * Whether the access legs of the node with the given ID are not affected by
+   * changes at the given nodes. Access legs are bounded by a travel time, see
+   * {@link IRoutingConfigProvider#getAbortTravelTimeToAccessNodes()}. Hence
+   * they can not reach nodes which are farther away, even at maximal speed.
+   *
+   * @param nodeId       The ID of the node whose access legs to check
+   * @param changedNodes The nodes of all added and removed edges
+   * @return <code>True</code> if the access legs are not affected,
+   *         <code>false</code> if they might be affected
+   */
+  private boolean isAccessLegUnaffected(final int nodeId, final Collection<ICoreNode> changedNodes) {
+    final Optional<ICoreNode> node = mRoadGraph.getNodeById(nodeId);
+    if (!node.isPresent()) {
+      return false;
+    }
+    final IMetric<ICoreNode> metric = new AsTheCrowFliesMetric<>();
+    final int abortTravelTime = mConfig.getAbortTravelTimeToAccessNodes();
+    return changedNodes.stream().allMatch(changedNode -> metric.distance(node.get(), changedNode) > abortTravelTime);
+  }
+
   /**
    * Links the road and transit graph together. Must only be called if the
    * routing model mode is {@link ERoutingModelMode#LINK_GRAPH}.
@@ -435,4 +706,136 @@ public final class RoutingModel {
     final Instant hubEndTime = Instant.now();
     LOGGER.info("Hub connections took: {}", Duration.between(hubStartTime, hubEndTime));
   }
+
+  /**
+   * Publishes a snapshot of the current model which uses the given factory,
+   * see {@link #getSnapshot()}.
+   *
+   * @param factory The factory to use for shortest path computation
+   */
+  private synchronized void publishSnapshot(final ShortestPathComputationFactory factory) {
+    final int version;
+    if (mSnapshot == null) {
+      version = 0;
+    } else {
+      version = mSnapshot.getVersion() + 1;
+    }
+    mSnapshot = new RoutingSnapshot(version, getNodeProvider(), mNearestRoadNodeComputation, factory);
+    LOGGER.info("Published routing snapshot {}", version);
+  }
+
+  /**
+   * Computes the landmark metric again for the current road graph and
+   * publishes a snapshot that uses it. Runs in the background, see
+   * {@link #scheduleLandmarkRefresh()}, since it may take a while.<br>
+   * <br>
+   * This is the remaining full computation caused by OSM changes. Computing
+   * the landmark distances reverses the graph, which shares its edges with the
+   * published snapshots. Hence the distances are computed on a deep copy of the
+   * graph. The landmarks of the previous metric are kept, unless some of them
+   * were removed from the graph. If the graph is changed meanwhile, the
+   * computation is repeated for the new graph.
+   */
+  private void refreshLandmarkMetric() {
+    while (true) {
+      final RoadGraph<ICoreNode, ICoreEdge<ICoreNode>> roadGraph;
+      final Collection<ICoreNode> previousLandmarks;
+      synchronized (this) {
+        roadGraph = mRoadGraph;
+        previousLandmarks = mLandmarkMetric.getLandmarks();
+      }
+      LOGGER.info("Refreshing landmark metric");
+      final Instant refreshStartTime = Instant.now();
+
+      final RoadGraph<ICoreNode, ICoreEdge<ICoreNode>> graphCopy;
+      try {
+        graphCopy = new SerializationUtil<RoadGraph<ICoreNode, ICoreEdge<ICoreNode>>>().copy(roadGraph);
+      } catch (ClassNotFoundException | IOException e) {
+        LOGGER.error("Error while refreshing the landmark metric", e);
+        synchronized (this) {
+          mIsLandmarkRefreshPending = false;
+        }
+        return;
+      }
+      final List<ICoreNode> landmarks = previousLandmarks.stream()
+          .map(landmark -> graphCopy.getNodeById(landmark.getId())).filter(Optional::isPresent).map(Optional::get)
+          .collect(Collectors.toList());
+      final LandmarkMetric<ICoreNode, ICoreEdge<ICoreNode>, IGraph<ICoreNode, ICoreEdge<ICoreNode>>> landmarkMetric;
+      if (landmarks.size() == previousLandmarks.size()) {
+        landmarkMetric = new LandmarkMetric<>(graphCopy, landmarks);
+      } else {
+        landmarkMetric =
+            new LandmarkMetric<>(mConfig.getAmountOfLandmarks(), graphCopy, new RandomLandmarks<>(graphCopy));
+      }
+
+      synchronized (this) {
+        if (mRoadGraph != roadGraph) {
+          // The graph was changed meanwhile, the metric might not be valid
+          continue;
+        }
+        mLandmarkMetric = landmarkMetric;
+        mIsLandmarkMetricOutdated = false;
+        mIsLandmarkRefreshPending = false;
+        final ShortestPathComputationFactory previousFactory = mSnapshot.getComputationFactory();
+        publishSnapshot(createRoadShortestPathComputationFactory(previousFactory.getAccessNodeComputation(),
+            previousFactory.getAccessLegCache(), landmarkMetric));
+      }
+
+      final Instant refreshEndTime = Instant.now();
+      LOGGER.info("Refreshing landmark metric took: {}", Duration.between(refreshStartTime, refreshEndTime));
+      return;
+    }
+  }
+
+  /**
+   * Schedules a refresh of the landmark metric in the background, see
+   * {@link #refreshLandmarkMetric()}. Does nothing if a refresh is already
+   * pending, it computes the metric for the latest road graph anyway.
+   */
+  private void scheduleLandmarkRefresh() {
+    if (mIsLandmarkRefreshPending) {
+      return;
+    }
+    mIsLandmarkRefreshPending = true;
+    mLandmarkRefresher.execute(this::refreshLandmarkMetric);
+  }
+
+  /**
+   * Updates the nearest road node computation after a change was applied to
+   * the road graph.<br>
+   * <br>
+   * The computation built for the initial road graph is reused, it does not
+   * support removing nodes. Nodes that were removed or replaced are filtered
+   * out at query time instead, the filter only accepts nodes that are
+   * contained in the current road graph. The nodes created or moved by all
+   * changes so far are indexed by a separate small computation, which is
+   * built anew for every change.
+   *
+   * @param previousRoadGraph The road graph before the change was applied, it
+   *                          must not be modified by the change
+   * @param addedEdges        The edges added by the change, see
+   *                          {@link RoadGraphChangeApplier#getAddedEdges()}
+   */
+  private void updateNearestRoadNodeComputation(final IGetNodeById<ICoreNode> previousRoadGraph,
+      final Collection<ICoreEdge<ICoreNode>> addedEdges) {
+    final RoadGraph<ICoreNode, ICoreEdge<ICoreNode>> roadGraph = mRoadGraph;
+    // Nodes are replaced instead of changed, hence compare the instances
+    final Predicate<ICoreNode> isContained = node -> roadGraph.getNodeById(node.getId()).orElse(null) == node;
+
+    final Set<ICoreNode> changedNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+    mChangedRoadNodes.stream().filter(isContained).forEach(changedNodes::add);
+    // All other nodes of the previous graph are indexed already, new nodes are
+    // always part of an added edge
+    addedEdges.stream().flatMap(edge -> Stream.of(edge.getSource(), edge.getDestination())).filter(isContained)
+        .filter(node -> previousRoadGraph.getNodeById(node.getId()).orElse(null) != node)
+        .forEach(changedNodes::add);
+    mChangedRoadNodes = new ArrayList<>(changedNodes);
+
+    final IMetric<ICoreNode> metric = new AsTheCrowFliesMetric<>();
+    final CoverTree<ICoreNode> changedNodeTree = new CoverTree<>(metric);
+    mChangedRoadNodes.forEach(changedNodeTree::insert);
+    mNearestRoadNodeComputation =
+        new FilteredNearestNeighborComputation<>(mRoadNodeTree, changedNodeTree, isContained, metric);
+    LOGGER.info("Indexed {} changed road nodes for nearest road node computation", mChangedRoadNodes.size());
+  }
 }
@@ -0,0 +1,95 @@
+package de.unifreiburg.informatik.cobweb.routing.model;
+
+import de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.INearestNeighborComputation;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.ShortestPathComputationFactory;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.IGetNodeById;
+
+/**
+ * Immutable state of the routing model which is used to answer requests. See
+ * {@link RoutingModel#getSnapshot()}.<br>
+ * <br>
+ * A snapshot is never modified after it was published. Changes to the model
+ * are applied to a copy which is then published as a new snapshot, see
+ * {@link RoutingModel#applyOsmChange}. Hence a request should get the snapshot
+ * once and use it for all of its computations, in order to see a consistent
+ * state.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class RoutingSnapshot {
+  /**
+   * The factory to use for generating algorithms for shortest path computation.
+   */
+  private final ShortestPathComputationFactory mComputationFactory;
+  /**
+   * The algorithm to use for computing nearest road nodes.
+   */
+  private final INearestNeighborComputation<ICoreNode> mNearestRoadNodeComputation;
+  /**
+   * The object that provides nodes by their ID.
+   */
+  private final IGetNodeById<ICoreNode> mNodeProvider;
+  /**
+   * The version of the snapshot, increased with every published snapshot.
+   */
+  private final int mVersion;
+
+  /**
+   * Creates a new snapshot consisting of the given parts.
+   *
+   * @param version                    The version of the snapshot
+   * @param nodeProvider               The object that provides nodes by their
+   *                                   ID
+   * @param nearestRoadNodeComputation The algorithm to use for computing
+   *                                   nearest road nodes
+   * @param computationFactory         The factory to use for generating
+   *                                   algorithms for shortest path computation
+   */
+  public RoutingSnapshot(final int version, final IGetNodeById<ICoreNode> nodeProvider,
+      final INearestNeighborComputation<ICoreNode> nearestRoadNodeComputation,
+      final ShortestPathComputationFactory computationFactory) {
+    mVersion = version;
+    mNodeProvider = nodeProvider;
+    mNearestRoadNodeComputation = nearestRoadNodeComputation;
+    mComputationFactory = computationFactory;
+  }
+
+  /**
+   * Gets the factory to use for generating algorithms for shortest path
+   * computation.
+   *
+   * @return The factory to use
+   */
+  public ShortestPathComputationFactory getComputationFactory() {
+    return mComputationFactory;
+  }
+
+  /**
+   * Gets the algorithm to use for computing nearest road nodes.
+   *
+   * @return The algorithm to use
+   */
+  public INearestNeighborComputation<ICoreNode> getNearestRoadNodeComputation() {
+    return mNearestRoadNodeComputation;
+  }
+
+  /**
+   * Gets the object that provides nodes by their ID.
+   *
+   * @return The node provider
+   */
+  public IGetNodeById<ICoreNode> getNodeProvider() {
+    return mNodeProvider;
+  }
+
+  /**
+   * Gets the version of the snapshot. The version is increased with every
+   * published snapshot.
+   *
+   * @return The version of the snapshot
+   */
+  public int getVersion() {
+    return mVersion;
+  }
+}
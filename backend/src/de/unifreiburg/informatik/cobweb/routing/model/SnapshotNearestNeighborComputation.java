@@ -0,0 +1,49 @@
+package de.unifreiburg.informatik.cobweb.routing.model;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.INearestNeighborComputation;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
+
+/**
+ * Nearest neighbor computation which answers each query with the computation
+ * of the current snapshot of a routing model, see {@link RoutingSnapshot}.
+ * Hence queries see road nodes that were added by applying OSM changes after
+ * construction.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class SnapshotNearestNeighborComputation implements INearestNeighborComputation<ICoreNode> {
+  /**
+   * Supplier of the current snapshot of the routing model.
+   */
+  private final Supplier<RoutingSnapshot> mSnapshots;
+
+  /**
+   * Creates a new nearest neighbor computation which answers queries with the
+   * computation of the current snapshot.
+   *
+   * @param snapshots Supplier of the current snapshot of the routing model, it
+   *                  is requested once per query
+   */
+  public SnapshotNearestNeighborComputation(final Supplier<RoutingSnapshot> snapshots) {
+    mSnapshots = snapshots;
+  }
+
+  @Override
+  public Collection<ICoreNode> getKNearestNeighbors(final ICoreNode point, final int k) {
+    return mSnapshots.get().getNearestRoadNodeComputation().getKNearestNeighbors(point, k);
+  }
+
+  @Override
+  public Optional<ICoreNode> getNearestNeighbor(final ICoreNode point) {
+    return mSnapshots.get().getNearestRoadNodeComputation().getNearestNeighbor(point);
+  }
+
+  @Override
+  public Collection<ICoreNode> getNeighborhood(final ICoreNode point, final double range) {
+    return mSnapshots.get().getNearestRoadNodeComputation().getNeighborhood(point, range);
+  }
+}
@@ -37,6 +37,16 @@ public abstract class AGraph<N extends INode & Serializable, E extends IEdge<N>
     mAmountOfEdges = 0;
   }
 
+  /**
+   * Creates a new graph which has the same amount of edges as the given graph.
+   * Used by subclasses that copy the structure of a graph.
+   *
+   * @param graph The graph to take the amount of edges from
+   */
+  protected AGraph(final AGraph<N, E> graph) {
+    mAmountOfEdges = graph.mAmountOfEdges;
+  }
+
   /*
    * (non-Javadoc)
    * @see
@@ -30,6 +30,16 @@ public final class UniqueIdGenerator implements Serializable {
     mLastUsedId = LAST_ID;
   }
 
+  /**
+   * Creates a new unique ID generator which continues after the last ID used
+   * by the given generator. Both generators are independent afterwards.
+   *
+   * @param generator The generator to continue
+   */
+  public UniqueIdGenerator(final UniqueIdGenerator generator) {
+    mLastUsedId = generator.mLastUsedId;
+  }
+
   /**
    * Generates and returns an unique ID.
    *
@@ -17,9 +17,9 @@ import de.unifreiburg.informatik.cobweb.routing.model.graph.IReversedProvider;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadEdge;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadGraph;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadNode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.transit.ITransitGraph;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.transit.NodeTime;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.transit.TransitEdge;
-import de.unifreiburg.informatik.cobweb.routing.model.graph.transit.TransitGraph;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.transit.TransitNode;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.transit.TransitStop;
 import de.unifreiburg.informatik.cobweb.util.collections.DoubletonCollection;
@@ -89,7 +89,7 @@ public final class LinkGraph
   /**
    * The transit graph linked by this graph.
    */
-  private final TransitGraph<ICoreNode, ICoreEdge<ICoreNode>> mTransitGraph;
+  private final ITransitGraph<ICoreNode, ICoreEdge<ICoreNode>> mTransitGraph;
 
   /**
    * Creates a new link graph which links the given road and transit graph.<br>
@@ -101,7 +101,7 @@ public final class LinkGraph
    * @param transitGraph The transit graph to link
    */
   public LinkGraph(final RoadGraph<ICoreNode, ICoreEdge<ICoreNode>> roadGraph,
-      final TransitGraph<ICoreNode, ICoreEdge<ICoreNode>> transitGraph) {
+      final ITransitGraph<ICoreNode, ICoreEdge<ICoreNode>> transitGraph) {
     mRoadGraph = roadGraph;
     mTransitGraph = transitGraph;
     mNodeToIncomingLinks = new HashMap<>();
@@ -235,7 +235,7 @@ public final class LinkGraph
    *
    * @return The transit graph to get
    */
-  public TransitGraph<ICoreNode, ICoreEdge<ICoreNode>> getTransitGraph() {
+  public ITransitGraph<ICoreNode, ICoreEdge<ICoreNode>> getTransitGraph() {
     return mTransitGraph;
   }
 
@@ -263,6 +263,22 @@ public final class RoadEdge<N extends ICoreNode> implements ICoreEdge<N>, IRoadE
     mDefaultCost = mCost.get(fastestMode);
   }
 
+  /**
+   * Creates a new edge which connects the given nodes but otherwise equals
+   * this edge. That is, it has the same ID, highway type, maximal speed and
+   * transportation modes. Its cost is computed for the given nodes.<br>
+   * <br>
+   * The method should be used instead of changing the spatial data of nodes
+   * that are shared by multiple graphs, see {@link RoadGraph#copy()}.
+   *
+   * @param source      The source node of the new edge
+   * @param destination The destination node of the new edge
+   * @return The new edge
+   */
+  public RoadEdge<N> withNodes(final N source, final N destination) {
+    return new RoadEdge<>(mId, source, destination, mType, mMaxSpeed, mCost.keySet());
+  }
+
   /**
    * Computes the cost for this edge. Therefore, the travel time is computed
    * based on the given distance and mode.
@@ -1,15 +1,21 @@
 package de.unifreiburg.informatik.cobweb.routing.model.graph.road;
 
 import java.io.Serializable;
+import java.util.AbstractCollection;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Stream;
 
-import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
-import org.eclipse.collections.impl.factory.primitive.IntObjectMaps;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.impl.list.mutable.FastList;
 
 import de.unifreiburg.informatik.cobweb.routing.model.graph.AGraph;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.IEdge;
@@ -21,6 +27,7 @@ import de.unifreiburg.informatik.cobweb.routing.model.graph.IReversedConsumer;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.IReversedProvider;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.ISpatial;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.UniqueIdGenerator;
+import de.unifreiburg.informatik.cobweb.util.collections.CollectionUtil;
 import de.unifreiburg.informatik.cobweb.util.collections.HybridArrayHashSet;
 import de.unifreiburg.informatik.cobweb.util.collections.IdMap;
 
@@ -29,7 +36,15 @@ import de.unifreiburg.informatik.cobweb.util.collections.IdMap;
  * edges.<br>
  * <br>
  * It offers access to the nodes by their unique ID and is capable of implicitly
- * reversing nodes in constant time. The class is fully serializable.
+ * reversing nodes in constant time. The class is fully serializable.<br>
+ * <br>
+ * Node IDs are expected to be generated by {@link #generateUniqueNodeId()},
+ * i.e. to be non-negative and close to each other. Nodes are stored in a list
+ * indexed by their ID, hence accessing a node by its ID does not need hashing.<br>
+ * <br>
+ * A graph can be copied cheaply by {@link #copy()}, the copy shares nodes,
+ * edges and edge sets with the original and copies edge sets only once it
+ * changes them.
  *
  * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
  * @param <N> Type of the nodes which must have an ID and be spatial
@@ -42,15 +57,33 @@ public final class RoadGraph<N extends INode & IHasId & ISpatial & Serializable,
   /**
    * The serial version UID.
    */
-  private static final long serialVersionUID = 1L;
+  private static final long serialVersionUID = 3L;
+
   /**
-   * A map connecting node IDs to their corresponding nodes.
+   * Creates a copy of the given map connecting nodes to their edges. The edge
+   * sets themselves are not copied.
+   *
+   * @param <N>         Type of the nodes
+   * @param <E>         Type of the edges
+   * @param nodeToEdges The map to copy
+   * @return The copy of the map
    */
-  private final MutableIntObjectMap<N> mIdToNode;
+  private static <N extends IHasId, E> Map<N, Set<E>> copyNodeToEdges(final Map<N, Set<E>> nodeToEdges) {
+    if (nodeToEdges instanceof IdMap) {
+      return new IdMap<>((IdMap<N, Set<E>>) nodeToEdges);
+    }
+    return new HashMap<>(nodeToEdges);
+  }
+
   /**
-   * Whether or not the graph is currently reversed.
+   * A list connecting node IDs as index to their corresponding nodes. Can
+   * contain gaps which are indicated by <code>null</code> values.
    */
-  private boolean mIsReversed;
+  private final MutableList<N> mIdToNode;
+  /**
+   * The amount of nodes contained in the graph.
+   */
+  private int mNodeCount;
   /**
    * The unique ID generated used for nodes.
    */
@@ -63,6 +96,18 @@ public final class RoadGraph<N extends INode & IHasId & ISpatial & Serializable,
    * A map that connects nodes to their outgoing edges.
    */
   private final Map<N, Set<E>> mNodeToOutgoingEdges;
+  /**
+   * The edge sets this graph may change in place, identified by identity. Or
+   * <code>null</code> if the graph does not share any edge set with other
+   * graphs. Edge sets that are not contained are shared and copied before they
+   * are changed, see {@link #copy()}.
+   */
+  private transient Set<Set<E>> mOwnedEdgeSets;
+  /**
+   * Whether or not the graph is currently reversed. Shared with all edges of
+   * the graph and with all copies of it.
+   */
+  private final ReversedState mReversedState;
   /**
    * The unique ID generator used for ways.
    */
@@ -72,38 +117,93 @@ public final class RoadGraph<N extends INode & IHasId & ISpatial & Serializable,
    * Creates a new initially empty road graph.
    */
   public RoadGraph() {
-    // TODO The map could be exchanged by an array. However, from a design-view
-    // it is problematic that IDs could have gaps and thus methods like
-    // getNodes() which return a Collection and not only a Stream get
-    // problematic due to possible null values encoding gaps.
-    mIdToNode = IntObjectMaps.mutable.empty();
+    mIdToNode = FastList.newList();
     mNodeIdGenerator = new UniqueIdGenerator();
     mWayIdGenerator = new UniqueIdGenerator();
 
     // Assume node IDs are close to each other and have no, or only few, gaps.
     mNodeToIncomingEdges = new IdMap<>();
     mNodeToOutgoingEdges = new IdMap<>();
+    mReversedState = new ReversedState();
+  }
+
+  /**
+   * Creates a new road graph which shares the nodes, edges and edge sets of
+   * the given graph, see {@link #copy()}.
+   *
+   * @param graph The graph to copy
+   */
+  private RoadGraph(final RoadGraph<N, E> graph) {
+    super(graph);
+    mIdToNode = FastList.newList(graph.mIdToNode);
+    mNodeCount = graph.mNodeCount;
+    mNodeIdGenerator = new UniqueIdGenerator(graph.mNodeIdGenerator);
+    mWayIdGenerator = new UniqueIdGenerator(graph.mWayIdGenerator);
+    mNodeToIncomingEdges = RoadGraph.copyNodeToEdges(graph.mNodeToIncomingEdges);
+    mNodeToOutgoingEdges = RoadGraph.copyNodeToEdges(graph.mNodeToOutgoingEdges);
+    mReversedState = graph.mReversedState;
+    mOwnedEdgeSets = Collections.newSetFromMap(new IdentityHashMap<>());
   }
 
   @Override
   public boolean addEdge(final E edge) {
-    edge.setReversedProvider(this);
+    edge.setReversedProvider(mReversedState);
+    ownEdgeSets(edge);
     return super.addEdge(edge);
   }
 
+  /**
+   * Adds the given node to the graph if not already contained.
+   *
+   * @param node The node to add, its ID must not be negative
+   * @return <code>True</code> if the node was not already contained and thus
+   *         added, <code>false</code> otherwise
+   * @throws IllegalArgumentException If the ID of the node is negative
+   */
   @Override
-  public boolean addNode(final N node) {
+  public boolean addNode(final N node) throws IllegalArgumentException {
     final int id = node.getId();
-    if (mIdToNode.containsKey(id)) {
+    if (id < 0) {
+      throw new IllegalArgumentException("Node IDs must not be negative: " + id);
+    }
+    if (containsNodeWithId(id)) {
       return false;
     }
-    mIdToNode.put(id, node);
+    if (id >= mIdToNode.size()) {
+      CollectionUtil.increaseCapacity(mIdToNode, id + 1);
+    }
+    mIdToNode.set(id, node);
+    mNodeCount++;
     return true;
   }
 
+  /**
+   * Creates a copy of this graph. The copy shares the nodes, edges and edge
+   * sets with this graph, only the index structures are copied. Hence the copy
+   * is created in time linear to the amount of nodes, edges are not
+   * copied.<br>
+   * <br>
+   * Both graphs can be changed independently afterwards by adding and removing
+   * nodes and edges, an edge set is copied before it is changed for the first
+   * time. However, the shared nodes and edges themselves must not be changed,
+   * for example by moving a node. Replace them by new instances instead.<br>
+   * <br>
+   * The copy shares its reversal state with this graph, reversing one of them
+   * also reverses the other one. Use a deep copy, for example by
+   * serialization, if the graph needs to be reversed while the other graph is
+   * in use.
+   *
+   * @return The copy of this graph
+   */
+  public RoadGraph<N, E> copy() {
+    // Edge sets owned by this graph are now shared with the copy
+    mOwnedEdgeSets = Collections.newSetFromMap(new IdentityHashMap<>());
+    return new RoadGraph<>(this);
+  }
+
   @Override
   public boolean containsNodeWithId(final int id) {
-    return mIdToNode.containsKey(id);
+    return id >= 0 && id < mIdToNode.size() && mIdToNode.get(id) != null;
   }
 
   @Override
@@ -128,31 +228,57 @@ public final class RoadGraph<N extends INode & IHasId & ISpatial & Serializable,
 
   @Override
   public Optional<N> getNodeById(final int id) {
-    return Optional.ofNullable(mIdToNode.get(id));
+    if (!containsNodeWithId(id)) {
+      return Optional.empty();
+    }
+    return Optional.of(mIdToNode.get(id));
   }
 
   /**
    * Gets a collection of all nodes that the graph contains.<br>
    * <br>
-   * The collection is backed by the graph, changes will be reflected in the
-   * graph. Do only change the collection directly if you know the consequences.
-   * Else the graph can easily get into a corrupted state. In many situations it
-   * is best to use the given methods like {@link #addNode(INode)} instead.
+   * The collection is a read-only view backed by the graph, changes to the
+   * graph will be reflected in the collection. Use the given methods like
+   * {@link #addNode(INode)} or {@link #removeNode(INode)} to change the graph.
    */
   @Override
   public Collection<N> getNodes() {
-    return mIdToNode.values();
+    return new AbstractCollection<N>() {
+      @Override
+      public boolean contains(final Object obj) {
+        if (!(obj instanceof IHasId)) {
+          return false;
+        }
+        return getNodeById(((IHasId) obj).getId()).filter(obj::equals).isPresent();
+      }
+
+      @Override
+      public Iterator<N> iterator() {
+        return mIdToNode.stream().filter(Objects::nonNull).iterator();
+      }
+
+      @Override
+      public int size() {
+        return mNodeCount;
+      }
+    };
   }
 
   @Override
   public boolean isReversed() {
-    return mIsReversed;
+    return mReversedState.isReversed();
+  }
+
+  @Override
+  public boolean removeEdge(final E edge) {
+    ownEdgeSets(edge);
+    return super.removeEdge(edge);
   }
 
   @Override
   public boolean removeNode(final N node) {
     final int id = node.getId();
-    if (!mIdToNode.containsKey(id)) {
+    if (!containsNodeWithId(id)) {
       return false;
     }
 
@@ -160,7 +286,8 @@ public final class RoadGraph<N extends INode & IHasId & ISpatial & Serializable,
     getIncomingEdges(node).forEach(this::removeEdge);
     getOutgoingEdges(node).forEach(this::removeEdge);
 
-    mIdToNode.remove(id);
+    mIdToNode.set(id, null);
+    mNodeCount--;
     return true;
   }
 
@@ -173,18 +300,22 @@ public final class RoadGraph<N extends INode & IHasId & ISpatial & Serializable,
    */
   @Override
   public void reverse() {
-    mIsReversed = !mIsReversed;
+    mReversedState.reverse();
   }
 
   @Override
   protected Set<E> constructEdgeSetWith(final E edge) {
     // Assume that edge sets only contain a very limited amount of edges.
-    return new HybridArrayHashSet<>(edge);
+    final Set<E> edges = new HybridArrayHashSet<>(edge);
+    if (mOwnedEdgeSets != null) {
+      mOwnedEdgeSets.add(edges);
+    }
+    return edges;
   }
 
   @Override
   protected Map<N, Set<E>> getNodeToIncomingEdges() {
-    if (mIsReversed) {
+    if (isReversed()) {
       return mNodeToOutgoingEdges;
     }
     return mNodeToIncomingEdges;
@@ -192,10 +323,73 @@ public final class RoadGraph<N extends INode & IHasId & ISpatial & Serializable,
 
   @Override
   protected Map<N, Set<E>> getNodeToOutgoingEdges() {
-    if (mIsReversed) {
+    if (isReversed()) {
       return mNodeToIncomingEdges;
     }
     return mNodeToOutgoingEdges;
   }
 
+  /**
+   * Replaces the edge set of the given node in the given map by a copy if the
+   * set is shared with other graphs.
+   *
+   * @param nodeToEdges The map connecting nodes to their edges
+   * @param node        The node whose edge set to own
+   */
+  private void ownEdgeSet(final Map<N, Set<E>> nodeToEdges, final N node) {
+    final Set<E> edges = nodeToEdges.get(node);
+    if (edges == null || mOwnedEdgeSets.contains(edges)) {
+      return;
+    }
+    final Set<E> ownedEdges = new HybridArrayHashSet<>(edges);
+    mOwnedEdgeSets.add(ownedEdges);
+    nodeToEdges.put(node, ownedEdges);
+  }
+
+  /**
+   * Ensures that all edge sets which are changed when adding or removing the
+   * given edge are owned by this graph, i.e. not shared with other graphs.
+   *
+   * @param edge The edge to add or remove
+   */
+  private void ownEdgeSets(final E edge) {
+    if (mOwnedEdgeSets == null) {
+      return;
+    }
+    // Cover both directions, the graph may be reversed
+    ownEdgeSet(mNodeToOutgoingEdges, edge.getSource());
+    ownEdgeSet(mNodeToOutgoingEdges, edge.getDestination());
+    ownEdgeSet(mNodeToIncomingEdges, edge.getSource());
+    ownEdgeSet(mNodeToIncomingEdges, edge.getDestination());
+  }
+
+  /**
+   * Reversal state of a graph, shared with its edges. Edges do not refer to
+   * the graph itself, hence copies of the graph can share them without
+   * keeping previous versions of the graph alive.
+   *
+   * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+   */
+  private static final class ReversedState implements IReversedProvider, Serializable {
+    /**
+     * The serial version UID.
+     */
+    private static final long serialVersionUID = 1L;
+    /**
+     * Whether or not the graph is currently reversed.
+     */
+    private boolean mIsReversed;
+
+    @Override
+    public boolean isReversed() {
+      return mIsReversed;
+    }
+
+    /**
+     * Toggles the reversal state.
+     */
+    void reverse() {
+      mIsReversed = !mIsReversed;
+    }
+  }
 }
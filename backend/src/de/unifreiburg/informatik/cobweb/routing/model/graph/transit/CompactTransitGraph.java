@@ -0,0 +1,796 @@
+package de.unifreiburg.informatik.cobweb.routing.model.graph.transit;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.eclipse.collections.api.map.primitive.MutableObjectIntMap;
+import org.eclipse.collections.impl.factory.primitive.ObjectIntMaps;
+import org.eclipse.collections.impl.list.mutable.FastList;
+
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.IReversedProvider;
+
+/**
+ * Implementation of a {@link ITransitGraph} which represents a realistic time
+ * expanded transit network in a packed form.<br>
+ * <br>
+ * Instead of node and edge objects, the graph only stores the stop times of all
+ * trips in primitive arrays. Each stop time yields an arrival, a departure and
+ * a transfer node. Trip edges, the waiting chain between the transfer nodes of
+ * a stop and the edges from transfer to departure nodes are implicit by index
+ * arithmetic. Node and edge instances are created on demand, they are equal to
+ * previously created instances according to their <code>equals</code>
+ * method.<br>
+ * <br>
+ * Use {@link #addStop(float, float)} and
+ * {@link #addTrip(int[], int[], int[], int)} to fill the graph, followed by
+ * {@link #buildIndex()} before routing on it. Structural modifications by
+ * methods like {@link #addEdge(ICoreEdge)} are not supported. The graph is
+ * capable of implicitly reversing in constant time and is fully serializable.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class CompactTransitGraph implements ITransitGraph<ICoreNode, ICoreEdge<ICoreNode>>, IReversedProvider {
+  /**
+   * Offset of the edge from the arrival to the departure node of a stop time.
+   */
+  private static final int EDGE_ARR_TO_DEP = 0;
+  /**
+   * Offset of the edge from the arrival to the transfer node of a stop time.
+   */
+  private static final int EDGE_ARR_TO_TRANSFER = 1;
+  /**
+   * Offset of the edge from the departure node of a stop time to the arrival
+   * node of the next stop time of the trip.
+   */
+  private static final int EDGE_DEP_TO_NEXT_ARR = 2;
+  /**
+   * Offset of the edge from the transfer node of a stop time to the next
+   * transfer node in time at the same stop.
+   */
+  private static final int EDGE_TRANSFER_TO_NEXT_TRANSFER = 3;
+  /**
+   * Amount of edges per stop time which have a fixed ID.
+   */
+  private static final int EDGES_PER_STOP_TIME = 4;
+  /**
+   * Initial capacity of the arrays holding stops and stop times.
+   */
+  private static final int INITIAL_CAPACITY = 16;
+  /**
+   * Offset of the arrival node of a stop time.
+   */
+  private static final int NODE_ARRIVAL = 0;
+  /**
+   * Offset of the departure node of a stop time.
+   */
+  private static final int NODE_DEPARTURE = 1;
+  /**
+   * Offset of the transfer node of a stop time.
+   */
+  private static final int NODE_TRANSFER = 2;
+  /**
+   * Amount of nodes per stop time.
+   */
+  private static final int NODES_PER_STOP_TIME = 3;
+  /**
+   * The serial version UID.
+   */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Packs the given key and value into a single <code>long</code> such that
+   * sorting the packed values sorts ascending by key first, then by value.
+   *
+   * @param key   The key to pack, must not be negative
+   * @param value The value to pack, must not be negative
+   * @return The packed key and value
+   */
+  private static long pack(final int key, final int value) {
+    return ((long) key << Integer.SIZE) | value;
+  }
+
+  /**
+   * Unpacks the value of a <code>long</code> created by {@link #pack(int, int)}.
+   *
+   * @param packed The packed key and value
+   * @return The value that was packed
+   */
+  private static int unpackValue(final long packed) {
+    return (int) packed;
+  }
+
+  /**
+   * The amount of edges in this graph, only valid if the index was built.
+   */
+  private int mAmountOfEdges;
+  /**
+   * The amount of stops in this graph.
+   */
+  private int mAmountOfStops;
+  /**
+   * The amount of stop times in this graph.
+   */
+  private int mAmountOfStopTimes;
+  /**
+   * The arrival time of each stop time, in seconds since midnight.
+   */
+  private int[] mArrTimes;
+  /**
+   * The departure time of each stop time, in seconds since midnight.
+   */
+  private int[] mDepTimes;
+  /**
+   * Map connecting external IDs of stops added by
+   * {@link #addStop(String, float, float)} to their index.
+   */
+  private final MutableObjectIntMap<String> mIdToStop;
+  /**
+   * Whether or not the index is consistent with the current stop times.
+   */
+  private boolean mIsIndexBuilt;
+  /**
+   * Whether or not the graph is currently reversed.
+   */
+  private boolean mIsReversed;
+  /**
+   * The rank of the transfer node each departure node is connected to, or
+   * <code>-1</code> if there is no previous transfer node at the stop.
+   */
+  private int[] mPrevTransferRank;
+  /**
+   * The latitude of each stop, in degrees.
+   */
+  private float[] mStopLatitudes;
+  /**
+   * The longitude of each stop, in degrees.
+   */
+  private float[] mStopLongitudes;
+  /**
+   * The stop of each stop time.
+   */
+  private int[] mStopOfStopTime;
+  /**
+   * The offsets into {@link #mTransferOrder} at which the transfer nodes of
+   * each stop start. Has one additional element marking the end.
+   */
+  private int[] mStopTransferOffsets;
+  /**
+   * The amount in seconds a transfer at the same stop takes.
+   */
+  private final int mTransferDelay;
+  /**
+   * The offsets into {@link #mTransferDepTargets} at which the departure nodes
+   * connected to the transfer node of the given rank start. Has one additional
+   * element marking the end.
+   */
+  private int[] mTransferDepOffsets;
+  /**
+   * The stop times whose departure nodes are connected to transfer nodes,
+   * grouped by the rank of the transfer node.
+   */
+  private int[] mTransferDepTargets;
+  /**
+   * The stop times grouped by stop and sorted ascending in their transfer time.
+   * The position of a stop time in this array is its rank.
+   */
+  private int[] mTransferOrder;
+  /**
+   * The rank of each stop time in {@link #mTransferOrder}.
+   */
+  private int[] mTransferRank;
+  /**
+   * Bit set which marks the last stop time of each trip. Stop times of a trip
+   * are stored contiguous in the order of the trip.
+   */
+  private final BitSet mTripEnds;
+
+  /**
+   * Creates a new initially empty compact transit graph.
+   *
+   * @param transferDelay The amount in seconds a transfer at the same stop
+   *                      takes
+   */
+  public CompactTransitGraph(final int transferDelay) {
+    mTransferDelay = transferDelay;
+    mArrTimes = new int[INITIAL_CAPACITY];
+    mDepTimes = new int[INITIAL_CAPACITY];
+    mStopOfStopTime = new int[INITIAL_CAPACITY];
+    mStopLatitudes = new float[INITIAL_CAPACITY];
+    mStopLongitudes = new float[INITIAL_CAPACITY];
+    mTripEnds = new BitSet();
+    mIdToStop = ObjectIntMaps.mutable.empty();
+  }
+
+  /**
+   * Not supported, the edges of the graph are implicitly given by its stop
+   * times.
+   */
+  @Override
+  public boolean addEdge(final ICoreEdge<ICoreNode> edge) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Not supported, the nodes of the graph are implicitly given by its stop
+   * times.
+   */
+  @Override
+  public boolean addNode(final ICoreNode node) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Adds a stop with the given coordinates to the graph.
+   *
+   * @param latitude  The latitude of the stop, in degrees
+   * @param longitude The longitude of the stop, in degrees
+   * @return The index of the added stop, to be used for
+   *         {@link #addTrip(int[], int[], int[], int)}
+   */
+  public int addStop(final float latitude, final float longitude) {
+    if (mAmountOfStops == mStopLatitudes.length) {
+      final int capacity = mStopLatitudes.length * 2;
+      mStopLatitudes = Arrays.copyOf(mStopLatitudes, capacity);
+      mStopLongitudes = Arrays.copyOf(mStopLongitudes, capacity);
+    }
+    mStopLatitudes[mAmountOfStops] = latitude;
+    mStopLongitudes[mAmountOfStops] = longitude;
+    mIsIndexBuilt = false;
+
+    final int stop = mAmountOfStops;
+    mAmountOfStops++;
+    return stop;
+  }
+
+  /**
+   * Adds a stop with the given external ID and coordinates to the graph, if
+   * the graph does not already contain a stop with that ID. The IDs are stored
+   * with the graph, such that data added later on, for example to a cached
+   * graph, reuses the existing stops.
+   *
+   * @param id        The external ID of the stop
+   * @param latitude  The latitude of the stop, in degrees
+   * @param longitude The longitude of the stop, in degrees
+   * @return The index of the stop with the given ID, to be used for
+   *         {@link #addTrip(int[], int[], int[], int)}
+   */
+  public int addStop(final String id, final float latitude, final float longitude) {
+    final int existingStop = mIdToStop.getIfAbsent(id, -1);
+    if (existingStop != -1) {
+      return existingStop;
+    }
+    final int stop = addStop(latitude, longitude);
+    mIdToStop.put(id, stop);
+    return stop;
+  }
+
+  /**
+   * Not supported, the stops of the graph are added by
+   * {@link #addStop(float, float)}.
+   */
+  @Override
+  public boolean addStop(final TransitStop<ICoreNode> stop) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Adds a trip to the graph. The trip visits the given stops in the given
+   * order.<br>
+   * <br>
+   * The index is invalidated by this method, use {@link #buildIndex()} after
+   * adding all trips.
+   *
+   * @param stops    The indices of the stops visited by the trip, as returned
+   *                 by {@link #addStop(float, float)}
+   * @param arrTimes The arrival times at the stops, in seconds since midnight
+   * @param depTimes The departure times at the stops, in seconds since
+   *                 midnight
+   * @param length   The amount of stop times of the trip, only the first
+   *                 elements of the given arrays are read
+   */
+  public void addTrip(final int[] stops, final int[] arrTimes, final int[] depTimes, final int length) {
+    if (length <= 0) {
+      return;
+    }
+    final int requiredCapacity = mAmountOfStopTimes + length;
+    if (requiredCapacity > mArrTimes.length) {
+      final int capacity = Math.max(requiredCapacity, mArrTimes.length * 2);
+      mArrTimes = Arrays.copyOf(mArrTimes, capacity);
+      mDepTimes = Arrays.copyOf(mDepTimes, capacity);
+      mStopOfStopTime = Arrays.copyOf(mStopOfStopTime, capacity);
+    }
+    for (int i = 0; i < length; i++) {
+      if (stops[i] < 0 || stops[i] >= mAmountOfStops) {
+        throw new IllegalArgumentException();
+      }
+    }
+
+    System.arraycopy(stops, 0, mStopOfStopTime, mAmountOfStopTimes, length);
+    System.arraycopy(arrTimes, 0, mArrTimes, mAmountOfStopTimes, length);
+    System.arraycopy(depTimes, 0, mDepTimes, mAmountOfStopTimes, length);
+    mAmountOfStopTimes += length;
+    mTripEnds.set(mAmountOfStopTimes - 1);
+    mIsIndexBuilt = false;
+  }
+
+  /**
+   * Builds the index that is used to implicitly derive the edges of the graph.
+   * Must be called after adding trips and before routing on the graph.
+   */
+  public void buildIndex() {
+    final int amountOfStopTimes = mAmountOfStopTimes;
+
+    // Group stop times by stop using a counting sort
+    final int[] stopOffsets = new int[mAmountOfStops + 1];
+    for (int stopTime = 0; stopTime < amountOfStopTimes; stopTime++) {
+      stopOffsets[mStopOfStopTime[stopTime] + 1]++;
+    }
+    for (int stop = 0; stop < mAmountOfStops; stop++) {
+      stopOffsets[stop + 1] += stopOffsets[stop];
+    }
+
+    // Sort the stop times of each stop ascending in time, the transfer time is
+    // the arrival time plus a constant delay
+    final long[] timeToStopTime = new long[amountOfStopTimes];
+    final int[] insertPositions = Arrays.copyOf(stopOffsets, mAmountOfStops);
+    for (int stopTime = 0; stopTime < amountOfStopTimes; stopTime++) {
+      final int position = insertPositions[mStopOfStopTime[stopTime]]++;
+      timeToStopTime[position] = CompactTransitGraph.pack(mArrTimes[stopTime], stopTime);
+    }
+    final int[] transferOrder = new int[amountOfStopTimes];
+    final int[] transferRank = new int[amountOfStopTimes];
+    int amountOfWaitingEdges = 0;
+    for (int stop = 0; stop < mAmountOfStops; stop++) {
+      final int from = stopOffsets[stop];
+      final int to = stopOffsets[stop + 1];
+      if (from == to) {
+        continue;
+      }
+      Arrays.sort(timeToStopTime, from, to);
+      for (int rank = from; rank < to; rank++) {
+        final int stopTime = CompactTransitGraph.unpackValue(timeToStopTime[rank]);
+        transferOrder[rank] = stopTime;
+        transferRank[stopTime] = rank;
+      }
+      amountOfWaitingEdges += to - from - 1;
+    }
+
+    // Connect each departure node to the previous transfer node at its stop
+    final int[] prevTransferRank = new int[amountOfStopTimes];
+    final int[] transferDepOffsets = new int[amountOfStopTimes + 1];
+    for (int stopTime = 0; stopTime < amountOfStopTimes; stopTime++) {
+      final int stop = mStopOfStopTime[stopTime];
+      // Search the last transfer node departing strictly before
+      final int depTime = mDepTimes[stopTime];
+      int low = stopOffsets[stop];
+      int high = stopOffsets[stop + 1] - 1;
+      int rank = -1;
+      while (low <= high) {
+        final int middle = (low + high) >>> 1;
+        if (getTransferTime(transferOrder[middle]) < depTime) {
+          rank = middle;
+          low = middle + 1;
+        } else {
+          high = middle - 1;
+        }
+      }
+      prevTransferRank[stopTime] = rank;
+      if (rank != -1) {
+        transferDepOffsets[rank + 1]++;
+      }
+    }
+    for (int rank = 0; rank < amountOfStopTimes; rank++) {
+      transferDepOffsets[rank + 1] += transferDepOffsets[rank];
+    }
+    final int[] transferDepTargets = new int[transferDepOffsets[amountOfStopTimes]];
+    final int[] targetPositions = Arrays.copyOf(transferDepOffsets, amountOfStopTimes);
+    for (int stopTime = 0; stopTime < amountOfStopTimes; stopTime++) {
+      final int rank = prevTransferRank[stopTime];
+      if (rank != -1) {
+        transferDepTargets[targetPositions[rank]++] = stopTime;
+      }
+    }
+
+    mStopTransferOffsets = stopOffsets;
+    mTransferOrder = transferOrder;
+    mTransferRank = transferRank;
+    mPrevTransferRank = prevTransferRank;
+    mTransferDepOffsets = transferDepOffsets;
+    mTransferDepTargets = transferDepTargets;
+
+    final int amountOfTripEdges = amountOfStopTimes - mTripEnds.cardinality();
+    mAmountOfEdges = 2 * amountOfStopTimes + amountOfTripEdges + amountOfWaitingEdges + transferDepTargets.length;
+    mIsIndexBuilt = true;
+  }
+
+  @Override
+  public boolean containsEdge(final ICoreEdge<ICoreNode> edge) {
+    if (!(edge instanceof TransitEdge) || !(edge.getSource() instanceof TransitNode)) {
+      return false;
+    }
+    final ICoreNode source = edge.getSource();
+    if (!containsNodeWithId(source.getId())) {
+      return false;
+    }
+    return getOutgoingEdges(source).anyMatch(edge::equals);
+  }
+
+  @Override
+  public boolean containsNodeWithId(final int id) {
+    return id >= 0 && id < size();
+  }
+
+  @Override
+  public int getAmountOfEdges() {
+    ensureIndex();
+    return mAmountOfEdges;
+  }
+
+  @Override
+  public Stream<ICoreEdge<ICoreNode>> getEdges() {
+    ensureIndex();
+    return IntStream.range(0, size()).mapToObj(this::createNode).flatMap(this::getPhysicalOutgoingEdges);
+  }
+
+  @Override
+  public Stream<ICoreEdge<ICoreNode>> getIncomingEdges(final ICoreNode destination) {
+    ensureIndex();
+    if (mIsReversed) {
+      return getPhysicalOutgoingEdges(destination);
+    }
+    return getPhysicalIncomingEdges(destination);
+  }
+
+  @Override
+  public Optional<ICoreNode> getNodeById(final int id) {
+    if (!containsNodeWithId(id)) {
+      return Optional.empty();
+    }
+    return Optional.of(createNode(id));
+  }
+
+  /**
+   * Gets a collection of all nodes that the graph contains.<br>
+   * <br>
+   * The collection is a read-only view on the graph, nodes are created on
+   * demand while iterating.
+   */
+  @Override
+  public Collection<ICoreNode> getNodes() {
+    return new AbstractCollection<ICoreNode>() {
+      @Override
+      public boolean contains(final Object obj) {
+        return obj instanceof TransitNode && containsNodeWithId(((TransitNode) obj).getId());
+      }
+
+      @Override
+      public Iterator<ICoreNode> iterator() {
+        return IntStream.range(0, size()).<ICoreNode> mapToObj(CompactTransitGraph.this::createNode).iterator();
+      }
+
+      @Override
+      public int size() {
+        return CompactTransitGraph.this.size();
+      }
+    };
+  }
+
+  @Override
+  public Stream<ICoreEdge<ICoreNode>> getOutgoingEdges(final ICoreNode source) {
+    ensureIndex();
+    if (mIsReversed) {
+      return getPhysicalIncomingEdges(source);
+    }
+    return getPhysicalOutgoingEdges(source);
+  }
+
+  /**
+   * Gets a human readable string that contains size information of the graph,
+   * i.e. the amount of nodes and edges.
+   *
+   * @return A human readable string containing size information
+   */
+  public String getSizeInformation() {
+    return toString();
+  }
+
+  /**
+   * Gets all stops of this transit graph.<br>
+   * <br>
+   * The stops are created on demand, the returned collection is not backed by
+   * the graph. Only stops which are visited by at least one trip are contained.
+   */
+  @Override
+  public Collection<TransitStop<ICoreNode>> getStops() {
+    ensureIndex();
+    final List<TransitStop<ICoreNode>> stops = FastList.newList(mAmountOfStops);
+    for (int stop = 0; stop < mAmountOfStops; stop++) {
+      final int from = mStopTransferOffsets[stop];
+      final int to = mStopTransferOffsets[stop + 1];
+      if (from == to) {
+        continue;
+      }
+
+      // Transfer nodes are sorted by their arrival time plus a constant, thus
+      // the arrival nodes share the same order
+      final List<NodeTime<ICoreNode>> arrivalNodes = FastList.newList(to - from);
+      for (int rank = from; rank < to; rank++) {
+        final int stopTime = mTransferOrder[rank];
+        arrivalNodes.add(new NodeTime<>(createNode(getNodeId(stopTime, NODE_ARRIVAL)), mArrTimes[stopTime]));
+      }
+      stops.add(new TransitStop<>(arrivalNodes, mStopLatitudes[stop], mStopLongitudes[stop]));
+    }
+    return stops;
+  }
+
+  @Override
+  public boolean isReversed() {
+    return mIsReversed;
+  }
+
+  /**
+   * Not supported, the edges of the graph are implicitly given by its stop
+   * times.
+   */
+  @Override
+  public boolean removeEdge(final ICoreEdge<ICoreNode> edge) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Not supported, the nodes of the graph are implicitly given by its stop
+   * times.
+   */
+  @Override
+  public boolean removeNode(final ICoreNode node) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Not supported, the stops of the graph are implicitly given by its stop
+   * times.
+   */
+  @Override
+  public boolean removeStop(final TransitStop<ICoreNode> stop) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Reverses the graph. That is, all directed edges switch source with
+   * destination.<br>
+   * <br>
+   * The implementation runs in constant time, edge reversal is only made
+   * implicit.
+   */
+  @Override
+  public void reverse() {
+    mIsReversed = !mIsReversed;
+  }
+
+  @Override
+  public int size() {
+    return mAmountOfStopTimes * NODES_PER_STOP_TIME;
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    final StringJoiner sj = new StringJoiner(", ", getClass().getSimpleName() + "[", "]");
+    sj.add("nodes=" + size());
+    if (mIsIndexBuilt) {
+      sj.add("edges=" + mAmountOfEdges);
+    }
+    sj.add("stops=" + mAmountOfStops);
+    return sj.toString();
+  }
+
+  /**
+   * Creates an edge instance which connects the given nodes.
+   *
+   * @param id          The unique ID of the edge
+   * @param source      The physical source of the edge, i.e. the source in the
+   *                    not reversed graph
+   * @param destination The physical destination of the edge, i.e. the
+   *                    destination in the not reversed graph
+   * @return The created edge
+   */
+  private ICoreEdge<ICoreNode> createEdge(final int id, final ICoreNode source, final ICoreNode destination) {
+    final double cost = ((TransitNode) destination).getTime() - ((TransitNode) source).getTime();
+    final TransitEdge<ICoreNode> edge = new TransitEdge<>(id, source, destination, cost);
+    edge.setReversedProvider(this);
+    return edge;
+  }
+
+  /**
+   * Creates the node instance with the given ID.
+   *
+   * @param id The ID of the node, must be contained in the graph
+   * @return The created node
+   */
+  private TransitNode createNode(final int id) {
+    final int stopTime = id / NODES_PER_STOP_TIME;
+    final int stop = mStopOfStopTime[stopTime];
+    final int time;
+    switch (id % NODES_PER_STOP_TIME) {
+      case NODE_ARRIVAL:
+        time = mArrTimes[stopTime];
+        break;
+      case NODE_DEPARTURE:
+        time = mDepTimes[stopTime];
+        break;
+      case NODE_TRANSFER:
+        time = getTransferTime(stopTime);
+        break;
+      default:
+        throw new AssertionError();
+    }
+    return new TransitNode(id, mStopLatitudes[stop], mStopLongitudes[stop], time);
+  }
+
+  /**
+   * Ensures that the index was built and is consistent with the stop times.
+   *
+   * @throws IllegalStateException If the index was not built, see
+   *                               {@link #buildIndex()}
+   */
+  private void ensureIndex() throws IllegalStateException {
+    if (!mIsIndexBuilt) {
+      throw new IllegalStateException("The index must be built before accessing edges");
+    }
+  }
+
+  /**
+   * Gets the ID of the edge with the given offset belonging to the given stop
+   * time.
+   *
+   * @param stopTime The stop time the edge belongs to
+   * @param offset   The offset of the edge, for example
+   *                 {@link #EDGE_ARR_TO_DEP}
+   * @return The ID of the edge
+   */
+  private int getEdgeId(final int stopTime, final int offset) {
+    return stopTime * EDGES_PER_STOP_TIME + offset;
+  }
+
+  /**
+   * Gets the ID of the edge which connects a transfer node to the departure
+   * node at the given position in {@link #mTransferDepTargets}.
+   *
+   * @param position The position of the departure node
+   * @return The ID of the edge
+   */
+  private int getEdgeIdTransferToDep(final int position) {
+    return mAmountOfStopTimes * EDGES_PER_STOP_TIME + position;
+  }
+
+  /**
+   * Gets the ID of the node with the given offset belonging to the given stop
+   * time.
+   *
+   * @param stopTime The stop time the node belongs to
+   * @param offset   The offset of the node, for example {@link #NODE_ARRIVAL}
+   * @return The ID of the node
+   */
+  private int getNodeId(final int stopTime, final int offset) {
+    return stopTime * NODES_PER_STOP_TIME + offset;
+  }
+
+  /**
+   * Gets a stream of all edges that have the given node as destination, not
+   * respecting the reversed state of the graph.
+   *
+   * @param destination The destination to get incoming edges for
+   * @return A stream of all incoming edges
+   */
+  private Stream<ICoreEdge<ICoreNode>> getPhysicalIncomingEdges(final ICoreNode destination) {
+    final int id = destination.getId();
+    final int stopTime = id / NODES_PER_STOP_TIME;
+    final Stream.Builder<ICoreEdge<ICoreNode>> edges = Stream.builder();
+    switch (id % NODES_PER_STOP_TIME) {
+      case NODE_ARRIVAL:
+        // From the departure node of the previous stop time of the trip
+        if (stopTime > 0 && !mTripEnds.get(stopTime - 1)) {
+          final int source = getNodeId(stopTime - 1, NODE_DEPARTURE);
+          edges.add(createEdge(getEdgeId(stopTime - 1, EDGE_DEP_TO_NEXT_ARR), createNode(source), destination));
+        }
+        break;
+      case NODE_DEPARTURE:
+        edges.add(createEdge(getEdgeId(stopTime, EDGE_ARR_TO_DEP), createNode(getNodeId(stopTime, NODE_ARRIVAL)),
+            destination));
+        // From the previous transfer node at the stop
+        final int rank = mPrevTransferRank[stopTime];
+        if (rank != -1) {
+          final int source = getNodeId(mTransferOrder[rank], NODE_TRANSFER);
+          for (int position = mTransferDepOffsets[rank]; position < mTransferDepOffsets[rank + 1]; position++) {
+            if (mTransferDepTargets[position] == stopTime) {
+              edges.add(createEdge(getEdgeIdTransferToDep(position), createNode(source), destination));
+              break;
+            }
+          }
+        }
+        break;
+      case NODE_TRANSFER:
+        edges.add(createEdge(getEdgeId(stopTime, EDGE_ARR_TO_TRANSFER),
+            createNode(getNodeId(stopTime, NODE_ARRIVAL)), destination));
+        // From the previous transfer node in the waiting chain of the stop
+        final int transferRank = mTransferRank[stopTime];
+        if (transferRank > mStopTransferOffsets[mStopOfStopTime[stopTime]]) {
+          final int previous = mTransferOrder[transferRank - 1];
+          edges.add(createEdge(getEdgeId(previous, EDGE_TRANSFER_TO_NEXT_TRANSFER),
+              createNode(getNodeId(previous, NODE_TRANSFER)), destination));
+        }
+        break;
+      default:
+        throw new AssertionError();
+    }
+    return edges.build();
+  }
+
+  /**
+   * Gets a stream of all edges that have the given node as source, not
+   * respecting the reversed state of the graph.
+   *
+   * @param source The source to get outgoing edges for
+   * @return A stream of all outgoing edges
+   */
+  private Stream<ICoreEdge<ICoreNode>> getPhysicalOutgoingEdges(final ICoreNode source) {
+    final int id = source.getId();
+    final int stopTime = id / NODES_PER_STOP_TIME;
+    final Stream.Builder<ICoreEdge<ICoreNode>> edges = Stream.builder();
+    switch (id % NODES_PER_STOP_TIME) {
+      case NODE_ARRIVAL:
+        edges.add(createEdge(getEdgeId(stopTime, EDGE_ARR_TO_DEP), source,
+            createNode(getNodeId(stopTime, NODE_DEPARTURE))));
+        edges.add(createEdge(getEdgeId(stopTime, EDGE_ARR_TO_TRANSFER), source,
+            createNode(getNodeId(stopTime, NODE_TRANSFER))));
+        break;
+      case NODE_DEPARTURE:
+        // To the arrival node of the next stop time of the trip
+        if (!mTripEnds.get(stopTime)) {
+          edges.add(createEdge(getEdgeId(stopTime, EDGE_DEP_TO_NEXT_ARR), source,
+              createNode(getNodeId(stopTime + 1, NODE_ARRIVAL))));
+        }
+        break;
+      case NODE_TRANSFER:
+        // To the next transfer node in the waiting chain of the stop
+        final int rank = mTransferRank[stopTime];
+        if (rank + 1 < mStopTransferOffsets[mStopOfStopTime[stopTime] + 1]) {
+          final int next = mTransferOrder[rank + 1];
+          edges.add(createEdge(getEdgeId(stopTime, EDGE_TRANSFER_TO_NEXT_TRANSFER), source,
+              createNode(getNodeId(next, NODE_TRANSFER))));
+        }
+        // To all departure nodes for which this is the previous transfer node
+        for (int position = mTransferDepOffsets[rank]; position < mTransferDepOffsets[rank + 1]; position++) {
+          final int destination = getNodeId(mTransferDepTargets[position], NODE_DEPARTURE);
+          edges.add(createEdge(getEdgeIdTransferToDep(position), source, createNode(destination)));
+        }
+        break;
+      default:
+        throw new AssertionError();
+    }
+    return edges.build();
+  }
+
+  /**
+   * Gets the time of the transfer node of the given stop time.
+   *
+   * @param stopTime The stop time in question
+   * @return The time of the transfer node, in seconds since midnight
+   */
+  private int getTransferTime(final int stopTime) {
+    return mArrTimes[stopTime] + mTransferDelay;
+  }
+}
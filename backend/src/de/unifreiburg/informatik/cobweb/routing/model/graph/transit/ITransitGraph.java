@@ -0,0 +1,23 @@
+package de.unifreiburg.informatik.cobweb.routing.model.graph.transit;
+
+import java.io.Serializable;
+
+import de.unifreiburg.informatik.cobweb.routing.model.graph.IEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.IGetNodeById;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.IGraph;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.IHasId;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.INode;
+
+/**
+ * Interface for graphs that model a transit network. Offers access to nodes by
+ * their ID and to the stops of the network. Transit graphs are serializable
+ * in order to be cached.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ * @param <N> Type of the nodes
+ * @param <E> Type of the edges
+ */
+public interface ITransitGraph<N extends INode & IHasId, E extends IEdge<N>>
+    extends IGraph<N, E>, IGetNodeById<N>, IHasTransitStops<N>, Serializable {
+  // Grouping interface, does not contain own methods at the moment
+}
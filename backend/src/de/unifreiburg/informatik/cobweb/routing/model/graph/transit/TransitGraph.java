@@ -15,7 +15,6 @@ import org.eclipse.collections.impl.factory.primitive.IntObjectMaps;
 
 import de.unifreiburg.informatik.cobweb.routing.model.graph.AGraph;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.IEdge;
-import de.unifreiburg.informatik.cobweb.routing.model.graph.IGetNodeById;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.IGraph;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.IHasId;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.INode;
@@ -41,7 +40,7 @@ import de.unifreiburg.informatik.cobweb.util.collections.IdMap;
  */
 public final class TransitGraph<N extends INode & IHasId & ISpatial & Serializable,
     E extends IEdge<N> & IReversedConsumer & Serializable> extends AGraph<N, E>
-    implements IGetNodeById<N>, IReversedProvider, ITransitIdGenerator, IHasTransitStops<N> {
+    implements ITransitGraph<N, E>, IReversedProvider, ITransitIdGenerator {
   /**
    * The serial version UID.
    */
@@ -0,0 +1,223 @@
+package de.unifreiburg.informatik.cobweb.routing.parsing.gtfs;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.onebusaway.gtfs.model.Agency;
+import org.onebusaway.gtfs.model.FareAttribute;
+import org.onebusaway.gtfs.model.FareRule;
+import org.onebusaway.gtfs.model.FeedInfo;
+import org.onebusaway.gtfs.model.Frequency;
+import org.onebusaway.gtfs.model.Pathway;
+import org.onebusaway.gtfs.model.Route;
+import org.onebusaway.gtfs.model.ServiceCalendar;
+import org.onebusaway.gtfs.model.ServiceCalendarDate;
+import org.onebusaway.gtfs.model.ShapePoint;
+import org.onebusaway.gtfs.model.Stop;
+import org.onebusaway.gtfs.model.StopTime;
+import org.onebusaway.gtfs.model.Transfer;
+import org.onebusaway.gtfs.model.Trip;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.unifreiburg.informatik.cobweb.config.IRoutingConfigProvider;
+import de.unifreiburg.informatik.cobweb.parsing.RecentHandler;
+import de.unifreiburg.informatik.cobweb.parsing.gtfs.GtfsEntityForwarder;
+import de.unifreiburg.informatik.cobweb.parsing.gtfs.IGtfsFileHandler;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.transit.CompactTransitGraph;
+
+/**
+ * Implementation of an {@link IGtfsFileHandler} which fills a
+ * {@link CompactTransitGraph} out of the given GTFS data.<br>
+ * <br>
+ * Models the same realistic time expanded network as
+ * {@link GtfsRealisticTimeExpandedHandler}, but stop times are only buffered in
+ * primitive columns and passed to the graph trip by trip, no node or edge
+ * instances are created.<br>
+ * <br>
+ * The graph can be cached, then the handler will only parse files that provide
+ * data the graph does not already contain. Stops are identified by their ID,
+ * trips of later rounds visit the stops already contained in the graph.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class GtfsCompactTimeExpandedHandler extends GtfsEntityForwarder implements IGtfsFileHandler {
+  /**
+   * Logger used for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(GtfsCompactTimeExpandedHandler.class);
+
+  /**
+   * The graph to insert the parsed trips into.
+   */
+  private final CompactTransitGraph mGraph;
+  /**
+   * The handler to use which determines the GTFS files that contain more recent
+   * or new data than the data already stored in the graph. Will only be used if
+   * the configuration has set the use of a graph cache.
+   */
+  private final RecentHandler mRecentHandler;
+  /**
+   * Buffer for the stop times of the current file.
+   */
+  private final StopTimeBuffer mStopTimes;
+  /**
+   * Whether or not a graph cache is to be used. This determines if GTFS files
+   * should be filtered by a {@link RecentHandler} or not.
+   */
+  private final boolean mUseGraphCache;
+
+  /**
+   * Creates a new GTFS compact time expanded handler which operates on the
+   * given graph using the given configuration.
+   *
+   * @param graph  The graph to insert trips into
+   * @param config Configuration provider which provides graph cache
+   *               information
+   * @throws IOException If an I/O exception occurred while reading the graph
+   *                     cache information
+   */
+  public GtfsCompactTimeExpandedHandler(final CompactTransitGraph graph, final IRoutingConfigProvider config)
+      throws IOException {
+    mGraph = graph;
+    mStopTimes = new StopTimeBuffer();
+
+    mUseGraphCache = config.useGraphCache();
+    if (mUseGraphCache) {
+      mRecentHandler = new RecentHandler(config.getGraphCacheInfo());
+    } else {
+      mRecentHandler = null;
+    }
+  }
+
+  @Override
+  public void complete() throws IOException {
+    mStopTimes.sortByTrip();
+
+    // Pass the stops to the graph, it reuses stops added in previous rounds
+    final int[] graphStops = new int[mStopTimes.getAmountOfStops()];
+    for (int stop = 0; stop < graphStops.length; stop++) {
+      graphStops[stop] = mGraph.addStop(mStopTimes.getStopId(stop).toString(), mStopTimes.getStopLatitude(stop),
+          mStopTimes.getStopLongitude(stop));
+    }
+
+    // Pass the trips, sorted by their sequence, to the graph
+    int maxTripLength = 0;
+    for (int trip = 0; trip < mStopTimes.getAmountOfTrips(); trip++) {
+      maxTripLength = Math.max(maxTripLength, mStopTimes.getTripEnd(trip) - mStopTimes.getTripBegin(trip));
+    }
+    final int[] stops = new int[maxTripLength];
+    final int[] arrTimes = new int[maxTripLength];
+    final int[] depTimes = new int[maxTripLength];
+    for (int trip = 0; trip < mStopTimes.getAmountOfTrips(); trip++) {
+      final int begin = mStopTimes.getTripBegin(trip);
+      final int end = mStopTimes.getTripEnd(trip);
+      for (int stopTime = begin; stopTime < end; stopTime++) {
+        stops[stopTime - begin] = graphStops[mStopTimes.getStop(stopTime)];
+        arrTimes[stopTime - begin] = mStopTimes.getArrTime(stopTime);
+        depTimes[stopTime - begin] = mStopTimes.getDepTime(stopTime);
+      }
+      mGraph.addTrip(stops, arrTimes, depTimes, end - begin);
+    }
+    mGraph.buildIndex();
+
+    // Prepare for possible next round
+    mStopTimes.clear();
+
+    // Update cache information
+    if (mUseGraphCache) {
+      mRecentHandler.updateInfo();
+    }
+  }
+
+  @Override
+  public void handle(final Agency agency) {
+    // Ignore, not interested in
+  }
+
+  @Override
+  public void handle(final FareAttribute fareAttribute) {
+    // Ignore, not interested in
+  }
+
+  @Override
+  public void handle(final FareRule fareRule) {
+    // Ignore, not interested in
+  }
+
+  @Override
+  public void handle(final FeedInfo feedInfo) {
+    // Ignore, not interested in
+  }
+
+  /**
+   * Not supported, trips are only added with the stop times given explicitly
+   * by the feed. Feeds that repeat trips by frequencies are rejected, since
+   * their repetitions would silently be missing from the graph.
+   *
+   * @throws UnsupportedOperationException Always, naming the trip that is
+   *                                       repeated by the frequency
+   */
+  @Override
+  public void handle(final Frequency frequency) throws UnsupportedOperationException {
+    throw new UnsupportedOperationException(
+        "Trips repeated by frequencies are not supported, found frequency of trip " + frequency.getTrip().getId());
+  }
+
+  @Override
+  public void handle(final Pathway pathway) {
+    // Ignore, not interested in
+  }
+
+  @Override
+  public void handle(final Route route) {
+    // Ignore, not interested in
+  }
+
+  @Override
+  public void handle(final ServiceCalendar serviceCalendar) {
+    // Ignore, not interested in
+  }
+
+  @Override
+  public void handle(final ServiceCalendarDate serviceCalendarDate) {
+    // Ignore, not interested in
+  }
+
+  @Override
+  public void handle(final ShapePoint shapePoint) {
+    // Ignore, not interested in
+  }
+
+  @Override
+  public void handle(final Stop stop) {
+    // Stops are added lazily when they are visited by a stop time
+  }
+
+  @Override
+  public void handle(final StopTime stopTime) {
+    mStopTimes.add(stopTime);
+  }
+
+  @Override
+  public void handle(final Transfer transfer) {
+    // Ignore, not interested in
+  }
+
+  @Override
+  public void handle(final Trip trip) {
+    // Ignore, not interested in
+  }
+
+  @Override
+  public boolean isAcceptingFile(final Path file) {
+    // Check if the files content is not already included in the cache
+    if (mUseGraphCache && !mRecentHandler.isAcceptingFile(file)) {
+      return false;
+    }
+
+    // Accept all GTFS files
+    LOGGER.info("Accepts file {}", file);
+    return true;
+  }
+}
@@ -2,16 +2,13 @@ package de.unifreiburg.informatik.cobweb.routing.parsing.gtfs;
 
 import java.io.IOException;
 import java.nio.file.Path;
-import java.util.Collections;
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
-import org.eclipse.collections.api.map.MutableMap;
-import org.eclipse.collections.impl.block.factory.Comparators;
-import org.eclipse.collections.impl.factory.Maps;
 import org.eclipse.collections.impl.list.mutable.FastList;
 import org.onebusaway.gtfs.model.Agency;
-import org.onebusaway.gtfs.model.AgencyAndId;
 import org.onebusaway.gtfs.model.FareAttribute;
 import org.onebusaway.gtfs.model.FareRule;
 import org.onebusaway.gtfs.model.FeedInfo;
@@ -41,7 +38,6 @@ import de.unifreiburg.informatik.cobweb.routing.model.graph.ISpatial;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.transit.IHasTransitStops;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.transit.NodeTime;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.transit.TransitStop;
-import de.unifreiburg.informatik.cobweb.util.collections.CollectionUtil;
 
 /**
  * Implementation of an {@link IGtfsFileHandler} which constructs a realistic
@@ -81,26 +77,13 @@ public final class GtfsRealisticTimeExpandedHandler<N extends INode & IHasId & I
    */
   private final RecentHandler mRecentHandler;
   /**
-   * Map connecting stop IDs to arrival nodes.
+   * Buffer for the stop times of the current file.
    */
-  private final MutableMap<AgencyAndId, List<NodeTime<N>>> mStopToArrNodes;
-  /**
-   * Map connecting stop IDs to departure nodes.
-   */
-  private final MutableMap<AgencyAndId, List<NodeTime<N>>> mStopToDepNodes;
-  /**
-   * Map connecting stop IDs to transfer nodes.
-   */
-  private final MutableMap<AgencyAndId, List<NodeTime<N>>> mStopToTransferNodes;
+  private final StopTimeBuffer mStopTimes;
   /**
    * Transfer time in seconds.
    */
   private final int mTransferDelay;
-  /**
-   * Map connecting trip IDs to stop nodes in the sequence of the trip.
-   */
-  private final MutableMap<AgencyAndId, List<TripStopNodes<N>>> mTripToSequence;
-
   /**
    * Whether or not a graph cache is to be used. This determines if GTFS files
    * should be filtered by a {@link RecentHandler} or not.
@@ -127,10 +110,7 @@ public final class GtfsRealisticTimeExpandedHandler<N extends INode & IHasId & I
     // TODO Improve amount of GTFS data actually used for transit graph creation
     mGraph = graph;
     mBuilder = builder;
-    mTripToSequence = Maps.mutable.empty();
-    mStopToTransferNodes = Maps.mutable.empty();
-    mStopToDepNodes = Maps.mutable.empty();
-    mStopToArrNodes = Maps.mutable.empty();
+    mStopTimes = new StopTimeBuffer();
     mTransferDelay = config.getTransferDelay();
 
     mUseGraphCache = config.useGraphCache();
@@ -143,101 +123,62 @@ public final class GtfsRealisticTimeExpandedHandler<N extends INode & IHasId & I
 
   @Override
   public void complete() throws IOException {
-    // Process the sequences and connect departure to next arrival nodes
-    mTripToSequence.forEachValue(sequence -> {
-      final Iterator<TripStopNodes<N>> sequenceIter = sequence.iterator();
-      // Some faulty feeds do not start with a fixed sequence index. In that
-      // case we need to skip until we found a fully connected sequence.
-      TripStopNodes<N> tripStopNodes = null;
-      while (tripStopNodes == null) {
-        tripStopNodes = sequenceIter.next();
-      }
-      N lastDepNode = tripStopNodes.getDepNode();
-      int lastDepTime = tripStopNodes.getDepTime();
-
-      while (sequenceIter.hasNext()) {
-        tripStopNodes = sequenceIter.next();
-        // The standard allows gaps in-between the external sequence indices. We
-        // do not, skip null entries.
-        if (tripStopNodes == null) {
-          continue;
-        }
-
-        // Connect last departure to current arrival node
-        final N arrNode = tripStopNodes.getArrNode();
-        final int arrTime = tripStopNodes.getArrTime();
-        final E depToNextArrEdge = mBuilder.buildEdge(lastDepNode, arrNode, arrTime - lastDepTime);
-        mGraph.addEdge(depToNextArrEdge);
+    mStopTimes.sortByTrip();
+    final int amountOfStopTimes = mStopTimes.size();
+
+    // Build the nodes of all stop times and connect arrival with departure and
+    // arrival with transfer nodes
+    final List<N> arrNodes = FastList.newList(amountOfStopTimes);
+    final List<N> depNodes = FastList.newList(amountOfStopTimes);
+    final List<N> transferNodes = FastList.newList(amountOfStopTimes);
+    for (int stopTime = 0; stopTime < amountOfStopTimes; stopTime++) {
+      final int stop = mStopTimes.getStop(stopTime);
+      final float latitude = mStopTimes.getStopLatitude(stop);
+      final float longitude = mStopTimes.getStopLongitude(stop);
+      final int arrTime = mStopTimes.getArrTime(stopTime);
+      final int depTime = mStopTimes.getDepTime(stopTime);
+
+      final N arrNode = mBuilder.buildNode(latitude, longitude, arrTime);
+      final N depNode = mBuilder.buildNode(latitude, longitude, depTime);
+      final N transferNode = mBuilder.buildNode(latitude, longitude, arrTime + mTransferDelay);
+      mGraph.addNode(arrNode);
+      mGraph.addNode(depNode);
+      mGraph.addNode(transferNode);
+      arrNodes.add(arrNode);
+      depNodes.add(depNode);
+      transferNodes.add(transferNode);
+
+      mGraph.addEdge(mBuilder.buildEdge(arrNode, depNode, depTime - arrTime));
+      mGraph.addEdge(mBuilder.buildEdge(arrNode, transferNode, mTransferDelay));
+    }
 
-        // Prepare next round
-        lastDepNode = tripStopNodes.getDepNode();
-        lastDepTime = tripStopNodes.getDepTime();
-      }
-    });
-
-    // Process the transfer nodes and connect them to each other
-    mStopToTransferNodes.forEachValue(transferNodes -> {
-      // Sort the transfer nodes ascending in time
-      transferNodes.sort(Comparators.naturalOrder());
-
-      // Connect them in that order
-      final Iterator<NodeTime<N>> transferNodeTimeIter = transferNodes.iterator();
-      NodeTime<N> transferNodeTime = transferNodeTimeIter.next();
-      N lastTransferNode = transferNodeTime.getNode();
-      int lastTransferTime = transferNodeTime.getTime();
-
-      while (transferNodeTimeIter.hasNext()) {
-        transferNodeTime = transferNodeTimeIter.next();
-        final N currentTransferNode = transferNodeTime.getNode();
-        final int currentTransferTime = transferNodeTime.getTime();
-        final E transferConnectionEdge =
-            mBuilder.buildEdge(lastTransferNode, currentTransferNode, currentTransferTime - lastTransferTime);
-        mGraph.addEdge(transferConnectionEdge);
-
-        // Prepare next round
-        lastTransferNode = transferNodeTime.getNode();
-        lastTransferTime = transferNodeTime.getTime();
-      }
-    });
-
-    // Process the departure nodes and connect them to their previous transfer
-    // node
-    final NodeTime<N> nodeTimeNeedle = new NodeTime<>(null, 0);
-    mStopToDepNodes.forEachKeyValue((stopId, depNodes) -> {
-      final List<NodeTime<N>> transferNodes = mStopToTransferNodes.get(stopId);
-      depNodes.forEach(depNode -> {
-        // Retrieve the previous transfer node
-        // Note that this requires that the transfer nodes were sorted
-        // before
-        final int depTime = depNode.getTime();
-        nodeTimeNeedle.setTime(depTime);
-        final int indexOfPrevious = -1 * Collections.binarySearch(transferNodes, nodeTimeNeedle) - 2;
-        // Check if there is a previous transfer node
-        if (indexOfPrevious < 0) {
-          return;
-        }
-        final NodeTime<N> transferNode = transferNodes.get(indexOfPrevious);
-
-        // Connect the transfer to the departure node
-        final E transferToDepEdge =
-            mBuilder.buildEdge(transferNode.getNode(), depNode.getNode(), depTime - transferNode.getTime());
-        mGraph.addEdge(transferToDepEdge);
-      });
-    });
-
-    // Process the arrival nodes and pass them to the graph
-    mStopToArrNodes.forEachValue(arrivalNodes -> {
-      Collections.sort(arrivalNodes);
-      final N anyNode = arrivalNodes.stream().findAny().get().getNode();
-      final TransitStop<N> stop = new TransitStop<>(arrivalNodes, anyNode.getLatitude(), anyNode.getLongitude());
-      mGraph.addStop(stop);
-    });
+    // Trips and stops are processed independently of each other on the
+    // fork-join pool. Neither the graph nor the builder are thread-safe, edges
+    // are thus collected in thread-local buffers and inserted afterwards.
+    final List<PendingEdge<N>> tripEdges = IntStream.range(0, mStopTimes.getAmountOfTrips()).parallel()
+        .collect(FastList::new, (edgeBuffer, trip) -> connectSequence(edgeBuffer, trip, arrNodes, depNodes),
+            List::addAll);
+
+    final int[] stopOffsets = new int[mStopTimes.getAmountOfStops() + 1];
+    final int[] stopTimesByStop = mStopTimes.groupByStop(stopOffsets);
+    final List<PendingEdge<N>> stopEdges = IntStream.range(0, mStopTimes.getAmountOfStops()).parallel()
+        .collect(FastList::new, (edgeBuffer, stop) -> {
+          final int[] stopTimes = Arrays.copyOfRange(stopTimesByStop, stopOffsets[stop], stopOffsets[stop + 1]);
+          connectStop(edgeBuffer, stopTimes, depNodes, transferNodes);
+        }, List::addAll);
+    final List<TransitStop<N>> stops = IntStream.range(0, mStopTimes.getAmountOfStops()).parallel()
+        .mapToObj(stop -> {
+          final int[] stopTimes = Arrays.copyOfRange(stopTimesByStop, stopOffsets[stop], stopOffsets[stop + 1]);
+          return createStop(stop, stopTimes, arrNodes);
+        }).collect(Collectors.toList());
+
+    // Merge the buffers into the graph
+    tripEdges.forEach(this::insertEdge);
+    stopEdges.forEach(this::insertEdge);
+    stops.forEach(mGraph::addStop);
 
     // Prepare for possible next round
-    mStopToArrNodes.clear();
-    mStopToDepNodes.clear();
-    mStopToTransferNodes.clear();
-    mTripToSequence.clear();
+    mStopTimes.clear();
 
     // Update cache information
     if (mUseGraphCache) {
@@ -306,54 +247,8 @@ public final class GtfsRealisticTimeExpandedHandler<N extends INode & IHasId & I
 
   @Override
   public void handle(final StopTime stopTime) {
-    final Stop stop = stopTime.getStop();
-    final AgencyAndId stopId = stop.getId();
-    final AgencyAndId tripId = stopTime.getTrip().getId();
-
-    final int arrTime = stopTime.getArrivalTime();
-    final int depTime = stopTime.getDepartureTime();
-    final int transferTime = arrTime + mTransferDelay;
-
-    // Build nodes
-    final N arrNode = mBuilder.buildNode((float) stop.getLat(), (float) stop.getLon(), arrTime);
-    final N depNode = mBuilder.buildNode((float) stop.getLat(), (float) stop.getLon(), depTime);
-    final N transferNode = mBuilder.buildNode((float) stop.getLat(), (float) stop.getLon(), transferTime);
-    mGraph.addNode(arrNode);
-    mGraph.addNode(depNode);
-    mGraph.addNode(transferNode);
-
-    // Connect arrival with departure and arrival with transfer
-    final E arrToDepEdge = mBuilder.buildEdge(arrNode, depNode, depTime - arrTime);
-    final E arrToTransferEdge = mBuilder.buildEdge(arrNode, transferNode, mTransferDelay);
-    mGraph.addEdge(arrToDepEdge);
-    mGraph.addEdge(arrToTransferEdge);
-
-    // Remember the sequence to later connect departure with next arrival
-    final int sequenceIndex = stopTime.getStopSequence() - 1;
-    final TripStopNodes<N> tripStopNodes = new TripStopNodes<>(arrNode, depNode, arrTime, depTime);
-
-    final List<TripStopNodes<N>> sequence = mTripToSequence.getIfAbsentPut(tripId, FastList::new);
-    if (sequence.size() <= sequenceIndex) {
-      // Fill with null values until the index is available
-      CollectionUtil.increaseCapacity(sequence, sequenceIndex + 1);
-    }
-    sequence.set(sequenceIndex, tripStopNodes);
-
-    // Remember transfer node sequence per stop to connect them later
-    final List<NodeTime<N>> transferNodes = mStopToTransferNodes.getIfAbsentPut(stopId, FastList::new);
-    transferNodes.add(new NodeTime<>(transferNode, transferTime));
-
-    // Remember departure nodes per stop to connect them later to their previous
-    // transfer node
-    final List<NodeTime<N>> departureNodes = mStopToDepNodes.getIfAbsentPut(stopId, FastList::new);
-    departureNodes.add(new NodeTime<>(depNode, depTime));
-
-    // Remember arrival nodes per stop to pass them later to the graph for
-    // retrieval of the correct node corresponding to a query time
-    final List<NodeTime<N>> arrivalNodes = mStopToArrNodes.getIfAbsentPut(stopId, FastList::new);
-    arrivalNodes.add(new NodeTime<>(arrNode, arrTime));
-
-    // TODO Implement
+    // Remember the stop time, nodes and edges are built on completion
+    mStopTimes.add(stopTime);
   }
 
   @Override
@@ -383,4 +278,115 @@ public final class GtfsRealisticTimeExpandedHandler<N extends INode & IHasId & I
     LOGGER.info("Accepts file {}", file);
     return true;
   }
+
+  /**
+   * Connects the departure nodes of the given trip to the arrival nodes of the
+   * next stop in the sequence of the trip.
+   *
+   * @param edgeBuffer The buffer to add the resulting edges to
+   * @param trip       The index of the trip in the stop time buffer
+   * @param arrNodes   The arrival node of each stop time
+   * @param depNodes   The departure node of each stop time
+   */
+  private void connectSequence(final List<PendingEdge<N>> edgeBuffer, final int trip, final List<N> arrNodes,
+      final List<N> depNodes) {
+    // Stop times of a trip are contiguous and ordered by their sequence. The
+    // standard allows gaps in-between the external sequence indices, they are
+    // ignored.
+    final int end = mStopTimes.getTripEnd(trip);
+    for (int stopTime = mStopTimes.getTripBegin(trip) + 1; stopTime < end; stopTime++) {
+      final int cost = mStopTimes.getArrTime(stopTime) - mStopTimes.getDepTime(stopTime - 1);
+      edgeBuffer.add(new PendingEdge<>(depNodes.get(stopTime - 1), arrNodes.get(stopTime), cost));
+    }
+  }
+
+  /**
+   * Connects the transfer nodes of the given stop times at a stop to each
+   * other, ascending in time. Also connects the departure nodes to their
+   * previous transfer node.
+   *
+   * @param edgeBuffer    The buffer to add the resulting edges to
+   * @param stopTimes     The indices of all stop times at the stop
+   * @param depNodes      The departure node of each stop time
+   * @param transferNodes The transfer node of each stop time
+   */
+  private void connectStop(final List<PendingEdge<N>> edgeBuffer, final int[] stopTimes, final List<N> depNodes,
+      final List<N> transferNodes) {
+    // Sort the transfer nodes ascending in time
+    final long[] timeToStopTime = new long[stopTimes.length];
+    for (int i = 0; i < stopTimes.length; i++) {
+      final int transferTime = mStopTimes.getArrTime(stopTimes[i]) + mTransferDelay;
+      timeToStopTime[i] = StopTimeBuffer.pack(transferTime, stopTimes[i]);
+    }
+    Arrays.sort(timeToStopTime);
+
+    // Connect them in that order
+    for (int i = 1; i < timeToStopTime.length; i++) {
+      final N lastTransferNode = transferNodes.get(StopTimeBuffer.unpackValue(timeToStopTime[i - 1]));
+      final N currentTransferNode = transferNodes.get(StopTimeBuffer.unpackValue(timeToStopTime[i]));
+      final int cost = StopTimeBuffer.unpackKey(timeToStopTime[i]) - StopTimeBuffer.unpackKey(timeToStopTime[i - 1]);
+      edgeBuffer.add(new PendingEdge<>(lastTransferNode, currentTransferNode, cost));
+    }
+
+    // Connect each departure node to the last transfer node strictly before
+    for (final int stopTime : stopTimes) {
+      final int depTime = mStopTimes.getDepTime(stopTime);
+      int low = 0;
+      int high = timeToStopTime.length - 1;
+      int indexOfPrevious = -1;
+      while (low <= high) {
+        final int middle = (low + high) >>> 1;
+        if (StopTimeBuffer.unpackKey(timeToStopTime[middle]) < depTime) {
+          indexOfPrevious = middle;
+          low = middle + 1;
+        } else {
+          high = middle - 1;
+        }
+      }
+      // Check if there is a previous transfer node
+      if (indexOfPrevious == -1) {
+        continue;
+      }
+      final long transfer = timeToStopTime[indexOfPrevious];
+      final N transferNode = transferNodes.get(StopTimeBuffer.unpackValue(transfer));
+      final int cost = depTime - StopTimeBuffer.unpackKey(transfer);
+      edgeBuffer.add(new PendingEdge<>(transferNode, depNodes.get(stopTime), cost));
+    }
+  }
+
+  /**
+   * Creates the transit stop for the given stop out of the arrival nodes of its
+   * stop times.
+   *
+   * @param stop      The index of the stop in the stop time buffer
+   * @param stopTimes The indices of all stop times at the stop
+   * @param arrNodes  The arrival node of each stop time
+   * @return The created transit stop
+   */
+  private TransitStop<N> createStop(final int stop, final int[] stopTimes, final List<N> arrNodes) {
+    // Sort the arrival nodes for retrieval of the correct node corresponding to
+    // a query time
+    final long[] timeToStopTime = new long[stopTimes.length];
+    for (int i = 0; i < stopTimes.length; i++) {
+      timeToStopTime[i] = StopTimeBuffer.pack(mStopTimes.getArrTime(stopTimes[i]), stopTimes[i]);
+    }
+    Arrays.sort(timeToStopTime);
+
+    final List<NodeTime<N>> arrivalNodes = FastList.newList(stopTimes.length);
+    for (final long arrival : timeToStopTime) {
+      arrivalNodes.add(new NodeTime<>(arrNodes.get(StopTimeBuffer.unpackValue(arrival)),
+          StopTimeBuffer.unpackKey(arrival)));
+    }
+    return new TransitStop<>(arrivalNodes, mStopTimes.getStopLatitude(stop), mStopTimes.getStopLongitude(stop));
+  }
+
+  /**
+   * Builds the given pending edge using the builder and inserts it into the
+   * graph.
+   *
+   * @param pendingEdge The edge to insert
+   */
+  private void insertEdge(final PendingEdge<N> pendingEdge) {
+    mGraph.addEdge(mBuilder.buildEdge(pendingEdge.getSource(), pendingEdge.getDestination(), pendingEdge.getCost()));
+  }
 }
@@ -3,8 +3,8 @@ package de.unifreiburg.informatik.cobweb.routing.parsing.gtfs;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Collection;
-import java.util.Iterator;
-import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.eclipse.collections.api.map.MutableMap;
 import org.eclipse.collections.impl.factory.Maps;
@@ -30,12 +30,10 @@ import de.unifreiburg.informatik.cobweb.parsing.gtfs.IGtfsFileHandler;
 import de.unifreiburg.informatik.cobweb.routing.model.timetable.Connection;
 import de.unifreiburg.informatik.cobweb.routing.model.timetable.Footpath;
 import de.unifreiburg.informatik.cobweb.routing.model.timetable.ITimetableIdGenerator;
-import de.unifreiburg.informatik.cobweb.routing.model.timetable.SequenceStopTime;
 import de.unifreiburg.informatik.cobweb.routing.model.timetable.Stop;
 import de.unifreiburg.informatik.cobweb.routing.model.timetable.Timetable;
 import de.unifreiburg.informatik.cobweb.routing.model.timetable.Trip;
 import de.unifreiburg.informatik.cobweb.util.RoutingUtil;
-import de.unifreiburg.informatik.cobweb.util.collections.CollectionUtil;
 
 /**
  * Implementation of an {@link IGtfsFileHandler} which constructs a timetable
@@ -61,6 +59,10 @@ public final class GtfsTimetableHandler extends GtfsEntityForwarder implements I
    * The generator to use for ID generation.
    */
   private final ITimetableIdGenerator mIdGenerator;
+  /**
+   * Buffer for the stop times of the current file.
+   */
+  private final StopTimeBuffer mStopTimes;
   /**
    * The timetable to fill with data.
    */
@@ -69,10 +71,6 @@ public final class GtfsTimetableHandler extends GtfsEntityForwarder implements I
    * A collection of all transfers to add.
    */
   private final Collection<Transfer> mTransfers;
-  /**
-   * Map connecting trip IDs to sequence stop times in the sequence of the trip.
-   */
-  private final MutableMap<AgencyAndId, List<SequenceStopTime>> mTripToSequence;
 
   /**
    * Creates a new handler that fills the given table.
@@ -85,80 +83,37 @@ public final class GtfsTimetableHandler extends GtfsEntityForwarder implements I
     mIdGenerator = idGenerator;
     mExtIdToStop = Maps.mutable.empty();
     mExtIdToTrip = Maps.mutable.empty();
-    mTripToSequence = Maps.mutable.empty();
+    mStopTimes = new StopTimeBuffer();
     mTransfers = FastList.newList();
   }
 
   @Override
   public void complete() throws IOException {
-    // Approximate amount of connections
-    final int amountOfConnections = mTripToSequence.stream().mapToInt(list -> list.size() - 1).sum();
-    final Collection<Connection> connections = FastList.newList(amountOfConnections);
-
-    // Process the sequences and create connections
-    mTripToSequence.forEachKeyValue((extTripId, sequence) -> {
-      final Trip trip = mExtIdToTrip.get(extTripId);
-
-      final Iterator<SequenceStopTime> sequenceIter = sequence.iterator();
-      // Some faulty feeds do not start with a fixed sequence index. In that
-      // case we need to skip until we found a fully connected sequence.
-      SequenceStopTime sequenceStopTime = null;
-      while (sequenceStopTime == null) {
-        sequenceStopTime = sequenceIter.next();
-      }
-
-      int lastDepStopId = mExtIdToStop.get(sequenceStopTime.getStopId()).getId();
-      int lastDepTime = sequenceStopTime.getDepTime();
-
-      int sequenceIndex = 0;
-      while (sequenceIter.hasNext()) {
-        sequenceStopTime = sequenceIter.next();
-        // The standard allows gaps in-between the external sequence indices. We
-        // do not, skip null entries.
-        if (sequenceStopTime == null) {
-          continue;
-        }
-
-        // Connect last departure to current arrival
-        final int arrStopId = mExtIdToStop.get(sequenceStopTime.getStopId()).getId();
-
-        final int arrTime = sequenceStopTime.getArrTime();
-
-        final Connection connection =
-            new Connection(trip.getId(), sequenceIndex, lastDepStopId, arrStopId, lastDepTime, arrTime);
-        sequenceIndex++;
-        connections.add(connection);
-        trip.addConnectionToSequence(connection);
-
-        // Prepare next round
-        lastDepStopId = arrStopId;
-        lastDepTime = sequenceStopTime.getDepTime();
-      }
-    });
+    // Trips are processed independently of each other on the fork-join pool.
+    // Connections are collected in thread-local buffers and added to the table
+    // afterwards.
+    mStopTimes.sortByTrip();
+    final int[] stopToTableId = new int[mStopTimes.getAmountOfStops()];
+    for (int stop = 0; stop < stopToTableId.length; stop++) {
+      stopToTableId[stop] = mExtIdToStop.get(mStopTimes.getStopId(stop)).getId();
+    }
+    final Collection<Connection> connections = IntStream.range(0, mStopTimes.getAmountOfTrips()).parallel()
+        .collect(FastList::new, (connectionBuffer, trip) -> connectSequence(connectionBuffer, trip, stopToTableId),
+            Collection::addAll);
 
     // Add all connections to the table
     mTable.addConnections(connections);
 
     // Construct and add footpaths out of transfers
-    mTransfers.forEach(transfer -> {
-      final Stop fromStop = mExtIdToStop.get(transfer.getFromStop().getId());
-      final Stop toStop = mExtIdToStop.get(transfer.getToStop().getId());
-
-      // Ignore transfer time of data-set, as they do not obey the triangle
-      // inequality. Instead, approximate the transfer time by simulated
-      // straight-line walking.
-      final double distance = RoutingUtil.distanceEquiRect(fromStop, toStop);
-      final double speed = RoutingUtil.getWalkingSpeed();
-      // Ensure the duration is strictly greater than zero
-      final int duration = (int) Math.max(1, RoutingUtil.travelTime(distance, speed));
-      mTable.addFootpath(new Footpath(fromStop.getId(), toStop.getId(), duration));
-    });
+    final Collection<Footpath> footpaths =
+        mTransfers.parallelStream().map(this::createFootpath).collect(Collectors.toCollection(FastList::new));
+    footpaths.forEach(mTable::addFootpath);
 
     // Prepare for possible next round
     mTransfers.clear();
     mExtIdToStop.clear();
     mExtIdToTrip.clear();
-    mTripToSequence.clear();
+    mStopTimes.clear();
   }
 
   @Override
@@ -240,17 +195,8 @@ public final class GtfsTimetableHandler extends GtfsEntityForwarder implements I
 
   @Override
   public void handle(final StopTime stopTime) {
-    // Remember the sequence to later create the connections
-    final int sequenceIndex = stopTime.getStopSequence() - 1;
-    final SequenceStopTime sequenceStopTime =
-        new SequenceStopTime(stopTime.getArrivalTime(), stopTime.getDepartureTime(), stopTime.getStop().getId());
-
-    final List<SequenceStopTime> sequence = mTripToSequence.getIfAbsentPut(stopTime.getTrip().getId(), FastList::new);
-    if (sequence.size() <= sequenceIndex) {
-      // Fill with null values until the index is available
-      CollectionUtil.increaseCapacity(sequence, sequenceIndex + 1);
-    }
-    sequence.set(sequenceIndex, sequenceStopTime);
+    // Remember the stop time, connections are created on completion
+    mStopTimes.add(stopTime);
   }
 
   @Override
@@ -272,4 +218,54 @@ public final class GtfsTimetableHandler extends GtfsEntityForwarder implements I
     return true;
   }
 
+  /**
+   * Creates the connections of the given trip out of its sequence.
+   *
+   * @param connectionBuffer The buffer to add the resulting connections to
+   * @param trip             The index of the trip in the stop time buffer
+   * @param stopToTableId    The ID in the timetable of each stop in the stop
+   *                         time buffer
+   */
+  private void connectSequence(final Collection<Connection> connectionBuffer, final int trip,
+      final int[] stopToTableId) {
+    final Trip tableTrip = mExtIdToTrip.get(mStopTimes.getTripId(trip));
+
+    // Stop times of a trip are contiguous and ordered by their sequence. The
+    // standard allows gaps in-between the external sequence indices, they are
+    // ignored.
+    final int begin = mStopTimes.getTripBegin(trip);
+    final int end = mStopTimes.getTripEnd(trip);
+    for (int stopTime = begin + 1; stopTime < end; stopTime++) {
+      // Connect last departure to current arrival
+      final int depStopId = stopToTableId[mStopTimes.getStop(stopTime - 1)];
+      final int arrStopId = stopToTableId[mStopTimes.getStop(stopTime)];
+      final int depTime = mStopTimes.getDepTime(stopTime - 1);
+      final int arrTime = mStopTimes.getArrTime(stopTime);
+
+      final Connection connection =
+          new Connection(tableTrip.getId(), stopTime - begin - 1, depStopId, arrStopId, depTime, arrTime);
+      connectionBuffer.add(connection);
+      tableTrip.addConnectionToSequence(connection);
+    }
+  }
+
+  /**
+   * Creates a footpath out of the given transfer.
+   *
+   * @param transfer The transfer to create a footpath for
+   * @return The created footpath
+   */
+  private Footpath createFootpath(final Transfer transfer) {
+    final Stop fromStop = mExtIdToStop.get(transfer.getFromStop().getId());
+    final Stop toStop = mExtIdToStop.get(transfer.getToStop().getId());
+
+    // Ignore transfer time of data-set, as they do not obey the triangle
+    // inequality. Instead, approximate the transfer time by simulated
+    // straight-line walking.
+    final double distance = RoutingUtil.distanceEquiRect(fromStop, toStop);
+    final double speed = RoutingUtil.getWalkingSpeed();
+    // Ensure the duration is strictly greater than zero
+    final int duration = (int) Math.max(1, RoutingUtil.travelTime(distance, speed));
+    return new Footpath(fromStop.getId(), toStop.getId(), duration);
+  }
 }
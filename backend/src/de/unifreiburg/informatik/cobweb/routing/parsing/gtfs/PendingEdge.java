@@ -0,0 +1,66 @@
+package de.unifreiburg.informatik.cobweb.routing.parsing.gtfs;
+
+import de.unifreiburg.informatik.cobweb.routing.model.graph.INode;
+
+/**
+ * POJO containing the data of an edge that is yet to be built and inserted into
+ * a graph. Used to collect edges in parallel before they are built and
+ * inserted sequentially.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ * @param <N> Type of the nodes
+ */
+public final class PendingEdge<N extends INode> {
+  /**
+   * The cost of the edge.
+   */
+  private final double mCost;
+  /**
+   * The destination of the edge.
+   */
+  private final N mDestination;
+  /**
+   * The source of the edge.
+   */
+  private final N mSource;
+
+  /**
+   * Creates a new pending edge with the given data.
+   *
+   * @param source      The source of the edge
+   * @param destination The destination of the edge
+   * @param cost        The cost of the edge
+   */
+  public PendingEdge(final N source, final N destination, final double cost) {
+    mSource = source;
+    mDestination = destination;
+    mCost = cost;
+  }
+
+  /**
+   * Gets the cost of the edge.
+   *
+   * @return The cost to get
+   */
+  public double getCost() {
+    return mCost;
+  }
+
+  /**
+   * Gets the destination of the edge.
+   *
+   * @return The destination to get
+   */
+  public N getDestination() {
+    return mDestination;
+  }
+
+  /**
+   * Gets the source of the edge.
+   *
+   * @return The source to get
+   */
+  public N getSource() {
+    return mSource;
+  }
+}
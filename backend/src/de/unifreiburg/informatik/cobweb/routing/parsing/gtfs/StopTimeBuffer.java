@@ -0,0 +1,431 @@
+package de.unifreiburg.informatik.cobweb.routing.parsing.gtfs;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.collections.api.map.primitive.MutableObjectIntMap;
+import org.eclipse.collections.impl.factory.primitive.ObjectIntMaps;
+import org.eclipse.collections.impl.list.mutable.FastList;
+import org.onebusaway.gtfs.model.AgencyAndId;
+import org.onebusaway.gtfs.model.Stop;
+import org.onebusaway.gtfs.model.StopTime;
+
+/**
+ * Buffer for GTFS stop times which stores them in primitive columns instead of
+ * keeping the entities. Stops and trips are interned to dense indices on the
+ * fly, starting at <code>0</code>.<br>
+ * <br>
+ * Stop times can be added in any order, use {@link #sortByTrip()} to group them
+ * by trip and order them by their sequence. Stop times are identified by their
+ * index in the buffer, which changes when sorting.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class StopTimeBuffer {
+  /**
+   * The initial capacity of the columns.
+   */
+  private static final int INITIAL_CAPACITY = 16;
+
+  /**
+   * Packs the given key and value into a single <code>long</code> such that
+   * sorting the packed values sorts ascending by key first, then by value.
+   *
+   * @param key   The key to pack
+   * @param value The value to pack, must not be negative
+   * @return The packed key and value
+   */
+  public static long pack(final int key, final int value) {
+    return ((long) key << Integer.SIZE) | value;
+  }
+
+  /**
+   * Unpacks the key of a value packed by {@link #pack(int, int)}.
+   *
+   * @param packed The packed value
+   * @return The key of the packed value
+   */
+  public static int unpackKey(final long packed) {
+    return (int) (packed >> Integer.SIZE);
+  }
+
+  /**
+   * Unpacks the value of a value packed by {@link #pack(int, int)}.
+   *
+   * @param packed The packed value
+   * @return The value of the packed value
+   */
+  public static int unpackValue(final long packed) {
+    return (int) packed;
+  }
+
+  /**
+   * The arrival time of each stop time, in seconds since midnight.
+   */
+  private int[] mArrTimes;
+  /**
+   * The departure time of each stop time, in seconds since midnight.
+   */
+  private int[] mDepTimes;
+  /**
+   * Map connecting external stop IDs to their index.
+   */
+  private final MutableObjectIntMap<AgencyAndId> mExtIdToStop;
+  /**
+   * Map connecting external trip IDs to their index.
+   */
+  private final MutableObjectIntMap<AgencyAndId> mExtIdToTrip;
+  /**
+   * The sequence index of each stop time within its trip.
+   */
+  private int[] mSequenceIndices;
+  /**
+   * The amount of buffered stop times.
+   */
+  private int mSize;
+  /**
+   * The external ID of each stop, indexed by the stop index.
+   */
+  private final List<AgencyAndId> mStopIds;
+  /**
+   * The latitude of each stop, indexed by the stop index.
+   */
+  private float[] mStopLatitudes;
+  /**
+   * The longitude of each stop, indexed by the stop index.
+   */
+  private float[] mStopLongitudes;
+  /**
+   * The stop index of each stop time.
+   */
+  private int[] mStops;
+  /**
+   * The external ID of each trip, indexed by the trip index.
+   */
+  private final List<AgencyAndId> mTripIds;
+  /**
+   * The offsets of the trips after sorting, the stop times of trip
+   * <code>i</code> are at the indices <code>[mTripOffsets[i],
+   * mTripOffsets[i + 1])</code>. <code>null</code> if not sorted.
+   */
+  private int[] mTripOffsets;
+  /**
+   * The trip index of each stop time.
+   */
+  private int[] mTrips;
+
+  /**
+   * Creates a new initially empty stop time buffer.
+   */
+  public StopTimeBuffer() {
+    mExtIdToStop = ObjectIntMaps.mutable.empty();
+    mExtIdToTrip = ObjectIntMaps.mutable.empty();
+    mStopIds = FastList.newList();
+    mTripIds = FastList.newList();
+    clear();
+  }
+
+  /**
+   * Adds the given stop time to the buffer. Invalidates the sorting done by
+   * {@link #sortByTrip()}.
+   *
+   * @param stopTime The stop time to add
+   */
+  public void add(final StopTime stopTime) {
+    if (mSize == mTrips.length) {
+      final int capacity = mSize * 2;
+      mTrips = Arrays.copyOf(mTrips, capacity);
+      mSequenceIndices = Arrays.copyOf(mSequenceIndices, capacity);
+      mStops = Arrays.copyOf(mStops, capacity);
+      mArrTimes = Arrays.copyOf(mArrTimes, capacity);
+      mDepTimes = Arrays.copyOf(mDepTimes, capacity);
+    }
+
+    mTrips[mSize] = mExtIdToTrip.getIfAbsentPutWithKey(stopTime.getTrip().getId(), this::internTrip);
+    mSequenceIndices[mSize] = stopTime.getStopSequence();
+    mStops[mSize] = internStop(stopTime.getStop());
+    mArrTimes[mSize] = stopTime.getArrivalTime();
+    mDepTimes[mSize] = stopTime.getDepartureTime();
+    mSize++;
+    mTripOffsets = null;
+  }
+
+  /**
+   * Removes all stop times, stops and trips from the buffer and releases the
+   * memory of the columns.
+   */
+  public void clear() {
+    mExtIdToStop.clear();
+    mExtIdToTrip.clear();
+    mStopIds.clear();
+    mTripIds.clear();
+
+    mTrips = new int[INITIAL_CAPACITY];
+    mSequenceIndices = new int[INITIAL_CAPACITY];
+    mStops = new int[INITIAL_CAPACITY];
+    mArrTimes = new int[INITIAL_CAPACITY];
+    mDepTimes = new int[INITIAL_CAPACITY];
+    mStopLatitudes = new float[INITIAL_CAPACITY];
+    mStopLongitudes = new float[INITIAL_CAPACITY];
+    mSize = 0;
+    mTripOffsets = null;
+  }
+
+  /**
+   * Gets the amount of distinct stops visited by the buffered stop times.
+   *
+   * @return The amount of stops
+   */
+  public int getAmountOfStops() {
+    return mStopIds.size();
+  }
+
+  /**
+   * Gets the amount of distinct trips of the buffered stop times.
+   *
+   * @return The amount of trips
+   */
+  public int getAmountOfTrips() {
+    return mTripIds.size();
+  }
+
+  /**
+   * Gets the arrival time of the given stop time.
+   *
+   * @param stopTime The index of the stop time
+   * @return The arrival time in seconds since midnight
+   */
+  public int getArrTime(final int stopTime) {
+    return mArrTimes[stopTime];
+  }
+
+  /**
+   * Gets the departure time of the given stop time.
+   *
+   * @param stopTime The index of the stop time
+   * @return The departure time in seconds since midnight
+   */
+  public int getDepTime(final int stopTime) {
+    return mDepTimes[stopTime];
+  }
+
+  /**
+   * Gets the index of the stop the given stop time is at.
+   *
+   * @param stopTime The index of the stop time
+   * @return The index of the stop
+   */
+  public int getStop(final int stopTime) {
+    return mStops[stopTime];
+  }
+
+  /**
+   * Gets the external ID of the given stop.
+   *
+   * @param stop The index of the stop
+   * @return The external ID of the stop
+   */
+  public AgencyAndId getStopId(final int stop) {
+    return mStopIds.get(stop);
+  }
+
+  /**
+   * Gets the latitude of the given stop.
+   *
+   * @param stop The index of the stop
+   * @return The latitude of the stop, in degrees
+   */
+  public float getStopLatitude(final int stop) {
+    return mStopLatitudes[stop];
+  }
+
+  /**
+   * Gets the longitude of the given stop.
+   *
+   * @param stop The index of the stop
+   * @return The longitude of the stop, in degrees
+   */
+  public float getStopLongitude(final int stop) {
+    return mStopLongitudes[stop];
+  }
+
+  /**
+   * Gets the index of the first stop time of the given trip. Requires that the
+   * buffer was sorted by {@link #sortByTrip()}.
+   *
+   * @param trip The index of the trip
+   * @return The index of the first stop time of the trip
+   */
+  public int getTripBegin(final int trip) {
+    ensureSorted();
+    return mTripOffsets[trip];
+  }
+
+  /**
+   * Gets the index after the last stop time of the given trip. Requires that
+   * the buffer was sorted by {@link #sortByTrip()}.
+   *
+   * @param trip The index of the trip
+   * @return The index after the last stop time of the trip, exclusive
+   */
+  public int getTripEnd(final int trip) {
+    ensureSorted();
+    return mTripOffsets[trip + 1];
+  }
+
+  /**
+   * Gets the external ID of the given trip.
+   *
+   * @param trip The index of the trip
+   * @return The external ID of the trip
+   */
+  public AgencyAndId getTripId(final int trip) {
+    return mTripIds.get(trip);
+  }
+
+  /**
+   * Groups the buffered stop times by the stop they are at.
+   *
+   * @param stopOffsets Array of size {@link #getAmountOfStops()}
+   *                    <code>+ 1</code> which will be filled with the offsets
+   *                    of the stops. The stop times of stop <code>i</code>
+   *                    are at the positions <code>[stopOffsets[i],
+   *                    stopOffsets[i + 1])</code> of the result.
+   * @return The indices of all stop times, grouped by stop
+   */
+  public int[] groupByStop(final int[] stopOffsets) {
+    return StopTimeBuffer.groupBy(mStops, mSize, getAmountOfStops(), stopOffsets);
+  }
+
+  /**
+   * Gets the amount of buffered stop times.
+   *
+   * @return The amount of stop times
+   */
+  public int size() {
+    return mSize;
+  }
+
+  /**
+   * Sorts the buffered stop times such that the stop times of each trip are
+   * contiguous and ordered by their sequence. Gaps in-between the sequence
+   * indices are allowed.
+   */
+  public void sortByTrip() {
+    final int amountOfTrips = getAmountOfTrips();
+    final int[] tripOffsets = new int[amountOfTrips + 1];
+    final int[] order = StopTimeBuffer.groupBy(mTrips, mSize, amountOfTrips, tripOffsets);
+
+    // Order the stop times of each trip by their sequence
+    final long[] sequenceToStopTime = new long[mSize];
+    for (int position = 0; position < mSize; position++) {
+      sequenceToStopTime[position] = StopTimeBuffer.pack(mSequenceIndices[order[position]], order[position]);
+    }
+    for (int trip = 0; trip < amountOfTrips; trip++) {
+      Arrays.sort(sequenceToStopTime, tripOffsets[trip], tripOffsets[trip + 1]);
+    }
+    for (int position = 0; position < mSize; position++) {
+      order[position] = StopTimeBuffer.unpackValue(sequenceToStopTime[position]);
+    }
+
+    mTrips = StopTimeBuffer.permute(mTrips, order, mSize);
+    mSequenceIndices = StopTimeBuffer.permute(mSequenceIndices, order, mSize);
+    mStops = StopTimeBuffer.permute(mStops, order, mSize);
+    mArrTimes = StopTimeBuffer.permute(mArrTimes, order, mSize);
+    mDepTimes = StopTimeBuffer.permute(mDepTimes, order, mSize);
+    mTripOffsets = tripOffsets;
+  }
+
+  /**
+   * Groups the elements by the given keys using a counting sort.
+   *
+   * @param keys         The key of each element
+   * @param size         The amount of elements
+   * @param amountOfKeys The amount of distinct keys, keys must be in
+   *                     <code>[0, amountOfKeys)</code>
+   * @param offsets      Array of size <code>amountOfKeys + 1</code> which will
+   *                     be filled with the offsets of each key in the result
+   * @return The indices of all elements, grouped by their key
+   */
+  private static int[] groupBy(final int[] keys, final int size, final int amountOfKeys, final int[] offsets) {
+    Arrays.fill(offsets, 0);
+    for (int i = 0; i < size; i++) {
+      offsets[keys[i] + 1]++;
+    }
+    for (int key = 0; key < amountOfKeys; key++) {
+      offsets[key + 1] += offsets[key];
+    }
+    final int[] order = new int[size];
+    final int[] insertPositions = Arrays.copyOf(offsets, amountOfKeys);
+    for (int i = 0; i < size; i++) {
+      order[insertPositions[keys[i]]++] = i;
+    }
+    return order;
+  }
+
+  /**
+   * Creates a permutation of the given column.
+   *
+   * @param column The column to permute
+   * @param order  The order to use, the element at position <code>i</code> of
+   *               the result is the element at <code>order[i]</code> of the
+   *               column
+   * @param size   The amount of elements in the column
+   * @return The permuted column
+   */
+  private static int[] permute(final int[] column, final int[] order, final int size) {
+    final int[] result = new int[Math.max(size, INITIAL_CAPACITY)];
+    for (int i = 0; i < size; i++) {
+      result[i] = column[order[i]];
+    }
+    return result;
+  }
+
+  /**
+   * Ensures that the buffer was sorted by {@link #sortByTrip()}.
+   *
+   * @throws IllegalStateException If the buffer is not sorted
+   */
+  private void ensureSorted() throws IllegalStateException {
+    if (mTripOffsets == null) {
+      throw new IllegalStateException("The buffer must be sorted by trip first");
+    }
+  }
+
+  /**
+   * Gets the index of the given stop, assigns a new index if the stop was not
+   * seen before.
+   *
+   * @param stop The stop to intern
+   * @return The index of the stop
+   */
+  private int internStop(final Stop stop) {
+    final int index = mExtIdToStop.getIfAbsent(stop.getId(), -1);
+    if (index != -1) {
+      return index;
+    }
+
+    final int newIndex = mStopIds.size();
+    if (newIndex == mStopLatitudes.length) {
+      final int capacity = newIndex * 2;
+      mStopLatitudes = Arrays.copyOf(mStopLatitudes, capacity);
+      mStopLongitudes = Arrays.copyOf(mStopLongitudes, capacity);
+    }
+    mStopLatitudes[newIndex] = (float) stop.getLat();
+    mStopLongitudes[newIndex] = (float) stop.getLon();
+    mStopIds.add(stop.getId());
+    mExtIdToStop.put(stop.getId(), newIndex);
+    return newIndex;
+  }
+
+  /**
+   * Assigns a new index to the trip with the given external ID.
+   *
+   * @param tripId The external ID of the trip
+   * @return The index of the trip
+   */
+  private int internTrip(final AgencyAndId tripId) {
+    mTripIds.add(tripId);
+    return mTripIds.size() - 1;
+  }
+}
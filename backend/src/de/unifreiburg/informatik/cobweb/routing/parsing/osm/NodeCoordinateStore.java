@@ -0,0 +1,160 @@
+package de.unifreiburg.informatik.cobweb.routing.parsing.osm;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+/**
+ * Store which connects a fixed set of OSM node IDs to their coordinates. The
+ * data is stored off-heap in direct buffers, hence it does not occupy heap
+ * memory and does not strain the garbage collector.<br>
+ * <br>
+ * The IDs are given at construction and sorted, nodes are found by a binary
+ * search. Coordinates are initially unknown and set using
+ * {@link #put(long, float, float)}.<br>
+ * <br>
+ * The store is not safe to use by multiple threads.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+final class NodeCoordinateStore {
+  /**
+   * The value of coordinates that are not known yet.
+   */
+  private static final float UNKNOWN_COORDINATE = Float.NaN;
+
+  /**
+   * The amount of nodes whose coordinates are known.
+   */
+  private int mAmountOfResolved;
+  /**
+   * The IDs of the nodes, sorted ascending.
+   */
+  private final LongBuffer mIds;
+  /**
+   * The latitudes of the nodes, aligned with {@link #mIds}.
+   */
+  private final FloatBuffer mLatitudes;
+  /**
+   * The longitudes of the nodes, aligned with {@link #mIds}.
+   */
+  private final FloatBuffer mLongitudes;
+
+  /**
+   * Creates a new store for the given OSM node IDs whose coordinates are not
+   * known yet.
+   *
+   * @param osmIds The unique OSM IDs of the nodes, the array is not modified
+   */
+  NodeCoordinateStore(final long[] osmIds) {
+    final long[] sortedIds = osmIds.clone();
+    Arrays.parallelSort(sortedIds);
+
+    mIds = ByteBuffer.allocateDirect(sortedIds.length * Long.BYTES).asLongBuffer();
+    mIds.put(sortedIds);
+    mLatitudes = ByteBuffer.allocateDirect(sortedIds.length * Float.BYTES).asFloatBuffer();
+    mLongitudes = ByteBuffer.allocateDirect(sortedIds.length * Float.BYTES).asFloatBuffer();
+    for (int i = 0; i < sortedIds.length; i++) {
+      mLatitudes.put(i, UNKNOWN_COORDINATE);
+      mLongitudes.put(i, UNKNOWN_COORDINATE);
+    }
+  }
+
+  /**
+   * Gets the amount of nodes whose coordinates are known.
+   *
+   * @return The amount of nodes with known coordinates
+   */
+  int getAmountOfResolved() {
+    return mAmountOfResolved;
+  }
+
+  /**
+   * Gets the index of the given node in the store.
+   *
+   * @param osmId The OSM ID of the node
+   * @return The index of the node or <code>-1</code> if the store does not
+   *         contain the node
+   */
+  int getIndex(final long osmId) {
+    int low = 0;
+    int high = mIds.capacity() - 1;
+    while (low <= high) {
+      final int middle = (low + high) >>> 1;
+      final long value = mIds.get(middle);
+      if (value < osmId) {
+        low = middle + 1;
+      } else if (value > osmId) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Gets the latitude of the node at the given index.
+   *
+   * @param index The index of the node, as returned by {@link #getIndex(long)}
+   * @return The latitude of the node, only valid if
+   *         {@link #isResolved(int)}
+   */
+  float getLatitude(final int index) {
+    return mLatitudes.get(index);
+  }
+
+  /**
+   * Gets the longitude of the node at the given index.
+   *
+   * @param index The index of the node, as returned by {@link #getIndex(long)}
+   * @return The longitude of the node, only valid if
+   *         {@link #isResolved(int)}
+   */
+  float getLongitude(final int index) {
+    return mLongitudes.get(index);
+  }
+
+  /**
+   * Whether the coordinates of the node at the given index are known.
+   *
+   * @param index The index of the node, as returned by {@link #getIndex(long)}
+   * @return <code>True</code> if the coordinates are known, <code>false</code>
+   *         otherwise
+   */
+  boolean isResolved(final int index) {
+    return !Float.isNaN(mLatitudes.get(index));
+  }
+
+  /**
+   * Sets the coordinates of the given node if the store contains it.
+   *
+   * @param osmId     The OSM ID of the node
+   * @param latitude  The latitude of the node
+   * @param longitude The longitude of the node
+   * @return <code>True</code> if the store contains the node,
+   *         <code>false</code> otherwise
+   */
+  boolean put(final long osmId, final float latitude, final float longitude) {
+    final int index = getIndex(osmId);
+    if (index == -1) {
+      return false;
+    }
+    if (!isResolved(index)) {
+      mAmountOfResolved++;
+    }
+    mLatitudes.put(index, latitude);
+    mLongitudes.put(index, longitude);
+    return true;
+  }
+
+  /**
+   * Gets the amount of nodes in the store.
+   *
+   * @return The amount of nodes
+   */
+  int size() {
+    return mIds.capacity();
+  }
+}
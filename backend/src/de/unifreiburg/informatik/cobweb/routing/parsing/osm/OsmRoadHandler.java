@@ -2,11 +2,16 @@ package de.unifreiburg.informatik.cobweb.routing.parsing.osm;
 
 import java.io.IOException;
 import java.nio.file.Path;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
+import org.eclipse.collections.api.list.primitive.LongList;
+import org.eclipse.collections.api.list.primitive.MutableIntList;
+import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.eclipse.collections.impl.factory.primitive.IntLists;
+import org.eclipse.collections.impl.factory.primitive.LongLists;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,14 +46,21 @@ import de.unifreiburg.informatik.cobweb.routing.model.graph.ISpatial;
  * fetched from a given database. The node and edge instances itself are created
  * using a given builder.<br>
  * <br>
- * <i>Implementation note</i>: In order to ensure that, when requesting spatial
- * data, no nodes are lost, it must be ensured that node mappings are already in
- * the database when pushing the requests. The current implementation ensures
- * this by giving both a buffer of the same size, always flushing both at the
- * same time. First the mappings, directly after the spatial data requests.
- * Therefore, it is also important that node and way ID mappings are kept in
- * different buffer. Else it would not be ensured that the ID mapping buffer is
- * full exactly when the spatial data buffer is full.
+ * If configured, the handler requests a second pass over each file instead,
+ * see {@link #isRequestingAnotherPass()}. The first pass builds the graph from
+ * the ways, the second pass resolves the coordinates of their nodes from the
+ * OSM nodes of the file, using a {@link NodeCoordinateStore}. Only nodes that
+ * are not contained in the file are then requested from the database.<br>
+ * <br>
+ * <i>Implementation note</i>: The handler does not access the database while
+ * handling entities. Nodes and ways are only collected with their IDs and
+ * pushed to the database in {@link #complete()}, where the spatial data of all
+ * collected nodes is then requested in bulk, unless resolved by a second
+ * pass. By that, graph building can run
+ * concurrently to a handler which pushes the OSM entities to the database, as
+ * long as that handler completes before, see
+ * {@link de.unifreiburg.informatik.cobweb.parsing.osm.OsmHandlerForwarder
+ * OsmHandlerForwarder}.
  *
  * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
  * @param <N> Type of the node
@@ -58,37 +70,24 @@ import de.unifreiburg.informatik.cobweb.routing.model.graph.ISpatial;
 public final class OsmRoadHandler<N extends INode & IHasId & ISpatial, E extends IEdge<N> & IHasId,
     G extends IGraph<N, E> & IGetNodeById<N>> implements IOsmFileHandler {
   /**
-   * The size of the buffers. If a buffer reaches the limit the buffered
-   * entities are submitted to the database.
+   * The size of the batches in which ID mappings and spatial data requests are
+   * submitted to the database.
    */
-  private static final int BUFFER_SIZE = 100_000;
+  private static final int BATCH_SIZE = 100_000;
   /**
    * Logger used for logging.
    */
   private static final Logger LOGGER = LoggerFactory.getLogger(OsmRoadHandler.class);
-  /**
-   * The buffer to use for buffering node ID mappings which are to be submitted
-   * to the database. The buffer is used to avoid submitting data for every
-   * mapping in a single connection to the database.
-   */
-  private final IdMapping[] mBufferedNodeMappings;
-  /**
-   * The buffer to use for buffering OSM node IDs for which spatial node data is
-   * to be requested from the database. The buffer is used to avoid requesting
-   * data for every node in a single connection to the database.
-   */
-  private final long[] mBufferedSpatialRequests;
-  /**
-   * The buffer to use for buffering way ID mappings which are to be submitted
-   * to the database. The buffer is used to avoid submitting data for every
-   * mapping in a single connection to the database.
-   */
-  private final IdMapping[] mBufferedWayMappings;
   /**
    * Builder to use for constructing edges and nodes that are to be inserted
    * into the graph.
    */
   private final IOsmRoadBuilder<N, E> mBuilder;
+  /**
+   * The store collecting the coordinates of the nodes during the second pass
+   * over a file or <code>null</code> if no second pass is in progress.
+   */
+  private NodeCoordinateStore mCoordinates;
   /**
    * The database used for requesting spatial node data.
    */
@@ -102,37 +101,40 @@ public final class OsmRoadHandler<N extends INode & IHasId & ISpatial, E extends
    */
   private final G mGraph;
   /**
-   * The current index to use in the node mapping buffer. It points to the index
-   * where the next node mapping can be inserted. So it is always one greater
-   * than the index of the last inserted node mapping. By that it represents the
-   * current size of the buffer.
+   * The internal IDs of the collected nodes, aligned with
+   * {@link #mNodeIdsOsm}.
    */
-  private int mNodeMappingBufferIndex;
+  private final MutableIntList mNodeIds;
+  /**
+   * The OSM IDs of the nodes that were added to the graph since the last
+   * completion. Their ID mappings and spatial data are not submitted yet.
+   */
+  private final MutableLongList mNodeIdsOsm;
   /**
    * The handler to use which determines the OSM files that contain more recent
    * or new data than the data already stored in the graph. Will only be used if
    * the configuration has set the use of a graph cache.
    */
   private final RecentHandler mRecentHandler;
-  /**
-   * The current index to use in the OSM node ID buffer. It points to the index
-   * where the next node ID can be inserted. So it is always one greater than
-   * the index of the last inserted node ID. By that it represents the current
-   * size of the buffer.
-   */
-  private int mSpatialRequestBufferIndex;
   /**
    * Whether or not a graph cache is to be used. This determines if OSM files
    * should be filtered by a {@link RecentHandler} or not.
    */
   private final boolean mUseGraphCache;
   /**
-   * The current index to use in the way mapping buffer. It points to the index
-   * where the next way mapping can be inserted. So it is always one greater
-   * than the index of the last inserted way mapping. By that it represents the
-   * current size of the buffer.
+   * Whether or not node coordinates are resolved by a second pass over the
+   * files instead of requesting them from the database.
+   */
+  private final boolean mUseTwoPassImport;
+  /**
+   * The internal IDs of the collected ways, aligned with {@link #mWayIdsOsm}.
    */
-  private int mWayMappingBufferIndex;
+  private final MutableIntList mWayIds;
+  /**
+   * The OSM IDs of the ways that were added to the graph since the last
+   * completion. Their ID mappings are not submitted yet.
+   */
+  private final MutableLongList mWayIdsOsm;
 
   /**
    * Creates a new OSM road handler which operates on the given graph using the
@@ -147,8 +149,8 @@ public final class OsmRoadHandler<N extends INode & IHasId & ISpatial, E extends
    * @param builder  Builder to use for constructing edges and nodes that are to
    *                 be inserted into the graph.
    * @param database The database used for requesting spatial node data.
-   * @param config   Configuration provider which provides graph cache
-   *                 information
+   * @param config   Configuration provider which provides graph cache and
+   *                 import information
    * @throws IOException If an I/O exception occurred while reading the graph
    *                     cache information
    */
@@ -158,12 +160,12 @@ public final class OsmRoadHandler<N extends INode & IHasId & ISpatial, E extends
     mFilter = filter;
     mBuilder = builder;
     mDatabase = database;
-    // It is important that both buffer have the same size to ensure
-    // mappings are inside the database when requesting spatial data
-    mBufferedNodeMappings = new IdMapping[BUFFER_SIZE];
-    mBufferedWayMappings = new IdMapping[BUFFER_SIZE];
-    mBufferedSpatialRequests = new long[BUFFER_SIZE];
+    mNodeIds = IntLists.mutable.empty();
+    mNodeIdsOsm = LongLists.mutable.empty();
+    mWayIds = IntLists.mutable.empty();
+    mWayIdsOsm = LongLists.mutable.empty();
 
+    mUseTwoPassImport = config.useTwoPassRoadImport();
     mUseGraphCache = config.useGraphCache();
     if (mUseGraphCache) {
       mRecentHandler = new RecentHandler(config.getGraphCacheInfo());
@@ -178,15 +180,29 @@ public final class OsmRoadHandler<N extends INode & IHasId & ISpatial, E extends
    */
   @Override
   public void complete() throws IOException {
-    // Submit buffers, note that the order is important
-    submitBufferedNodeMappings();
-    submitBufferedWayMappings();
-    submitBufferedSpatialRequests();
+    if (mCoordinates != null) {
+      // The second pass is finished, all nodes of the file were streamed
+      insertResolvedCoordinates();
+      mCoordinates = null;
+      finishFile();
+      return;
+    }
 
-    mBuilder.complete();
-    if (mUseGraphCache) {
-      mRecentHandler.updateInfo();
+    // Submit collected mappings
+    submitMappings(mNodeIdsOsm, mNodeIds, true);
+    submitMappings(mWayIdsOsm, mWayIds, false);
+    mWayIdsOsm.clear();
+    mWayIds.clear();
+
+    if (mUseTwoPassImport && !mNodeIdsOsm.isEmpty()) {
+      // Resolve coordinates in a second pass, see isRequestingAnotherPass()
+      mCoordinates = new NodeCoordinateStore(mNodeIdsOsm.toArray());
+      return;
     }
+
+    // The node mappings must be in the database before requesting spatial data
+    submitSpatialRequests(mNodeIdsOsm);
+    finishFile();
   }
 
   /*
@@ -208,8 +224,11 @@ public final class OsmRoadHandler<N extends INode & IHasId & ISpatial, E extends
    */
   @Override
   public void handle(final OsmNode node) throws IOException {
-    // Ignore, we read nodes from ways instead since we do not want to read in
-    // unnecessary nodes
+    // Only collect coordinates in the second pass, else ignore. We read nodes
+    // from ways instead since we do not want to read in unnecessary nodes
+    if (mCoordinates != null) {
+      mCoordinates.put(node.getId(), (float) node.getLatitude(), (float) node.getLongitude());
+    }
   }
 
   /*
@@ -231,8 +250,9 @@ public final class OsmRoadHandler<N extends INode & IHasId & ISpatial, E extends
    */
   @Override
   public void handle(final OsmWay way) throws IOException {
-    // Return if filter does not accept
-    if (!mFilter.filter(way)) {
+    // Return if in the second pass, ways were handled already, or if filter
+    // does not accept
+    if (mCoordinates != null || !mFilter.filter(way)) {
       return;
     }
 
@@ -251,12 +271,10 @@ public final class OsmRoadHandler<N extends INode & IHasId & ISpatial, E extends
       final Node destinationNode = new Node(destinationIdOsm, 0.0, 0.0);
       final N node = mBuilder.buildNode(destinationNode);
       final boolean wasAdded = mGraph.addNode(node);
-      // Request spatial data of the node and register the ID mapping
+      // Collect the node to register its ID mapping and request spatial data
       if (wasAdded) {
-        // It is important that the mappings are in the database when
-        // requesting spatial data.
-        queueNodeIdMapping(destinationIdOsm, node.getId());
-        queueSpatialNodeRequest(destinationIdOsm);
+        mNodeIdsOsm.add(destinationIdOsm);
+        mNodeIds.add(node.getId());
       }
 
       // Update and yield the first iteration
@@ -282,9 +300,10 @@ public final class OsmRoadHandler<N extends INode & IHasId & ISpatial, E extends
       sourceIdOsm = destinationIdOsm;
     }
 
-    // Queue way ID mapping
+    // Collect the way to register its ID mapping
     if (internalWayId != null) {
-      queueWayIdMapping(way.getId(), internalWayId);
+      mWayIdsOsm.add(way.getId());
+      mWayIds.add(internalWayId.intValue());
     }
   }
 
@@ -305,159 +324,119 @@ public final class OsmRoadHandler<N extends INode & IHasId & ISpatial, E extends
   }
 
   /**
-   * Inserts the given spatial node data into the graph. That is, it finds the
-   * node and updates its spatial data according to the given data.<br>
-   * <br>
-   * The node represented by the data must exist in the graph.
-   *
-   * @param data The data to insert
+   * Requests a second pass over the current file if the coordinates of the
+   * nodes are to be resolved from the file, after the first pass built the
+   * graph.
    */
-  private void insertSpatialData(final SpatialNodeData data) {
-    final Optional<N> possibleNode = mGraph.getNodeById(data.getId());
-    // Node must be present since we added it before requesting
-    if (!possibleNode.isPresent()) {
-      throw new AssertionError();
-    }
-    // Set data to node
-    final N node = possibleNode.get();
-    node.setLatitude(data.getLatitude());
-    node.setLongitude(data.getLongitude());
+  @Override
+  public boolean isRequestingAnotherPass() {
+    return mCoordinates != null;
   }
 
   /**
-   * Queues a node ID mapping which is to be pushed to the database. The data is
-   * buffered and the buffer is submitted using
-   * {@link #submitBufferedNodeMappings()}.
+   * Finishes handling the current file. Clears the collected nodes, completes
+   * the builder and updates the graph cache information.
    *
-   * @param osmId      The unique OSM ID of the mapping to queue
-   * @param internalId The internal ID of the mapping to queue
+   * @throws IOException If an I/O exception occurred while updating the graph
+   *                     cache information
    */
-  private void queueNodeIdMapping(final long osmId, final int internalId) {
-    // If buffer is full, submit it
-    if (mNodeMappingBufferIndex >= mBufferedNodeMappings.length) {
-      submitBufferedNodeMappings();
-    }
+  private void finishFile() throws IOException {
+    mNodeIdsOsm.clear();
+    mNodeIds.clear();
 
-    // Collect the mapping, index has changed due to submit
-    mBufferedNodeMappings[mNodeMappingBufferIndex] = new IdMapping(osmId, internalId, true);
-
-    // Increase index
-    mNodeMappingBufferIndex++;
-  }
-
-  /**
-   * Queues a spatial node data request for the given node. The request is
-   * buffered and the buffer is submitted using
-   * {@link #submitBufferedSpatialRequests()}.
-   *
-   * @param nodeIdOsm The unique OSM ID of the node to queue a request for
-   */
-  private void queueSpatialNodeRequest(final long nodeIdOsm) {
-    // If buffer is full, submit it
-    if (mSpatialRequestBufferIndex >= mBufferedSpatialRequests.length) {
-      submitBufferedSpatialRequests();
+    mBuilder.complete();
+    if (mUseGraphCache) {
+      mRecentHandler.updateInfo();
     }
-
-    // Collect the node, index has changed due to submit
-    mBufferedSpatialRequests[mSpatialRequestBufferIndex] = nodeIdOsm;
-
-    // Increase index
-    mSpatialRequestBufferIndex++;
   }
 
   /**
-   * Queues a way ID mapping which is to be pushed to the database. The data is
-   * buffered and the buffer is submitted using
-   * {@link #submitBufferedWayMappings()}.
-   *
-   * @param osmId      The unique OSM ID of the mapping to queue
-   * @param internalId The internal ID of the mapping to queue
+   * Inserts the coordinates resolved by the second pass into the graph. The
+   * coordinates of nodes that were not contained in the file are requested
+   * from the database instead.
    */
-  private void queueWayIdMapping(final long osmId, final int internalId) {
-    // If buffer is full, submit it
-    if (mWayMappingBufferIndex >= mBufferedWayMappings.length) {
-      submitBufferedWayMappings();
+  private void insertResolvedCoordinates() {
+    LOGGER.info("Resolved coordinates of {} out of {} nodes from the file", mCoordinates.getAmountOfResolved(),
+        mCoordinates.size());
+    final MutableLongList unresolvedIdsOsm = LongLists.mutable.empty();
+    for (int i = 0; i < mNodeIdsOsm.size(); i++) {
+      final long osmId = mNodeIdsOsm.get(i);
+      final int index = mCoordinates.getIndex(osmId);
+      if (mCoordinates.isResolved(index)) {
+        insertSpatialData(new SpatialNodeData(mNodeIds.get(i), osmId, mCoordinates.getLatitude(index),
+            mCoordinates.getLongitude(index)));
+      } else {
+        unresolvedIdsOsm.add(osmId);
+      }
     }
 
-    // Collect the mapping, index has changed due to submit
-    mBufferedWayMappings[mWayMappingBufferIndex] = new IdMapping(osmId, internalId, false);
-
-    // Increase index
-    mWayMappingBufferIndex++;
+    // Ways can reference nodes of other files
+    submitSpatialRequests(unresolvedIdsOsm);
   }
 
   /**
-   * Submits the buffered node ID mappings. The mappings are send to the given
-   * database.<br>
+   * Inserts the given spatial node data into the graph. That is, it finds the
+   * node and updates its spatial data according to the given data.<br>
    * <br>
-   * Afterwards, the buffer index is reset to implicitly clear the buffer.
-   * Ideally, this method is only used when the buffer is full.
+   * The node represented by the data must exist in the graph.
+   *
+   * @param data The data to insert
    */
-  private void submitBufferedNodeMappings() {
-    // Send all buffered mappings up to the current index
-    final int size = mNodeMappingBufferIndex;
-    if (size == 0) {
-      return;
-    }
-
-    if (LOGGER.isDebugEnabled()) {
-      LOGGER.debug("Submitting node ID mappings of size: {}", size);
+  private void insertSpatialData(final SpatialNodeData data) {
+    final Optional<N> possibleNode = mGraph.getNodeById(data.getId());
+    // Node must be present since we added it before requesting
+    if (!possibleNode.isPresent()) {
+      throw new AssertionError();
     }
-    mDatabase.offerIdMappings(Arrays.stream(mBufferedNodeMappings, 0, size), size);
-
-    // Reset index since buffer is empty again
-    mNodeMappingBufferIndex = 0;
+    // Set data to node
+    final N node = possibleNode.get();
+    node.setLatitude(data.getLatitude());
+    node.setLongitude(data.getLongitude());
   }
 
   /**
-   * Submits the buffered requests. The requests are send to the given database
-   * and the spatial node data are inserted into the graph using
-   * {@link #insertSpatialData(SpatialNodeData)}.<br>
-   * <br>
-   * Afterwards, the buffer index is reset to implicitly clear the buffer.
-   * Ideally, this method is only used when the buffer is full.
+   * Submits the given ID mappings to the database, in batches of
+   * {@link #BATCH_SIZE}.
+   *
+   * @param osmIds      The OSM IDs of the mappings
+   * @param internalIds The internal IDs of the mappings, aligned with the OSM
+   *                    IDs
+   * @param isNode      Whether the mappings belong to nodes or to ways
    */
-  private void submitBufferedSpatialRequests() {
-    // Send all buffered requests up to the current index
-    final int size = mSpatialRequestBufferIndex;
-    if (size == 0) {
-      return;
-    }
-
-    if (LOGGER.isDebugEnabled()) {
-      LOGGER.debug("Submitting buffered requests of size: {}", size);
-    }
-    final Collection<SpatialNodeData> nodeData =
-        mDatabase.getSpatialNodeData(Arrays.stream(mBufferedSpatialRequests, 0, size), size);
-    if (nodeData.size() < size) {
-      LOGGER.error("Database did not deliver spatial data for all {} nodes, lost: {}", size, size - nodeData.size());
+  private void submitMappings(final MutableLongList osmIds, final MutableIntList internalIds, final boolean isNode) {
+    final int amount = osmIds.size();
+    for (int from = 0; from < amount; from += BATCH_SIZE) {
+      final int to = Math.min(from + BATCH_SIZE, amount);
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("Submitting ID mappings of size: {}", to - from);
+      }
+      mDatabase.offerIdMappings(
+          IntStream.range(from, to).mapToObj(i -> new IdMapping(osmIds.get(i), internalIds.get(i), isNode)), to - from);
     }
-    nodeData.forEach(this::insertSpatialData);
-
-    // Reset index since buffer is empty again
-    mSpatialRequestBufferIndex = 0;
   }
 
   /**
-   * Submits the buffered way ID mappings. The mappings are send to the given
-   * database.<br>
-   * <br>
-   * Afterwards, the buffer index is reset to implicitly clear the buffer.
-   * Ideally, this method is only used when the buffer is full.
+   * Requests the spatial node data of the given nodes from the database, in
+   * batches of {@link #BATCH_SIZE}. The data are inserted into the graph using
+   * {@link #insertSpatialData(SpatialNodeData)}.
+   *
+   * @param osmIds The OSM IDs of the nodes, their ID mappings must be in the
+   *               database
    */
-  private void submitBufferedWayMappings() {
-    // Send all buffered mappings up to the current index
-    final int size = mWayMappingBufferIndex;
-    if (size == 0) {
-      return;
-    }
-
-    if (LOGGER.isDebugEnabled()) {
-      LOGGER.debug("Submitting way ID mappings of size: {}", size);
+  private void submitSpatialRequests(final LongList osmIds) {
+    final int amount = osmIds.size();
+    for (int from = 0; from < amount; from += BATCH_SIZE) {
+      final int to = Math.min(from + BATCH_SIZE, amount);
+      final int size = to - from;
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("Submitting spatial requests of size: {}", size);
+      }
+      final Collection<SpatialNodeData> nodeData =
+          mDatabase.getSpatialNodeData(IntStream.range(from, to).mapToLong(osmIds::get), size);
+      if (nodeData.size() < size) {
+        LOGGER.error("Database did not deliver spatial data for all {} nodes, lost: {}", size, size - nodeData.size());
+      }
+      nodeData.forEach(this::insertSpatialData);
     }
-    mDatabase.offerIdMappings(Arrays.stream(mBufferedWayMappings, 0, size), size);
-
-    // Reset index since buffer is empty again
-    mWayMappingBufferIndex = 0;
   }
 }
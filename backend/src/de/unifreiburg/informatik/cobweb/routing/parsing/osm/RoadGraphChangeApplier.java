@@ -0,0 +1,478 @@
+package de.unifreiburg.informatik.cobweb.routing.parsing.osm;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.collections.api.map.primitive.MutableLongIntMap;
+import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
+import org.eclipse.collections.api.set.primitive.MutableIntSet;
+import org.eclipse.collections.impl.factory.primitive.IntSets;
+import org.eclipse.collections.impl.factory.primitive.LongIntMaps;
+import org.eclipse.collections.impl.factory.primitive.LongObjectMaps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.topobyte.osm4j.core.model.iface.OsmEntity;
+import de.topobyte.osm4j.core.model.iface.OsmNode;
+import de.topobyte.osm4j.core.model.iface.OsmWay;
+import de.topobyte.osm4j.core.model.util.OsmModelUtil;
+import de.unifreiburg.informatik.cobweb.db.IRoutingDatabase;
+import de.unifreiburg.informatik.cobweb.db.SpatialNodeData;
+import de.unifreiburg.informatik.cobweb.parsing.osm.EHighwayType;
+import de.unifreiburg.informatik.cobweb.parsing.osm.EOsmChangeAction;
+import de.unifreiburg.informatik.cobweb.parsing.osm.IOsmFilter;
+import de.unifreiburg.informatik.cobweb.parsing.osm.OsmChange;
+import de.unifreiburg.informatik.cobweb.parsing.osm.OsmParseUtil;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadGraph;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadNode;
+import de.unifreiburg.informatik.cobweb.util.RoutingUtil;
+
+/**
+ * Applies OSM changes to a road graph and the database, see
+ * {@link #apply(OsmChange)}.<br>
+ * <br>
+ * The graph is modified in place, hence it should not be used by other threads
+ * while a change is applied. Instead, apply the change to a copy of the graph
+ * and publish the copy afterwards. Nodes and edges that are contained in the
+ * graph are never changed, they are replaced instead. Hence the copy may share
+ * them with the original graph, see {@link RoadGraph#copy()}.<br>
+ * <br>
+ * Edges are built the same way {@link OsmRoadHandler} builds them, using the
+ * given road filter. Nodes and ways keep their internal IDs, the mapping
+ * between OSM and internal IDs is looked up in the database. New nodes and
+ * ways get IDs generated by the graph and their mappings are offered to the
+ * database. The edges of a way are found using a {@link WayNodeIndex}, which
+ * is kept up to date by the applier.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class RoadGraphChangeApplier {
+  /**
+   * Logger used for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(RoadGraphChangeApplier.class);
+
+  /**
+   * Updates the cost of the given edge if it is a road edge.
+   *
+   * @param edge The edge to update
+   */
+  private static void updateCost(final ICoreEdge<ICoreNode> edge) {
+    if (edge instanceof RoadEdge) {
+      ((RoadEdge<ICoreNode>) edge).updateCost();
+    }
+  }
+
+  /**
+   * The edges added to the graph by the last applied change.
+   */
+  private final List<ICoreEdge<ICoreNode>> mAddedEdges;
+  /**
+   * The database used for ID mappings and spatial node data.
+   */
+  private final IRoutingDatabase mDatabase;
+  /**
+   * The OSM filter used to filter road ways.
+   */
+  private final IOsmFilter mFilter;
+  /**
+   * The graph to apply changes to.
+   */
+  private final RoadGraph<ICoreNode, ICoreEdge<ICoreNode>> mGraph;
+  /**
+   * The edges removed from the graph by the last applied change.
+   */
+  private final List<ICoreEdge<ICoreNode>> mRemovedEdges;
+  /**
+   * The index used to find the nodes of ways in the graph.
+   */
+  private final WayNodeIndex mWayNodeIndex;
+
+  /**
+   * Creates a new applier which applies changes to the given graph. The way
+   * node index is built from the graph, which iterates all of its edges.
+   *
+   * @param graph    The graph to apply changes to
+   * @param filter   The filter to use for filtering road ways
+   * @param database The database used for ID mappings and spatial node data,
+   *                 changed entities are offered to it
+   */
+  public RoadGraphChangeApplier(final RoadGraph<ICoreNode, ICoreEdge<ICoreNode>> graph, final IOsmFilter filter,
+      final IRoutingDatabase database) {
+    this(graph, filter, database, new WayNodeIndex(graph));
+  }
+
+  /**
+   * Creates a new applier which applies changes to the given graph.
+   *
+   * @param graph        The graph to apply changes to
+   * @param filter       The filter to use for filtering road ways
+   * @param database     The database used for ID mappings and spatial node
+   *                     data, changed entities are offered to it
+   * @param wayNodeIndex The index of the ways of the graph, it is updated with
+   *                     the applied changes
+   */
+  public RoadGraphChangeApplier(final RoadGraph<ICoreNode, ICoreEdge<ICoreNode>> graph, final IOsmFilter filter,
+      final IRoutingDatabase database, final WayNodeIndex wayNodeIndex) {
+    mGraph = graph;
+    mFilter = filter;
+    mDatabase = database;
+    mWayNodeIndex = wayNodeIndex;
+    mAddedEdges = new ArrayList<>();
+    mRemovedEdges = new ArrayList<>();
+  }
+
+  /**
+   * Applies the given change to the graph and the database.<br>
+   * <br>
+   * Created and modified entities are offered to the database. Edges of
+   * modified and deleted ways are removed, modified ways are then added again
+   * from their new state. Nodes that are not part of any edge anymore are
+   * removed from the graph. Moved nodes and their edges are replaced by new
+   * instances with the new coordinates, see {@link #getAddedEdges()} and
+   * {@link #getRemovedEdges()}.<br>
+   * <br>
+   * Entities are not removed from the database since it offers no way to do
+   * so, also the ID mappings of deleted entities are kept.
+   *
+   * @param change The change to apply
+   */
+  public void apply(final OsmChange change) {
+    LOGGER.info("Applying OSM change of size {} to {}", change.size(), mGraph.getSizeInformation());
+    mAddedEdges.clear();
+    mRemovedEdges.clear();
+
+    // Nodes first, the database expects them before the ways referencing them
+    final List<OsmEntity> entities = new ArrayList<>();
+    entities.addAll(change.getNodes(EOsmChangeAction.CREATE));
+    entities.addAll(change.getNodes(EOsmChangeAction.MODIFY));
+    entities.addAll(change.getWays(EOsmChangeAction.CREATE));
+    entities.addAll(change.getWays(EOsmChangeAction.MODIFY));
+    if (!entities.isEmpty()) {
+      mDatabase.offerOsmEntities(entities, entities.size());
+    }
+
+    // Nodes which may become unused
+    final Set<ICoreNode> affectedNodes = new HashSet<>();
+    removeWays(change, affectedNodes);
+    moveNodes(change, affectedNodes);
+    addWays(change, affectedNodes);
+    removeNodes(change, affectedNodes);
+    // Edges may have been removed again, for example by deleting their nodes
+    mAddedEdges.removeIf(edge -> !mGraph.containsEdge(edge));
+
+    LOGGER.info("Applied OSM change, resulting in {}", mGraph.getSizeInformation());
+  }
+
+  /**
+   * Gets the edges that were added to the graph by the last applied change,
+   * including the edges that replace the edges of moved nodes.
+   *
+   * @return The added edges
+   */
+  public Collection<ICoreEdge<ICoreNode>> getAddedEdges() {
+    return Collections.unmodifiableList(mAddedEdges);
+  }
+
+  /**
+   * Gets the edges that were removed from the graph by the last applied
+   * change, including the edges of moved nodes that were replaced.
+   *
+   * @return The removed edges
+   */
+  public Collection<ICoreEdge<ICoreNode>> getRemovedEdges() {
+    return Collections.unmodifiableList(mRemovedEdges);
+  }
+
+  /**
+   * Adds the given edge to the graph and remembers it as added.
+   *
+   * @param edge The edge to add
+   */
+  private void addEdge(final ICoreEdge<ICoreNode> edge) {
+    if (mGraph.addEdge(edge)) {
+      mAddedEdges.add(edge);
+    }
+  }
+
+  /**
+   * Adds the edges of created and modified ways that are accepted by the road
+   * filter. Nodes of the ways that are not contained in the graph are added,
+   * their coordinates are taken from the change or requested from the
+   * database.
+   *
+   * @param change        The change to apply
+   * @param affectedNodes Set to add all nodes of added edges to
+   */
+  private void addWays(final OsmChange change, final Set<ICoreNode> affectedNodes) {
+    final MutableLongObjectMap<OsmNode> osmIdToChangedNode = LongObjectMaps.mutable.empty();
+    change.getNodes(EOsmChangeAction.CREATE).forEach(node -> osmIdToChangedNode.put(node.getId(), node));
+    change.getNodes(EOsmChangeAction.MODIFY).forEach(node -> osmIdToChangedNode.put(node.getId(), node));
+
+    // New ID mappings, offered to the database once all ways are added
+    final MutableLongIntMap newNodeIds = LongIntMaps.mutable.empty();
+    final MutableLongIntMap newWayIds = LongIntMaps.mutable.empty();
+    // Added nodes whose coordinates need to be requested from the database
+    final Collection<Long> unresolvedIdsOsm = new ArrayList<>();
+
+    final List<OsmWay> ways = new ArrayList<>(change.getWays(EOsmChangeAction.CREATE));
+    ways.addAll(change.getWays(EOsmChangeAction.MODIFY));
+    for (final OsmWay way : ways) {
+      if (!mFilter.filter(way) || way.getNumberOfNodes() < 2) {
+        continue;
+      }
+
+      final Map<String, String> tagToValue = OsmModelUtil.getTagsAsMap(way);
+      final int wayDirection = OsmParseUtil.parseWayDirection(tagToValue);
+      final EHighwayType type = OsmParseUtil.parseHighwayType(tagToValue);
+      final int maxSpeed = OsmParseUtil.parseMaxSpeed(tagToValue);
+      final Set<ETransportationMode> modes = RoutingUtil.getTransportationModesOfHighway(type);
+      final int wayId = mDatabase.getInternalWayByOsm(way.getId())
+          .orElseGet(() -> newWayIds.getIfAbsentPut(way.getId(), mGraph::generateUniqueWayId));
+
+      ICoreNode source = null;
+      for (int i = 0; i < way.getNumberOfNodes(); i++) {
+        final long destinationIdOsm = way.getNodeId(i);
+        final ICoreNode destination = getOrAddNode(destinationIdOsm, osmIdToChangedNode, newNodeIds, unresolvedIdsOsm);
+        affectedNodes.add(destination);
+        mWayNodeIndex.add(wayId, destination.getId());
+
+        if (source != null) {
+          if (wayDirection >= 0) {
+            addEdge(new RoadEdge<>(wayId, source, destination, type, maxSpeed, modes));
+          }
+          if (wayDirection <= 0) {
+            addEdge(new RoadEdge<>(wayId, destination, source, type, maxSpeed, modes));
+          }
+        }
+        source = destination;
+      }
+    }
+
+    // The node mappings must be in the database before requesting spatial data
+    offerMappings(newNodeIds, true);
+    offerMappings(newWayIds, false);
+    if (!unresolvedIdsOsm.isEmpty()) {
+      for (final SpatialNodeData data : mDatabase.getSpatialNodeData(unresolvedIdsOsm, unresolvedIdsOsm.size())) {
+        mGraph.getNodeById(data.getId()).ifPresent(node -> {
+          // The node and its edges were created by this change, hence they
+          // can be changed in place
+          node.setLatitude(data.getLatitude());
+          node.setLongitude(data.getLongitude());
+          Stream.concat(mGraph.getIncomingEdges(node), mGraph.getOutgoingEdges(node))
+              .forEach(RoadGraphChangeApplier::updateCost);
+        });
+      }
+    }
+  }
+
+  /**
+   * Gets the node of the graph with the given OSM ID. If the graph does not
+   * contain the node, it is added. Its internal ID is taken from the database
+   * or generated, its coordinates are taken from the changed nodes if
+   * possible.
+   *
+   * @param osmId              The OSM ID of the node
+   * @param osmIdToChangedNode The created and modified nodes of the change, by
+   *                           their OSM ID
+   * @param newNodeIds         The internal IDs generated for nodes that are
+   *                           not contained in the database, by their OSM ID
+   * @param unresolvedIdsOsm   Collection to add the OSM ID of the node to if
+   *                           it was added without known coordinates
+   * @return The node of the graph
+   */
+  private ICoreNode getOrAddNode(final long osmId, final MutableLongObjectMap<OsmNode> osmIdToChangedNode,
+      final MutableLongIntMap newNodeIds, final Collection<Long> unresolvedIdsOsm) {
+    final int nodeId = mDatabase.getInternalNodeByOsm(osmId)
+        .orElseGet(() -> newNodeIds.getIfAbsentPut(osmId, mGraph::generateUniqueNodeId));
+    final Optional<ICoreNode> existingNode = mGraph.getNodeById(nodeId);
+    if (existingNode.isPresent()) {
+      return existingNode.get();
+    }
+
+    final OsmNode changedNode = osmIdToChangedNode.get(osmId);
+    final RoadNode node;
+    if (changedNode != null && !Double.isNaN(changedNode.getLatitude())) {
+      node = new RoadNode(nodeId, (float) changedNode.getLatitude(), (float) changedNode.getLongitude());
+    } else {
+      // Spatial data is unknown at first
+      node = new RoadNode(nodeId, 0.0F, 0.0F);
+      unresolvedIdsOsm.add(osmId);
+    }
+    mGraph.addNode(node);
+    return node;
+  }
+
+  /**
+   * Replaces the given node by a node with the given coordinates. Its edges
+   * are replaced by edges connecting the new node.
+   *
+   * @param node      The node to replace
+   * @param latitude  The latitude of the new node
+   * @param longitude The longitude of the new node
+   * @return The new node
+   */
+  private ICoreNode moveNode(final ICoreNode node, final float latitude, final float longitude) {
+    final ICoreNode movedNode = new RoadNode(node.getId(), latitude, longitude);
+    // Collect the edges first, removing them modifies the edge sets. The road
+    // graph only contains road edges.
+    final Set<RoadEdge<ICoreNode>> edges = Stream.concat(mGraph.getIncomingEdges(node), mGraph.getOutgoingEdges(node))
+        .map(edge -> (RoadEdge<ICoreNode>) edge).collect(Collectors.toSet());
+    edges.forEach(this::removeEdge);
+    mGraph.removeNode(node);
+    mGraph.addNode(movedNode);
+
+    for (final RoadEdge<ICoreNode> edge : edges) {
+      ICoreNode source = edge.getSource();
+      if (source.equals(node)) {
+        source = movedNode;
+      }
+      ICoreNode destination = edge.getDestination();
+      if (destination.equals(node)) {
+        destination = movedNode;
+      }
+      addEdge(edge.withNodes(source, destination));
+    }
+    return movedNode;
+  }
+
+  /**
+   * Moves all nodes of the graph that were created or modified to their new
+   * coordinates, see {@link #moveNode(ICoreNode, float, float)}. Nodes whose
+   * coordinates did not change, for example since only their tags were
+   * modified, are kept.
+   *
+   * @param change        The change to apply
+   * @param affectedNodes Set to add all moved nodes to
+   */
+  private void moveNodes(final OsmChange change, final Set<ICoreNode> affectedNodes) {
+    final List<OsmNode> nodes = new ArrayList<>(change.getNodes(EOsmChangeAction.CREATE));
+    nodes.addAll(change.getNodes(EOsmChangeAction.MODIFY));
+    for (final OsmNode changedNode : nodes) {
+      if (Double.isNaN(changedNode.getLatitude())) {
+        continue;
+      }
+      final Optional<ICoreNode> node =
+          mDatabase.getInternalNodeByOsm(changedNode.getId()).flatMap(mGraph::getNodeById);
+      if (!node.isPresent()) {
+        continue;
+      }
+      // Compare the coordinates with the precision the graph stores them in
+      final float latitude = (float) changedNode.getLatitude();
+      final float longitude = (float) changedNode.getLongitude();
+      if (node.get().getLatitude() != latitude || node.get().getLongitude() != longitude) {
+        affectedNodes.add(moveNode(node.get(), latitude, longitude));
+      }
+    }
+  }
+
+  /**
+   * Offers the given ID mappings to the database.
+   *
+   * @param osmToInternal The internal IDs by their OSM ID
+   * @param isNode        <code>True</code> if the mappings are for nodes,
+   *                      <code>false</code> for ways
+   */
+  private void offerMappings(final MutableLongIntMap osmToInternal, final boolean isNode) {
+    if (osmToInternal.isEmpty()) {
+      return;
+    }
+    mDatabase.offerIdMappings(
+        osmToInternal.keyValuesView().collect(pair -> new IdMapping(pair.getOne(), pair.getTwo(), isNode)),
+        osmToInternal.size());
+  }
+
+  /**
+   * Removes the given edge from the graph and remembers it as removed.
+   *
+   * @param edge The edge to remove
+   */
+  private void removeEdge(final ICoreEdge<ICoreNode> edge) {
+    if (mGraph.removeEdge(edge)) {
+      mRemovedEdges.add(edge);
+    }
+  }
+
+  /**
+   * Removes the given node and all of its edges from the graph.
+   *
+   * @param node The node to remove
+   */
+  private void removeNode(final ICoreNode node) {
+    // Collect the edges first, removing them modifies the edge sets
+    final List<ICoreEdge<ICoreNode>> edges =
+        Stream.concat(mGraph.getIncomingEdges(node), mGraph.getOutgoingEdges(node)).collect(Collectors.toList());
+    edges.forEach(this::removeEdge);
+    mGraph.removeNode(node);
+  }
+
+  /**
+   * Removes all deleted nodes from the graph. Also removes affected nodes that
+   * are not part of any edge anymore.
+   *
+   * @param change        The change to apply
+   * @param affectedNodes The affected nodes, removed nodes are also removed
+   *                      from the set
+   */
+  private void removeNodes(final OsmChange change, final Set<ICoreNode> affectedNodes) {
+    for (final OsmNode deletedNode : change.getNodes(EOsmChangeAction.DELETE)) {
+      mDatabase.getInternalNodeByOsm(deletedNode.getId()).flatMap(mGraph::getNodeById).ifPresent(node -> {
+        removeNode(node);
+        affectedNodes.remove(node);
+      });
+    }
+
+    final List<ICoreNode> unusedNodes = affectedNodes.stream()
+        .filter(node -> !mGraph.getIncomingEdges(node).findAny().isPresent()
+            && !mGraph.getOutgoingEdges(node).findAny().isPresent())
+        .collect(Collectors.toList());
+    for (final ICoreNode node : unusedNodes) {
+      mGraph.removeNode(node);
+      affectedNodes.remove(node);
+    }
+  }
+
+  /**
+   * Removes the edges of all modified and deleted ways from the graph. Only the
+   * edges of the nodes of the ways are visited, see {@link WayNodeIndex}.
+   *
+   * @param change        The change to apply
+   * @param affectedNodes Set to add the nodes of all removed edges to
+   */
+  private void removeWays(final OsmChange change, final Set<ICoreNode> affectedNodes) {
+    final MutableIntSet wayIds = IntSets.mutable.empty();
+    change.getWays(EOsmChangeAction.MODIFY)
+        .forEach(way -> mDatabase.getInternalWayByOsm(way.getId()).ifPresent(wayIds::add));
+    change.getWays(EOsmChangeAction.DELETE)
+        .forEach(way -> mDatabase.getInternalWayByOsm(way.getId()).ifPresent(wayIds::add));
+    if (wayIds.isEmpty()) {
+      return;
+    }
+
+    // Collect the edges first, removing them modifies the edge sets
+    final Set<ICoreEdge<ICoreNode>> edges = new HashSet<>();
+    wayIds.forEach(wayId -> {
+      mWayNodeIndex.getNodes(wayId).forEach(nodeId -> mGraph.getNodeById(nodeId)
+          .ifPresent(node -> Stream.concat(mGraph.getIncomingEdges(node), mGraph.getOutgoingEdges(node))
+              .filter(edge -> edge.getId() == wayId).forEach(edges::add)));
+      mWayNodeIndex.remove(wayId);
+    });
+    for (final ICoreEdge<ICoreNode> edge : edges) {
+      removeEdge(edge);
+      affectedNodes.add(edge.getSource());
+      affectedNodes.add(edge.getDestination());
+    }
+  }
+}
@@ -0,0 +1,78 @@
+package de.unifreiburg.informatik.cobweb.routing.parsing.osm;
+
+import org.eclipse.collections.api.IntIterable;
+import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
+import org.eclipse.collections.api.set.primitive.MutableIntSet;
+import org.eclipse.collections.impl.factory.primitive.IntObjectMaps;
+import org.eclipse.collections.impl.factory.primitive.IntSets;
+
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.IGraph;
+
+/**
+ * Index which connects internal way IDs to the internal IDs of the nodes of
+ * the way. It is used by {@link RoadGraphChangeApplier} to find the edges of a
+ * way without iterating all edges of the graph.<br>
+ * <br>
+ * The index may contain IDs of nodes that are not part of the way anymore,
+ * like nodes that were removed from the graph. Those are harmless, since node
+ * IDs are not reused and edges are matched by their way ID. However, every
+ * node that is part of an edge of the way must be contained.<br>
+ * <br>
+ * The index is not safe to use by multiple threads.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class WayNodeIndex {
+  /**
+   * The IDs of the nodes of each way, by the way ID.
+   */
+  private final MutableIntObjectMap<MutableIntSet> mWayToNodes;
+
+  /**
+   * Creates a new index for the ways of the given graph.
+   *
+   * @param graph The graph to index, the way ID of an edge is its ID
+   */
+  public WayNodeIndex(final IGraph<ICoreNode, ICoreEdge<ICoreNode>> graph) {
+    mWayToNodes = IntObjectMaps.mutable.empty();
+    graph.getEdges().forEach(edge -> {
+      add(edge.getId(), edge.getSource().getId());
+      add(edge.getId(), edge.getDestination().getId());
+    });
+  }
+
+  /**
+   * Adds the given node to the given way.
+   *
+   * @param wayId  The ID of the way
+   * @param nodeId The ID of the node
+   */
+  public void add(final int wayId, final int nodeId) {
+    mWayToNodes.getIfAbsentPut(wayId, IntSets.mutable::empty).add(nodeId);
+  }
+
+  /**
+   * Gets the IDs of the nodes of the given way.
+   *
+   * @param wayId The ID of the way
+   * @return The IDs of the nodes of the way, empty if the way is not contained
+   */
+  public IntIterable getNodes(final int wayId) {
+    final MutableIntSet nodeIds = mWayToNodes.get(wayId);
+    if (nodeIds == null) {
+      return IntSets.immutable.empty();
+    }
+    return nodeIds;
+  }
+
+  /**
+   * Removes the given way and its nodes from the index.
+   *
+   * @param wayId The ID of the way
+   */
+  public void remove(final int wayId) {
+    mWayToNodes.remove(wayId);
+  }
+}
@@ -1,196 +1,202 @@
 package de.unifreiburg.informatik.cobweb.routing.server;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.net.Socket;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.JsonSyntaxException;
 
 import de.unifreiburg.informatik.cobweb.db.IRoutingDatabase;
-import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.ShortestPathComputationFactory;
-import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
-import de.unifreiburg.informatik.cobweb.routing.model.graph.IGetNodeById;
+import de.unifreiburg.informatik.cobweb.routing.model.RoutingSnapshot;
+import de.unifreiburg.informatik.cobweb.routing.server.model.IsochroneRequest;
+import de.unifreiburg.informatik.cobweb.routing.server.model.MatrixRequest;
 import de.unifreiburg.informatik.cobweb.routing.server.model.RoutingRequest;
-import de.unifreiburg.informatik.cobweb.util.MemberFieldNamingStrategy;
 import de.unifreiburg.informatik.cobweb.util.http.EHttpContentType;
 import de.unifreiburg.informatik.cobweb.util.http.EHttpStatus;
 import de.unifreiburg.informatik.cobweb.util.http.HttpRequest;
+import de.unifreiburg.informatik.cobweb.util.http.HttpResponse;
 import de.unifreiburg.informatik.cobweb.util.http.HttpResponseBuilder;
 import de.unifreiburg.informatik.cobweb.util.http.HttpUtil;
+import de.unifreiburg.informatik.cobweb.util.http.IHttpRequestHandler;
+import de.unifreiburg.informatik.cobweb.util.http.json.JsonCodecs;
 
 /**
- * Class that handles a routing client. It is designed to communicate with a
- * client via HTTP and serve routing requests.<br>
+ * Class that handles routing clients. It is designed to communicate with
+ * clients via HTTP and serve routing, travel time matrix and isochrone
+ * requests.<br>
  * <br>
- * To handle the client call {@link #run()}. The method should only be called
- * once, the object should not be used anymore after the method has
- * finished.<br>
+ * Routing requests are accepted as JSON or, with the content type
+ * {@link EHttpContentType#PROTOBUF}, in the binary format described by
+ * {@link ProtobufCodec}. The response uses the format of the request.<br>
  * <br>
- * The client handler will close the client on its own. So it should not be
- * closed outside.
+ * To handle a request call {@link #handleRequest(HttpRequest)}. The handler is
+ * shared by all clients and can be used by multiple threads at the same time.
  *
  * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
  */
-public final class ClientHandler implements Runnable {
+public final class ClientHandler implements IHttpRequestHandler {
   /**
    * Resource that is to be requested from a client if he submits a routing
    * query.
    */
-  private static final String API_RESOURCE = "/route";
+  public static final String API_RESOURCE = "/route";
+  /**
+   * Resource that is to be requested from a client if he submits an isochrone
+   * query.
+   */
+  public static final String ISOCHRONE_RESOURCE = "/isochrone";
+  /**
+   * Resource that is to be requested from a client if he submits a travel
+   * time matrix query.
+   */
+  public static final String MATRIX_RESOURCE = "/matrix";
   /**
    * Logger used for logging.
    */
   private static final Logger LOGGER = LoggerFactory.getLogger(ClientHandler.class);
+
   /**
-   * The client to handle.
+   * Serves a HTTP request of type <code>OPTIONS</code>.
+   *
+   * @return The response to send to the client
    */
-  private final Socket mClient;
+  private static HttpResponse serveOptionsRequest() {
+    // Send back the supported methods
+    return new HttpResponseBuilder().setStatus(EHttpStatus.OK).putHeader("Access-Control-Allow-Methods", "POST")
+        .putHeader("Access-Control-Allow-Headers", "Content-Type")
+        .putHeader("Access-Control-Max-Age", String.valueOf(86400)).build();
+  }
+
   /**
-   * The factory to use for generating algorithms for shortest path computation.
+   * The GSON object used to parse requests and format responses.
    */
-  private final ShortestPathComputationFactory mComputationFactory;
+  private final Gson mGson;
   /**
-   * The database to use for fetching meta data for nodes and edges.
+   * The handler used to answer parsed isochrone requests.
    */
-  private final IRoutingDatabase mDatabase;
+  private final IsochroneRequestHandler mIsochroneRequestHandler;
   /**
-   * The unique ID of this client request.
+   * The handler used to answer parsed travel time matrix requests.
    */
-  private final int mId;
+  private final MatrixRequestHandler mMatrixRequestHandler;
   /**
-   * The object that provides nodes by their ID.
+   * The handler used to answer parsed routing requests.
    */
-  private final IGetNodeById<ICoreNode> mNodeProvider;
-
+  private final RequestHandler mRequestHandler;
   /**
-   * Creates a new handler which handles the given client using the given
-   * tools.<br>
-   * <br>
-   * To handle the client call {@link #run()}. The method should only be called
-   * once, the object should not be used anymore after the method has finished.
-   *
-   * @param id                 The unique ID of this client request
-   * @param client             The client to handle
-   * @param nodeProvider       The object that provides nodes by their ID
-   * @param computationFactory The factory to use for generating algorithms for
-   *                           shortest path computation
-   * @param database           The database to use for fetching meta data for
-   *                           nodes and edges
+   * Counter used to generate the unique IDs of client requests.
    */
-  public ClientHandler(final int id, final Socket client, final IGetNodeById<ICoreNode> nodeProvider,
-      final ShortestPathComputationFactory computationFactory, final IRoutingDatabase database) {
-    mId = id;
-    mClient = client;
-    mNodeProvider = nodeProvider;
-    mComputationFactory = computationFactory;
-    mDatabase = database;
-  }
+  private final AtomicInteger mRequestId;
 
   /**
-   * Handles the clients request.<br>
-   * <br>
-   * The method should only be called once, the object should not be used
-   * anymore after the method has finished. The method catches and logs all
-   * errors and exceptions.<br>
+   * Creates a new handler which handles routing clients using the given
+   * tools.<br>
    * <br>
-   * The client handler will close the client on its own. So it should not be
-   * closed outside.
+   * To handle a request call {@link #handleRequest(HttpRequest)}.
+   *
+   * @param snapshots           Supplier of the snapshot of the routing model to
+   *                            answer requests with, it is requested once per
+   *                            request
+   * @param database            The database to use for fetching meta data for
+   *                            nodes and edges
+   * @param computationExecutor The executor to compute shortest paths on
+   * @param routeCoalescer      The object used to compute shortest paths of
+   *                            routing requests, shared by all clients
+   * @param matrixExecutor      The executor to compute the rows of travel
+   *                            time matrices on, should be able to run tasks
+   *                            in parallel
+   * @param maxMatrixSize       The maximal amount of entries of a travel time
+   *                            matrix, larger requests are rejected
+   * @param maxIsochroneBudget  The maximal travel time budget in seconds of an
+   *                            isochrone, larger requests are rejected
+   * @param computationTimeout  The time in milliseconds after which the
+   *                            computation of a request is aborted,
+   *                            <code>0</code> or less to not abort computations
+   * @param retryAfter          The time in seconds after which clients whose
+   *                            computation was aborted are advised to retry
    */
-  @Override
-  public void run() {
-    try {
-      // Handle the client
-      try (InputStream input = mClient.getInputStream()) {
-        handleRequest(HttpUtil.parseRequest(input));
-      }
-    } catch (final Throwable e) {
-      // Log every error
-      LOGGER.error("Unknown error while handling the client: {}", mId, e);
-    } finally {
-      try {
-        // Close the client
-        mClient.close();
-      } catch (final IOException e) {
-        LOGGER.error("Exception while closing the client socket", e);
-      }
-    }
+  public ClientHandler(final Supplier<RoutingSnapshot> snapshots, final IRoutingDatabase database,
+      final Executor computationExecutor, final RouteQueryCoalescer routeCoalescer, final Executor matrixExecutor,
+      final int maxMatrixSize, final int maxIsochroneBudget, final long computationTimeout, final int retryAfter) {
+    mGson = JsonCodecs.getGson();
+    mRequestHandler = new RequestHandler(mGson, snapshots, routeCoalescer, database, retryAfter);
+    mMatrixRequestHandler = new MatrixRequestHandler(mGson, snapshots, database, matrixExecutor, maxMatrixSize,
+        computationTimeout, retryAfter);
+    mIsochroneRequestHandler = new IsochroneRequestHandler(mGson, snapshots, database, computationExecutor,
+        maxIsochroneBudget, computationTimeout, retryAfter);
+    mRequestId = new AtomicInteger(-1);
   }
 
   /**
-   * Handles the given HTTP request.
+   * Handles the given HTTP request of a client.
    *
    * @param request The request to handle
-   * @throws IOException If an I/O exception occurred while sending the response
-   *                     to the client
+   * @return The response to send to the client
    */
-  private void handleRequest(final HttpRequest request) throws IOException {
+  @Override
+  public HttpResponse handleRequest(final HttpRequest request) {
     // TODO Maybe don't log always
-    LOGGER.info("Handling routing HTTP request with id: {}", mId);
+    LOGGER.info("Handling routing HTTP request with id: {}", mRequestId.incrementAndGet());
 
     // Method not allowed
     final String type = request.getType().toUpperCase();
     if (!type.equals("OPTIONS") && !type.equals("POST")) {
-      HttpUtil.sendHttpResponse(new HttpResponseBuilder().setStatus(EHttpStatus.METHOD_NOT_ALLOWED)
-          .putHeader("Allow", "OPTIONS, POST").build(), mClient);
-      return;
+      return new HttpResponseBuilder().setStatus(EHttpStatus.METHOD_NOT_ALLOWED).putHeader("Allow", "OPTIONS, POST")
+          .build();
     }
 
     if (type.equals("OPTIONS")) {
-      serveOptionsRequest();
-      return;
+      return ClientHandler.serveOptionsRequest();
     }
 
     // Type is a post request
-    servePost(request);
-  }
-
-  /**
-   * Serves a HTTP request of type <code>OPTIONS</code>.
-   *
-   * @throws IOException If an I/O exception occurred while sending the response
-   *                     to the client
-   */
-  private void serveOptionsRequest() throws IOException {
-    // Send back the supported methods
-    HttpUtil.sendHttpResponse(new HttpResponseBuilder().setStatus(EHttpStatus.OK)
-        .putHeader("Access-Control-Allow-Methods", "POST").putHeader("Access-Control-Allow-Headers", "Content-Type")
-        .putHeader("Access-Control-Max-Age", String.valueOf(86400)).putHeader("Connection", "Keep-Alive")
-        .putHeader("Keep-Alive", "timeout=5, max=100").build(), mClient);
+    return servePost(request);
   }
 
   /**
    * Serves a HTTP request of type <code>POST</code>.
    *
    * @param request The request to serve
-   * @throws IOException If an I/O exception occurred while sending the response
-   *                     to the client
+   * @return The response to send to the client
    */
-  private void servePost(final HttpRequest request) throws IOException {
-    if (!request.getResource().equals(API_RESOURCE)) {
-      HttpUtil.sendHttpResponse(new HttpResponseBuilder().setStatus(EHttpStatus.NOT_IMPLEMENTED).build(), mClient);
-      return;
+  private HttpResponse servePost(final HttpRequest request) {
+    final String resource = request.getResource();
+    if (!resource.equals(API_RESOURCE) && !resource.equals(MATRIX_RESOURCE) && !resource.equals(ISOCHRONE_RESOURCE)) {
+      return new HttpResponseBuilder().setStatus(EHttpStatus.NOT_IMPLEMENTED).build();
     }
 
     final EHttpContentType contentType = HttpUtil.parseContentType(request.getHeaders().get("Content-Type"));
+    if (contentType == EHttpContentType.PROTOBUF && resource.equals(API_RESOURCE)) {
+      // Parse the binary request and answer in the same format
+      try {
+        final RoutingRequest parsedRequest = ProtobufCodec.decodeRequest(request.getRawContent());
+        return mRequestHandler.handleRequest(parsedRequest, EHttpContentType.PROTOBUF);
+      } catch (final IllegalArgumentException e) {
+        return new HttpResponseBuilder().setStatus(EHttpStatus.BAD_REQUEST).build();
+      }
+    }
     if (contentType == null || contentType != EHttpContentType.JSON) {
-      HttpUtil.sendHttpResponse(new HttpResponseBuilder().setStatus(EHttpStatus.BAD_REQUEST).build(), mClient);
-      return;
+      return new HttpResponseBuilder().setStatus(EHttpStatus.BAD_REQUEST).build();
     }
 
     // Parse the JSON request and handle it
-    final Gson gson = new GsonBuilder().setFieldNamingStrategy(new MemberFieldNamingStrategy()).create();
     try {
-      final RoutingRequest routingRequest = gson.fromJson(request.getContent(), RoutingRequest.class);
-      final RequestHandler handler = new RequestHandler(mClient, gson, mNodeProvider, mComputationFactory, mDatabase);
-      handler.handleRequest(routingRequest);
+      if (resource.equals(MATRIX_RESOURCE)) {
+        final MatrixRequest parsedRequest = mGson.fromJson(request.getContent(), MatrixRequest.class);
+        return mMatrixRequestHandler.handleRequest(parsedRequest);
+      }
+      if (resource.equals(ISOCHRONE_RESOURCE)) {
+        final IsochroneRequest parsedRequest = mGson.fromJson(request.getContent(), IsochroneRequest.class);
+        return mIsochroneRequestHandler.handleRequest(parsedRequest);
+      }
+      final RoutingRequest parsedRequest = mGson.fromJson(request.getContent(), RoutingRequest.class);
+      return mRequestHandler.handleRequest(parsedRequest);
     } catch (final JsonSyntaxException e) {
-      HttpUtil.sendHttpResponse(new HttpResponseBuilder().setStatus(EHttpStatus.BAD_REQUEST).build(), mClient);
-      return;
+      return new HttpResponseBuilder().setStatus(EHttpStatus.BAD_REQUEST).build();
     }
   }
 }
@@ -0,0 +1,256 @@
+package de.unifreiburg.informatik.cobweb.routing.server;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+
+import de.unifreiburg.informatik.cobweb.db.IRoutingDatabase;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.isochrone.ConcaveHull;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.ComputationDeadline;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.IHasPathCost;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.IShortestPathComputation;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.ShortestPathComputationFactory;
+import de.unifreiburg.informatik.cobweb.routing.model.RoutingSnapshot;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
+import de.unifreiburg.informatik.cobweb.routing.server.model.Isochrone;
+import de.unifreiburg.informatik.cobweb.routing.server.model.IsochroneRequest;
+import de.unifreiburg.informatik.cobweb.routing.server.model.IsochroneResponse;
+import de.unifreiburg.informatik.cobweb.util.RoutingUtil;
+import de.unifreiburg.informatik.cobweb.util.http.EHttpContentType;
+import de.unifreiburg.informatik.cobweb.util.http.EHttpStatus;
+import de.unifreiburg.informatik.cobweb.util.http.HttpResponse;
+import de.unifreiburg.informatik.cobweb.util.http.HttpResponseBuilder;
+import de.unifreiburg.informatik.cobweb.util.http.json.JsonContentWriter;
+
+/**
+ * Class that handles an isochrone request. It parses the request, computes
+ * the areas reachable within the requested travel time budgets and builds a
+ * proper response.<br>
+ * <br>
+ * All budgets are answered by a single one-to-all search from the source which
+ * is bounded by the largest budget. The reachable nodes are then collected into
+ * primitive arrays and a concave hull around the source of the nodes within
+ * each budget is sent back, see {@link ConcaveHull}. The response is streamed
+ * to the client. Requests with transportation modes the routing model can not
+ * compute isochrones for, like transit in a graph with separate timetable, are
+ * rejected.<br>
+ * <br>
+ * To handle a request call {@link #handleRequest(IsochroneRequest)}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class IsochroneRequestHandler {
+  /**
+   * Logger used for logging
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(IsochroneRequestHandler.class);
+  /**
+   * The amount of sectors of the hull around the source, one per five degrees.
+   */
+  private static final int HULL_SECTORS = 72;
+
+  /**
+   * Computes the isochrones of the given budgets by a single one-to-all
+   * search.
+   *
+   * @param computation The algorithm to use, bounded by the largest budget
+   * @param source      The source to start from
+   * @param budgets     The travel time budgets in seconds
+   * @return The isochrones, one per budget in the same order
+   */
+  private static List<Isochrone> computeIsochrones(
+      final IShortestPathComputation<ICoreNode, ICoreEdge<ICoreNode>> computation, final ICoreNode source,
+      final int[] budgets) {
+    final Map<ICoreNode, ? extends IHasPathCost> nodeToCost = computation.computeShortestPathCostsReachable(source);
+
+    // Collect the reachable nodes into primitive arrays
+    final int amount = nodeToCost.size();
+    final float[] latitudes = new float[amount];
+    final float[] longitudes = new float[amount];
+    final double[] costs = new double[amount];
+    int index = 0;
+    for (final Entry<ICoreNode, ? extends IHasPathCost> entry : nodeToCost.entrySet()) {
+      latitudes[index] = entry.getKey().getLatitude();
+      longitudes[index] = entry.getKey().getLongitude();
+      costs[index] = entry.getValue().getPathCost();
+      index++;
+    }
+
+    // Filter the nodes for each budget, the buffers are reused
+    final float[] budgetLatitudes = new float[amount];
+    final float[] budgetLongitudes = new float[amount];
+    final List<Isochrone> isochrones = new ArrayList<>(budgets.length);
+    for (final int budget : budgets) {
+      int amountWithinBudget = 0;
+      for (int i = 0; i < amount; i++) {
+        if (costs[i] <= budget) {
+          budgetLatitudes[amountWithinBudget] = latitudes[i];
+          budgetLongitudes[amountWithinBudget] = longitudes[i];
+          amountWithinBudget++;
+        }
+      }
+      isochrones.add(new Isochrone(budget, amountWithinBudget, ConcaveHull.compute(budgetLatitudes,
+          budgetLongitudes, amountWithinBudget, source.getLatitude(), source.getLongitude(), HULL_SECTORS)));
+    }
+    return isochrones;
+  }
+
+  /**
+   * The executor to compute the isochrones on.
+   */
+  private final Executor mComputationExecutor;
+  /**
+   * The time in milliseconds after which the computation of a request is
+   * aborted, <code>0</code> or less to not abort computations.
+   */
+  private final long mComputationTimeout;
+  /**
+   * The database to use for mapping OSM node IDs to internal IDs.
+   */
+  private final IRoutingDatabase mDatabase;
+  /**
+   * The GSON object used to format JSON responses.
+   */
+  private final Gson mGson;
+  /**
+   * The maximal travel time budget in seconds of an isochrone.
+   */
+  private final int mMaxBudget;
+  /**
+   * The time in seconds after which clients whose computation was aborted are
+   * advised to retry.
+   */
+  private final int mRetryAfter;
+  /**
+   * Supplier of the snapshot of the routing model to answer requests with.
+   */
+  private final Supplier<RoutingSnapshot> mSnapshots;
+
+  /**
+   * Creates a new handler which handles requests using the given tools. The
+   * handler is thread-safe and can be shared by all clients.<br>
+   * <br>
+   * To handle a request call {@link #handleRequest(IsochroneRequest)}.
+   *
+   * @param gson                The GSON object used to format JSON responses
+   * @param snapshots           Supplier of the snapshot of the routing model to
+   *                            answer requests with, it is requested once per
+   *                            request
+   * @param database            The database to use for mapping OSM node IDs to
+   *                            internal IDs
+   * @param computationExecutor The executor to compute the isochrones on
+   * @param maxBudget           The maximal travel time budget in seconds of an
+   *                            isochrone. Requests with larger budgets are
+   *                            rejected.
+   * @param computationTimeout  The time in milliseconds after which the
+   *                            computation of a request is aborted,
+   *                            <code>0</code> or less to not abort
+   *                            computations
+   * @param retryAfter          The time in seconds after which clients whose
+   *                            computation was aborted are advised to retry
+   */
+  public IsochroneRequestHandler(final Gson gson, final Supplier<RoutingSnapshot> snapshots,
+      final IRoutingDatabase database, final Executor computationExecutor, final int maxBudget,
+      final long computationTimeout, final int retryAfter) {
+    mGson = gson;
+    mSnapshots = snapshots;
+    mDatabase = database;
+    mComputationExecutor = computationExecutor;
+    mMaxBudget = maxBudget;
+    mComputationTimeout = computationTimeout;
+    mRetryAfter = retryAfter;
+  }
+
+  /**
+   * Handles the given isochrone request. It computes the isochrones and
+   * constructs a proper response.
+   *
+   * @param request The request to handle
+   * @return The response to send to the client
+   */
+  public HttpResponse handleRequest(final IsochroneRequest request) {
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Handling isochrone request: {}", request);
+    }
+    if (!request.isComplete()) {
+      return new HttpResponseBuilder().setStatus(EHttpStatus.BAD_REQUEST).build();
+    }
+    int largestBudget = 0;
+    for (final int budget : request.getBudgets()) {
+      if (budget <= 0 || budget > mMaxBudget) {
+        return new HttpResponseBuilder().setStatus(EHttpStatus.BAD_REQUEST).build();
+      }
+      largestBudget = Math.max(largestBudget, budget);
+    }
+    final long startTime = System.nanoTime();
+
+    final RoutingSnapshot snapshot = mSnapshots.get();
+    final ShortestPathComputationFactory computationFactory = snapshot.getComputationFactory();
+    if (!computationFactory.isIsochroneSupported(request.getModes())) {
+      return new HttpResponseBuilder().setStatus(EHttpStatus.BAD_REQUEST).build();
+    }
+    final Optional<ICoreNode> sourceOptional =
+        mDatabase.getInternalNodeByOsm(request.getFrom()).flatMap(id -> snapshot.getNodeProvider().getNodeById(id));
+    if (!sourceOptional.isPresent()) {
+      final long endTime = System.nanoTime();
+      return createResponse(new IsochroneResponse(RoutingUtil.nanosToMillis(endTime - startTime), 0,
+          request.getFrom(), Collections.emptyList()));
+    }
+    final ICoreNode source = sourceOptional.get();
+
+    final ComputationDeadline deadline;
+    if (mComputationTimeout > 0) {
+      deadline = ComputationDeadline.after(mComputationTimeout, TimeUnit.MILLISECONDS);
+    } else {
+      deadline = ComputationDeadline.none();
+    }
+    final IShortestPathComputation<ICoreNode, ICoreEdge<ICoreNode>> computation = computationFactory
+        .createAlgorithmIsochrone(request.getDepTime(), request.getModes(), largestBudget, deadline);
+
+    final long startCompTime = System.nanoTime();
+    final int[] budgets = request.getBudgets();
+    final List<Isochrone> isochrones = CompletableFuture
+        .supplyAsync(() -> IsochroneRequestHandler.computeIsochrones(computation, source, budgets),
+            mComputationExecutor)
+        .join();
+    final long endCompTime = System.nanoTime();
+
+    if (deadline.wasAborted()) {
+      LOGGER.warn("Aborted computation of isochrone request after {} ms",
+          RoutingUtil.nanosToMillis(endCompTime - startCompTime));
+      return new HttpResponseBuilder().setStatus(EHttpStatus.SERVICE_UNAVAILABLE)
+          .putHeader("Retry-After", String.valueOf(mRetryAfter)).build();
+    }
+
+    final long endTime = System.nanoTime();
+    return createResponse(new IsochroneResponse(RoutingUtil.nanosToMillis(endTime - startTime),
+        RoutingUtil.nanosToMillis(endCompTime - startCompTime), request.getFrom(), isochrones));
+  }
+
+  /**
+   * Creates a response for the given isochrone response.
+   *
+   * @param response The isochrone response to send
+   * @return The response to send to the client
+   */
+  private HttpResponse createResponse(final IsochroneResponse response) {
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Sending response: {}", response);
+    }
+    return new HttpResponseBuilder().setContentType(EHttpContentType.JSON)
+        .setContentWriter(new JsonContentWriter<>(mGson, response, IsochroneResponse.class)).build();
+  }
+}
@@ -0,0 +1,272 @@
+package de.unifreiburg.informatik.cobweb.routing.server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+
+import de.unifreiburg.informatik.cobweb.db.IRoutingDatabase;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.ComputationDeadline;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.IHasPathCost;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.IShortestPathComputation;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.ShortestPathComputationFactory;
+import de.unifreiburg.informatik.cobweb.routing.model.RoutingSnapshot;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.IGetNodeById;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.IPath;
+import de.unifreiburg.informatik.cobweb.routing.server.model.MatrixRequest;
+import de.unifreiburg.informatik.cobweb.routing.server.model.MatrixResponse;
+import de.unifreiburg.informatik.cobweb.util.RoutingUtil;
+import de.unifreiburg.informatik.cobweb.util.http.EHttpContentType;
+import de.unifreiburg.informatik.cobweb.util.http.EHttpStatus;
+import de.unifreiburg.informatik.cobweb.util.http.HttpResponse;
+import de.unifreiburg.informatik.cobweb.util.http.HttpResponseBuilder;
+
+/**
+ * Class that handles a travel time matrix request. It parses the request,
+ * computes the travel times from all sources to all targets and builds a proper
+ * response.<br>
+ * <br>
+ * The rows of the matrix, i.e. the sources, are computed in parallel on the
+ * given executor. If the algorithms of the routing model support it, a row is
+ * computed by a single one-to-all search from its source. Otherwise a shortest
+ * path is computed for every target. Only travel times are sent back, no
+ * routes.<br>
+ * <br>
+ * To handle a request call {@link #handleRequest(MatrixRequest)}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class MatrixRequestHandler {
+  /**
+   * Logger used for logging
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(MatrixRequestHandler.class);
+
+  /**
+   * Computes a row of the matrix, i.e. the travel times from the given source
+   * to all targets.
+   *
+   * @param computationFactory The factory to use for generating algorithms for
+   *                           shortest path computation
+   * @param source             The source of the row or <code>null</code> if
+   *                           unknown
+   * @param targets            The targets, unknown targets are
+   *                           <code>null</code>
+   * @param depTime            The departure time in milliseconds since epoch
+   * @param modes              The allowed transportation modes
+   * @param deadline           The deadline after which to abort computation
+   * @return The travel times in milliseconds to the targets, in the same order,
+   *         or {@link MatrixResponse#UNREACHABLE}
+   */
+  private static long[] computeRow(final ShortestPathComputationFactory computationFactory, final ICoreNode source,
+      final ICoreNode[] targets, final long depTime, final Set<ETransportationMode> modes,
+      final ComputationDeadline deadline) {
+    final long[] row = new long[targets.length];
+    Arrays.fill(row, MatrixResponse.UNREACHABLE);
+    if (source == null) {
+      return row;
+    }
+
+    final IShortestPathComputation<ICoreNode, ICoreEdge<ICoreNode>> computation =
+        computationFactory.createAlgorithm(depTime, modes, deadline);
+    if (computationFactory.isOneToAllSupported()) {
+      final Map<ICoreNode, ? extends IHasPathCost> nodeToCost = computation.computeShortestPathCostsReachable(source);
+      for (int i = 0; i < targets.length; i++) {
+        if (targets[i] == null) {
+          continue;
+        }
+        final IHasPathCost cost = nodeToCost.get(targets[i]);
+        if (cost != null) {
+          row[i] = MatrixRequestHandler.toDuration(cost.getPathCost());
+        }
+      }
+      return row;
+    }
+
+    for (int i = 0; i < targets.length; i++) {
+      if (targets[i] == null) {
+        continue;
+      }
+      if (deadline.checkAbort()) {
+        break;
+      }
+      final Optional<IPath<ICoreNode, ICoreEdge<ICoreNode>>> path =
+          computation.computeShortestPath(source, targets[i]);
+      if (path.isPresent()) {
+        row[i] = MatrixRequestHandler.toDuration(path.get().getTotalCost());
+      }
+    }
+    return row;
+  }
+
+  /**
+   * Converts the given path cost to a travel time in milliseconds.
+   *
+   * @param cost The path cost in seconds
+   * @return The travel time in milliseconds
+   */
+  private static long toDuration(final double cost) {
+    return (long) Math.ceil(RoutingUtil.secondsToMillis(cost));
+  }
+
+  /**
+   * The executor to compute the rows of the matrix on.
+   */
+  private final Executor mComputationExecutor;
+  /**
+   * The time in milliseconds after which the computation of a request is
+   * aborted, <code>0</code> or less to not abort computations.
+   */
+  private final long mComputationTimeout;
+  /**
+   * The database to use for mapping OSM node IDs to internal IDs.
+   */
+  private final IRoutingDatabase mDatabase;
+  /**
+   * The GSON object used to format JSON responses.
+   */
+  private final Gson mGson;
+  /**
+   * The maximal amount of entries of a matrix, i.e. sources times targets.
+   */
+  private final int mMaxMatrixSize;
+  /**
+   * The time in seconds after which clients whose computation was aborted are
+   * advised to retry.
+   */
+  private final int mRetryAfter;
+  /**
+   * Supplier of the snapshot of the routing model to answer requests with.
+   */
+  private final Supplier<RoutingSnapshot> mSnapshots;
+
+  /**
+   * Creates a new handler which handles requests using the given tools. The
+   * handler is thread-safe and can be shared by all clients.<br>
+   * <br>
+   * To handle a request call {@link #handleRequest(MatrixRequest)}.
+   *
+   * @param gson                The GSON object used to format JSON responses
+   * @param snapshots           Supplier of the snapshot of the routing model to
+   *                            answer requests with, it is requested once per
+   *                            request
+   * @param database            The database to use for mapping OSM node IDs to
+   *                            internal IDs
+   * @param computationExecutor The executor to compute the rows of the matrix
+   *                            on, should be able to run tasks in parallel
+   * @param maxMatrixSize       The maximal amount of entries of a matrix, i.e.
+   *                            sources times targets. Larger requests are
+   *                            rejected.
+   * @param computationTimeout  The time in milliseconds after which the
+   *                            computation of a request is aborted,
+   *                            <code>0</code> or less to not abort
+   *                            computations
+   * @param retryAfter          The time in seconds after which clients whose
+   *                            computation was aborted are advised to retry
+   */
+  public MatrixRequestHandler(final Gson gson, final Supplier<RoutingSnapshot> snapshots,
+      final IRoutingDatabase database, final Executor computationExecutor, final int maxMatrixSize,
+      final long computationTimeout, final int retryAfter) {
+    mGson = gson;
+    mSnapshots = snapshots;
+    mDatabase = database;
+    mComputationExecutor = computationExecutor;
+    mMaxMatrixSize = maxMatrixSize;
+    mComputationTimeout = computationTimeout;
+    mRetryAfter = retryAfter;
+  }
+
+  /**
+   * Handles the given matrix request. It computes the travel times and
+   * constructs a proper response.
+   *
+   * @param request The request to handle
+   * @return The response to send to the client
+   */
+  public HttpResponse handleRequest(final MatrixRequest request) {
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Handling matrix request: {}", request);
+    }
+    if (!request.isComplete()
+        || (long) request.getSources().length * request.getTargets().length > mMaxMatrixSize) {
+      return new HttpResponseBuilder().setStatus(EHttpStatus.BAD_REQUEST).build();
+    }
+    final long startTime = System.nanoTime();
+
+    // Use the same snapshot for all rows
+    final RoutingSnapshot snapshot = mSnapshots.get();
+    final ShortestPathComputationFactory computationFactory = snapshot.getComputationFactory();
+    // Unknown nodes are represented by null and are not reachable
+    final ICoreNode[] sources = resolveNodes(snapshot.getNodeProvider(), request.getSources());
+    final ICoreNode[] targets = resolveNodes(snapshot.getNodeProvider(), request.getTargets());
+
+    final ComputationDeadline deadline;
+    if (mComputationTimeout > 0) {
+      deadline = ComputationDeadline.after(mComputationTimeout, TimeUnit.MILLISECONDS);
+    } else {
+      deadline = ComputationDeadline.none();
+    }
+
+    // Compute the rows in parallel
+    final long startCompTime = System.nanoTime();
+    final long depTime = request.getDepTime();
+    final Set<ETransportationMode> modes = request.getModes();
+    final List<CompletableFuture<long[]>> rows = new ArrayList<>(sources.length);
+    for (final ICoreNode source : sources) {
+      rows.add(CompletableFuture.supplyAsync(
+          () -> MatrixRequestHandler.computeRow(computationFactory, source, targets, depTime, modes, deadline),
+          mComputationExecutor));
+    }
+    final long[][] durations = new long[sources.length][];
+    for (int i = 0; i < sources.length; i++) {
+      durations[i] = rows.get(i).join();
+    }
+    final long endCompTime = System.nanoTime();
+
+    if (deadline.wasAborted()) {
+      LOGGER.warn("Aborted computation of matrix request after {} ms",
+          RoutingUtil.nanosToMillis(endCompTime - startCompTime));
+      return new HttpResponseBuilder().setStatus(EHttpStatus.SERVICE_UNAVAILABLE)
+          .putHeader("Retry-After", String.valueOf(mRetryAfter)).build();
+    }
+
+    final long endTime = System.nanoTime();
+    final MatrixResponse response = new MatrixResponse(RoutingUtil.nanosToMillis(endTime - startTime),
+        RoutingUtil.nanosToMillis(endCompTime - startCompTime), request.getSources(), request.getTargets(),
+        durations);
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Sending response: {}", response);
+    }
+    final String content = mGson.toJson(response);
+    return new HttpResponseBuilder().setContentType(EHttpContentType.JSON).setContent(content).build();
+  }
+
+  /**
+   * Resolves the nodes with the given OSM IDs.
+   *
+   * @param nodeProvider The object that provides nodes by their ID
+   * @param osmIds       The OSM IDs of the nodes
+   * @return The nodes, in the same order. Unknown nodes are <code>null</code>.
+   */
+  private ICoreNode[] resolveNodes(final IGetNodeById<ICoreNode> nodeProvider, final long[] osmIds) {
+    final ICoreNode[] nodes = new ICoreNode[osmIds.length];
+    for (int i = 0; i < osmIds.length; i++) {
+      nodes[i] = mDatabase.getInternalNodeByOsm(osmIds[i]).flatMap(id -> nodeProvider.getNodeById(id)).orElse(null);
+    }
+    return nodes;
+  }
+}
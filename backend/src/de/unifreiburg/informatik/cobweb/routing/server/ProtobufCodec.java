@@ -0,0 +1,372 @@
+package de.unifreiburg.informatik.cobweb.routing.server;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.routing.server.model.EGeometryFormat;
+import de.unifreiburg.informatik.cobweb.routing.server.model.ERouteElementType;
+import de.unifreiburg.informatik.cobweb.routing.server.model.Journey;
+import de.unifreiburg.informatik.cobweb.routing.server.model.RouteElement;
+import de.unifreiburg.informatik.cobweb.routing.server.model.RoutingRequest;
+import de.unifreiburg.informatik.cobweb.routing.server.model.RoutingResponse;
+import de.unifreiburg.informatik.cobweb.util.PolylineUtil;
+import de.unifreiburg.informatik.cobweb.util.protobuf.ProtobufReader;
+import de.unifreiburg.informatik.cobweb.util.protobuf.ProtobufWriter;
+
+/**
+ * Utility class which encodes and decodes routing requests and responses in
+ * the binary wire format of protocol buffers. It is used for clients which
+ * send requests with the content type
+ * {@link de.unifreiburg.informatik.cobweb.util.http.EHttpContentType#PROTOBUF
+ * EHttpContentType#PROTOBUF}.<br>
+ * <br>
+ * The messages correspond to the following schema:
+ *
+ * <pre>
+ * message RoutingRequest {
+ *   int64 from = 1;
+ *   int64 to = 2;
+ *   int64 depTime = 3;
+ *   repeated int32 modes = 4 [packed = true];
+ *   int32 geometryFormat = 5;
+ * }
+ * message RoutingResponse {
+ *   int64 time = 1;
+ *   int64 compTime = 2;
+ *   int64 from = 3;
+ *   int64 to = 4;
+ *   repeated Journey journeys = 5;
+ * }
+ * message Journey {
+ *   int64 depTime = 1;
+ *   int64 arrTime = 2;
+ *   repeated RouteElement route = 3;
+ * }
+ * message RouteElement {
+ *   int32 type = 1;
+ *   sint32 mode = 2;
+ *   string name = 3;
+ *   repeated float geom = 4 [packed = true];
+ *   string polyline = 5;
+ * }
+ * </pre>
+ *
+ * The geometry of a route element is either sent as alternating latitude and
+ * longitude coordinates in <code>geom</code> or, if the request asks for
+ * {@link EGeometryFormat#POLYLINE}, in <code>polyline</code>. Unknown fields
+ * are skipped.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class ProtobufCodec {
+  /**
+   * Field number of the arrival time of a journey.
+   */
+  private static final int JOURNEY_ARR_TIME = 2;
+  /**
+   * Field number of the departure time of a journey.
+   */
+  private static final int JOURNEY_DEP_TIME = 1;
+  /**
+   * Field number of the route elements of a journey.
+   */
+  private static final int JOURNEY_ROUTE = 3;
+  /**
+   * Field number of the departure time of a request.
+   */
+  private static final int REQUEST_DEP_TIME = 3;
+  /**
+   * Field number of the source of a request.
+   */
+  private static final int REQUEST_FROM = 1;
+  /**
+   * Field number of the geometry format of a request.
+   */
+  private static final int REQUEST_GEOMETRY_FORMAT = 5;
+  /**
+   * Field number of the transportation modes of a request.
+   */
+  private static final int REQUEST_MODES = 4;
+  /**
+   * Field number of the destination of a request.
+   */
+  private static final int REQUEST_TO = 2;
+  /**
+   * Field number of the computation time of a response.
+   */
+  private static final int RESPONSE_COMP_TIME = 2;
+  /**
+   * Field number of the source of a response.
+   */
+  private static final int RESPONSE_FROM = 3;
+  /**
+   * Field number of the journeys of a response.
+   */
+  private static final int RESPONSE_JOURNEYS = 5;
+  /**
+   * Field number of the time of a response.
+   */
+  private static final int RESPONSE_TIME = 1;
+  /**
+   * Field number of the destination of a response.
+   */
+  private static final int RESPONSE_TO = 4;
+  /**
+   * Field number of the coordinates of a route element.
+   */
+  private static final int ROUTE_ELEMENT_GEOM = 4;
+  /**
+   * Field number of the transportation mode of a route element.
+   */
+  private static final int ROUTE_ELEMENT_MODE = 2;
+  /**
+   * Field number of the name of a route element.
+   */
+  private static final int ROUTE_ELEMENT_NAME = 3;
+  /**
+   * Field number of the encoded polyline of a route element.
+   */
+  private static final int ROUTE_ELEMENT_POLYLINE = 5;
+  /**
+   * Field number of the type of a route element.
+   */
+  private static final int ROUTE_ELEMENT_TYPE = 1;
+
+  /**
+   * Decodes the given routing request.
+   *
+   * @param data The encoded request
+   * @return The decoded request
+   * @throws IllegalArgumentException If the request is malformed, contains no
+   *                                  or unknown transportation modes
+   */
+  public static RoutingRequest decodeRequest(final byte[] data) throws IllegalArgumentException {
+    final ProtobufReader reader = new ProtobufReader(data);
+    long from = 0L;
+    long to = 0L;
+    long depTime = 0L;
+    final Set<ETransportationMode> modes = EnumSet.noneOf(ETransportationMode.class);
+    EGeometryFormat geometryFormat = EGeometryFormat.COORDINATES;
+    while (reader.hasRemaining()) {
+      switch (reader.readTag()) {
+        case REQUEST_FROM:
+          from = reader.readInt64();
+          break;
+        case REQUEST_TO:
+          to = reader.readInt64();
+          break;
+        case REQUEST_DEP_TIME:
+          depTime = reader.readInt64();
+          break;
+        case REQUEST_MODES:
+          for (final int value : reader.readPackedInts()) {
+            final ETransportationMode mode = ETransportationMode.fromValue(value);
+            if (mode == null) {
+              throw new IllegalArgumentException("Unknown transportation mode: " + value);
+            }
+            modes.add(mode);
+          }
+          break;
+        case REQUEST_GEOMETRY_FORMAT:
+          final EGeometryFormat format = EGeometryFormat.fromValue(reader.readInt32());
+          if (format != null) {
+            geometryFormat = format;
+          }
+          break;
+        default:
+          reader.skipField();
+          break;
+      }
+    }
+    if (modes.isEmpty()) {
+      throw new IllegalArgumentException("The request contains no transportation modes");
+    }
+    return new RoutingRequest(from, to, depTime, modes, geometryFormat);
+  }
+
+  /**
+   * Decodes the given routing response. The geometry of route elements is
+   * accepted in both formats.
+   *
+   * @param data The encoded response
+   * @return The decoded response
+   * @throws IllegalArgumentException If the response is malformed
+   */
+  public static RoutingResponse decodeResponse(final byte[] data) throws IllegalArgumentException {
+    final ProtobufReader reader = new ProtobufReader(data);
+    long time = 0L;
+    long compTime = 0L;
+    long from = 0L;
+    long to = 0L;
+    final List<Journey> journeys = new ArrayList<>();
+    while (reader.hasRemaining()) {
+      switch (reader.readTag()) {
+        case RESPONSE_TIME:
+          time = reader.readInt64();
+          break;
+        case RESPONSE_COMP_TIME:
+          compTime = reader.readInt64();
+          break;
+        case RESPONSE_FROM:
+          from = reader.readInt64();
+          break;
+        case RESPONSE_TO:
+          to = reader.readInt64();
+          break;
+        case RESPONSE_JOURNEYS:
+          journeys.add(ProtobufCodec.decodeJourney(reader.readMessage()));
+          break;
+        default:
+          reader.skipField();
+          break;
+      }
+    }
+    return new RoutingResponse(time, compTime, from, to, journeys);
+  }
+
+  /**
+   * Encodes the given routing request.
+   *
+   * @param request The request to encode
+   * @return A writer containing the encoded request
+   */
+  public static ProtobufWriter encodeRequest(final RoutingRequest request) {
+    final ProtobufWriter writer = new ProtobufWriter();
+    writer.writeInt64(REQUEST_FROM, request.getFrom());
+    writer.writeInt64(REQUEST_TO, request.getTo());
+    writer.writeInt64(REQUEST_DEP_TIME, request.getDepTime());
+    writer.writePackedInts(REQUEST_MODES,
+        request.getModes().stream().mapToInt(ETransportationMode::getValue).toArray());
+    writer.writeInt64(REQUEST_GEOMETRY_FORMAT, request.getGeometryFormat().getValue());
+    return writer;
+  }
+
+  /**
+   * Encodes the given routing response.
+   *
+   * @param response       The response to encode
+   * @param geometryFormat The format in which the geometry of route elements is
+   *                       encoded
+   * @return A writer containing the encoded response
+   */
+  public static ProtobufWriter encodeResponse(final RoutingResponse response,
+      final EGeometryFormat geometryFormat) {
+    final ProtobufWriter writer = new ProtobufWriter();
+    writer.writeInt64(RESPONSE_TIME, response.getTime());
+    writer.writeInt64(RESPONSE_COMP_TIME, response.getCompTime());
+    writer.writeInt64(RESPONSE_FROM, response.getFrom());
+    writer.writeInt64(RESPONSE_TO, response.getTo());
+
+    // Nested messages reuse the same writers
+    final ProtobufWriter journeyWriter = new ProtobufWriter();
+    final ProtobufWriter elementWriter = new ProtobufWriter();
+    final StringBuilder polylineBuilder = new StringBuilder();
+    for (final Journey journey : response.getJourneys()) {
+      journeyWriter.reset();
+      journeyWriter.writeInt64(JOURNEY_DEP_TIME, journey.getDepTime());
+      journeyWriter.writeInt64(JOURNEY_ARR_TIME, journey.getArrTime());
+      for (final RouteElement element : journey.getRoute()) {
+        elementWriter.reset();
+        elementWriter.writeInt64(ROUTE_ELEMENT_TYPE, element.getType().getValue());
+        elementWriter.writeSInt32(ROUTE_ELEMENT_MODE, element.getMode().getValue());
+        if (element.getName() != null) {
+          elementWriter.writeString(ROUTE_ELEMENT_NAME, element.getName());
+        }
+        if (geometryFormat == EGeometryFormat.POLYLINE) {
+          polylineBuilder.setLength(0);
+          PolylineUtil.encode(element.getGeom(), polylineBuilder);
+          elementWriter.writeString(ROUTE_ELEMENT_POLYLINE, polylineBuilder.toString());
+        } else {
+          elementWriter.writeCoordinates(ROUTE_ELEMENT_GEOM, element.getGeom());
+        }
+        journeyWriter.writeMessage(JOURNEY_ROUTE, elementWriter);
+      }
+      writer.writeMessage(RESPONSE_JOURNEYS, journeyWriter);
+    }
+    return writer;
+  }
+
+  /**
+   * Decodes the given journey.
+   *
+   * @param reader The reader containing the encoded journey
+   * @return The decoded journey
+   * @throws IllegalArgumentException If the journey is malformed
+   */
+  private static Journey decodeJourney(final ProtobufReader reader) throws IllegalArgumentException {
+    long depTime = 0L;
+    long arrTime = 0L;
+    final List<RouteElement> route = new ArrayList<>();
+    while (reader.hasRemaining()) {
+      switch (reader.readTag()) {
+        case JOURNEY_DEP_TIME:
+          depTime = reader.readInt64();
+          break;
+        case JOURNEY_ARR_TIME:
+          arrTime = reader.readInt64();
+          break;
+        case JOURNEY_ROUTE:
+          route.add(ProtobufCodec.decodeRouteElement(reader.readMessage()));
+          break;
+        default:
+          reader.skipField();
+          break;
+      }
+    }
+    return new Journey(depTime, arrTime, route);
+  }
+
+  /**
+   * Decodes the given route element.
+   *
+   * @param reader The reader containing the encoded route element
+   * @return The decoded route element
+   * @throws IllegalArgumentException If the route element is malformed
+   */
+  private static RouteElement decodeRouteElement(final ProtobufReader reader) throws IllegalArgumentException {
+    ERouteElementType type = ERouteElementType.NODE;
+    ETransportationMode mode = ETransportationMode.IRRELEVANT;
+    String name = null;
+    List<float[]> geom = Collections.emptyList();
+    while (reader.hasRemaining()) {
+      switch (reader.readTag()) {
+        case ROUTE_ELEMENT_TYPE:
+          type = ERouteElementType.fromValue(reader.readInt32());
+          if (type == null) {
+            throw new IllegalArgumentException("Unknown route element type");
+          }
+          break;
+        case ROUTE_ELEMENT_MODE:
+          mode = ETransportationMode.fromValue(reader.readSInt32());
+          if (mode == null) {
+            throw new IllegalArgumentException("Unknown transportation mode");
+          }
+          break;
+        case ROUTE_ELEMENT_NAME:
+          name = reader.readString();
+          break;
+        case ROUTE_ELEMENT_GEOM:
+          geom = reader.readCoordinates();
+          break;
+        case ROUTE_ELEMENT_POLYLINE:
+          geom = PolylineUtil.decode(reader.readString());
+          break;
+        default:
+          reader.skipField();
+          break;
+      }
+    }
+    return new RouteElement(type, mode, name, geom);
+  }
+
+  /**
+   * Utility class. No implementation.
+   */
+  private ProtobufCodec() {
+
+  }
+}
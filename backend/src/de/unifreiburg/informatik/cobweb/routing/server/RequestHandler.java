@@ -1,7 +1,5 @@
 package de.unifreiburg.informatik.cobweb.routing.server;
 
-import java.io.IOException;
-import java.net.Socket;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
@@ -9,7 +7,18 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.StringJoiner;
-
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import org.eclipse.collections.api.map.primitive.IntLongMap;
+import org.eclipse.collections.api.map.primitive.IntObjectMap;
+import org.eclipse.collections.api.map.primitive.LongObjectMap;
+import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
+import org.eclipse.collections.api.set.primitive.IntSet;
+import org.eclipse.collections.api.set.primitive.MutableIntSet;
+import org.eclipse.collections.impl.factory.primitive.IntSets;
+import org.eclipse.collections.impl.map.mutable.primitive.IntObjectHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -17,8 +26,7 @@ import com.google.gson.Gson;
 
 import de.unifreiburg.informatik.cobweb.db.IRoutingDatabase;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.EdgePath;
-import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.IShortestPathComputation;
-import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.ShortestPathComputationFactory;
+import de.unifreiburg.informatik.cobweb.routing.model.RoutingSnapshot;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.EdgeCost;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
@@ -35,14 +43,31 @@ import de.unifreiburg.informatik.cobweb.routing.server.model.RoutingRequest;
 import de.unifreiburg.informatik.cobweb.routing.server.model.RoutingResponse;
 import de.unifreiburg.informatik.cobweb.util.RoutingUtil;
 import de.unifreiburg.informatik.cobweb.util.http.EHttpContentType;
+import de.unifreiburg.informatik.cobweb.util.http.EHttpStatus;
+import de.unifreiburg.informatik.cobweb.util.http.HttpResponse;
 import de.unifreiburg.informatik.cobweb.util.http.HttpResponseBuilder;
-import de.unifreiburg.informatik.cobweb.util.http.HttpUtil;
 
 /**
  * Class that handles a routing request. It parses the request, computes
- * corresponding shortest paths and builds and sends a proper response.<br>
+ * corresponding shortest paths and builds a proper response.<br>
+ * <br>
+ * To handle a request call {@link #handleRequest(RoutingRequest)}. The
+ * computation of a request is aborted once it exceeds the computation timeout.
+ * Such requests are answered with {@link EHttpStatus#SERVICE_UNAVAILABLE}
+ * since their result may be incomplete.<br>
+ * <br>
+ * Shortest paths are computed by a {@link RouteQueryCoalescer}, identical
+ * concurrent requests share a single computation and recent results are
+ * reused. Journeys therefore start at the normalized departure time of the
+ * request, which is not earlier than the requested one.<br>
+ * <br>
+ * Responses are streamed to the client by a {@link RoutingResponseWriter}, in
+ * the geometry format chosen by the request. Clients using the binary format
+ * get responses encoded by {@link ProtobufCodec} instead.<br>
  * <br>
- * To handle a request call {@link #handleRequest(RoutingRequest)}.
+ * The names of all nodes of a journey are resolved at once after the journey
+ * was split into its sub-paths, such that building a journey only accesses the
+ * database twice, independent of its length.
  *
  * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
  */
@@ -51,14 +76,72 @@ public final class RequestHandler {
    * Logger used for logging
    */
   private static final Logger LOGGER = LoggerFactory.getLogger(RequestHandler.class);
+
   /**
-   * The client whose request to handle.
+   * Appends the given sub-path to the route.
+   *
+   * @param subPath   The sub-path to add
+   * @param mode      The transportation mode to use for this sub-path
+   * @param nodeNames Map connecting internal node IDs to their names, must
+   *                  contain the names of the source and destination of the
+   *                  sub-path if they have one
+   * @param route     The route to add the sub-path to
    */
-  private final Socket mClient;
+  private static void appendSubPath(final IPath<ICoreNode, ICoreEdge<ICoreNode>> subPath,
+      final ETransportationMode mode, final IntObjectMap<String> nodeNames, final List<RouteElement> route) {
+    route.add(RequestHandler.buildNode(subPath.getSource(), nodeNames));
+    route.add(RequestHandler.buildPath(subPath, mode, nodeNames));
+    route.add(RequestHandler.buildNode(subPath.getDestination(), nodeNames));
+  }
+
   /**
-   * The factory to use for generating algorithms for shortest path computation.
+   * Builds a route element which represents the given node.
+   *
+   * @param node      The node to represent
+   * @param nodeNames Map connecting internal node IDs to their names, must
+   *                  contain the name of the node if it has one
+   * @return The resulting route element
    */
-  private final ShortestPathComputationFactory mComputationFactory;
+  private static RouteElement buildNode(final ICoreNode node, final IntObjectMap<String> nodeNames) {
+    final String name = nodeNames.getIfAbsent(node.getId(), () -> "");
+    final float[] coordinates = new float[] { node.getLatitude(), node.getLongitude() };
+    return new RouteElement(ERouteElementType.NODE, name, Collections.singletonList(coordinates));
+  }
+
+  /**
+   * Builds a route element which represents the given path.
+   *
+   * @param path      The path to represent
+   * @param mode      The transportation mode to use for this path
+   * @param nodeNames Map connecting internal node IDs to their names, must
+   *                  contain the name of the source of the path if it has one
+   * @return The resulting route element
+   */
+  private static RouteElement buildPath(final IPath<ICoreNode, ICoreEdge<ICoreNode>> path,
+      final ETransportationMode mode, final IntObjectMap<String> nodeNames) {
+    // TODO The current way of constructing a name may be inappropriate
+    final StringJoiner nameJoiner = new StringJoiner(", ");
+    final List<float[]> geom = new ArrayList<>(path.length() + 1);
+
+    // Add the source
+    final ICoreNode source = path.getSource();
+    geom.add(new float[] { source.getLatitude(), source.getLongitude() });
+    if (source instanceof IRoadNode) {
+      final String sourceName = nodeNames.get(source.getId());
+      if (sourceName != null) {
+        nameJoiner.add(sourceName);
+      }
+    }
+
+    // Add all edge destinations
+    for (final EdgeCost<ICoreNode, ICoreEdge<ICoreNode>> edgeCost : path) {
+      final ICoreNode edgeDestination = edgeCost.getEdge().getDestination();
+      geom.add(new float[] { edgeDestination.getLatitude(), edgeDestination.getLongitude() });
+    }
+
+    return new RouteElement(ERouteElementType.PATH, mode, nameJoiner.toString(), geom);
+  }
+
   /**
    * The database to use for fetching meta data for nodes and edges.
    */
@@ -68,84 +151,112 @@ public final class RequestHandler {
    */
   private final Gson mGson;
   /**
-   * The object that provides nodes by their ID.
+   * The time in seconds after which clients whose computation was aborted are
+   * advised to retry.
+   */
+  private final int mRetryAfter;
+  /**
+   * The object used to compute shortest paths, shared by all clients.
+   */
+  private final RouteQueryCoalescer mRouteCoalescer;
+  /**
+   * Supplier of the snapshot of the routing model to answer requests with.
    */
-  private final IGetNodeById<ICoreNode> mNodeProvider;
+  private final Supplier<RoutingSnapshot> mSnapshots;
   /**
    * Comparator that sorts transportation modes ascending in their speed.
    */
   private final SpeedTransportationModeComparator mSpeedComparator;
 
   /**
-   * Creates a new handler which handles requests of the given client using the
-   * given tools.<br>
+   * Creates a new handler which handles requests using the given tools. The
+   * handler is thread-safe and can be shared by all clients.<br>
    * <br>
    * To handle a request call {@link #handleRequest(RoutingRequest)}.
    *
-   * @param client             The client whose request to handle
-   * @param gson               The GSON object used to format JSON responses
-   * @param nodeProvider       The object that provides nodes by their ID
-   * @param computationFactory The factory to use for generating algorithms for
-   *                           shortest path computation
-   * @param database           The database to use for fetching meta data for
-   *                           nodes and edges
+   * @param gson           The GSON object used to format JSON responses
+   * @param snapshots      Supplier of the snapshot of the routing model to
+   *                       answer requests with, it is requested once per
+   *                       request
+   * @param routeCoalescer The object used to compute shortest paths, it
+   *                       coalesces identical requests and caches results
+   * @param database       The database to use for fetching meta data for nodes
+   *                       and edges
+   * @param retryAfter     The time in seconds after which clients whose
+   *                       computation was aborted are advised to retry
    */
-  public RequestHandler(final Socket client, final Gson gson, final IGetNodeById<ICoreNode> nodeProvider,
-      final ShortestPathComputationFactory computationFactory, final IRoutingDatabase database) {
-    mClient = client;
+  public RequestHandler(final Gson gson, final Supplier<RoutingSnapshot> snapshots,
+      final RouteQueryCoalescer routeCoalescer, final IRoutingDatabase database, final int retryAfter) {
     mGson = gson;
-    mNodeProvider = nodeProvider;
-    mComputationFactory = computationFactory;
+    mSnapshots = snapshots;
+    mRouteCoalescer = routeCoalescer;
     mDatabase = database;
+    mRetryAfter = retryAfter;
     mSpeedComparator = new SpeedTransportationModeComparator();
   }
 
   /**
    * Handles the given routing request. It computes shortest paths and
-   * constructs and sends a proper response.
+   * constructs a proper response.
    *
    * @param request The request to handle
-   * @throws IOException If an I/O exception occurred while sending a response
+   * @return The response to send to the client
    */
-  public void handleRequest(final RoutingRequest request) throws IOException {
+  public HttpResponse handleRequest(final RoutingRequest request) {
+    return handleRequest(request, EHttpContentType.JSON);
+  }
+
+  /**
+   * Handles the given routing request and encodes the response in the given
+   * content type.
+   *
+   * @param request      The request to handle
+   * @param responseType The content type to encode the response in, either
+   *                     {@link EHttpContentType#JSON} or
+   *                     {@link EHttpContentType#PROTOBUF}
+   * @return The response to send to the client
+   */
+  public HttpResponse handleRequest(final RoutingRequest request, final EHttpContentType responseType) {
     if (LOGGER.isDebugEnabled()) {
       LOGGER.debug("Handling request: {}", request);
     }
     final long startTime = System.nanoTime();
 
+    // Resolve and compute everything on the same snapshot
+    final RoutingSnapshot snapshot = mSnapshots.get();
+
     // Get the source and destination
+    final IGetNodeById<ICoreNode> nodeProvider = snapshot.getNodeProvider();
     final Optional<ICoreNode> sourceOptional =
-        mDatabase.getInternalNodeByOsm(request.getFrom()).flatMap(id -> mNodeProvider.getNodeById(id));
+        mDatabase.getInternalNodeByOsm(request.getFrom()).flatMap(id -> nodeProvider.getNodeById(id));
     if (!sourceOptional.isPresent()) {
-      sendEmptyResponse(request, startTime);
-      return;
+      return createEmptyResponse(request, startTime, responseType);
     }
     final Optional<ICoreNode> destinationOptional =
-        mDatabase.getInternalNodeByOsm(request.getTo()).flatMap(id -> mNodeProvider.getNodeById(id));
+        mDatabase.getInternalNodeByOsm(request.getTo()).flatMap(id -> nodeProvider.getNodeById(id));
     if (!destinationOptional.isPresent()) {
-      sendEmptyResponse(request, startTime);
-      return;
+      return createEmptyResponse(request, startTime, responseType);
     }
 
     // Nodes are known, compute the path
     final ICoreNode source = sourceOptional.get();
     final ICoreNode destination = destinationOptional.get();
 
-    final IShortestPathComputation<ICoreNode, ICoreEdge<ICoreNode>> computation =
-        mComputationFactory.createAlgorithm(request.getDepTime(), request.getModes());
-
     final long startCompTime = System.nanoTime();
-    final Optional<IPath<ICoreNode, ICoreEdge<ICoreNode>>> pathOptional =
-        computation.computeShortestPath(source, destination);
+    final RouteQueryResult result = mRouteCoalescer.computeShortestPath(snapshot, source, destination,
+        request.getDepTime(), request.getModes());
     final long endCompTime = System.nanoTime();
+    if (result.isAborted()) {
+      return createAbortedResponse(request, startCompTime, endCompTime);
+    }
+    final Optional<IPath<ICoreNode, ICoreEdge<ICoreNode>>> pathOptional = result.getPath();
     if (!pathOptional.isPresent()) {
-      sendNotReachableResponse(request, startTime, startCompTime);
-      return;
+      return createNotReachableResponse(request, startTime, startCompTime, responseType);
     }
 
     // Path is present, build the resulting journey
     final IPath<ICoreNode, ICoreEdge<ICoreNode>> path = pathOptional.get();
-    final Journey journey = buildJourney(request, path);
+    final Journey journey = buildJourney(request, result.getDepTime(), path);
 
     final long endTime = System.nanoTime();
 
@@ -153,32 +264,20 @@ public final class RequestHandler {
     final RoutingResponse response = new RoutingResponse(RoutingUtil.nanosToMillis(endTime - startTime),
         RoutingUtil.nanosToMillis(endCompTime - startCompTime), request.getFrom(), request.getTo(),
         Collections.singletonList(journey));
-    sendResponse(response);
-  }
-
-  /**
-   * Appends the given sub-path to the route.
-   *
-   * @param subPath The sub-path to add
-   * @param mode    The transportation mode to use for this sub-path
-   * @param route   The route to add the sub-path to
-   */
-  private void appendSubPath(final IPath<ICoreNode, ICoreEdge<ICoreNode>> subPath, final ETransportationMode mode,
-      final List<RouteElement> route) {
-    route.add(buildNode(subPath.getSource()));
-    route.add(buildPath(subPath, mode));
-    route.add(buildNode(subPath.getDestination()));
+    return createResponse(request, response, responseType);
   }
 
   /**
    * Builds a journey object which represents the given path.
    *
    * @param request The request the journey belongs to
+   * @param depTime The departure time of the journey, in milliseconds since
+   *                epoch
    * @param path    The path the journey represents
    * @return The resulting journey
    */
-  private Journey buildJourney(final RoutingRequest request, final IPath<ICoreNode, ICoreEdge<ICoreNode>> path) {
-    final long depTime = request.getDepTime();
+  private Journey buildJourney(final RoutingRequest request, final long depTime,
+      final IPath<ICoreNode, ICoreEdge<ICoreNode>> path) {
     final long duration = (long) Math.ceil(RoutingUtil.secondsToMillis(path.getTotalCost()));
     final long arrTime = depTime + duration;
 
@@ -189,10 +288,13 @@ public final class RequestHandler {
     // Build the route
     // If path is empty we use a singleton node only
     if (path.length() == 0) {
-      route.add(buildNode(path.getSource()));
+      final IntObjectMap<String> nodeNames = resolveNodeNames(IntSets.immutable.of(path.getSource().getId()));
+      route.add(RequestHandler.buildNode(path.getSource(), nodeNames));
       return new Journey(depTime, arrTime, route);
     }
 
+    final List<EdgePath<ICoreNode, ICoreEdge<ICoreNode>>> subPaths = new ArrayList<>();
+    final List<ETransportationMode> subPathModes = new ArrayList<>();
     EdgePath<ICoreNode, ICoreEdge<ICoreNode>> currentPath = null;
     ETransportationMode currentMode = null;
     // Collect sub paths that use a single transportation mode
@@ -200,64 +302,31 @@ public final class RequestHandler {
       final ICoreEdge<ICoreNode> edge = edgeCost.getEdge();
       final ETransportationMode edgeMode = getModeOfEdge(request.getModes(), edge);
 
-      // Mode differs
+      // Mode differs, prepare next path with new mode
       if (edgeMode != currentMode || currentPath == null) {
-        // Append current path
-        if (currentPath != null) {
-          appendSubPath(currentPath, currentMode, route);
-        }
-        // Prepare next path with new mode
         currentPath = new EdgePath<>();
         currentMode = edgeMode;
+        subPaths.add(currentPath);
+        subPathModes.add(currentMode);
       }
 
       // Collect edge to current path
       currentPath.addEdge(edge, edgeCost.getCost());
     }
-    // Append last path
-    appendSubPath(currentPath, currentMode, route);
-
-    return new Journey(depTime, arrTime, route);
-  }
-
-  /**
-   * Builds a route element which represents the given node.
-   *
-   * @param node The node to represent
-   * @return The resulting route element
-   */
-  private RouteElement buildNode(final ICoreNode node) {
-    final String name = mDatabase.getOsmNodeByInternal(node.getId()).flatMap(mDatabase::getNodeName).orElse("");
-    final float[] coordinates = new float[] { node.getLatitude(), node.getLongitude() };
-    return new RouteElement(ERouteElementType.NODE, name, Collections.singletonList(coordinates));
-  }
 
-  /**
-   * Builds a route element which represents the given path.
-   *
-   * @param path The path to represent
-   * @param mode The transportation mode to use for this path
-   * @return The resulting route element
-   */
-  private RouteElement buildPath(final IPath<ICoreNode, ICoreEdge<ICoreNode>> path, final ETransportationMode mode) {
-    // TODO The current way of constructing a name may be inappropriate
-    final StringJoiner nameJoiner = new StringJoiner(", ");
-    final List<float[]> geom = new ArrayList<>(path.length() + 1);
-
-    // Add the source
-    final ICoreNode source = path.getSource();
-    geom.add(new float[] { source.getLatitude(), source.getLongitude() });
-    if (source instanceof IRoadNode) {
-      mDatabase.getOsmNodeByInternal(source.getId()).flatMap(mDatabase::getNodeName).ifPresent(nameJoiner::add);
+    // Resolve the names of all sub path ends at once
+    final MutableIntSet nodeIds = IntSets.mutable.empty();
+    for (final EdgePath<ICoreNode, ICoreEdge<ICoreNode>> subPath : subPaths) {
+      nodeIds.add(subPath.getSource().getId());
+      nodeIds.add(subPath.getDestination().getId());
     }
+    final IntObjectMap<String> nodeNames = resolveNodeNames(nodeIds);
 
-    // Add all edge destinations
-    for (final EdgeCost<ICoreNode, ICoreEdge<ICoreNode>> edgeCost : path) {
-      final ICoreNode edgeDestination = edgeCost.getEdge().getDestination();
-      geom.add(new float[] { edgeDestination.getLatitude(), edgeDestination.getLongitude() });
+    for (int i = 0; i < subPaths.size(); i++) {
+      RequestHandler.appendSubPath(subPaths.get(i), subPathModes.get(i), nodeNames, route);
     }
 
-    return new RouteElement(ERouteElementType.PATH, mode, nameJoiner.toString(), geom);
+    return new Journey(depTime, arrTime, route);
   }
 
   /**
@@ -281,23 +350,65 @@ public final class RequestHandler {
   }
 
   /**
-   * Sends an empty routing response. This is usually used if no shortest path
+   * Resolves the names of the given nodes by using bulk lookups of the
+   * database.
+   *
+   * @param nodeIds The internal IDs of the nodes to resolve
+   * @return Map connecting internal node IDs to their names. Nodes without a
+   *         name are not contained.
+   */
+  private IntObjectMap<String> resolveNodeNames(final IntSet nodeIds) {
+    final IntLongMap internalToOsm = mDatabase.getOsmNodesByInternal(IntStream.of(nodeIds.toArray()), nodeIds.size());
+    final LongObjectMap<String> osmToName =
+        mDatabase.getNodeNames(LongStream.of(internalToOsm.values().toArray()), internalToOsm.size());
+
+    final MutableIntObjectMap<String> nodeNames = new IntObjectHashMap<>(osmToName.size());
+    internalToOsm.forEachKeyValue((internalId, osmId) -> {
+      final String name = osmToName.get(osmId);
+      if (name != null) {
+        nodeNames.put(internalId, name);
+      }
+    });
+    return nodeNames;
+  }
+
+  /**
+   * Creates a response for a request whose computation was aborted because it
+   * exceeded the computation timeout.
+   *
+   * @param request       The request whose computation was aborted
+   * @param startCompTime The time the computation started, in nanoseconds
+   * @param endCompTime   The time the computation was aborted, in nanoseconds
+   * @return The response to send to the client
+   */
+  private HttpResponse createAbortedResponse(final RoutingRequest request, final long startCompTime,
+      final long endCompTime) {
+    LOGGER.warn("Aborted computation of request after {} ms: {}",
+        RoutingUtil.nanosToMillis(endCompTime - startCompTime), request);
+    return new HttpResponseBuilder().setStatus(EHttpStatus.SERVICE_UNAVAILABLE)
+        .putHeader("Retry-After", String.valueOf(mRetryAfter)).build();
+  }
+
+  /**
+   * Creates an empty routing response. This is usually used if no shortest path
    * could be found.
    *
-   * @param request   The request to respond to
-   * @param startTime The time the computation started, in nanoseconds. Must be
-   *                  compatible with {@link System#nanoTime()}.
-   * @throws IOException If an I/O exception occurred while sending the response
+   * @param request      The request to respond to
+   * @param startTime    The time the computation started, in nanoseconds.
+   *                     Must be compatible with {@link System#nanoTime()}.
+   * @param responseType The content type to encode the response in
+   * @return The response to send to the client
    */
-  private void sendEmptyResponse(final RoutingRequest request, final long startTime) throws IOException {
+  private HttpResponse createEmptyResponse(final RoutingRequest request, final long startTime,
+      final EHttpContentType responseType) {
     final long endTime = System.nanoTime();
     final RoutingResponse response = new RoutingResponse(RoutingUtil.nanosToMillis(endTime - startTime), 0L,
         request.getFrom(), request.getTo(), Collections.emptyList());
-    sendResponse(response);
+    return createResponse(request, response, responseType);
   }
 
   /**
-   * Sends a not reachable response. This is usually used if no shortest path
+   * Creates a not reachable response. This is usually used if no shortest path
    * could be found.
    *
    * @param request       The request to respond to
@@ -306,29 +417,37 @@ public final class RequestHandler {
    * @param startCompTime The time the computation of the shortest path started,
    *                      in nanoseconds. Must be compatible with
    *                      {@link System#nanoTime()}.
-   * @throws IOException If an I/O exception occurred while sending the response
+   * @param responseType  The content type to encode the response in
+   * @return The response to send to the client
    */
-  private void sendNotReachableResponse(final RoutingRequest request, final long startTime, final long startCompTime)
-      throws IOException {
+  private HttpResponse createNotReachableResponse(final RoutingRequest request, final long startTime,
+      final long startCompTime, final EHttpContentType responseType) {
     final long endTime = System.nanoTime();
     final RoutingResponse response = new RoutingResponse(RoutingUtil.nanosToMillis(endTime - startTime),
         RoutingUtil.nanosToMillis(endTime - startCompTime), request.getFrom(), request.getTo(),
         Collections.emptyList());
-    sendResponse(response);
+    return createResponse(request, response, responseType);
   }
 
   /**
-   * Sends the given routing response.
+   * Creates the HTTP response for the given routing response. The response is
+   * streamed to the client instead of being encoded as string first.
    *
-   * @param response The response to send
-   * @throws IOException If an I/O exception occurred while sending the response
+   * @param request      The request to respond to
+   * @param response     The response to send
+   * @param responseType The content type to encode the response in
+   * @return The response to send to the client
    */
-  private void sendResponse(final RoutingResponse response) throws IOException {
+  private HttpResponse createResponse(final RoutingRequest request, final RoutingResponse response,
+      final EHttpContentType responseType) {
     if (LOGGER.isDebugEnabled()) {
       LOGGER.debug("Sending response: {}", response);
     }
-    final String content = mGson.toJson(response);
-    HttpUtil.sendHttpResponse(
-        new HttpResponseBuilder().setContentType(EHttpContentType.JSON).setContent(content).build(), mClient);
+    if (responseType == EHttpContentType.PROTOBUF) {
+      return new HttpResponseBuilder().setContentType(EHttpContentType.PROTOBUF)
+          .setContentWriter(ProtobufCodec.encodeResponse(response, request.getGeometryFormat())::writeTo).build();
+    }
+    return new HttpResponseBuilder().setContentType(EHttpContentType.JSON)
+        .setContentWriter(new RoutingResponseWriter(mGson, response, request.getGeometryFormat())).build();
   }
 }
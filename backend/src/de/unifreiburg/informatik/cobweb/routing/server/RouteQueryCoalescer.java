@@ -0,0 +1,541 @@
+package de.unifreiburg.informatik.cobweb.routing.server;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.ComputationDeadline;
+import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.ShortestPathComputationFactory;
+import de.unifreiburg.informatik.cobweb.routing.model.RoutingSnapshot;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.IPath;
+
+/**
+ * Answers route queries by computing shortest paths with algorithms of a
+ * {@link ShortestPathComputationFactory}, shared by all clients of a routing
+ * server.<br>
+ * <br>
+ * Queries are computed on the snapshot of the routing model given by the
+ * caller, which should be the snapshot it already used to resolve the source
+ * and destination. The version of the snapshot is part of the query, results
+ * are thus never shared across snapshots.<br>
+ * <br>
+ * Queries are normalized before computation, their departure time is rounded
+ * up to the configured interval, see {@link #normalizeDepTime(long)}. Identical
+ * normalized queries that arrive while a computation for them is in flight do
+ * not start a computation of their own. Instead they wait for the running
+ * computation and share its result. Additionally results are stored in a small
+ * cache for a short time, queries that find a valid entry are answered without
+ * computation. Results of aborted computations are shared with the waiting
+ * queries but not cached.<br>
+ * <br>
+ * The object is safe to use by multiple threads. If the cache exceeds its
+ * capacity the oldest entries are evicted first. The object records cache
+ * hits, coalesced queries and computations, see {@link #getHits()},
+ * {@link #getCoalesced()} and {@link #getMisses()}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class RouteQueryCoalescer {
+  /**
+   * The amount of queries after which the statistics are logged.
+   */
+  private static final int LOG_INTERVAL = 10_000;
+  /**
+   * Logger to use for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(RouteQueryCoalescer.class);
+
+  /**
+   * Converts the given transportation modes into a bit mask.
+   *
+   * @param modes The modes to convert
+   * @return The bit mask which has the bit of the ordinal of each mode set
+   */
+  private static int toModeMask(final Set<ETransportationMode> modes) {
+    int modeMask = 0;
+    for (final ETransportationMode mode : modes) {
+      modeMask |= 1 << mode.ordinal();
+    }
+    return modeMask;
+  }
+
+  /**
+   * The maximal amount of entries in the cache, <code>0</code> or less if the
+   * cache is disabled.
+   */
+  private final int mCapacity;
+  /**
+   * The clock used to determine the age of entries, in milliseconds.
+   */
+  private final LongSupplier mClock;
+  /**
+   * The amount of queries that waited for the computation of an identical
+   * query.
+   */
+  private final LongAdder mCoalesced;
+  /**
+   * The object used to compute shortest paths.
+   */
+  private final IRouteComputation mComputation;
+  /**
+   * The executor to compute shortest paths on.
+   */
+  private final Executor mComputationExecutor;
+  /**
+   * The time in milliseconds after which the computation of a query is
+   * aborted, <code>0</code> or less to not abort computations.
+   */
+  private final long mComputationTimeout;
+  /**
+   * The interval in milliseconds departure times are rounded up to,
+   * <code>0</code> or less to not round departure times.
+   */
+  private final long mDepTimeRounding;
+  /**
+   * The amount of evicted entries.
+   */
+  private final LongAdder mEvictions;
+  /**
+   * The amount of queries that were answered by a valid entry of the cache.
+   */
+  private final LongAdder mHits;
+  /**
+   * Map connecting normalized queries whose computation is in flight to the
+   * future of their result.
+   */
+  private final Map<RouteQuery, CompletableFuture<RouteQueryResult>> mInFlight;
+  /**
+   * The queries of all entries in the order they were inserted, used for
+   * eviction.
+   */
+  private final Queue<RouteQuery> mInsertionOrder;
+  /**
+   * The amount of queries that started a computation.
+   */
+  private final LongAdder mMisses;
+  /**
+   * Map connecting normalized queries to their cached entries.
+   */
+  private final Map<RouteQuery, CacheEntry> mQueryToEntry;
+  /**
+   * The time in milliseconds after which entries expire.
+   */
+  private final long mTimeToLive;
+
+  /**
+   * Creates a new coalescer which computes shortest paths with algorithms of
+   * the factory of the snapshot given with each query.
+   *
+   * @param computationExecutor The executor to compute shortest paths on
+   * @param computationTimeout  The time in milliseconds after which the
+   *                            computation of a query is aborted,
+   *                            <code>0</code> or less to not abort computations
+   * @param depTimeRounding     The interval in milliseconds departure times are
+   *                            rounded up to, <code>0</code> or less to not
+   *                            round departure times
+   * @param capacity            The maximal amount of entries in the result
+   *                            cache, <code>0</code> or less to disable the
+   *                            cache
+   * @param timeToLive          The time in milliseconds after which entries of
+   *                            the result cache expire
+   */
+  public RouteQueryCoalescer(final Executor computationExecutor, final long computationTimeout,
+      final long depTimeRounding, final int capacity, final long timeToLive) {
+    this((snapshot, source, destination, depTime, modes, deadline) -> snapshot.getComputationFactory()
+        .createAlgorithm(depTime, modes, deadline).computeShortestPath(source, destination), computationExecutor,
+        computationTimeout, depTimeRounding, capacity, timeToLive, System::currentTimeMillis);
+  }
+
+  /**
+   * Creates a new coalescer which computes shortest paths with the given
+   * object and uses the given clock.
+   *
+   * @param computation         The object used to compute shortest paths
+   * @param computationExecutor The executor to compute shortest paths on
+   * @param computationTimeout  The time in milliseconds after which the
+   *                            computation of a query is aborted,
+   *                            <code>0</code> or less to not abort computations
+   * @param depTimeRounding     The interval in milliseconds departure times are
+   *                            rounded up to, <code>0</code> or less to not
+   *                            round departure times
+   * @param capacity            The maximal amount of entries in the result
+   *                            cache, <code>0</code> or less to disable the
+   *                            cache
+   * @param timeToLive          The time in milliseconds after which entries of
+   *                            the result cache expire
+   * @param clock               The clock used to determine the age of entries,
+   *                            in milliseconds
+   */
+  RouteQueryCoalescer(final IRouteComputation computation, final Executor computationExecutor,
+      final long computationTimeout, final long depTimeRounding, final int capacity, final long timeToLive,
+      final LongSupplier clock) {
+    mComputation = computation;
+    mComputationExecutor = computationExecutor;
+    mComputationTimeout = computationTimeout;
+    mDepTimeRounding = depTimeRounding;
+    mCapacity = capacity;
+    mTimeToLive = timeToLive;
+    mClock = clock;
+    mInFlight = new ConcurrentHashMap<>();
+    mQueryToEntry = new ConcurrentHashMap<>(Math.max(capacity, 0));
+    mInsertionOrder = new ConcurrentLinkedQueue<>();
+    mHits = new LongAdder();
+    mCoalesced = new LongAdder();
+    mMisses = new LongAdder();
+    mEvictions = new LongAdder();
+  }
+
+  /**
+   * Computes the shortest path from the given source to the given destination.
+   * If an identical query is computed at the moment, the method waits for its
+   * result instead of computing it again.
+   *
+   * @param snapshot    The snapshot of the routing model to compute the path
+   *                    on, the source and destination must belong to it
+   * @param source      The source to start from
+   * @param destination The destination to compute the path to
+   * @param depTime     The departure time in milliseconds since epoch
+   * @param modes       The allowed transportation modes
+   * @return The result of the query, its departure time is the normalized
+   *         departure time
+   */
+  public RouteQueryResult computeShortestPath(final RoutingSnapshot snapshot, final ICoreNode source,
+      final ICoreNode destination, final long depTime, final Set<ETransportationMode> modes) {
+    final RouteQuery query = new RouteQuery(snapshot.getVersion(), source.getId(), destination.getId(),
+        RouteQueryCoalescer.toModeMask(modes), normalizeDepTime(depTime));
+    try {
+      final RouteQueryResult cachedResult = getCachedResult(query);
+      if (cachedResult != null) {
+        mHits.increment();
+        return cachedResult;
+      }
+
+      final CompletableFuture<RouteQueryResult> future = new CompletableFuture<>();
+      final CompletableFuture<RouteQueryResult> inFlightFuture = mInFlight.putIfAbsent(query, future);
+      if (inFlightFuture != null) {
+        // An identical query is computed at the moment, share its result
+        mCoalesced.increment();
+        return inFlightFuture.join();
+      }
+
+      mMisses.increment();
+      try {
+        final RouteQueryResult result = CompletableFuture
+            .supplyAsync(() -> compute(snapshot, source, destination, query.mDepTime, modes), mComputationExecutor)
+            .join();
+        if (!result.isAborted()) {
+          putResult(query, result);
+        }
+        future.complete(result);
+        return result;
+      } catch (final RuntimeException e) {
+        future.completeExceptionally(e);
+        throw e;
+      } finally {
+        mInFlight.remove(query, future);
+      }
+    } finally {
+      logStatistics();
+    }
+  }
+
+  /**
+   * Gets the amount of queries that waited for the computation of an identical
+   * query instead of starting their own.
+   *
+   * @return The amount of coalesced queries
+   */
+  public long getCoalesced() {
+    return mCoalesced.sum();
+  }
+
+  /**
+   * Gets the amount of entries that were evicted because the cache exceeded
+   * its capacity.
+   *
+   * @return The amount of evicted entries
+   */
+  public long getEvictions() {
+    return mEvictions.sum();
+  }
+
+  /**
+   * Gets the amount of queries that were answered by a valid entry of the
+   * cache.
+   *
+   * @return The amount of hits
+   */
+  public long getHits() {
+    return mHits.sum();
+  }
+
+  /**
+   * Gets the amount of queries that started a computation.
+   *
+   * @return The amount of misses
+   */
+  public long getMisses() {
+    return mMisses.sum();
+  }
+
+  /**
+   * Normalizes the given departure time by rounding it up to the configured
+   * interval. Since a journey departing later is still valid for the query,
+   * queries within the same interval can share their results.
+   *
+   * @param depTime The departure time in milliseconds since epoch
+   * @return The normalized departure time in milliseconds since epoch, not
+   *         earlier than the given time
+   */
+  public long normalizeDepTime(final long depTime) {
+    if (mDepTimeRounding <= 0) {
+      return depTime;
+    }
+    return -Math.floorDiv(-depTime, mDepTimeRounding) * mDepTimeRounding;
+  }
+
+  /**
+   * Gets the amount of entries in the cache, including expired entries that
+   * were not replaced or evicted yet.
+   *
+   * @return The amount of entries
+   */
+  public int size() {
+    return mQueryToEntry.size();
+  }
+
+  /**
+   * Computes the shortest path for the given normalized query.
+   *
+   * @param snapshot    The snapshot of the routing model to compute the path
+   *                    on
+   * @param source      The source to start from
+   * @param destination The destination to compute the path to
+   * @param depTime     The normalized departure time in milliseconds since
+   *                    epoch
+   * @param modes       The allowed transportation modes
+   * @return The result of the computation
+   */
+  private RouteQueryResult compute(final RoutingSnapshot snapshot, final ICoreNode source,
+      final ICoreNode destination, final long depTime, final Set<ETransportationMode> modes) {
+    final ComputationDeadline deadline;
+    if (mComputationTimeout > 0) {
+      deadline = ComputationDeadline.after(mComputationTimeout, TimeUnit.MILLISECONDS);
+    } else {
+      deadline = ComputationDeadline.none();
+    }
+    final Optional<IPath<ICoreNode, ICoreEdge<ICoreNode>>> path =
+        mComputation.computeShortestPath(snapshot, source, destination, depTime, modes, deadline);
+    return new RouteQueryResult(depTime, path, deadline.wasAborted());
+  }
+
+  /**
+   * Gets the result stored in the cache for the given query.
+   *
+   * @param query The normalized query
+   * @return The cached result or <code>null</code> if no valid entry is present
+   */
+  private RouteQueryResult getCachedResult(final RouteQuery query) {
+    if (mCapacity <= 0) {
+      return null;
+    }
+    final CacheEntry entry = mQueryToEntry.get(query);
+    if (entry == null || mClock.getAsLong() - entry.mCreationTime > mTimeToLive) {
+      // Expired entries are kept until they are replaced or evicted
+      return null;
+    }
+    return entry.mResult;
+  }
+
+  /**
+   * Logs the statistics every {@link #LOG_INTERVAL} queries if debug logging
+   * is enabled.
+   */
+  private void logStatistics() {
+    if (!LOGGER.isDebugEnabled()) {
+      return;
+    }
+    final long queries = getHits() + getCoalesced() + getMisses();
+    if (queries % LOG_INTERVAL == 0) {
+      LOGGER.debug("Route queries: {} queries, {} cache hits, {} coalesced, {} computed, {} cached, {} evictions",
+          queries, getHits(), getCoalesced(), getMisses(), size(), getEvictions());
+    }
+  }
+
+  /**
+   * Stores the given result for the given query in the cache, replacing a
+   * previous entry. Evicts the oldest entries if the cache exceeds its
+   * capacity. Does nothing if the cache is disabled.
+   *
+   * @param query  The normalized query
+   * @param result The result of the query
+   */
+  private void putResult(final RouteQuery query, final RouteQueryResult result) {
+    if (mCapacity <= 0) {
+      return;
+    }
+    final CacheEntry previous = mQueryToEntry.put(query, new CacheEntry(result, mClock.getAsLong()));
+    if (previous != null) {
+      // The query is already queued for eviction
+      return;
+    }
+    mInsertionOrder.add(query);
+
+    while (mQueryToEntry.size() > mCapacity) {
+      final RouteQuery oldestQuery = mInsertionOrder.poll();
+      if (oldestQuery == null) {
+        break;
+      }
+      mQueryToEntry.remove(oldestQuery);
+      mEvictions.increment();
+    }
+  }
+
+  /**
+   * Interface for objects that compute shortest paths for route queries.
+   *
+   * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+   */
+  @FunctionalInterface
+  interface IRouteComputation {
+    /**
+     * Computes the shortest path from the given source to the given
+     * destination on the given snapshot.
+     *
+     * @param snapshot    The snapshot of the routing model to compute the path
+     *                    on
+     * @param source      The source to start from
+     * @param destination The destination to compute the path to
+     * @param depTime     The departure time in milliseconds since epoch
+     * @param modes       The allowed transportation modes
+     * @param deadline    The deadline after which to abort computation, aborts
+     *                    must be checked by
+     *                    {@link ComputationDeadline#checkAbort()}
+     * @return The shortest path or empty if the destination is not reachable
+     */
+    Optional<IPath<ICoreNode, ICoreEdge<ICoreNode>>> computeShortestPath(RoutingSnapshot snapshot, ICoreNode source,
+        ICoreNode destination, long depTime, Set<ETransportationMode> modes, ComputationDeadline deadline);
+  }
+
+  /**
+   * Entry of the cache, consisting of the result and the time it was stored.
+   *
+   * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+   */
+  private static final class CacheEntry {
+    /**
+     * The time the entry was created, in milliseconds.
+     */
+    private final long mCreationTime;
+    /**
+     * The cached result.
+     */
+    private final RouteQueryResult mResult;
+
+    /**
+     * Creates a new entry.
+     *
+     * @param result       The cached result
+     * @param creationTime The time the entry was created, in milliseconds
+     */
+    CacheEntry(final RouteQueryResult result, final long creationTime) {
+      mResult = result;
+      mCreationTime = creationTime;
+    }
+  }
+
+  /**
+   * Normalized route query, used as key for in flight computations and cached
+   * results.
+   *
+   * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+   */
+  private static final class RouteQuery {
+    /**
+     * The normalized departure time in milliseconds since epoch.
+     */
+    private final long mDepTime;
+    /**
+     * The ID of the destination node.
+     */
+    private final int mDestination;
+    /**
+     * The bit mask of the allowed transportation modes.
+     */
+    private final int mModeMask;
+    /**
+     * The ID of the source node.
+     */
+    private final int mSource;
+    /**
+     * The version of the snapshot the query is computed on.
+     */
+    private final int mVersion;
+
+    /**
+     * Creates a new query.
+     *
+     * @param version     The version of the snapshot the query is computed on
+     * @param source      The ID of the source node
+     * @param destination The ID of the destination node
+     * @param modeMask    The bit mask of the allowed transportation modes
+     * @param depTime     The normalized departure time in milliseconds since
+     *                    epoch
+     */
+    RouteQuery(final int version, final int source, final int destination, final int modeMask,
+        final long depTime) {
+      mVersion = version;
+      mSource = source;
+      mDestination = destination;
+      mModeMask = modeMask;
+      mDepTime = depTime;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(final Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof RouteQuery)) {
+        return false;
+      }
+      final RouteQuery other = (RouteQuery) obj;
+      return mVersion == other.mVersion && mSource == other.mSource && mDestination == other.mDestination
+          && mModeMask == other.mModeMask && mDepTime == other.mDepTime;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+      final int prime = 31;
+      int result = 1;
+      result = prime * result + mVersion;
+      result = prime * result + mSource;
+      result = prime * result + mDestination;
+      result = prime * result + mModeMask;
+      result = prime * result + Long.hashCode(mDepTime);
+      return result;
+    }
+  }
+}
@@ -0,0 +1,75 @@
+package de.unifreiburg.informatik.cobweb.routing.server;
+
+import java.util.Optional;
+
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.IPath;
+
+/**
+ * Result of a route query answered by a {@link RouteQueryCoalescer}. The
+ * result may be shared by multiple clients and must not be modified.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class RouteQueryResult {
+  /**
+   * Whether the computation of the query was aborted.
+   */
+  private final boolean mAborted;
+  /**
+   * The normalized departure time the path was computed for, in milliseconds
+   * since epoch.
+   */
+  private final long mDepTime;
+  /**
+   * The shortest path, if present.
+   */
+  private final Optional<IPath<ICoreNode, ICoreEdge<ICoreNode>>> mPath;
+
+  /**
+   * Creates a new result.
+   *
+   * @param depTime The normalized departure time the path was computed for, in
+   *                milliseconds since epoch
+   * @param path    The shortest path, if present
+   * @param aborted Whether the computation of the query was aborted, the path
+   *                may be incomplete in that case
+   */
+  public RouteQueryResult(final long depTime, final Optional<IPath<ICoreNode, ICoreEdge<ICoreNode>>> path,
+      final boolean aborted) {
+    mDepTime = depTime;
+    mPath = path;
+    mAborted = aborted;
+  }
+
+  /**
+   * Gets the normalized departure time the path was computed for. It is not
+   * earlier than the departure time of the query.
+   *
+   * @return The departure time in milliseconds since epoch
+   */
+  public long getDepTime() {
+    return mDepTime;
+  }
+
+  /**
+   * Gets the shortest path.
+   *
+   * @return The shortest path or empty if the destination is not reachable
+   */
+  public Optional<IPath<ICoreNode, ICoreEdge<ICoreNode>>> getPath() {
+    return mPath;
+  }
+
+  /**
+   * Whether the computation of the query was aborted because it exceeded the
+   * computation timeout. The path of such results may be incomplete.
+   *
+   * @return <code>True</code> if the computation was aborted,
+   *         <code>false</code> otherwise
+   */
+  public boolean isAborted() {
+    return mAborted;
+  }
+}
@@ -0,0 +1,141 @@
+package de.unifreiburg.informatik.cobweb.routing.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+
+import de.unifreiburg.informatik.cobweb.routing.server.model.EGeometryFormat;
+import de.unifreiburg.informatik.cobweb.routing.server.model.Journey;
+import de.unifreiburg.informatik.cobweb.routing.server.model.RouteElement;
+import de.unifreiburg.informatik.cobweb.routing.server.model.RoutingResponse;
+import de.unifreiburg.informatik.cobweb.util.PolylineUtil;
+import de.unifreiburg.informatik.cobweb.util.http.IHttpContentWriter;
+
+/**
+ * Writer which streams a {@link RoutingResponse} as JSON directly to the
+ * client.<br>
+ * <br>
+ * In contrast to encoding the response with GSON, no string of the whole
+ * response is built, which avoids large temporary objects for long routes. The
+ * geometry of route elements is written coordinate by coordinate or, if
+ * requested, as single string in the encoded polyline algorithm format. Using
+ * the {@link EGeometryFormat#COORDINATES} format, the result is identical to
+ * the JSON produced by GSON.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class RoutingResponseWriter implements IHttpContentWriter {
+  /**
+   * Writes the given geometry as array of latitude and longitude coordinates.
+   *
+   * @param writer The writer to write to
+   * @param geom   A list of latitude and longitude coordinates
+   * @throws IOException If an I/O exception occurred while writing
+   */
+  private static void writeCoordinates(final JsonWriter writer, final List<float[]> geom) throws IOException {
+    writer.beginArray();
+    for (final float[] coordinate : geom) {
+      writer.beginArray();
+      // Format the same as GSON does, but without boxing the values
+      writer.jsonValue(Float.toString(coordinate[0]));
+      writer.jsonValue(Float.toString(coordinate[1]));
+      writer.endArray();
+    }
+    writer.endArray();
+  }
+
+  /**
+   * The format in which the geometry of route elements is written.
+   */
+  private final EGeometryFormat mGeometryFormat;
+  /**
+   * The GSON object used to create JSON writers.
+   */
+  private final Gson mGson;
+  /**
+   * The response to write.
+   */
+  private final RoutingResponse mResponse;
+
+  /**
+   * Creates a new writer which writes the given response.
+   *
+   * @param gson           The GSON object used to create JSON writers
+   * @param response       The response to write
+   * @param geometryFormat The format in which the geometry of route elements is
+   *                       written
+   */
+  public RoutingResponseWriter(final Gson gson, final RoutingResponse response,
+      final EGeometryFormat geometryFormat) {
+    mGson = gson;
+    mResponse = response;
+    mGeometryFormat = geometryFormat;
+  }
+
+  @Override
+  public void writeContent(final OutputStream output) throws IOException {
+    // Do not close the writer since that would close the output
+    final JsonWriter writer = mGson.newJsonWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+    // Escape the same characters as GSON does
+    writer.setHtmlSafe(mGson.htmlSafe());
+    writer.beginObject();
+    writer.name("compTime").value(mResponse.getCompTime());
+    writer.name("from").value(mResponse.getFrom());
+    writer.name("journeys").beginArray();
+    for (final Journey journey : mResponse.getJourneys()) {
+      writeJourney(writer, journey);
+    }
+    writer.endArray();
+    writer.name("time").value(mResponse.getTime());
+    writer.name("to").value(mResponse.getTo());
+    writer.endObject();
+    writer.flush();
+  }
+
+  /**
+   * Writes the given journey.
+   *
+   * @param writer  The writer to write to
+   * @param journey The journey to write
+   * @throws IOException If an I/O exception occurred while writing
+   */
+  private void writeJourney(final JsonWriter writer, final Journey journey) throws IOException {
+    writer.beginObject();
+    writer.name("arrTime").value(journey.getArrTime());
+    writer.name("depTime").value(journey.getDepTime());
+    writer.name("route").beginArray();
+    for (final RouteElement element : journey.getRoute()) {
+      writeRouteElement(writer, element);
+    }
+    writer.endArray();
+    writer.endObject();
+  }
+
+  /**
+   * Writes the given route element.
+   *
+   * @param writer  The writer to write to
+   * @param element The route element to write
+   * @throws IOException If an I/O exception occurred while writing
+   */
+  private void writeRouteElement(final JsonWriter writer, final RouteElement element) throws IOException {
+    writer.beginObject();
+    writer.name("geom");
+    if (mGeometryFormat == EGeometryFormat.POLYLINE) {
+      writer.value(PolylineUtil.encode(element.getGeom()));
+    } else {
+      RoutingResponseWriter.writeCoordinates(writer, element.getGeom());
+    }
+    writer.name("mode").value(element.getMode().getValue());
+    if (element.getName() != null) {
+      writer.name("name").value(element.getName());
+    }
+    writer.name("type").value(element.getType().getValue());
+    writer.endObject();
+  }
+}
@@ -5,19 +5,28 @@ import java.io.UncheckedIOException;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketTimeoutException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import de.unifreiburg.informatik.cobweb.config.IHttpServerConfigProvider;
 import de.unifreiburg.informatik.cobweb.config.IRoutingConfigProvider;
 import de.unifreiburg.informatik.cobweb.db.IRoutingDatabase;
-import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.ShortestPathComputationFactory;
-import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
-import de.unifreiburg.informatik.cobweb.routing.model.graph.IGetNodeById;
+import de.unifreiburg.informatik.cobweb.routing.model.RoutingSnapshot;
+import de.unifreiburg.informatik.cobweb.routing.server.model.IsochroneRequest;
+import de.unifreiburg.informatik.cobweb.routing.server.model.IsochroneResponse;
+import de.unifreiburg.informatik.cobweb.routing.server.model.MatrixRequest;
+import de.unifreiburg.informatik.cobweb.routing.server.model.MatrixResponse;
 import de.unifreiburg.informatik.cobweb.routing.server.model.RoutingRequest;
 import de.unifreiburg.informatik.cobweb.routing.server.model.RoutingResponse;
+import de.unifreiburg.informatik.cobweb.util.http.AdmissionController;
+import de.unifreiburg.informatik.cobweb.util.http.HttpExecutors;
+import de.unifreiburg.informatik.cobweb.util.http.HttpSocketHandler;
+import de.unifreiburg.informatik.cobweb.util.http.IHttpRequestHandler;
 
 /**
  * A server which offers a REST API that is able to answer routing requests.<br>
@@ -33,15 +42,27 @@ import de.unifreiburg.informatik.cobweb.routing.server.model.RoutingResponse;
  * and arrival time, together with possible routes. It also includes the time it
  * needed to answer the query and to construct the answer in milliseconds.<br>
  * <br>
+ * Additionally the server answers travel time matrix requests, which ask for
+ * the travel times between many sources and targets at once, see
+ * {@link MatrixRequest} and {@link MatrixResponse}, and isochrone requests,
+ * which ask for the areas reachable within travel time budgets, see
+ * {@link IsochroneRequest} and {@link IsochroneResponse}.<br>
+ * <br>
  * The REST API communicates over HTTP by sending and receiving JSON objects.
  * Requests are parsed into {@link RoutingRequest} and responses into
  * {@link RoutingResponse}. Accepted HTTP methods are <code>POST</code> and
  * <code>OPTIONS</code>. The server will send <code>BAD REQUEST</code> to invalid
  * requests.<br>
  * <br>
- * The server itself handles clients in parallel using a cached thread pool. For
- * construction it wants a configuration, a graph to route on, an algorithm to
- * compute shortest paths with and a database for retrieving meta-data.
+ * The server itself handles clients in parallel using a cached thread pool or,
+ * if configured, virtual threads. In the latter case shortest paths are
+ * computed on a fixed pool of platform threads. The amount of requests that
+ * are computed concurrently is bounded by an {@link AdmissionController},
+ * excess requests are queued or rejected with <code>SERVICE UNAVAILABLE</code>.
+ * For construction it wants a configuration, a supplier of the current snapshot
+ * of the routing model and a database for retrieving meta-data. Each request is
+ * answered on the snapshot that was current when it arrived, hence the model
+ * can be updated while the server is running.
  *
  * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
  */
@@ -56,9 +77,10 @@ public final class RoutingServer implements Runnable {
    */
   private static final int SOCKET_TIMEOUT = 2_000;
   /**
-   * The factory to use for generating algorithms for shortest path computation.
+   * The handler used to answer HTTP requests, shared by all clients. Guarded
+   * by admission control.
    */
-  private final ShortestPathComputationFactory mComputationFactory;
+  private IHttpRequestHandler mClientHandler;
   /**
    * Configuration provider which provides the port that should be used by the
    * server.
@@ -70,9 +92,10 @@ public final class RoutingServer implements Runnable {
    */
   private final IRoutingDatabase mDatabase;
   /**
-   * The object that provides nodes by their ID.
+   * Configuration provider which provides the settings of persistent HTTP
+   * connections.
    */
-  private final IGetNodeById<ICoreNode> mNodeProvider;
+  private final IHttpServerConfigProvider mHttpConfig;
   /**
    * The server socket to use for communication.
    */
@@ -85,6 +108,10 @@ public final class RoutingServer implements Runnable {
    * Whether or not the server thread should run.
    */
   private volatile boolean mShouldRun;
+  /**
+   * Supplier of the current snapshot of the routing model.
+   */
+  private final Supplier<RoutingSnapshot> mSnapshots;
 
   /**
    * Creates a new routing server with the given configuration that works with
@@ -98,35 +125,62 @@ public final class RoutingServer implements Runnable {
    *
    * @param config             Configuration provider which provides the port
    *                           that should be used by the server
-   * @param nodeProvider       The object that provides nodes by their ID
-   * @param computationFactory The factory to use for generating algorithms for
+   * @param httpConfig         Configuration provider which provides the
+   *                           settings of persistent HTTP connections
+   * @param snapshots          Supplier of the current snapshot of the routing
+   *                           model, it provides nodes and algorithms for
    *                           shortest path computation
    * @param database           Database used for retrieving meta-data about
    *                           graph objects like nodes and edges
    */
-  public RoutingServer(final IRoutingConfigProvider config, final IGetNodeById<ICoreNode> nodeProvider,
-      final ShortestPathComputationFactory computationFactory, final IRoutingDatabase database) {
+  public RoutingServer(final IRoutingConfigProvider config, final IHttpServerConfigProvider httpConfig,
+      final Supplier<RoutingSnapshot> snapshots, final IRoutingDatabase database) {
     mConfig = config;
-    mNodeProvider = nodeProvider;
-    mComputationFactory = computationFactory;
+    mHttpConfig = httpConfig;
+    mSnapshots = snapshots;
     mDatabase = database;
   }
 
+  /**
+   * Gets the handler used to answer HTTP requests. It is created by
+   * {@link #initialize()} and can also be registered at a shared
+   * {@link de.unifreiburg.informatik.cobweb.util.http.HttpServer HttpServer}
+   * instead of starting this server. The handler is guarded by admission
+   * control.
+   *
+   * @return The handler used to answer HTTP requests
+   */
+  public IHttpRequestHandler getClientHandler() {
+    return mClientHandler;
+  }
+
   /**
    * Initializes the server. Call this method prior to starting the server with
    * {@link #start()}. Do not call it again afterwards.
-   *
-   * @throws UncheckedIOException If an I/O exception occurred while creating
-   *                              the server socket.
    */
-  public void initialize() throws UncheckedIOException {
+  public void initialize() {
     mServerThread = new Thread(this);
-    try {
-      mServerSocket = new ServerSocket(mConfig.getRoutingServerPort());
-      mServerSocket.setSoTimeout(SOCKET_TIMEOUT);
-    } catch (final IOException e) {
-      throw new UncheckedIOException(e);
+    // Travel time matrices are computed in parallel on this pool
+    final ExecutorService computationPool =
+        HttpExecutors.newComputationExecutor("routing-computation", mConfig.getRoutingMaxConcurrentRequests());
+    // Virtual threads should not be blocked by CPU heavy computations
+    final Executor computationExecutor;
+    if (mHttpConfig.useVirtualThreads()) {
+      computationExecutor = computationPool;
+    } else {
+      computationExecutor = HttpExecutors.directExecutor();
     }
+    final long computationTimeout = TimeUnit.SECONDS.toMillis(mConfig.getRoutingComputationTimeout());
+    // Identical routing requests share their computation and recent results
+    final RouteQueryCoalescer routeCoalescer = new RouteQueryCoalescer(computationExecutor, computationTimeout,
+        TimeUnit.SECONDS.toMillis(mConfig.getRoutingDepTimeRounding()), mConfig.getRoutingResultCacheSize(),
+        TimeUnit.SECONDS.toMillis(mConfig.getRoutingResultCacheTimeToLive()));
+    final ClientHandler clientHandler = new ClientHandler(mSnapshots, mDatabase, computationExecutor, routeCoalescer,
+        computationPool, mConfig.getRoutingMatrixMaxSize(), mConfig.getRoutingIsochroneMaxBudget(),
+        computationTimeout, mHttpConfig.getHttpRetryAfter());
+    mClientHandler = new AdmissionController("routing", clientHandler, mConfig.getRoutingMaxConcurrentRequests(),
+        mConfig.getRoutingRequestQueueSize(), TimeUnit.SECONDS.toMillis(mHttpConfig.getHttpMaxQueueTime()),
+        mHttpConfig.getHttpRetryAfter(), mHttpConfig.useVirtualThreads());
   }
 
   /**
@@ -146,8 +200,10 @@ public final class RoutingServer implements Runnable {
    */
   @Override
   public void run() {
-    final ExecutorService executor = Executors.newCachedThreadPool();
+    final ExecutorService executor = HttpExecutors.newRequestExecutor(mHttpConfig.useVirtualThreads());
     int requestId = -1;
+    final int keepAliveTimeout = (int) TimeUnit.SECONDS.toMillis(mHttpConfig.getHttpKeepAliveTimeout());
+    final int maxRequests = mHttpConfig.getHttpMaxRequestsPerConnection();
 
     LOGGER.info("Server ready and waiting for clients");
     while (mShouldRun) {
@@ -158,8 +214,8 @@ public final class RoutingServer implements Runnable {
 
         // Handle the client
         requestId++;
-        final ClientHandler handler =
-            new ClientHandler(requestId, client, mNodeProvider, mComputationFactory, mDatabase);
+        final HttpSocketHandler handler =
+            new HttpSocketHandler(requestId, client, mClientHandler, keepAliveTimeout, maxRequests);
         executor.execute(handler);
       } catch (final SocketTimeoutException e) {
         // Ignore the exception. The timeout is used to repeatedly check if the
@@ -192,11 +248,20 @@ public final class RoutingServer implements Runnable {
    * shutdown by using {@link #shutdown()}, the current status can be checked
    * with {@link #isRunning()}. Once a server was shutdown it should not be used
    * anymore, instead create a new one.
+   *
+   * @throws UncheckedIOException If an I/O exception occurred while creating
+   *                              the server socket.
    */
-  public void start() {
+  public void start() throws UncheckedIOException {
     if (isRunning()) {
       return;
     }
+    try {
+      mServerSocket = new ServerSocket(mConfig.getRoutingServerPort());
+      mServerSocket.setSoTimeout(SOCKET_TIMEOUT);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
     LOGGER.info("Starting routing server");
     mShouldRun = true;
     mServerThread.start();
@@ -0,0 +1,63 @@
+package de.unifreiburg.informatik.cobweb.routing.server.model;
+
+/**
+ * Formats in which the geometry of {@link RouteElement}s is sent to the
+ * client.<br>
+ * <br>
+ * A format has a corresponding value which is used when decoding
+ * {@link RoutingRequest}s from JSON.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public enum EGeometryFormat {
+  /**
+   * The geometry is sent as array of latitude and longitude coordinates.
+   */
+  COORDINATES(0),
+  /**
+   * The geometry is sent as string in the encoded polyline algorithm format,
+   * see {@link de.unifreiburg.informatik.cobweb.util.PolylineUtil}.
+   */
+  POLYLINE(1);
+
+  /**
+   * Gets the geometry format that corresponds to the given value.
+   *
+   * @param value The value to get the format from
+   * @return The corresponding geometry format or <code>null</code> if not
+   *         present
+   */
+  public static EGeometryFormat fromValue(final int value) {
+    for (final EGeometryFormat format : EGeometryFormat.values()) {
+      if (format.getValue() == value) {
+        return format;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * The value that corresponds to the geometry format.
+   */
+  private final int mValue;
+
+  /**
+   * Creates a new geometry format with the given corresponding value.
+   *
+   * @param value The value that corresponds to this geometry format
+   */
+  private EGeometryFormat(final int value) {
+    mValue = value;
+  }
+
+  /**
+   * Gets the value this geometry format corresponds to.<br>
+   * <br>
+   * It is used when decoding {@link RoutingRequest}s from JSON.
+   *
+   * @return The value this geometry format corresponds to
+   */
+  public int getValue() {
+    return mValue;
+  }
+}
@@ -0,0 +1,102 @@
+package de.unifreiburg.informatik.cobweb.routing.server.model;
+
+import java.util.List;
+
+/**
+ * POJO that models an isochrone, i.e. the area that is reachable from a source
+ * within a travel time budget.<br>
+ * <br>
+ * An isochrone consists of its budget, the amount of reachable nodes and a
+ * polygon enclosing them.<br>
+ * <br>
+ * Is used in an {@link IsochroneResponse} and usually decoded into JSON.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class Isochrone {
+  /**
+   * The amount of nodes that are reachable within the budget.
+   */
+  private int mAmountOfNodes;
+  /**
+   * The travel time budget in seconds.
+   */
+  private int mBudget;
+  /**
+   * A list of latitude and longitude coordinates forming the vertices of a
+   * polygon which encloses all reachable nodes. Thus, the size of the arrays is
+   * <code>2</code>.
+   */
+  private List<float[]> mPolygon;
+
+  /**
+   * Creates a new isochrone.
+   *
+   * @param budget        The travel time budget in seconds
+   * @param amountOfNodes The amount of nodes that are reachable within the
+   *                      budget
+   * @param polygon       A list of latitude and longitude coordinates forming
+   *                      the vertices of a polygon which encloses all
+   *                      reachable nodes
+   */
+  public Isochrone(final int budget, final int amountOfNodes, final List<float[]> polygon) {
+    mBudget = budget;
+    mAmountOfNodes = amountOfNodes;
+    mPolygon = polygon;
+  }
+
+  /**
+   * Creates a new empty isochrone. Is used to construct the element via
+   * reflection.
+   */
+  @SuppressWarnings("unused")
+  private Isochrone() {
+    // Empty constructor for construction through reflection
+  }
+
+  /**
+   * Gets the amount of nodes that are reachable within the budget.
+   *
+   * @return The amount of reachable nodes
+   */
+  public int getAmountOfNodes() {
+    return mAmountOfNodes;
+  }
+
+  /**
+   * Gets the travel time budget in seconds.
+   *
+   * @return The budget in seconds
+   */
+  public int getBudget() {
+    return mBudget;
+  }
+
+  /**
+   * Gets a list of latitude and longitude coordinates forming the vertices of
+   * a polygon which encloses all reachable nodes.
+   *
+   * @return A list of latitude and longitude coordinates. Thus, the size of the
+   *         arrays is <code>2</code>.
+   */
+  public List<float[]> getPolygon() {
+    return mPolygon;
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder();
+    builder.append("Isochrone [budget=");
+    builder.append(mBudget);
+    builder.append(", amountOfNodes=");
+    builder.append(mAmountOfNodes);
+    builder.append(", polygonSize=");
+    builder.append(mPolygon.size());
+    builder.append("]");
+    return builder.toString();
+  }
+}
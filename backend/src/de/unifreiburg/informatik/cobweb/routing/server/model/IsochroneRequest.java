@@ -0,0 +1,152 @@
+package de.unifreiburg.informatik.cobweb.routing.server.model;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+
+/**
+ * POJO that models an isochrone request.<br>
+ * <br>
+ * A request consists of departure time, a source node, travel time budgets and
+ * meta-data like desired transportation modes. It asks for the areas that are
+ * reachable from the source within each of the budgets.<br>
+ * <br>
+ * It has the exact structure that is expected as request format for the REST
+ * API. It is primarily used to be constructed from the clients JSON request.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class IsochroneRequest {
+  /**
+   * The travel time budgets in seconds, one isochrone is computed per budget.
+   */
+  private int[] mBudgets;
+  /**
+   * The departure time to start journeys with, in milliseconds since epoch.
+   */
+  private long mDepTime;
+  /**
+   * The unique ID of the node to start journeys from.
+   */
+  private long mFrom;
+  /**
+   * An array containing all allowed transportation modes. The values are to be
+   * interpreted as values corresponding to the enum
+   * {@link ETransportationMode}.
+   */
+  private int[] mModes;
+
+  /**
+   * Creates a new isochrone request.
+   *
+   * @param from    The unique ID of the node to start journeys from
+   * @param depTime The departure time to start journeys with, in milliseconds
+   *                since epoch
+   * @param modes   A set containing all allowed transportation modes, must not
+   *                be empty
+   * @param budgets The travel time budgets in seconds, one isochrone is
+   *                computed per budget
+   */
+  public IsochroneRequest(final long from, final long depTime, final Set<ETransportationMode> modes,
+      final int[] budgets) {
+    mFrom = from;
+    mDepTime = depTime;
+    mBudgets = budgets;
+    setTransportationModes(modes);
+  }
+
+  /**
+   * Creates a new empty isochrone request. Is used to construct the element
+   * via reflection.
+   */
+  @SuppressWarnings("unused")
+  private IsochroneRequest() {
+    // Empty constructor for construction through reflection
+  }
+
+  /**
+   * Gets the travel time budgets in seconds, one isochrone is computed per
+   * budget.
+   *
+   * @return The travel time budgets in seconds, must not be modified
+   */
+  public int[] getBudgets() {
+    return mBudgets;
+  }
+
+  /**
+   * Gets the departure time to start journeys with, in milliseconds since
+   * epoch.
+   *
+   * @return The departure time in milliseconds since epoch
+   */
+  public long getDepTime() {
+    return mDepTime;
+  }
+
+  /**
+   * Gets the unique ID of the node to start journeys from.
+   *
+   * @return The ID of the source node
+   */
+  public long getFrom() {
+    return mFrom;
+  }
+
+  /**
+   * Gets a set containing all allowed transportation modes.
+   *
+   * @return A set containing all allowed transportation modes
+   */
+  public Set<ETransportationMode> getModes() {
+    return Arrays.stream(mModes).mapToObj(ETransportationMode::fromValue)
+        .collect(Collectors.toCollection(() -> EnumSet.noneOf(ETransportationMode.class)));
+  }
+
+  /**
+   * Whether the request is complete, i.e. it contains budgets and
+   * transportation modes.
+   *
+   * @return <code>True</code> if the request is complete, <code>false</code>
+   *         otherwise
+   */
+  public boolean isComplete() {
+    return mBudgets != null && mBudgets.length > 0 && mModes != null && mModes.length > 0;
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder();
+    builder.append("IsochroneRequest [from=");
+    builder.append(mFrom);
+    builder.append(", depTime=");
+    builder.append(mDepTime);
+    builder.append(", modes=");
+    builder.append(Arrays.toString(mModes));
+    builder.append(", budgets=");
+    builder.append(Arrays.toString(mBudgets));
+    builder.append("]");
+    return builder.toString();
+  }
+
+  /**
+   * Sets the allowed transportation modes.
+   *
+   * @param modes The transportation modes to set, must not be empty
+   */
+  private void setTransportationModes(final Set<ETransportationMode> modes) {
+    mModes = new int[modes.size()];
+    int i = 0;
+    for (final ETransportationMode mode : modes) {
+      mModes[i] = mode.getValue();
+      i++;
+    }
+  }
+}
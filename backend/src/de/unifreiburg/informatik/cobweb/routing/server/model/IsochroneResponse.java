@@ -0,0 +1,114 @@
+package de.unifreiburg.informatik.cobweb.routing.server.model;
+
+import java.util.List;
+
+/**
+ * POJO that models an isochrone response.<br>
+ * <br>
+ * A response consists of the source node together with one isochrone per
+ * requested travel time budget. It also includes the time it needed to answer
+ * the query and to compute the answer in milliseconds.<br>
+ * <br>
+ * It has the exact structure that is expected as response format for the REST
+ * API. It is primarily used to be constructed and then encoded to JSON to be
+ * send to the client.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class IsochroneResponse {
+  /**
+   * The duration computation of the answer to the query took, in milliseconds.
+   */
+  private long mCompTime;
+  /**
+   * The unique ID of the node to start journeys from.
+   */
+  private long mFrom;
+  /**
+   * The isochrones, one per requested budget in the same order. Empty if the
+   * source node is unknown.
+   */
+  private List<Isochrone> mIsochrones;
+  /**
+   * The duration answering the query took, in milliseconds.
+   */
+  private long mTime;
+
+  /**
+   * Creates a new isochrone response.
+   *
+   * @param time       The duration answering the query took, in milliseconds
+   * @param compTime   The duration computation of the answer to the query
+   *                   took, in milliseconds
+   * @param from       The unique ID of the node to start journeys from
+   * @param isochrones The isochrones, one per requested budget in the same
+   *                   order. Empty if the source node is unknown.
+   */
+  public IsochroneResponse(final long time, final long compTime, final long from, final List<Isochrone> isochrones) {
+    mTime = time;
+    mCompTime = compTime;
+    mFrom = from;
+    mIsochrones = isochrones;
+  }
+
+  /**
+   * Creates a new empty isochrone response. Is used to construct the element
+   * via reflection.
+   */
+  @SuppressWarnings("unused")
+  private IsochroneResponse() {
+    // Empty constructor for construction through reflection
+  }
+
+  /**
+   * Gets the duration computation of the answer to the query took, in
+   * milliseconds.
+   *
+   * @return The duration to get
+   */
+  public long getCompTime() {
+    return mCompTime;
+  }
+
+  /**
+   * Gets the unique ID of the node to start journeys from.
+   *
+   * @return The ID of the source node
+   */
+  public long getFrom() {
+    return mFrom;
+  }
+
+  /**
+   * Gets the isochrones, one per requested budget in the same order.
+   *
+   * @return The isochrones, empty if the source node is unknown
+   */
+  public List<Isochrone> getIsochrones() {
+    return mIsochrones;
+  }
+
+  /**
+   * Gets the duration answering the query took, in milliseconds.
+   *
+   * @return The duration to get
+   */
+  public long getTime() {
+    return mTime;
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder();
+    builder.append("IsochroneResponse [from=");
+    builder.append(mFrom);
+    builder.append(", isochrones=");
+    builder.append(mIsochrones);
+    builder.append("]");
+    return builder.toString();
+  }
+}
@@ -0,0 +1,152 @@
+package de.unifreiburg.informatik.cobweb.routing.server.model;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+
+/**
+ * POJO that models a travel time matrix request.<br>
+ * <br>
+ * A request consists of departure time, lists of source and target nodes and
+ * meta-data like desired transportation modes. It asks for the travel time
+ * from every source to every target.<br>
+ * <br>
+ * It has the exact structure that is expected as request format for the REST
+ * API. It is primarily used to be constructed from the clients JSON request.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class MatrixRequest {
+  /**
+   * The departure time to start journeys with, in milliseconds since epoch.
+   */
+  private long mDepTime;
+  /**
+   * An array containing all allowed transportation modes. The values are to be
+   * interpreted as values corresponding to the enum
+   * {@link ETransportationMode}.
+   */
+  private int[] mModes;
+  /**
+   * The unique IDs of the nodes to start journeys from, they form the rows of
+   * the matrix.
+   */
+  private long[] mSources;
+  /**
+   * The unique IDs of the nodes to end journeys at, they form the columns of
+   * the matrix.
+   */
+  private long[] mTargets;
+
+  /**
+   * Creates a new matrix request.
+   *
+   * @param sources The unique IDs of the nodes to start journeys from
+   * @param targets The unique IDs of the nodes to end journeys at
+   * @param depTime The departure time to start journeys with, in milliseconds
+   *                since epoch
+   * @param modes   A set containing all allowed transportation modes, must not
+   *                be empty
+   */
+  public MatrixRequest(final long[] sources, final long[] targets, final long depTime,
+      final Set<ETransportationMode> modes) {
+    mSources = sources;
+    mTargets = targets;
+    mDepTime = depTime;
+    setTransportationModes(modes);
+  }
+
+  /**
+   * Creates a new empty matrix request. Is used to construct the element via
+   * reflection.
+   */
+  @SuppressWarnings("unused")
+  private MatrixRequest() {
+    // Empty constructor for construction through reflection
+  }
+
+  /**
+   * Gets the departure time to start journeys with, in milliseconds since
+   * epoch.
+   *
+   * @return The departure time in milliseconds since epoch
+   */
+  public long getDepTime() {
+    return mDepTime;
+  }
+
+  /**
+   * Gets a set containing all allowed transportation modes.
+   *
+   * @return A set containing all allowed transportation modes
+   */
+  public Set<ETransportationMode> getModes() {
+    return Arrays.stream(mModes).mapToObj(ETransportationMode::fromValue)
+        .collect(Collectors.toCollection(() -> EnumSet.noneOf(ETransportationMode.class)));
+  }
+
+  /**
+   * Gets the unique IDs of the nodes to start journeys from.
+   *
+   * @return The IDs of the source nodes, must not be modified
+   */
+  public long[] getSources() {
+    return mSources;
+  }
+
+  /**
+   * Gets the unique IDs of the nodes to end journeys at.
+   *
+   * @return The IDs of the target nodes, must not be modified
+   */
+  public long[] getTargets() {
+    return mTargets;
+  }
+
+  /**
+   * Whether the request is complete, i.e. it contains sources, targets and
+   * transportation modes.
+   *
+   * @return <code>True</code> if the request is complete, <code>false</code>
+   *         otherwise
+   */
+  public boolean isComplete() {
+    return mSources != null && mTargets != null && mModes != null && mModes.length > 0;
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder();
+    builder.append("MatrixRequest [sources=");
+    builder.append(Arrays.toString(mSources));
+    builder.append(", targets=");
+    builder.append(Arrays.toString(mTargets));
+    builder.append(", depTime=");
+    builder.append(mDepTime);
+    builder.append(", modes=");
+    builder.append(Arrays.toString(mModes));
+    builder.append("]");
+    return builder.toString();
+  }
+
+  /**
+   * Sets the allowed transportation modes.
+   *
+   * @param modes The transportation modes to set, must not be empty
+   */
+  private void setTransportationModes(final Set<ETransportationMode> modes) {
+    mModes = new int[modes.size()];
+    int i = 0;
+    for (final ETransportationMode mode : modes) {
+      mModes[i] = mode.getValue();
+      i++;
+    }
+  }
+}
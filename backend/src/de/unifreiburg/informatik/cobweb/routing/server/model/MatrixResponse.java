@@ -0,0 +1,143 @@
+package de.unifreiburg.informatik.cobweb.routing.server.model;
+
+import java.util.Arrays;
+
+/**
+ * POJO that models a travel time matrix response.<br>
+ * <br>
+ * A response consists of the source and target nodes together with the travel
+ * time from every source to every target. It also includes the time it needed
+ * to answer the query and to compute the answer in milliseconds. Routes are
+ * not included.<br>
+ * <br>
+ * It has the exact structure that is expected as response format for the REST
+ * API. It is primarily used to be constructed and then encoded to JSON to be
+ * send to the client.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class MatrixResponse {
+  /**
+   * The duration used for targets that are not reachable from a source.
+   */
+  public static final long UNREACHABLE = -1L;
+
+  /**
+   * The duration computation of the answer to the query took, in milliseconds.
+   */
+  private long mCompTime;
+  /**
+   * The travel times in milliseconds, the entry at <code>[i][j]</code> is the
+   * travel time from the <code>i</code>-th source to the <code>j</code>-th
+   * target or {@link #UNREACHABLE}.
+   */
+  private long[][] mDurations;
+  /**
+   * The unique IDs of the nodes to start journeys from.
+   */
+  private long[] mSources;
+  /**
+   * The unique IDs of the nodes to end journeys at.
+   */
+  private long[] mTargets;
+  /**
+   * The duration answering the query took, in milliseconds.
+   */
+  private long mTime;
+
+  /**
+   * Creates a new matrix response.
+   *
+   * @param time      The duration answering the query took, in milliseconds
+   * @param compTime  The duration computation of the answer to the query took,
+   *                  in milliseconds
+   * @param sources   The unique IDs of the nodes to start journeys from
+   * @param targets   The unique IDs of the nodes to end journeys at
+   * @param durations The travel times in milliseconds, the entry at
+   *                  <code>[i][j]</code> is the travel time from the
+   *                  <code>i</code>-th source to the <code>j</code>-th target
+   *                  or {@link #UNREACHABLE}
+   */
+  public MatrixResponse(final long time, final long compTime, final long[] sources, final long[] targets,
+      final long[][] durations) {
+    mTime = time;
+    mCompTime = compTime;
+    mSources = sources;
+    mTargets = targets;
+    mDurations = durations;
+  }
+
+  /**
+   * Creates a new empty matrix response. Is used to construct the element via
+   * reflection.
+   */
+  @SuppressWarnings("unused")
+  private MatrixResponse() {
+    // Empty constructor for construction through reflection
+  }
+
+  /**
+   * Gets the duration computation of the answer to the query took, in
+   * milliseconds.
+   *
+   * @return The duration to get
+   */
+  public long getCompTime() {
+    return mCompTime;
+  }
+
+  /**
+   * Gets the travel times in milliseconds. The entry at <code>[i][j]</code> is
+   * the travel time from the <code>i</code>-th source to the <code>j</code>-th
+   * target or {@link #UNREACHABLE}.
+   *
+   * @return The travel times, must not be modified
+   */
+  public long[][] getDurations() {
+    return mDurations;
+  }
+
+  /**
+   * Gets the unique IDs of the nodes to start journeys from.
+   *
+   * @return The IDs of the source nodes, must not be modified
+   */
+  public long[] getSources() {
+    return mSources;
+  }
+
+  /**
+   * Gets the unique IDs of the nodes to end journeys at.
+   *
+   * @return The IDs of the target nodes, must not be modified
+   */
+  public long[] getTargets() {
+    return mTargets;
+  }
+
+  /**
+   * Gets the duration answering the query took, in milliseconds.
+   *
+   * @return The duration to get
+   */
+  public long getTime() {
+    return mTime;
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder();
+    builder.append("MatrixResponse [sources=");
+    builder.append(Arrays.toString(mSources));
+    builder.append(", targets=");
+    builder.append(Arrays.toString(mTargets));
+    builder.append(", durations=");
+    builder.append(Arrays.deepToString(mDurations));
+    builder.append("]");
+    return builder.toString();
+  }
+}
@@ -11,7 +11,8 @@ import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
  * POJO that models a routing request.<br>
  * <br>
  * A request consists of departure time, source and destination nodes and
- * meta-data like desired transportation modes.<br>
+ * meta-data like desired transportation modes. Optionally it chooses the
+ * format in which the geometry of the route is sent back.<br>
  * <br>
  * It has the exact structure that is expected as request format for the REST
  * API. It is primarily used to be constructed from the clients JSON request.
@@ -27,6 +28,12 @@ public final class RoutingRequest {
    * The unique ID of the node to start the journey from.
    */
   private long mFrom;
+  /**
+   * The format in which the geometry of the route is sent back. The value is
+   * to be interpreted as value corresponding to the enum
+   * {@link EGeometryFormat}, defaults to {@link EGeometryFormat#COORDINATES}.
+   */
+  private int mGeometryFormat;
   /**
    * An array containing all allowed transportation modes. The values are to be
    * interpreted as values corresponding to the enum
@@ -49,9 +56,27 @@ public final class RoutingRequest {
    *                be empty
    */
   public RoutingRequest(final long from, final long to, final long depTime, final Set<ETransportationMode> modes) {
+    this(from, to, depTime, modes, EGeometryFormat.COORDINATES);
+  }
+
+  /**
+   * Creates a new routing request.
+   *
+   * @param from           The unique ID of the node to start the journey from
+   * @param to             The unique ID of the node to end the journey at
+   * @param depTime        The departure time to start journeys with, in
+   *                       milliseconds since epoch
+   * @param modes          A set containing all allowed transportation modes,
+   *                       must not be empty
+   * @param geometryFormat The format in which the geometry of the route is
+   *                       sent back
+   */
+  public RoutingRequest(final long from, final long to, final long depTime, final Set<ETransportationMode> modes,
+      final EGeometryFormat geometryFormat) {
     mFrom = from;
     mTo = to;
     mDepTime = depTime;
+    mGeometryFormat = geometryFormat.getValue();
     setTransportationModes(modes);
   }
 
@@ -83,13 +108,28 @@ public final class RoutingRequest {
     return mFrom;
   }
 
+  /**
+   * Gets the format in which the geometry of the route is sent back.
+   *
+   * @return The geometry format, {@link EGeometryFormat#COORDINATES} if not
+   *         specified or unknown
+   */
+  public EGeometryFormat getGeometryFormat() {
+    final EGeometryFormat format = EGeometryFormat.fromValue(mGeometryFormat);
+    if (format == null) {
+      return EGeometryFormat.COORDINATES;
+    }
+    return format;
+  }
+
   /**
    * Gets a set containing all allowed transportation modes.
    *
    * @return A set containing all allowed transportation modes
    */
   public Set<ETransportationMode> getModes() {
-    return EnumSet.copyOf(Arrays.stream(mModes).mapToObj(ETransportationMode::fromValue).collect(Collectors.toSet()));
+    return Arrays.stream(mModes).mapToObj(ETransportationMode::fromValue)
+        .collect(Collectors.toCollection(() -> EnumSet.noneOf(ETransportationMode.class)));
   }
 
   /**
@@ -116,6 +156,8 @@ public final class RoutingRequest {
     builder.append(mDepTime);
     builder.append(", modes=");
     builder.append(Arrays.toString(mModes));
+    builder.append(", geometryFormat=");
+    builder.append(mGeometryFormat);
     builder.append("]");
     return builder.toString();
   }
@@ -8,16 +8,21 @@ import java.net.SocketTimeoutException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import de.unifreiburg.informatik.cobweb.config.IHttpServerConfigProvider;
 import de.unifreiburg.informatik.cobweb.config.INameSearchConfigProvider;
 import de.unifreiburg.informatik.cobweb.db.INameSearchDatabase;
 import de.unifreiburg.informatik.cobweb.searching.name.model.NodeNameSet;
 import de.unifreiburg.informatik.cobweb.searching.name.server.model.NameSearchRequest;
 import de.unifreiburg.informatik.cobweb.searching.name.server.model.NameSearchResponse;
+import de.unifreiburg.informatik.cobweb.util.http.AdmissionController;
+import de.unifreiburg.informatik.cobweb.util.http.HttpExecutors;
+import de.unifreiburg.informatik.cobweb.util.http.HttpSocketHandler;
+import de.unifreiburg.informatik.cobweb.util.http.IHttpRequestHandler;
 import de.zabuza.lexisearch.indexing.IKeyRecord;
 import de.zabuza.lexisearch.indexing.qgram.QGramProvider;
 import de.zabuza.lexisearch.queries.FuzzyPrefixQuery;
@@ -46,9 +51,10 @@ import de.zabuza.lexisearch.ranking.PostingBeforeRecordRanking;
  * <code>OPTIONS</code>. The server will send <code>BAD REQUEST</code> to invalid
  * requests.<br>
  * <br>
- * The server itself handles clients in parallel using a cached thread pool. For
- * construction it wants a configuration and a database for retrieving the name
- * data-set.
+ * The server itself handles clients in parallel using a cached thread pool or,
+ * if configured, virtual threads. The amount of requests that are answered
+ * concurrently is bounded by an {@link AdmissionController}. For construction
+ * it wants a configuration and a database for retrieving the name data-set.
  *
  * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
  */
@@ -66,6 +72,11 @@ public final class NameSearchServer implements Runnable {
    * server status is checked after each timeout.
    */
   private static final int SOCKET_TIMEOUT = 2_000;
+  /**
+   * The handler used to answer HTTP requests, shared by all clients. Guarded
+   * by admission control.
+   */
+  private IHttpRequestHandler mClientHandler;
   /**
    * Configuration provider which provides the port that should be used by the
    * server.
@@ -75,6 +86,11 @@ public final class NameSearchServer implements Runnable {
    * Database used for retrieving the name data-set.
    */
   private final INameSearchDatabase mDatabase;
+  /**
+   * Configuration provider which provides the settings of persistent HTTP
+   * connections.
+   */
+  private final IHttpServerConfigProvider mHttpConfig;
   /**
    * The query object to use for answering fuzzy prefix queries.
    */
@@ -110,32 +126,44 @@ public final class NameSearchServer implements Runnable {
    * with {@link #isRunning()}. Once a server was shutdown it should not be used
    * anymore, instead create a new one.
    *
-   * @param config   Configuration provider which provides the port that should
-   *                 be used by the server
-   * @param database Database used for retrieving the name data-set
+   * @param config     Configuration provider which provides the port that
+   *                   should be used by the server
+   * @param httpConfig Configuration provider which provides the settings of
+   *                   persistent HTTP connections
+   * @param database   Database used for retrieving the name data-set
    */
-  public NameSearchServer(final INameSearchConfigProvider config, final INameSearchDatabase database) {
+  public NameSearchServer(final INameSearchConfigProvider config, final IHttpServerConfigProvider httpConfig,
+      final INameSearchDatabase database) {
     mConfig = config;
+    mHttpConfig = httpConfig;
     mDatabase = database;
   }
 
+  /**
+   * Gets the handler used to answer HTTP requests. It is created by
+   * {@link #initialize()} and can also be registered at a shared
+   * {@link de.unifreiburg.informatik.cobweb.util.http.HttpServer HttpServer}
+   * instead of starting this server. The handler is guarded by admission
+   * control.
+   *
+   * @return The handler used to answer HTTP requests
+   */
+  public IHttpRequestHandler getClientHandler() {
+    return mClientHandler;
+  }
+
   /**
    * Initializes the server. Call this method prior to starting the server with
    * {@link #start()}. Do not call it again afterwards.
-   *
-   * @throws UncheckedIOException If an I/O exception occurred while creating
-   *                              the server socket.
    */
-  public void initialize() throws UncheckedIOException {
+  public void initialize() {
     initializeFuzzyPrefixQuery();
     mMatchLimit = mConfig.getMatchLimit();
     mServerThread = new Thread(this);
-    try {
-      mServerSocket = new ServerSocket(mConfig.getNameSearchServerPort());
-      mServerSocket.setSoTimeout(SOCKET_TIMEOUT);
-    } catch (final IOException e) {
-      throw new UncheckedIOException(e);
-    }
+    mClientHandler = new AdmissionController("name search", new ClientHandler(mFuzzyQuery, mNodeNames, mMatchLimit),
+        mConfig.getNameSearchMaxConcurrentRequests(), mConfig.getNameSearchRequestQueueSize(),
+        TimeUnit.SECONDS.toMillis(mHttpConfig.getHttpMaxQueueTime()), mHttpConfig.getHttpRetryAfter(),
+        mHttpConfig.useVirtualThreads());
   }
 
   /**
@@ -155,8 +183,10 @@ public final class NameSearchServer implements Runnable {
    */
   @Override
   public void run() {
-    final ExecutorService executor = Executors.newCachedThreadPool();
+    final ExecutorService executor = HttpExecutors.newRequestExecutor(mHttpConfig.useVirtualThreads());
     int requestId = -1;
+    final int keepAliveTimeout = (int) TimeUnit.SECONDS.toMillis(mHttpConfig.getHttpKeepAliveTimeout());
+    final int maxRequests = mHttpConfig.getHttpMaxRequestsPerConnection();
 
     LOGGER.info("Server ready and waiting for clients");
     while (mShouldRun) {
@@ -167,7 +197,8 @@ public final class NameSearchServer implements Runnable {
 
         // Handle the client
         requestId++;
-        final ClientHandler handler = new ClientHandler(requestId, client, mFuzzyQuery, mNodeNames, mMatchLimit);
+        final HttpSocketHandler handler =
+            new HttpSocketHandler(requestId, client, mClientHandler, keepAliveTimeout, maxRequests);
         executor.execute(handler);
       } catch (final SocketTimeoutException e) {
         // Ignore the exception. The timeout is used to repeatedly check if the
@@ -200,11 +231,20 @@ public final class NameSearchServer implements Runnable {
    * shutdown by using {@link #shutdown()}, the current status can be checked
    * with {@link #isRunning()}. Once a server was shutdown it should not be used
    * anymore, instead create a new one.
+   *
+   * @throws UncheckedIOException If an I/O exception occurred while creating
+   *                              the server socket.
    */
-  public void start() {
+  public void start() throws UncheckedIOException {
     if (isRunning()) {
       return;
     }
+    try {
+      mServerSocket = new ServerSocket(mConfig.getNameSearchServerPort());
+      mServerSocket.setSoTimeout(SOCKET_TIMEOUT);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
     LOGGER.info("Starting name search server");
     mShouldRun = true;
     mServerThread.start();
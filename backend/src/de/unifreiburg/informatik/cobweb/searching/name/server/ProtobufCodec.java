@@ -0,0 +1,184 @@
+package de.unifreiburg.informatik.cobweb.searching.name.server;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.unifreiburg.informatik.cobweb.searching.name.server.model.Match;
+import de.unifreiburg.informatik.cobweb.searching.name.server.model.NameSearchRequest;
+import de.unifreiburg.informatik.cobweb.searching.name.server.model.NameSearchResponse;
+import de.unifreiburg.informatik.cobweb.util.protobuf.ProtobufReader;
+import de.unifreiburg.informatik.cobweb.util.protobuf.ProtobufWriter;
+
+/**
+ * Utility class which encodes and decodes name search requests and responses
+ * in the binary wire format of protocol buffers. It is used for clients which
+ * send requests with the content type
+ * {@link de.unifreiburg.informatik.cobweb.util.http.EHttpContentType#PROTOBUF
+ * EHttpContentType#PROTOBUF}.<br>
+ * <br>
+ * The messages correspond to the following schema:
+ *
+ * <pre>
+ * message NameSearchRequest {
+ *   string name = 1;
+ *   int32 amount = 2;
+ * }
+ * message NameSearchResponse {
+ *   int64 time = 1;
+ *   repeated Match matches = 2;
+ * }
+ * message Match {
+ *   int64 id = 1;
+ *   string name = 2;
+ * }
+ * </pre>
+ *
+ * Unknown fields are skipped.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class ProtobufCodec {
+  /**
+   * Field number of the ID of a match.
+   */
+  private static final int MATCH_ID = 1;
+  /**
+   * Field number of the name of a match.
+   */
+  private static final int MATCH_NAME = 2;
+  /**
+   * Field number of the amount of a request.
+   */
+  private static final int REQUEST_AMOUNT = 2;
+  /**
+   * Field number of the name of a request.
+   */
+  private static final int REQUEST_NAME = 1;
+  /**
+   * Field number of the matches of a response.
+   */
+  private static final int RESPONSE_MATCHES = 2;
+  /**
+   * Field number of the time of a response.
+   */
+  private static final int RESPONSE_TIME = 1;
+
+  /**
+   * Decodes the given name search request.
+   *
+   * @param data The encoded request
+   * @return The decoded request
+   * @throws IllegalArgumentException If the request is malformed
+   */
+  public static NameSearchRequest decodeRequest(final byte[] data) throws IllegalArgumentException {
+    final ProtobufReader reader = new ProtobufReader(data);
+    String name = "";
+    int amount = 0;
+    while (reader.hasRemaining()) {
+      switch (reader.readTag()) {
+        case REQUEST_NAME:
+          name = reader.readString();
+          break;
+        case REQUEST_AMOUNT:
+          amount = reader.readInt32();
+          break;
+        default:
+          reader.skipField();
+          break;
+      }
+    }
+    return new NameSearchRequest(name, amount);
+  }
+
+  /**
+   * Decodes the given name search response.
+   *
+   * @param data The encoded response
+   * @return The decoded response
+   * @throws IllegalArgumentException If the response is malformed
+   */
+  public static NameSearchResponse decodeResponse(final byte[] data) throws IllegalArgumentException {
+    final ProtobufReader reader = new ProtobufReader(data);
+    long time = 0L;
+    final List<Match> matches = new ArrayList<>();
+    while (reader.hasRemaining()) {
+      switch (reader.readTag()) {
+        case RESPONSE_TIME:
+          time = reader.readInt64();
+          break;
+        case RESPONSE_MATCHES:
+          matches.add(ProtobufCodec.decodeMatch(reader.readMessage()));
+          break;
+        default:
+          reader.skipField();
+          break;
+      }
+    }
+    return new NameSearchResponse(time, matches);
+  }
+
+  /**
+   * Encodes the given name search request.
+   *
+   * @param request The request to encode
+   * @return A writer containing the encoded request
+   */
+  public static ProtobufWriter encodeRequest(final NameSearchRequest request) {
+    final ProtobufWriter writer = new ProtobufWriter();
+    writer.writeString(REQUEST_NAME, request.getName());
+    writer.writeInt64(REQUEST_AMOUNT, request.getAmount());
+    return writer;
+  }
+
+  /**
+   * Encodes the given name search response.
+   *
+   * @param response The response to encode
+   * @return A writer containing the encoded response
+   */
+  public static ProtobufWriter encodeResponse(final NameSearchResponse response) {
+    final ProtobufWriter writer = new ProtobufWriter();
+    writer.writeInt64(RESPONSE_TIME, response.getTime());
+    final ProtobufWriter matchWriter = new ProtobufWriter();
+    for (final Match match : response.getMatches()) {
+      matchWriter.reset();
+      matchWriter.writeInt64(MATCH_ID, match.getId());
+      matchWriter.writeString(MATCH_NAME, match.getName());
+      writer.writeMessage(RESPONSE_MATCHES, matchWriter);
+    }
+    return writer;
+  }
+
+  /**
+   * Decodes the given match.
+   *
+   * @param reader The reader containing the encoded match
+   * @return The decoded match
+   * @throws IllegalArgumentException If the match is malformed
+   */
+  private static Match decodeMatch(final ProtobufReader reader) throws IllegalArgumentException {
+    long id = 0L;
+    String name = "";
+    while (reader.hasRemaining()) {
+      switch (reader.readTag()) {
+        case MATCH_ID:
+          id = reader.readInt64();
+          break;
+        case MATCH_NAME:
+          name = reader.readString();
+          break;
+        default:
+          reader.skipField();
+          break;
+      }
+    }
+    return new Match(id, name);
+  }
+
+  /**
+   * Utility class. No implementation.
+   */
+  private ProtobufCodec() {
+
+  }
+}
@@ -1,7 +1,5 @@
 package de.unifreiburg.informatik.cobweb.searching.name.server;
 
-import java.io.IOException;
-import java.net.Socket;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
@@ -19,15 +17,15 @@ import de.unifreiburg.informatik.cobweb.searching.name.server.model.NameSearchRe
 import de.unifreiburg.informatik.cobweb.searching.name.server.model.NameSearchResponse;
 import de.unifreiburg.informatik.cobweb.util.RoutingUtil;
 import de.unifreiburg.informatik.cobweb.util.http.EHttpContentType;
+import de.unifreiburg.informatik.cobweb.util.http.HttpResponse;
 import de.unifreiburg.informatik.cobweb.util.http.HttpResponseBuilder;
-import de.unifreiburg.informatik.cobweb.util.http.HttpUtil;
 import de.zabuza.lexisearch.indexing.IKeyRecord;
 import de.zabuza.lexisearch.indexing.Posting;
 import de.zabuza.lexisearch.queries.FuzzyPrefixQuery;
 
 /**
  * Class that handles a name search request. It parses the request, computes
- * corresponding matches and builds and sends a proper response.<br>
+ * corresponding matches and builds a proper response.<br>
  * <br>
  * To handle a request call {@link #handleRequest(NameSearchRequest)}.
  *
@@ -38,10 +36,6 @@ public final class RequestHandler {
    * Logger used for logging
    */
   private static final Logger LOGGER = LoggerFactory.getLogger(RequestHandler.class);
-  /**
-   * The client whose request to handle.
-   */
-  private final Socket mClient;
   /**
    * The query object to use for answering the fuzzy prefix query.
    */
@@ -60,21 +54,19 @@ public final class RequestHandler {
   private final NodeNameSet mNodeNames;
 
   /**
-   * Creates a new handler which handles requests of the given client using the
-   * given tools.<br>
+   * Creates a new handler which handles requests using the given tools. The
+   * handler is thread-safe and can be shared by all clients.<br>
    * <br>
    * To handle a request call {@link #handleRequest(NameSearchRequest)}.
    *
-   * @param client     The client whose request to handle
    * @param gson       The GSON object used to format JSON responses
    * @param fuzzyQuery The query object to use for answering the fuzzy prefix
    *                   query
    * @param nodeNames  The data-set of node names to query on
    * @param matchLimit The maximal amount of matches to send
    */
-  public RequestHandler(final Socket client, final Gson gson, final FuzzyPrefixQuery<IKeyRecord<String>> fuzzyQuery,
+  public RequestHandler(final Gson gson, final FuzzyPrefixQuery<IKeyRecord<String>> fuzzyQuery,
       final NodeNameSet nodeNames, final int matchLimit) {
-    mClient = client;
     mGson = gson;
     mFuzzyQuery = fuzzyQuery;
     mNodeNames = nodeNames;
@@ -83,12 +75,26 @@ public final class RequestHandler {
 
   /**
    * Handles the given name search request. It computes matches and constructs
-   * and sends a proper response.
+   * a proper response.
    *
    * @param request The request to handle
-   * @throws IOException If an I/O exception occurred while sending a response
+   * @return The response to send to the client
+   */
+  public HttpResponse handleRequest(final NameSearchRequest request) {
+    return handleRequest(request, EHttpContentType.JSON);
+  }
+
+  /**
+   * Handles the given name search request and encodes the response in the given
+   * content type.
+   *
+   * @param request      The request to handle
+   * @param responseType The content type to encode the response in, either
+   *                     {@link EHttpContentType#JSON} or
+   *                     {@link EHttpContentType#PROTOBUF}
+   * @return The response to send to the client
    */
-  public void handleRequest(final NameSearchRequest request) throws IOException {
+  public HttpResponse handleRequest(final NameSearchRequest request, final EHttpContentType responseType) {
     if (LOGGER.isDebugEnabled()) {
       LOGGER.debug("Handling request: {}", request);
     }
@@ -97,13 +103,11 @@ public final class RequestHandler {
     // Get the search request
     final String name = request.getName();
     if (name.trim().isEmpty()) {
-      sendEmptyResponse(startTime);
-      return;
+      return createEmptyResponse(startTime, responseType);
     }
     int amount = request.getAmount();
     if (amount <= 0) {
-      sendEmptyResponse(startTime);
-      return;
+      return createEmptyResponse(startTime, responseType);
     }
     if (amount > mMatchLimit) {
       amount = mMatchLimit;
@@ -116,7 +120,7 @@ public final class RequestHandler {
 
     // Build and send response
     final NameSearchResponse response = new NameSearchResponse(RoutingUtil.nanosToMillis(endTime - startTime), matches);
-    sendResponse(response);
+    return createResponse(response, responseType);
   }
 
   /**
@@ -145,32 +149,37 @@ public final class RequestHandler {
   }
 
   /**
-   * Sends an empty name search response. This is usually used if the name to
+   * Creates an empty name search response. This is usually used if the name to
    * search was empty or no match could be found.
    *
-   * @param startTime The time the computation started, in nanoseconds. Must be
-   *                  compatible with {@link System#nanoTime()}.
-   * @throws IOException If an I/O exception occurred while sending the response
+   * @param startTime    The time the computation started, in nanoseconds.
+   *                     Must be compatible with {@link System#nanoTime()}.
+   * @param responseType The content type to encode the response in
+   * @return The response to send to the client
    */
-  private void sendEmptyResponse(final long startTime) throws IOException {
+  private HttpResponse createEmptyResponse(final long startTime, final EHttpContentType responseType) {
     final long endTime = System.nanoTime();
     final NameSearchResponse response =
         new NameSearchResponse(RoutingUtil.nanosToMillis(endTime - startTime), Collections.emptyList());
-    sendResponse(response);
+    return createResponse(response, responseType);
   }
 
   /**
-   * Sends the given name search response.
+   * Creates the HTTP response for the given name search response.
    *
-   * @param response The response to send
-   * @throws IOException If an I/O exception occurred while sending the response
+   * @param response     The response to send
+   * @param responseType The content type to encode the response in
+   * @return The response to send to the client
    */
-  private void sendResponse(final NameSearchResponse response) throws IOException {
+  private HttpResponse createResponse(final NameSearchResponse response, final EHttpContentType responseType) {
     if (LOGGER.isDebugEnabled()) {
       LOGGER.debug("Sending response: {}", response);
     }
+    if (responseType == EHttpContentType.PROTOBUF) {
+      return new HttpResponseBuilder().setContentType(EHttpContentType.PROTOBUF)
+          .setContentWriter(ProtobufCodec.encodeResponse(response)::writeTo).build();
+    }
     final String content = mGson.toJson(response);
-    HttpUtil.sendHttpResponse(
-        new HttpResponseBuilder().setContentType(EHttpContentType.JSON).setContent(content).build(), mClient);
+    return new HttpResponseBuilder().setContentType(EHttpContentType.JSON).setContent(content).build();
   }
 }
@@ -1,189 +1,150 @@
 package de.unifreiburg.informatik.cobweb.searching.nearest.server;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.net.Socket;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.JsonSyntaxException;
 
 import de.unifreiburg.informatik.cobweb.db.INearestSearchDatabase;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.INearestNeighborComputation;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
 import de.unifreiburg.informatik.cobweb.searching.nearest.server.model.NearestSearchRequest;
-import de.unifreiburg.informatik.cobweb.util.MemberFieldNamingStrategy;
 import de.unifreiburg.informatik.cobweb.util.http.EHttpContentType;
 import de.unifreiburg.informatik.cobweb.util.http.EHttpStatus;
 import de.unifreiburg.informatik.cobweb.util.http.HttpRequest;
+import de.unifreiburg.informatik.cobweb.util.http.HttpResponse;
 import de.unifreiburg.informatik.cobweb.util.http.HttpResponseBuilder;
 import de.unifreiburg.informatik.cobweb.util.http.HttpUtil;
+import de.unifreiburg.informatik.cobweb.util.http.IHttpRequestHandler;
+import de.unifreiburg.informatik.cobweb.util.http.json.JsonCodecs;
 
 /**
- * Class that handles a nearest search client. It is designed to communicate
- * with a client via HTTP and serve nearest search requests.<br>
+ * Class that handles nearest search clients. It is designed to communicate with
+ * clients via HTTP and serve nearest search requests.<br>
  * <br>
- * To handle the client call {@link #run()}. The method should only be called
- * once, the object should not be used anymore after the method has
- * finished.<br>
+ * Requests are accepted as JSON or, with the content type
+ * {@link EHttpContentType#PROTOBUF}, in the binary format described by
+ * {@link ProtobufCodec}. The response uses the format of the request.<br>
  * <br>
- * The client handler will close the client on its own. So it should not be
- * closed outside.
+ * To handle a request call {@link #handleRequest(HttpRequest)}. The handler is
+ * shared by all clients and can be used by multiple threads at the same time.
  *
  * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
  */
-public final class ClientHandler implements Runnable {
+public final class ClientHandler implements IHttpRequestHandler {
   /**
-   * Resource that is to be requested from a client if he submits a nearest
-   * search query.
+   * Resource that is to be requested from a client if he submits a nearest search
+   * query.
    */
-  private static final String API_RESOURCE = "/nearestsearch";
+  public static final String API_RESOURCE = "/nearestsearch";
   /**
    * Logger used for logging.
    */
   private static final Logger LOGGER = LoggerFactory.getLogger(ClientHandler.class);
+
   /**
-   * The client to handle.
+   * Serves a HTTP request of type <code>OPTIONS</code>.
+   *
+   * @return The response to send to the client
    */
-  private final Socket mClient;
+  private static HttpResponse serveOptionsRequest() {
+    // Send back the supported methods
+    return new HttpResponseBuilder().setStatus(EHttpStatus.OK).putHeader("Access-Control-Allow-Methods", "POST")
+        .putHeader("Access-Control-Allow-Headers", "Content-Type")
+        .putHeader("Access-Control-Max-Age", String.valueOf(86400)).build();
+  }
+
   /**
-   * The database to use for retrieving node data.
+   * The GSON object used to parse requests and format responses.
    */
-  private final INearestSearchDatabase mDatabase;
+  private final Gson mGson;
   /**
-   * The unique ID of this client request.
+   * The handler used to answer parsed nearest search requests.
    */
-  private final int mId;
+  private final RequestHandler mRequestHandler;
   /**
-   * The nearest neighbor computation algorithm to use.
+   * Counter used to generate the unique IDs of client requests.
    */
-  private final INearestNeighborComputation<ICoreNode> mNearestNeighborComputation;
+  private final AtomicInteger mRequestId;
 
   /**
-   * Creates a new handler which handles the given client using the given
-   * algorithm.<br>
+   * Creates a new handler which handles nearest search clients using the given
+   * tools.<br>
    * <br>
-   * To handle the client call {@link #run()}. The method should only be called
-   * once, the object should not be used anymore after the method has finished.
+   * To handle a request call {@link #handleRequest(HttpRequest)}.
    *
-   * @param id                         The unique ID of this client request
-   * @param client                     The client to handle
    * @param nearestNeighborComputation Nearest neighbor computation algorithm to
    *                                   use
    * @param database                   The database to use for retrieving node
    *                                   data
    */
-  public ClientHandler(final int id, final Socket client,
-      final INearestNeighborComputation<ICoreNode> nearestNeighborComputation, final INearestSearchDatabase database) {
-    mId = id;
-    mClient = client;
-    mNearestNeighborComputation = nearestNeighborComputation;
-    mDatabase = database;
+  public ClientHandler(final INearestNeighborComputation<ICoreNode> nearestNeighborComputation,
+      final INearestSearchDatabase database) {
+    mGson = JsonCodecs.getGson();
+    mRequestHandler = new RequestHandler(mGson, nearestNeighborComputation, database);
+    mRequestId = new AtomicInteger(-1);
   }
 
   /**
-   * Handles the clients request.<br>
-   * <br>
-   * The method should only be called once, the object should not be used
-   * anymore after the method has finished. The method catches and logs all
-   * errors and exceptions.<br>
-   * <br>
-   * The client handler will close the client on its own. So it should not be
-   * closed outside.
-   */
-  @Override
-  public void run() {
-    try {
-      // Handle the client
-      try (InputStream input = mClient.getInputStream()) {
-        handleRequest(HttpUtil.parseRequest(input));
-      }
-    } catch (final Throwable e) {
-      // Log every error
-      LOGGER.error("Unknown error while handling the client: {}", mId, e);
-    } finally {
-      try {
-        // Close the client
-        mClient.close();
-      } catch (final IOException e) {
-        LOGGER.error("Exception while closing the client socket", e);
-      }
-    }
-  }
-
-  /**
-   * Handles the given HTTP request.
+   * Handles the given HTTP request of a client.
    *
    * @param request The request to handle
-   * @throws IOException If an I/O exception occurred while sending the response
-   *                     to the client
+   * @return The response to send to the client
    */
-  private void handleRequest(final HttpRequest request) throws IOException {
+  @Override
+  public HttpResponse handleRequest(final HttpRequest request) {
     // TODO Maybe don't log always
-    LOGGER.info("Handling nearest search HTTP request with id: {}", mId);
+    LOGGER.info("Handling nearest search HTTP request with id: {}", mRequestId.incrementAndGet());
 
     // Method not allowed
     final String type = request.getType().toUpperCase();
     if (!type.equals("OPTIONS") && !type.equals("POST")) {
-      HttpUtil.sendHttpResponse(new HttpResponseBuilder().setStatus(EHttpStatus.METHOD_NOT_ALLOWED)
-          .putHeader("Allow", "OPTIONS, POST").build(), mClient);
-      return;
+      return new HttpResponseBuilder().setStatus(EHttpStatus.METHOD_NOT_ALLOWED).putHeader("Allow", "OPTIONS, POST")
+          .build();
     }
 
     if (type.equals("OPTIONS")) {
-      serveOptionsRequest();
-      return;
+      return ClientHandler.serveOptionsRequest();
     }
 
     // Type is a post request
-    servePost(request);
-  }
-
-  /**
-   * Serves a HTTP request of type <code>OPTIONS</code>.
-   *
-   * @throws IOException If an I/O exception occurred while sending the response
-   *                     to the client
-   */
-  private void serveOptionsRequest() throws IOException {
-    // Send back the supported methods
-    HttpUtil.sendHttpResponse(new HttpResponseBuilder().setStatus(EHttpStatus.OK)
-        .putHeader("Access-Control-Allow-Methods", "POST").putHeader("Access-Control-Allow-Headers", "Content-Type")
-        .putHeader("Access-Control-Max-Age", String.valueOf(86400)).putHeader("Connection", "Keep-Alive")
-        .putHeader("Keep-Alive", "timeout=5, max=100").build(), mClient);
+    return servePost(request);
   }
 
   /**
    * Serves a HTTP request of type <code>POST</code>.
    *
    * @param request The request to serve
-   * @throws IOException If an I/O exception occurred while sending the response
-   *                     to the client
+   * @return The response to send to the client
    */
-  private void servePost(final HttpRequest request) throws IOException {
+  private HttpResponse servePost(final HttpRequest request) {
     if (!request.getResource().equals(API_RESOURCE)) {
-      HttpUtil.sendHttpResponse(new HttpResponseBuilder().setStatus(EHttpStatus.NOT_IMPLEMENTED).build(), mClient);
-      return;
+      return new HttpResponseBuilder().setStatus(EHttpStatus.NOT_IMPLEMENTED).build();
     }
 
     final EHttpContentType contentType = HttpUtil.parseContentType(request.getHeaders().get("Content-Type"));
+    if (contentType == EHttpContentType.PROTOBUF) {
+      // Parse the binary request and answer in the same format
+      try {
+        final NearestSearchRequest parsedRequest = ProtobufCodec.decodeRequest(request.getRawContent());
+        return mRequestHandler.handleRequest(parsedRequest, EHttpContentType.PROTOBUF);
+      } catch (final IllegalArgumentException e) {
+        return new HttpResponseBuilder().setStatus(EHttpStatus.BAD_REQUEST).build();
+      }
+    }
     if (contentType == null || contentType != EHttpContentType.JSON) {
-      HttpUtil.sendHttpResponse(new HttpResponseBuilder().setStatus(EHttpStatus.BAD_REQUEST).build(), mClient);
-      return;
+      return new HttpResponseBuilder().setStatus(EHttpStatus.BAD_REQUEST).build();
     }
 
     // Parse the JSON request and handle it
-    final Gson gson = new GsonBuilder().setFieldNamingStrategy(new MemberFieldNamingStrategy()).create();
     try {
-      final NearestSearchRequest nearestSearchRequest = gson.fromJson(request.getContent(), NearestSearchRequest.class);
-      final RequestHandler handler = new RequestHandler(mClient, gson, mNearestNeighborComputation, mDatabase);
-      handler.handleRequest(nearestSearchRequest);
+      final NearestSearchRequest parsedRequest = mGson.fromJson(request.getContent(), NearestSearchRequest.class);
+      return mRequestHandler.handleRequest(parsedRequest);
     } catch (final JsonSyntaxException e) {
-      HttpUtil.sendHttpResponse(new HttpResponseBuilder().setStatus(EHttpStatus.BAD_REQUEST).build(), mClient);
-      return;
+      return new HttpResponseBuilder().setStatus(EHttpStatus.BAD_REQUEST).build();
     }
   }
 }
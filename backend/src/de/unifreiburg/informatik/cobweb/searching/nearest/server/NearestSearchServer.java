@@ -6,17 +6,22 @@ import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketTimeoutException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import de.unifreiburg.informatik.cobweb.config.IHttpServerConfigProvider;
 import de.unifreiburg.informatik.cobweb.config.INearestSearchConfigProvider;
 import de.unifreiburg.informatik.cobweb.db.INearestSearchDatabase;
 import de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.INearestNeighborComputation;
 import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
 import de.unifreiburg.informatik.cobweb.searching.nearest.server.model.NearestSearchRequest;
 import de.unifreiburg.informatik.cobweb.searching.nearest.server.model.NearestSearchResponse;
+import de.unifreiburg.informatik.cobweb.util.http.AdmissionController;
+import de.unifreiburg.informatik.cobweb.util.http.HttpExecutors;
+import de.unifreiburg.informatik.cobweb.util.http.HttpSocketHandler;
+import de.unifreiburg.informatik.cobweb.util.http.IHttpRequestHandler;
 
 /**
  * A server which offers a REST API that is able to answer nearest neighboring
@@ -39,9 +44,11 @@ import de.unifreiburg.informatik.cobweb.searching.nearest.server.model.NearestSe
  * <code>OPTIONS</code>. The server will send <code>BAD REQUEST</code> to invalid
  * requests.<br>
  * <br>
- * The server itself handles clients in parallel using a cached thread pool. For
- * construction it wants a configuration and a nearest neighbor computation
- * object for retrieving the nodes.
+ * The server itself handles clients in parallel using a cached thread pool or,
+ * if configured, virtual threads. The amount of requests that are answered
+ * concurrently is bounded by an {@link AdmissionController}. For construction
+ * it wants a configuration and a nearest neighbor computation object for
+ * retrieving the nodes.
  *
  * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
  */
@@ -55,6 +62,11 @@ public final class NearestSearchServer implements Runnable {
    * server status is checked after each timeout.
    */
   private static final int SOCKET_TIMEOUT = 2_000;
+  /**
+   * The handler used to answer HTTP requests, shared by all clients. Guarded
+   * by admission control.
+   */
+  private IHttpRequestHandler mClientHandler;
   /**
    * Configuration provider which provides the port that should be used by the
    * server.
@@ -64,6 +76,11 @@ public final class NearestSearchServer implements Runnable {
    * The database to use for retrieving node data.
    */
   private final INearestSearchDatabase mDatabase;
+  /**
+   * Configuration provider which provides the settings of persistent HTTP
+   * connections.
+   */
+  private final IHttpServerConfigProvider mHttpConfig;
   /**
    * The nearest neighbor computation algorithm to use.
    */
@@ -93,33 +110,44 @@ public final class NearestSearchServer implements Runnable {
    *
    * @param config                     Configuration provider which provides the
    *                                   port that should be used by the server
+   * @param httpConfig                 Configuration provider which provides the
+   *                                   settings of persistent HTTP connections
    * @param nearestNeighborComputation Nearest neighbor computation algorithm to
    *                                   use
    * @param database                   The database to use for retrieving node
    *                                   data
    */
-  public NearestSearchServer(final INearestSearchConfigProvider config,
+  public NearestSearchServer(final INearestSearchConfigProvider config, final IHttpServerConfigProvider httpConfig,
       final INearestNeighborComputation<ICoreNode> nearestNeighborComputation, final INearestSearchDatabase database) {
     mConfig = config;
+    mHttpConfig = httpConfig;
     mNearestNeighborComputation = nearestNeighborComputation;
     mDatabase = database;
   }
 
+  /**
+   * Gets the handler used to answer HTTP requests. It is created by
+   * {@link #initialize()} and can also be registered at a shared
+   * {@link de.unifreiburg.informatik.cobweb.util.http.HttpServer HttpServer}
+   * instead of starting this server. The handler is guarded by admission
+   * control.
+   *
+   * @return The handler used to answer HTTP requests
+   */
+  public IHttpRequestHandler getClientHandler() {
+    return mClientHandler;
+  }
+
   /**
    * Initializes the server. Call this method prior to starting the server with
    * {@link #start()}. Do not call it again afterwards.
-   *
-   * @throws UncheckedIOException If an I/O exception occurred while creating
-   *                              the server socket.
    */
-  public void initialize() throws UncheckedIOException {
+  public void initialize() {
     mServerThread = new Thread(this);
-    try {
-      mServerSocket = new ServerSocket(mConfig.getNearestSearchServerPort());
-      mServerSocket.setSoTimeout(SOCKET_TIMEOUT);
-    } catch (final IOException e) {
-      throw new UncheckedIOException(e);
-    }
+    mClientHandler = new AdmissionController("nearest search",
+        new ClientHandler(mNearestNeighborComputation, mDatabase), mConfig.getNearestSearchMaxConcurrentRequests(),
+        mConfig.getNearestSearchRequestQueueSize(), TimeUnit.SECONDS.toMillis(mHttpConfig.getHttpMaxQueueTime()),
+        mHttpConfig.getHttpRetryAfter(), mHttpConfig.useVirtualThreads());
   }
 
   /**
@@ -139,8 +167,10 @@ public final class NearestSearchServer implements Runnable {
    */
   @Override
   public void run() {
-    final ExecutorService executor = Executors.newCachedThreadPool();
+    final ExecutorService executor = HttpExecutors.newRequestExecutor(mHttpConfig.useVirtualThreads());
     int requestId = -1;
+    final int keepAliveTimeout = (int) TimeUnit.SECONDS.toMillis(mHttpConfig.getHttpKeepAliveTimeout());
+    final int maxRequests = mHttpConfig.getHttpMaxRequestsPerConnection();
 
     LOGGER.info("Server ready and waiting for clients");
     while (mShouldRun) {
@@ -151,7 +181,8 @@ public final class NearestSearchServer implements Runnable {
 
         // Handle the client
         requestId++;
-        final ClientHandler handler = new ClientHandler(requestId, client, mNearestNeighborComputation, mDatabase);
+        final HttpSocketHandler handler =
+            new HttpSocketHandler(requestId, client, mClientHandler, keepAliveTimeout, maxRequests);
         executor.execute(handler);
       } catch (final SocketTimeoutException e) {
         // Ignore the exception. The timeout is used to repeatedly check if the
@@ -184,11 +215,20 @@ public final class NearestSearchServer implements Runnable {
    * shutdown by using {@link #shutdown()}, the current status can be checked
    * with {@link #isRunning()}. Once a server was shutdown it should not be used
    * anymore, instead create a new one.
+   *
+   * @throws UncheckedIOException If an I/O exception occurred while creating
+   *                              the server socket.
    */
-  public void start() {
+  public void start() throws UncheckedIOException {
     if (isRunning()) {
       return;
     }
+    try {
+      mServerSocket = new ServerSocket(mConfig.getNearestSearchServerPort());
+      mServerSocket.setSoTimeout(SOCKET_TIMEOUT);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
     LOGGER.info("Starting nearest search server");
     mShouldRun = true;
     mServerThread.start();
@@ -0,0 +1,156 @@
+package de.unifreiburg.informatik.cobweb.searching.nearest.server;
+
+import de.unifreiburg.informatik.cobweb.searching.nearest.server.model.NearestSearchRequest;
+import de.unifreiburg.informatik.cobweb.searching.nearest.server.model.NearestSearchResponse;
+import de.unifreiburg.informatik.cobweb.util.protobuf.ProtobufReader;
+import de.unifreiburg.informatik.cobweb.util.protobuf.ProtobufWriter;
+
+/**
+ * Utility class which encodes and decodes nearest search requests and
+ * responses in the binary wire format of protocol buffers. It is used for
+ * clients which send requests with the content type
+ * {@link de.unifreiburg.informatik.cobweb.util.http.EHttpContentType#PROTOBUF
+ * EHttpContentType#PROTOBUF}.<br>
+ * <br>
+ * The messages correspond to the following schema:
+ *
+ * <pre>
+ * message NearestSearchRequest {
+ *   float latitude = 1;
+ *   float longitude = 2;
+ * }
+ * message NearestSearchResponse {
+ *   int64 time = 1;
+ *   int64 id = 2;
+ *   float latitude = 3;
+ *   float longitude = 4;
+ * }
+ * </pre>
+ *
+ * Unknown fields are skipped.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class ProtobufCodec {
+  /**
+   * Field number of the latitude of a request.
+   */
+  private static final int REQUEST_LATITUDE = 1;
+  /**
+   * Field number of the longitude of a request.
+   */
+  private static final int REQUEST_LONGITUDE = 2;
+  /**
+   * Field number of the ID of a response.
+   */
+  private static final int RESPONSE_ID = 2;
+  /**
+   * Field number of the latitude of a response.
+   */
+  private static final int RESPONSE_LATITUDE = 3;
+  /**
+   * Field number of the longitude of a response.
+   */
+  private static final int RESPONSE_LONGITUDE = 4;
+  /**
+   * Field number of the time of a response.
+   */
+  private static final int RESPONSE_TIME = 1;
+
+  /**
+   * Decodes the given nearest search request.
+   *
+   * @param data The encoded request
+   * @return The decoded request
+   * @throws IllegalArgumentException If the request is malformed
+   */
+  public static NearestSearchRequest decodeRequest(final byte[] data) throws IllegalArgumentException {
+    final ProtobufReader reader = new ProtobufReader(data);
+    float latitude = 0.0F;
+    float longitude = 0.0F;
+    while (reader.hasRemaining()) {
+      switch (reader.readTag()) {
+        case REQUEST_LATITUDE:
+          latitude = reader.readFloat();
+          break;
+        case REQUEST_LONGITUDE:
+          longitude = reader.readFloat();
+          break;
+        default:
+          reader.skipField();
+          break;
+      }
+    }
+    return new NearestSearchRequest(latitude, longitude);
+  }
+
+  /**
+   * Decodes the given nearest search response.
+   *
+   * @param data The encoded response
+   * @return The decoded response
+   * @throws IllegalArgumentException If the response is malformed
+   */
+  public static NearestSearchResponse decodeResponse(final byte[] data) throws IllegalArgumentException {
+    final ProtobufReader reader = new ProtobufReader(data);
+    long time = 0L;
+    long id = 0L;
+    float latitude = 0.0F;
+    float longitude = 0.0F;
+    while (reader.hasRemaining()) {
+      switch (reader.readTag()) {
+        case RESPONSE_TIME:
+          time = reader.readInt64();
+          break;
+        case RESPONSE_ID:
+          id = reader.readInt64();
+          break;
+        case RESPONSE_LATITUDE:
+          latitude = reader.readFloat();
+          break;
+        case RESPONSE_LONGITUDE:
+          longitude = reader.readFloat();
+          break;
+        default:
+          reader.skipField();
+          break;
+      }
+    }
+    return new NearestSearchResponse(time, id, latitude, longitude);
+  }
+
+  /**
+   * Encodes the given nearest search request.
+   *
+   * @param request The request to encode
+   * @return A writer containing the encoded request
+   */
+  public static ProtobufWriter encodeRequest(final NearestSearchRequest request) {
+    final ProtobufWriter writer = new ProtobufWriter();
+    writer.writeFloat(REQUEST_LATITUDE, request.getLatitude());
+    writer.writeFloat(REQUEST_LONGITUDE, request.getLongitude());
+    return writer;
+  }
+
+  /**
+   * Encodes the given nearest search response.
+   *
+   * @param response The response to encode
+   * @return A writer containing the encoded response
+   */
+  public static ProtobufWriter encodeResponse(final NearestSearchResponse response) {
+    final ProtobufWriter writer = new ProtobufWriter();
+    writer.writeInt64(RESPONSE_TIME, response.getTime());
+    writer.writeInt64(RESPONSE_ID, response.getId());
+    writer.writeFloat(RESPONSE_LATITUDE, response.getLatitude());
+    writer.writeFloat(RESPONSE_LONGITUDE, response.getLongitude());
+    return writer;
+  }
+
+  /**
+   * Utility class. No implementation.
+   */
+  private ProtobufCodec() {
+
+  }
+}
@@ -5,6 +5,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,18 +31,20 @@ public final class CleanUtil {
    * configuration files.<br>
    * <br>
    * Will only clean if the corresponding flags are set, namely
-   * {@link IRoutingConfigProvider#useGraphCache()} and
-   * {@link IDatabaseConfigProvider#useExternalDb()}.
+   * {@link IRoutingConfigProvider#useGraphCache()},
+   * {@link IDatabaseConfigProvider#useExternalDb()} and
+   * {@link IDatabaseConfigProvider#useMappedDb()}.
    *
    * @param routingConfig  The routing configuration providing paths to the
    *                       graph cache
    * @param databaseConfig The database configuration providing paths to the
-   *                       external database
+   *                       external and the memory-mapped database
    */
   public static void clean(final IRoutingConfigProvider routingConfig, final IDatabaseConfigProvider databaseConfig) {
     LOGGER.info("Starting to clean");
     CleanUtil.cleanGraphCache(routingConfig);
     CleanUtil.cleanDatabase(databaseConfig);
+    CleanUtil.cleanMappedDatabase(databaseConfig);
   }
 
   /**
@@ -87,6 +90,31 @@ public final class CleanUtil {
     CleanUtil.deleteIfPossible(routingConfig.getGraphCacheInfo());
   }
 
+  /**
+   * Cleans the memory-mapped database provided by the given configuration.<br>
+   * <br>
+   * This includes all files in the directory of the database, if the flag
+   * {@link IDatabaseConfigProvider#useMappedDb()} is set.
+   *
+   * @param databaseConfig The database configuration providing the directory
+   *                       of the memory-mapped database
+   */
+  private static void cleanMappedDatabase(final IDatabaseConfigProvider databaseConfig) {
+    if (!databaseConfig.useMappedDb()) {
+      return;
+    }
+
+    final Path directory = databaseConfig.getMappedDbDirectory();
+    if (!Files.isDirectory(directory)) {
+      return;
+    }
+    try (Stream<Path> files = Files.list(directory)) {
+      files.forEach(CleanUtil::deleteIfPossible);
+    } catch (final IOException e) {
+      // Ignore the problem
+    }
+  }
+
   /**
    * Attempts to delete the file or directory represented by the given path.<br>
    * <br>
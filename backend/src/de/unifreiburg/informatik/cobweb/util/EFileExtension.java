@@ -21,6 +21,10 @@ public enum EFileExtension {
    * File without any file extension.
    */
   NONE(""),
+  /**
+   * OSM change file, known under the extension <code>osc</code>.
+   */
+  OSC("osc"),
   /**
    * OSM file, known under the extension <code>osm</code>.
    */
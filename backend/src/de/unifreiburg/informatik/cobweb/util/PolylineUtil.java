@@ -0,0 +1,148 @@
+package de.unifreiburg.informatik.cobweb.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utility class which encodes and decodes coordinates using the encoded
+ * polyline algorithm format.<br>
+ * <br>
+ * Coordinates are rounded to five decimal places, which is about one metre.
+ * Every coordinate is stored as difference to the previous one, each
+ * difference is written as a sequence of printable characters holding five
+ * bits each. This results in a small string which is significantly shorter
+ * than a JSON array of the coordinates.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class PolylineUtil {
+  /**
+   * Mask to get the bits of a value that fit into one character.
+   */
+  private static final int CHUNK_MASK = 0x1F;
+  /**
+   * The amount of bits of a value that fit into one character.
+   */
+  private static final int CHUNK_SIZE = 5;
+  /**
+   * Bit which marks that more characters of the same value follow.
+   */
+  private static final int CONTINUATION_BIT = 0x20;
+  /**
+   * Offset added to characters to make them printable.
+   */
+  private static final int OFFSET = 63;
+  /**
+   * Factor to multiply coordinates with before rounding them.
+   */
+  private static final double PRECISION = 1e5;
+
+  /**
+   * Decodes the given polyline.
+   *
+   * @param polyline The polyline to decode
+   * @return A list of latitude and longitude coordinates. Thus, the size of the
+   *         arrays is <code>2</code>.
+   * @throws IllegalArgumentException If the polyline is malformed
+   */
+  public static List<float[]> decode(final String polyline) throws IllegalArgumentException {
+    final List<float[]> coordinates = new ArrayList<>();
+    final int[] position = { 0 };
+    int latitude = 0;
+    int longitude = 0;
+    while (position[0] < polyline.length()) {
+      latitude += PolylineUtil.decodeValue(polyline, position);
+      longitude += PolylineUtil.decodeValue(polyline, position);
+      coordinates.add(new float[] { (float) (latitude / PRECISION), (float) (longitude / PRECISION) });
+    }
+    return coordinates;
+  }
+
+  /**
+   * Encodes the given coordinates as polyline.
+   *
+   * @param coordinates A list of latitude and longitude coordinates. Thus, the
+   *                    size of the arrays is <code>2</code>.
+   * @return The encoded polyline
+   */
+  public static String encode(final List<float[]> coordinates) {
+    final StringBuilder builder = new StringBuilder(coordinates.size() * 2 * 3);
+    PolylineUtil.encode(coordinates, builder);
+    return builder.toString();
+  }
+
+  /**
+   * Encodes the given coordinates as polyline and appends it to the given
+   * builder.
+   *
+   * @param coordinates A list of latitude and longitude coordinates. Thus, the
+   *                    size of the arrays is <code>2</code>.
+   * @param builder     The builder to append the polyline to
+   */
+  public static void encode(final List<float[]> coordinates, final StringBuilder builder) {
+    int previousLatitude = 0;
+    int previousLongitude = 0;
+    for (final float[] coordinate : coordinates) {
+      final int latitude = (int) Math.round(coordinate[0] * PRECISION);
+      final int longitude = (int) Math.round(coordinate[1] * PRECISION);
+      PolylineUtil.encodeValue(latitude - previousLatitude, builder);
+      PolylineUtil.encodeValue(longitude - previousLongitude, builder);
+      previousLatitude = latitude;
+      previousLongitude = longitude;
+    }
+  }
+
+  /**
+   * Decodes a single value of the given polyline.
+   *
+   * @param polyline The polyline to decode from
+   * @param position Array containing the position to start decoding at, it is
+   *                 advanced to the position after the value
+   * @return The decoded value
+   * @throws IllegalArgumentException If the polyline ends within the value
+   */
+  private static int decodeValue(final String polyline, final int[] position) throws IllegalArgumentException {
+    int result = 0;
+    int shift = 0;
+    int chunk;
+    do {
+      if (position[0] >= polyline.length()) {
+        throw new IllegalArgumentException("The polyline ends within a value: " + polyline);
+      }
+      chunk = polyline.charAt(position[0]) - OFFSET;
+      position[0]++;
+      result |= (chunk & CHUNK_MASK) << shift;
+      shift += CHUNK_SIZE;
+    } while (chunk >= CONTINUATION_BIT);
+
+    if ((result & 1) == 0) {
+      return result >> 1;
+    }
+    return ~(result >> 1);
+  }
+
+  /**
+   * Encodes a single value and appends it to the given builder.
+   *
+   * @param value   The value to encode
+   * @param builder The builder to append to
+   */
+  private static void encodeValue(final int value, final StringBuilder builder) {
+    int remaining = value << 1;
+    if (value < 0) {
+      remaining = ~remaining;
+    }
+    while (remaining >= CONTINUATION_BIT) {
+      builder.append((char) ((CONTINUATION_BIT | (remaining & CHUNK_MASK)) + OFFSET));
+      remaining >>>= CHUNK_SIZE;
+    }
+    builder.append((char) (remaining + OFFSET));
+  }
+
+  /**
+   * Utility class. No implementation.
+   */
+  private PolylineUtil() {
+
+  }
+}
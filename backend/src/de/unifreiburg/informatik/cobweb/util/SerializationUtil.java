@@ -1,5 +1,7 @@
 package de.unifreiburg.informatik.cobweb.util;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
@@ -16,6 +18,28 @@ import java.nio.file.Path;
  * @param <T> Type of the object to serialize or deserialize
  */
 public final class SerializationUtil<T extends Serializable> {
+  /**
+   * Creates a deep copy of the given object by serializing it into memory and
+   * deserializing it again.
+   *
+   * @param object The object to copy
+   * @return The copy of the object
+   * @throws IOException            If an I/O exception occurred while
+   *                                serializing or deserializing the object
+   * @throws ClassNotFoundException If the class of a copied object could not
+   *                                be found
+   */
+  @SuppressWarnings("unchecked")
+  public T copy(final T object) throws IOException, ClassNotFoundException {
+    final ByteArrayOutputStream os = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(os)) {
+      out.writeObject(object);
+    }
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(os.toByteArray()))) {
+      return (T) in.readObject();
+    }
+  }
+
   /**
    * Attempts to deserialize an object from the given path.
    *
@@ -57,6 +57,17 @@ public final class IdMap<K extends IHasId, V> implements Map<K, V>, Serializable
     this(FastList.newList());
   }
 
+  /**
+   * Creates a new array map which contains the same entries as the given map.
+   * The values themselves are not copied.
+   *
+   * @param map The map to copy
+   */
+  public IdMap(final IdMap<K, V> map) {
+    mValues = FastList.newList(map.mValues);
+    mSize = map.mSize;
+  }
+
   /**
    * Creates a new initially empty array map.
    *
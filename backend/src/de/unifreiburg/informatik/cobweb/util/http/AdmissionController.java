@@ -0,0 +1,412 @@
+package de.unifreiburg.informatik.cobweb.util.http;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Request handler which guards another handler by admission control. It bounds
+ * the amount of requests that are handled concurrently and the amount of
+ * requests that wait for admission.<br>
+ * <br>
+ * The guarded handler runs on threads owned by the controller, hence every
+ * controller isolates its resource from the load on other resources. The
+ * admission decision is made by the thread dispatching the request, see
+ * {@link #dispatch(HttpRequest, Consumer)}, without blocking it. Requests that
+ * can not be admitted immediately are queued. If the queue is full the request
+ * is rejected right away with {@link EHttpStatus#SERVICE_UNAVAILABLE} and a
+ * <code>Retry-After</code> header instead of being handled. Queued requests
+ * that wait longer than the maximal queue time are rejected the same way by a
+ * timer, without occupying a thread of the handler. This sheds load early so
+ * that admitted requests keep a bounded latency when the server is
+ * overloaded.<br>
+ * <br>
+ * Waiting requests are admitted in the order they arrived. The controller
+ * records the amount of accepted and rejected requests, see
+ * {@link #getAcceptedRequests()} and {@link #getRejections()}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class AdmissionController implements IHttpRequestDispatcher {
+  /**
+   * The amount of handled requests after which the statistics of the
+   * controller are logged.
+   */
+  private static final int LOG_INTERVAL = 1_000;
+  /**
+   * Logger used for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(AdmissionController.class);
+
+  /**
+   * The amount of requests that were admitted.
+   */
+  private final LongAdder mAccepted;
+  /**
+   * The executor the guarded handler runs on. At most one task per permit is
+   * submitted to it.
+   */
+  private final ExecutorService mExecutor;
+  /**
+   * The handler to which admitted requests are passed.
+   */
+  private final IHttpRequestHandler mHandler;
+  /**
+   * The maximal amount of requests that are handled concurrently.
+   */
+  private final int mMaxConcurrentRequests;
+  /**
+   * The maximal time in milliseconds a request waits for admission.
+   */
+  private final long mMaxQueueTime;
+  /**
+   * The name of the guarded resource, used for logging.
+   */
+  private final String mName;
+  /**
+   * Permits for requests that are handled concurrently.
+   */
+  private final Semaphore mPermits;
+  /**
+   * The requests that wait for admission, in the order they arrived.
+   */
+  private final Queue<QueuedRequest> mQueue;
+  /**
+   * The maximal amount of requests that wait for admission.
+   */
+  private final int mQueueCapacity;
+  /**
+   * The amount of requests that currently wait for admission.
+   */
+  private final AtomicInteger mQueueDepth;
+  /**
+   * The amount of requests that were rejected.
+   */
+  private final LongAdder mRejections;
+  /**
+   * The time in seconds after which rejected clients are advised to retry.
+   */
+  private final int mRetryAfter;
+  /**
+   * Timer used to reject requests that waited longer than the maximal queue
+   * time.
+   */
+  private final ScheduledThreadPoolExecutor mTimer;
+
+  /**
+   * Creates a new controller which guards the given handler.
+   *
+   * @param name                  The name of the guarded resource, used for
+   *                              logging and thread names
+   * @param handler               The handler to which admitted requests are
+   *                              passed
+   * @param maxConcurrentRequests The maximal amount of requests that are
+   *                              handled concurrently, <code>0</code> or less
+   *                              to use one per available processor
+   * @param queueCapacity         The maximal amount of requests that wait for
+   *                              admission, <code>0</code> or less to reject
+   *                              requests that can not be admitted immediately
+   * @param maxQueueTime          The maximal time in milliseconds a request
+   *                              waits for admission
+   * @param retryAfter            The time in seconds after which rejected
+   *                              clients are advised to retry
+   * @param useVirtualThreads     Whether the handler should run on virtual
+   *                              threads instead of a fixed amount of platform
+   *                              threads, for handlers that mostly wait for
+   *                              I/O
+   */
+  public AdmissionController(final String name, final IHttpRequestHandler handler, final int maxConcurrentRequests,
+      final int queueCapacity, final long maxQueueTime, final int retryAfter, final boolean useVirtualThreads) {
+    mName = name;
+    mHandler = handler;
+    if (maxConcurrentRequests <= 0) {
+      mMaxConcurrentRequests = Runtime.getRuntime().availableProcessors();
+    } else {
+      mMaxConcurrentRequests = maxConcurrentRequests;
+    }
+    mQueueCapacity = Math.max(0, queueCapacity);
+    mMaxQueueTime = Math.max(0L, maxQueueTime);
+    mRetryAfter = retryAfter;
+
+    final String threadName = "admission-" + name.replace(' ', '-');
+    if (useVirtualThreads) {
+      mExecutor = HttpExecutors.newRequestExecutor(true);
+    } else {
+      mExecutor = HttpExecutors.newComputationExecutor(threadName, mMaxConcurrentRequests);
+    }
+    mTimer = new ScheduledThreadPoolExecutor(1, runnable -> {
+      final Thread thread = new Thread(runnable, threadName + "-timer");
+      thread.setDaemon(true);
+      return thread;
+    });
+    // Requests are usually admitted long before their timeout
+    mTimer.setRemoveOnCancelPolicy(true);
+
+    mPermits = new Semaphore(mMaxConcurrentRequests);
+    mQueue = new ConcurrentLinkedQueue<>();
+    mQueueDepth = new AtomicInteger();
+    mAccepted = new LongAdder();
+    mRejections = new LongAdder();
+  }
+
+  /**
+   * Dispatches the given request. If it can be admitted, it is handled on a
+   * thread of the controller. Otherwise it is queued or, if the queue is full,
+   * rejected right away by the calling thread.
+   *
+   * @param request          The request to handle
+   * @param responseConsumer The consumer to pass the response of the guarded
+   *                         handler to or a response with status
+   *                         {@link EHttpStatus#SERVICE_UNAVAILABLE} if the
+   *                         request was rejected
+   */
+  @Override
+  public void dispatch(final HttpRequest request, final Consumer<HttpResponse> responseConsumer) {
+    final QueuedRequest queuedRequest = new QueuedRequest(request, responseConsumer);
+
+    // Do not overtake waiting requests
+    if (mQueue.isEmpty() && mPermits.tryAcquire()) {
+      queuedRequest.claim();
+      execute(queuedRequest);
+      return;
+    }
+
+    // Enter the queue if there is space left
+    if (mQueueDepth.incrementAndGet() > mQueueCapacity) {
+      mQueueDepth.decrementAndGet();
+      responseConsumer.accept(reject());
+      return;
+    }
+    queuedRequest.mTimeout =
+        mTimer.schedule(() -> expire(queuedRequest), mMaxQueueTime, TimeUnit.MILLISECONDS);
+    mQueue.add(queuedRequest);
+    // A permit might have been released while entering the queue
+    admitQueued();
+  }
+
+  /**
+   * Gets the amount of requests that were admitted.
+   *
+   * @return The amount of admitted requests
+   */
+  public long getAcceptedRequests() {
+    return mAccepted.sum();
+  }
+
+  /**
+   * Gets the amount of requests that are currently handled.
+   *
+   * @return The amount of active requests
+   */
+  public int getActiveRequests() {
+    return mMaxConcurrentRequests - mPermits.availablePermits();
+  }
+
+  /**
+   * Gets the amount of requests that currently wait for admission.
+   *
+   * @return The amount of queued requests
+   */
+  public int getQueueDepth() {
+    return mQueueDepth.get();
+  }
+
+  /**
+   * Gets the amount of requests that were rejected because the queue was full
+   * or they waited too long.
+   *
+   * @return The amount of rejected requests
+   */
+  public long getRejections() {
+    return mRejections.sum();
+  }
+
+  /**
+   * Handles the given request by dispatching it, see
+   * {@link #dispatch(HttpRequest, Consumer)}, and waiting for the response.
+   * Blocks the calling thread, servers that are able to continue without the
+   * response should use {@link #dispatch(HttpRequest, Consumer)} instead.
+   *
+   * @param request The request to handle
+   * @return The response of the guarded handler or a response with status
+   *         {@link EHttpStatus#SERVICE_UNAVAILABLE} if the request was rejected
+   */
+  @Override
+  public HttpResponse handleRequest(final HttpRequest request) {
+    final CompletableFuture<HttpResponse> response = new CompletableFuture<>();
+    dispatch(request, response::complete);
+    return response.join();
+  }
+
+  /**
+   * Admits queued requests as long as permits are available.
+   */
+  private void admitQueued() {
+    while (!mQueue.isEmpty() && mPermits.tryAcquire()) {
+      final QueuedRequest queuedRequest = mQueue.poll();
+      if (queuedRequest == null) {
+        // Another thread admitted the request
+        mPermits.release();
+        continue;
+      }
+      mQueueDepth.decrementAndGet();
+      if (!queuedRequest.claim()) {
+        // The request expired already
+        mPermits.release();
+        continue;
+      }
+      queuedRequest.mTimeout.cancel(false);
+      execute(queuedRequest);
+    }
+  }
+
+  /**
+   * Handles the given admitted request on a thread of the controller. The
+   * request must hold a permit, which is released once the response was
+   * computed.
+   *
+   * @param queuedRequest The request to handle
+   */
+  private void execute(final QueuedRequest queuedRequest) {
+    try {
+      mExecutor.execute(() -> {
+        final HttpResponse response = handleAdmitted(queuedRequest.mRequest);
+        // Release before answering, such that the next request of the same
+        // client finds the permit
+        mPermits.release();
+        admitQueued();
+        queuedRequest.mResponseConsumer.accept(response);
+      });
+    } catch (final RejectedExecutionException e) {
+      mPermits.release();
+      queuedRequest.mResponseConsumer.accept(reject());
+    }
+  }
+
+  /**
+   * Rejects the given request if it still waits for admission. Called by the
+   * timer once the maximal queue time passed.
+   *
+   * @param queuedRequest The request to reject
+   */
+  private void expire(final QueuedRequest queuedRequest) {
+    if (!queuedRequest.claim()) {
+      return;
+    }
+    if (mQueue.remove(queuedRequest)) {
+      mQueueDepth.decrementAndGet();
+    }
+    queuedRequest.mResponseConsumer.accept(reject());
+  }
+
+  /**
+   * Handles the given admitted request by passing it to the guarded handler.
+   *
+   * @param request The request to handle
+   * @return The response of the guarded handler or a response with status
+   *         {@link EHttpStatus#INTERNAL_SERVER_ERROR} if it failed
+   */
+  private HttpResponse handleAdmitted(final HttpRequest request) {
+    mAccepted.increment();
+    logStatistics();
+    try {
+      return mHandler.handleRequest(request);
+    } catch (final Throwable e) {
+      // Log every error, the client must get an answer
+      LOGGER.error("Unknown error while handling a {} request", mName, e);
+      return new HttpResponseBuilder().setStatus(EHttpStatus.INTERNAL_SERVER_ERROR).build();
+    }
+  }
+
+  /**
+   * Logs the statistics of the controller every {@link #LOG_INTERVAL} admitted
+   * requests.
+   */
+  private void logStatistics() {
+    if (!LOGGER.isDebugEnabled()) {
+      return;
+    }
+    final long accepted = getAcceptedRequests();
+    if (accepted % LOG_INTERVAL == 0) {
+      LOGGER.debug("Admission control {}: {} accepted, {} rejected, {} active, {} queued", mName, accepted,
+          getRejections(), getActiveRequests(), getQueueDepth());
+    }
+  }
+
+  /**
+   * Records a rejected request and creates the response for it.
+   *
+   * @return A response with status {@link EHttpStatus#SERVICE_UNAVAILABLE}
+   *         and a <code>Retry-After</code> header
+   */
+  private HttpResponse reject() {
+    mRejections.increment();
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Rejected {} request, {} active, {} queued", mName, getActiveRequests(), getQueueDepth());
+    }
+    return new HttpResponseBuilder().setStatus(EHttpStatus.SERVICE_UNAVAILABLE)
+        .putHeader("Retry-After", String.valueOf(mRetryAfter)).build();
+  }
+
+  /**
+   * A request that was dispatched to the controller, together with the
+   * consumer of its response.
+   *
+   * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+   */
+  private static final class QueuedRequest {
+    /**
+     * Whether the request was either admitted or rejected already. Guards
+     * against answering the request twice.
+     */
+    private final AtomicBoolean mIsClaimed;
+    /**
+     * The request to handle.
+     */
+    private final HttpRequest mRequest;
+    /**
+     * The consumer to pass the response to.
+     */
+    private final Consumer<HttpResponse> mResponseConsumer;
+    /**
+     * The timeout which rejects the request if it waits too long or
+     * <code>null</code> if it was not queued.
+     */
+    private ScheduledFuture<?> mTimeout;
+
+    /**
+     * Creates a new request that was not claimed yet.
+     *
+     * @param request          The request to handle
+     * @param responseConsumer The consumer to pass the response to
+     */
+    QueuedRequest(final HttpRequest request, final Consumer<HttpResponse> responseConsumer) {
+      mRequest = request;
+      mResponseConsumer = responseConsumer;
+      mIsClaimed = new AtomicBoolean();
+    }
+
+    /**
+     * Claims the request for admission or rejection.
+     *
+     * @return <code>True</code> if the request was claimed by the calling
+     *         thread, <code>false</code> if it was claimed already
+     */
+    boolean claim() {
+      return mIsClaimed.compareAndSet(false, true);
+    }
+  }
+}
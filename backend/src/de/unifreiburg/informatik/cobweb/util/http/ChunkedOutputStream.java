@@ -0,0 +1,146 @@
+package de.unifreiburg.informatik.cobweb.util.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Output stream which encodes the written data using the chunked transfer
+ * encoding of HTTP/1.1.<br>
+ * <br>
+ * Written data is collected in a buffer and sent as a chunk once the buffer is
+ * full or the stream is flushed. Call {@link #finish()} to send the terminating
+ * chunk, the underlying stream stays open such that further responses can be
+ * sent over it.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class ChunkedOutputStream extends OutputStream {
+  /**
+   * The bytes of the symbol used for new lines in the HTTP standard.
+   */
+  private static final byte[] HTTP_NEW_LINE = "\r\n".getBytes(StandardCharsets.ISO_8859_1);
+  /**
+   * The bytes of the chunk which terminates the content.
+   */
+  private static final byte[] LAST_CHUNK = "0\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1);
+
+  /**
+   * The buffer collecting the data of the current chunk.
+   */
+  private final byte[] mBuffer;
+  /**
+   * Whether the terminating chunk was already sent.
+   */
+  private boolean mIsFinished;
+  /**
+   * The stream to send the chunks to.
+   */
+  private final OutputStream mOutput;
+  /**
+   * The amount of bytes in the buffer.
+   */
+  private int mSize;
+
+  /**
+   * Creates a new chunked output stream which sends chunks to the given stream.
+   *
+   * @param output    The stream to send the chunks to
+   * @param chunkSize The maximal size of a chunk in bytes, must be positive
+   */
+  public ChunkedOutputStream(final OutputStream output, final int chunkSize) {
+    mOutput = output;
+    mBuffer = new byte[chunkSize];
+  }
+
+  /**
+   * Finishes the content by sending the remaining data and the terminating
+   * chunk. The underlying stream is flushed but not closed.
+   *
+   * @throws IOException If an I/O exception occurred while writing
+   */
+  @Override
+  public void close() throws IOException {
+    finish();
+  }
+
+  /**
+   * Finishes the content by sending the remaining data and the terminating
+   * chunk. The underlying stream is flushed but not closed. Further calls
+   * have no effect.
+   *
+   * @throws IOException If an I/O exception occurred while writing
+   */
+  public void finish() throws IOException {
+    if (mIsFinished) {
+      return;
+    }
+    mIsFinished = true;
+    writeChunk();
+    mOutput.write(LAST_CHUNK);
+    mOutput.flush();
+  }
+
+  /**
+   * Sends the buffered data as chunk and flushes the underlying stream.
+   *
+   * @throws IOException If an I/O exception occurred while writing
+   */
+  @Override
+  public void flush() throws IOException {
+    writeChunk();
+    mOutput.flush();
+  }
+
+  @Override
+  public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+    ensureNotFinished();
+    int written = 0;
+    while (written < length) {
+      if (mSize == mBuffer.length) {
+        writeChunk();
+      }
+      final int amount = Math.min(length - written, mBuffer.length - mSize);
+      System.arraycopy(bytes, offset + written, mBuffer, mSize, amount);
+      mSize += amount;
+      written += amount;
+    }
+  }
+
+  @Override
+  public void write(final int value) throws IOException {
+    ensureNotFinished();
+    if (mSize == mBuffer.length) {
+      writeChunk();
+    }
+    mBuffer[mSize] = (byte) value;
+    mSize++;
+  }
+
+  /**
+   * Ensures that the terminating chunk was not sent yet.
+   *
+   * @throws IOException If the content was already finished
+   */
+  private void ensureNotFinished() throws IOException {
+    if (mIsFinished) {
+      throw new IOException("The chunked content was already finished");
+    }
+  }
+
+  /**
+   * Sends the buffered data as chunk, if any.
+   *
+   * @throws IOException If an I/O exception occurred while writing
+   */
+  private void writeChunk() throws IOException {
+    if (mSize == 0) {
+      return;
+    }
+    mOutput.write(Integer.toHexString(mSize).getBytes(StandardCharsets.ISO_8859_1));
+    mOutput.write(HTTP_NEW_LINE);
+    mOutput.write(mBuffer, 0, mSize);
+    mOutput.write(HTTP_NEW_LINE);
+    mSize = 0;
+  }
+}
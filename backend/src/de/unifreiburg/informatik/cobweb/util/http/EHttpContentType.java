@@ -9,31 +9,35 @@ public enum EHttpContentType {
   /**
    * Type used for CSS stylesheet files.
    */
-  CSS("text/css"),
+  CSS("text/css", false),
   /**
    * Type used for HTML files.
    */
-  HTML("text/html"),
+  HTML("text/html", false),
   /**
    * Type for JPG image files.
    */
-  JPG("image/jpeg"),
+  JPG("image/jpeg", true),
   /**
    * Type used for javascript files.
    */
-  JS("application/javascript"),
+  JS("application/javascript", false),
   /**
    * Type used for json objects.
    */
-  JSON("application/json"),
+  JSON("application/json", false),
   /**
    * Type used for PNG image files.
    */
-  PNG("image/png"),
+  PNG("image/png", true),
+  /**
+   * Type used for messages in the protocol buffers wire format.
+   */
+  PROTOBUF("application/x-protobuf", true),
   /**
    * Type for regular text files.
    */
-  TEXT("text/plain");
+  TEXT("text/plain", false);
 
   /**
    * Gets the content type corresponding to the given text value.
@@ -51,6 +55,10 @@ public enum EHttpContentType {
     return null;
   }
 
+  /**
+   * Whether the content is binary, i.e. not text in a charset.
+   */
+  private final boolean mIsBinary;
   /**
    * The text value of the content type.
    */
@@ -60,9 +68,12 @@ public enum EHttpContentType {
    * Creates a new HTTP content type with the given text value.
    *
    * @param textValue The text value corresponding to the given content type
+   * @param isBinary  Whether the content is binary, i.e. not text in a
+   *                  charset
    */
-  private EHttpContentType(final String textValue) {
+  private EHttpContentType(final String textValue, final boolean isBinary) {
     mTextValue = textValue;
+    mIsBinary = isBinary;
   }
 
   /**
@@ -73,4 +84,14 @@ public enum EHttpContentType {
   public String getTextValue() {
     return mTextValue;
   }
+
+  /**
+   * Whether the content is binary, i.e. not text in a charset.
+   *
+   * @return <code>True</code> if the content is binary, <code>false</code>
+   *         otherwise
+   */
+  public boolean isBinary() {
+    return mIsBinary;
+  }
 }
@@ -0,0 +1,75 @@
+package de.unifreiburg.informatik.cobweb.util.http;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Utility class which creates the executors used by the HTTP servers.<br>
+ * <br>
+ * Requests can either be handled on platform threads or, if enabled, on
+ * virtual threads. Virtual threads are cheap to
+ * block, which allows to hold many slow clients, for example while waiting for
+ * socket or database I/O. CPU heavy computations should not run on them since
+ * they occupy the few carrier threads, use
+ * {@link #newComputationExecutor(String, int)} for such work.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class HttpExecutors {
+  /**
+   * Gets an executor which runs tasks directly on the calling thread.
+   *
+   * @return An executor which runs tasks on the calling thread
+   */
+  public static Executor directExecutor() {
+    return Runnable::run;
+  }
+
+  /**
+   * Creates an executor with a fixed amount of platform threads, used for CPU
+   * heavy computations. The threads are daemon threads and do not prevent the
+   * application from exiting.
+   *
+   * @param name            The name of the executor, used as prefix for the
+   *                        thread names
+   * @param amountOfThreads The amount of threads, <code>0</code> or less to
+   *                        use one thread per available processor
+   * @return The created executor
+   */
+  public static ExecutorService newComputationExecutor(final String name, final int amountOfThreads) {
+    int amount = amountOfThreads;
+    if (amount <= 0) {
+      amount = Runtime.getRuntime().availableProcessors();
+    }
+    final AtomicInteger threadId = new AtomicInteger(-1);
+    return Executors.newFixedThreadPool(amount, runnable -> {
+      final Thread thread = new Thread(runnable, name + "-" + threadId.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Creates an executor used to handle requests of clients. It starts a new
+   * virtual thread for each task if requested. Otherwise it uses a cached pool
+   * of platform threads.
+   *
+   * @param useVirtualThreads Whether virtual threads should be used
+   * @return The created executor
+   */
+  public static ExecutorService newRequestExecutor(final boolean useVirtualThreads) {
+    if (useVirtualThreads) {
+      return Executors.newVirtualThreadPerTaskExecutor();
+    }
+    return Executors.newCachedThreadPool();
+  }
+
+  /**
+   * Utility class. No implementation.
+   */
+  private HttpExecutors() {
+
+  }
+}
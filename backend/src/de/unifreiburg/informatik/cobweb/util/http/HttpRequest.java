@@ -1,17 +1,21 @@
 package de.unifreiburg.informatik.cobweb.util.http;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 /**
- * POJO that models a HTTP request.
+ * POJO that models a HTTP request.<br>
+ * <br>
+ * The content is kept as raw bytes, such that binary content is not altered.
+ * Use {@link #getContent()} to interpret it as string.
  *
  * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
  */
 public final class HttpRequest {
   /**
-   * The content of the request, interpreted as string.
+   * The raw content of the request.
    */
-  private final String mContent;
+  private final byte[] mContent;
   /**
    * A map connecting HTTP headers to their values.
    */
@@ -40,6 +44,20 @@ public final class HttpRequest {
    */
   public HttpRequest(final String type, final String resource, final String protocol, final Map<String, String> headers,
       final String content) {
+    this(type, resource, protocol, headers, content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Creates a new HTTP request with the given values.
+   *
+   * @param type     The type of the request, like <code>POST</code>
+   * @param resource The resource the request requests
+   * @param protocol The protocol used by the request
+   * @param headers  A map connecting HTTP headers to their values
+   * @param content  The raw content of the request
+   */
+  public HttpRequest(final String type, final String resource, final String protocol, final Map<String, String> headers,
+      final byte[] content) {
     mType = type;
     mResource = resource;
     mProtocol = protocol;
@@ -48,12 +66,13 @@ public final class HttpRequest {
   }
 
   /**
-   * Gets the content of the request, interpreted as string.
+   * Gets the content of the request, interpreted as string in
+   * <code>UTF-8</code>.
    *
    * @return The content of the request
    */
   public String getContent() {
-    return mContent;
+    return new String(mContent, StandardCharsets.UTF_8);
   }
 
   /**
@@ -74,6 +93,15 @@ public final class HttpRequest {
     return mProtocol;
   }
 
+  /**
+   * Gets the raw content of the request.
+   *
+   * @return The raw content of the request, must not be modified
+   */
+  public byte[] getRawContent() {
+    return mContent;
+  }
+
   /**
    * Gets the resource the request requests.
    *
@@ -108,7 +136,7 @@ public final class HttpRequest {
     builder.append(", headers=");
     builder.append(mHeaders);
     builder.append(", content=");
-    builder.append(mContent);
+    builder.append(getContent());
     builder.append("]");
     return builder.toString();
   }
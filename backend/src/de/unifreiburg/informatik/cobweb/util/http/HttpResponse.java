@@ -6,7 +6,10 @@ import java.util.Map;
  * POJO that models a HTTP response.<br>
  * <br>
  * The class {@link HttpResponseBuilder} can be used to easily build instances
- * of this class, especially if values should receive default values.
+ * of this class, especially if values should receive default values.<br>
+ * <br>
+ * The content is either given as string or, for large responses, by a writer
+ * which streams it directly to the client, see {@link #isStreamed()}.
  *
  * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
  */
@@ -19,6 +22,11 @@ public final class HttpResponse {
    * The type of the content.
    */
   private final EHttpContentType mContentType;
+  /**
+   * The writer which streams the content to the client, or <code>null</code>
+   * if the content is given as string.
+   */
+  private final IHttpContentWriter mContentWriter;
   /**
    * A map connecting HTTP headers to their values.
    */
@@ -38,7 +46,25 @@ public final class HttpResponse {
    */
   public HttpResponse(final String content, final EHttpContentType contentType, final EHttpStatus status,
       final Map<String, String> headers) {
+    this(content, null, contentType, status, headers);
+  }
+
+  /**
+   * Creates a new HTTP response with the given values.
+   *
+   * @param content       The content of the response, interpreted as string.
+   *                      Ignored if a content writer is given.
+   * @param contentWriter The writer which streams the content to the client,
+   *                      or <code>null</code> if the content is given as
+   *                      string
+   * @param contentType   The type of the content
+   * @param status        The HTTP status of the response
+   * @param headers       A map connecting HTTP headers to their values
+   */
+  public HttpResponse(final String content, final IHttpContentWriter contentWriter,
+      final EHttpContentType contentType, final EHttpStatus status, final Map<String, String> headers) {
     mContent = content;
+    mContentWriter = contentWriter;
     mContentType = contentType;
     mStatus = status;
     mHeaders = headers;
@@ -62,6 +88,16 @@ public final class HttpResponse {
     return mContentType;
   }
 
+  /**
+   * Gets the writer which streams the content to the client.
+   *
+   * @return The writer which streams the content or <code>null</code> if the
+   *         content is given as string
+   */
+  public IHttpContentWriter getContentWriter() {
+    return mContentWriter;
+  }
+
   /**
    * Gets the HTTP headers of the response
    *
@@ -80,6 +116,17 @@ public final class HttpResponse {
     return mStatus;
   }
 
+  /**
+   * Whether the content is streamed to the client by a writer instead of being
+   * given as string.
+   *
+   * @return <code>True</code> if the content is streamed, <code>false</code>
+   *         otherwise
+   */
+  public boolean isStreamed() {
+    return mContentWriter != null;
+  }
+
   /*
    * (non-Javadoc)
    * @see java.lang.Object#toString()
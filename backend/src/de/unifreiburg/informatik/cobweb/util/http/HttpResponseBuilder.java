@@ -24,6 +24,11 @@ public final class HttpResponseBuilder {
    * The content type of the response to build.
    */
   private EHttpContentType mContentType;
+  /**
+   * The writer which streams the content of the response to build, or
+   * <code>null</code> if the content is given as string.
+   */
+  private IHttpContentWriter mContentWriter;
   /**
    * A map connecting HTTP headers to their values.
    */
@@ -56,7 +61,7 @@ public final class HttpResponseBuilder {
    * @return An instance of a response with the current set values
    */
   public HttpResponse build() {
-    return new HttpResponse(mContent, mContentType, mStatus, mHeaders);
+    return new HttpResponse(mContent, mContentWriter, mContentType, mStatus, mHeaders);
   }
 
   /**
@@ -93,6 +98,20 @@ public final class HttpResponseBuilder {
     return this;
   }
 
+  /**
+   * Sets the writer which streams the content of the response to build
+   * directly to the client. Takes precedence over
+   * {@link #setContent(String)}.
+   *
+   * @param contentWriter The writer to set, <code>null</code> to use the string
+   *                      content instead
+   * @return The builder instance
+   */
+  public HttpResponseBuilder setContentWriter(final IHttpContentWriter contentWriter) {
+    mContentWriter = contentWriter;
+    return this;
+  }
+
   /**
    * Sets the HTTP status of the response to build.
    *
@@ -0,0 +1,679 @@
+package de.unifreiburg.informatik.cobweb.util.http;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A non-blocking HTTP server which serves multiple APIs on a single port.<br>
+ * <br>
+ * After construction register the APIs by using
+ * {@link #addHandler(String, IHttpRequestHandler)} and then call the
+ * {@link #initialize()} method. Afterwards it can be started by using
+ * {@link #start()}. Request the server to shutdown by using
+ * {@link #shutdown()}, the current status can be checked with
+ * {@link #isRunning()}. Once a server was shutdown it should not be used
+ * anymore, instead create a new one.<br>
+ * <br>
+ * A single thread accepts clients and reads and writes their data using a
+ * {@link Selector}. Requests are parsed from the read buffers as soon as they
+ * are complete, see {@link HttpUtil#parseRequest(ByteBuffer)}. They are then
+ * dispatched, based on their resource, to the registered handler. Handlers
+ * that are {@link IHttpRequestDispatcher}s, like the
+ * {@link AdmissionController}, decide on the selector thread whether a request
+ * is admitted and compute responses on threads of their own. Hence every
+ * endpoint group guarded by its own controller runs on its own bounded pool and
+ * slow endpoints can not starve the others. Other handlers run on a fixed
+ * amount of worker threads, so the amount of threads does not grow with the
+ * amount of clients. Requests waiting for a worker are queued up to a bounded
+ * amount, further requests are answered with <code>SERVICE UNAVAILABLE</code>.
+ * Unknown resources are answered with <code>NOT FOUND</code>, malformed
+ * requests with <code>BAD REQUEST</code>.<br>
+ * <br>
+ * Connections are kept open for further requests if the client wants to, see
+ * {@link HttpUtil#isKeepAliveRequested(HttpRequest)}. A connection is not read
+ * while one of its requests is processed, so pipelined requests are answered
+ * in order. Connections are closed once they were idle for longer than the
+ * keep-alive timeout or the maximal amount of requests per connection was
+ * reached.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class HttpServer implements Runnable {
+  /**
+   * The interval in milliseconds in which idle connections are searched and
+   * closed.
+   */
+  private static final int IDLE_CHECK_INTERVAL = 1_000;
+  /**
+   * The initial size of the buffer used to read the request of a client, in
+   * bytes.
+   */
+  private static final int INITIAL_READ_BUFFER_SIZE = 4 * 1_024;
+  /**
+   * Logger used for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(HttpServer.class);
+  /**
+   * The maximal size of a request, in bytes. Larger requests are rejected.
+   */
+  private static final int MAX_REQUEST_SIZE = 1_024 * 1_024;
+  /**
+   * The amount of requests per worker thread that may wait for a worker.
+   * Further requests are rejected.
+   */
+  private static final int QUEUED_REQUESTS_PER_WORKER = 16;
+
+  /**
+   * Creates the response used if a request could not be answered because of
+   * an unexpected error.
+   *
+   * @return The response to send
+   */
+  private static HttpResponse createErrorResponse() {
+    return new HttpResponseBuilder().setStatus(EHttpStatus.INTERNAL_SERVER_ERROR).build();
+  }
+
+  /**
+   * Gets the resource of the given request without query parameters.
+   *
+   * @param request The request to get the resource of
+   * @return The requested resource, without query parameters
+   */
+  private static String getPath(final HttpRequest request) {
+    final String resource = request.getResource();
+    final int queryBegin = resource.indexOf('?');
+    if (queryBegin == -1) {
+      return resource;
+    }
+    return resource.substring(0, queryBegin);
+  }
+
+  /**
+   * The amount of worker threads used to compute responses.
+   */
+  private final int mAmountOfWorkers;
+  /**
+   * The time in milliseconds a connection may be idle before it is closed.
+   */
+  private final int mKeepAliveTimeout;
+  /**
+   * The last time idle connections were searched, in milliseconds.
+   */
+  private long mLastIdleCheck;
+  /**
+   * The maximal amount of requests answered over a single connection.
+   */
+  private final int mMaxRequestsPerConnection;
+  /**
+   * Connections whose response was computed and is ready to be written. Used
+   * to pass responses from the worker threads to the selector thread.
+   */
+  private final Queue<Connection> mPendingWrites;
+  /**
+   * The port to listen on.
+   */
+  private final int mPort;
+  /**
+   * The ID of the last accepted client, only accessed by the selector thread.
+   */
+  private int mRequestId;
+  /**
+   * The time in seconds after which clients are advised to retry if their
+   * request was rejected because all workers are busy.
+   */
+  private final int mRetryAfter;
+  /**
+   * Map connecting resources, like <code>/route</code>, to the handler used to
+   * answer requests to them.
+   */
+  private final Map<String, IHttpRequestHandler> mResourceToHandler;
+  /**
+   * The selector used to wait for events of the server channel and all
+   * clients.
+   */
+  private Selector mSelector;
+  /**
+   * The channel used to accept clients.
+   */
+  private ServerSocketChannel mServerChannel;
+  /**
+   * The thread to run the selector on.
+   */
+  private Thread mServerThread;
+  /**
+   * Whether or not the server thread should run.
+   */
+  private volatile boolean mShouldRun;
+  /**
+   * The thread pool used to compute responses of handlers that are no
+   * {@link IHttpRequestDispatcher}. Its queue is bounded.
+   */
+  private ExecutorService mWorkers;
+
+  /**
+   * Creates a new HTTP server which listens on the given port.<br>
+   * <br>
+   * Register APIs by using {@link #addHandler(String, IHttpRequestHandler)}
+   * and call {@link #initialize()} afterwards.
+   *
+   * @param port                     The port to listen on, <code>0</code> for
+   *                                 any free port
+   * @param amountOfWorkers          The amount of worker threads used to
+   *                                 compute responses
+   * @param keepAliveTimeout         The time in milliseconds a connection may
+   *                                 be idle before it is closed, must be
+   *                                 positive
+   * @param maxRequestsPerConnection The maximal amount of requests answered
+   *                                 over a single connection, <code>1</code>
+   *                                 or less to close connections after the
+   *                                 first response
+   * @param retryAfter               The time in seconds after which clients
+   *                                 are advised to retry if their request was
+   *                                 rejected because all workers are busy
+   */
+  public HttpServer(final int port, final int amountOfWorkers, final int keepAliveTimeout,
+      final int maxRequestsPerConnection, final int retryAfter) {
+    mPort = port;
+    mAmountOfWorkers = amountOfWorkers;
+    mRetryAfter = retryAfter;
+    mKeepAliveTimeout = keepAliveTimeout;
+    mMaxRequestsPerConnection = maxRequestsPerConnection;
+    mResourceToHandler = new HashMap<>();
+    mPendingWrites = new ConcurrentLinkedQueue<>();
+    mRequestId = -1;
+  }
+
+  /**
+   * Registers the given handler to answer all requests to the given resource.
+   * Must be called before the server is started.
+   *
+   * @param resource The resource to answer requests of, like
+   *                 <code>/route</code>
+   * @param handler  The handler used to answer the requests, must be safe to
+   *                 use by multiple threads
+   */
+  public void addHandler(final String resource, final IHttpRequestHandler handler) {
+    mResourceToHandler.put(resource, handler);
+  }
+
+  /**
+   * Gets the port the server listens on. Can be used to determine the port if
+   * any free port was requested.
+   *
+   * @return The port the server listens on
+   * @throws UncheckedIOException If an I/O exception occurred while retrieving
+   *                              the port
+   */
+  public int getPort() throws UncheckedIOException {
+    try {
+      return ((InetSocketAddress) mServerChannel.getLocalAddress()).getPort();
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Initializes the server. Call this method prior to starting the server with
+   * {@link #start()}. Do not call it again afterwards.
+   *
+   * @throws UncheckedIOException If an I/O exception occurred while creating
+   *                              the server channel.
+   */
+  public void initialize() throws UncheckedIOException {
+    mServerThread = new Thread(this, "http-server");
+    try {
+      mSelector = Selector.open();
+      mServerChannel = ServerSocketChannel.open();
+      mServerChannel.bind(new InetSocketAddress(mPort));
+      mServerChannel.configureBlocking(false);
+      mServerChannel.register(mSelector, SelectionKey.OP_ACCEPT);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Whether or not the server is currently running.<br>
+   * <br>
+   * A request to shutdown can be send using {@link #shutdown()}.
+   *
+   * @return <code>True</code> if the server is running, <code>false</code>
+   *         otherwise
+   */
+  public boolean isRunning() {
+    return mServerThread.isAlive();
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see java.lang.Runnable#run()
+   */
+  @Override
+  public void run() {
+    mWorkers = new ThreadPoolExecutor(mAmountOfWorkers, mAmountOfWorkers, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(mAmountOfWorkers * QUEUED_REQUESTS_PER_WORKER));
+
+    LOGGER.info("HTTP server ready and waiting for clients on port {}", getPort());
+    while (mShouldRun) {
+      try {
+        mSelector.select(IDLE_CHECK_INTERVAL);
+        registerPendingWrites();
+        closeIdleConnections();
+
+        final Iterator<SelectionKey> keyIter = mSelector.selectedKeys().iterator();
+        while (keyIter.hasNext()) {
+          final SelectionKey key = keyIter.next();
+          keyIter.remove();
+          handleKey(key);
+        }
+      } catch (final Exception e) {
+        // Log every exception and try to stay alive
+        LOGGER.error("Unknown exception in HTTP server routine", e);
+      }
+    }
+
+    LOGGER.info("HTTP server is shutting down");
+    mWorkers.shutdown();
+    try {
+      for (final SelectionKey key : mSelector.keys()) {
+        key.channel().close();
+      }
+      mSelector.close();
+    } catch (final IOException e) {
+      LOGGER.error("Exception while closing the HTTP server channels", e);
+    }
+  }
+
+  /**
+   * Requests the server to shutdown.<br>
+   * <br>
+   * The current status can be checked with {@link #isRunning()}. Once a server
+   * was shutdown it should not be used anymore, instead create a new one.
+   */
+  public void shutdown() {
+    mShouldRun = false;
+    mSelector.wakeup();
+    LOGGER.info("Set shutdown request to HTTP server");
+  }
+
+  /**
+   * Starts the server.<br>
+   * <br>
+   * Make sure {@link #initialize()} is called before. Request the server to
+   * shutdown by using {@link #shutdown()}, the current status can be checked
+   * with {@link #isRunning()}. Once a server was shutdown it should not be used
+   * anymore, instead create a new one.
+   */
+  public void start() {
+    if (isRunning()) {
+      return;
+    }
+    LOGGER.info("Starting HTTP server");
+    mShouldRun = true;
+    mServerThread.start();
+  }
+
+  /**
+   * Accepts a new client and registers it for reading.
+   *
+   * @throws IOException If an I/O exception occurred while accepting the
+   *                     client
+   */
+  private void accept() throws IOException {
+    final SocketChannel channel = mServerChannel.accept();
+    if (channel == null) {
+      return;
+    }
+    channel.configureBlocking(false);
+    channel.socket().setTcpNoDelay(true);
+
+    mRequestId++;
+    final Connection connection = new Connection(mRequestId, channel);
+    connection.mKey = channel.register(mSelector, SelectionKey.OP_READ, connection);
+  }
+
+  /**
+   * Closes the given connection.
+   *
+   * @param connection The connection to close
+   */
+  private void close(final Connection connection) {
+    connection.mKey.cancel();
+    try {
+      connection.mChannel.close();
+    } catch (final IOException e) {
+      LOGGER.error("Exception while closing the client channel", e);
+    }
+  }
+
+  /**
+   * Closes all connections which wait for a request for longer than the
+   * keep-alive timeout. Connections whose request is currently processed are
+   * not considered idle.
+   */
+  private void closeIdleConnections() {
+    final long now = System.currentTimeMillis();
+    if (now - mLastIdleCheck < IDLE_CHECK_INTERVAL) {
+      return;
+    }
+    mLastIdleCheck = now;
+
+    for (final SelectionKey key : mSelector.keys()) {
+      if (!key.isValid() || !(key.attachment() instanceof Connection)) {
+        continue;
+      }
+      final Connection connection = (Connection) key.attachment();
+      if (key.interestOps() == SelectionKey.OP_READ && now - connection.mLastActivity > mKeepAliveTimeout) {
+        LOGGER.debug("Closing idle client {}", connection.mId);
+        close(connection);
+      }
+    }
+  }
+
+  /**
+   * Computes the response to the given request by using the handler
+   * registered for its resource.
+   *
+   * @param connection The connection the request was sent over
+   * @param request    The request to answer
+   * @return The response to send
+   */
+  private HttpResponse computeResponse(final Connection connection, final HttpRequest request) {
+    final IHttpRequestHandler handler = mResourceToHandler.get(HttpServer.getPath(request));
+    if (handler == null) {
+      return new HttpResponseBuilder().setStatus(EHttpStatus.NOT_FOUND).build();
+    }
+    try {
+      return handler.handleRequest(request);
+    } catch (final Throwable e) {
+      // Log every error
+      LOGGER.error("Unknown error while handling the client: {}", connection.mId, e);
+      return HttpServer.createErrorResponse();
+    }
+  }
+
+  /**
+   * Dispatches the given request to the handler registered for its resource.
+   * Handlers that are {@link IHttpRequestDispatcher}s receive the request
+   * directly on the selector thread, such that they can admit or reject it
+   * without occupying a worker. Other handlers compute the response on a
+   * worker thread. The connection is not read anymore until the response was
+   * sent.
+   *
+   * @param connection The connection the request was sent over
+   * @param request    The request to answer
+   */
+  private void dispatch(final Connection connection, final HttpRequest request) {
+    connection.mKey.interestOps(0);
+    connection.mAmountOfRequests++;
+    connection.mKeepAlive =
+        connection.mAmountOfRequests < mMaxRequestsPerConnection && HttpUtil.isKeepAliveRequested(request);
+
+    final IHttpRequestHandler handler = mResourceToHandler.get(HttpServer.getPath(request));
+    if (handler instanceof IHttpRequestDispatcher) {
+      try {
+        ((IHttpRequestDispatcher) handler).dispatch(request, response -> respond(connection, response));
+      } catch (final Throwable e) {
+        // Log every error, the dispatcher did not take the request
+        LOGGER.error("Unknown error while dispatching the request of client: {}", connection.mId, e);
+        respond(connection, HttpServer.createErrorResponse());
+      }
+      return;
+    }
+
+    try {
+      mWorkers.execute(() -> {
+        HttpResponse response;
+        try {
+          response = computeResponse(connection, request);
+        } catch (final Throwable e) {
+          // Make sure the client gets an answer
+          LOGGER.error("Unknown error while handling the client: {}", connection.mId, e);
+          response = HttpServer.createErrorResponse();
+        }
+        respond(connection, response);
+      });
+    } catch (final RejectedExecutionException e) {
+      if (mWorkers.isShutdown()) {
+        // The server is shutting down
+        close(connection);
+        return;
+      }
+      // All workers are busy and the queue is full, shed the request
+      respond(connection, new HttpResponseBuilder().setStatus(EHttpStatus.SERVICE_UNAVAILABLE)
+          .putHeader("Retry-After", String.valueOf(mRetryAfter)).build());
+    }
+  }
+
+  /**
+   * Handles the event of the given key.
+   *
+   * @param key The key to handle
+   * @throws IOException If an I/O exception occurred while accepting a client
+   */
+  private void handleKey(final SelectionKey key) throws IOException {
+    if (!key.isValid()) {
+      return;
+    }
+    if (key.isAcceptable()) {
+      accept();
+      return;
+    }
+
+    final Connection connection = (Connection) key.attachment();
+    try {
+      if (key.isReadable()) {
+        read(connection);
+      } else if (key.isWritable()) {
+        write(connection);
+      }
+    } catch (final IOException e) {
+      // The client is not reachable anymore
+      LOGGER.debug("Closing client {} after I/O exception", connection.mId, e);
+      close(connection);
+    }
+  }
+
+  /**
+   * Parses the next request from the data already read from the given
+   * connection and dispatches it, if it is complete.
+   *
+   * @param connection The connection to parse the request of
+   */
+  private void processReadBuffer(final Connection connection) {
+    connection.mReadBuffer.flip();
+    final HttpRequest request;
+    try {
+      request = HttpUtil.parseRequest(connection.mReadBuffer);
+    } catch (final IOException e) {
+      LOGGER.debug("Malformed request of client {}", connection.mId, e);
+      reject(connection, EHttpStatus.BAD_REQUEST);
+      return;
+    } finally {
+      connection.mReadBuffer.compact();
+    }
+
+    if (request == null) {
+      return;
+    }
+    if (HttpUtil.hasTransferCoding(request)) {
+      LOGGER.debug("Unsupported transfer coding of client {}", connection.mId);
+      reject(connection, EHttpStatus.NOT_IMPLEMENTED);
+      return;
+    }
+    dispatch(connection, request);
+  }
+
+  /**
+   * Reads available data of the given connection and dispatches the request
+   * once it is complete.
+   *
+   * @param connection The connection to read from
+   * @throws IOException If an I/O exception occurred while reading
+   */
+  private void read(final Connection connection) throws IOException {
+    if (!connection.mReadBuffer.hasRemaining()) {
+      if (connection.mReadBuffer.capacity() >= MAX_REQUEST_SIZE) {
+        reject(connection, EHttpStatus.BAD_REQUEST);
+        return;
+      }
+      final ByteBuffer largerBuffer = ByteBuffer.allocate(connection.mReadBuffer.capacity() * 2);
+      connection.mReadBuffer.flip();
+      largerBuffer.put(connection.mReadBuffer);
+      connection.mReadBuffer = largerBuffer;
+    }
+
+    final int amountRead = connection.mChannel.read(connection.mReadBuffer);
+    if (amountRead == -1) {
+      close(connection);
+      return;
+    }
+    connection.mLastActivity = System.currentTimeMillis();
+    processReadBuffer(connection);
+  }
+
+  /**
+   * Registers all connections whose response is ready for writing. Must be
+   * called by the selector thread.
+   */
+  private void registerPendingWrites() {
+    while (true) {
+      final Connection connection = mPendingWrites.poll();
+      if (connection == null) {
+        return;
+      }
+      if (connection.mKey.isValid()) {
+        connection.mKey.interestOps(SelectionKey.OP_WRITE);
+      }
+    }
+  }
+
+  /**
+   * Answers the given connection with the given status and closes it
+   * afterwards, since the remaining data can not be interpreted anymore.
+   *
+   * @param connection The connection to reject
+   * @param status     The status to answer with, like <code>BAD REQUEST</code>
+   */
+  private void reject(final Connection connection, final EHttpStatus status) {
+    connection.mKey.interestOps(0);
+    connection.mKeepAlive = false;
+    respond(connection, new HttpResponseBuilder().setStatus(status).build());
+  }
+
+  /**
+   * Queues the given response to be sent over the given connection. May be
+   * called by any thread.
+   *
+   * @param connection The connection to send the response over
+   * @param response   The response to send
+   */
+  private void respond(final Connection connection, final HttpResponse response) {
+    connection.mWriteBuffers = HttpUtil.encodeResponse(response, connection.mKeepAlive);
+    mPendingWrites.add(connection);
+    mSelector.wakeup();
+  }
+
+  /**
+   * Writes the pending response of the given connection. Once the response was
+   * sent completely, the connection is either closed or reads the next
+   * request. A pipelined request that was already read is processed directly.
+   *
+   * @param connection The connection to write to
+   * @throws IOException If an I/O exception occurred while writing
+   */
+  private void write(final Connection connection) throws IOException {
+    final ByteBuffer[] buffers = connection.mWriteBuffers;
+    connection.mChannel.write(buffers);
+    // Buffers are written in order, the response is sent once the last is
+    if (buffers[buffers.length - 1].hasRemaining()) {
+      return;
+    }
+    if (!connection.mKeepAlive) {
+      close(connection);
+      return;
+    }
+
+    connection.mWriteBuffers = null;
+    connection.mLastActivity = System.currentTimeMillis();
+    connection.mKey.interestOps(SelectionKey.OP_READ);
+    processReadBuffer(connection);
+  }
+
+  /**
+   * State of a client connected to the server.
+   *
+   * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+   */
+  private static final class Connection {
+    /**
+     * The amount of requests received over the connection, only accessed by
+     * the selector thread.
+     */
+    private int mAmountOfRequests;
+    /**
+     * The channel of the client.
+     */
+    private final SocketChannel mChannel;
+    /**
+     * The unique ID of the client.
+     */
+    private final int mId;
+    /**
+     * Whether the connection is kept open after the current response. Written
+     * by the selector thread before the request is dispatched.
+     */
+    private volatile boolean mKeepAlive;
+    /**
+     * The key of the channel registered at the selector.
+     */
+    private SelectionKey mKey;
+    /**
+     * The last time data was read from or a response was completely written to
+     * the client, in milliseconds. Only accessed by the selector thread.
+     */
+    private long mLastActivity;
+    /**
+     * The buffer data of the client is read into. Always in write mode.
+     */
+    private ByteBuffer mReadBuffer;
+    /**
+     * The buffers containing the response to write in order, or
+     * <code>null</code> if there is none yet. Written by a worker thread before
+     * the connection is passed to the selector thread.
+     */
+    private volatile ByteBuffer[] mWriteBuffers;
+
+    /**
+     * Creates a new connection state for the given client.
+     *
+     * @param id      The unique ID of the client
+     * @param channel The channel of the client
+     */
+    Connection(final int id, final SocketChannel channel) {
+      mId = id;
+      mChannel = channel;
+      mReadBuffer = ByteBuffer.allocate(INITIAL_READ_BUFFER_SIZE);
+      mLastActivity = System.currentTimeMillis();
+    }
+  }
+}
@@ -0,0 +1,146 @@
+package de.unifreiburg.informatik.cobweb.util.http;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Class that handles a single client connected by a blocking socket. It
+ * parses the HTTP requests of the client, lets a {@link IHttpRequestHandler}
+ * answer them and sends the responses back.<br>
+ * <br>
+ * The connection is kept open for further requests if the client wants to,
+ * see {@link HttpUtil#isKeepAliveRequested(HttpRequest)}. Pipelined requests
+ * are answered in order. The connection is closed once the client did not
+ * send a request within the keep-alive timeout or the maximal amount of
+ * requests per connection was reached.<br>
+ * <br>
+ * To handle the client call {@link #run()}. The method should only be called
+ * once, the object should not be used anymore after the method has
+ * finished.<br>
+ * <br>
+ * The handler will close the client on its own. So it should not be closed
+ * outside.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class HttpSocketHandler implements Runnable {
+  /**
+   * Logger used for logging.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(HttpSocketHandler.class);
+  /**
+   * The client to handle.
+   */
+  private final Socket mClient;
+  /**
+   * The handler used to answer the request of the client.
+   */
+  private final IHttpRequestHandler mHandler;
+  /**
+   * The unique ID of this client request.
+   */
+  private final int mId;
+  /**
+   * The time in milliseconds to wait for the next request of the client
+   * before closing the connection.
+   */
+  private final int mKeepAliveTimeout;
+  /**
+   * The maximal amount of requests answered over the connection.
+   */
+  private final int mMaxRequests;
+
+  /**
+   * Creates a new handler which handles the given client.<br>
+   * <br>
+   * To handle the client call {@link #run()}. The method should only be called
+   * once, the object should not be used anymore after the method has finished.
+   *
+   * @param id               The unique ID of this client request
+   * @param client           The client to handle
+   * @param handler          The handler used to answer the requests of the
+   *                         client
+   * @param keepAliveTimeout The time in milliseconds to wait for the next
+   *                         request of the client before closing the
+   *                         connection, must be positive
+   * @param maxRequests      The maximal amount of requests answered over the
+   *                         connection, <code>1</code> or less to close it
+   *                         after the first response
+   */
+  public HttpSocketHandler(final int id, final Socket client, final IHttpRequestHandler handler,
+      final int keepAliveTimeout, final int maxRequests) {
+    mId = id;
+    mClient = client;
+    mHandler = handler;
+    mKeepAliveTimeout = keepAliveTimeout;
+    mMaxRequests = maxRequests;
+  }
+
+  /**
+   * Handles the clients requests.<br>
+   * <br>
+   * The method should only be called once, the object should not be used
+   * anymore after the method has finished. The method catches and logs all
+   * errors and exceptions.<br>
+   * <br>
+   * The handler will close the client on its own. So it should not be closed
+   * outside.
+   */
+  @Override
+  public void run() {
+    try {
+      mClient.setSoTimeout(mKeepAliveTimeout);
+      // Buffer the streams since requests are read line by line. The buffers
+      // live as long as the connection, so pipelined requests are not lost.
+      final InputStream input = new BufferedInputStream(mClient.getInputStream());
+      final OutputStream output = new BufferedOutputStream(mClient.getOutputStream());
+
+      // Handle the client
+      int amountOfRequests = 0;
+      boolean keepAlive = true;
+      while (keepAlive) {
+        final HttpRequest request;
+        try {
+          request = HttpUtil.parseRequest(input);
+        } catch (final SocketTimeoutException e) {
+          // The client was idle for too long
+          break;
+        }
+        if (request == null) {
+          // The client closed the connection
+          break;
+        }
+
+        if (HttpUtil.hasTransferCoding(request)) {
+          // The content can not be framed, the connection is unusable
+          HttpUtil.sendHttpResponse(new HttpResponseBuilder().setStatus(EHttpStatus.NOT_IMPLEMENTED).build(), output,
+              false, false);
+          break;
+        }
+
+        amountOfRequests++;
+        keepAlive = amountOfRequests < mMaxRequests && HttpUtil.isKeepAliveRequested(request);
+        final HttpResponse response = mHandler.handleRequest(request);
+        HttpUtil.sendHttpResponse(response, output, keepAlive, HttpUtil.isChunkedSupported(request));
+      }
+    } catch (final Throwable e) {
+      // Log every error
+      LOGGER.error("Unknown error while handling the client: {}", mId, e);
+    } finally {
+      try {
+        // Close the client
+        mClient.close();
+      } catch (final IOException e) {
+        LOGGER.error("Exception while closing the client socket", e);
+      }
+    }
+  }
+}
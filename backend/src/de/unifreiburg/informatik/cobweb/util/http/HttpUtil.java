@@ -1,16 +1,19 @@
 package de.unifreiburg.informatik.cobweb.util.http;
 
 import java.io.ByteArrayOutputStream;
-import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.Socket;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.TreeMap;
 
 /**
  * Utility class which provides methods related to HTTP communication.
@@ -18,16 +21,121 @@ import java.util.Map.Entry;
  * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
  */
 public final class HttpUtil {
+  /**
+   * The maximal size of a chunk of streamed content, in bytes.
+   */
+  private static final int CHUNK_SIZE = 8 * 1_024;
+  /**
+   * The charset used for the request line and headers of HTTP messages.
+   */
+  private static final Charset HEADER_CHARSET = StandardCharsets.ISO_8859_1;
   /**
    * Symbol used for new lines in the HTTP standard.
    */
   private static final String HTTP_NEW_LINE = "\r\n";
+  /**
+   * The maximal size of the request line and headers of a request, in bytes.
+   */
+  private static final int MAX_HEADER_SIZE = 16 * 1_024;
 
+  /**
+   * The protocol used for responses.
+   */
+  private static final String PROTOCOL = "HTTP/1.1";
   /**
    * Standard charset to use for encoding and decoding of content.
    */
   private static final Charset STANDARD_CHARSET = StandardCharsets.UTF_8;
 
+  /**
+   * Encodes the given response into its raw HTTP/1.1 representation, as sent
+   * to the client. The content is delimited by the <code>Content-Length</code>
+   * header, such that further responses can follow on the same connection.<br>
+   * <br>
+   * Streamed content is written directly into buffers of bounded size, which
+   * are filled one after another and never copied. The buffers can be written
+   * at once by a gathering channel, see
+   * {@link java.nio.channels.GatheringByteChannel#write(ByteBuffer[])}.
+   *
+   * @param response  The response to encode
+   * @param keepAlive Whether the connection is kept open after the response,
+   *                  announced by the <code>Connection</code> header
+   * @return The buffers containing the encoded response in order, ready to be
+   *         read
+   */
+  public static ByteBuffer[] encodeResponse(final HttpResponse response, final boolean keepAlive) {
+    if (response.isStreamed()) {
+      final ContentBuffer content = new ContentBuffer();
+      try {
+        response.getContentWriter().writeContent(content);
+      } catch (final IOException e) {
+        // Writing to memory does not throw, unless the writer itself fails
+        throw new UncheckedIOException(e);
+      }
+      return content.toBuffers(ByteBuffer.wrap(HttpUtil.encodeHead(response, content.size(), keepAlive)));
+    }
+
+    final byte[] contentRaw = response.getContent().getBytes(STANDARD_CHARSET);
+    final byte[] headRaw = HttpUtil.encodeHead(response, contentRaw.length, keepAlive);
+    final ByteBuffer buffer = ByteBuffer.allocate(headRaw.length + contentRaw.length);
+    buffer.put(headRaw).put(contentRaw);
+    buffer.flip();
+    return new ByteBuffer[] { buffer };
+  }
+
+  /**
+   * Whether the content of the given request uses a transfer coding, like
+   * <code>Transfer-Encoding: chunked</code>. Such content is not supported, its
+   * length is unknown. The request should be answered with
+   * {@link EHttpStatus#NOT_IMPLEMENTED} and the connection closed, since the
+   * remaining data can not be interpreted anymore.
+   *
+   * @param request The request to check
+   * @return <code>True</code> if the content uses a transfer coding,
+   *         <code>false</code> otherwise
+   */
+  public static boolean hasTransferCoding(final HttpRequest request) {
+    final String transferEncoding = request.getHeaders().get("Transfer-Encoding");
+    return transferEncoding != null && !transferEncoding.trim().equalsIgnoreCase("identity");
+  }
+
+  /**
+   * Whether the client of the given request supports the chunked transfer
+   * encoding, which is the case for HTTP/1.1 clients.
+   *
+   * @param request The request to check
+   * @return <code>True</code> if chunked responses are supported,
+   *         <code>false</code> otherwise
+   */
+  public static boolean isChunkedSupported(final HttpRequest request) {
+    return request.getProtocol().equalsIgnoreCase(PROTOCOL);
+  }
+
+  /**
+   * Whether the client wants to keep the connection open after the given
+   * request. This is the default for HTTP/1.1 unless the client sends
+   * <code>Connection: close</code>. HTTP/1.0 clients need to send
+   * <code>Connection: keep-alive</code>.
+   *
+   * @param request The request to check
+   * @return <code>True</code> if the connection should be kept open,
+   *         <code>false</code> otherwise
+   */
+  public static boolean isKeepAliveRequested(final HttpRequest request) {
+    String connection = null;
+    for (final Entry<String, String> header : request.getHeaders().entrySet()) {
+      if (header.getKey().equalsIgnoreCase("Connection")) {
+        connection = header.getValue().toLowerCase();
+        break;
+      }
+    }
+
+    if (request.getProtocol().equalsIgnoreCase(PROTOCOL)) {
+      return connection == null || !connection.contains("close");
+    }
+    return connection != null && connection.contains("keep-alive");
+  }
+
   /**
    * Parses the content type out of the header value.
    *
@@ -43,10 +151,16 @@ public final class HttpUtil {
   }
 
   /**
-   * Parses a HTTP request from the given input stream.
+   * Parses a HTTP request from the given input stream. Reads exactly the bytes
+   * of one request, such that further requests can be parsed from the same
+   * stream afterwards. Header names of the request are case-insensitive.<br>
+   * <br>
+   * The content of requests with a transfer coding is not read, see
+   * {@link #hasTransferCoding(HttpRequest)}.
    *
    * @param input The stream that contains the HTTP request
-   * @return The parsed HTTP request
+   * @return The parsed HTTP request or <code>null</code> if the stream ended
+   *         before a request started
    * @throws IOException If an I/O exception occurred while reading from the stream
    */
   public static HttpRequest parseRequest(final InputStream input) throws IOException {
@@ -54,6 +168,9 @@ public final class HttpUtil {
     String request;
     while (true) {
       final String line = HttpUtil.readHttpLine(input);
+      if (line == null) {
+        return null;
+      }
       // According to the specification empty lines that appear before any
       // content need to be rejected
       if (line.isEmpty()) {
@@ -70,12 +187,12 @@ public final class HttpUtil {
     final String resource = requestData[1];
     final String protocol = requestData[2];
 
-    // Read and parse the headers
-    final Map<String, String> headers = new HashMap<>();
+    // Read and parse the headers, their names are case-insensitive
+    final Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
     while (true) {
       final String line = HttpUtil.readHttpLine(input);
       // Break if content starts
-      if (line.isEmpty()) {
+      if (line == null || line.isEmpty()) {
         break;
       }
 
@@ -85,7 +202,11 @@ public final class HttpUtil {
 
     // Read and parse the content
     final String contentLengthText = headers.get("Content-Length");
-    String content = "";
+    byte[] content = new byte[0];
+    if (headers.containsKey("Transfer-Encoding")) {
+      // The length of the content is unknown, leave it to the caller
+      return new HttpRequest(type, resource, protocol, headers, content);
+    }
     if (contentLengthText != null && !contentLengthText.isEmpty() && contentLengthText != "0") {
       final int contentLength = Integer.parseInt(contentLengthText);
       content = HttpUtil.readHttpContent(contentLength, input);
@@ -95,65 +216,204 @@ public final class HttpUtil {
   }
 
   /**
-   * Sends the given response to the given client by using the HTTP/1.0 protocol.
+   * Parses a HTTP request from the given buffer, if it already contains a
+   * complete request.<br>
+   * <br>
+   * The buffer must be ready to be read, i.e. flipped. If a complete request
+   * is present, its bytes are consumed from the buffer. Otherwise the position
+   * of the buffer is not changed and more data needs to be read into the
+   * buffer before trying again.<br>
+   * <br>
+   * Header names of the request are case-insensitive. The content of requests
+   * with a transfer coding is not consumed, see
+   * {@link #hasTransferCoding(HttpRequest)}.
    *
-   * @param response The response to send
-   * @param client   Client to send to
-   * @throws IOException If an I/O-Exception occurred.
+   * @param buffer The buffer to parse the request from
+   * @return The parsed HTTP request or <code>null</code> if the buffer does
+   *         not contain a complete request yet
+   * @throws IOException If the buffer contains data that is not a valid HTTP
+   *                     request
    */
-  public static void sendHttpResponse(final HttpResponse response, final Socket client) throws IOException {
-    final String charset = STANDARD_CHARSET.displayName()
-            .toLowerCase();
-    final byte[] contentRaw = response.getContent()
-            .getBytes(STANDARD_CHARSET);
+  public static HttpRequest parseRequest(final ByteBuffer buffer) throws IOException {
+    // According to the specification empty lines that appear before any
+    // content need to be ignored
+    int begin = buffer.position();
+    while (begin + 1 < buffer.limit() && buffer.get(begin) == '\r' && buffer.get(begin + 1) == '\n') {
+      begin += 2;
+    }
 
-    // Build response type
-    final String responseType = "HTTP/1.0 " + response.getStatus()
-            .getStatusCode() + " " + response.getStatus() + HTTP_NEW_LINE;
+    // Search the end of the headers
+    int headerEnd = -1;
+    for (int i = begin; i + 3 < buffer.limit(); i++) {
+      if (buffer.get(i) == '\r' && buffer.get(i + 1) == '\n' && buffer.get(i + 2) == '\r'
+          && buffer.get(i + 3) == '\n') {
+        headerEnd = i;
+        break;
+      }
+    }
+    if (headerEnd == -1) {
+      if (buffer.limit() - begin > MAX_HEADER_SIZE) {
+        throw new IOException("Request headers exceed the maximal size");
+      }
+      return null;
+    }
 
-    // Build response headers
-    final StringBuilder responseHeaders = new StringBuilder();
-    responseHeaders.append("Content-Length: " + contentRaw.length + HTTP_NEW_LINE);
-    responseHeaders.append("Content-Type: " + response.getContentType()
-            .getTextValue() + "; charset=" + charset + HTTP_NEW_LINE);
+    final byte[] headerRaw = new byte[headerEnd - begin];
+    for (int i = 0; i < headerRaw.length; i++) {
+      headerRaw[i] = buffer.get(begin + i);
+    }
+    final String[] lines = new String(headerRaw, HEADER_CHARSET).split(HTTP_NEW_LINE);
 
-    // Set all given headers
-    for (final Entry<String, String> entry : response.getHeaders()
-            .entrySet()) {
-      responseHeaders.append(entry.getKey() + ": " + entry.getValue() + HTTP_NEW_LINE);
+    // Parse the request
+    final String[] requestData = lines[0].trim().split(" ");
+    if (requestData.length != 3) {
+      throw new IOException("Malformed request line: " + lines[0]);
+    }
+
+    // Parse the headers, their names are case-insensitive
+    final Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    for (int i = 1; i < lines.length; i++) {
+      final int separator = lines[i].indexOf(':');
+      if (separator == -1) {
+        throw new IOException("Malformed header: " + lines[i]);
+      }
+      headers.put(lines[i].substring(0, separator).trim(), lines[i].substring(separator + 1).trim());
+    }
+
+    // Parse the content, if already fully present
+    final int contentBegin = headerEnd + 4;
+    int contentLength = 0;
+    final String contentLengthText = headers.get("Content-Length");
+    if (headers.containsKey("Transfer-Encoding")) {
+      // The length of the content is unknown, leave it to the caller
+      buffer.position(contentBegin);
+      return new HttpRequest(requestData[0], requestData[1], requestData[2], headers, new byte[0]);
+    }
+    if (contentLengthText != null && !contentLengthText.isEmpty()) {
+      try {
+        contentLength = Integer.parseInt(contentLengthText);
+      } catch (final NumberFormatException e) {
+        throw new IOException("Malformed content length: " + contentLengthText, e);
+      }
+      if (contentLength < 0) {
+        throw new IOException("Malformed content length: " + contentLengthText);
+      }
+    }
+    if (buffer.limit() - contentBegin < contentLength) {
+      return null;
+    }
+
+    final byte[] contentRaw = new byte[contentLength];
+    buffer.position(contentBegin);
+    buffer.get(contentRaw);
+    return new HttpRequest(requestData[0], requestData[1], requestData[2], headers, contentRaw);
+  }
+
+  /**
+   * Sends the given response to a client by using the HTTP/1.1 protocol. The
+   * stream is flushed but not closed, such that the connection can be reused
+   * for further requests.<br>
+   * <br>
+   * Streamed content is written directly to the stream using the chunked
+   * transfer encoding, if supported by the client. Otherwise it is buffered
+   * and delimited by the <code>Content-Length</code> header.
+   *
+   * @param response  The response to send
+   * @param output    The output stream of the client to send to
+   * @param keepAlive Whether the connection is kept open after the response
+   * @param chunked   Whether the client supports the chunked transfer
+   *                  encoding, see {@link #isChunkedSupported(HttpRequest)}
+   * @throws IOException If an I/O-Exception occurred.
+   */
+  public static void sendHttpResponse(final HttpResponse response, final OutputStream output,
+      final boolean keepAlive, final boolean chunked) throws IOException {
+    if (response.isStreamed() && chunked) {
+      output.write(HttpUtil.encodeHead(response, -1, keepAlive));
+      final ChunkedOutputStream chunkedOutput = new ChunkedOutputStream(output, CHUNK_SIZE);
+      response.getContentWriter().writeContent(chunkedOutput);
+      // Also flushes the output
+      chunkedOutput.finish();
+      return;
     }
 
     // Write headers and content
-    try (final DataOutputStream output = new DataOutputStream(client.getOutputStream())) {
-      output.write(responseType.getBytes(STANDARD_CHARSET));
-      output.write(responseHeaders.toString()
-              .getBytes(STANDARD_CHARSET));
-      output.write(HTTP_NEW_LINE.getBytes(STANDARD_CHARSET));
-      output.write(contentRaw);
+    for (final ByteBuffer buffer : HttpUtil.encodeResponse(response, keepAlive)) {
+      output.write(buffer.array(), buffer.position(), buffer.remaining());
     }
+    output.flush();
+  }
+
+  /**
+   * Encodes the status line and headers of the given response, including the
+   * empty line which separates them from the content.
+   *
+   * @param response      The response to encode the head of
+   * @param contentLength The length of the content in bytes, or a negative
+   *                      value to use the chunked transfer encoding instead
+   * @param keepAlive     Whether the connection is kept open after the
+   *                      response, announced by the <code>Connection</code>
+   *                      header
+   * @return The encoded head
+   */
+  private static byte[] encodeHead(final HttpResponse response, final int contentLength, final boolean keepAlive) {
+    final String charset = STANDARD_CHARSET.displayName().toLowerCase();
+
+    // Build response type and headers
+    final StringBuilder head = new StringBuilder();
+    head.append(PROTOCOL).append(' ').append(response.getStatus().getStatusCode()).append(' ')
+        .append(response.getStatus()).append(HTTP_NEW_LINE);
+    if (contentLength >= 0) {
+      head.append("Content-Length: ").append(contentLength).append(HTTP_NEW_LINE);
+    } else {
+      head.append("Transfer-Encoding: chunked").append(HTTP_NEW_LINE);
+    }
+    head.append("Content-Type: ").append(response.getContentType().getTextValue());
+    if (!response.getContentType().isBinary()) {
+      head.append("; charset=").append(charset);
+    }
+    head.append(HTTP_NEW_LINE);
+    if (keepAlive) {
+      head.append("Connection: keep-alive").append(HTTP_NEW_LINE);
+    } else {
+      head.append("Connection: close").append(HTTP_NEW_LINE);
+    }
+
+    // Set all given headers
+    for (final Entry<String, String> entry : response.getHeaders().entrySet()) {
+      head.append(entry.getKey()).append(": ").append(entry.getValue()).append(HTTP_NEW_LINE);
+    }
+    head.append(HTTP_NEW_LINE);
+
+    return head.toString().getBytes(STANDARD_CHARSET);
   }
 
   /**
    * Reads the content of the given input stream.<br>
    * <br>
-   * The stream must already be advanced to the point where the content begins. The method will make sure that only
-   * the given amount of bytes is read from the stream. In particular, it will not read more than desired for
-   * buffering purpose.
+   * The stream must already be advanced to the point where the content begins. The method will make sure that exactly
+   * the given amount of bytes is read from the stream, unless it ends before. In particular, it will not read more
+   * than desired for buffering purpose.
    *
    * @param contentLength The length of the content in amount of bytes
    * @param input         The input stream from which to read. The stream must already be advanced to the point where
    *                      the content begins.
-   * @return The read content, interpreted as string in the standard charset represented by {@link #STANDARD_CHARSET}
+   * @return The raw read content, shorter than the given length if the stream ended before
    * @throws IOException If an I/O exception occurred while reading from the stream
    */
-  private static String readHttpContent(final int contentLength, final InputStream input) throws IOException {
-    final byte[] contentRawBuffer = new byte[contentLength];
-    final int amountRead = input.read(contentRawBuffer);
-    if (amountRead == contentRawBuffer.length) {
-      return new String(contentRawBuffer, STANDARD_CHARSET);
+  private static byte[] readHttpContent(final int contentLength, final InputStream input) throws IOException {
+    final byte[] contentRaw = new byte[contentLength];
+    int offset = 0;
+    while (offset < contentLength) {
+      final int amountRead = input.read(contentRaw, offset, contentLength - offset);
+      if (amountRead == -1) {
+        break;
+      }
+      offset += amountRead;
+    }
+    if (offset < contentLength) {
+      return Arrays.copyOf(contentRaw, offset);
     }
-    final byte[] contentRaw = Arrays.copyOf(contentRawBuffer, amountRead);
-    return new String(contentRaw, STANDARD_CHARSET);
+    return contentRaw;
   }
 
   /**
@@ -174,7 +434,7 @@ public final class HttpUtil {
       valueBefore = value;
       value = input.read();
 
-      if (value == '\r' || value == '\n') {
+      if (value == -1 || value == '\r' || value == '\n') {
         continue;
       }
 
@@ -194,4 +454,95 @@ public final class HttpUtil {
   private HttpUtil() {
 
   }
+
+  /**
+   * Buffer for streamed content which writes into byte buffers of bounded
+   * size. A new buffer is added once the last one is full, written content is
+   * never copied.
+   *
+   * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+   */
+  private static final class ContentBuffer extends OutputStream {
+    /**
+     * The buffers containing the content in order, only the last one may not
+     * be full.
+     */
+    private final List<ByteBuffer> mBuffers;
+    /**
+     * The amount of bytes written.
+     */
+    private int mSize;
+
+    /**
+     * Creates a new empty content buffer.
+     */
+    ContentBuffer() {
+      mBuffers = new ArrayList<>();
+    }
+
+    /**
+     * Gets the amount of bytes written.
+     *
+     * @return The amount of bytes written
+     */
+    int size() {
+      return mSize;
+    }
+
+    /**
+     * Gets the buffers containing the content, ready to be read. The content
+     * must not be written to anymore afterwards.
+     *
+     * @param head The buffer to put in front of the content, ready to be read
+     * @return The given buffer followed by the buffers of the content
+     */
+    ByteBuffer[] toBuffers(final ByteBuffer head) {
+      final ByteBuffer[] buffers = new ByteBuffer[mBuffers.size() + 1];
+      buffers[0] = head;
+      for (int i = 0; i < mBuffers.size(); i++) {
+        final ByteBuffer buffer = mBuffers.get(i);
+        buffer.flip();
+        buffers[i + 1] = buffer;
+      }
+      return buffers;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.io.OutputStream#write(byte[], int, int)
+     */
+    @Override
+    public void write(final byte[] bytes, final int offset, final int length) {
+      int written = 0;
+      while (written < length) {
+        final ByteBuffer buffer = getWritableBuffer();
+        final int amount = Math.min(buffer.remaining(), length - written);
+        buffer.put(bytes, offset + written, amount);
+        written += amount;
+      }
+      mSize += length;
+    }
+
+    /*
+     * (non-Javadoc)
+     * @see java.io.OutputStream#write(int)
+     */
+    @Override
+    public void write(final int value) {
+      getWritableBuffer().put((byte) value);
+      mSize++;
+    }
+
+    /**
+     * Gets the buffer to write to, adds a new buffer if the last one is full.
+     *
+     * @return The buffer to write to, it has space remaining
+     */
+    private ByteBuffer getWritableBuffer() {
+      if (mBuffers.isEmpty() || !mBuffers.get(mBuffers.size() - 1).hasRemaining()) {
+        mBuffers.add(ByteBuffer.allocate(CHUNK_SIZE));
+      }
+      return mBuffers.get(mBuffers.size() - 1);
+    }
+  }
 }
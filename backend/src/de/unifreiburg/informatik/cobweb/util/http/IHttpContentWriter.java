@@ -0,0 +1,25 @@
+package de.unifreiburg.informatik.cobweb.util.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Interface for classes that write the content of a HTTP response directly to
+ * the output of the client, instead of building it as string first.<br>
+ * <br>
+ * This is used to stream large responses, see
+ * {@link HttpResponseBuilder#setContentWriter(IHttpContentWriter)}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+@FunctionalInterface
+public interface IHttpContentWriter {
+  /**
+   * Writes the content, encoded in <code>UTF-8</code>, to the given stream.
+   * The stream must not be closed by this method.
+   *
+   * @param output The stream to write the content to
+   * @throws IOException If an I/O exception occurred while writing
+   */
+  void writeContent(OutputStream output) throws IOException;
+}
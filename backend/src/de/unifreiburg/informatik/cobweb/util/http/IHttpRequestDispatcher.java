@@ -0,0 +1,25 @@
+package de.unifreiburg.informatik.cobweb.util.http;
+
+import java.util.function.Consumer;
+
+/**
+ * Request handler which computes responses asynchronously on threads of its
+ * own. Servers pass requests to it using
+ * {@link #dispatch(HttpRequest, Consumer)} without blocking a thread of their
+ * own while the response is computed.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public interface IHttpRequestDispatcher extends IHttpRequestHandler {
+  /**
+   * Dispatches the given request. Returns immediately, the response is passed
+   * to the given consumer once it was computed. The consumer may be called by
+   * the calling thread, for example if the request is rejected right away, or
+   * by any other thread.
+   *
+   * @param request          The request to handle
+   * @param responseConsumer The consumer to pass the response to, it is called
+   *                         exactly once
+   */
+  void dispatch(HttpRequest request, Consumer<HttpResponse> responseConsumer);
+}
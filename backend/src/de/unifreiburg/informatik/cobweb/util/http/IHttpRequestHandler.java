@@ -0,0 +1,22 @@
+package de.unifreiburg.informatik.cobweb.util.http;
+
+/**
+ * Interface for classes that answer HTTP requests of a specific resource, for
+ * example the routing API.<br>
+ * <br>
+ * Implementations are shared by all clients and must be safe to use by
+ * multiple threads at the same time.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+@FunctionalInterface
+public interface IHttpRequestHandler {
+  /**
+   * Handles the given HTTP request and computes the response to send back to
+   * the client.
+   *
+   * @param request The request to handle
+   * @return The response to send to the client
+   */
+  HttpResponse handleRequest(HttpRequest request);
+}
@@ -0,0 +1,70 @@
+package de.unifreiburg.informatik.cobweb.util.http.json;
+
+import java.io.IOException;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Abstract type adapter for the request and response models. It handles
+ * <code>null</code> values and reports malformed numbers as
+ * {@link JsonSyntaxException}, like the adapters of GSON do. Implementations
+ * only encode and decode present models.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ * @param <T> The type of the model
+ */
+abstract class AModelAdapter<T> extends TypeAdapter<T> {
+  /*
+   * (non-Javadoc)
+   * @see com.google.gson.TypeAdapter#read(com.google.gson.stream.JsonReader)
+   */
+  @Override
+  public final T read(final JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    try {
+      return readModel(in);
+    } catch (final NumberFormatException e) {
+      throw new JsonSyntaxException(e);
+    }
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see com.google.gson.TypeAdapter#write(com.google.gson.stream.JsonWriter,
+   * java.lang.Object)
+   */
+  @Override
+  public final void write(final JsonWriter out, final T model) throws IOException {
+    if (model == null) {
+      out.nullValue();
+      return;
+    }
+    writeModel(out, model);
+  }
+
+  /**
+   * Reads the model, which is present.
+   *
+   * @param in The reader to read from
+   * @return The read model
+   * @throws IOException If an I/O exception occurred while reading or the
+   *                     model is malformed
+   */
+  protected abstract T readModel(JsonReader in) throws IOException;
+
+  /**
+   * Writes the given model.
+   *
+   * @param out   The writer to write to
+   * @param model The model to write, not <code>null</code>
+   * @throws IOException If an I/O exception occurred while writing
+   */
+  protected abstract void writeModel(JsonWriter out, T model) throws IOException;
+}
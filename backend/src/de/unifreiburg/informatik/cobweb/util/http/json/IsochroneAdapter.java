@@ -0,0 +1,55 @@
+package de.unifreiburg.informatik.cobweb.util.http.json;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import de.unifreiburg.informatik.cobweb.routing.server.model.Isochrone;
+
+/**
+ * Type adapter which encodes and decodes {@link Isochrone} without using
+ * reflection.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+final class IsochroneAdapter extends AModelAdapter<Isochrone> {
+  @Override
+  protected Isochrone readModel(final JsonReader in) throws IOException {
+    int amountOfNodes = 0;
+    int budget = 0;
+    List<float[]> polygon = null;
+
+    in.beginObject();
+    for (String name = JsonCodecs.readNextName(in); name != null; name = JsonCodecs.readNextName(in)) {
+      switch (name) {
+        case "amountOfNodes":
+          amountOfNodes = in.nextInt();
+          break;
+        case "budget":
+          budget = in.nextInt();
+          break;
+        case "polygon":
+          polygon = JsonCodecs.readCoordinates(in);
+          break;
+        default:
+          in.skipValue();
+          break;
+      }
+    }
+    in.endObject();
+    return new Isochrone(budget, amountOfNodes, polygon);
+  }
+
+  @Override
+  protected void writeModel(final JsonWriter out, final Isochrone isochrone) throws IOException {
+    out.beginObject();
+    out.name("amountOfNodes").value(isochrone.getAmountOfNodes());
+    out.name("budget").value(isochrone.getBudget());
+    if (isochrone.getPolygon() != null) {
+      JsonCodecs.writeCoordinates(out.name("polygon"), isochrone.getPolygon());
+    }
+    out.endObject();
+  }
+}
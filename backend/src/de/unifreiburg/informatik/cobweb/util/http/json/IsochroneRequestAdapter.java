@@ -0,0 +1,71 @@
+package de.unifreiburg.informatik.cobweb.util.http.json;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.Set;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.routing.server.model.IsochroneRequest;
+
+/**
+ * Type adapter which encodes and decodes {@link IsochroneRequest} without
+ * using reflection. Missing fields result in an incomplete request, see
+ * {@link IsochroneRequest#isComplete()}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+final class IsochroneRequestAdapter extends AModelAdapter<IsochroneRequest> {
+  @Override
+  protected IsochroneRequest readModel(final JsonReader in) throws IOException {
+    int[] budgets = null;
+    long depTime = 0L;
+    long from = 0L;
+    Set<ETransportationMode> modes = EnumSet.noneOf(ETransportationMode.class);
+
+    in.beginObject();
+    for (String name = JsonCodecs.readNextName(in); name != null; name = JsonCodecs.readNextName(in)) {
+      switch (name) {
+        case "budgets":
+          budgets = JsonCodecs.readIntArray(in);
+          break;
+        case "depTime":
+          depTime = in.nextLong();
+          break;
+        case "from":
+          from = in.nextLong();
+          break;
+        case "modes":
+          modes = JsonCodecs.readModes(in);
+          break;
+        default:
+          in.skipValue();
+          break;
+      }
+    }
+    in.endObject();
+    return new IsochroneRequest(from, depTime, modes, budgets);
+  }
+
+  @Override
+  protected void writeModel(final JsonWriter out, final IsochroneRequest request) throws IOException {
+    out.beginObject();
+    if (request.getBudgets() != null) {
+      out.name("budgets").beginArray();
+      for (final int budget : request.getBudgets()) {
+        out.value(budget);
+      }
+      out.endArray();
+    }
+    out.name("depTime").value(request.getDepTime());
+    out.name("from").value(request.getFrom());
+    out.name("modes").beginArray();
+    for (final ETransportationMode mode : request.getModes()) {
+      out.value(mode.getValue());
+    }
+    out.endArray();
+    out.endObject();
+  }
+}
@@ -0,0 +1,86 @@
+package de.unifreiburg.informatik.cobweb.util.http.json;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import de.unifreiburg.informatik.cobweb.routing.server.model.Isochrone;
+import de.unifreiburg.informatik.cobweb.routing.server.model.IsochroneResponse;
+
+/**
+ * Type adapter which encodes and decodes {@link IsochroneResponse} without
+ * using reflection.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+final class IsochroneResponseAdapter extends AModelAdapter<IsochroneResponse> {
+  /**
+   * The adapter used for the isochrones.
+   */
+  private final TypeAdapter<Isochrone> mIsochroneAdapter;
+
+  /**
+   * Creates a new isochrone response adapter.
+   *
+   * @param isochroneAdapter The adapter used for the isochrones
+   */
+  IsochroneResponseAdapter(final TypeAdapter<Isochrone> isochroneAdapter) {
+    mIsochroneAdapter = isochroneAdapter;
+  }
+
+  @Override
+  protected IsochroneResponse readModel(final JsonReader in) throws IOException {
+    long compTime = 0L;
+    long from = 0L;
+    List<Isochrone> isochrones = null;
+    long time = 0L;
+
+    in.beginObject();
+    for (String name = JsonCodecs.readNextName(in); name != null; name = JsonCodecs.readNextName(in)) {
+      switch (name) {
+        case "compTime":
+          compTime = in.nextLong();
+          break;
+        case "from":
+          from = in.nextLong();
+          break;
+        case "isochrones":
+          isochrones = new ArrayList<>();
+          in.beginArray();
+          while (in.hasNext()) {
+            isochrones.add(mIsochroneAdapter.read(in));
+          }
+          in.endArray();
+          break;
+        case "time":
+          time = in.nextLong();
+          break;
+        default:
+          in.skipValue();
+          break;
+      }
+    }
+    in.endObject();
+    return new IsochroneResponse(time, compTime, from, isochrones);
+  }
+
+  @Override
+  protected void writeModel(final JsonWriter out, final IsochroneResponse response) throws IOException {
+    out.beginObject();
+    out.name("compTime").value(response.getCompTime());
+    out.name("from").value(response.getFrom());
+    if (response.getIsochrones() != null) {
+      out.name("isochrones").beginArray();
+      for (final Isochrone isochrone : response.getIsochrones()) {
+        mIsochroneAdapter.write(out, isochrone);
+      }
+      out.endArray();
+    }
+    out.name("time").value(response.getTime());
+    out.endObject();
+  }
+}
@@ -0,0 +1,81 @@
+package de.unifreiburg.informatik.cobweb.util.http.json;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import de.unifreiburg.informatik.cobweb.routing.server.model.Journey;
+import de.unifreiburg.informatik.cobweb.routing.server.model.RouteElement;
+
+/**
+ * Type adapter which encodes and decodes {@link Journey} without using
+ * reflection.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+final class JourneyAdapter extends AModelAdapter<Journey> {
+  /**
+   * The adapter used for the elements of the route.
+   */
+  private final TypeAdapter<RouteElement> mRouteElementAdapter;
+
+  /**
+   * Creates a new journey adapter.
+   *
+   * @param routeElementAdapter The adapter used for the elements of the route
+   */
+  JourneyAdapter(final TypeAdapter<RouteElement> routeElementAdapter) {
+    mRouteElementAdapter = routeElementAdapter;
+  }
+
+  @Override
+  protected Journey readModel(final JsonReader in) throws IOException {
+    long arrTime = 0L;
+    long depTime = 0L;
+    List<RouteElement> route = null;
+
+    in.beginObject();
+    for (String name = JsonCodecs.readNextName(in); name != null; name = JsonCodecs.readNextName(in)) {
+      switch (name) {
+        case "arrTime":
+          arrTime = in.nextLong();
+          break;
+        case "depTime":
+          depTime = in.nextLong();
+          break;
+        case "route":
+          route = new ArrayList<>();
+          in.beginArray();
+          while (in.hasNext()) {
+            route.add(mRouteElementAdapter.read(in));
+          }
+          in.endArray();
+          break;
+        default:
+          in.skipValue();
+          break;
+      }
+    }
+    in.endObject();
+    return new Journey(depTime, arrTime, route);
+  }
+
+  @Override
+  protected void writeModel(final JsonWriter out, final Journey journey) throws IOException {
+    out.beginObject();
+    out.name("arrTime").value(journey.getArrTime());
+    out.name("depTime").value(journey.getDepTime());
+    if (journey.getRoute() != null) {
+      out.name("route").beginArray();
+      for (final RouteElement element : journey.getRoute()) {
+        mRouteElementAdapter.write(out, element);
+      }
+      out.endArray();
+    }
+    out.endObject();
+  }
+}
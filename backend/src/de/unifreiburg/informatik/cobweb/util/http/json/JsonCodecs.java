@@ -0,0 +1,251 @@
+package de.unifreiburg.informatik.cobweb.util.http.json;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.collections.api.list.primitive.MutableIntList;
+import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.eclipse.collections.impl.factory.primitive.IntLists;
+import org.eclipse.collections.impl.factory.primitive.LongLists;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.routing.server.model.Isochrone;
+import de.unifreiburg.informatik.cobweb.routing.server.model.IsochroneRequest;
+import de.unifreiburg.informatik.cobweb.routing.server.model.IsochroneResponse;
+import de.unifreiburg.informatik.cobweb.routing.server.model.Journey;
+import de.unifreiburg.informatik.cobweb.routing.server.model.MatrixRequest;
+import de.unifreiburg.informatik.cobweb.routing.server.model.MatrixResponse;
+import de.unifreiburg.informatik.cobweb.routing.server.model.RouteElement;
+import de.unifreiburg.informatik.cobweb.routing.server.model.RoutingRequest;
+import de.unifreiburg.informatik.cobweb.routing.server.model.RoutingResponse;
+import de.unifreiburg.informatik.cobweb.searching.name.server.model.Match;
+import de.unifreiburg.informatik.cobweb.searching.name.server.model.NameSearchRequest;
+import de.unifreiburg.informatik.cobweb.searching.name.server.model.NameSearchResponse;
+import de.unifreiburg.informatik.cobweb.searching.nearest.server.model.NearestSearchRequest;
+import de.unifreiburg.informatik.cobweb.searching.nearest.server.model.NearestSearchResponse;
+import de.unifreiburg.informatik.cobweb.util.MemberFieldNamingStrategy;
+
+/**
+ * Utility class which provides the GSON object used by all servers to encode
+ * and decode JSON.<br>
+ * <br>
+ * The object is created once and shared, GSON objects are thread-safe. It has
+ * a type adapter registered for every request and response model of the REST
+ * APIs. They read and write the fields directly using the constructors and
+ * getters of the models instead of reflection. Other types fall back to
+ * reflection using the {@link MemberFieldNamingStrategy}. The produced JSON is
+ * identical to the JSON produced by reflection.<br>
+ * <br>
+ * Unknown fields and fields with value <code>null</code> are ignored when
+ * decoding, like GSON does. Unknown transportation modes are rejected with a
+ * {@link JsonSyntaxException}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class JsonCodecs {
+  /**
+   * The shared GSON object.
+   */
+  private static final Gson GSON = JsonCodecs.createGson();
+
+  /**
+   * Gets the shared GSON object which uses the type adapters of this package.
+   *
+   * @return The shared GSON object
+   */
+  public static Gson getGson() {
+    return GSON;
+  }
+
+  /**
+   * Reads an array of latitude and longitude coordinates.
+   *
+   * @param in The reader to read from
+   * @return A list of latitude and longitude coordinates. Thus, the size of
+   *         the arrays is <code>2</code>.
+   * @throws IOException If an I/O exception occurred while reading or the
+   *                     coordinates are malformed
+   */
+  static List<float[]> readCoordinates(final JsonReader in) throws IOException {
+    final List<float[]> coordinates = new ArrayList<>();
+    in.beginArray();
+    while (in.hasNext()) {
+      in.beginArray();
+      final float latitude = (float) in.nextDouble();
+      final float longitude = (float) in.nextDouble();
+      in.endArray();
+      coordinates.add(new float[] { latitude, longitude });
+    }
+    in.endArray();
+    return coordinates;
+  }
+
+  /**
+   * Reads an array of <code>int</code> values.
+   *
+   * @param in The reader to read from
+   * @return The read values
+   * @throws IOException If an I/O exception occurred while reading or the
+   *                     values are malformed
+   */
+  static int[] readIntArray(final JsonReader in) throws IOException {
+    final MutableIntList values = IntLists.mutable.empty();
+    in.beginArray();
+    while (in.hasNext()) {
+      values.add(in.nextInt());
+    }
+    in.endArray();
+    return values.toArray();
+  }
+
+  /**
+   * Reads an array of <code>long</code> values.
+   *
+   * @param in The reader to read from
+   * @return The read values
+   * @throws IOException If an I/O exception occurred while reading or the
+   *                     values are malformed
+   */
+  static long[] readLongArray(final JsonReader in) throws IOException {
+    final MutableLongList values = LongLists.mutable.empty();
+    in.beginArray();
+    while (in.hasNext()) {
+      values.add(in.nextLong());
+    }
+    in.endArray();
+    return values.toArray();
+  }
+
+  /**
+   * Reads an array of transportation modes, given by their values.
+   *
+   * @param in The reader to read from
+   * @return A set containing the read transportation modes
+   * @throws IOException If an I/O exception occurred while reading, the values
+   *                     are malformed or contain an unknown mode
+   */
+  static Set<ETransportationMode> readModes(final JsonReader in) throws IOException {
+    final Set<ETransportationMode> modes = EnumSet.noneOf(ETransportationMode.class);
+    in.beginArray();
+    while (in.hasNext()) {
+      final int value = in.nextInt();
+      final ETransportationMode mode = ETransportationMode.fromValue(value);
+      if (mode == null) {
+        throw new JsonSyntaxException("Unknown transportation mode: " + value);
+      }
+      modes.add(mode);
+    }
+    in.endArray();
+    return modes;
+  }
+
+  /**
+   * Reads the name of the next field of an object and skips <code>null</code>
+   * values, which are treated as if the field was not present.
+   *
+   * @param in The reader to read from
+   * @return The name of the next field whose value is not <code>null</code> or
+   *         <code>null</code> if the object has no further such fields
+   * @throws IOException If an I/O exception occurred while reading
+   */
+  static String readNextName(final JsonReader in) throws IOException {
+    while (in.hasNext()) {
+      final String name = in.nextName();
+      if (in.peek() != JsonToken.NULL) {
+        return name;
+      }
+      in.nextNull();
+    }
+    return null;
+  }
+
+  /**
+   * Writes the given coordinates as array of latitude and longitude arrays.
+   *
+   * @param out         The writer to write to
+   * @param coordinates A list of latitude and longitude coordinates
+   * @throws IOException If an I/O exception occurred while writing
+   */
+  static void writeCoordinates(final JsonWriter out, final List<float[]> coordinates) throws IOException {
+    out.beginArray();
+    for (final float[] coordinate : coordinates) {
+      out.beginArray();
+      JsonCodecs.writeFloat(out, coordinate[0]);
+      JsonCodecs.writeFloat(out, coordinate[1]);
+      out.endArray();
+    }
+    out.endArray();
+  }
+
+  /**
+   * Writes the given value. It is formatted the same as GSON does, but without
+   * boxing the value.
+   *
+   * @param out   The writer to write to
+   * @param value The value to write
+   * @throws IOException If an I/O exception occurred while writing
+   */
+  static void writeFloat(final JsonWriter out, final float value) throws IOException {
+    out.jsonValue(Float.toString(value));
+  }
+
+  /**
+   * Writes the given values as array.
+   *
+   * @param out    The writer to write to
+   * @param values The values to write
+   * @throws IOException If an I/O exception occurred while writing
+   */
+  static void writeLongArray(final JsonWriter out, final long[] values) throws IOException {
+    out.beginArray();
+    for (final long value : values) {
+      out.value(value);
+    }
+    out.endArray();
+  }
+
+  /**
+   * Creates the GSON object with all type adapters of this package
+   * registered.
+   *
+   * @return The created GSON object
+   */
+  private static Gson createGson() {
+    final RouteElementAdapter routeElementAdapter = new RouteElementAdapter();
+    final JourneyAdapter journeyAdapter = new JourneyAdapter(routeElementAdapter);
+    final IsochroneAdapter isochroneAdapter = new IsochroneAdapter();
+    final MatchAdapter matchAdapter = new MatchAdapter();
+    return new GsonBuilder().setFieldNamingStrategy(new MemberFieldNamingStrategy())
+        .registerTypeAdapter(RoutingRequest.class, new RoutingRequestAdapter())
+        .registerTypeAdapter(RoutingResponse.class, new RoutingResponseAdapter(journeyAdapter))
+        .registerTypeAdapter(Journey.class, journeyAdapter)
+        .registerTypeAdapter(RouteElement.class, routeElementAdapter)
+        .registerTypeAdapter(MatrixRequest.class, new MatrixRequestAdapter())
+        .registerTypeAdapter(MatrixResponse.class, new MatrixResponseAdapter())
+        .registerTypeAdapter(IsochroneRequest.class, new IsochroneRequestAdapter())
+        .registerTypeAdapter(IsochroneResponse.class, new IsochroneResponseAdapter(isochroneAdapter))
+        .registerTypeAdapter(Isochrone.class, isochroneAdapter)
+        .registerTypeAdapter(NameSearchRequest.class, new NameSearchRequestAdapter())
+        .registerTypeAdapter(NameSearchResponse.class, new NameSearchResponseAdapter(matchAdapter))
+        .registerTypeAdapter(Match.class, matchAdapter)
+        .registerTypeAdapter(NearestSearchRequest.class, new NearestSearchRequestAdapter())
+        .registerTypeAdapter(NearestSearchResponse.class, new NearestSearchResponseAdapter()).create();
+  }
+
+  /**
+   * Utility class. No implementation.
+   */
+  private JsonCodecs() {
+
+  }
+}
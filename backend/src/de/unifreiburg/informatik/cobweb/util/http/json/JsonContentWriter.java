@@ -0,0 +1,62 @@
+package de.unifreiburg.informatik.cobweb.util.http.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.stream.JsonWriter;
+
+import de.unifreiburg.informatik.cobweb.util.http.IHttpContentWriter;
+
+/**
+ * Writer which streams a model as JSON directly to the client, using the type
+ * adapter the given GSON object has registered for it.<br>
+ * <br>
+ * In contrast to {@link Gson#toJson(Object)}, no string of the whole content
+ * is built. The written JSON is identical.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ * @param <T> The type of the model to write
+ */
+public final class JsonContentWriter<T> implements IHttpContentWriter {
+  /**
+   * The GSON object used to write the model.
+   */
+  private final Gson mGson;
+  /**
+   * The model to write.
+   */
+  private final T mModel;
+  /**
+   * The type of the model, used to select the type adapter.
+   */
+  private final Class<T> mType;
+
+  /**
+   * Creates a new writer which writes the given model.
+   *
+   * @param gson  The GSON object used to write the model
+   * @param model The model to write
+   * @param type  The type of the model, used to select the type adapter
+   */
+  public JsonContentWriter(final Gson gson, final T model, final Class<T> type) {
+    mGson = gson;
+    mModel = model;
+    mType = type;
+  }
+
+  @Override
+  public void writeContent(final OutputStream output) throws IOException {
+    // Do not close the writer since that would close the output
+    final JsonWriter writer = mGson.newJsonWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+    try {
+      mGson.toJson(mModel, mType, writer);
+    } catch (final JsonIOException e) {
+      throw new IOException(e);
+    }
+    writer.flush();
+  }
+}
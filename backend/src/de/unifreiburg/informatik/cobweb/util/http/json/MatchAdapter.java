@@ -0,0 +1,49 @@
+package de.unifreiburg.informatik.cobweb.util.http.json;
+
+import java.io.IOException;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import de.unifreiburg.informatik.cobweb.searching.name.server.model.Match;
+
+/**
+ * Type adapter which encodes and decodes {@link Match} without using
+ * reflection.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+final class MatchAdapter extends AModelAdapter<Match> {
+  @Override
+  protected Match readModel(final JsonReader in) throws IOException {
+    long id = 0L;
+    String matchName = null;
+
+    in.beginObject();
+    for (String name = JsonCodecs.readNextName(in); name != null; name = JsonCodecs.readNextName(in)) {
+      switch (name) {
+        case "id":
+          id = in.nextLong();
+          break;
+        case "name":
+          matchName = in.nextString();
+          break;
+        default:
+          in.skipValue();
+          break;
+      }
+    }
+    in.endObject();
+    return new Match(id, matchName);
+  }
+
+  @Override
+  protected void writeModel(final JsonWriter out, final Match match) throws IOException {
+    out.beginObject();
+    out.name("id").value(match.getId());
+    if (match.getName() != null) {
+      out.name("name").value(match.getName());
+    }
+    out.endObject();
+  }
+}
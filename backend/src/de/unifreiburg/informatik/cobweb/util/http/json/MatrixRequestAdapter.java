@@ -0,0 +1,69 @@
+package de.unifreiburg.informatik.cobweb.util.http.json;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.Set;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.routing.server.model.MatrixRequest;
+
+/**
+ * Type adapter which encodes and decodes {@link MatrixRequest} without using
+ * reflection. Missing fields result in an incomplete request, see
+ * {@link MatrixRequest#isComplete()}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+final class MatrixRequestAdapter extends AModelAdapter<MatrixRequest> {
+  @Override
+  protected MatrixRequest readModel(final JsonReader in) throws IOException {
+    long depTime = 0L;
+    Set<ETransportationMode> modes = EnumSet.noneOf(ETransportationMode.class);
+    long[] sources = null;
+    long[] targets = null;
+
+    in.beginObject();
+    for (String name = JsonCodecs.readNextName(in); name != null; name = JsonCodecs.readNextName(in)) {
+      switch (name) {
+        case "depTime":
+          depTime = in.nextLong();
+          break;
+        case "modes":
+          modes = JsonCodecs.readModes(in);
+          break;
+        case "sources":
+          sources = JsonCodecs.readLongArray(in);
+          break;
+        case "targets":
+          targets = JsonCodecs.readLongArray(in);
+          break;
+        default:
+          in.skipValue();
+          break;
+      }
+    }
+    in.endObject();
+    return new MatrixRequest(sources, targets, depTime, modes);
+  }
+
+  @Override
+  protected void writeModel(final JsonWriter out, final MatrixRequest request) throws IOException {
+    out.beginObject();
+    out.name("depTime").value(request.getDepTime());
+    out.name("modes").beginArray();
+    for (final ETransportationMode mode : request.getModes()) {
+      out.value(mode.getValue());
+    }
+    out.endArray();
+    if (request.getSources() != null) {
+      JsonCodecs.writeLongArray(out.name("sources"), request.getSources());
+    }
+    if (request.getTargets() != null) {
+      JsonCodecs.writeLongArray(out.name("targets"), request.getTargets());
+    }
+    out.endObject();
+  }
+}
@@ -0,0 +1,80 @@
+package de.unifreiburg.informatik.cobweb.util.http.json;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import de.unifreiburg.informatik.cobweb.routing.server.model.MatrixResponse;
+
+/**
+ * Type adapter which encodes and decodes {@link MatrixResponse} without using
+ * reflection.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+final class MatrixResponseAdapter extends AModelAdapter<MatrixResponse> {
+  @Override
+  protected MatrixResponse readModel(final JsonReader in) throws IOException {
+    long compTime = 0L;
+    long[][] durations = null;
+    long[] sources = null;
+    long[] targets = null;
+    long time = 0L;
+
+    in.beginObject();
+    for (String name = JsonCodecs.readNextName(in); name != null; name = JsonCodecs.readNextName(in)) {
+      switch (name) {
+        case "compTime":
+          compTime = in.nextLong();
+          break;
+        case "durations":
+          final List<long[]> rows = new ArrayList<>();
+          in.beginArray();
+          while (in.hasNext()) {
+            rows.add(JsonCodecs.readLongArray(in));
+          }
+          in.endArray();
+          durations = rows.toArray(new long[rows.size()][]);
+          break;
+        case "sources":
+          sources = JsonCodecs.readLongArray(in);
+          break;
+        case "targets":
+          targets = JsonCodecs.readLongArray(in);
+          break;
+        case "time":
+          time = in.nextLong();
+          break;
+        default:
+          in.skipValue();
+          break;
+      }
+    }
+    in.endObject();
+    return new MatrixResponse(time, compTime, sources, targets, durations);
+  }
+
+  @Override
+  protected void writeModel(final JsonWriter out, final MatrixResponse response) throws IOException {
+    out.beginObject();
+    out.name("compTime").value(response.getCompTime());
+    if (response.getDurations() != null) {
+      out.name("durations").beginArray();
+      for (final long[] row : response.getDurations()) {
+        JsonCodecs.writeLongArray(out, row);
+      }
+      out.endArray();
+    }
+    if (response.getSources() != null) {
+      JsonCodecs.writeLongArray(out.name("sources"), response.getSources());
+    }
+    if (response.getTargets() != null) {
+      JsonCodecs.writeLongArray(out.name("targets"), response.getTargets());
+    }
+    out.name("time").value(response.getTime());
+    out.endObject();
+  }
+}
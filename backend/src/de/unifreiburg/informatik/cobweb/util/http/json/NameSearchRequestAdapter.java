@@ -0,0 +1,49 @@
+package de.unifreiburg.informatik.cobweb.util.http.json;
+
+import java.io.IOException;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import de.unifreiburg.informatik.cobweb.searching.name.server.model.NameSearchRequest;
+
+/**
+ * Type adapter which encodes and decodes {@link NameSearchRequest} without
+ * using reflection.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+final class NameSearchRequestAdapter extends AModelAdapter<NameSearchRequest> {
+  @Override
+  protected NameSearchRequest readModel(final JsonReader in) throws IOException {
+    int amount = 0;
+    String searchName = null;
+
+    in.beginObject();
+    for (String name = JsonCodecs.readNextName(in); name != null; name = JsonCodecs.readNextName(in)) {
+      switch (name) {
+        case "amount":
+          amount = in.nextInt();
+          break;
+        case "name":
+          searchName = in.nextString();
+          break;
+        default:
+          in.skipValue();
+          break;
+      }
+    }
+    in.endObject();
+    return new NameSearchRequest(searchName, amount);
+  }
+
+  @Override
+  protected void writeModel(final JsonWriter out, final NameSearchRequest request) throws IOException {
+    out.beginObject();
+    out.name("amount").value(request.getAmount());
+    if (request.getName() != null) {
+      out.name("name").value(request.getName());
+    }
+    out.endObject();
+  }
+}
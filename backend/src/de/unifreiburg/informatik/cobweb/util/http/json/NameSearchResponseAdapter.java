@@ -0,0 +1,76 @@
+package de.unifreiburg.informatik.cobweb.util.http.json;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import de.unifreiburg.informatik.cobweb.searching.name.server.model.Match;
+import de.unifreiburg.informatik.cobweb.searching.name.server.model.NameSearchResponse;
+
+/**
+ * Type adapter which encodes and decodes {@link NameSearchResponse} without
+ * using reflection.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+final class NameSearchResponseAdapter extends AModelAdapter<NameSearchResponse> {
+  /**
+   * The adapter used for the matches.
+   */
+  private final TypeAdapter<Match> mMatchAdapter;
+
+  /**
+   * Creates a new name search response adapter.
+   *
+   * @param matchAdapter The adapter used for the matches
+   */
+  NameSearchResponseAdapter(final TypeAdapter<Match> matchAdapter) {
+    mMatchAdapter = matchAdapter;
+  }
+
+  @Override
+  protected NameSearchResponse readModel(final JsonReader in) throws IOException {
+    List<Match> matches = null;
+    long time = 0L;
+
+    in.beginObject();
+    for (String name = JsonCodecs.readNextName(in); name != null; name = JsonCodecs.readNextName(in)) {
+      switch (name) {
+        case "matches":
+          matches = new ArrayList<>();
+          in.beginArray();
+          while (in.hasNext()) {
+            matches.add(mMatchAdapter.read(in));
+          }
+          in.endArray();
+          break;
+        case "time":
+          time = in.nextLong();
+          break;
+        default:
+          in.skipValue();
+          break;
+      }
+    }
+    in.endObject();
+    return new NameSearchResponse(time, matches);
+  }
+
+  @Override
+  protected void writeModel(final JsonWriter out, final NameSearchResponse response) throws IOException {
+    out.beginObject();
+    if (response.getMatches() != null) {
+      out.name("matches").beginArray();
+      for (final Match match : response.getMatches()) {
+        mMatchAdapter.write(out, match);
+      }
+      out.endArray();
+    }
+    out.name("time").value(response.getTime());
+    out.endObject();
+  }
+}
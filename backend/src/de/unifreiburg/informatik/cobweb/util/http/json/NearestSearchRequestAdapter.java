@@ -0,0 +1,47 @@
+package de.unifreiburg.informatik.cobweb.util.http.json;
+
+import java.io.IOException;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import de.unifreiburg.informatik.cobweb.searching.nearest.server.model.NearestSearchRequest;
+
+/**
+ * Type adapter which encodes and decodes {@link NearestSearchRequest} without
+ * using reflection.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+final class NearestSearchRequestAdapter extends AModelAdapter<NearestSearchRequest> {
+  @Override
+  protected NearestSearchRequest readModel(final JsonReader in) throws IOException {
+    float latitude = 0.0F;
+    float longitude = 0.0F;
+
+    in.beginObject();
+    for (String name = JsonCodecs.readNextName(in); name != null; name = JsonCodecs.readNextName(in)) {
+      switch (name) {
+        case "latitude":
+          latitude = (float) in.nextDouble();
+          break;
+        case "longitude":
+          longitude = (float) in.nextDouble();
+          break;
+        default:
+          in.skipValue();
+          break;
+      }
+    }
+    in.endObject();
+    return new NearestSearchRequest(latitude, longitude);
+  }
+
+  @Override
+  protected void writeModel(final JsonWriter out, final NearestSearchRequest request) throws IOException {
+    out.beginObject();
+    JsonCodecs.writeFloat(out.name("latitude"), request.getLatitude());
+    JsonCodecs.writeFloat(out.name("longitude"), request.getLongitude());
+    out.endObject();
+  }
+}
@@ -0,0 +1,57 @@
+package de.unifreiburg.informatik.cobweb.util.http.json;
+
+import java.io.IOException;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import de.unifreiburg.informatik.cobweb.searching.nearest.server.model.NearestSearchResponse;
+
+/**
+ * Type adapter which encodes and decodes {@link NearestSearchResponse} without
+ * using reflection.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+final class NearestSearchResponseAdapter extends AModelAdapter<NearestSearchResponse> {
+  @Override
+  protected NearestSearchResponse readModel(final JsonReader in) throws IOException {
+    long id = 0L;
+    float latitude = 0.0F;
+    float longitude = 0.0F;
+    long time = 0L;
+
+    in.beginObject();
+    for (String name = JsonCodecs.readNextName(in); name != null; name = JsonCodecs.readNextName(in)) {
+      switch (name) {
+        case "id":
+          id = in.nextLong();
+          break;
+        case "latitude":
+          latitude = (float) in.nextDouble();
+          break;
+        case "longitude":
+          longitude = (float) in.nextDouble();
+          break;
+        case "time":
+          time = in.nextLong();
+          break;
+        default:
+          in.skipValue();
+          break;
+      }
+    }
+    in.endObject();
+    return new NearestSearchResponse(time, id, latitude, longitude);
+  }
+
+  @Override
+  protected void writeModel(final JsonWriter out, final NearestSearchResponse response) throws IOException {
+    out.beginObject();
+    out.name("id").value(response.getId());
+    JsonCodecs.writeFloat(out.name("latitude"), response.getLatitude());
+    JsonCodecs.writeFloat(out.name("longitude"), response.getLongitude());
+    out.name("time").value(response.getTime());
+    out.endObject();
+  }
+}
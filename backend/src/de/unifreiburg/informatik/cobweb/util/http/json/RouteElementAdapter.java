@@ -0,0 +1,74 @@
+package de.unifreiburg.informatik.cobweb.util.http.json;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.routing.server.model.ERouteElementType;
+import de.unifreiburg.informatik.cobweb.routing.server.model.RouteElement;
+
+/**
+ * Type adapter which encodes and decodes {@link RouteElement} without using
+ * reflection.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+final class RouteElementAdapter extends AModelAdapter<RouteElement> {
+  @Override
+  protected RouteElement readModel(final JsonReader in) throws IOException {
+    List<float[]> geom = null;
+    int modeValue = 0;
+    String elementName = null;
+    int typeValue = 0;
+
+    in.beginObject();
+    for (String name = JsonCodecs.readNextName(in); name != null; name = JsonCodecs.readNextName(in)) {
+      switch (name) {
+        case "geom":
+          geom = JsonCodecs.readCoordinates(in);
+          break;
+        case "mode":
+          modeValue = in.nextInt();
+          break;
+        case "name":
+          elementName = in.nextString();
+          break;
+        case "type":
+          typeValue = in.nextInt();
+          break;
+        default:
+          in.skipValue();
+          break;
+      }
+    }
+    in.endObject();
+
+    final ETransportationMode mode = ETransportationMode.fromValue(modeValue);
+    if (mode == null) {
+      throw new JsonSyntaxException("Unknown transportation mode: " + modeValue);
+    }
+    final ERouteElementType type = ERouteElementType.fromValue(typeValue);
+    if (type == null) {
+      throw new JsonSyntaxException("Unknown route element type: " + typeValue);
+    }
+    return new RouteElement(type, mode, elementName, geom);
+  }
+
+  @Override
+  protected void writeModel(final JsonWriter out, final RouteElement element) throws IOException {
+    out.beginObject();
+    if (element.getGeom() != null) {
+      JsonCodecs.writeCoordinates(out.name("geom"), element.getGeom());
+    }
+    out.name("mode").value(element.getMode().getValue());
+    if (element.getName() != null) {
+      out.name("name").value(element.getName());
+    }
+    out.name("type").value(element.getType().getValue());
+    out.endObject();
+  }
+}
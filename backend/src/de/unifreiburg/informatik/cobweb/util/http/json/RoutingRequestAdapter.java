@@ -0,0 +1,78 @@
+package de.unifreiburg.informatik.cobweb.util.http.json;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.Set;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.routing.server.model.EGeometryFormat;
+import de.unifreiburg.informatik.cobweb.routing.server.model.RoutingRequest;
+
+/**
+ * Type adapter which encodes and decodes {@link RoutingRequest} without using
+ * reflection. A request without transportation modes is rejected.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+final class RoutingRequestAdapter extends AModelAdapter<RoutingRequest> {
+  @Override
+  protected RoutingRequest readModel(final JsonReader in) throws IOException {
+    long depTime = 0L;
+    long from = 0L;
+    EGeometryFormat geometryFormat = EGeometryFormat.COORDINATES;
+    Set<ETransportationMode> modes = EnumSet.noneOf(ETransportationMode.class);
+    long to = 0L;
+
+    in.beginObject();
+    for (String name = JsonCodecs.readNextName(in); name != null; name = JsonCodecs.readNextName(in)) {
+      switch (name) {
+        case "depTime":
+          depTime = in.nextLong();
+          break;
+        case "from":
+          from = in.nextLong();
+          break;
+        case "geometryFormat":
+          final EGeometryFormat format = EGeometryFormat.fromValue(in.nextInt());
+          if (format != null) {
+            geometryFormat = format;
+          }
+          break;
+        case "modes":
+          modes = JsonCodecs.readModes(in);
+          break;
+        case "to":
+          to = in.nextLong();
+          break;
+        default:
+          in.skipValue();
+          break;
+      }
+    }
+    in.endObject();
+
+    if (modes.isEmpty()) {
+      throw new JsonSyntaxException("The request contains no transportation modes");
+    }
+    return new RoutingRequest(from, to, depTime, modes, geometryFormat);
+  }
+
+  @Override
+  protected void writeModel(final JsonWriter out, final RoutingRequest request) throws IOException {
+    out.beginObject();
+    out.name("depTime").value(request.getDepTime());
+    out.name("from").value(request.getFrom());
+    out.name("geometryFormat").value(request.getGeometryFormat().getValue());
+    out.name("modes").beginArray();
+    for (final ETransportationMode mode : request.getModes()) {
+      out.value(mode.getValue());
+    }
+    out.endArray();
+    out.name("to").value(request.getTo());
+    out.endObject();
+  }
+}
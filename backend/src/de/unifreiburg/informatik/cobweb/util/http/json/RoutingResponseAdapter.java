@@ -0,0 +1,91 @@
+package de.unifreiburg.informatik.cobweb.util.http.json;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import de.unifreiburg.informatik.cobweb.routing.server.model.Journey;
+import de.unifreiburg.informatik.cobweb.routing.server.model.RoutingResponse;
+
+/**
+ * Type adapter which encodes and decodes {@link RoutingResponse} without using
+ * reflection.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+final class RoutingResponseAdapter extends AModelAdapter<RoutingResponse> {
+  /**
+   * The adapter used for the journeys.
+   */
+  private final TypeAdapter<Journey> mJourneyAdapter;
+
+  /**
+   * Creates a new routing response adapter.
+   *
+   * @param journeyAdapter The adapter used for the journeys
+   */
+  RoutingResponseAdapter(final TypeAdapter<Journey> journeyAdapter) {
+    mJourneyAdapter = journeyAdapter;
+  }
+
+  @Override
+  protected RoutingResponse readModel(final JsonReader in) throws IOException {
+    long compTime = 0L;
+    long from = 0L;
+    List<Journey> journeys = null;
+    long time = 0L;
+    long to = 0L;
+
+    in.beginObject();
+    for (String name = JsonCodecs.readNextName(in); name != null; name = JsonCodecs.readNextName(in)) {
+      switch (name) {
+        case "compTime":
+          compTime = in.nextLong();
+          break;
+        case "from":
+          from = in.nextLong();
+          break;
+        case "journeys":
+          journeys = new ArrayList<>();
+          in.beginArray();
+          while (in.hasNext()) {
+            journeys.add(mJourneyAdapter.read(in));
+          }
+          in.endArray();
+          break;
+        case "time":
+          time = in.nextLong();
+          break;
+        case "to":
+          to = in.nextLong();
+          break;
+        default:
+          in.skipValue();
+          break;
+      }
+    }
+    in.endObject();
+    return new RoutingResponse(time, compTime, from, to, journeys);
+  }
+
+  @Override
+  protected void writeModel(final JsonWriter out, final RoutingResponse response) throws IOException {
+    out.beginObject();
+    out.name("compTime").value(response.getCompTime());
+    out.name("from").value(response.getFrom());
+    if (response.getJourneys() != null) {
+      out.name("journeys").beginArray();
+      for (final Journey journey : response.getJourneys()) {
+        mJourneyAdapter.write(out, journey);
+      }
+      out.endArray();
+    }
+    out.name("time").value(response.getTime());
+    out.name("to").value(response.getTo());
+    out.endObject();
+  }
+}
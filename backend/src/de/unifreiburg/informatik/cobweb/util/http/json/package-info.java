@@ -0,0 +1,8 @@
+/**
+ * The package contains the JSON codecs of the REST APIs. Like type adapters
+ * which encode and decode the request and response models without using
+ * reflection and a shared GSON object which uses them.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+package de.unifreiburg.informatik.cobweb.util.http.json;
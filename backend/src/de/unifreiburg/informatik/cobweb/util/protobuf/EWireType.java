@@ -0,0 +1,67 @@
+package de.unifreiburg.informatik.cobweb.util.protobuf;
+
+/**
+ * Wire types of fields in the protocol buffers wire format.<br>
+ * <br>
+ * A wire type has a corresponding value which is stored in the lowest three
+ * bits of the tag of a field.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public enum EWireType {
+  /**
+   * A fixed size value of <code>4</code> bytes, like a <code>float</code>.
+   */
+  FIXED32(5),
+  /**
+   * A fixed size value of <code>8</code> bytes, like a <code>double</code>.
+   */
+  FIXED64(1),
+  /**
+   * A value prefixed by its length in bytes, like a string, a nested message
+   * or packed repeated values.
+   */
+  LENGTH_DELIMITED(2),
+  /**
+   * A variable length integer, like an <code>int64</code>.
+   */
+  VARINT(0);
+
+  /**
+   * Gets the wire type that corresponds to the given value.
+   *
+   * @param value The value to get the wire type from
+   * @return The corresponding wire type or <code>null</code> if not present
+   */
+  public static EWireType fromValue(final int value) {
+    for (final EWireType type : EWireType.values()) {
+      if (type.getValue() == value) {
+        return type;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * The value that corresponds to the wire type.
+   */
+  private final int mValue;
+
+  /**
+   * Creates a new wire type with the given corresponding value.
+   *
+   * @param value The value that corresponds to this wire type
+   */
+  private EWireType(final int value) {
+    mValue = value;
+  }
+
+  /**
+   * Gets the value this wire type corresponds to.
+   *
+   * @return The value this wire type corresponds to
+   */
+  public int getValue() {
+    return mValue;
+  }
+}
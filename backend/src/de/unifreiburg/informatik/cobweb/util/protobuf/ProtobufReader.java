@@ -0,0 +1,364 @@
+package de.unifreiburg.informatik.cobweb.util.protobuf;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reader which decodes a message in the wire format of protocol buffers.<br>
+ * <br>
+ * Fields are read one after another. Use {@link #hasRemaining()} and
+ * {@link #readTag()} to iterate the fields, {@link #getField()} and
+ * {@link #getWireType()} to identify the current field and then the read
+ * method matching its type. Unknown fields are skipped using
+ * {@link #skipField()}. Nested messages are read by a separate reader, see
+ * {@link #readMessage()}.<br>
+ * <br>
+ * Malformed messages are reported by throwing an
+ * {@link IllegalArgumentException}. The reader is not thread-safe.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class ProtobufReader {
+  /**
+   * The maximal amount of bytes of a variable length integer.
+   */
+  private static final int MAX_VARINT_SIZE = 10;
+  /**
+   * The amount of bits used for the wire type in a tag.
+   */
+  private static final int TAG_TYPE_BITS = 3;
+  /**
+   * Mask to get the wire type out of a tag.
+   */
+  private static final int TAG_TYPE_MASK = 0x7;
+
+  /**
+   * The data containing the message.
+   */
+  private final byte[] mData;
+  /**
+   * The number of the current field.
+   */
+  private int mField;
+  /**
+   * The position after the last byte of the message.
+   */
+  private final int mLimit;
+  /**
+   * The position of the next byte to read.
+   */
+  private int mPosition;
+  /**
+   * The wire type of the current field.
+   */
+  private EWireType mWireType;
+
+  /**
+   * Creates a new reader which decodes the given message.
+   *
+   * @param data The encoded message
+   */
+  public ProtobufReader(final byte[] data) {
+    this(data, 0, data.length);
+  }
+
+  /**
+   * Creates a new reader which decodes the message contained in the given
+   * range of the data.
+   *
+   * @param data   The data containing the encoded message
+   * @param offset The position of the first byte of the message
+   * @param length The amount of bytes of the message
+   */
+  private ProtobufReader(final byte[] data, final int offset, final int length) {
+    mData = data;
+    mPosition = offset;
+    mLimit = offset + length;
+  }
+
+  /**
+   * Gets the number of the current field, i.e. the field whose tag was read
+   * last.
+   *
+   * @return The number of the current field
+   */
+  public int getField() {
+    return mField;
+  }
+
+  /**
+   * Gets the wire type of the current field, i.e. the field whose tag was read
+   * last.
+   *
+   * @return The wire type of the current field
+   */
+  public EWireType getWireType() {
+    return mWireType;
+  }
+
+  /**
+   * Whether the message contains further fields.
+   *
+   * @return <code>True</code> if further fields can be read,
+   *         <code>false</code> otherwise
+   */
+  public boolean hasRemaining() {
+    return mPosition < mLimit;
+  }
+
+  /**
+   * Reads the values of the current field as packed repeated
+   * <code>float</code>, latitude and longitude alternating.
+   *
+   * @return A list of latitude and longitude coordinates. Thus, the size of
+   *         the arrays is <code>2</code>.
+   * @throws IllegalArgumentException If the field is not length delimited, the
+   *                                  amount of values is odd or the message is
+   *                                  malformed
+   */
+  public List<float[]> readCoordinates() throws IllegalArgumentException {
+    final int length = readLength();
+    final int coordinateSize = 2 * Float.BYTES;
+    if (length % coordinateSize != 0) {
+      throw new IllegalArgumentException("Field " + mField + " contains an incomplete coordinate");
+    }
+    final List<float[]> coordinates = new ArrayList<>(length / coordinateSize);
+    for (int i = 0; i < length; i += coordinateSize) {
+      final float latitude = Float.intBitsToFloat(readRawFixed32());
+      final float longitude = Float.intBitsToFloat(readRawFixed32());
+      coordinates.add(new float[] { latitude, longitude });
+    }
+    return coordinates;
+  }
+
+  /**
+   * Reads the value of the current field as <code>float</code>.
+   *
+   * @return The read value
+   * @throws IllegalArgumentException If the field is no <code>float</code> or
+   *                                  the message is malformed
+   */
+  public float readFloat() throws IllegalArgumentException {
+    ensureWireType(EWireType.FIXED32);
+    return Float.intBitsToFloat(readRawFixed32());
+  }
+
+  /**
+   * Reads the value of the current field as <code>int32</code>.
+   *
+   * @return The read value
+   * @throws IllegalArgumentException If the field is no integer or the message
+   *                                  is malformed
+   */
+  public int readInt32() throws IllegalArgumentException {
+    return (int) readInt64();
+  }
+
+  /**
+   * Reads the value of the current field as <code>int64</code>.
+   *
+   * @return The read value
+   * @throws IllegalArgumentException If the field is no integer or the message
+   *                                  is malformed
+   */
+  public long readInt64() throws IllegalArgumentException {
+    ensureWireType(EWireType.VARINT);
+    return readRawVarint();
+  }
+
+  /**
+   * Reads the value of the current field as nested message.
+   *
+   * @return A reader which decodes the nested message
+   * @throws IllegalArgumentException If the field is no message or the message
+   *                                  is malformed
+   */
+  public ProtobufReader readMessage() throws IllegalArgumentException {
+    final int length = readLength();
+    final ProtobufReader message = new ProtobufReader(mData, mPosition, length);
+    mPosition += length;
+    return message;
+  }
+
+  /**
+   * Reads the values of the current field as repeated <code>int32</code>. The
+   * values can either be packed or, as single value, unpacked.
+   *
+   * @return The read values
+   * @throws IllegalArgumentException If the field is no integer or the message
+   *                                  is malformed
+   */
+  public int[] readPackedInts() throws IllegalArgumentException {
+    if (mWireType == EWireType.VARINT) {
+      return new int[] { readInt32() };
+    }
+    final int length = readLength();
+    final int end = mPosition + length;
+
+    // Every value needs at least one byte
+    final int[] values = new int[length];
+    int amount = 0;
+    while (mPosition < end) {
+      values[amount] = (int) readRawVarint();
+      amount++;
+    }
+    if (mPosition != end) {
+      throw new IllegalArgumentException("Packed values exceed their length");
+    }
+    final int[] result = new int[amount];
+    System.arraycopy(values, 0, result, 0, amount);
+    return result;
+  }
+
+  /**
+   * Reads the value of the current field as <code>sint32</code>, which uses
+   * the zigzag encoding.
+   *
+   * @return The read value
+   * @throws IllegalArgumentException If the field is no integer or the message
+   *                                  is malformed
+   */
+  public int readSInt32() throws IllegalArgumentException {
+    final int value = readInt32();
+    return value >>> 1 ^ -(value & 1);
+  }
+
+  /**
+   * Reads the value of the current field as <code>string</code>, decoded in
+   * <code>UTF-8</code>.
+   *
+   * @return The read text
+   * @throws IllegalArgumentException If the field is no string or the message
+   *                                  is malformed
+   */
+  public String readString() throws IllegalArgumentException {
+    final int length = readLength();
+    final String text = new String(mData, mPosition, length, StandardCharsets.UTF_8);
+    mPosition += length;
+    return text;
+  }
+
+  /**
+   * Reads the tag of the next field. Afterwards its number and wire type can
+   * be accessed using {@link #getField()} and {@link #getWireType()}.
+   *
+   * @return The number of the field
+   * @throws IllegalArgumentException If the message is malformed
+   */
+  public int readTag() throws IllegalArgumentException {
+    final long tag = readRawVarint();
+    mWireType = EWireType.fromValue((int) (tag & TAG_TYPE_MASK));
+    if (mWireType == null) {
+      throw new IllegalArgumentException("Unsupported wire type: " + (tag & TAG_TYPE_MASK));
+    }
+    mField = (int) (tag >>> TAG_TYPE_BITS);
+    return mField;
+  }
+
+  /**
+   * Skips the value of the current field, for example because the field is
+   * unknown.
+   *
+   * @throws IllegalArgumentException If the message is malformed
+   */
+  public void skipField() throws IllegalArgumentException {
+    switch (mWireType) {
+      case VARINT:
+        readRawVarint();
+        break;
+      case FIXED32:
+        skipRaw(Integer.BYTES);
+        break;
+      case FIXED64:
+        skipRaw(Long.BYTES);
+        break;
+      case LENGTH_DELIMITED:
+        final int length = readLength();
+        mPosition += length;
+        break;
+      default:
+        throw new AssertionError();
+    }
+  }
+
+  /**
+   * Ensures that the current field has the given wire type.
+   *
+   * @param wireType The expected wire type
+   * @throws IllegalArgumentException If the current field has a different wire
+   *                                  type
+   */
+  private void ensureWireType(final EWireType wireType) throws IllegalArgumentException {
+    if (mWireType != wireType) {
+      throw new IllegalArgumentException(
+          "Field " + mField + " has wire type " + mWireType + " but " + wireType + " was expected");
+    }
+  }
+
+  /**
+   * Reads the length of the current length delimited field and ensures that
+   * the message contains that many bytes.
+   *
+   * @return The length of the field in bytes
+   * @throws IllegalArgumentException If the field is not length delimited or
+   *                                  the message is malformed
+   */
+  private int readLength() throws IllegalArgumentException {
+    ensureWireType(EWireType.LENGTH_DELIMITED);
+    final long length = readRawVarint();
+    if (length < 0 || length > mLimit - mPosition) {
+      throw new IllegalArgumentException("Field " + mField + " exceeds the message");
+    }
+    return (int) length;
+  }
+
+  /**
+   * Reads <code>4</code> bytes in little-endian order.
+   *
+   * @return The read value
+   * @throws IllegalArgumentException If the message ends before
+   */
+  private int readRawFixed32() throws IllegalArgumentException {
+    skipRaw(Integer.BYTES);
+    final int start = mPosition - Integer.BYTES;
+    return mData[start] & 0xFF | (mData[start + 1] & 0xFF) << 8 | (mData[start + 2] & 0xFF) << 16
+        | (mData[start + 3] & 0xFF) << 24;
+  }
+
+  /**
+   * Reads a variable length integer.
+   *
+   * @return The read value
+   * @throws IllegalArgumentException If the message ends before or the value
+   *                                  is too long
+   */
+  private long readRawVarint() throws IllegalArgumentException {
+    long result = 0;
+    for (int i = 0; i < MAX_VARINT_SIZE; i++) {
+      if (mPosition >= mLimit) {
+        throw new IllegalArgumentException("The message ends within a value");
+      }
+      final byte value = mData[mPosition];
+      mPosition++;
+      result |= (long) (value & 0x7F) << 7 * i;
+      if ((value & 0x80) == 0) {
+        return result;
+      }
+    }
+    throw new IllegalArgumentException("Malformed variable length integer");
+  }
+
+  /**
+   * Skips the given amount of bytes.
+   *
+   * @param amount The amount of bytes to skip
+   * @throws IllegalArgumentException If the message ends before
+   */
+  private void skipRaw(final int amount) throws IllegalArgumentException {
+    if (amount > mLimit - mPosition) {
+      throw new IllegalArgumentException("The message ends within a value");
+    }
+    mPosition += amount;
+  }
+}
@@ -0,0 +1,265 @@
+package de.unifreiburg.informatik.cobweb.util.protobuf;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writer which encodes a message in the wire format of protocol buffers.<br>
+ * <br>
+ * Fields are written one after another into an internal growing byte array,
+ * nested messages are encoded by a separate writer first and then written
+ * using {@link #writeMessage(int, ProtobufWriter)}. The resulting message can
+ * be obtained by {@link #writeTo(OutputStream)} or {@link #toByteArray()}. A
+ * writer can be reused after calling {@link #reset()}.<br>
+ * <br>
+ * The writer is not thread-safe.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class ProtobufWriter {
+  /**
+   * The initial capacity of the buffer in bytes.
+   */
+  private static final int INITIAL_CAPACITY = 64;
+  /**
+   * The amount of bits used for the wire type in a tag.
+   */
+  private static final int TAG_TYPE_BITS = 3;
+
+  /**
+   * Gets the amount of bytes the given value needs when encoded as variable
+   * length integer.
+   *
+   * @param value The value to get the size of
+   * @return The size of the encoded value in bytes
+   */
+  private static int getVarintSize(final long value) {
+    int size = 1;
+    long remaining = value >>> 7;
+    while (remaining != 0) {
+      size++;
+      remaining >>>= 7;
+    }
+    return size;
+  }
+
+  /**
+   * The buffer containing the encoded message.
+   */
+  private byte[] mBuffer;
+  /**
+   * The amount of bytes of the encoded message.
+   */
+  private int mSize;
+
+  /**
+   * Creates a new writer with an empty message.
+   */
+  public ProtobufWriter() {
+    mBuffer = new byte[INITIAL_CAPACITY];
+  }
+
+  /**
+   * Removes the encoded message such that the writer can be reused. The
+   * allocated buffer is kept.
+   */
+  public void reset() {
+    mSize = 0;
+  }
+
+  /**
+   * Gets the amount of bytes of the encoded message.
+   *
+   * @return The size of the message in bytes
+   */
+  public int size() {
+    return mSize;
+  }
+
+  /**
+   * Gets a copy of the encoded message.
+   *
+   * @return The encoded message
+   */
+  public byte[] toByteArray() {
+    return Arrays.copyOf(mBuffer, mSize);
+  }
+
+  /**
+   * Writes the given coordinates as packed repeated <code>float</code> field,
+   * latitude and longitude alternating.
+   *
+   * @param field       The number of the field
+   * @param coordinates A list of latitude and longitude coordinates. Thus, the
+   *                    size of the arrays is <code>2</code>.
+   */
+  public void writeCoordinates(final int field, final List<float[]> coordinates) {
+    final int length = coordinates.size() * 2 * Float.BYTES;
+    writeTag(field, EWireType.LENGTH_DELIMITED);
+    writeRawVarint(length);
+    ensureCapacity(length);
+    for (final float[] coordinate : coordinates) {
+      writeRawFixed32(Float.floatToIntBits(coordinate[0]));
+      writeRawFixed32(Float.floatToIntBits(coordinate[1]));
+    }
+  }
+
+  /**
+   * Writes the given value as <code>float</code> field.
+   *
+   * @param field The number of the field
+   * @param value The value to write
+   */
+  public void writeFloat(final int field, final float value) {
+    writeTag(field, EWireType.FIXED32);
+    writeRawFixed32(Float.floatToIntBits(value));
+  }
+
+  /**
+   * Writes the given value as <code>int64</code> field. Also used for
+   * non-negative <code>int32</code> fields.
+   *
+   * @param field The number of the field
+   * @param value The value to write
+   */
+  public void writeInt64(final int field, final long value) {
+    writeTag(field, EWireType.VARINT);
+    writeRawVarint(value);
+  }
+
+  /**
+   * Writes the given message as nested message field.
+   *
+   * @param field   The number of the field
+   * @param message The writer containing the encoded message to write
+   */
+  public void writeMessage(final int field, final ProtobufWriter message) {
+    writeTag(field, EWireType.LENGTH_DELIMITED);
+    writeRawVarint(message.mSize);
+    writeRawBytes(message.mBuffer, 0, message.mSize);
+  }
+
+  /**
+   * Writes the given values as packed repeated <code>int32</code> field.
+   *
+   * @param field  The number of the field
+   * @param values The values to write, must not be negative
+   */
+  public void writePackedInts(final int field, final int[] values) {
+    int length = 0;
+    for (final int value : values) {
+      length += ProtobufWriter.getVarintSize(value);
+    }
+    writeTag(field, EWireType.LENGTH_DELIMITED);
+    writeRawVarint(length);
+    for (final int value : values) {
+      writeRawVarint(value);
+    }
+  }
+
+  /**
+   * Writes the given value as <code>sint32</code> field, which uses the zigzag
+   * encoding to also encode negative values efficiently.
+   *
+   * @param field The number of the field
+   * @param value The value to write
+   */
+  public void writeSInt32(final int field, final int value) {
+    writeTag(field, EWireType.VARINT);
+    writeRawVarint(Integer.toUnsignedLong(value << 1 ^ value >> 31));
+  }
+
+  /**
+   * Writes the given text as <code>string</code> field, encoded in
+   * <code>UTF-8</code>.
+   *
+   * @param field The number of the field
+   * @param text  The text to write
+   */
+  public void writeString(final int field, final String text) {
+    final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+    writeTag(field, EWireType.LENGTH_DELIMITED);
+    writeRawVarint(bytes.length);
+    writeRawBytes(bytes, 0, bytes.length);
+  }
+
+  /**
+   * Writes the encoded message to the given stream.
+   *
+   * @param output The stream to write to
+   * @throws IOException If an I/O exception occurred while writing
+   */
+  public void writeTo(final OutputStream output) throws IOException {
+    output.write(mBuffer, 0, mSize);
+  }
+
+  /**
+   * Ensures that the buffer can hold the given amount of additional bytes.
+   *
+   * @param amount The amount of additional bytes
+   */
+  private void ensureCapacity(final int amount) {
+    if (mSize + amount <= mBuffer.length) {
+      return;
+    }
+    mBuffer = Arrays.copyOf(mBuffer, Math.max(mBuffer.length * 2, mSize + amount));
+  }
+
+  /**
+   * Writes the given bytes without any prefix.
+   *
+   * @param bytes  The bytes to write
+   * @param offset The offset of the first byte to write
+   * @param length The amount of bytes to write
+   */
+  private void writeRawBytes(final byte[] bytes, final int offset, final int length) {
+    ensureCapacity(length);
+    System.arraycopy(bytes, offset, mBuffer, mSize, length);
+    mSize += length;
+  }
+
+  /**
+   * Writes the given value as <code>4</code> bytes in little-endian order.
+   *
+   * @param value The value to write
+   */
+  private void writeRawFixed32(final int value) {
+    ensureCapacity(Integer.BYTES);
+    mBuffer[mSize] = (byte) value;
+    mBuffer[mSize + 1] = (byte) (value >>> 8);
+    mBuffer[mSize + 2] = (byte) (value >>> 16);
+    mBuffer[mSize + 3] = (byte) (value >>> 24);
+    mSize += Integer.BYTES;
+  }
+
+  /**
+   * Writes the given value as variable length integer. Every byte holds seven
+   * bits of the value, the highest bit marks whether more bytes follow.
+   *
+   * @param value The value to write
+   */
+  private void writeRawVarint(final long value) {
+    ensureCapacity(ProtobufWriter.getVarintSize(value));
+    long remaining = value;
+    while ((remaining & ~0x7FL) != 0) {
+      mBuffer[mSize] = (byte) (remaining & 0x7F | 0x80);
+      mSize++;
+      remaining >>>= 7;
+    }
+    mBuffer[mSize] = (byte) remaining;
+    mSize++;
+  }
+
+  /**
+   * Writes the tag of a field.
+   *
+   * @param field    The number of the field
+   * @param wireType The wire type of the field
+   */
+  private void writeTag(final int field, final EWireType wireType) {
+    writeRawVarint(field << TAG_TYPE_BITS | wireType.getValue());
+  }
+}
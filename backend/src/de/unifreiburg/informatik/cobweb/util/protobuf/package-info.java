@@ -0,0 +1,8 @@
+/**
+ * The package contains classes used to encode and decode messages in the wire
+ * format of protocol buffers. Like a writer and a reader working on byte
+ * arrays without using reflection.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+package de.unifreiburg.informatik.cobweb.util.protobuf;
@@ -0,0 +1,161 @@
+package de.unifreiburg.informatik.cobweb.db;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test for the class {@link BatchInserter}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class BatchInserterTest {
+  /**
+   * The query used for testing.
+   */
+  private static final String QUERY = "INSERT INTO test (a, b) VALUES (?, ?)";
+
+  /**
+   * The connection used for testing.
+   */
+  private PooledConnection mConnection;
+  /**
+   * The values of all executed rows, in the order they were executed.
+   */
+  private List<Object> mExecuted;
+  /**
+   * The amount of executed batches.
+   */
+  private int mExecutedBatches;
+  /**
+   * The queries of all prepared statements.
+   */
+  private List<String> mPrepared;
+
+  /**
+   * Setups a connection for testing which records the executed rows.
+   *
+   * @throws SQLException If the connection could not be acquired
+   */
+  @Before
+  public void setUp() throws SQLException {
+    mExecuted = new ArrayList<>();
+    mPrepared = new ArrayList<>();
+    mExecutedBatches = 0;
+    final Connection connection = (Connection) Proxy.newProxyInstance(BatchInserterTest.class.getClassLoader(),
+        new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "getAutoCommit":
+              return true;
+            case "isClosed":
+              return false;
+            case "prepareStatement":
+              mPrepared.add((String) args[0]);
+              return createStatement();
+            default:
+              return null;
+          }
+        });
+    mConnection = new ConnectionPool(() -> connection, 1, 50L, 4).acquire();
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.BatchInserter#addRow(Object...)}.
+   *
+   * @throws SQLException If an SQL exception occurred
+   */
+  @Test
+  public void testAddRow() throws SQLException {
+    final BatchInserter inserter = new BatchInserter(mConnection, QUERY, DatabaseUtil.TYPES_INSERT_MAPPING, 2, 4);
+    inserter.addRow(1, 10L);
+    Assert.assertTrue(mPrepared.isEmpty());
+
+    // The first statement is full
+    inserter.addRow(2, null);
+    Assert.assertEquals(Arrays.asList(DatabaseUtil.createMultiRowInsert(QUERY, 2)), mPrepared);
+    Assert.assertEquals(0, mExecutedBatches);
+
+    // The batch is full
+    inserter.addRow(3, 30L);
+    inserter.addRow(4, 40L);
+    Assert.assertEquals(1, mExecutedBatches);
+    Assert.assertEquals(Arrays.asList(1, 10L, 2, null, 3, 30L, 4, 40L), mExecuted);
+    Assert.assertEquals(4L, inserter.getInsertedRows());
+    Assert.assertEquals(1, mPrepared.size());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.BatchInserter#flush()}.
+   *
+   * @throws SQLException If an SQL exception occurred
+   */
+  @Test
+  public void testFlush() throws SQLException {
+    final BatchInserter inserter = new BatchInserter(mConnection, QUERY, DatabaseUtil.TYPES_INSERT_MAPPING, 2, 10);
+    inserter.flush();
+    Assert.assertEquals(0L, inserter.getInsertedRows());
+
+    inserter.addRow(1, 10L);
+    inserter.addRow(2, 20L);
+    inserter.addRow(3, 30L);
+    inserter.flush();
+    // The remaining row is inserted by its own statement
+    Assert.assertEquals(
+        Arrays.asList(DatabaseUtil.createMultiRowInsert(QUERY, 2), DatabaseUtil.createMultiRowInsert(QUERY, 1)),
+        mPrepared);
+    Assert.assertEquals(Arrays.asList(1, 10L, 2, 20L, 3, 30L), mExecuted);
+    Assert.assertEquals(3L, inserter.getInsertedRows());
+  }
+
+  /**
+   * Creates a prepared statement which records bound values and adds them to
+   * {@link #mExecuted} once they are executed.
+   *
+   * @return The created statement
+   */
+  private PreparedStatement createStatement() {
+    final List<Object> bound = new ArrayList<>();
+    final List<Object> batch = new ArrayList<>();
+    return (PreparedStatement) Proxy.newProxyInstance(BatchInserterTest.class.getClassLoader(),
+        new Class<?>[] { PreparedStatement.class }, (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "setObject":
+              bound.add(args[1]);
+              return null;
+            case "setNull":
+              bound.add(null);
+              return null;
+            case "addBatch":
+              batch.addAll(bound);
+              bound.clear();
+              return null;
+            case "clearBatch":
+              batch.clear();
+              return null;
+            case "executeBatch":
+              mExecutedBatches++;
+              mExecuted.addAll(batch);
+              batch.clear();
+              return new int[0];
+            case "executeUpdate":
+              mExecuted.addAll(bound);
+              bound.clear();
+              return 1;
+            case "isClosed":
+              return false;
+            default:
+              return null;
+          }
+        });
+  }
+}
@@ -0,0 +1,222 @@
+package de.unifreiburg.informatik.cobweb.db;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import org.eclipse.collections.api.map.primitive.IntLongMap;
+import org.eclipse.collections.api.map.primitive.LongObjectMap;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.topobyte.osm4j.core.model.iface.OsmEntity;
+import de.topobyte.osm4j.core.model.impl.Node;
+import de.topobyte.osm4j.core.model.impl.Tag;
+import de.unifreiburg.informatik.cobweb.routing.parsing.osm.IdMapping;
+
+/**
+ * Test for the class {@link CachingDatabase}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class CachingDatabaseTest {
+  /**
+   * Offers the test data to the given database.
+   *
+   * @param database The database to fill
+   */
+  private static void fill(final CachingDatabase database) {
+    final OsmEntity namedNode = new Node(1L, 1.0, 1.0, Collections.singletonList(new Tag("name", "Wall street 2")));
+    final OsmEntity unnamedNode = new Node(2L, 2.0, 2.0);
+    database.offerOsmEntities(Arrays.asList(namedNode, unnamedNode), 2);
+    database.offerIdMappings(Arrays.asList(new IdMapping(1L, 0, true), new IdMapping(2L, 1, true)), 2);
+  }
+
+  /**
+   * The caching database used for testing, has a capacity of <code>10</code>
+   * and no warm-up.
+   */
+  private CachingDatabase mDatabase;
+  /**
+   * The database whose lookups are cached.
+   */
+  private CountingDatabase mUnderlying;
+
+  /**
+   * Setups a caching database instance for testing. It contains the named node
+   * <code>1</code> and the unnamed node <code>2</code>, with internal IDs
+   * <code>0</code> and <code>1</code>.
+   */
+  @Before
+  public void setUp() {
+    mUnderlying = new CountingDatabase();
+    mDatabase = new CachingDatabase(mUnderlying, 10, false);
+    CachingDatabaseTest.fill(mDatabase);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.CachingDatabase#finishImport()}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testFinishImport() {
+    final CountingDatabase underlying = new CountingDatabase();
+    final CachingDatabase database = new CachingDatabase(underlying, 10, true);
+    CachingDatabaseTest.fill(database);
+    database.finishImport();
+
+    Assert.assertEquals("Wall street 2", database.getNodeName(1L).get());
+    Assert.assertEquals(0, underlying.mLookups);
+    Assert.assertEquals(1L, database.getHits());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.CachingDatabase#getInternalNodeByOsm(long)}.
+   */
+  @Test
+  public void testGetInternalNodeByOsm() {
+    Assert.assertEquals(0, mDatabase.getInternalNodeByOsm(1L).get().intValue());
+    Assert.assertEquals(0, mDatabase.getInternalNodeByOsm(1L).get().intValue());
+    Assert.assertEquals(1, mUnderlying.mLookups);
+
+    // Data is offered while the lookup is computed, its result is stale
+    mUnderlying.mOnLookup = () -> {
+      mUnderlying.mOnLookup = null;
+      mDatabase.offerIdMappings(Collections.singletonList(new IdMapping(3L, 2, true)), 1);
+    };
+    Assert.assertFalse(mDatabase.getInternalNodeByOsm(3L).isPresent());
+    // The stale result was not cached
+    Assert.assertEquals(2, mDatabase.getInternalNodeByOsm(3L).get().intValue());
+    Assert.assertEquals(3, mUnderlying.mLookups);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.CachingDatabase#getNodeName(long)}.
+   */
+  @Test
+  public void testGetNodeName() {
+    Assert.assertEquals("Wall street 2", mDatabase.getNodeName(1L).get());
+    Assert.assertEquals("Wall street 2", mDatabase.getNodeName(1L).get());
+    Assert.assertEquals(1, mUnderlying.mLookups);
+
+    // Absent names are cached too
+    Assert.assertFalse(mDatabase.getNodeName(2L).isPresent());
+    Assert.assertFalse(mDatabase.getNodeName(2L).isPresent());
+    Assert.assertEquals(2, mUnderlying.mLookups);
+    Assert.assertEquals(2L, mDatabase.getHits());
+    Assert.assertEquals(2L, mDatabase.getMisses());
+    Assert.assertEquals(0.5, mDatabase.getHitRate(), 0.0);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.CachingDatabase#getNodeNames(LongStream, int)}.
+   */
+  @Test
+  public void testGetNodeNames() {
+    mDatabase.getNodeName(1L);
+    final LongObjectMap<String> names = mDatabase.getNodeNames(LongStream.of(1L, 2L), 2);
+    Assert.assertEquals(1, names.size());
+    Assert.assertEquals("Wall street 2", names.get(1L));
+    // Only the missing ID was fetched
+    Assert.assertEquals(Collections.singletonList(2L), mUnderlying.mLastBulkIds);
+
+    Assert.assertEquals(1, mDatabase.getNodeNames(LongStream.of(1L, 2L), 2).size());
+    Assert.assertEquals(2, mUnderlying.mLookups);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.CachingDatabase#getOsmNodesByInternal(IntStream, int)}.
+   */
+  @Test
+  public void testGetOsmNodesByInternal() {
+    final IntLongMap osmIds = mDatabase.getOsmNodesByInternal(IntStream.of(0, 5), 2);
+    Assert.assertEquals(1, osmIds.size());
+    Assert.assertEquals(1L, osmIds.get(0));
+
+    Assert.assertEquals(1L, mDatabase.getOsmNodeByInternal(0).get().longValue());
+    Assert.assertFalse(mDatabase.getOsmNodeByInternal(5).isPresent());
+    Assert.assertEquals(1, mUnderlying.mLookups);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.CachingDatabase#offerIdMappings(java.util.stream.Stream, int)}.
+   */
+  @Test
+  public void testOfferIdMappings() {
+    Assert.assertFalse(mDatabase.getInternalNodeByOsm(3L).isPresent());
+    mDatabase.offerIdMappings(Collections.singletonList(new IdMapping(3L, 2, true)), 1);
+    // The cache was cleared
+    Assert.assertEquals(2, mDatabase.getInternalNodeByOsm(3L).get().intValue());
+    Assert.assertEquals(2, mUnderlying.mLookups);
+  }
+
+  /**
+   * Memory database which counts the lookups that are cached by
+   * {@link CachingDatabase}.
+   *
+   * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+   */
+  private static final class CountingDatabase extends MemoryDatabase {
+    /**
+     * The IDs of the last bulk lookup.
+     */
+    private List<Long> mLastBulkIds;
+    /**
+     * The amount of lookups, a bulk lookup counts once.
+     */
+    private int mLookups;
+    /**
+     * Action to run after a single lookup computed its result or
+     * <code>null</code> if there is none.
+     */
+    private Runnable mOnLookup;
+
+    /**
+     * Creates a new empty database.
+     */
+    CountingDatabase() {
+      // Nothing to initialize
+    }
+
+    @Override
+    public Optional<Integer> getInternalNodeByOsm(final long osmId) {
+      mLookups++;
+      final Optional<Integer> internalId = super.getInternalNodeByOsm(osmId);
+      if (mOnLookup != null) {
+        mOnLookup.run();
+      }
+      return internalId;
+    }
+
+    @Override
+    public Optional<String> getNodeName(final long id) {
+      mLookups++;
+      return super.getNodeName(id);
+    }
+
+    @Override
+    public LongObjectMap<String> getNodeNames(final LongStream ids, final int size) {
+      mLookups++;
+      final long[] idArray = ids.toArray();
+      mLastBulkIds = LongStream.of(idArray).boxed().collect(Collectors.toList());
+      return super.getNodeNames(LongStream.of(idArray), size);
+    }
+
+    @Override
+    public IntLongMap getOsmNodesByInternal(final IntStream internalIds, final int size) {
+      mLookups++;
+      return super.getOsmNodesByInternal(internalIds, size);
+    }
+  }
+}
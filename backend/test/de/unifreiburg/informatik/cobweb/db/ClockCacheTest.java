@@ -0,0 +1,125 @@
+package de.unifreiburg.informatik.cobweb.db;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test for the class {@link ClockCache}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class ClockCacheTest {
+  /**
+   * The cache used for testing, has a capacity of two.
+   */
+  private ClockCache<String> mCache;
+
+  /**
+   * Setups a cache instance for testing.
+   */
+  @Before
+  public void setUp() {
+    mCache = new ClockCache<>(2);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.ClockCache#ClockCache(int)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testClockCache() {
+    try {
+      new ClockCache<>(0);
+      Assert.fail();
+    } catch (final IllegalArgumentException e) {
+      // Expected
+    }
+    Assert.assertEquals(0, new ClockCache<>(1).size());
+
+    // Large caches are striped, entries are evicted per stripe
+    final ClockCache<Long> striped = new ClockCache<>(4_096);
+    for (long key = 0; key < 4_096; key++) {
+      striped.put(key, Long.valueOf(key));
+    }
+    Assert.assertEquals(4_096L, striped.size() + striped.getEvictions());
+    Assert.assertTrue(striped.size() > 3_500);
+    Assert.assertEquals(Long.valueOf(4_095L), striped.get(4_095L));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.ClockCache#clear()}.
+   */
+  @Test
+  public void testClear() {
+    mCache.put(1L, "first");
+    mCache.clear();
+    Assert.assertEquals(0, mCache.size());
+    Assert.assertNull(mCache.get(1L));
+
+    mCache.put(2L, "second");
+    Assert.assertEquals("second", mCache.get(2L));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.ClockCache#get(long)}.
+   */
+  @Test
+  public void testGet() {
+    Assert.assertNull(mCache.get(1L));
+    mCache.put(1L, "first");
+    Assert.assertEquals("first", mCache.get(1L));
+    Assert.assertEquals(1L, mCache.getHits());
+    Assert.assertEquals(1L, mCache.getMisses());
+    Assert.assertEquals(0.5, mCache.getHitRate(), 0.0);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.ClockCache#clear()} and
+   * {@link de.unifreiburg.informatik.cobweb.db.ClockCache#getGeneration()}.
+   */
+  @Test
+  public void testGetGeneration() {
+    final long generation = mCache.getGeneration();
+    Assert.assertTrue(mCache.put(1L, "first", generation));
+    mCache.clear();
+    Assert.assertNotEquals(generation, mCache.getGeneration());
+
+    // Values computed before the cache was cleared are dropped
+    Assert.assertFalse(mCache.put(2L, "stale", generation));
+    Assert.assertNull(mCache.get(2L));
+    Assert.assertTrue(mCache.put(2L, "second", mCache.getGeneration()));
+    Assert.assertEquals("second", mCache.get(2L));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.ClockCache#put(long, Object)}.
+   */
+  @Test
+  public void testPut() {
+    mCache.put(1L, "first");
+    mCache.put(1L, "replaced");
+    Assert.assertEquals("replaced", mCache.get(1L));
+    Assert.assertEquals(1, mCache.size());
+
+    // The referenced entry gets a second chance
+    mCache.put(2L, "second");
+    mCache.put(3L, "third");
+    Assert.assertEquals(1L, mCache.getEvictions());
+    Assert.assertEquals(2, mCache.size());
+    Assert.assertEquals("replaced", mCache.get(1L));
+    Assert.assertNull(mCache.get(2L));
+    Assert.assertEquals("third", mCache.get(3L));
+
+    // Both entries are referenced, the hand evicts the oldest one
+    mCache.put(4L, "fourth");
+    Assert.assertNull(mCache.get(1L));
+    Assert.assertEquals("third", mCache.get(3L));
+    Assert.assertEquals("fourth", mCache.get(4L));
+  }
+}
@@ -0,0 +1,253 @@
+package de.unifreiburg.informatik.cobweb.db;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test for the classes {@link ConnectionPool} and {@link PooledConnection}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class ConnectionPoolTest {
+  /**
+   * Creates a prepared statement which only supports closing and clearing its
+   * parameters.
+   *
+   * @return The created statement
+   */
+  private static PreparedStatement createStatement() {
+    final boolean[] closed = new boolean[1];
+    return (PreparedStatement) Proxy.newProxyInstance(ConnectionPoolTest.class.getClassLoader(),
+        new Class<?>[] { PreparedStatement.class }, (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "close":
+              closed[0] = true;
+              return null;
+            case "isClosed":
+              return closed[0];
+            default:
+              return null;
+          }
+        });
+  }
+
+  /**
+   * The connections created by the pool used for testing.
+   */
+  private List<FakeConnection> mConnections;
+  /**
+   * The pool used for testing, has a size of one, a timeout of
+   * <code>50</code> milliseconds and caches two statements per connection.
+   */
+  private ConnectionPool mPool;
+
+  /**
+   * Setups a pool instance for testing.
+   */
+  @Before
+  public void setUp() {
+    mConnections = new ArrayList<>();
+    mPool = new ConnectionPool(() -> {
+      final FakeConnection connection = new FakeConnection();
+      mConnections.add(connection);
+      return connection.mProxy;
+    }, 1, 50L, 2);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.ConnectionPool#acquire()}.
+   *
+   * @throws SQLException If a connection could not be acquired
+   */
+  @Test
+  public void testAcquire() throws SQLException {
+    final PooledConnection first;
+    try (PooledConnection connection = mPool.acquire()) {
+      first = connection;
+      Assert.assertEquals(0, mPool.getIdleConnections());
+    }
+    Assert.assertEquals(1, mPool.getIdleConnections());
+
+    // The connection is reused
+    try (PooledConnection connection = mPool.acquire()) {
+      Assert.assertSame(first, connection);
+    }
+    Assert.assertEquals(1, mConnections.size());
+    Assert.assertEquals(2L, mPool.getAcquisitions());
+    Assert.assertTrue(mPool.getAverageWaitTime() >= 0.0);
+
+    // All connections are in use
+    try (PooledConnection connection = mPool.acquire()) {
+      Assert.assertSame(first, connection);
+      try {
+        mPool.acquire();
+        Assert.fail();
+      } catch (final SQLException e) {
+        // Expected
+      }
+    }
+    Assert.assertEquals(1L, mPool.getTimeouts());
+    Assert.assertEquals(3L, mPool.getAcquisitions());
+
+    // Closed connections are replaced
+    mConnections.get(0).mClosed = true;
+    try (PooledConnection connection = mPool.acquire()) {
+      Assert.assertNotSame(first, connection);
+    }
+    Assert.assertEquals(2, mConnections.size());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.PooledConnection#close()}.
+   *
+   * @throws SQLException If a connection could not be acquired
+   */
+  @Test
+  public void testClose() throws SQLException {
+    try (PooledConnection connection = mPool.acquire()) {
+      connection.getConnection().setAutoCommit(false);
+    }
+    // Open transactions are rolled back
+    final FakeConnection connection = mConnections.get(0);
+    Assert.assertEquals(1, connection.mRollbacks);
+    Assert.assertTrue(connection.mAutoCommit);
+    Assert.assertFalse(connection.mClosed);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.ConnectionPool#ConnectionPool(String, int, long, int)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testConnectionPool() {
+    try {
+      new ConnectionPool("jdbc:test", 0, 50L, 1);
+      Assert.fail();
+    } catch (final IllegalArgumentException e) {
+      // Expected
+    }
+    try {
+      new ConnectionPool("jdbc:test", 1, 50L, 0);
+      Assert.fail();
+    } catch (final IllegalArgumentException e) {
+      // Expected
+    }
+    Assert.assertEquals(3, new ConnectionPool("jdbc:test", 3, 50L, 1).getSize());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.PooledConnection#prepareStatement(String)}.
+   *
+   * @throws SQLException If a statement could not be prepared
+   */
+  @Test
+  public void testPrepareStatement() throws SQLException {
+    try (PooledConnection connection = mPool.acquire()) {
+      final PreparedStatement first = connection.prepareStatement("first");
+      Assert.assertSame(first, connection.prepareStatement("first"));
+      final PreparedStatement second = connection.prepareStatement("second");
+      Assert.assertEquals(2, mConnections.get(0).mPrepared);
+
+      // Exceeds the capacity, the least recently used statement is closed
+      connection.prepareStatement("first");
+      connection.prepareStatement("third");
+      Assert.assertTrue(second.isClosed());
+      Assert.assertFalse(first.isClosed());
+      Assert.assertNotSame(second, connection.prepareStatement("second"));
+      Assert.assertEquals(4, mConnections.get(0).mPrepared);
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.ConnectionPool#shutdown()}.
+   *
+   * @throws SQLException If a connection could not be acquired
+   */
+  @Test
+  public void testShutdown() throws SQLException {
+    final PooledConnection active = mPool.acquire();
+    mPool.shutdown();
+    try {
+      mPool.acquire();
+      Assert.fail();
+    } catch (final SQLException e) {
+      // Expected
+    }
+    // Connections in use are closed once given back
+    Assert.assertFalse(mConnections.get(0).mClosed);
+    active.close();
+    Assert.assertTrue(mConnections.get(0).mClosed);
+    Assert.assertEquals(0, mPool.getIdleConnections());
+  }
+
+  /**
+   * Connection used for testing which records how it was used.
+   *
+   * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+   */
+  private static final class FakeConnection {
+    /**
+     * Whether auto-commit is enabled.
+     */
+    private boolean mAutoCommit;
+    /**
+     * Whether the connection was closed.
+     */
+    private boolean mClosed;
+    /**
+     * The amount of prepared statements.
+     */
+    private int mPrepared;
+    /**
+     * The connection backed by this object.
+     */
+    private final Connection mProxy;
+    /**
+     * The amount of rollbacks.
+     */
+    private int mRollbacks;
+
+    /**
+     * Creates a new open connection with auto-commit enabled.
+     */
+    FakeConnection() {
+      mAutoCommit = true;
+      mProxy = (Connection) Proxy.newProxyInstance(ConnectionPoolTest.class.getClassLoader(),
+          new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+            switch (method.getName()) {
+              case "close":
+                mClosed = true;
+                return null;
+              case "getAutoCommit":
+                return mAutoCommit;
+              case "isClosed":
+                return mClosed;
+              case "prepareStatement":
+                mPrepared++;
+                return ConnectionPoolTest.createStatement();
+              case "rollback":
+                mRollbacks++;
+                return null;
+              case "setAutoCommit":
+                mAutoCommit = (Boolean) args[0];
+                return null;
+              default:
+                return null;
+            }
+          });
+    }
+  }
+}
@@ -0,0 +1,142 @@
+package de.unifreiburg.informatik.cobweb.db;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test for the class {@link DenseIdMapping}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class DenseIdMappingTest {
+  /**
+   * The mapping used for testing.
+   */
+  private DenseIdMapping mMapping;
+
+  /**
+   * Setups a mapping instance for testing.
+   */
+  @Before
+  public void setUp() {
+    mMapping = new DenseIdMapping();
+    mMapping.put(500L, 0);
+    mMapping.put(-20L, 1);
+    mMapping.put(300L, 3);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.DenseIdMapping#compact()}.
+   */
+  @Test
+  public void testCompact() {
+    mMapping.compact();
+    Assert.assertEquals(0, mMapping.getInternal(500L));
+    Assert.assertEquals(1, mMapping.getInternal(-20L));
+    Assert.assertEquals(3, mMapping.getInternal(300L));
+
+    // Pairs added after compacting replace merged pairs
+    mMapping.put(500L, 4);
+    mMapping.put(100L, 2);
+    mMapping.compact();
+    Assert.assertEquals(4, mMapping.getInternal(500L));
+    Assert.assertEquals(2, mMapping.getInternal(100L));
+    Assert.assertEquals(3, mMapping.getInternal(300L));
+    Assert.assertArrayEquals(new long[] { -20L, 100L, 300L, 500L }, mMapping.getSortedOsmIds());
+    Assert.assertArrayEquals(new int[] { 1, 2, 3, 4 }, mMapping.getSortedInternalIds());
+
+    // Compacting without pending pairs changes nothing
+    mMapping.compact();
+    Assert.assertArrayEquals(new long[] { -20L, 100L, 300L, 500L }, mMapping.getSortedOsmIds());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.DenseIdMapping#containsInternal(int)}.
+   */
+  @Test
+  public void testContainsInternal() {
+    Assert.assertTrue(mMapping.containsInternal(0));
+    Assert.assertTrue(mMapping.containsInternal(1));
+    Assert.assertFalse(mMapping.containsInternal(2));
+    Assert.assertTrue(mMapping.containsInternal(3));
+    Assert.assertFalse(mMapping.containsInternal(4));
+    Assert.assertFalse(mMapping.containsInternal(1_000));
+    Assert.assertFalse(mMapping.containsInternal(-1));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.DenseIdMapping#getInternal(long)}.
+   */
+  @Test
+  public void testGetInternal() {
+    Assert.assertEquals(0, mMapping.getInternal(500L));
+    Assert.assertEquals(1, mMapping.getInternal(-20L));
+    Assert.assertEquals(3, mMapping.getInternal(300L));
+    Assert.assertEquals(DenseIdMapping.NO_INTERNAL_ID, mMapping.getInternal(400L));
+
+    mMapping.compact();
+    Assert.assertEquals(3, mMapping.getInternal(300L));
+    Assert.assertEquals(DenseIdMapping.NO_INTERNAL_ID, mMapping.getInternal(400L));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.DenseIdMapping#getInternalIds()}.
+   */
+  @Test
+  public void testGetInternalIds() {
+    Assert.assertArrayEquals(new int[] { 0, 1, 3 }, mMapping.getInternalIds());
+    Assert.assertArrayEquals(new int[0], new DenseIdMapping().getInternalIds());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.DenseIdMapping#getOsm(int)}.
+   */
+  @Test
+  public void testGetOsm() {
+    Assert.assertEquals(500L, mMapping.getOsm(0));
+    Assert.assertEquals(-20L, mMapping.getOsm(1));
+    Assert.assertEquals(300L, mMapping.getOsm(3));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.DenseIdMapping#put(long, int)}.
+   */
+  @Test
+  public void testPut() {
+    // Exceed the initial capacity
+    mMapping.put(42L, 1_000);
+    Assert.assertEquals(42L, mMapping.getOsm(1_000));
+    Assert.assertEquals(1_000, mMapping.getInternal(42L));
+    Assert.assertEquals(4, mMapping.size());
+
+    // Replacing a pair does not change the size
+    mMapping.put(43L, 1_000);
+    Assert.assertEquals(43L, mMapping.getOsm(1_000));
+    Assert.assertEquals(4, mMapping.size());
+
+    try {
+      mMapping.put(44L, -1);
+      Assert.fail();
+    } catch (final IllegalArgumentException e) {
+      // Expected
+    }
+    Assert.assertEquals(4, mMapping.size());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.DenseIdMapping#size()}.
+   */
+  @Test
+  public void testSize() {
+    Assert.assertEquals(3, mMapping.size());
+    Assert.assertEquals(0, new DenseIdMapping().size());
+  }
+}
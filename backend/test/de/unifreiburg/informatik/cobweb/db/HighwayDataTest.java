@@ -25,6 +25,30 @@ public final class HighwayDataTest {
     mHighwayData = new HighwayData(12L, EHighwayType.MOTORWAY, 100);
   }
 
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.HighwayData#decodeType(byte)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public final void testDecodeType() {
+    for (final EHighwayType type : EHighwayType.values()) {
+      Assert.assertEquals(type, HighwayData.decodeType(HighwayData.encodeType(type)));
+    }
+    Assert.assertNull(HighwayData.decodeType(HighwayData.encodeType(null)));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.HighwayData#encodeType(de.unifreiburg.informatik.cobweb.parsing.osm.EHighwayType)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public final void testEncodeType() {
+    Assert.assertEquals(-1, HighwayData.encodeType(null));
+    Assert.assertEquals(EHighwayType.MOTORWAY.ordinal(), HighwayData.encodeType(EHighwayType.MOTORWAY));
+  }
+
   /**
    * Test method for
    * {@link de.unifreiburg.informatik.cobweb.db.HighwayData#getMaxSpeed()}.
@@ -0,0 +1,72 @@
+package de.unifreiburg.informatik.cobweb.db;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test for the class {@link LongClockCache}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class LongClockCacheTest {
+  /**
+   * The cache used for testing, has a capacity of two.
+   */
+  private LongClockCache mCache;
+
+  /**
+   * Setups a cache instance for testing.
+   */
+  @Before
+  public void setUp() {
+    mCache = new LongClockCache(2);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.LongClockCache#get(long)}.
+   */
+  @Test
+  public void testGet() {
+    Assert.assertEquals(LongClockCache.NOT_CACHED, mCache.get(1L));
+    mCache.put(1L, 10L, mCache.getGeneration());
+    mCache.put(2L, LongClockCache.NO_VALUE, mCache.getGeneration());
+    Assert.assertEquals(10L, mCache.get(1L));
+    Assert.assertEquals(LongClockCache.NO_VALUE, mCache.get(2L));
+    Assert.assertEquals(2L, mCache.getHits());
+    Assert.assertEquals(1L, mCache.getMisses());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.LongClockCache#put(long, long, long)}.
+   */
+  @Test
+  public void testPut() {
+    final long generation = mCache.getGeneration();
+    Assert.assertTrue(mCache.put(1L, 10L, generation));
+    Assert.assertTrue(mCache.put(1L, 11L, generation));
+    Assert.assertEquals(11L, mCache.get(1L));
+    Assert.assertEquals(1, mCache.size());
+
+    // The referenced entry gets a second chance
+    mCache.put(2L, 20L, generation);
+    mCache.put(3L, 30L, generation);
+    Assert.assertEquals(1L, mCache.getEvictions());
+    Assert.assertEquals(11L, mCache.get(1L));
+    Assert.assertEquals(LongClockCache.NOT_CACHED, mCache.get(2L));
+
+    // Values computed before the cache was cleared are dropped
+    mCache.clear();
+    Assert.assertFalse(mCache.put(4L, 40L, generation));
+    Assert.assertEquals(0, mCache.size());
+
+    try {
+      mCache.put(5L, LongClockCache.NOT_CACHED, mCache.getGeneration());
+      Assert.fail();
+    } catch (final IllegalArgumentException e) {
+      // Expected
+    }
+  }
+}
@@ -0,0 +1,374 @@
+package de.unifreiburg.informatik.cobweb.db;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import org.eclipse.collections.api.map.primitive.IntLongMap;
+import org.eclipse.collections.api.map.primitive.LongObjectMap;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.slimjars.dist.gnu.trove.list.array.TLongArrayList;
+
+import de.topobyte.osm4j.core.model.iface.OsmEntity;
+import de.topobyte.osm4j.core.model.iface.OsmTag;
+import de.topobyte.osm4j.core.model.impl.Node;
+import de.topobyte.osm4j.core.model.impl.Tag;
+import de.topobyte.osm4j.core.model.impl.Way;
+import de.unifreiburg.informatik.cobweb.parsing.osm.EHighwayType;
+import de.unifreiburg.informatik.cobweb.routing.parsing.osm.IdMapping;
+
+/**
+ * Test for the class {@link MappedDatabase}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class MappedDatabaseTest {
+  /**
+   * Offers a small set of nodes, ways and ID mappings to the given database.
+   *
+   * @param database The database to offer the data to
+   */
+  private static void offerData(final ADatabase database) {
+    final ArrayList<OsmEntity> entities = new ArrayList<>();
+    final ArrayList<OsmTag> nodeTags = new ArrayList<>();
+    nodeTags.add(new Tag("name", "Wall street 2"));
+    final ArrayList<OsmTag> otherNodeTags = new ArrayList<>();
+    otherNodeTags.add(new Tag("name", "Ämtergasse"));
+    final ArrayList<OsmTag> wayTags = new ArrayList<>();
+    wayTags.add(new Tag("highway", "motorway"));
+    wayTags.add(new Tag("maxspeed", "100"));
+    wayTags.add(new Tag("name", "Main street"));
+
+    entities.add(new Node(5L, 50.0, 50.0));
+    entities.add(new Node(1L, 10.0, 10.0, nodeTags));
+    entities.add(new Node(3L, 30.0, 30.0, otherNodeTags));
+    entities.add(new Way(1L, new TLongArrayList(new long[] { 1L, 3L }), wayTags));
+    entities.add(new Way(2L, new TLongArrayList(new long[] { 3L, 5L }), new ArrayList<>()));
+    database.offerOsmEntities(entities, entities.size());
+
+    final ArrayList<IdMapping> mappings = new ArrayList<>();
+    mappings.add(new IdMapping(5L, 2, true));
+    mappings.add(new IdMapping(1L, 0, true));
+    mappings.add(new IdMapping(3L, 1, true));
+    mappings.add(new IdMapping(1L, 0, false));
+    database.offerIdMappings(mappings, mappings.size());
+  }
+
+  /**
+   * The database used for testing.
+   */
+  private MappedDatabase mDatabase;
+  /**
+   * The directory the files of the database are stored in.
+   */
+  private Path mDirectory;
+
+  /**
+   * Setups a database with imported data in a temporary directory.
+   *
+   * @throws IOException If an I/O exception occurred while creating the
+   *                     directory
+   */
+  @Before
+  public void setUp() throws IOException {
+    mDirectory = Files.createTempDirectory("mappedDatabase");
+    mDatabase = new MappedDatabase(mDirectory);
+    mDatabase.initialize();
+    MappedDatabaseTest.offerData(mDatabase);
+    mDatabase.finishImport();
+  }
+
+  /**
+   * Shuts the database down and deletes its directory.
+   *
+   * @throws IOException If an I/O exception occurred while deleting the
+   *                     directory
+   */
+  @After
+  public void tearDown() throws IOException {
+    mDatabase.shutdown();
+    try (Stream<Path> files = Files.walk(mDirectory)) {
+      for (final Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+        Files.delete(file);
+      }
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.MappedDatabase#finishChange()}.
+   */
+  @Test
+  public void testFinishChange() {
+    // Data offered after the import is a change
+    final ArrayList<OsmEntity> entities = new ArrayList<>();
+    final ArrayList<OsmTag> newTags = new ArrayList<>();
+    newTags.add(new Tag("name", "New node"));
+    final ArrayList<OsmTag> renamedTags = new ArrayList<>();
+    renamedTags.add(new Tag("name", "Renamed node"));
+    final ArrayList<OsmTag> wayTags = new ArrayList<>();
+    wayTags.add(new Tag("highway", "primary"));
+    wayTags.add(new Tag("name", "New street"));
+    entities.add(new Node(7L, 70.0, 70.0, newTags));
+    entities.add(new Node(3L, 35.0, 35.0, renamedTags));
+    entities.add(new Way(3L, new TLongArrayList(new long[] { 3L, 7L }), wayTags));
+    mDatabase.offerOsmEntities(entities, entities.size());
+    final ArrayList<IdMapping> mappings = new ArrayList<>();
+    mappings.add(new IdMapping(7L, 3, true));
+    mappings.add(new IdMapping(3L, 1, false));
+    mDatabase.offerIdMappings(mappings, mappings.size());
+    mDatabase.finishChange();
+
+    // Lookups consider the changes first
+    Assert.assertEquals("New node", mDatabase.getNodeName(7L).get());
+    Assert.assertEquals("Renamed node", mDatabase.getNodeName(3L).get());
+    Assert.assertEquals("Wall street 2", mDatabase.getNodeName(1L).get());
+    Assert.assertEquals(7L, mDatabase.getNodeByName("New node").get().longValue());
+    Assert.assertEquals(3, mDatabase.getInternalNodeByOsm(7L).get().intValue());
+    Assert.assertEquals(1, mDatabase.getInternalNodeByOsm(3L).get().intValue());
+    Assert.assertEquals(7L, mDatabase.getOsmNodeByInternal(3).get().longValue());
+    Assert.assertEquals(1, mDatabase.getInternalWayByOsm(3L).get().intValue());
+    Assert.assertEquals(3L, mDatabase.getOsmWayByInternal(1).get().longValue());
+    Assert.assertEquals("New street", mDatabase.getWayName(3L).get());
+    Assert.assertEquals(3L, mDatabase.getWayByName("New street").get().longValue());
+    Assert.assertEquals(3, mDatabase.getAllNodeNameData().size());
+
+    final IntLongMap osmIds = mDatabase.getOsmNodesByInternal(IntStream.of(0, 3), 2);
+    Assert.assertEquals(1L, osmIds.get(0));
+    Assert.assertEquals(7L, osmIds.get(3));
+    final LongObjectMap<String> names = mDatabase.getNodeNames(LongStream.of(1L, 3L, 7L), 3);
+    Assert.assertEquals("Wall street 2", names.get(1L));
+    Assert.assertEquals("Renamed node", names.get(3L));
+    Assert.assertEquals("New node", names.get(7L));
+    Assert.assertEquals(3, mDatabase.getHighwayData(LongStream.of(1L, 2L, 3L), 3).size());
+    for (final SpatialNodeData data : mDatabase.getSpatialNodeData(LongStream.of(3L, 5L, 7L), 3)) {
+      if (data.getOsmId() == 3L) {
+        Assert.assertEquals(1, data.getId());
+        Assert.assertEquals(35.0, data.getLatitude(), 0.0);
+      } else if (data.getOsmId() == 7L) {
+        Assert.assertEquals(3, data.getId());
+      } else {
+        Assert.assertEquals(2, data.getId());
+      }
+    }
+
+    // The files are not rewritten by a change
+    final MappedDatabase restarted = new MappedDatabase(mDirectory);
+    restarted.initialize();
+    Assert.assertFalse(restarted.getNodeName(7L).isPresent());
+    Assert.assertEquals("Ämtergasse", restarted.getNodeName(3L).get());
+    restarted.shutdown();
+
+    // But by the next import
+    mDatabase.finishImport();
+    Assert.assertEquals("New node", mDatabase.getNodeName(7L).get());
+    final MappedDatabase reopened = new MappedDatabase(mDirectory);
+    reopened.initialize();
+    Assert.assertEquals("New node", reopened.getNodeName(7L).get());
+    Assert.assertEquals("Renamed node", reopened.getNodeName(3L).get());
+    Assert.assertEquals(3, reopened.getInternalNodeByOsm(7L).get().intValue());
+    reopened.shutdown();
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.MappedDatabase#finishImport()}.
+   */
+  @Test
+  public void testFinishImport() {
+    // A restarted database answers from the files
+    final MappedDatabase restarted = new MappedDatabase(mDirectory);
+    restarted.initialize();
+    Assert.assertEquals("Main street", restarted.getWayName(1L).get());
+    Assert.assertEquals(1, restarted.getInternalNodeByOsm(3L).get().intValue());
+
+    // An additional import keeps the previous data
+    final ArrayList<OsmEntity> entities = new ArrayList<>();
+    final ArrayList<OsmTag> tags = new ArrayList<>();
+    tags.add(new Tag("name", "New node"));
+    entities.add(new Node(7L, 70.0, 70.0, tags));
+    restarted.offerOsmEntities(entities, entities.size());
+    Assert.assertEquals("New node", restarted.getNodeName(7L).get());
+    Assert.assertEquals("Wall street 2", restarted.getNodeName(1L).get());
+    restarted.finishImport();
+    restarted.shutdown();
+
+    final MappedDatabase reopened = new MappedDatabase(mDirectory);
+    reopened.initialize();
+    Assert.assertEquals(7L, reopened.getNodeByName("New node").get().longValue());
+    Assert.assertEquals(1L, reopened.getNodeByName("Wall street 2").get().longValue());
+    Assert.assertEquals(3, reopened.getAllNodeNameData().size());
+    reopened.shutdown();
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.MappedDatabase#getAllNodeNameData()}.
+   */
+  @Test
+  public void testGetAllNodeNameData() {
+    final Collection<NodeNameData> nodeNameData = mDatabase.getAllNodeNameData();
+    Assert.assertEquals(2, nodeNameData.size());
+    final NodeNameData data = nodeNameData.iterator().next();
+    Assert.assertEquals(1L, data.getId());
+    Assert.assertEquals("Wall street 2", data.getName());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.MappedDatabase#getHighwayData(java.util.stream.LongStream, int)}.
+   */
+  @Test
+  public void testGetHighwayDataLongStreamInt() {
+    final Collection<HighwayData> allHighwayData = mDatabase.getHighwayData(LongStream.of(1L, 2L, 5L), 3);
+    Assert.assertEquals(2, allHighwayData.size());
+    for (final HighwayData highwayData : allHighwayData) {
+      if (highwayData.getWayId() == 1L) {
+        Assert.assertEquals(EHighwayType.MOTORWAY, highwayData.getType());
+        Assert.assertEquals(100, highwayData.getMaxSpeed());
+      } else {
+        Assert.assertEquals(2L, highwayData.getWayId());
+        Assert.assertNull(highwayData.getType());
+      }
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.MappedDatabase#getInternalNodeByOsm(long)}.
+   */
+  @Test
+  public void testGetInternalNodeByOsm() {
+    Assert.assertEquals(0, mDatabase.getInternalNodeByOsm(1L).get().intValue());
+    Assert.assertEquals(1, mDatabase.getInternalNodeByOsm(3L).get().intValue());
+    Assert.assertEquals(2, mDatabase.getInternalNodeByOsm(5L).get().intValue());
+    Assert.assertFalse(mDatabase.getInternalNodeByOsm(0L).isPresent());
+    Assert.assertFalse(mDatabase.getInternalNodeByOsm(4L).isPresent());
+    Assert.assertFalse(mDatabase.getInternalNodeByOsm(10L).isPresent());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.MappedDatabase#getInternalWayByOsm(long)}.
+   */
+  @Test
+  public void testGetInternalWayByOsm() {
+    Assert.assertEquals(0, mDatabase.getInternalWayByOsm(1L).get().intValue());
+    Assert.assertFalse(mDatabase.getInternalWayByOsm(2L).isPresent());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.MappedDatabase#getNodeByName(java.lang.String)}.
+   */
+  @Test
+  public void testGetNodeByName() {
+    Assert.assertEquals(1L, mDatabase.getNodeByName("Wall street 2").get().longValue());
+    Assert.assertEquals(3L, mDatabase.getNodeByName("Ämtergasse").get().longValue());
+    Assert.assertFalse(mDatabase.getNodeByName("Main street").isPresent());
+    Assert.assertFalse(mDatabase.getNodeByName("").isPresent());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.MappedDatabase#getNodeName(long)}.
+   */
+  @Test
+  public void testGetNodeName() {
+    Assert.assertEquals("Wall street 2", mDatabase.getNodeName(1L).get());
+    Assert.assertEquals("Ämtergasse", mDatabase.getNodeName(3L).get());
+    Assert.assertFalse(mDatabase.getNodeName(5L).isPresent());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.MappedDatabase#getNodeNames(java.util.stream.LongStream, int)}.
+   */
+  @Test
+  public void testGetNodeNames() {
+    final LongObjectMap<String> names = mDatabase.getNodeNames(LongStream.of(1L, 3L, 5L), 3);
+    Assert.assertEquals(2, names.size());
+    Assert.assertEquals("Wall street 2", names.get(1L));
+    Assert.assertEquals("Ämtergasse", names.get(3L));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.MappedDatabase#getOsmNodeByInternal(int)}.
+   */
+  @Test
+  public void testGetOsmNodeByInternal() {
+    Assert.assertEquals(5L, mDatabase.getOsmNodeByInternal(2).get().longValue());
+    Assert.assertFalse(mDatabase.getOsmNodeByInternal(3).isPresent());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.MappedDatabase#getOsmNodesByInternal(java.util.stream.IntStream, int)}.
+   */
+  @Test
+  public void testGetOsmNodesByInternal() {
+    final IntLongMap osmIds = mDatabase.getOsmNodesByInternal(IntStream.of(0, 2, 7), 3);
+    Assert.assertEquals(2, osmIds.size());
+    Assert.assertEquals(1L, osmIds.get(0));
+    Assert.assertEquals(5L, osmIds.get(2));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.MappedDatabase#getSpatialNodeData(java.util.stream.LongStream, int)}.
+   */
+  @Test
+  public void testGetSpatialNodeDataLongStreamInt() {
+    final Collection<SpatialNodeData> allSpatialData = mDatabase.getSpatialNodeData(LongStream.of(5L, 4L), 2);
+    Assert.assertEquals(1, allSpatialData.size());
+    final SpatialNodeData spatialData = allSpatialData.iterator().next();
+    Assert.assertEquals(2, spatialData.getId());
+    Assert.assertEquals(5L, spatialData.getOsmId());
+    Assert.assertEquals(50.0, spatialData.getLatitude(), 0.0);
+    Assert.assertEquals(50.0, spatialData.getLongitude(), 0.0);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.MappedDatabase#getWayByName(java.lang.String)}.
+   */
+  @Test
+  public void testGetWayByName() {
+    Assert.assertEquals(1L, mDatabase.getWayByName("Main street").get().longValue());
+    Assert.assertFalse(mDatabase.getWayByName("Wall street 2").isPresent());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.MappedDatabase#getWayName(long)}.
+   */
+  @Test
+  public void testGetWayName() {
+    Assert.assertEquals("Main street", mDatabase.getWayName(1L).get());
+    Assert.assertFalse(mDatabase.getWayName(2L).isPresent());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.MappedDatabase#initialize()}.
+   */
+  @Test
+  public void testInitialize() {
+    final MappedDatabase empty = new MappedDatabase(mDirectory.resolve("empty"));
+    empty.initialize();
+    Assert.assertFalse(empty.getNodeName(1L).isPresent());
+    Assert.assertTrue(empty.getAllNodeNameData().isEmpty());
+    empty.shutdown();
+  }
+}
@@ -7,8 +7,11 @@ import java.util.Collections;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.LongStream;
 
+import org.eclipse.collections.api.map.primitive.IntLongMap;
+import org.eclipse.collections.api.map.primitive.LongObjectMap;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -71,6 +74,25 @@ public final class MemoryDatabaseTest {
     mMemoryDatabase.offerIdMappings(mappings, 6);
   }
 
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.MemoryDatabase#copyTo(MemoryDatabase)}.
+   */
+  @Test
+  public final void testCopyTo() {
+    final MemoryDatabase target = new MemoryDatabase();
+    target.offerIdMappings(Collections.singletonList(new IdMapping(6L, 5, true)), 1);
+    mMemoryDatabase.copyTo(target);
+
+    Assert.assertEquals("Wall street 2", target.getNodeName(1L).get());
+    Assert.assertEquals("Main street", target.getWayName(1L).get());
+    Assert.assertEquals(4, target.getInternalNodeByOsm(5L).get().intValue());
+    Assert.assertEquals(5, target.getInternalNodeByOsm(6L).get().intValue());
+    Assert.assertEquals(0, target.getInternalWayByOsm(1L).get().intValue());
+    Assert.assertEquals(5, target.getSpatialNodeData(LongStream.of(1L, 2L, 3L, 4L, 5L), 5).size());
+    Assert.assertEquals(100, target.getHighwayData(LongStream.of(1L), 1).iterator().next().getMaxSpeed());
+  }
+
   /**
    * Test method for
    * {@link de.unifreiburg.informatik.cobweb.db.MemoryDatabase#getAllNodeNameData()}.
@@ -159,6 +181,19 @@ public final class MemoryDatabaseTest {
     Assert.assertFalse(mMemoryDatabase.getNodeName(0L).isPresent());
   }
 
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.MemoryDatabase#getNodeNames(LongStream, int)}.
+   */
+  @Test
+  public final void testGetNodeNames() {
+    final LongObjectMap<String> names = mMemoryDatabase.getNodeNames(LongStream.of(1L, 2L, -100L), 3);
+    Assert.assertEquals(1, names.size());
+    Assert.assertEquals("Wall street 2", names.get(1L));
+
+    Assert.assertTrue(mMemoryDatabase.getNodeNames(LongStream.empty(), 0).isEmpty());
+  }
+
   /**
    * Test method for
    * {@link de.unifreiburg.informatik.cobweb.db.MemoryDatabase#getOsmNodeByInternal(int)}.
@@ -174,6 +209,21 @@ public final class MemoryDatabaseTest {
     Assert.assertFalse(mMemoryDatabase.getOsmNodeByInternal(-1).isPresent());
   }
 
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.MemoryDatabase#getOsmNodesByInternal(IntStream, int)}.
+   */
+  @Test
+  public final void testGetOsmNodesByInternal() {
+    final IntLongMap osmIds = mMemoryDatabase.getOsmNodesByInternal(IntStream.of(0, 4, 10, -1), 4);
+    Assert.assertEquals(2, osmIds.size());
+    Assert.assertEquals(1L, osmIds.get(0));
+    Assert.assertEquals(5L, osmIds.get(4));
+    Assert.assertFalse(osmIds.containsKey(10));
+
+    Assert.assertTrue(mMemoryDatabase.getOsmNodesByInternal(IntStream.empty(), 0).isEmpty());
+  }
+
   /**
    * Test method for
    * {@link de.unifreiburg.informatik.cobweb.db.MemoryDatabase#getOsmWayByInternal(int)}.
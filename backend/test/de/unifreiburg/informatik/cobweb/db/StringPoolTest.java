@@ -0,0 +1,77 @@
+package de.unifreiburg.informatik.cobweb.db;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test for the class {@link StringPool}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class StringPoolTest {
+  /**
+   * The pool used for testing.
+   */
+  private StringPool mPool;
+
+  /**
+   * Setups a pool instance for testing.
+   */
+  @Before
+  public void setUp() {
+    mPool = new StringPool();
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.StringPool#find(java.lang.String)}.
+   */
+  @Test
+  public void testFind() {
+    Assert.assertEquals(-1, mPool.find("Main street"));
+    final int handle = mPool.intern("Main street");
+    Assert.assertEquals(handle, mPool.find("Main street"));
+    Assert.assertEquals(-1, mPool.find("Main"));
+    Assert.assertEquals(-1, mPool.find(""));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.StringPool#get(int)}.
+   */
+  @Test
+  public void testGet() {
+    final int first = mPool.intern("Wall street 2");
+    final int second = mPool.intern("Ämtergasse");
+    final int empty = mPool.intern("");
+    Assert.assertEquals("Wall street 2", mPool.get(first));
+    Assert.assertEquals("Ämtergasse", mPool.get(second));
+    Assert.assertEquals("", mPool.get(empty));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.db.StringPool#intern(java.lang.String)}.
+   */
+  @Test
+  public void testIntern() {
+    final int first = mPool.intern("Main street");
+    final int second = mPool.intern("Side street");
+    Assert.assertNotEquals(first, second);
+    Assert.assertEquals(first, mPool.intern(new String("Main street")));
+    Assert.assertEquals(2, mPool.size());
+    Assert.assertEquals("Main street".length() + "Side street".length(), mPool.getSizeInBytes());
+
+    // Grow beyond the initial capacities
+    for (int i = 0; i < 10_000; i++) {
+      Assert.assertEquals(i + 2, mPool.intern("Street " + i));
+    }
+    for (int i = 0; i < 10_000; i++) {
+      Assert.assertEquals(i + 2, mPool.intern("Street " + i));
+      Assert.assertEquals("Street " + i, mPool.get(i + 2));
+    }
+    Assert.assertEquals(10_002, mPool.size());
+    Assert.assertEquals(first, mPool.find("Main street"));
+  }
+}
@@ -0,0 +1,176 @@
+package de.unifreiburg.informatik.cobweb.parsing.gtfs;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for the class {@link CsvTokenizer}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class CsvTokenizerTest {
+  /**
+   * Creates a tokenizer for the given data.
+   *
+   * @param data The data to tokenize
+   * @return The tokenizer
+   */
+  private static CsvTokenizer createTokenizer(final String data) {
+    return new CsvTokenizer(new StringReader(data));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.parsing.gtfs.CsvTokenizer#getField(int)}.
+   *
+   * @throws IOException If an I/O exception occurred
+   */
+  @Test
+  public void testGetField() throws IOException {
+    try (CsvTokenizer tokenizer = CsvTokenizerTest.createTokenizer("a,\"b,c\",\"d\"\"e\",\n")) {
+      Assert.assertTrue(tokenizer.nextRecord());
+      Assert.assertEquals(4, tokenizer.getAmountOfFields());
+      Assert.assertEquals("a", tokenizer.getField(0));
+      Assert.assertEquals("b,c", tokenizer.getField(1));
+      Assert.assertEquals("d\"e", tokenizer.getField(2));
+      Assert.assertEquals("", tokenizer.getField(3));
+      Assert.assertEquals("", tokenizer.getField(4));
+      Assert.assertEquals("", tokenizer.getField(-1));
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.parsing.gtfs.CsvTokenizer#isFieldEmpty(int)}.
+   *
+   * @throws IOException If an I/O exception occurred
+   */
+  @Test
+  public void testIsFieldEmpty() throws IOException {
+    try (CsvTokenizer tokenizer = CsvTokenizerTest.createTokenizer("a,, ,\"\"")) {
+      Assert.assertTrue(tokenizer.nextRecord());
+      Assert.assertFalse(tokenizer.isFieldEmpty(0));
+      Assert.assertTrue(tokenizer.isFieldEmpty(1));
+      Assert.assertTrue(tokenizer.isFieldEmpty(2));
+      Assert.assertTrue(tokenizer.isFieldEmpty(3));
+      Assert.assertTrue(tokenizer.isFieldEmpty(4));
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.parsing.gtfs.CsvTokenizer#isFieldEqualTo(int, String)}.
+   *
+   * @throws IOException If an I/O exception occurred
+   */
+  @Test
+  public void testIsFieldEqualTo() throws IOException {
+    try (CsvTokenizer tokenizer = CsvTokenizerTest.createTokenizer("trip1,trip")) {
+      Assert.assertTrue(tokenizer.nextRecord());
+      Assert.assertTrue(tokenizer.isFieldEqualTo(0, "trip1"));
+      Assert.assertFalse(tokenizer.isFieldEqualTo(0, "trip"));
+      Assert.assertFalse(tokenizer.isFieldEqualTo(1, "trip1"));
+      Assert.assertTrue(tokenizer.isFieldEqualTo(2, ""));
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.parsing.gtfs.CsvTokenizer#nextRecord()}.
+   *
+   * @throws IOException If an I/O exception occurred
+   */
+  @Test
+  public void testNextRecord() throws IOException {
+    final String data = "\uFEFFid,name\r\n1,\"multi\r\nline\"\r\n\r\n\n2,b";
+    try (CsvTokenizer tokenizer = CsvTokenizerTest.createTokenizer(data)) {
+      Assert.assertTrue(tokenizer.nextRecord());
+      Assert.assertEquals("id", tokenizer.getField(0));
+      Assert.assertEquals("name", tokenizer.getField(1));
+
+      Assert.assertTrue(tokenizer.nextRecord());
+      Assert.assertEquals("1", tokenizer.getField(0));
+      Assert.assertEquals("multi\r\nline", tokenizer.getField(1));
+
+      Assert.assertTrue(tokenizer.nextRecord());
+      Assert.assertEquals("2", tokenizer.getField(0));
+      Assert.assertEquals("b", tokenizer.getField(1));
+
+      Assert.assertFalse(tokenizer.nextRecord());
+      Assert.assertFalse(tokenizer.nextRecord());
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.parsing.gtfs.CsvTokenizer#parseFieldAsDouble(int)}.
+   *
+   * @throws IOException If an I/O exception occurred
+   */
+  @Test
+  public void testParseFieldAsDouble() throws IOException {
+    try (CsvTokenizer tokenizer = CsvTokenizerTest.createTokenizer("48.5, -7.25 ,x")) {
+      Assert.assertTrue(tokenizer.nextRecord());
+      Assert.assertEquals(48.5, tokenizer.parseFieldAsDouble(0), 0.0);
+      Assert.assertEquals(-7.25, tokenizer.parseFieldAsDouble(1), 0.0);
+      try {
+        tokenizer.parseFieldAsDouble(2);
+        Assert.fail();
+      } catch (final NumberFormatException e) {
+        // Expected
+      }
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.parsing.gtfs.CsvTokenizer#parseFieldAsInt(int)}.
+   *
+   * @throws IOException If an I/O exception occurred
+   */
+  @Test
+  public void testParseFieldAsInt() throws IOException {
+    try (CsvTokenizer tokenizer = CsvTokenizerTest.createTokenizer("12, -3 ,+4,,1a")) {
+      Assert.assertTrue(tokenizer.nextRecord());
+      Assert.assertEquals(12, tokenizer.parseFieldAsInt(0));
+      Assert.assertEquals(-3, tokenizer.parseFieldAsInt(1));
+      Assert.assertEquals(4, tokenizer.parseFieldAsInt(2));
+      for (final int index : new int[] { 3, 4, 5 }) {
+        try {
+          tokenizer.parseFieldAsInt(index);
+          Assert.fail();
+        } catch (final NumberFormatException e) {
+          // Expected
+        }
+      }
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.parsing.gtfs.CsvTokenizer#parseFieldAsTime(int)}.
+   *
+   * @throws IOException If an I/O exception occurred
+   */
+  @Test
+  public void testParseFieldAsTime() throws IOException {
+    final String data = "08:01:02, 7:00:00 ,25:30:00,8:00,8::00,ab:00:00";
+    try (CsvTokenizer tokenizer = CsvTokenizerTest.createTokenizer(data)) {
+      Assert.assertTrue(tokenizer.nextRecord());
+      Assert.assertEquals(8 * 3600 + 62, tokenizer.parseFieldAsTime(0));
+      Assert.assertEquals(7 * 3600, tokenizer.parseFieldAsTime(1));
+      Assert.assertEquals(25 * 3600 + 1800, tokenizer.parseFieldAsTime(2));
+      for (final int index : new int[] { 3, 4, 5 }) {
+        try {
+          tokenizer.parseFieldAsTime(index);
+          Assert.fail();
+        } catch (final NumberFormatException e) {
+          // Expected
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,145 @@
+package de.unifreiburg.informatik.cobweb.parsing.gtfs;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.eclipse.collections.impl.factory.Lists;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.onebusaway.gtfs.model.Stop;
+import org.onebusaway.gtfs.model.StopTime;
+import org.onebusaway.gtfs.model.Transfer;
+import org.onebusaway.gtfs.model.Trip;
+
+/**
+ * Test for the class {@link GtfsCsvReader}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class GtfsCsvReaderTest {
+  /**
+   * Writes a file with the given content into the given archive.
+   *
+   * @param archive The archive to write to
+   * @param name    The name of the file
+   * @param content The content of the file
+   * @throws IOException If an I/O exception occurred while writing
+   */
+  private static void writeFile(final ZipOutputStream archive, final String name, final String content)
+      throws IOException {
+    archive.putNextEntry(new ZipEntry(name));
+    archive.write(content.getBytes(StandardCharsets.UTF_8));
+    archive.closeEntry();
+  }
+
+  /**
+   * The GTFS archive used for testing.
+   */
+  private Path mArchive;
+  /**
+   * The entities read by the reader, stop times are copied since the reader
+   * reuses their instance.
+   */
+  private List<Object> mEntities;
+
+  /**
+   * Setups a GTFS archive with two stops, one trip and a transfer and reads it.
+   *
+   * @throws IOException If an I/O exception occurred while creating or reading
+   *                     the archive
+   */
+  @Before
+  public void setUp() throws IOException {
+    mArchive = Files.createTempFile("gtfs", ".zip");
+    try (OutputStream output = Files.newOutputStream(mArchive);
+        ZipOutputStream archive = new ZipOutputStream(output)) {
+      GtfsCsvReaderTest.writeFile(archive, "agency.txt",
+          "agency_id,agency_name,agency_url,agency_timezone\nvag,VAG,http://vag.de,Europe/Berlin\n");
+      GtfsCsvReaderTest.writeFile(archive, "stops.txt",
+          "stop_id,stop_name,stop_lat,stop_lon\r\ns1,\"Main, Station\",48.0,7.8\r\ns2,Square,48.1,7.9\r\n");
+      GtfsCsvReaderTest.writeFile(archive, "trips.txt", "route_id,service_id,trip_id\nr1,daily,t1\n");
+      GtfsCsvReaderTest.writeFile(archive, "stop_times.txt",
+          "trip_id,arrival_time,departure_time,stop_id,stop_sequence\n"
+              + "t1,08:00:00,08:01:00,s1,1\nt1,,,s2,2\nt1,25:00:00,25:00:00,s1,3\n");
+      GtfsCsvReaderTest.writeFile(archive, "transfers.txt",
+          "from_stop_id,to_stop_id,transfer_type,min_transfer_time\ns1,s2,2,120\ns1,unknown,2,60\n");
+    }
+
+    mEntities = Lists.mutable.empty();
+    new GtfsCsvReader(mArchive).run(new IBaseEntityHandler() {
+      @Override
+      public void complete() {
+        Assert.fail();
+      }
+
+      @Override
+      public void handleEntity(final Object entity) {
+        if (entity instanceof StopTime) {
+          mEntities.add(new StopTime((StopTime) entity));
+        } else {
+          mEntities.add(entity);
+        }
+      }
+    });
+  }
+
+  /**
+   * Deletes the GTFS archive used for testing.
+   *
+   * @throws IOException If an I/O exception occurred while deleting
+   */
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(mArchive);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.parsing.gtfs.GtfsCsvReader#run(IBaseEntityHandler)}.
+   */
+  @Test
+  public void testRun() {
+    Assert.assertEquals(7, mEntities.size());
+
+    final Stop first = (Stop) mEntities.get(0);
+    Assert.assertEquals("vag", first.getId().getAgencyId());
+    Assert.assertEquals("s1", first.getId().getId());
+    Assert.assertEquals(48.0, first.getLat(), 0.0);
+    Assert.assertEquals(7.8, first.getLon(), 0.0);
+    final Stop second = (Stop) mEntities.get(1);
+    Assert.assertEquals("s2", second.getId().getId());
+
+    final Trip trip = (Trip) mEntities.get(2);
+    Assert.assertEquals("t1", trip.getId().getId());
+
+    final StopTime firstStopTime = (StopTime) mEntities.get(3);
+    Assert.assertSame(trip, firstStopTime.getTrip());
+    Assert.assertSame(first, firstStopTime.getStop());
+    Assert.assertEquals(1, firstStopTime.getStopSequence());
+    Assert.assertEquals(8 * 3600, firstStopTime.getArrivalTime());
+    Assert.assertEquals(8 * 3600 + 60, firstStopTime.getDepartureTime());
+
+    final StopTime secondStopTime = (StopTime) mEntities.get(4);
+    Assert.assertSame(second, secondStopTime.getStop());
+    Assert.assertFalse(secondStopTime.isArrivalTimeSet());
+    Assert.assertFalse(secondStopTime.isDepartureTimeSet());
+
+    final StopTime thirdStopTime = (StopTime) mEntities.get(5);
+    Assert.assertEquals(3, thirdStopTime.getStopSequence());
+    Assert.assertEquals(25 * 3600, thirdStopTime.getArrivalTime());
+
+    final Transfer transfer = (Transfer) mEntities.get(6);
+    Assert.assertSame(first, transfer.getFromStop());
+    Assert.assertSame(second, transfer.getToStop());
+    Assert.assertEquals(2, transfer.getTransferType());
+    Assert.assertEquals(120, transfer.getMinTransferTime());
+  }
+}
@@ -0,0 +1,108 @@
+package de.unifreiburg.informatik.cobweb.parsing.osm;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.topobyte.osm4j.core.model.iface.OsmNode;
+import de.topobyte.osm4j.core.model.iface.OsmWay;
+import de.topobyte.osm4j.core.model.util.OsmModelUtil;
+import de.unifreiburg.informatik.cobweb.parsing.ParseException;
+
+/**
+ * Test for the class {@link OsmChangeParser}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class OsmChangeParserTest {
+  /**
+   * Creates an input stream of the given text.
+   *
+   * @param text The text to stream
+   * @return The input stream of the text
+   */
+  private static InputStream toStream(final String text) {
+    return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.parsing.osm.OsmChangeParser#parse(java.io.InputStream)}.
+   *
+   * @throws ParseException If the change could not be parsed
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testParseInputStream() throws ParseException {
+    final String text = String.join("\n", "<?xml version=\"1.0\" encoding=\"UTF-8\"?>",
+        "<osmChange version=\"0.6\">", "  <create>", "    <node id=\"1\" version=\"1\" lat=\"48.0\" lon=\"7.5\">",
+        "      <tag k=\"name\" v=\"Square\"/>", "    </node>", "    <way id=\"10\" version=\"1\">",
+        "      <nd ref=\"1\"/>", "      <nd ref=\"2\"/>", "      <tag k=\"highway\" v=\"residential\"/>",
+        "    </way>", "  </create>", "  <modify>", "    <node id=\"2\" version=\"2\" lat=\"48.5\" lon=\"7.25\"/>",
+        "  </modify>", "  <delete>", "    <node id=\"3\" version=\"3\"/>", "    <way id=\"11\" version=\"2\"/>",
+        "    <relation id=\"20\" version=\"1\">", "      <member type=\"way\" ref=\"11\" role=\"\"/>",
+        "      <tag k=\"type\" v=\"route\"/>", "    </relation>", "  </delete>", "</osmChange>");
+    final OsmChange change = OsmChangeParser.parse(OsmChangeParserTest.toStream(text));
+
+    Assert.assertEquals(5, change.size());
+
+    final List<OsmNode> createdNodes = change.getNodes(EOsmChangeAction.CREATE);
+    Assert.assertEquals(1, createdNodes.size());
+    Assert.assertEquals(1L, createdNodes.get(0).getId());
+    Assert.assertEquals(48.0, createdNodes.get(0).getLatitude(), 0.0);
+    Assert.assertEquals(7.5, createdNodes.get(0).getLongitude(), 0.0);
+    Assert.assertEquals("Square", OsmModelUtil.getTagsAsMap(createdNodes.get(0)).get("name"));
+
+    final List<OsmWay> createdWays = change.getWays(EOsmChangeAction.CREATE);
+    Assert.assertEquals(1, createdWays.size());
+    Assert.assertEquals(10L, createdWays.get(0).getId());
+    Assert.assertEquals(2, createdWays.get(0).getNumberOfNodes());
+    Assert.assertEquals(1L, createdWays.get(0).getNodeId(0));
+    Assert.assertEquals(2L, createdWays.get(0).getNodeId(1));
+    Assert.assertEquals("residential", OsmModelUtil.getTagsAsMap(createdWays.get(0)).get("highway"));
+
+    final List<OsmNode> modifiedNodes = change.getNodes(EOsmChangeAction.MODIFY);
+    Assert.assertEquals(1, modifiedNodes.size());
+    Assert.assertEquals(2L, modifiedNodes.get(0).getId());
+    Assert.assertEquals(48.5, modifiedNodes.get(0).getLatitude(), 0.0);
+    Assert.assertTrue(change.getWays(EOsmChangeAction.MODIFY).isEmpty());
+
+    // Deleted entities may omit their data
+    final List<OsmNode> deletedNodes = change.getNodes(EOsmChangeAction.DELETE);
+    Assert.assertEquals(1, deletedNodes.size());
+    Assert.assertEquals(3L, deletedNodes.get(0).getId());
+    Assert.assertTrue(Double.isNaN(deletedNodes.get(0).getLatitude()));
+    final List<OsmWay> deletedWays = change.getWays(EOsmChangeAction.DELETE);
+    Assert.assertEquals(1, deletedWays.size());
+    Assert.assertEquals(11L, deletedWays.get(0).getId());
+    Assert.assertEquals(0, deletedWays.get(0).getNumberOfNodes());
+
+    Assert.assertTrue(OsmChangeParser.parse(OsmChangeParserTest.toStream("<osmChange/>")).isEmpty());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.parsing.osm.OsmChangeParser#parse(java.io.InputStream)}
+   * with invalid input.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testParseInputStreamInvalid() {
+    try {
+      OsmChangeParser.parse(OsmChangeParserTest.toStream("<osmChange><create><node id=\"a\"/></create></osmChange>"));
+      Assert.fail();
+    } catch (final ParseException e) {
+      // Expected
+    }
+    try {
+      OsmChangeParser.parse(OsmChangeParserTest.toStream("<osmChange><create>"));
+      Assert.fail();
+    } catch (final ParseException e) {
+      // Expected
+    }
+  }
+}
@@ -0,0 +1,200 @@
+package de.unifreiburg.informatik.cobweb.parsing.osm;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.topobyte.osm4j.core.access.OsmHandler;
+import de.topobyte.osm4j.core.model.iface.OsmBounds;
+import de.topobyte.osm4j.core.model.iface.OsmNode;
+import de.topobyte.osm4j.core.model.iface.OsmRelation;
+import de.topobyte.osm4j.core.model.iface.OsmWay;
+import de.topobyte.osm4j.core.model.impl.Node;
+
+/**
+ * Test for the class {@link OsmHandlerForwarder}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class OsmHandlerForwarderTest {
+  /**
+   * The amount of nodes to forward, spans multiple batches.
+   */
+  private static final int AMOUNT_OF_NODES = 2_500;
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.parsing.osm.OsmHandlerForwarder#close()}.
+   *
+   * @throws IOException If an I/O exception occurred
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testClose() throws IOException {
+    final RecordingHandler handler = new RecordingHandler(new ArrayList<>(), "handler", -1);
+    final OsmHandlerForwarder forwarder = new OsmHandlerForwarder(Collections.singletonList(handler));
+    forwarder.handle(new Node(1, 1.0, 1.0));
+    forwarder.close();
+    forwarder.close();
+    // Entities that were not forwarded in a full batch are discarded
+    Assert.assertTrue(handler.getNodeIds().isEmpty());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.parsing.osm.OsmHandlerForwarder#complete()}.
+   *
+   * @throws IOException If an I/O exception occurred
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testComplete() throws IOException {
+    final List<String> completions = Collections.synchronizedList(new ArrayList<>());
+    final RecordingHandler first = new RecordingHandler(completions, "first", -1);
+    final RecordingHandler second = new RecordingHandler(completions, "second", -1);
+    try (OsmHandlerForwarder forwarder = new OsmHandlerForwarder(Arrays.asList(first, second))) {
+      for (int i = 0; i < AMOUNT_OF_NODES; i++) {
+        forwarder.handle(new Node(i, 1.0, 1.0));
+      }
+      forwarder.complete();
+    }
+
+    // All entities are handled before the first completion, in the given order
+    Assert.assertEquals(Arrays.asList("first:" + AMOUNT_OF_NODES, "second:" + AMOUNT_OF_NODES), completions);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.parsing.osm.OsmHandlerForwarder#complete()}
+   * when a handler fails.
+   *
+   * @throws IOException If an I/O exception occurred
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testCompleteWithFailure() throws IOException {
+    final List<String> completions = Collections.synchronizedList(new ArrayList<>());
+    final RecordingHandler failing = new RecordingHandler(completions, "failing", 10);
+    final RecordingHandler other = new RecordingHandler(completions, "other", -1);
+    try (OsmHandlerForwarder forwarder = new OsmHandlerForwarder(Arrays.asList(failing, other))) {
+      for (int i = 0; i < AMOUNT_OF_NODES; i++) {
+        forwarder.handle(new Node(i, 1.0, 1.0));
+      }
+      forwarder.complete();
+      Assert.fail();
+    } catch (final IOException e) {
+      // Expected
+      Assert.assertEquals("failing", e.getMessage());
+    }
+    Assert.assertTrue(completions.isEmpty());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.parsing.osm.OsmHandlerForwarder#handle(OsmNode)}.
+   *
+   * @throws IOException If an I/O exception occurred
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testHandleOsmNode() throws IOException {
+    final RecordingHandler first = new RecordingHandler(new ArrayList<>(), "first", -1);
+    final RecordingHandler second = new RecordingHandler(new ArrayList<>(), "second", -1);
+    try (OsmHandlerForwarder forwarder = new OsmHandlerForwarder(Arrays.asList(first, second))) {
+      for (int i = 0; i < AMOUNT_OF_NODES; i++) {
+        forwarder.handle(new Node(i, 1.0, 1.0));
+      }
+      forwarder.complete();
+    }
+
+    for (final RecordingHandler handler : Arrays.asList(first, second)) {
+      final List<Long> nodeIds = handler.getNodeIds();
+      Assert.assertEquals(AMOUNT_OF_NODES, nodeIds.size());
+      for (int i = 0; i < AMOUNT_OF_NODES; i++) {
+        Assert.assertEquals(i, nodeIds.get(i).longValue());
+      }
+    }
+  }
+
+  /**
+   * Handler which records the IDs of handled nodes and its completion.
+   *
+   * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+   */
+  private static final class RecordingHandler implements OsmHandler {
+    /**
+     * The shared list to record completions to.
+     */
+    private final List<String> mCompletions;
+    /**
+     * The ID of the node to fail at or <code>-1</code> if the handler should
+     * not fail.
+     */
+    private final long mFailAtId;
+    /**
+     * The name of the handler.
+     */
+    private final String mName;
+    /**
+     * The IDs of all handled nodes.
+     */
+    private final List<Long> mNodeIds;
+
+    /**
+     * Creates a new recording handler.
+     *
+     * @param completions The shared list to record completions to
+     * @param name        The name of the handler
+     * @param failAtId    The ID of the node to fail at or <code>-1</code> if
+     *                    the handler should not fail
+     */
+    public RecordingHandler(final List<String> completions, final String name, final long failAtId) {
+      mCompletions = completions;
+      mName = name;
+      mFailAtId = failAtId;
+      mNodeIds = new ArrayList<>();
+    }
+
+    @Override
+    public void complete() throws IOException {
+      mCompletions.add(mName + ":" + mNodeIds.size());
+    }
+
+    /**
+     * Gets the IDs of all handled nodes.
+     *
+     * @return The IDs of all handled nodes
+     */
+    public List<Long> getNodeIds() {
+      return mNodeIds;
+    }
+
+    @Override
+    public void handle(final OsmBounds bounds) throws IOException {
+      // Ignore
+    }
+
+    @Override
+    public void handle(final OsmNode node) throws IOException {
+      if (node.getId() == mFailAtId) {
+        throw new IOException(mName);
+      }
+      mNodeIds.add(node.getId());
+    }
+
+    @Override
+    public void handle(final OsmRelation relation) throws IOException {
+      // Ignore
+    }
+
+    @Override
+    public void handle(final OsmWay way) throws IOException {
+      // Ignore
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package de.unifreiburg.informatik.cobweb.routing.algorithms.isochrone;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for the class {@link ConcaveHull}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class ConcaveHullTest {
+  /**
+   * Whether the given polygon contains the given coordinate, using ray
+   * casting.
+   *
+   * @param polygon   The vertices of the polygon
+   * @param latitude  The latitude of the coordinate
+   * @param longitude The longitude of the coordinate
+   * @return <code>True</code> if the coordinate is inside, <code>false</code>
+   *         otherwise
+   */
+  private static boolean contains(final List<float[]> polygon, final float latitude, final float longitude) {
+    boolean inside = false;
+    for (int i = 0, j = polygon.size() - 1; i < polygon.size(); j = i, i++) {
+      final float[] first = polygon.get(i);
+      final float[] second = polygon.get(j);
+      if ((first[0] > latitude) != (second[0] > latitude) && longitude < (second[1] - first[1])
+          * (latitude - first[0]) / (second[0] - first[0]) + first[1]) {
+        inside = !inside;
+      }
+    }
+    return inside;
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.algorithms.isochrone.ConcaveHull#compute(float[], float[], int, float, float, int)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testCompute() {
+    // Two arms in eastern and northern direction, the area between them is not
+    // reachable
+    final float[] latitudes = new float[9];
+    final float[] longitudes = new float[9];
+    for (int i = 0; i < 4; i++) {
+      latitudes[i] = (float) (0.01 * (i + 1) * Math.sin(Math.toRadians(87.5)));
+      longitudes[i] = (float) (0.01 * (i + 1) * Math.cos(Math.toRadians(87.5)));
+      latitudes[i + 4] = (float) (0.01 * (i + 1) * Math.sin(Math.toRadians(2.5)));
+      longitudes[i + 4] = (float) (0.01 * (i + 1) * Math.cos(Math.toRadians(2.5)));
+    }
+    final List<float[]> hull = ConcaveHull.compute(latitudes, longitudes, 9, 0.0F, 0.0F, 72);
+    for (int i = 0; i < 8; i++) {
+      Assert.assertTrue(ConcaveHullTest.contains(hull, latitudes[i], longitudes[i]));
+    }
+    Assert.assertFalse(ConcaveHullTest.contains(hull, 0.02F, 0.02F));
+    // The convex hull spans the area
+    Assert.assertTrue(ConcaveHullTest.contains(ConvexHull.compute(latitudes, longitudes, 9), 0.02F, 0.02F));
+
+    // Ring around the center, all coordinates are enclosed
+    final float[] ringLatitudes = new float[100];
+    final float[] ringLongitudes = new float[100];
+    for (int i = 0; i < 100; i++) {
+      ringLatitudes[i] = (float) (48.0 + 0.01 * Math.sin(i * 2 * Math.PI / 100));
+      ringLongitudes[i] = (float) (7.8 + 0.01 * Math.cos(i * 2 * Math.PI / 100) / Math.cos(Math.toRadians(48.0)));
+    }
+    final List<float[]> ringHull = ConcaveHull.compute(ringLatitudes, ringLongitudes, 100, 48.0F, 7.8F, 8);
+    // At most two vertices per sector
+    Assert.assertTrue(ringHull.size() >= 8 && ringHull.size() <= 16);
+    for (int i = 0; i < 100; i++) {
+      Assert.assertTrue(ConcaveHullTest.contains(ringHull, (float) (48.0 + 0.0099 * Math.sin(i * 2 * Math.PI / 100)),
+          (float) (7.8 + 0.0099 * Math.cos(i * 2 * Math.PI / 100) / Math.cos(Math.toRadians(48.0)))));
+    }
+
+    // Degenerated cases
+    Assert.assertTrue(ConcaveHull.compute(latitudes, longitudes, 0, 0.0F, 0.0F, 72).isEmpty());
+    Assert.assertEquals(2, ConcaveHull.compute(latitudes, longitudes, 2, 0.0F, 0.0F, 72).size());
+    Assert.assertEquals(1,
+        ConcaveHull.compute(new float[] { 1.0F, 1.0F, 1.0F }, new float[] { 2.0F, 2.0F, 2.0F }, 3, 1.0F, 2.0F, 72)
+            .size());
+    try {
+      ConcaveHull.compute(latitudes, longitudes, 9, 0.0F, 0.0F, 2);
+      Assert.fail();
+    } catch (final IllegalArgumentException e) {
+      // Expected
+    }
+  }
+}
@@ -0,0 +1,43 @@
+package de.unifreiburg.informatik.cobweb.routing.algorithms.isochrone;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for the class {@link ConvexHull}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class ConvexHullTest {
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.algorithms.isochrone.ConvexHull#compute(float[], float[], int)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testCompute() {
+    // Square with an inner point, a duplicate and a point on an edge
+    final float[] latitudes = { 0.0F, 0.0F, 2.0F, 2.0F, 1.0F, 0.0F, 0.0F, 5.0F };
+    final float[] longitudes = { 0.0F, 2.0F, 2.0F, 0.0F, 1.0F, 0.0F, 1.0F, 5.0F };
+    final List<float[]> hull = ConvexHull.compute(latitudes, longitudes, 7);
+    Assert.assertEquals(4, hull.size());
+    // Counter-clockwise starting at the lowest longitude and latitude
+    Assert.assertArrayEquals(new float[] { 0.0F, 0.0F }, hull.get(0), 0.0F);
+    Assert.assertArrayEquals(new float[] { 0.0F, 2.0F }, hull.get(1), 0.0F);
+    Assert.assertArrayEquals(new float[] { 2.0F, 2.0F }, hull.get(2), 0.0F);
+    Assert.assertArrayEquals(new float[] { 2.0F, 0.0F }, hull.get(3), 0.0F);
+
+    // Negative coordinates
+    final List<float[]> negativeHull =
+        ConvexHull.compute(new float[] { -1.0F, -3.0F, -2.0F }, new float[] { -2.0F, -2.0F, -1.0F }, 3);
+    Assert.assertEquals(3, negativeHull.size());
+    Assert.assertArrayEquals(new float[] { -3.0F, -2.0F }, negativeHull.get(0), 0.0F);
+
+    // Degenerated cases
+    Assert.assertTrue(ConvexHull.compute(latitudes, longitudes, 0).isEmpty());
+    Assert.assertEquals(1, ConvexHull.compute(new float[] { 1.0F, 1.0F }, new float[] { 2.0F, 2.0F }, 2).size());
+    Assert.assertEquals(2, ConvexHull.compute(new float[] { 1.0F, 2.0F }, new float[] { 2.0F, 2.0F }, 2).size());
+  }
+}
@@ -0,0 +1,122 @@
+package de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.unifreiburg.informatik.cobweb.routing.algorithms.metrics.IMetric;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.IHasId;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.transit.TransitNode;
+
+/**
+ * Test for the class {@link FilteredNearestNeighborComputation}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class FilteredNearestNeighborComputationTest {
+  /**
+   * The computation used for testing.
+   */
+  private FilteredNearestNeighborComputation<TransitNode> mComputation;
+  /**
+   * The metric used for testing.
+   */
+  private IMetric<TransitNode> mMetric;
+
+  /**
+   * Setups a computation instance for testing.
+   */
+  @Before
+  public void setUp() {
+    // Interpret coordinates as 2D euclidean space
+    mMetric = (first, second) -> {
+      final float xDiff = second.getLatitude() - first.getLatitude();
+      final float yDiff = second.getLongitude() - first.getLongitude();
+      return Math.sqrt(Math.pow(xDiff, 2) + Math.pow(yDiff, 2));
+    };
+
+    final CoverTree<TransitNode> base = new CoverTree<>(2.0, mMetric);
+    base.insert(new TransitNode(1, 1.0F, 1.0F, 1));
+    base.insert(new TransitNode(2, 2.0F, 2.0F, 1));
+    base.insert(new TransitNode(3, 3.0F, 3.0F, 1));
+    base.insert(new TransitNode(4, 4.0F, 4.0F, 1));
+    base.insert(new TransitNode(5, 5.0F, 5.0F, 1));
+    base.insert(new TransitNode(6, 6.0F, 6.0F, 1));
+
+    final CoverTree<TransitNode> added = new CoverTree<>(2.0, mMetric);
+    added.insert(new TransitNode(7, 3.4F, 3.4F, 1));
+
+    // Simulates that 3 and 4 were removed
+    mComputation = new FilteredNearestNeighborComputation<>(base, added,
+        node -> node.getId() != 3 && node.getId() != 4, mMetric);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.FilteredNearestNeighborComputation#FilteredNearestNeighborComputation(INearestNeighborComputation, INearestNeighborComputation, java.util.function.Predicate, IMetric)}.
+   */
+  @SuppressWarnings("unused")
+  @Test
+  public void testFilteredNearestNeighborComputation() {
+    try {
+      new FilteredNearestNeighborComputation<>(new CoverTree<>(mMetric), new CoverTree<>(mMetric), node -> true,
+          mMetric);
+    } catch (final Exception e) {
+      Assert.fail();
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.FilteredNearestNeighborComputation#getKNearestNeighbors(de.unifreiburg.informatik.cobweb.routing.model.graph.ISpatial, int)}.
+   */
+  @Test
+  public void testGetKNearestNeighbors() {
+    final TransitNode point = new TransitNode(-1, 3.6F, 3.6F, 1);
+
+    Assert.assertTrue(mComputation.getKNearestNeighbors(point, 0).isEmpty());
+
+    Assert.assertEquals(Arrays.asList(7),
+        mComputation.getKNearestNeighbors(point, 1).stream().map(IHasId::getId).collect(Collectors.toList()));
+    Assert.assertEquals(Arrays.asList(7, 5, 2),
+        mComputation.getKNearestNeighbors(point, 3).stream().map(IHasId::getId).collect(Collectors.toList()));
+    Assert.assertEquals(Arrays.asList(7, 5, 2, 6, 1),
+        mComputation.getKNearestNeighbors(point, 10).stream().map(IHasId::getId).collect(Collectors.toList()));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.FilteredNearestNeighborComputation#getNearestNeighbor(de.unifreiburg.informatik.cobweb.routing.model.graph.ISpatial)}.
+   */
+  @Test
+  public void testGetNearestNeighbor() {
+    Assert.assertEquals(7, mComputation.getNearestNeighbor(new TransitNode(-1, 3.6F, 3.6F, 1)).get().getId());
+    Assert.assertEquals(7, mComputation.getNearestNeighbor(new TransitNode(-1, 3.0F, 3.0F, 1)).get().getId());
+    Assert.assertEquals(5, mComputation.getNearestNeighbor(new TransitNode(-1, 4.5F, 4.5F, 1)).get().getId());
+    Assert.assertEquals(1, mComputation.getNearestNeighbor(new TransitNode(-1, 0.0F, 0.0F, 1)).get().getId());
+
+    Assert.assertFalse(new FilteredNearestNeighborComputation<>(new CoverTree<>(mMetric), new CoverTree<>(mMetric),
+        node -> true, mMetric).getNearestNeighbor(new TransitNode(-1, 1.0F, 1.0F, 1)).isPresent());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.algorithms.nearestneighbor.FilteredNearestNeighborComputation#getNeighborhood(de.unifreiburg.informatik.cobweb.routing.model.graph.ISpatial, double)}.
+   */
+  @Test
+  public void testGetNeighborhood() {
+    final TransitNode point = new TransitNode(-1, 3.6F, 3.6F, 1);
+
+    Assert.assertEquals(Collections.emptySet(),
+        mComputation.getNeighborhood(point, 0.1).stream().map(IHasId::getId).collect(Collectors.toSet()));
+    Assert.assertEquals(new HashSet<>(Arrays.asList(7)),
+        mComputation.getNeighborhood(point, 1.0).stream().map(IHasId::getId).collect(Collectors.toSet()));
+    Assert.assertEquals(new HashSet<>(Arrays.asList(7, 5)),
+        mComputation.getNeighborhood(point, 2.1).stream().map(IHasId::getId).collect(Collectors.toSet()));
+  }
+}
@@ -0,0 +1,88 @@
+package de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for the class {@link ComputationDeadline}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class ComputationDeadlineTest {
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.ComputationDeadline#after(long, TimeUnit)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testAfter() {
+    Assert.assertFalse(ComputationDeadline.after(1, TimeUnit.HOURS).hasExpired());
+    Assert.assertTrue(ComputationDeadline.after(0, TimeUnit.MILLISECONDS).hasExpired());
+    Assert.assertTrue(ComputationDeadline.after(-1, TimeUnit.SECONDS).hasExpired());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.ComputationDeadline#checkAbort()}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testCheckAbort() {
+    final ComputationDeadline pending = ComputationDeadline.after(1, TimeUnit.HOURS);
+    Assert.assertFalse(pending.checkAbort());
+    Assert.assertFalse(pending.wasAborted());
+
+    final ComputationDeadline expired = ComputationDeadline.after(0, TimeUnit.MILLISECONDS);
+    Assert.assertFalse(expired.wasAborted());
+    Assert.assertTrue(expired.checkAbort());
+    Assert.assertTrue(expired.wasAborted());
+
+    Assert.assertFalse(ComputationDeadline.none().checkAbort());
+    Assert.assertFalse(ComputationDeadline.none().wasAborted());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.ComputationDeadline#hasExpired()}.
+   *
+   * @throws InterruptedException If the thread was interrupted while waiting
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testHasExpired() throws InterruptedException {
+    final ComputationDeadline deadline = ComputationDeadline.after(20, TimeUnit.MILLISECONDS);
+    Thread.sleep(50);
+    Assert.assertTrue(deadline.hasExpired());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.ComputationDeadline#none()}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testNone() {
+    Assert.assertFalse(ComputationDeadline.none().hasExpired());
+    Assert.assertSame(ComputationDeadline.none(), ComputationDeadline.none());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.ComputationDeadline#wasAborted()}.
+   *
+   * @throws InterruptedException If the thread was interrupted while waiting
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testWasAborted() throws InterruptedException {
+    // A computation finishing in time is not reported, even if the deadline
+    // expires afterwards
+    final ComputationDeadline deadline = ComputationDeadline.after(20, TimeUnit.MILLISECONDS);
+    Assert.assertFalse(deadline.checkAbort());
+    Thread.sleep(50);
+    Assert.assertTrue(deadline.hasExpired());
+    Assert.assertFalse(deadline.wasAborted());
+  }
+}
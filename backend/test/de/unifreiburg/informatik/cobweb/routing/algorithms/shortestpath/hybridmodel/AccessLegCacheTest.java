@@ -0,0 +1,182 @@
+package de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.hybridmodel;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.EmptyPath;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.IPath;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadNode;
+
+/**
+ * Test for the class {@link AccessLegCache}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class AccessLegCacheTest {
+  /**
+   * Creates access legs consisting of a single access node.
+   *
+   * @param accessNode The access node
+   * @return The access legs
+   */
+  private static Map<ICoreNode, IPath<ICoreNode, ICoreEdge<ICoreNode>>> createLegs(final ICoreNode accessNode) {
+    return Collections.singletonMap(accessNode, new EmptyPath<>(accessNode));
+  }
+
+  /**
+   * The cache used for testing, has a capacity of two and a time to live of
+   * <code>100</code> milliseconds.
+   */
+  private AccessLegCache mCache;
+  /**
+   * The current time of the clock used by the cache.
+   */
+  private long mTime;
+
+  /**
+   * Setups a cache instance for testing.
+   */
+  @Before
+  public void setUp() {
+    mTime = 0;
+    mCache = new AccessLegCache(2, 100, () -> mTime);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.hybridmodel.AccessLegCache#AccessLegCache(int, long)}.
+   */
+  @Test
+  public void testAccessLegCache() {
+    try {
+      new AccessLegCache(0, 100);
+      Assert.fail();
+    } catch (final IllegalArgumentException e) {
+      // Expected
+    }
+    Assert.assertEquals(0, new AccessLegCache(1, 100).size());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.hybridmodel.AccessLegCache#copy(java.util.function.IntPredicate)}.
+   */
+  @Test
+  public void testCopy() {
+    final ICoreNode first = new RoadNode(1, 1.0F, 1.0F);
+    final ICoreNode second = new RoadNode(2, 2.0F, 2.0F);
+    final Set<ETransportationMode> car = EnumSet.of(ETransportationMode.CAR);
+    final long firstKey = AccessLegCache.createKey(first, car, true);
+    final long secondKey = AccessLegCache.createKey(second, car, false);
+    final Map<ICoreNode, IPath<ICoreNode, ICoreEdge<ICoreNode>>> legs = AccessLegCacheTest.createLegs(second);
+    mCache.put(firstKey, legs);
+    mCache.put(secondKey, AccessLegCacheTest.createLegs(first));
+
+    final AccessLegCache copy = mCache.copy(nodeId -> nodeId != second.getId());
+    Assert.assertEquals(1, copy.size());
+    Assert.assertSame(legs, copy.get(firstKey));
+    Assert.assertNull(copy.get(secondKey));
+    Assert.assertEquals(2, mCache.size());
+
+    // Copied entries keep their age
+    mTime = 101;
+    Assert.assertNull(copy.get(firstKey));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.hybridmodel.AccessLegCache#createKey(ICoreNode, Set, boolean)}.
+   */
+  @Test
+  public void testCreateKey() {
+    final ICoreNode first = new RoadNode(1, 1.0F, 1.0F);
+    final ICoreNode second = new RoadNode(2, 1.0F, 1.0F);
+    final Set<ETransportationMode> car = EnumSet.of(ETransportationMode.CAR);
+    final Set<ETransportationMode> footAndTram = EnumSet.of(ETransportationMode.FOOT, ETransportationMode.TRAM);
+
+    Assert.assertEquals(AccessLegCache.createKey(first, car, true), AccessLegCache.createKey(first, car, true));
+    Assert.assertNotEquals(AccessLegCache.createKey(first, car, true), AccessLegCache.createKey(first, car, false));
+    Assert.assertNotEquals(AccessLegCache.createKey(first, car, true), AccessLegCache.createKey(second, car, true));
+    Assert.assertNotEquals(AccessLegCache.createKey(first, car, true),
+        AccessLegCache.createKey(first, footAndTram, true));
+    Assert.assertEquals(AccessLegCache.createKey(first, footAndTram, false), AccessLegCache.createKey(first,
+        EnumSet.of(ETransportationMode.TRAM, ETransportationMode.FOOT), false));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.hybridmodel.AccessLegCache#get(long)}.
+   */
+  @Test
+  public void testGet() {
+    final Map<ICoreNode, IPath<ICoreNode, ICoreEdge<ICoreNode>>> legs =
+        AccessLegCacheTest.createLegs(new RoadNode(1, 1.0F, 1.0F));
+    Assert.assertNull(mCache.get(1L));
+    mCache.put(1L, legs);
+    Assert.assertSame(legs, mCache.get(1L));
+
+    // Expire the entry
+    mTime = 100;
+    Assert.assertSame(legs, mCache.get(1L));
+    mTime = 101;
+    Assert.assertNull(mCache.get(1L));
+
+    Assert.assertEquals(2, mCache.getHits());
+    Assert.assertEquals(2, mCache.getMisses());
+    Assert.assertEquals(0.5, mCache.getHitRate(), 0.0);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.hybridmodel.AccessLegCache#getHitRate()}.
+   */
+  @Test
+  public void testGetHitRate() {
+    Assert.assertEquals(0.0, mCache.getHitRate(), 0.0);
+    mCache.put(1L, AccessLegCacheTest.createLegs(new RoadNode(1, 1.0F, 1.0F)));
+    mCache.get(1L);
+    mCache.get(1L);
+    mCache.get(1L);
+    mCache.get(2L);
+    Assert.assertEquals(0.75, mCache.getHitRate(), 0.0);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.hybridmodel.AccessLegCache#put(long, Map)}.
+   */
+  @Test
+  public void testPut() {
+    final Map<ICoreNode, IPath<ICoreNode, ICoreEdge<ICoreNode>>> first =
+        AccessLegCacheTest.createLegs(new RoadNode(1, 1.0F, 1.0F));
+    final Map<ICoreNode, IPath<ICoreNode, ICoreEdge<ICoreNode>>> second =
+        AccessLegCacheTest.createLegs(new RoadNode(2, 1.0F, 1.0F));
+
+    mCache.put(1L, first);
+    mCache.put(2L, second);
+    Assert.assertEquals(2, mCache.size());
+
+    // Replacing does not evict
+    mCache.put(1L, second);
+    Assert.assertEquals(2, mCache.size());
+    Assert.assertSame(second, mCache.get(1L));
+    Assert.assertEquals(0, mCache.getEvictions());
+
+    // Exceeding the capacity evicts the oldest entry
+    mCache.put(3L, first);
+    Assert.assertEquals(2, mCache.size());
+    Assert.assertEquals(1, mCache.getEvictions());
+    Assert.assertNull(mCache.get(1L));
+    Assert.assertSame(second, mCache.get(2L));
+    Assert.assertSame(first, mCache.get(3L));
+  }
+}
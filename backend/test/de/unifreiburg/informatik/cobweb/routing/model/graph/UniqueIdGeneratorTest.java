@@ -38,4 +38,21 @@ public final class UniqueIdGeneratorTest {
     }
   }
 
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.graph.UniqueIdGenerator#UniqueIdGenerator(UniqueIdGenerator)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testUniqueIdGeneratorUniqueIdGenerator() {
+    final UniqueIdGenerator generator = new UniqueIdGenerator();
+    generator.generateUniqueId();
+    generator.generateUniqueId();
+
+    final UniqueIdGenerator copy = new UniqueIdGenerator(generator);
+    Assert.assertEquals(2, copy.generateUniqueId());
+    Assert.assertEquals(2, generator.generateUniqueId());
+    Assert.assertEquals(3, copy.generateUniqueId());
+  }
+
 }
@@ -81,7 +81,17 @@ public final class RoadGraphTest {
   @Test
   public void testAddNode() {
     Assert.assertEquals(6, mGraph.size());
-    mGraph.addNode(new RoadNode(10, 10.0F, 10.0F));
+    Assert.assertTrue(mGraph.addNode(new RoadNode(10, 10.0F, 10.0F)));
+    Assert.assertEquals(7, mGraph.size());
+    Assert.assertFalse(mGraph.addNode(new RoadNode(10, 10.0F, 10.0F)));
+    Assert.assertEquals(7, mGraph.size());
+
+    try {
+      mGraph.addNode(new RoadNode(-1, 1.0F, 1.0F));
+      Assert.fail();
+    } catch (final IllegalArgumentException e) {
+      // Expected
+    }
     Assert.assertEquals(7, mGraph.size());
   }
 
@@ -97,6 +107,40 @@ public final class RoadGraphTest {
     Assert.assertFalse(mGraph.containsNodeWithId(-2));
   }
 
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadGraph#copy()}.
+   */
+  @Test
+  public void testCopy() {
+    final RoadGraph<RoadNode, RoadEdge<RoadNode>> copy = mGraph.copy();
+    Assert.assertEquals(6, copy.size());
+    Assert.assertEquals(18, copy.getAmountOfEdges());
+    final RoadNode first = mGraph.getNodeById(1).get();
+    Assert.assertSame(first, copy.getNodeById(1).get());
+
+    // Changing the copy does not change the original graph
+    final RoadEdge<RoadNode> edge = mGraph.getOutgoingEdges(first).findAny().get();
+    Assert.assertTrue(copy.removeNode(first));
+    Assert.assertEquals(5, copy.size());
+    Assert.assertEquals(10, copy.getAmountOfEdges());
+    Assert.assertFalse(copy.containsEdge(edge));
+    Assert.assertEquals(6, mGraph.size());
+    Assert.assertEquals(18, mGraph.getAmountOfEdges());
+    Assert.assertTrue(mGraph.containsEdge(edge));
+
+    // Changing the original graph does not change the copy
+    final RoadEdge<RoadNode> addedEdge = new RoadEdge<>(40, mGraph.getNodeById(2).get(), mGraph.getNodeById(6).get(),
+        EHighwayType.MOTORWAY, 100, EnumSet.of(ETransportationMode.CAR));
+    Assert.assertTrue(mGraph.addEdge(addedEdge));
+    Assert.assertTrue(mGraph.containsEdge(addedEdge));
+    Assert.assertFalse(copy.containsEdge(addedEdge));
+    Assert.assertEquals(10, copy.getAmountOfEdges());
+
+    // Both graphs continue generating IDs independently
+    Assert.assertEquals(mGraph.generateUniqueNodeId(), copy.generateUniqueNodeId());
+  }
+
   /**
    * Test method for
    * {@link de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadGraph#generateUniqueNodeId()}.
@@ -151,6 +195,15 @@ public final class RoadGraphTest {
     Assert.assertTrue(nodeIds.contains(5));
     Assert.assertTrue(nodeIds.contains(6));
 
+    final RoadNode node = new RoadNode(10, 10.0F, 10.0F);
+    Assert.assertFalse(mGraph.getNodes().contains(node));
+    mGraph.addNode(node);
+    Assert.assertTrue(mGraph.getNodes().contains(node));
+    Assert.assertEquals(7, mGraph.getNodes().size());
+    mGraph.removeNode(node);
+    Assert.assertFalse(mGraph.getNodes().contains(node));
+    Assert.assertEquals(6, mGraph.getNodes().size());
+
     Assert.assertTrue(new RoadGraph<>().getNodes().isEmpty());
   }
 
@@ -0,0 +1,228 @@
+package de.unifreiburg.informatik.cobweb.routing.model.graph.transit;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
+
+/**
+ * Test for the class {@link CompactTransitGraph}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class CompactTransitGraphTest {
+  /**
+   * The graph used for testing.
+   */
+  private CompactTransitGraph mGraph;
+
+  /**
+   * Setups a graph instance for testing. The graph consists of three stops and
+   * two trips with a transfer delay of <code>60</code> seconds.
+   */
+  @Before
+  public void setUp() {
+    mGraph = new CompactTransitGraph(60);
+    final int first = mGraph.addStop(1.0F, 1.0F);
+    final int second = mGraph.addStop(2.0F, 2.0F);
+    final int third = mGraph.addStop(3.0F, 3.0F);
+
+    // Stop times 0, 1 and 2
+    mGraph.addTrip(new int[] { first, second, third }, new int[] { 100, 200, 300 }, new int[] { 100, 210, 300 }, 3);
+    // Stop times 3 and 4
+    mGraph.addTrip(new int[] { second, third }, new int[] { 100, 400 }, new int[] { 120, 400 }, 2);
+    mGraph.buildIndex();
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.graph.transit.CompactTransitGraph#addNode(ICoreNode)}.
+   */
+  @Test(expected = UnsupportedOperationException.class)
+  public void testAddNode() {
+    mGraph.addNode(new TransitNode(100, 1.0F, 1.0F, 1));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.graph.transit.CompactTransitGraph#addStop(String, float, float)}.
+   */
+  @Test
+  public void testAddStop() {
+    final int stop = mGraph.addStop("first", 4.0F, 4.0F);
+    Assert.assertEquals(3, stop);
+    Assert.assertEquals(stop, mGraph.addStop("first", 4.0F, 4.0F));
+    Assert.assertEquals(4, mGraph.addStop("second", 4.0F, 4.0F));
+    Assert.assertEquals(5, mGraph.addStop(5.0F, 5.0F));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.graph.transit.CompactTransitGraph#addTrip(int[], int[], int[], int)}.
+   */
+  @Test
+  public void testAddTrip() {
+    mGraph.addTrip(new int[] { 0, 1 }, new int[] { 500, 600 }, new int[] { 500, 600 }, 2);
+    Assert.assertEquals(21, mGraph.size());
+    try {
+      mGraph.getAmountOfEdges();
+      Assert.fail();
+    } catch (final IllegalStateException e) {
+      // Expected, the index was invalidated
+    }
+    mGraph.buildIndex();
+    Assert.assertEquals(26, mGraph.getAmountOfEdges());
+
+    try {
+      mGraph.addTrip(new int[] { 0, 5 }, new int[] { 500, 600 }, new int[] { 500, 600 }, 2);
+      Assert.fail();
+    } catch (final IllegalArgumentException e) {
+      // Expected, the stop does not exist
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.graph.transit.CompactTransitGraph#containsEdge(ICoreEdge)}.
+   */
+  @Test
+  public void testContainsEdge() {
+    final ICoreNode departure = mGraph.getNodeById(1).get();
+    mGraph.getOutgoingEdges(departure).forEach(edge -> Assert.assertTrue(mGraph.containsEdge(edge)));
+    Assert.assertFalse(mGraph.containsEdge(new TransitEdge<>(1000, departure, departure, 0)));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.graph.transit.CompactTransitGraph#getAmountOfEdges()}.
+   */
+  @Test
+  public void testGetAmountOfEdges() {
+    Assert.assertEquals(17, mGraph.getAmountOfEdges());
+    Assert.assertEquals(17, mGraph.getEdges().count());
+    Assert.assertEquals(17, mGraph.getEdges().map(ICoreEdge::getId).distinct().count());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.graph.transit.CompactTransitGraph#getIncomingEdges(ICoreNode)}.
+   */
+  @Test
+  public void testGetIncomingEdges() {
+    // Departure node of stop time 1, reached by arriving or by transfer
+    final ICoreNode departure = mGraph.getNodeById(4).get();
+    final Map<Integer, Double> sourceToCost = mGraph.getIncomingEdges(departure)
+        .collect(Collectors.toMap(edge -> edge.getSource().getId(), ICoreEdge::getCost));
+    Assert.assertEquals(2, sourceToCost.size());
+    Assert.assertEquals(10.0, sourceToCost.get(3), 0.0);
+    Assert.assertEquals(50.0, sourceToCost.get(11), 0.0);
+
+    // Arrival node of a trip start
+    Assert.assertEquals(0, mGraph.getIncomingEdges(mGraph.getNodeById(0).get()).count());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.graph.transit.CompactTransitGraph#getNodeById(int)}.
+   */
+  @Test
+  public void testGetNodeById() {
+    final Optional<ICoreNode> transfer = mGraph.getNodeById(5);
+    Assert.assertTrue(transfer.isPresent());
+    Assert.assertEquals(260, ((TransitNode) transfer.get()).getTime());
+    Assert.assertEquals(2.0F, transfer.get().getLatitude(), 0.0F);
+    Assert.assertEquals(2.0F, transfer.get().getLongitude(), 0.0F);
+
+    Assert.assertFalse(mGraph.getNodeById(15).isPresent());
+    Assert.assertFalse(mGraph.getNodeById(-1).isPresent());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.graph.transit.CompactTransitGraph#getNodes()}.
+   */
+  @Test
+  public void testGetNodes() {
+    Assert.assertEquals(15, mGraph.getNodes().size());
+    Assert.assertTrue(mGraph.getNodes().contains(mGraph.getNodeById(14).get()));
+    Assert.assertFalse(mGraph.getNodes().contains(new TransitNode(15, 1.0F, 1.0F, 1)));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.graph.transit.CompactTransitGraph#getOutgoingEdges(ICoreNode)}.
+   */
+  @Test
+  public void testGetOutgoingEdges() {
+    // Departure node of stop time 0, rides to the arrival of stop time 1
+    final ICoreNode departure = mGraph.getNodeById(1).get();
+    final Map<Integer, Double> departureTargets = mGraph.getOutgoingEdges(departure)
+        .collect(Collectors.toMap(edge -> edge.getDestination().getId(), ICoreEdge::getCost));
+    Assert.assertEquals(1, departureTargets.size());
+    Assert.assertEquals(100.0, departureTargets.get(3), 0.0);
+
+    // Transfer node of stop time 3, waits or boards stop time 1
+    final ICoreNode transfer = mGraph.getNodeById(11).get();
+    final Map<Integer, Double> transferTargets = mGraph.getOutgoingEdges(transfer)
+        .collect(Collectors.toMap(edge -> edge.getDestination().getId(), ICoreEdge::getCost));
+    Assert.assertEquals(2, transferTargets.size());
+    Assert.assertEquals(100.0, transferTargets.get(5), 0.0);
+    Assert.assertEquals(50.0, transferTargets.get(4), 0.0);
+
+    // Last transfer node of a stop
+    Assert.assertEquals(0, mGraph.getOutgoingEdges(mGraph.getNodeById(5).get()).count());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.graph.transit.CompactTransitGraph#getStops()}.
+   */
+  @Test
+  public void testGetStops() {
+    Assert.assertEquals(3, mGraph.getStops().size());
+    final int amountOfArrivals =
+        mGraph.getStops().stream().mapToInt(stop -> stop.getArrivalNodes().size()).sum();
+    Assert.assertEquals(5, amountOfArrivals);
+
+    mGraph.addStop(4.0F, 4.0F);
+    mGraph.buildIndex();
+    Assert.assertEquals(3, mGraph.getStops().size());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.graph.transit.CompactTransitGraph#reverse()}.
+   */
+  @Test
+  public void testReverse() {
+    final ICoreNode transfer = mGraph.getNodeById(11).get();
+    Assert.assertFalse(mGraph.isReversed());
+    Assert.assertEquals(2, mGraph.getOutgoingEdges(transfer).count());
+    Assert.assertEquals(1, mGraph.getIncomingEdges(transfer).count());
+
+    mGraph.reverse();
+    Assert.assertTrue(mGraph.isReversed());
+    Assert.assertEquals(1, mGraph.getOutgoingEdges(transfer).count());
+    Assert.assertEquals(2, mGraph.getIncomingEdges(transfer).count());
+    mGraph.getOutgoingEdges(transfer).forEach(edge -> Assert.assertEquals(transfer, edge.getSource()));
+
+    mGraph.reverse();
+    Assert.assertFalse(mGraph.isReversed());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.model.graph.transit.CompactTransitGraph#size()}.
+   */
+  @Test
+  public void testSize() {
+    Assert.assertEquals(15, mGraph.size());
+    Assert.assertEquals(0, new CompactTransitGraph(60).size());
+  }
+}
@@ -0,0 +1,54 @@
+package de.unifreiburg.informatik.cobweb.routing.parsing.gtfs;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.unifreiburg.informatik.cobweb.routing.model.graph.transit.TransitNode;
+
+/**
+ * Test for the class {@link PendingEdge}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class PendingEdgeTest {
+  /**
+   * The pending edge used for testing.
+   */
+  private PendingEdge<TransitNode> mPendingEdge;
+
+  /**
+   * Setups a pending edge instance for testing.
+   */
+  @Before
+  public void setUp() {
+    mPendingEdge = new PendingEdge<>(new TransitNode(1, 1.0F, 1.0F, 1), new TransitNode(2, 2.0F, 2.0F, 2), 1.5);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.parsing.gtfs.PendingEdge#getCost()}.
+   */
+  @Test
+  public void testGetCost() {
+    Assert.assertEquals(1.5, mPendingEdge.getCost(), 0.0);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.parsing.gtfs.PendingEdge#getDestination()}.
+   */
+  @Test
+  public void testGetDestination() {
+    Assert.assertEquals(2, mPendingEdge.getDestination().getId());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.parsing.gtfs.PendingEdge#getSource()}.
+   */
+  @Test
+  public void testGetSource() {
+    Assert.assertEquals(1, mPendingEdge.getSource().getId());
+  }
+}
@@ -0,0 +1,165 @@
+package de.unifreiburg.informatik.cobweb.routing.parsing.gtfs;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.onebusaway.gtfs.model.AgencyAndId;
+import org.onebusaway.gtfs.model.Stop;
+import org.onebusaway.gtfs.model.StopTime;
+import org.onebusaway.gtfs.model.Trip;
+
+/**
+ * Test for the class {@link StopTimeBuffer}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class StopTimeBufferTest {
+  /**
+   * Creates a stop time with the given data.
+   *
+   * @param trip     The trip of the stop time
+   * @param stop     The stop of the stop time
+   * @param sequence The sequence index of the stop time
+   * @param time     The arrival time of the stop time, the departure is ten
+   *                 seconds later
+   * @return The created stop time
+   */
+  private static StopTime createStopTime(final Trip trip, final Stop stop, final int sequence, final int time) {
+    final StopTime stopTime = new StopTime();
+    stopTime.setTrip(trip);
+    stopTime.setStop(stop);
+    stopTime.setStopSequence(sequence);
+    stopTime.setArrivalTime(time);
+    stopTime.setDepartureTime(time + 10);
+    return stopTime;
+  }
+
+  /**
+   * The buffer used for testing.
+   */
+  private StopTimeBuffer mBuffer;
+
+  /**
+   * Setups a buffer instance for testing. The buffer contains two trips with
+   * unordered stop times at three stops.
+   */
+  @Before
+  public void setUp() {
+    mBuffer = new StopTimeBuffer();
+
+    final Stop first = new Stop();
+    first.setId(new AgencyAndId("a", "s1"));
+    first.setLat(1.0);
+    first.setLon(2.0);
+    final Stop second = new Stop();
+    second.setId(new AgencyAndId("a", "s2"));
+    second.setLat(3.0);
+    second.setLon(4.0);
+    final Stop third = new Stop();
+    third.setId(new AgencyAndId("a", "s3"));
+    third.setLat(5.0);
+    third.setLon(6.0);
+
+    final Trip firstTrip = new Trip();
+    firstTrip.setId(new AgencyAndId("a", "t1"));
+    final Trip secondTrip = new Trip();
+    secondTrip.setId(new AgencyAndId("a", "t2"));
+
+    mBuffer.add(StopTimeBufferTest.createStopTime(firstTrip, second, 5, 200));
+    mBuffer.add(StopTimeBufferTest.createStopTime(secondTrip, third, 2, 500));
+    mBuffer.add(StopTimeBufferTest.createStopTime(firstTrip, first, 1, 100));
+    mBuffer.add(StopTimeBufferTest.createStopTime(secondTrip, second, 1, 400));
+    mBuffer.add(StopTimeBufferTest.createStopTime(firstTrip, third, 9, 300));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.parsing.gtfs.StopTimeBuffer#add(StopTime)}.
+   */
+  @Test
+  public void testAdd() {
+    Assert.assertEquals(5, mBuffer.size());
+    Assert.assertEquals(3, mBuffer.getAmountOfStops());
+    Assert.assertEquals(2, mBuffer.getAmountOfTrips());
+
+    Assert.assertEquals(0, mBuffer.getStop(0));
+    Assert.assertEquals(200, mBuffer.getArrTime(0));
+    Assert.assertEquals(210, mBuffer.getDepTime(0));
+    Assert.assertEquals(new AgencyAndId("a", "s2"), mBuffer.getStopId(0));
+    Assert.assertEquals(new AgencyAndId("a", "t2"), mBuffer.getTripId(1));
+    Assert.assertEquals(5.0F, mBuffer.getStopLatitude(1), 0.0F);
+    Assert.assertEquals(6.0F, mBuffer.getStopLongitude(1), 0.0F);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.parsing.gtfs.StopTimeBuffer#clear()}.
+   */
+  @Test
+  public void testClear() {
+    mBuffer.clear();
+    Assert.assertEquals(0, mBuffer.size());
+    Assert.assertEquals(0, mBuffer.getAmountOfStops());
+    Assert.assertEquals(0, mBuffer.getAmountOfTrips());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.parsing.gtfs.StopTimeBuffer#groupByStop(int[])}.
+   */
+  @Test
+  public void testGroupByStop() {
+    final int[] stopOffsets = new int[mBuffer.getAmountOfStops() + 1];
+    final int[] stopTimes = mBuffer.groupByStop(stopOffsets);
+    Assert.assertArrayEquals(new int[] { 0, 2, 4, 5 }, stopOffsets);
+    Assert.assertEquals(5, stopTimes.length);
+    for (int stop = 0; stop < mBuffer.getAmountOfStops(); stop++) {
+      for (int position = stopOffsets[stop]; position < stopOffsets[stop + 1]; position++) {
+        Assert.assertEquals(stop, mBuffer.getStop(stopTimes[position]));
+      }
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.parsing.gtfs.StopTimeBuffer#pack(int, int)}.
+   */
+  @Test
+  public void testPack() {
+    final long packed = StopTimeBuffer.pack(-999, 5);
+    Assert.assertEquals(-999, StopTimeBuffer.unpackKey(packed));
+    Assert.assertEquals(5, StopTimeBuffer.unpackValue(packed));
+    Assert.assertTrue(packed < StopTimeBuffer.pack(0, 0));
+    Assert.assertTrue(StopTimeBuffer.pack(1, 7) < StopTimeBuffer.pack(2, 0));
+    Assert.assertTrue(StopTimeBuffer.pack(1, 0) < StopTimeBuffer.pack(1, 7));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.parsing.gtfs.StopTimeBuffer#sortByTrip()}.
+   */
+  @Test
+  public void testSortByTrip() {
+    try {
+      mBuffer.getTripBegin(0);
+      Assert.fail();
+    } catch (final IllegalStateException e) {
+      // Expected, the buffer is not sorted yet
+    }
+
+    mBuffer.sortByTrip();
+    Assert.assertEquals(0, mBuffer.getTripBegin(0));
+    Assert.assertEquals(3, mBuffer.getTripEnd(0));
+    Assert.assertEquals(3, mBuffer.getTripBegin(1));
+    Assert.assertEquals(5, mBuffer.getTripEnd(1));
+
+    final int[] expectedArrTimes = { 100, 200, 300, 400, 500 };
+    for (int stopTime = 0; stopTime < expectedArrTimes.length; stopTime++) {
+      Assert.assertEquals(expectedArrTimes[stopTime], mBuffer.getArrTime(stopTime));
+      Assert.assertEquals(expectedArrTimes[stopTime] + 10, mBuffer.getDepTime(stopTime));
+    }
+    Assert.assertEquals(2, mBuffer.getStop(0));
+    Assert.assertEquals(0, mBuffer.getStop(1));
+    Assert.assertEquals(1, mBuffer.getStop(2));
+  }
+}
@@ -0,0 +1,90 @@
+package de.unifreiburg.informatik.cobweb.routing.parsing.osm;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test for the class {@link NodeCoordinateStore}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class NodeCoordinateStoreTest {
+  /**
+   * The store used for testing.
+   */
+  private NodeCoordinateStore mStore;
+
+  /**
+   * Setups a store instance for testing.
+   */
+  @Before
+  public void setUp() {
+    mStore = new NodeCoordinateStore(new long[] { 30L, 10L, 20L });
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.parsing.osm.NodeCoordinateStore#getAmountOfResolved()}.
+   */
+  @Test
+  public void testGetAmountOfResolved() {
+    Assert.assertEquals(0, mStore.getAmountOfResolved());
+    mStore.put(10L, 1.0F, 2.0F);
+    Assert.assertEquals(1, mStore.getAmountOfResolved());
+    mStore.put(10L, 3.0F, 4.0F);
+    Assert.assertEquals(1, mStore.getAmountOfResolved());
+    mStore.put(40L, 3.0F, 4.0F);
+    Assert.assertEquals(1, mStore.getAmountOfResolved());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.parsing.osm.NodeCoordinateStore#getIndex(long)}.
+   */
+  @Test
+  public void testGetIndex() {
+    Assert.assertEquals(0, mStore.getIndex(10L));
+    Assert.assertEquals(1, mStore.getIndex(20L));
+    Assert.assertEquals(2, mStore.getIndex(30L));
+    Assert.assertEquals(-1, mStore.getIndex(15L));
+    Assert.assertEquals(-1, mStore.getIndex(40L));
+    Assert.assertEquals(-1, new NodeCoordinateStore(new long[0]).getIndex(10L));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.parsing.osm.NodeCoordinateStore#isResolved(int)}.
+   */
+  @Test
+  public void testIsResolved() {
+    Assert.assertFalse(mStore.isResolved(mStore.getIndex(20L)));
+    mStore.put(20L, 1.0F, 2.0F);
+    Assert.assertTrue(mStore.isResolved(mStore.getIndex(20L)));
+    Assert.assertFalse(mStore.isResolved(mStore.getIndex(30L)));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.parsing.osm.NodeCoordinateStore#put(long, float, float)}.
+   */
+  @Test
+  public void testPut() {
+    Assert.assertTrue(mStore.put(30L, 1.5F, -2.5F));
+    Assert.assertFalse(mStore.put(40L, 1.0F, 1.0F));
+
+    final int index = mStore.getIndex(30L);
+    Assert.assertEquals(1.5F, mStore.getLatitude(index), 0.0F);
+    Assert.assertEquals(-2.5F, mStore.getLongitude(index), 0.0F);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.parsing.osm.NodeCoordinateStore#size()}.
+   */
+  @Test
+  public void testSize() {
+    Assert.assertEquals(3, mStore.size());
+    Assert.assertEquals(0, new NodeCoordinateStore(new long[0]).size());
+  }
+}
@@ -0,0 +1,295 @@
+package de.unifreiburg.informatik.cobweb.routing.parsing.osm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.slimjars.dist.gnu.trove.list.array.TLongArrayList;
+
+import de.topobyte.osm4j.core.model.iface.OsmEntity;
+import de.topobyte.osm4j.core.model.iface.OsmNode;
+import de.topobyte.osm4j.core.model.iface.OsmRelation;
+import de.topobyte.osm4j.core.model.iface.OsmWay;
+import de.topobyte.osm4j.core.model.impl.Node;
+import de.topobyte.osm4j.core.model.impl.Tag;
+import de.topobyte.osm4j.core.model.impl.Way;
+import de.topobyte.osm4j.core.model.util.OsmModelUtil;
+import de.unifreiburg.informatik.cobweb.db.MemoryDatabase;
+import de.unifreiburg.informatik.cobweb.parsing.osm.EHighwayType;
+import de.unifreiburg.informatik.cobweb.parsing.osm.EOsmChangeAction;
+import de.unifreiburg.informatik.cobweb.parsing.osm.IOsmFilter;
+import de.unifreiburg.informatik.cobweb.parsing.osm.OsmChange;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadGraph;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadNode;
+import de.unifreiburg.informatik.cobweb.util.RoutingUtil;
+
+/**
+ * Test for the class {@link RoadGraphChangeApplier}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class RoadGraphChangeApplierTest {
+  /**
+   * Creates a residential road way with the given OSM ID and nodes.
+   *
+   * @param id      The OSM ID of the way
+   * @param nodeIds The OSM IDs of the nodes of the way
+   * @return The created way
+   */
+  private static Way createRoad(final long id, final long... nodeIds) {
+    return new Way(id, new TLongArrayList(nodeIds), Collections.singletonList(new Tag("highway", "residential")));
+  }
+
+  /**
+   * Creates a filter which accepts all nodes and all ways with a highway tag.
+   *
+   * @return The created filter
+   */
+  private static IOsmFilter createRoadFilter() {
+    return new IOsmFilter() {
+      @Override
+      public boolean filter(final OsmNode node) {
+        return true;
+      }
+
+      @Override
+      public boolean filter(final OsmRelation relation) {
+        return false;
+      }
+
+      @Override
+      public boolean filter(final OsmWay way) {
+        return OsmModelUtil.getTagsAsMap(way).containsKey("highway");
+      }
+    };
+  }
+
+  /**
+   * The applier used for testing.
+   */
+  private RoadGraphChangeApplier mApplier;
+  /**
+   * The database used for testing.
+   */
+  private MemoryDatabase mDatabase;
+  /**
+   * The graph used for testing.
+   */
+  private RoadGraph<ICoreNode, ICoreEdge<ICoreNode>> mGraph;
+
+  /**
+   * Setups a graph with the road <code>1 - 2 - 3</code> of OSM ID
+   * <code>10</code> and an applier instance for testing.
+   */
+  @Before
+  public void setUp() {
+    mGraph = new RoadGraph<>();
+    mDatabase = new MemoryDatabase();
+
+    final List<OsmEntity> entities = new ArrayList<>();
+    final List<IdMapping> mappings = new ArrayList<>();
+    final List<RoadNode> nodes = new ArrayList<>();
+    for (long osmId = 1; osmId <= 3; osmId++) {
+      final Node osmNode = new Node(osmId, osmId, osmId);
+      final RoadNode node = new RoadNode(mGraph.generateUniqueNodeId(), (float) osmNode.getLatitude(),
+          (float) osmNode.getLongitude());
+      mGraph.addNode(node);
+      nodes.add(node);
+      entities.add(osmNode);
+      mappings.add(new IdMapping(osmId, node.getId(), true));
+    }
+    final Way road = RoadGraphChangeApplierTest.createRoad(10, 1, 2, 3);
+    entities.add(road);
+    final int wayId = mGraph.generateUniqueWayId();
+    mappings.add(new IdMapping(road.getId(), wayId, false));
+    final Set<ETransportationMode> modes = RoutingUtil.getTransportationModesOfHighway(EHighwayType.RESIDENTIAL);
+    for (int i = 1; i < nodes.size(); i++) {
+      final RoadEdge<ICoreNode> forward =
+          new RoadEdge<>(wayId, nodes.get(i - 1), nodes.get(i), EHighwayType.RESIDENTIAL, -1, modes);
+      final RoadEdge<ICoreNode> backward =
+          new RoadEdge<>(wayId, nodes.get(i), nodes.get(i - 1), EHighwayType.RESIDENTIAL, -1, modes);
+      forward.updateCost();
+      backward.updateCost();
+      mGraph.addEdge(forward);
+      mGraph.addEdge(backward);
+    }
+
+    mDatabase.offerOsmEntities(entities, entities.size());
+    mDatabase.offerIdMappings(mappings, mappings.size());
+    mDatabase.finishImport();
+
+    mApplier = new RoadGraphChangeApplier(mGraph, RoadGraphChangeApplierTest.createRoadFilter(), mDatabase);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.parsing.osm.RoadGraphChangeApplier#apply(de.unifreiburg.informatik.cobweb.parsing.osm.OsmChange)}
+   * applied to a copy of the graph.
+   */
+  @Test
+  public void testApplyCopy() {
+    final ICoreNode firstNode = mGraph.getNodeById(mDatabase.getInternalNodeByOsm(1).get().intValue()).get();
+    final ICoreEdge<ICoreNode> edge = mGraph.getOutgoingEdges(firstNode).findAny().get();
+    final double costBefore = edge.getCost();
+
+    final RoadGraph<ICoreNode, ICoreEdge<ICoreNode>> copy = mGraph.copy();
+    final OsmChange change = new OsmChange();
+    change.addNode(EOsmChangeAction.MODIFY, new Node(1, 0.0, 0.0));
+    change.addNode(EOsmChangeAction.DELETE, new Node(3, Double.NaN, Double.NaN));
+    new RoadGraphChangeApplier(copy, RoadGraphChangeApplierTest.createRoadFilter(), mDatabase).apply(change);
+    Assert.assertEquals(2, copy.size());
+    Assert.assertEquals(2, copy.getAmountOfEdges());
+    Assert.assertEquals(0.0F, copy.getNodeById(firstNode.getId()).get().getLatitude(), 0.0F);
+
+    // The shared nodes and edges are not changed
+    Assert.assertEquals(3, mGraph.size());
+    Assert.assertEquals(4, mGraph.getAmountOfEdges());
+    Assert.assertEquals(1.0F, firstNode.getLatitude(), 0.0F);
+    Assert.assertEquals(costBefore, edge.getCost(), 0.0);
+    Assert.assertTrue(mGraph.containsEdge(edge));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.parsing.osm.RoadGraphChangeApplier#apply(de.unifreiburg.informatik.cobweb.parsing.osm.OsmChange)}
+   * with created entities.
+   */
+  @Test
+  public void testApplyCreate() {
+    final OsmChange change = new OsmChange();
+    change.addNode(EOsmChangeAction.CREATE, new Node(4, 4.0, 4.0));
+    change.addWay(EOsmChangeAction.CREATE, RoadGraphChangeApplierTest.createRoad(11, 3, 4));
+    // Ways that are no roads are ignored
+    change.addWay(EOsmChangeAction.CREATE,
+        new Way(12, new TLongArrayList(new long[] { 1, 4 }), Collections.singletonList(new Tag("building", "yes"))));
+    mApplier.apply(change);
+
+    Assert.assertEquals(4, mGraph.size());
+    Assert.assertEquals(6, mGraph.getAmountOfEdges());
+    final int nodeId = mDatabase.getInternalNodeByOsm(4).get().intValue();
+    final ICoreNode node = mGraph.getNodeById(nodeId).get();
+    Assert.assertEquals(4.0F, node.getLatitude(), 0.0F);
+    Assert.assertEquals(4.0F, node.getLongitude(), 0.0F);
+    final int wayId = mDatabase.getInternalWayByOsm(11).get().intValue();
+    Assert.assertEquals(2, mGraph.getIncomingEdges(node).count() + mGraph.getOutgoingEdges(node).count());
+    Assert.assertTrue(mGraph.getOutgoingEdges(node).allMatch(edge -> edge.getId() == wayId));
+    Assert.assertFalse(mDatabase.getInternalWayByOsm(12).isPresent());
+
+    // Created ways are found again by later changes
+    final OsmChange deleteChange = new OsmChange();
+    deleteChange.addWay(EOsmChangeAction.DELETE, new Way(11, new TLongArrayList()));
+    mApplier.apply(deleteChange);
+    Assert.assertEquals(3, mGraph.size());
+    Assert.assertEquals(4, mGraph.getAmountOfEdges());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.parsing.osm.RoadGraphChangeApplier#apply(de.unifreiburg.informatik.cobweb.parsing.osm.OsmChange)}
+   * with deleted entities.
+   */
+  @Test
+  public void testApplyDelete() {
+    final OsmChange change = new OsmChange();
+    change.addNode(EOsmChangeAction.DELETE, new Node(3, Double.NaN, Double.NaN));
+    mApplier.apply(change);
+    Assert.assertEquals(2, mGraph.size());
+    Assert.assertEquals(2, mGraph.getAmountOfEdges());
+
+    // Nodes that are not part of any road anymore are removed
+    final OsmChange wayChange = new OsmChange();
+    wayChange.addWay(EOsmChangeAction.DELETE, new Way(10, new TLongArrayList()));
+    mApplier.apply(wayChange);
+    Assert.assertEquals(0, mGraph.size());
+    Assert.assertEquals(0, mGraph.getAmountOfEdges());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.parsing.osm.RoadGraphChangeApplier#apply(de.unifreiburg.informatik.cobweb.parsing.osm.OsmChange)}
+   * with modified entities.
+   */
+  @Test
+  public void testApplyModify() {
+    final ICoreNode firstNode = mGraph.getNodeById(mDatabase.getInternalNodeByOsm(1).get().intValue()).get();
+    final ICoreNode secondNode = mGraph.getNodeById(mDatabase.getInternalNodeByOsm(2).get().intValue()).get();
+    final double costBefore = mGraph.getOutgoingEdges(firstNode).findAny().get().getCost();
+
+    final OsmChange change = new OsmChange();
+    change.addNode(EOsmChangeAction.MODIFY, new Node(1, 0.0, 0.0));
+    mApplier.apply(change);
+    final ICoreNode movedNode = mGraph.getNodeById(firstNode.getId()).get();
+    Assert.assertEquals(0.0F, movedNode.getLatitude(), 0.0F);
+    Assert.assertEquals(0.0F, movedNode.getLongitude(), 0.0F);
+    // The node is replaced instead of changed, as well as its edges
+    Assert.assertEquals(1.0F, firstNode.getLatitude(), 0.0F);
+    Assert.assertTrue(mGraph.getOutgoingEdges(movedNode).findAny().get().getCost() > costBefore);
+
+    // Nodes whose coordinates did not change are kept
+    final OsmChange tagChange = new OsmChange();
+    tagChange.addNode(EOsmChangeAction.MODIFY, new Node(2, 2.0, 2.0));
+    mApplier.apply(tagChange);
+    Assert.assertSame(secondNode, mGraph.getNodeById(secondNode.getId()).get());
+    Assert.assertTrue(mApplier.getAddedEdges().isEmpty());
+    Assert.assertTrue(mApplier.getRemovedEdges().isEmpty());
+
+    // The road is shortened to its first two nodes, the third node is removed
+    final OsmChange wayChange = new OsmChange();
+    wayChange.addWay(EOsmChangeAction.MODIFY, RoadGraphChangeApplierTest.createRoad(10, 1, 2));
+    mApplier.apply(wayChange);
+    Assert.assertEquals(2, mGraph.size());
+    Assert.assertTrue(mGraph.getNodes().containsAll(Arrays.asList(firstNode, secondNode)));
+    Assert.assertEquals(2, mGraph.getAmountOfEdges());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.parsing.osm.RoadGraphChangeApplier#getAddedEdges()}.
+   */
+  @Test
+  public void testGetAddedEdges() {
+    Assert.assertTrue(mApplier.getAddedEdges().isEmpty());
+
+    final OsmChange change = new OsmChange();
+    change.addNode(EOsmChangeAction.CREATE, new Node(4, 4.0, 4.0));
+    change.addWay(EOsmChangeAction.CREATE, RoadGraphChangeApplierTest.createRoad(11, 3, 4));
+    mApplier.apply(change);
+    Assert.assertEquals(2, mApplier.getAddedEdges().size());
+    Assert.assertTrue(mApplier.getAddedEdges().stream().allMatch(mGraph::containsEdge));
+
+    // Moving a node replaces its edges
+    final OsmChange moveChange = new OsmChange();
+    moveChange.addNode(EOsmChangeAction.MODIFY, new Node(1, 0.0, 0.0));
+    mApplier.apply(moveChange);
+    Assert.assertEquals(2, mApplier.getAddedEdges().size());
+    final int nodeId = mDatabase.getInternalNodeByOsm(1).get().intValue();
+    Assert.assertTrue(mApplier.getAddedEdges().stream()
+        .allMatch(edge -> edge.getSource().getId() == nodeId || edge.getDestination().getId() == nodeId));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.parsing.osm.RoadGraphChangeApplier#getRemovedEdges()}.
+   */
+  @Test
+  public void testGetRemovedEdges() {
+    Assert.assertTrue(mApplier.getRemovedEdges().isEmpty());
+
+    final OsmChange change = new OsmChange();
+    change.addNode(EOsmChangeAction.DELETE, new Node(3, Double.NaN, Double.NaN));
+    mApplier.apply(change);
+    Assert.assertEquals(2, mApplier.getRemovedEdges().size());
+    Assert.assertTrue(mApplier.getRemovedEdges().stream().noneMatch(mGraph::containsEdge));
+    Assert.assertTrue(mApplier.getAddedEdges().isEmpty());
+  }
+}
@@ -0,0 +1,95 @@
+package de.unifreiburg.informatik.cobweb.routing.parsing.osm;
+
+import java.util.EnumSet;
+
+import org.eclipse.collections.impl.factory.primitive.IntSets;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.unifreiburg.informatik.cobweb.parsing.osm.EHighwayType;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadEdge;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadGraph;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadNode;
+
+/**
+ * Test for the class {@link WayNodeIndex}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class WayNodeIndexTest {
+  /**
+   * The index used for testing.
+   */
+  private WayNodeIndex mIndex;
+
+  /**
+   * Setups an index instance for a graph with the ways <code>1 - 2</code> of
+   * ID <code>10</code> and <code>2 - 3</code> of ID <code>11</code>.
+   */
+  @Before
+  public void setUp() {
+    final RoadGraph<ICoreNode, ICoreEdge<ICoreNode>> graph = new RoadGraph<>();
+    final RoadNode first = new RoadNode(1, 1.0F, 1.0F);
+    final RoadNode second = new RoadNode(2, 2.0F, 2.0F);
+    final RoadNode third = new RoadNode(3, 3.0F, 3.0F);
+    graph.addNode(first);
+    graph.addNode(second);
+    graph.addNode(third);
+    final EnumSet<ETransportationMode> modes = EnumSet.of(ETransportationMode.CAR);
+    graph.addEdge(new RoadEdge<>(10, first, second, EHighwayType.RESIDENTIAL, -1, modes));
+    graph.addEdge(new RoadEdge<>(11, third, second, EHighwayType.RESIDENTIAL, -1, modes));
+    mIndex = new WayNodeIndex(graph);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.parsing.osm.WayNodeIndex#add(int, int)}.
+   */
+  @Test
+  public void testAdd() {
+    mIndex.add(10, 3);
+    Assert.assertEquals(IntSets.mutable.of(1, 2, 3), IntSets.mutable.withAll(mIndex.getNodes(10)));
+    mIndex.add(12, 4);
+    Assert.assertEquals(IntSets.mutable.of(4), IntSets.mutable.withAll(mIndex.getNodes(12)));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.parsing.osm.WayNodeIndex#getNodes(int)}.
+   */
+  @Test
+  public void testGetNodes() {
+    Assert.assertEquals(IntSets.mutable.of(1, 2), IntSets.mutable.withAll(mIndex.getNodes(10)));
+    Assert.assertEquals(IntSets.mutable.of(2, 3), IntSets.mutable.withAll(mIndex.getNodes(11)));
+    Assert.assertTrue(mIndex.getNodes(12).isEmpty());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.parsing.osm.WayNodeIndex#remove(int)}.
+   */
+  @Test
+  public void testRemove() {
+    mIndex.remove(10);
+    Assert.assertTrue(mIndex.getNodes(10).isEmpty());
+    Assert.assertEquals(IntSets.mutable.of(2, 3), IntSets.mutable.withAll(mIndex.getNodes(11)));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.parsing.osm.WayNodeIndex#WayNodeIndex(de.unifreiburg.informatik.cobweb.routing.model.graph.IGraph)}.
+   */
+  @SuppressWarnings("unused")
+  @Test
+  public void testWayNodeIndex() {
+    try {
+      new WayNodeIndex(new RoadGraph<>());
+    } catch (final Exception e) {
+      Assert.fail();
+    }
+  }
+}
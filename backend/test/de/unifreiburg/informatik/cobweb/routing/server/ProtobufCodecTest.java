@@ -0,0 +1,165 @@
+package de.unifreiburg.informatik.cobweb.routing.server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.routing.server.model.EGeometryFormat;
+import de.unifreiburg.informatik.cobweb.routing.server.model.ERouteElementType;
+import de.unifreiburg.informatik.cobweb.routing.server.model.Journey;
+import de.unifreiburg.informatik.cobweb.routing.server.model.RouteElement;
+import de.unifreiburg.informatik.cobweb.routing.server.model.RoutingRequest;
+import de.unifreiburg.informatik.cobweb.routing.server.model.RoutingResponse;
+import de.unifreiburg.informatik.cobweb.util.protobuf.ProtobufWriter;
+
+/**
+ * Test for the class {@link ProtobufCodec}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class ProtobufCodecTest {
+  /**
+   * Asserts that the given responses are equal.
+   *
+   * @param expected The expected response
+   * @param actual   The actual response
+   */
+  private static void assertResponseEquals(final RoutingResponse expected, final RoutingResponse actual) {
+    Assert.assertEquals(expected.getTime(), actual.getTime());
+    Assert.assertEquals(expected.getCompTime(), actual.getCompTime());
+    Assert.assertEquals(expected.getFrom(), actual.getFrom());
+    Assert.assertEquals(expected.getTo(), actual.getTo());
+    Assert.assertEquals(expected.getJourneys().size(), actual.getJourneys().size());
+    for (int i = 0; i < expected.getJourneys().size(); i++) {
+      final Journey expectedJourney = expected.getJourneys().get(i);
+      final Journey actualJourney = actual.getJourneys().get(i);
+      Assert.assertEquals(expectedJourney.getDepTime(), actualJourney.getDepTime());
+      Assert.assertEquals(expectedJourney.getArrTime(), actualJourney.getArrTime());
+      Assert.assertEquals(expectedJourney.getRoute().size(), actualJourney.getRoute().size());
+      for (int j = 0; j < expectedJourney.getRoute().size(); j++) {
+        final RouteElement expectedElement = expectedJourney.getRoute().get(j);
+        final RouteElement actualElement = actualJourney.getRoute().get(j);
+        Assert.assertEquals(expectedElement.getType(), actualElement.getType());
+        Assert.assertEquals(expectedElement.getMode(), actualElement.getMode());
+        Assert.assertEquals(expectedElement.getName(), actualElement.getName());
+        final List<float[]> expectedGeom = expectedElement.getGeom();
+        final List<float[]> actualGeom = actualElement.getGeom();
+        Assert.assertEquals(expectedGeom.size(), actualGeom.size());
+        for (int k = 0; k < expectedGeom.size(); k++) {
+          // The polyline format has a precision of five decimal places
+          Assert.assertArrayEquals(expectedGeom.get(k), actualGeom.get(k), 0.00001F);
+        }
+      }
+    }
+  }
+
+  /**
+   * The response used for testing.
+   */
+  private RoutingResponse mResponse;
+
+  /**
+   * Setups a response instance for testing.
+   */
+  @Before
+  public void setUp() {
+    final RouteElement node = new RouteElement(ERouteElementType.NODE, "Start",
+        Collections.singletonList(new float[] { 48.0127F, 7.8352F }));
+    final RouteElement path = new RouteElement(ERouteElementType.PATH, ETransportationMode.CAR, "Hauptstraße",
+        Arrays.asList(new float[] { 48.0127F, 7.8352F }, new float[] { 47.9999F, 7.8499F }));
+    final Journey journey = new Journey(1_000L, 2_000L, Arrays.asList(node, path));
+    mResponse = new RoutingResponse(10L, 8L, 1L, 2L, Collections.singletonList(journey));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.ProtobufCodec#decodeRequest(byte[])}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testDecodeRequest() {
+    final RoutingRequest request = new RoutingRequest(1L, 2L, 1_000L,
+        EnumSet.of(ETransportationMode.CAR, ETransportationMode.FOOT), EGeometryFormat.POLYLINE);
+    final RoutingRequest decoded = ProtobufCodec.decodeRequest(ProtobufCodec.encodeRequest(request).toByteArray());
+    Assert.assertEquals(1L, decoded.getFrom());
+    Assert.assertEquals(2L, decoded.getTo());
+    Assert.assertEquals(1_000L, decoded.getDepTime());
+    Assert.assertEquals(EnumSet.of(ETransportationMode.CAR, ETransportationMode.FOOT), decoded.getModes());
+    Assert.assertEquals(EGeometryFormat.POLYLINE, decoded.getGeometryFormat());
+
+    // Missing modes
+    final ProtobufWriter withoutModes = new ProtobufWriter();
+    withoutModes.writeInt64(1, 1L);
+    try {
+      ProtobufCodec.decodeRequest(withoutModes.toByteArray());
+      Assert.fail();
+    } catch (final IllegalArgumentException e) {
+      // Expected
+    }
+
+    // Unknown mode
+    final ProtobufWriter unknownMode = new ProtobufWriter();
+    unknownMode.writePackedInts(4, new int[] { 42 });
+    try {
+      ProtobufCodec.decodeRequest(unknownMode.toByteArray());
+      Assert.fail();
+    } catch (final IllegalArgumentException e) {
+      // Expected
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.ProtobufCodec#decodeResponse(byte[])}.
+   */
+  @Test
+  public void testDecodeResponse() {
+    for (final EGeometryFormat format : EGeometryFormat.values()) {
+      final byte[] data = ProtobufCodec.encodeResponse(mResponse, format).toByteArray();
+      ProtobufCodecTest.assertResponseEquals(mResponse, ProtobufCodec.decodeResponse(data));
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.ProtobufCodec#encodeRequest(RoutingRequest)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testEncodeRequest() {
+    final RoutingRequest request = new RoutingRequest(1L, 2L, 3L, EnumSet.of(ETransportationMode.TRAM));
+    Assert.assertArrayEquals(new byte[] { 0x08, 0x01, 0x10, 0x02, 0x18, 0x03, 0x22, 0x01, 0x01, 0x28, 0x00 },
+        ProtobufCodec.encodeRequest(request).toByteArray());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.ProtobufCodec#encodeResponse(RoutingResponse, EGeometryFormat)}.
+   */
+  @Test
+  public void testEncodeResponse() {
+    Assert.assertTrue(ProtobufCodec.encodeResponse(mResponse, EGeometryFormat.COORDINATES).size() > 0);
+
+    // Polylines are more compact for long routes with close coordinates
+    final List<float[]> geom = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      geom.add(new float[] { 48.0F + i * 0.0001F, 7.8F + i * 0.0001F });
+    }
+    final RoutingResponse longResponse = new RoutingResponse(1L, 0L, 1L, 2L, Collections.singletonList(
+        new Journey(0L, 1L, Collections.singletonList(new RouteElement(ERouteElementType.PATH, "", geom)))));
+    final int coordinatesSize = ProtobufCodec.encodeResponse(longResponse, EGeometryFormat.COORDINATES).size();
+    final int polylineSize = ProtobufCodec.encodeResponse(longResponse, EGeometryFormat.POLYLINE).size();
+    Assert.assertTrue(polylineSize < coordinatesSize);
+
+    final RoutingResponse empty = new RoutingResponse(1L, 0L, 1L, 2L, Collections.emptyList());
+    Assert.assertArrayEquals(new byte[] { 0x08, 0x01, 0x10, 0x00, 0x18, 0x01, 0x20, 0x02 },
+        ProtobufCodec.encodeResponse(empty, EGeometryFormat.COORDINATES).toByteArray());
+  }
+}
@@ -0,0 +1,214 @@
+package de.unifreiburg.informatik.cobweb.routing.server;
+
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.unifreiburg.informatik.cobweb.routing.algorithms.shortestpath.EmptyPath;
+import de.unifreiburg.informatik.cobweb.routing.model.RoutingSnapshot;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ICoreNode;
+import de.unifreiburg.informatik.cobweb.routing.model.graph.road.RoadNode;
+import de.unifreiburg.informatik.cobweb.util.http.HttpExecutors;
+
+/**
+ * Test for the class {@link RouteQueryCoalescer}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class RouteQueryCoalescerTest {
+  /**
+   * The maximal time in milliseconds to wait for other threads.
+   */
+  private static final long WAIT_TIME = 5_000L;
+
+  /**
+   * The coalescer used for testing, rounds departure times to
+   * <code>60</code> milliseconds, has a cache capacity of two and a time to
+   * live of <code>100</code> milliseconds.
+   */
+  private RouteQueryCoalescer mCoalescer;
+  /**
+   * The amount of computations started by the coalescer used for testing.
+   */
+  private AtomicInteger mComputations;
+  /**
+   * The modes used for testing.
+   */
+  private Set<ETransportationMode> mModes;
+  /**
+   * The snapshot used for testing.
+   */
+  private RoutingSnapshot mSnapshot;
+  /**
+   * The node used as source for testing.
+   */
+  private ICoreNode mSource;
+  /**
+   * The node used as destination for testing.
+   */
+  private ICoreNode mTarget;
+  /**
+   * The current time of the clock used by the coalescer.
+   */
+  private long mTime;
+
+  /**
+   * Setups a coalescer instance for testing.
+   */
+  @Before
+  public void setUp() {
+    mTime = 0;
+    mComputations = new AtomicInteger();
+    mSource = new RoadNode(1, 1.0F, 1.0F);
+    mTarget = new RoadNode(2, 2.0F, 2.0F);
+    mModes = EnumSet.of(ETransportationMode.CAR);
+    mSnapshot = new RoutingSnapshot(1, null, null, null);
+    mCoalescer = new RouteQueryCoalescer((snapshot, source, destination, depTime, modes, deadline) -> {
+      mComputations.incrementAndGet();
+      return Optional.of(new EmptyPath<>(source));
+    }, HttpExecutors.directExecutor(), 0L, 60L, 2, 100L, () -> mTime);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.RouteQueryCoalescer#computeShortestPath(RoutingSnapshot, ICoreNode, ICoreNode, long, Set)}.
+   */
+  @Test
+  public void testComputeShortestPath() {
+    final RouteQueryResult result = mCoalescer.computeShortestPath(mSnapshot, mSource, mTarget, 30L, mModes);
+    Assert.assertEquals(60L, result.getDepTime());
+    Assert.assertFalse(result.isAborted());
+    Assert.assertEquals(mSource, result.getPath().get().getSource());
+    Assert.assertEquals(1, mComputations.get());
+
+    // Same normalized query
+    Assert.assertSame(result, mCoalescer.computeShortestPath(mSnapshot, mSource, mTarget, 45L, mModes));
+    Assert.assertEquals(1, mComputations.get());
+    Assert.assertEquals(1L, mCoalescer.getHits());
+    Assert.assertEquals(1L, mCoalescer.getMisses());
+
+    // Same normalized query on a newer snapshot
+    final RoutingSnapshot newerSnapshot = new RoutingSnapshot(2, null, null, null);
+    Assert.assertNotSame(result, mCoalescer.computeShortestPath(newerSnapshot, mSource, mTarget, 45L, mModes));
+    Assert.assertEquals(2, mComputations.get());
+    Assert.assertEquals(2, mCoalescer.size());
+
+    // Different queries
+    mCoalescer.computeShortestPath(mSnapshot, mSource, mTarget, 61L, mModes);
+    mCoalescer.computeShortestPath(mSnapshot, mSource, mTarget, 30L, EnumSet.of(ETransportationMode.FOOT));
+    Assert.assertEquals(4, mComputations.get());
+    Assert.assertEquals(2, mCoalescer.size());
+    Assert.assertEquals(2L, mCoalescer.getEvictions());
+
+    // Expired
+    mTime = 101;
+    mCoalescer.computeShortestPath(mSnapshot, mSource, mTarget, 120L, mModes);
+    Assert.assertEquals(5, mComputations.get());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.RouteQueryCoalescer#computeShortestPath(RoutingSnapshot, ICoreNode, ICoreNode, long, Set)}.
+   */
+  @Test
+  public void testComputeShortestPathAborted() {
+    final RouteQueryCoalescer coalescer =
+        new RouteQueryCoalescer((snapshot, source, destination, depTime, modes, deadline) -> {
+          mComputations.incrementAndGet();
+          while (!deadline.checkAbort()) {
+            Thread.yield();
+          }
+          return Optional.empty();
+        }, HttpExecutors.directExecutor(), 1L, 0L, 2, 100L, () -> mTime);
+
+    final RouteQueryResult result = coalescer.computeShortestPath(mSnapshot, mSource, mTarget, 30L, mModes);
+    Assert.assertTrue(result.isAborted());
+    Assert.assertEquals(30L, result.getDepTime());
+
+    // Aborted results are not cached
+    coalescer.computeShortestPath(mSnapshot, mSource, mTarget, 30L, mModes);
+    Assert.assertEquals(2, mComputations.get());
+    Assert.assertEquals(0, coalescer.size());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.RouteQueryCoalescer#computeShortestPath(RoutingSnapshot, ICoreNode, ICoreNode, long, Set)}.
+   *
+   * @throws InterruptedException If the thread was interrupted while waiting
+   * @throws ExecutionException   If a query could not be computed
+   */
+  @Test
+  public void testComputeShortestPathCoalesced() throws InterruptedException, ExecutionException {
+    final CountDownLatch entered = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final RouteQueryCoalescer coalescer =
+        new RouteQueryCoalescer((snapshot, source, destination, depTime, modes, deadline) -> {
+          mComputations.incrementAndGet();
+          entered.countDown();
+          try {
+            release.await(WAIT_TIME, TimeUnit.MILLISECONDS);
+          } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          return Optional.of(new EmptyPath<>(source));
+        }, HttpExecutors.directExecutor(), 0L, 60L, 0, 100L, () -> mTime);
+
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      final Future<RouteQueryResult> leader =
+          executor.submit(() -> coalescer.computeShortestPath(mSnapshot, mSource, mTarget, 10L, mModes));
+      Assert.assertTrue(entered.await(WAIT_TIME, TimeUnit.MILLISECONDS));
+
+      // Identical query while the computation is in flight
+      final Future<RouteQueryResult> follower =
+          executor.submit(() -> coalescer.computeShortestPath(mSnapshot, mSource, mTarget, 20L, mModes));
+      final long end = System.currentTimeMillis() + WAIT_TIME;
+      while (coalescer.getCoalesced() == 0 && System.currentTimeMillis() < end) {
+        Thread.sleep(10);
+      }
+      Assert.assertEquals(1L, coalescer.getCoalesced());
+
+      release.countDown();
+      Assert.assertSame(leader.get(), follower.get());
+      Assert.assertEquals(1, mComputations.get());
+
+      // The cache is disabled, the next query computes again
+      coalescer.computeShortestPath(mSnapshot, mSource, mTarget, 10L, mModes);
+      Assert.assertEquals(2, mComputations.get());
+      Assert.assertEquals(0L, coalescer.getHits());
+    } finally {
+      release.countDown();
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.RouteQueryCoalescer#normalizeDepTime(long)}.
+   */
+  @Test
+  public void testNormalizeDepTime() {
+    Assert.assertEquals(0L, mCoalescer.normalizeDepTime(0L));
+    Assert.assertEquals(60L, mCoalescer.normalizeDepTime(1L));
+    Assert.assertEquals(60L, mCoalescer.normalizeDepTime(60L));
+    Assert.assertEquals(120L, mCoalescer.normalizeDepTime(61L));
+
+    final RouteQueryCoalescer withoutRounding = new RouteQueryCoalescer(
+        (snapshot, source, destination, depTime, modes, deadline) -> Optional.empty(),
+        HttpExecutors.directExecutor(), 0L, 0L, 0, 0L, () -> mTime);
+    Assert.assertEquals(61L, withoutRounding.normalizeDepTime(61L));
+  }
+}
@@ -0,0 +1,80 @@
+package de.unifreiburg.informatik.cobweb.routing.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.routing.server.model.EGeometryFormat;
+import de.unifreiburg.informatik.cobweb.routing.server.model.ERouteElementType;
+import de.unifreiburg.informatik.cobweb.routing.server.model.Journey;
+import de.unifreiburg.informatik.cobweb.routing.server.model.RouteElement;
+import de.unifreiburg.informatik.cobweb.routing.server.model.RoutingResponse;
+import de.unifreiburg.informatik.cobweb.util.MemberFieldNamingStrategy;
+import de.unifreiburg.informatik.cobweb.util.PolylineUtil;
+
+/**
+ * Test for the class {@link RoutingResponseWriter}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class RoutingResponseWriterTest {
+  /**
+   * The GSON object used to write and parse JSON.
+   */
+  private Gson mGson;
+  /**
+   * The response used for testing.
+   */
+  private RoutingResponse mResponse;
+
+  /**
+   * Setups a response instance for testing.
+   */
+  @Before
+  public void setUp() {
+    mGson = new GsonBuilder().setFieldNamingStrategy(new MemberFieldNamingStrategy()).create();
+    final RouteElement node = new RouteElement(ERouteElementType.NODE, "Start <1>",
+        Collections.singletonList(new float[] { 48.0127F, 7.8352F }));
+    final RouteElement path = new RouteElement(ERouteElementType.PATH, ETransportationMode.CAR, "",
+        Arrays.asList(new float[] { 48.0127F, 7.8352F }, new float[] { 47.9999F, 7.8499F }));
+    final Journey journey = new Journey(1_000L, 2_000L, Arrays.asList(node, path));
+    mResponse = new RoutingResponse(10L, 8L, 1L, 2L, Collections.singletonList(journey));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.RoutingResponseWriter#writeContent(java.io.OutputStream)}.
+   *
+   * @throws IOException If an I/O exception occurred while writing
+   */
+  @Test
+  public void testWriteContent() throws IOException {
+    // The coordinates format matches GSON
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    new RoutingResponseWriter(mGson, mResponse, EGeometryFormat.COORDINATES).writeContent(output);
+    Assert.assertEquals(mGson.toJson(mResponse), output.toString(StandardCharsets.UTF_8.name()));
+
+    // The polyline format encodes the geometry as string
+    final ByteArrayOutputStream polylineOutput = new ByteArrayOutputStream();
+    new RoutingResponseWriter(mGson, mResponse, EGeometryFormat.POLYLINE).writeContent(polylineOutput);
+    final JsonObject parsed =
+        mGson.fromJson(polylineOutput.toString(StandardCharsets.UTF_8.name()), JsonObject.class);
+    Assert.assertEquals(2L, parsed.get("to").getAsLong());
+    final JsonObject parsedPath =
+        parsed.getAsJsonArray("journeys").get(0).getAsJsonObject().getAsJsonArray("route").get(1).getAsJsonObject();
+    Assert.assertEquals(ETransportationMode.CAR.getValue(), parsedPath.get("mode").getAsInt());
+    Assert.assertEquals(PolylineUtil.encode(mResponse.getJourneys().get(0).getRoute().get(1).getGeom()),
+        parsedPath.get("geom").getAsString());
+  }
+}
@@ -0,0 +1,101 @@
+package de.unifreiburg.informatik.cobweb.routing.server.model;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.util.MemberFieldNamingStrategy;
+
+/**
+ * Test for the class {@link IsochroneRequest}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class IsochroneRequestTest {
+  /**
+   * The isochrone request used for testing.
+   */
+  private IsochroneRequest mRequest;
+
+  /**
+   * Setups an isochrone request instance for testing.
+   */
+  @Before
+  public void setUp() {
+    mRequest = new IsochroneRequest(1L, 100L, EnumSet.of(ETransportationMode.FOOT, ETransportationMode.TRAM),
+        new int[] { 300, 600 });
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.model.IsochroneRequest#getBudgets()}.
+   */
+  @Test
+  public void testGetBudgets() {
+    Assert.assertArrayEquals(new int[] { 300, 600 }, mRequest.getBudgets());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.model.IsochroneRequest#getDepTime()}.
+   */
+  @Test
+  public void testGetDepTime() {
+    Assert.assertEquals(100L, mRequest.getDepTime());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.model.IsochroneRequest#getFrom()}.
+   */
+  @Test
+  public void testGetFrom() {
+    Assert.assertEquals(1L, mRequest.getFrom());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.model.IsochroneRequest#getModes()}.
+   */
+  @Test
+  public void testGetModes() {
+    final Set<ETransportationMode> modes = mRequest.getModes();
+    Assert.assertEquals(2, modes.size());
+    Assert.assertTrue(modes.contains(ETransportationMode.FOOT));
+    Assert.assertTrue(modes.contains(ETransportationMode.TRAM));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.model.IsochroneRequest#isComplete()}.
+   */
+  @Test
+  public void testIsComplete() {
+    Assert.assertTrue(mRequest.isComplete());
+
+    final Gson gson = new GsonBuilder().setFieldNamingStrategy(new MemberFieldNamingStrategy()).create();
+    Assert.assertTrue(gson.fromJson("{\"from\":1,\"budgets\":[60],\"modes\":[0]}", IsochroneRequest.class).isComplete());
+    Assert.assertFalse(gson.fromJson("{\"from\":1,\"modes\":[0]}", IsochroneRequest.class).isComplete());
+    Assert.assertFalse(
+        gson.fromJson("{\"from\":1,\"budgets\":[],\"modes\":[0]}", IsochroneRequest.class).isComplete());
+    Assert.assertFalse(gson.fromJson("{\"from\":1,\"budgets\":[60]}", IsochroneRequest.class).isComplete());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.model.IsochroneRequest#toString()}.
+   */
+  @Test
+  public void testToString() {
+    final String text = mRequest.toString();
+    Assert.assertTrue(text.startsWith("IsochroneRequest [from=1, depTime=100"));
+    Assert.assertTrue(text.endsWith("budgets=[300, 600]]"));
+  }
+}
@@ -0,0 +1,82 @@
+package de.unifreiburg.informatik.cobweb.routing.server.model;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test for the class {@link IsochroneResponse}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class IsochroneResponseTest {
+  /**
+   * The isochrone contained in the response.
+   */
+  private Isochrone mIsochrone;
+  /**
+   * The response used for testing.
+   */
+  private IsochroneResponse mResponse;
+
+  /**
+   * Setups a response instance for testing.
+   */
+  @Before
+  public void setUp() {
+    mIsochrone = new Isochrone(300, 1, Collections.singletonList(new float[] { 1.0F, 2.0F }));
+    mResponse = new IsochroneResponse(10L, 8L, 1L, Collections.singletonList(mIsochrone));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.model.IsochroneResponse#getCompTime()}.
+   */
+  @Test
+  public void testGetCompTime() {
+    Assert.assertEquals(8L, mResponse.getCompTime());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.model.IsochroneResponse#getFrom()}.
+   */
+  @Test
+  public void testGetFrom() {
+    Assert.assertEquals(1L, mResponse.getFrom());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.model.IsochroneResponse#getIsochrones()}.
+   */
+  @Test
+  public void testGetIsochrones() {
+    final List<Isochrone> isochrones = mResponse.getIsochrones();
+    Assert.assertEquals(1, isochrones.size());
+    Assert.assertSame(mIsochrone, isochrones.get(0));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.model.IsochroneResponse#getTime()}.
+   */
+  @Test
+  public void testGetTime() {
+    Assert.assertEquals(10L, mResponse.getTime());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.model.IsochroneResponse#toString()}.
+   */
+  @Test
+  public void testToString() {
+    Assert.assertEquals(
+        "IsochroneResponse [from=1, isochrones=[Isochrone [budget=300, amountOfNodes=1, polygonSize=1]]]",
+        mResponse.toString());
+  }
+}
@@ -0,0 +1,67 @@
+package de.unifreiburg.informatik.cobweb.routing.server.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test for the class {@link Isochrone}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class IsochroneTest {
+  /**
+   * The isochrone used for testing.
+   */
+  private Isochrone mIsochrone;
+
+  /**
+   * Setups an isochrone instance for testing.
+   */
+  @Before
+  public void setUp() {
+    mIsochrone = new Isochrone(600, 5,
+        Arrays.asList(new float[] { 0.0F, 0.0F }, new float[] { 0.0F, 1.0F }, new float[] { 1.0F, 0.0F }));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.model.Isochrone#getAmountOfNodes()}.
+   */
+  @Test
+  public void testGetAmountOfNodes() {
+    Assert.assertEquals(5, mIsochrone.getAmountOfNodes());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.model.Isochrone#getBudget()}.
+   */
+  @Test
+  public void testGetBudget() {
+    Assert.assertEquals(600, mIsochrone.getBudget());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.model.Isochrone#getPolygon()}.
+   */
+  @Test
+  public void testGetPolygon() {
+    final List<float[]> polygon = mIsochrone.getPolygon();
+    Assert.assertEquals(3, polygon.size());
+    Assert.assertArrayEquals(new float[] { 0.0F, 1.0F }, polygon.get(1), 0.0F);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.model.Isochrone#toString()}.
+   */
+  @Test
+  public void testToString() {
+    Assert.assertEquals("Isochrone [budget=600, amountOfNodes=5, polygonSize=3]", mIsochrone.toString());
+  }
+}
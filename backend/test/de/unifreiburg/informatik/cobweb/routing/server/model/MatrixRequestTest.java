@@ -0,0 +1,98 @@
+package de.unifreiburg.informatik.cobweb.routing.server.model;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.util.MemberFieldNamingStrategy;
+
+/**
+ * Test for the class {@link MatrixRequest}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class MatrixRequestTest {
+  /**
+   * The matrix request used for testing.
+   */
+  private MatrixRequest mRequest;
+
+  /**
+   * Setups a matrix request instance for testing.
+   */
+  @Before
+  public void setUp() {
+    mRequest = new MatrixRequest(new long[] { 1L, 2L }, new long[] { 3L, 4L, 5L }, 100L,
+        EnumSet.of(ETransportationMode.BIKE, ETransportationMode.CAR));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.model.MatrixRequest#getDepTime()}.
+   */
+  @Test
+  public void testGetDepTime() {
+    Assert.assertEquals(100L, mRequest.getDepTime());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.model.MatrixRequest#getModes()}.
+   */
+  @Test
+  public void testGetModes() {
+    final Set<ETransportationMode> modes = mRequest.getModes();
+    Assert.assertEquals(2, modes.size());
+    Assert.assertTrue(modes.contains(ETransportationMode.CAR));
+    Assert.assertTrue(modes.contains(ETransportationMode.BIKE));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.model.MatrixRequest#getSources()}.
+   */
+  @Test
+  public void testGetSources() {
+    Assert.assertArrayEquals(new long[] { 1L, 2L }, mRequest.getSources());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.model.MatrixRequest#getTargets()}.
+   */
+  @Test
+  public void testGetTargets() {
+    Assert.assertArrayEquals(new long[] { 3L, 4L, 5L }, mRequest.getTargets());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.model.MatrixRequest#isComplete()}.
+   */
+  @Test
+  public void testIsComplete() {
+    Assert.assertTrue(mRequest.isComplete());
+
+    final Gson gson = new GsonBuilder().setFieldNamingStrategy(new MemberFieldNamingStrategy()).create();
+    final MatrixRequest parsed = gson.fromJson("{\"sources\":[1],\"targets\":[2],\"modes\":[0]}", MatrixRequest.class);
+    Assert.assertTrue(parsed.isComplete());
+    Assert.assertFalse(gson.fromJson("{\"sources\":[1],\"modes\":[0]}", MatrixRequest.class).isComplete());
+    Assert.assertFalse(gson.fromJson("{\"sources\":[1],\"targets\":[2]}", MatrixRequest.class).isComplete());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.model.MatrixRequest#toString()}.
+   */
+  @Test
+  public void testToString() {
+    Assert.assertTrue(mRequest.toString().startsWith("MatrixRequest [sources=[1, 2], targets=[3, 4, 5]"));
+  }
+}
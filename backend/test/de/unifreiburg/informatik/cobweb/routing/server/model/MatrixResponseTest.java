@@ -0,0 +1,83 @@
+package de.unifreiburg.informatik.cobweb.routing.server.model;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test for the class {@link MatrixResponse}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class MatrixResponseTest {
+  /**
+   * The response used for testing.
+   */
+  private MatrixResponse mResponse;
+
+  /**
+   * Setups a response instance for testing.
+   */
+  @Before
+  public void setUp() {
+    mResponse = new MatrixResponse(10L, 8L, new long[] { 1L, 2L }, new long[] { 3L },
+        new long[][] { { 500L }, { MatrixResponse.UNREACHABLE } });
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.model.MatrixResponse#getCompTime()}.
+   */
+  @Test
+  public void testGetCompTime() {
+    Assert.assertEquals(8L, mResponse.getCompTime());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.model.MatrixResponse#getDurations()}.
+   */
+  @Test
+  public void testGetDurations() {
+    final long[][] durations = mResponse.getDurations();
+    Assert.assertEquals(2, durations.length);
+    Assert.assertArrayEquals(new long[] { 500L }, durations[0]);
+    Assert.assertArrayEquals(new long[] { MatrixResponse.UNREACHABLE }, durations[1]);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.model.MatrixResponse#getSources()}.
+   */
+  @Test
+  public void testGetSources() {
+    Assert.assertArrayEquals(new long[] { 1L, 2L }, mResponse.getSources());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.model.MatrixResponse#getTargets()}.
+   */
+  @Test
+  public void testGetTargets() {
+    Assert.assertArrayEquals(new long[] { 3L }, mResponse.getTargets());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.model.MatrixResponse#getTime()}.
+   */
+  @Test
+  public void testGetTime() {
+    Assert.assertEquals(10L, mResponse.getTime());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.model.MatrixResponse#toString()}.
+   */
+  @Test
+  public void testToString() {
+    Assert.assertEquals("MatrixResponse [sources=[1, 2], targets=[3], durations=[[500], [-1]]]", mResponse.toString());
+  }
+}
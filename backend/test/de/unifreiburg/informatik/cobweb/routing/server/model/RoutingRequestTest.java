@@ -1,6 +1,7 @@
 package de.unifreiburg.informatik.cobweb.routing.server.model;
 
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -9,7 +10,11 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
 import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.util.MemberFieldNamingStrategy;
 
 /**
  * Test for the class {@link RoutingRequest}.
@@ -49,6 +54,24 @@ public final class RoutingRequestTest {
     Assert.assertEquals(5, mRequest.getFrom());
   }
 
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.routing.server.model.RoutingRequest#getGeometryFormat()}.
+   */
+  @Test
+  public void testGetGeometryFormat() {
+    Assert.assertEquals(EGeometryFormat.COORDINATES, mRequest.getGeometryFormat());
+    final RoutingRequest request =
+        new RoutingRequest(5L, 10L, 100L, EnumSet.of(ETransportationMode.CAR), EGeometryFormat.POLYLINE);
+    Assert.assertEquals(EGeometryFormat.POLYLINE, request.getGeometryFormat());
+
+    final Gson gson = new GsonBuilder().setFieldNamingStrategy(new MemberFieldNamingStrategy()).create();
+    Assert.assertEquals(EGeometryFormat.POLYLINE,
+        gson.fromJson("{\"geometryFormat\":1}", RoutingRequest.class).getGeometryFormat());
+    Assert.assertEquals(EGeometryFormat.COORDINATES,
+        gson.fromJson("{\"geometryFormat\":42}", RoutingRequest.class).getGeometryFormat());
+  }
+
   /**
    * Test method for
    * {@link de.unifreiburg.informatik.cobweb.routing.server.model.RoutingRequest#getModes()}.
@@ -0,0 +1,86 @@
+package de.unifreiburg.informatik.cobweb.searching.name.server;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.unifreiburg.informatik.cobweb.searching.name.server.model.Match;
+import de.unifreiburg.informatik.cobweb.searching.name.server.model.NameSearchRequest;
+import de.unifreiburg.informatik.cobweb.searching.name.server.model.NameSearchResponse;
+
+/**
+ * Test for the class {@link ProtobufCodec}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class ProtobufCodecTest {
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.searching.name.server.ProtobufCodec#decodeRequest(byte[])}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testDecodeRequest() {
+    final NameSearchRequest request = new NameSearchRequest("Freiburg", 5);
+    final NameSearchRequest decoded =
+        ProtobufCodec.decodeRequest(ProtobufCodec.encodeRequest(request).toByteArray());
+    Assert.assertEquals("Freiburg", decoded.getName());
+    Assert.assertEquals(5, decoded.getAmount());
+
+    final NameSearchRequest empty = ProtobufCodec.decodeRequest(new byte[0]);
+    Assert.assertEquals("", empty.getName());
+    Assert.assertEquals(0, empty.getAmount());
+
+    try {
+      ProtobufCodec.decodeRequest(new byte[] { 0x0A, 0x05 });
+      Assert.fail();
+    } catch (final IllegalArgumentException e) {
+      // Expected
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.searching.name.server.ProtobufCodec#decodeResponse(byte[])}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testDecodeResponse() {
+    final NameSearchResponse response =
+        new NameSearchResponse(3L, Arrays.asList(new Match(1L, "Freiburg"), new Match(2L, "Münster")));
+    final NameSearchResponse decoded =
+        ProtobufCodec.decodeResponse(ProtobufCodec.encodeResponse(response).toByteArray());
+    Assert.assertEquals(3L, decoded.getTime());
+    final List<Match> matches = decoded.getMatches();
+    Assert.assertEquals(2, matches.size());
+    Assert.assertEquals(1L, matches.get(0).getId());
+    Assert.assertEquals("Freiburg", matches.get(0).getName());
+    Assert.assertEquals(2L, matches.get(1).getId());
+    Assert.assertEquals("Münster", matches.get(1).getName());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.searching.name.server.ProtobufCodec#encodeRequest(NameSearchRequest)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testEncodeRequest() {
+    Assert.assertArrayEquals(new byte[] { 0x0A, 0x01, 0x61, 0x10, 0x02 },
+        ProtobufCodec.encodeRequest(new NameSearchRequest("a", 2)).toByteArray());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.searching.name.server.ProtobufCodec#encodeResponse(NameSearchResponse)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testEncodeResponse() {
+    final NameSearchResponse response = new NameSearchResponse(1L, Arrays.asList(new Match(2L, "a")));
+    Assert.assertArrayEquals(new byte[] { 0x08, 0x01, 0x12, 0x05, 0x08, 0x02, 0x12, 0x01, 0x61 },
+        ProtobufCodec.encodeResponse(response).toByteArray());
+  }
+}
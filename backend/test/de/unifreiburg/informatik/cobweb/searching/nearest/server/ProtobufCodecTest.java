@@ -0,0 +1,75 @@
+package de.unifreiburg.informatik.cobweb.searching.nearest.server;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.unifreiburg.informatik.cobweb.searching.nearest.server.model.NearestSearchRequest;
+import de.unifreiburg.informatik.cobweb.searching.nearest.server.model.NearestSearchResponse;
+
+/**
+ * Test for the class {@link ProtobufCodec}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class ProtobufCodecTest {
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.searching.nearest.server.ProtobufCodec#decodeRequest(byte[])}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testDecodeRequest() {
+    final NearestSearchRequest request = new NearestSearchRequest(48.0127F, 7.8352F);
+    final NearestSearchRequest decoded =
+        ProtobufCodec.decodeRequest(ProtobufCodec.encodeRequest(request).toByteArray());
+    Assert.assertEquals(48.0127F, decoded.getLatitude(), 0.0F);
+    Assert.assertEquals(7.8352F, decoded.getLongitude(), 0.0F);
+
+    // Latitude encoded with the wrong wire type
+    try {
+      ProtobufCodec.decodeRequest(new byte[] { 0x08, 0x01 });
+      Assert.fail();
+    } catch (final IllegalArgumentException e) {
+      // Expected
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.searching.nearest.server.ProtobufCodec#decodeResponse(byte[])}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testDecodeResponse() {
+    final NearestSearchResponse response = new NearestSearchResponse(3L, 42L, 48.0127F, 7.8352F);
+    final NearestSearchResponse decoded =
+        ProtobufCodec.decodeResponse(ProtobufCodec.encodeResponse(response).toByteArray());
+    Assert.assertEquals(3L, decoded.getTime());
+    Assert.assertEquals(42L, decoded.getId());
+    Assert.assertEquals(48.0127F, decoded.getLatitude(), 0.0F);
+    Assert.assertEquals(7.8352F, decoded.getLongitude(), 0.0F);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.searching.nearest.server.ProtobufCodec#encodeRequest(NearestSearchRequest)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testEncodeRequest() {
+    Assert.assertArrayEquals(new byte[] { 0x0D, 0x00, 0x00, (byte) 0x80, 0x3F, 0x15, 0x00, 0x00, 0x00, 0x40 },
+        ProtobufCodec.encodeRequest(new NearestSearchRequest(1.0F, 2.0F)).toByteArray());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.searching.nearest.server.ProtobufCodec#encodeResponse(NearestSearchResponse)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testEncodeResponse() {
+    final byte[] data = ProtobufCodec.encodeResponse(new NearestSearchResponse(1L, 2L, 1.0F, 2.0F)).toByteArray();
+    Assert.assertArrayEquals(new byte[] { 0x08, 0x01, 0x10, 0x02, 0x1D, 0x00, 0x00, (byte) 0x80, 0x3F, 0x25, 0x00,
+        0x00, 0x00, 0x40 }, data);
+  }
+}
@@ -0,0 +1,71 @@
+package de.unifreiburg.informatik.cobweb.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for the class {@link PolylineUtil}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class PolylineUtilTest {
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.PolylineUtil#decode(String)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testDecode() {
+    final List<float[]> coordinates = PolylineUtil.decode("_p~iF~ps|U_ulLnnqC_mqNvxq`@");
+    Assert.assertEquals(3, coordinates.size());
+    Assert.assertArrayEquals(new float[] { 38.5F, -120.2F }, coordinates.get(0), 0.00001F);
+    Assert.assertArrayEquals(new float[] { 40.7F, -120.95F }, coordinates.get(1), 0.00001F);
+    Assert.assertArrayEquals(new float[] { 43.252F, -126.453F }, coordinates.get(2), 0.00001F);
+
+    Assert.assertTrue(PolylineUtil.decode("").isEmpty());
+    try {
+      PolylineUtil.decode("_p~iF");
+      Assert.fail();
+    } catch (final IllegalArgumentException e) {
+      // Expected
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.PolylineUtil#encode(List)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testEncodeList() {
+    final List<float[]> coordinates = Arrays.asList(new float[] { 38.5F, -120.2F }, new float[] { 40.7F, -120.95F },
+        new float[] { 43.252F, -126.453F });
+    Assert.assertEquals("_p~iF~ps|U_ulLnnqC_mqNvxq`@", PolylineUtil.encode(coordinates));
+    Assert.assertEquals("", PolylineUtil.encode(Collections.emptyList()));
+
+    // Encoding is reversible up to the precision
+    final List<float[]> path = Arrays.asList(new float[] { 48.0127F, 7.8352F }, new float[] { 48.0128F, 7.8351F },
+        new float[] { 47.9999F, 7.8499F });
+    final List<float[]> decoded = PolylineUtil.decode(PolylineUtil.encode(path));
+    Assert.assertEquals(path.size(), decoded.size());
+    for (int i = 0; i < path.size(); i++) {
+      Assert.assertArrayEquals(path.get(i), decoded.get(i), 0.00001F);
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.PolylineUtil#encode(List, StringBuilder)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testEncodeListStringBuilder() {
+    final StringBuilder builder = new StringBuilder("polyline:");
+    PolylineUtil.encode(Collections.singletonList(new float[] { 38.5F, -120.2F }), builder);
+    Assert.assertEquals("polyline:_p~iF~ps|U", builder.toString());
+  }
+}
@@ -188,6 +188,21 @@ public class IdMapTest {
     }
   }
 
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.collections.IdMap#IdMap(IdMap)}.
+   */
+  @Test
+  public void testIdMapIdMap() {
+    final IdMap<BasicNode, Integer> copy = new IdMap<>(mMap);
+    Assert.assertEquals(mMap.size(), copy.size());
+    Assert.assertEquals(10, copy.get(new BasicNode(9)).intValue());
+
+    copy.remove(new BasicNode(9));
+    Assert.assertEquals(mMap.size() - 1, copy.size());
+    Assert.assertEquals(10, mMap.get(new BasicNode(9)).intValue());
+  }
+
   /**
    * Test method for
    * {@link de.unifreiburg.informatik.cobweb.util.collections.IdMap#IdMap(int)}.
@@ -0,0 +1,192 @@
+package de.unifreiburg.informatik.cobweb.util.http;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for the class {@link AdmissionController}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class AdmissionControllerTest {
+  /**
+   * The time in milliseconds to wait for asynchronous events while testing.
+   */
+  private static final long WAIT_TIME = 5_000;
+
+  /**
+   * Creates a request used for testing.
+   *
+   * @return The created request
+   */
+  private static HttpRequest createRequest() {
+    return new HttpRequest("GET", "/", "HTTP/1.1", Collections.emptyMap(), "");
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.http.AdmissionController#dispatch(HttpRequest, java.util.function.Consumer)}.
+   *
+   * @throws InterruptedException If the thread was interrupted while waiting
+   * @throws ExecutionException   If a request could not be handled
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testDispatch() throws InterruptedException, ExecutionException {
+    final CountDownLatch entered = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final IHttpRequestHandler blocking = request -> {
+      entered.countDown();
+      try {
+        release.await(WAIT_TIME, TimeUnit.MILLISECONDS);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return new HttpResponseBuilder().build();
+    };
+    final AdmissionController controller = new AdmissionController("test", blocking, 1, 0, WAIT_TIME, 3, false);
+
+    try {
+      // Returns without waiting for the response
+      final CompletableFuture<HttpResponse> active = new CompletableFuture<>();
+      controller.dispatch(AdmissionControllerTest.createRequest(), active::complete);
+      Assert.assertTrue(entered.await(WAIT_TIME, TimeUnit.MILLISECONDS));
+      Assert.assertFalse(active.isDone());
+
+      // Rejected right away by the calling thread
+      final CompletableFuture<HttpResponse> rejected = new CompletableFuture<>();
+      controller.dispatch(AdmissionControllerTest.createRequest(), rejected::complete);
+      Assert.assertTrue(rejected.isDone());
+      Assert.assertEquals(EHttpStatus.SERVICE_UNAVAILABLE, rejected.get().getStatus());
+      Assert.assertEquals("3", rejected.get().getHeaders().get("Retry-After"));
+
+      release.countDown();
+      Assert.assertEquals(EHttpStatus.OK, active.get().getStatus());
+      Assert.assertEquals(1L, controller.getAcceptedRequests());
+      Assert.assertEquals(1L, controller.getRejections());
+    } finally {
+      release.countDown();
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.http.AdmissionController#getAcceptedRequests()}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testGetAcceptedRequests() {
+    final AdmissionController controller =
+        new AdmissionController("test", request -> new HttpResponseBuilder().build(), 1, 0, 0L, 1, false);
+    Assert.assertEquals(0L, controller.getAcceptedRequests());
+    controller.handleRequest(AdmissionControllerTest.createRequest());
+    controller.handleRequest(AdmissionControllerTest.createRequest());
+    Assert.assertEquals(2L, controller.getAcceptedRequests());
+    Assert.assertEquals(0L, controller.getRejections());
+    Assert.assertEquals(0, controller.getActiveRequests());
+    Assert.assertEquals(0, controller.getQueueDepth());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.http.AdmissionController#handleRequest(HttpRequest)}.
+   *
+   * @throws InterruptedException If the thread was interrupted while waiting
+   * @throws ExecutionException   If a request could not be handled
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testHandleRequest() throws InterruptedException, ExecutionException {
+    final CountDownLatch entered = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final IHttpRequestHandler blocking = request -> {
+      entered.countDown();
+      try {
+        release.await(WAIT_TIME, TimeUnit.MILLISECONDS);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return new HttpResponseBuilder().build();
+    };
+    final AdmissionController controller = new AdmissionController("test", blocking, 1, 1, WAIT_TIME, 7, false);
+
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      // Occupy the only permit
+      final Future<HttpResponse> active = executor.submit(() -> controller.handleRequest(createRequest()));
+      Assert.assertTrue(entered.await(WAIT_TIME, TimeUnit.MILLISECONDS));
+      Assert.assertEquals(1, controller.getActiveRequests());
+
+      // Wait in the queue
+      final Future<HttpResponse> queued = executor.submit(() -> controller.handleRequest(createRequest()));
+      final long end = System.currentTimeMillis() + WAIT_TIME;
+      while (controller.getQueueDepth() == 0 && System.currentTimeMillis() < end) {
+        Thread.sleep(10);
+      }
+      Assert.assertEquals(1, controller.getQueueDepth());
+
+      // The queue is full, reject
+      final HttpResponse rejected = controller.handleRequest(AdmissionControllerTest.createRequest());
+      Assert.assertEquals(EHttpStatus.SERVICE_UNAVAILABLE, rejected.getStatus());
+      Assert.assertEquals("7", rejected.getHeaders().get("Retry-After"));
+      Assert.assertEquals(1L, controller.getRejections());
+
+      release.countDown();
+      Assert.assertEquals(EHttpStatus.OK, active.get().getStatus());
+      Assert.assertEquals(EHttpStatus.OK, queued.get().getStatus());
+      Assert.assertEquals(2L, controller.getAcceptedRequests());
+      Assert.assertEquals(0, controller.getActiveRequests());
+      Assert.assertEquals(0, controller.getQueueDepth());
+    } finally {
+      release.countDown();
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.http.AdmissionController#handleRequest(HttpRequest)}
+   * with requests that wait longer than the maximal queue time.
+   *
+   * @throws InterruptedException If the thread was interrupted while waiting
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testHandleRequestQueueTimeout() throws InterruptedException {
+    final CountDownLatch entered = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final IHttpRequestHandler blocking = request -> {
+      entered.countDown();
+      try {
+        release.await(WAIT_TIME, TimeUnit.MILLISECONDS);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return new HttpResponseBuilder().build();
+    };
+    final AdmissionController controller = new AdmissionController("test", blocking, 1, 10, 50L, 1, false);
+
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      executor.submit(() -> controller.handleRequest(createRequest()));
+      Assert.assertTrue(entered.await(WAIT_TIME, TimeUnit.MILLISECONDS));
+
+      final HttpResponse response = controller.handleRequest(AdmissionControllerTest.createRequest());
+      Assert.assertEquals(EHttpStatus.SERVICE_UNAVAILABLE, response.getStatus());
+      Assert.assertEquals(1L, controller.getRejections());
+      Assert.assertEquals(0, controller.getQueueDepth());
+    } finally {
+      release.countDown();
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,97 @@
+package de.unifreiburg.informatik.cobweb.util.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for the class {@link ChunkedOutputStream}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class ChunkedOutputStreamTest {
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.http.ChunkedOutputStream#finish()}.
+   *
+   * @throws IOException If an I/O exception occurred while writing
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testFinish() throws IOException {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    final ChunkedOutputStream chunked = new ChunkedOutputStream(output, 4);
+    chunked.finish();
+    Assert.assertEquals("0\r\n\r\n", output.toString(StandardCharsets.ISO_8859_1.name()));
+
+    // Further calls have no effect
+    chunked.finish();
+    chunked.close();
+    Assert.assertEquals("0\r\n\r\n", output.toString(StandardCharsets.ISO_8859_1.name()));
+    try {
+      chunked.write('a');
+      Assert.fail();
+    } catch (final IOException e) {
+      // Expected
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.http.ChunkedOutputStream#flush()}.
+   *
+   * @throws IOException If an I/O exception occurred while writing
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testFlush() throws IOException {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    final ChunkedOutputStream chunked = new ChunkedOutputStream(output, 16);
+    chunked.write('a');
+    Assert.assertEquals(0, output.size());
+    chunked.flush();
+    Assert.assertEquals("1\r\na\r\n", output.toString(StandardCharsets.ISO_8859_1.name()));
+    // Empty chunks would terminate the content
+    chunked.flush();
+    Assert.assertEquals("1\r\na\r\n", output.toString(StandardCharsets.ISO_8859_1.name()));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.http.ChunkedOutputStream#write(byte[], int, int)}.
+   *
+   * @throws IOException If an I/O exception occurred while writing
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testWriteByteArrayIntInt() throws IOException {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    try (ChunkedOutputStream chunked = new ChunkedOutputStream(output, 16)) {
+      chunked.write("xxHello World, this is chunked!".getBytes(StandardCharsets.ISO_8859_1), 2, 29);
+    }
+    Assert.assertEquals("10\r\nHello World, thi\r\nd\r\ns is chunked!\r\n0\r\n\r\n",
+        output.toString(StandardCharsets.ISO_8859_1.name()));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.http.ChunkedOutputStream#write(int)}.
+   *
+   * @throws IOException If an I/O exception occurred while writing
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testWriteInt() throws IOException {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    try (ChunkedOutputStream chunked = new ChunkedOutputStream(output, 2)) {
+      for (final char character : "abcde".toCharArray()) {
+        chunked.write(character);
+      }
+    }
+    Assert.assertEquals("2\r\nab\r\n2\r\ncd\r\n1\r\ne\r\n0\r\n\r\n",
+        output.toString(StandardCharsets.ISO_8859_1.name()));
+  }
+}
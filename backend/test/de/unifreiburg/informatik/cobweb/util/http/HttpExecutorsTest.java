@@ -0,0 +1,68 @@
+package de.unifreiburg.informatik.cobweb.util.http;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for the class {@link HttpExecutors}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class HttpExecutorsTest {
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.http.HttpExecutors#directExecutor()}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testDirectExecutor() {
+    final Thread caller = Thread.currentThread();
+    final Thread[] executingThread = new Thread[1];
+    HttpExecutors.directExecutor().execute(() -> executingThread[0] = Thread.currentThread());
+    Assert.assertSame(caller, executingThread[0]);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.http.HttpExecutors#newComputationExecutor(String, int)}.
+   *
+   * @throws InterruptedException If the thread was interrupted while waiting
+   * @throws ExecutionException   If the task could not be executed
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testNewComputationExecutor() throws InterruptedException, ExecutionException {
+    final ExecutorService executor = HttpExecutors.newComputationExecutor("test", 1);
+    try {
+      final Thread thread = executor.submit(Thread::currentThread).get();
+      Assert.assertEquals("test-0", thread.getName());
+      Assert.assertTrue(thread.isDaemon());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.http.HttpExecutors#newRequestExecutor(boolean)}.
+   *
+   * @throws InterruptedException If the thread was interrupted while waiting
+   * @throws ExecutionException   If the task could not be executed
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testNewRequestExecutor() throws InterruptedException, ExecutionException {
+    for (final boolean useVirtualThreads : new boolean[] { false, true }) {
+      final ExecutorService executor = HttpExecutors.newRequestExecutor(useVirtualThreads);
+      try {
+        Assert.assertEquals(Integer.valueOf(1), executor.submit(() -> 1).get());
+        Assert.assertEquals(useVirtualThreads, executor.submit(Thread::currentThread).get().isVirtual());
+      } finally {
+        executor.shutdown();
+      }
+    }
+  }
+}
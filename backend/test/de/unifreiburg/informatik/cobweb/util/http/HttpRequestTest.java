@@ -67,6 +67,20 @@ public final class HttpRequestTest {
     Assert.assertEquals("HTTP/1.1", mRequest.getProtocol());
   }
 
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.http.HttpRequest#getRawContent()}.
+   */
+  @Test
+  public void testGetRawContent() {
+    Assert.assertArrayEquals("Hello World!".getBytes(StandardCharsets.UTF_8), mRequest.getRawContent());
+
+    final byte[] content = { 0x08, (byte) 0x96, 0x01 };
+    final HttpRequest request =
+        new HttpRequest("POST", "/route", "HTTP/1.1", Collections.emptyMap(), content);
+    Assert.assertArrayEquals(content, request.getRawContent());
+  }
+
   /**
    * Test method for
    * {@link de.unifreiburg.informatik.cobweb.util.http.HttpRequest#getResource()}.
@@ -74,6 +74,20 @@ public final class HttpResponseBuilderTest {
     Assert.assertEquals(EHttpContentType.HTML, response.getContentType());
   }
 
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.http.HttpResponseBuilder#setContentWriter(IHttpContentWriter)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testSetContentWriter() {
+    final IHttpContentWriter writer = output -> output.write('a');
+    final HttpResponse response = new HttpResponseBuilder().setContentWriter(writer).build();
+    Assert.assertSame(writer, response.getContentWriter());
+    Assert.assertTrue(response.isStreamed());
+    Assert.assertFalse(new HttpResponseBuilder().setContentWriter(null).build().isStreamed());
+  }
+
   /**
    * Test method for
    * {@link de.unifreiburg.informatik.cobweb.util.http.HttpResponseBuilder#setStatus(de.unifreiburg.informatik.cobweb.util.http.EHttpStatus)}.
@@ -52,6 +52,18 @@ public class HttpResponseTest {
     Assert.assertEquals(EHttpContentType.TEXT, mResponse.getContentType());
   }
 
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.http.HttpResponse#getContentWriter()}.
+   */
+  @Test
+  public void testGetContentWriter() {
+    Assert.assertNull(mResponse.getContentWriter());
+    final IHttpContentWriter writer = output -> output.write('a');
+    Assert.assertSame(writer,
+        new HttpResponse("", writer, EHttpContentType.JSON, EHttpStatus.OK, Collections.emptyMap()).getContentWriter());
+  }
+
   /**
    * Test method for
    * {@link de.unifreiburg.informatik.cobweb.util.http.HttpResponse#getHeaders()}.
@@ -97,4 +109,15 @@ public class HttpResponseTest {
     }
   }
 
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.http.HttpResponse#isStreamed()}.
+   */
+  @Test
+  public void testIsStreamed() {
+    Assert.assertFalse(mResponse.isStreamed());
+    Assert.assertTrue(new HttpResponse("", output -> output.write('a'), EHttpContentType.JSON, EHttpStatus.OK,
+        Collections.emptyMap()).isStreamed());
+  }
+
 }
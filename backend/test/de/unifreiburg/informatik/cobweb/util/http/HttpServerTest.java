@@ -0,0 +1,193 @@
+package de.unifreiburg.informatik.cobweb.util.http;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test for the class {@link HttpServer}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class HttpServerTest {
+  /**
+   * The keep-alive timeout of the server used for testing, in milliseconds.
+   */
+  private static final int KEEP_ALIVE_TIMEOUT = 500;
+  /**
+   * The maximal amount of requests per connection of the server used for
+   * testing.
+   */
+  private static final int MAX_REQUESTS = 3;
+
+  /**
+   * Reads one response, delimited by its <code>Content-Length</code> header,
+   * from the given stream.
+   *
+   * @param input The stream to read from
+   * @return The raw response
+   * @throws IOException If an I/O exception occurred while reading
+   */
+  static String readResponse(final InputStream input) throws IOException {
+    final StringBuilder response = new StringBuilder();
+    while (response.length() < 4 || !response.substring(response.length() - 4).equals("\r\n\r\n")) {
+      final int value = input.read();
+      if (value == -1) {
+        throw new IOException("Stream ended before the response was complete");
+      }
+      response.append((char) value);
+    }
+
+    final String lengthHeader = "Content-Length: ";
+    final int lengthBegin = response.indexOf(lengthHeader) + lengthHeader.length();
+    final int contentLength = Integer.parseInt(response.substring(lengthBegin, response.indexOf("\r\n", lengthBegin)));
+    final byte[] content = new byte[contentLength];
+    for (int i = 0; i < contentLength; i++) {
+      content[i] = (byte) input.read();
+    }
+    return response.append(new String(content, StandardCharsets.UTF_8)).toString();
+  }
+
+  /**
+   * The server used for testing.
+   */
+  private HttpServer mServer;
+
+  /**
+   * Setups a server which answers requests to <code>/echo</code> with their
+   * content and requests to <code>/fail</code> with an exception.
+   */
+  @Before
+  public void setUp() {
+    mServer = new HttpServer(0, 2, KEEP_ALIVE_TIMEOUT, MAX_REQUESTS, 1);
+    mServer.addHandler("/echo", request -> new HttpResponseBuilder().setContent(request.getContent()).build());
+    mServer.addHandler("/fail", request -> {
+      throw new IllegalStateException();
+    });
+    mServer.initialize();
+    mServer.start();
+  }
+
+  /**
+   * Shuts the server used for testing down.
+   */
+  @After
+  public void tearDown() {
+    mServer.shutdown();
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.http.HttpServer#addHandler(String, IHttpRequestHandler)}.
+   *
+   * @throws IOException If an I/O exception occurred while communicating with
+   *                     the server
+   */
+  @Test
+  public void testAddHandler() throws IOException {
+    final String response = sendRequest("POST /echo?x=1 HTTP/1.0\r\nContent-Length: 5\r\n\r\nHello");
+    Assert.assertTrue(response.startsWith("HTTP/1.1 200 "));
+    Assert.assertTrue(response.contains("Connection: close\r\n"));
+    Assert.assertTrue(response.endsWith("\r\n\r\nHello"));
+
+    Assert.assertTrue(sendRequest("GET /unknown HTTP/1.0\r\n\r\n").startsWith("HTTP/1.1 404 "));
+    Assert.assertTrue(sendRequest("GET /fail HTTP/1.0\r\n\r\n").startsWith("HTTP/1.1 500 "));
+    // Content with a transfer coding can not be framed
+    final String chunked =
+        sendRequest("POST /echo HTTP/1.1\r\ntransfer-encoding: chunked\r\n\r\n5\r\nHello\r\n0\r\n\r\n");
+    Assert.assertTrue(chunked.startsWith("HTTP/1.1 501 "));
+    Assert.assertTrue(chunked.contains("Connection: close\r\n"));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.http.HttpServer#run()} with
+   * persistent connections.
+   *
+   * @throws IOException If an I/O exception occurred while communicating with
+   *                     the server
+   */
+  @Test
+  public void testKeepAlive() throws IOException {
+    try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), mServer.getPort())) {
+      socket.setSoTimeout(10 * KEEP_ALIVE_TIMEOUT);
+      final OutputStream output = socket.getOutputStream();
+      final InputStream input = new BufferedInputStream(socket.getInputStream());
+
+      // Pipelined requests are answered in order, the last allowed closes
+      final StringBuilder requests = new StringBuilder();
+      for (int i = 0; i < MAX_REQUESTS; i++) {
+        requests.append("POST /echo HTTP/1.1\r\nContent-Length: 1\r\n\r\n").append(i);
+      }
+      output.write(requests.toString().getBytes(StandardCharsets.UTF_8));
+      output.flush();
+
+      for (int i = 0; i < MAX_REQUESTS; i++) {
+        final String response = HttpServerTest.readResponse(input);
+        Assert.assertTrue(response.endsWith("\r\n\r\n" + i));
+        if (i < MAX_REQUESTS - 1) {
+          Assert.assertTrue(response.contains("Connection: keep-alive\r\n"));
+        } else {
+          Assert.assertTrue(response.contains("Connection: close\r\n"));
+        }
+      }
+      Assert.assertEquals(-1, input.read());
+    }
+
+    // Idle connections are closed
+    try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), mServer.getPort())) {
+      socket.setSoTimeout(10 * KEEP_ALIVE_TIMEOUT);
+      Assert.assertEquals(-1, socket.getInputStream().read());
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.http.HttpServer#run()}.
+   *
+   * @throws IOException If an I/O exception occurred while communicating with
+   *                     the server
+   */
+  @Test
+  public void testRun() throws IOException {
+    Assert.assertTrue(mServer.isRunning());
+    Assert.assertTrue(sendRequest("GET\r\n\r\n").startsWith("HTTP/1.1 400 "));
+  }
+
+  /**
+   * Sends the given raw request to the server and reads the response until
+   * the server closes the connection.
+   *
+   * @param request The raw request to send
+   * @return The raw response
+   * @throws IOException If an I/O exception occurred while communicating with
+   *                     the server
+   */
+  private String sendRequest(final String request) throws IOException {
+    try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), mServer.getPort())) {
+      final OutputStream output = socket.getOutputStream();
+      output.write(request.getBytes(StandardCharsets.UTF_8));
+      output.flush();
+
+      final InputStream input = socket.getInputStream();
+      final ByteArrayOutputStream response = new ByteArrayOutputStream();
+      final byte[] buffer = new byte[1_024];
+      int amountRead = input.read(buffer);
+      while (amountRead != -1) {
+        response.write(buffer, 0, amountRead);
+        amountRead = input.read(buffer);
+      }
+      return new String(response.toByteArray(), StandardCharsets.UTF_8);
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package de.unifreiburg.informatik.cobweb.util.http;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for the class {@link HttpSocketHandler}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class HttpSocketHandlerTest {
+  /**
+   * The keep-alive timeout used for testing, in milliseconds.
+   */
+  private static final int KEEP_ALIVE_TIMEOUT = 500;
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.http.HttpSocketHandler#run()}.
+   *
+   * @throws IOException          If an I/O exception occurred while
+   *                              communicating with the handler
+   * @throws InterruptedException If the thread was interrupted while waiting
+   *                              for the handler
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testRun() throws IOException, InterruptedException {
+    final IHttpRequestHandler echo = request -> new HttpResponseBuilder().setContent(request.getContent()).build();
+    try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort())) {
+      socket.setSoTimeout(10 * KEEP_ALIVE_TIMEOUT);
+      final Thread handlerThread =
+          new Thread(new HttpSocketHandler(0, serverSocket.accept(), echo, KEEP_ALIVE_TIMEOUT, 10));
+      handlerThread.start();
+
+      final OutputStream output = socket.getOutputStream();
+      final InputStream input = new BufferedInputStream(socket.getInputStream());
+
+      // Two pipelined requests on the same connection
+      output.write("POST / HTTP/1.1\r\nContent-Length: 1\r\n\r\naPOST / HTTP/1.1\r\nContent-Length: 1\r\n\r\nb"
+          .getBytes(StandardCharsets.UTF_8));
+      output.flush();
+      String response = HttpServerTest.readResponse(input);
+      Assert.assertTrue(response.contains("Connection: keep-alive\r\n"));
+      Assert.assertTrue(response.endsWith("\r\n\r\na"));
+      response = HttpServerTest.readResponse(input);
+      Assert.assertTrue(response.endsWith("\r\n\r\nb"));
+
+      // The client asks to close the connection
+      output.write("GET / HTTP/1.1\r\nConnection: close\r\n\r\n".getBytes(StandardCharsets.UTF_8));
+      output.flush();
+      response = HttpServerTest.readResponse(input);
+      Assert.assertTrue(response.contains("Connection: close\r\n"));
+      Assert.assertEquals(-1, input.read());
+
+      handlerThread.join(10 * KEEP_ALIVE_TIMEOUT);
+      Assert.assertFalse(handlerThread.isAlive());
+    }
+  }
+}
@@ -1,9 +1,12 @@
 package de.unifreiburg.informatik.cobweb.util.http;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.Map;
 
 import org.junit.Assert;
@@ -15,6 +18,90 @@ import org.junit.Test;
  * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
  */
 public final class HttpUtilTest {
+  /**
+   * Decodes the given buffers of an encoded response into text.
+   *
+   * @param buffers The buffers to decode, ready to be read
+   * @return The text of the response
+   */
+  private static String decode(final ByteBuffer[] buffers) {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    for (final ByteBuffer buffer : buffers) {
+      output.write(buffer.array(), buffer.position(), buffer.remaining());
+    }
+    return new String(output.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.http.HttpUtil#encodeResponse(HttpResponse, boolean)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testEncodeResponse() {
+    final HttpResponse response = new HttpResponseBuilder().setStatus(EHttpStatus.NOT_FOUND)
+        .setContentType(EHttpContentType.JSON).setContent("{}").build();
+    String text = HttpUtilTest.decode(HttpUtil.encodeResponse(response, false));
+
+    Assert.assertTrue(text.startsWith("HTTP/1.1 404 "));
+    Assert.assertTrue(text.contains("Content-Length: 2\r\n"));
+    Assert.assertTrue(text.contains("Content-Type: application/json; charset=utf-8\r\n"));
+    Assert.assertTrue(text.contains("Connection: close\r\n"));
+    Assert.assertTrue(text.endsWith("\r\n\r\n{}"));
+
+    text = HttpUtilTest.decode(HttpUtil.encodeResponse(response, true));
+    Assert.assertTrue(text.contains("Connection: keep-alive\r\n"));
+
+    // Streamed content is buffered and delimited by its length
+    final HttpResponse streamed = new HttpResponseBuilder().setContentType(EHttpContentType.JSON)
+        .setContentWriter(output -> output.write("[1]".getBytes(StandardCharsets.UTF_8))).build();
+    text = HttpUtilTest.decode(HttpUtil.encodeResponse(streamed, true));
+    Assert.assertTrue(text.contains("Content-Length: 3\r\n"));
+    Assert.assertTrue(text.endsWith("\r\n\r\n[1]"));
+
+    // Large streamed content is spread over several buffers
+    final String largeContent = String.join("", Collections.nCopies(10_000, "[1]"));
+    final HttpResponse largeStreamed = new HttpResponseBuilder().setContentType(EHttpContentType.JSON)
+        .setContentWriter(output -> {
+          output.write('[');
+          output.write(largeContent.getBytes(StandardCharsets.UTF_8), 1, largeContent.length() - 1);
+        }).build();
+    final ByteBuffer[] buffers = HttpUtil.encodeResponse(largeStreamed, true);
+    Assert.assertTrue(buffers.length > 2);
+    text = HttpUtilTest.decode(buffers);
+    Assert.assertTrue(text.contains("Content-Length: 30000\r\n"));
+    Assert.assertTrue(text.endsWith("\r\n\r\n" + largeContent));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.http.HttpUtil#isChunkedSupported(HttpRequest)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testIsChunkedSupported() {
+    final Map<String, String> noHeaders = Collections.emptyMap();
+    Assert.assertTrue(HttpUtil.isChunkedSupported(new HttpRequest("GET", "/", "HTTP/1.1", noHeaders, "")));
+    Assert.assertFalse(HttpUtil.isChunkedSupported(new HttpRequest("GET", "/", "HTTP/1.0", noHeaders, "")));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.http.HttpUtil#isKeepAliveRequested(HttpRequest)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testIsKeepAliveRequested() {
+    final Map<String, String> noHeaders = Collections.emptyMap();
+    Assert.assertTrue(HttpUtil.isKeepAliveRequested(new HttpRequest("GET", "/", "HTTP/1.1", noHeaders, "")));
+    Assert.assertFalse(HttpUtil.isKeepAliveRequested(new HttpRequest("GET", "/", "HTTP/1.0", noHeaders, "")));
+
+    final Map<String, String> close = Collections.singletonMap("connection", "Close");
+    Assert.assertFalse(HttpUtil.isKeepAliveRequested(new HttpRequest("GET", "/", "HTTP/1.1", close, "")));
+
+    final Map<String, String> keepAlive = Collections.singletonMap("Connection", "Keep-Alive");
+    Assert.assertTrue(HttpUtil.isKeepAliveRequested(new HttpRequest("GET", "/", "HTTP/1.0", keepAlive, "")));
+  }
 
   /**
    * Test method for
@@ -74,4 +161,158 @@ public final class HttpUtilTest {
     }
   }
 
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.http.HttpUtil#parseRequest(java.io.InputStream)} with multiple
+   * requests on the same stream.
+   *
+   * @throws IOException If the requests could not be parsed
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testParseRequestPersistent() throws IOException {
+    final String requestsText =
+        "POST /a HTTP/1.1\r\nContent-Length: 3\r\n\r\nabcGET /b HTTP/1.1\r\nConnection: close\r\n\r\n";
+    final InputStream input = new ByteArrayInputStream(requestsText.getBytes(StandardCharsets.UTF_8));
+
+    final HttpRequest first = HttpUtil.parseRequest(input);
+    Assert.assertEquals("/a", first.getResource());
+    Assert.assertEquals("abc", first.getContent());
+
+    final HttpRequest second = HttpUtil.parseRequest(input);
+    Assert.assertEquals("/b", second.getResource());
+    Assert.assertEquals("close", second.getHeaders().get("Connection"));
+
+    Assert.assertNull(HttpUtil.parseRequest(input));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.http.HttpUtil#parseRequest(java.nio.ByteBuffer)}.
+   *
+   * @throws IOException If the request could not be parsed
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testParseRequestBuffer() throws IOException {
+    final String requestText = "\r\nPOST /route HTTP/1.1\r\nContent-Length: 5\r\n\r\nHello";
+    final byte[] requestRaw = requestText.getBytes(StandardCharsets.UTF_8);
+    final ByteBuffer buffer = ByteBuffer.allocate(requestRaw.length + 3);
+
+    // Incomplete headers
+    buffer.put(requestRaw, 0, 20).flip();
+    Assert.assertNull(HttpUtil.parseRequest(buffer));
+    Assert.assertEquals(0, buffer.position());
+
+    // Incomplete content
+    buffer.compact().put(requestRaw, 20, requestRaw.length - 22).flip();
+    Assert.assertNull(HttpUtil.parseRequest(buffer));
+    Assert.assertEquals(0, buffer.position());
+
+    // Complete request followed by the begin of the next
+    buffer.compact().put(requestRaw, requestRaw.length - 2, 2).put("GET".getBytes(StandardCharsets.UTF_8)).flip();
+    final HttpRequest request = HttpUtil.parseRequest(buffer);
+    Assert.assertNotNull(request);
+    Assert.assertEquals("POST", request.getType());
+    Assert.assertEquals("/route", request.getResource());
+    Assert.assertEquals("HTTP/1.1", request.getProtocol());
+    Assert.assertEquals("5", request.getHeaders().get("Content-Length"));
+    Assert.assertEquals("Hello", request.getContent());
+    Assert.assertEquals(3, buffer.remaining());
+
+    // Malformed requests
+    for (final String malformed : new String[] { "GET /\r\n\r\n", "GET / HTTP/1.0\r\nHost\r\n\r\n",
+        "POST / HTTP/1.0\r\nContent-Length: x\r\n\r\n" }) {
+      try {
+        HttpUtil.parseRequest(ByteBuffer.wrap(malformed.getBytes(StandardCharsets.UTF_8)));
+        Assert.fail();
+      } catch (final IOException e) {
+        // Expected
+      }
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.http.HttpUtil#parseRequest(java.nio.ByteBuffer)} with header
+   * names in a different case.
+   *
+   * @throws IOException If the requests could not be parsed
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testParseRequestBufferHeaderCase() throws IOException {
+    final String requestsText =
+        "POST /a HTTP/1.1\r\ncontent-length: 3\r\nCONTENT-TYPE: text/plain\r\n\r\nabcGET /b HTTP/1.1\r\n\r\n";
+    final ByteBuffer buffer = ByteBuffer.wrap(requestsText.getBytes(StandardCharsets.UTF_8));
+
+    final HttpRequest first = HttpUtil.parseRequest(buffer);
+    Assert.assertEquals("abc", first.getContent());
+    Assert.assertEquals("3", first.getHeaders().get("Content-Length"));
+    Assert.assertEquals("text/plain", first.getHeaders().get("Content-Type"));
+
+    // The content is not interpreted as the next request
+    final HttpRequest second = HttpUtil.parseRequest(buffer);
+    Assert.assertEquals("GET", second.getType());
+    Assert.assertEquals("/b", second.getResource());
+    Assert.assertFalse(buffer.hasRemaining());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.http.HttpUtil#hasTransferCoding(HttpRequest)}.
+   *
+   * @throws IOException If the requests could not be parsed
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testHasTransferCoding() throws IOException {
+    final String chunkedText =
+        "POST /a HTTP/1.1\r\ntransfer-encoding: chunked\r\n\r\n3\r\nabc\r\n0\r\n\r\n";
+    final HttpRequest chunked = HttpUtil.parseRequest(ByteBuffer.wrap(chunkedText.getBytes(StandardCharsets.UTF_8)));
+    Assert.assertTrue(HttpUtil.hasTransferCoding(chunked));
+    Assert.assertEquals("", chunked.getContent());
+
+    final InputStream input =
+        new ByteArrayInputStream(chunkedText.replace("/a", "/b").getBytes(StandardCharsets.UTF_8));
+    Assert.assertTrue(HttpUtil.hasTransferCoding(HttpUtil.parseRequest(input)));
+
+    final String plainText = "POST /a HTTP/1.1\r\nContent-Length: 0\r\n\r\n";
+    final HttpRequest plain = HttpUtil.parseRequest(ByteBuffer.wrap(plainText.getBytes(StandardCharsets.UTF_8)));
+    Assert.assertFalse(HttpUtil.hasTransferCoding(plain));
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.http.HttpUtil#sendHttpResponse(HttpResponse, java.io.OutputStream, boolean, boolean)}.
+   *
+   * @throws IOException If the response could not be sent
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testSendHttpResponse() throws IOException {
+    final HttpResponse streamed = new HttpResponseBuilder().setContentType(EHttpContentType.JSON)
+        .setContentWriter(output -> output.write("[1]".getBytes(StandardCharsets.UTF_8))).build();
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    HttpUtil.sendHttpResponse(streamed, output, true, true);
+    String text = output.toString(StandardCharsets.UTF_8.name());
+    Assert.assertTrue(text.contains("Transfer-Encoding: chunked\r\n"));
+    Assert.assertFalse(text.contains("Content-Length"));
+    Assert.assertTrue(text.endsWith("\r\n\r\n3\r\n[1]\r\n0\r\n\r\n"));
+
+    // Clients without support for chunks receive the content as a whole
+    output = new ByteArrayOutputStream();
+    HttpUtil.sendHttpResponse(streamed, output, false, false);
+    text = output.toString(StandardCharsets.UTF_8.name());
+    Assert.assertTrue(text.contains("Content-Length: 3\r\n"));
+    Assert.assertTrue(text.endsWith("\r\n\r\n[1]"));
+
+    output = new ByteArrayOutputStream();
+    HttpUtil.sendHttpResponse(new HttpResponseBuilder().setContent("Hello").build(), output, false, true);
+    text = output.toString(StandardCharsets.UTF_8.name());
+    Assert.assertTrue(text.contains("Content-Length: 5\r\n"));
+    Assert.assertTrue(text.endsWith("\r\n\r\nHello"));
+  }
+
 }
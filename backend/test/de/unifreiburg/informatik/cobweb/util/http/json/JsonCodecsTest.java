@@ -0,0 +1,199 @@
+package de.unifreiburg.informatik.cobweb.util.http.json;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonSyntaxException;
+
+import de.unifreiburg.informatik.cobweb.routing.model.graph.ETransportationMode;
+import de.unifreiburg.informatik.cobweb.routing.server.model.EGeometryFormat;
+import de.unifreiburg.informatik.cobweb.routing.server.model.ERouteElementType;
+import de.unifreiburg.informatik.cobweb.routing.server.model.Isochrone;
+import de.unifreiburg.informatik.cobweb.routing.server.model.IsochroneRequest;
+import de.unifreiburg.informatik.cobweb.routing.server.model.IsochroneResponse;
+import de.unifreiburg.informatik.cobweb.routing.server.model.Journey;
+import de.unifreiburg.informatik.cobweb.routing.server.model.MatrixRequest;
+import de.unifreiburg.informatik.cobweb.routing.server.model.MatrixResponse;
+import de.unifreiburg.informatik.cobweb.routing.server.model.RouteElement;
+import de.unifreiburg.informatik.cobweb.routing.server.model.RoutingRequest;
+import de.unifreiburg.informatik.cobweb.routing.server.model.RoutingResponse;
+import de.unifreiburg.informatik.cobweb.searching.name.server.model.Match;
+import de.unifreiburg.informatik.cobweb.searching.name.server.model.NameSearchRequest;
+import de.unifreiburg.informatik.cobweb.searching.name.server.model.NameSearchResponse;
+import de.unifreiburg.informatik.cobweb.searching.nearest.server.model.NearestSearchRequest;
+import de.unifreiburg.informatik.cobweb.searching.nearest.server.model.NearestSearchResponse;
+import de.unifreiburg.informatik.cobweb.util.MemberFieldNamingStrategy;
+
+/**
+ * Test for the class {@link JsonCodecs} and the type adapters it uses.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class JsonCodecsTest {
+  /**
+   * The shared GSON object under test.
+   */
+  private Gson mGson;
+  /**
+   * A GSON object which uses reflection, used as reference.
+   */
+  private Gson mReflectionGson;
+
+  /**
+   * Setups the GSON objects for testing.
+   */
+  @Before
+  public void setUp() {
+    mGson = JsonCodecs.getGson();
+    mReflectionGson = new GsonBuilder().setFieldNamingStrategy(new MemberFieldNamingStrategy()).create();
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.http.json.JsonCodecs#getGson()}.
+   */
+  @Test
+  public void testGetGson() {
+    Assert.assertSame(mGson, JsonCodecs.getGson());
+  }
+
+  /**
+   * Test method for the decoding of requests.
+   */
+  @Test
+  public void testRequestDecoding() {
+    final String routingJson = "{\"from\":1,\"to\":2,\"depTime\":3,\"modes\":[0,2],\"geometryFormat\":1,"
+        + "\"unknown\":{\"nested\":[1,2]},\"name\":null}";
+    final RoutingRequest routingRequest = mGson.fromJson(routingJson, RoutingRequest.class);
+    Assert.assertEquals(1L, routingRequest.getFrom());
+    Assert.assertEquals(2L, routingRequest.getTo());
+    Assert.assertEquals(3L, routingRequest.getDepTime());
+    Assert.assertEquals(EnumSet.of(ETransportationMode.CAR, ETransportationMode.FOOT), routingRequest.getModes());
+    Assert.assertEquals(EGeometryFormat.POLYLINE, routingRequest.getGeometryFormat());
+    Assert.assertEquals(EGeometryFormat.COORDINATES,
+        mGson.fromJson("{\"modes\":[0],\"geometryFormat\":42}", RoutingRequest.class).getGeometryFormat());
+    Assert.assertNull(mGson.fromJson("null", RoutingRequest.class));
+
+    final MatrixRequest matrixRequest =
+        mGson.fromJson("{\"sources\":[1,2],\"targets\":[3],\"modes\":[0]}", MatrixRequest.class);
+    Assert.assertTrue(matrixRequest.isComplete());
+    Assert.assertArrayEquals(new long[] { 1L, 2L }, matrixRequest.getSources());
+    Assert.assertArrayEquals(new long[] { 3L }, matrixRequest.getTargets());
+    Assert.assertFalse(mGson.fromJson("{\"sources\":[1],\"modes\":[0]}", MatrixRequest.class).isComplete());
+    Assert.assertFalse(mGson.fromJson("{\"sources\":[1],\"targets\":[2]}", MatrixRequest.class).isComplete());
+
+    final IsochroneRequest isochroneRequest =
+        mGson.fromJson("{\"from\":1,\"budgets\":[60,120],\"modes\":[3]}", IsochroneRequest.class);
+    Assert.assertTrue(isochroneRequest.isComplete());
+    Assert.assertArrayEquals(new int[] { 60, 120 }, isochroneRequest.getBudgets());
+    Assert.assertEquals(EnumSet.of(ETransportationMode.BIKE), isochroneRequest.getModes());
+    Assert.assertFalse(mGson.fromJson("{\"from\":1,\"modes\":[0]}", IsochroneRequest.class).isComplete());
+
+    final NameSearchRequest nameRequest =
+        mGson.fromJson("{\"name\":\"Freiburg\",\"amount\":5}", NameSearchRequest.class);
+    Assert.assertEquals("Freiburg", nameRequest.getName());
+    Assert.assertEquals(5, nameRequest.getAmount());
+
+    final NearestSearchRequest nearestRequest =
+        mGson.fromJson("{\"latitude\":48.0127,\"longitude\":7.8352}", NearestSearchRequest.class);
+    Assert.assertEquals(48.0127F, nearestRequest.getLatitude(), 0.0F);
+    Assert.assertEquals(7.8352F, nearestRequest.getLongitude(), 0.0F);
+  }
+
+  /**
+   * Test method for the rejection of invalid requests.
+   */
+  @Test
+  public void testRequestDecodingInvalid() {
+    final String[] invalidRoutingRequests = { "{\"from\":1,\"to\":2}", "{\"modes\":[]}", "{\"modes\":[42]}",
+        "{\"modes\":[0],\"from\":\"abc\"}", "{\"modes\":[0]" };
+    for (final String json : invalidRoutingRequests) {
+      try {
+        mGson.fromJson(json, RoutingRequest.class);
+        Assert.fail(json);
+      } catch (final JsonSyntaxException e) {
+        // Expected
+      }
+    }
+    try {
+      mGson.fromJson("{\"sources\":[1],\"targets\":[2],\"modes\":[42]}", MatrixRequest.class);
+      Assert.fail();
+    } catch (final JsonSyntaxException e) {
+      // Expected
+    }
+  }
+
+  /**
+   * Test method for the encoding and decoding of requests.
+   */
+  @Test
+  public void testRequestEncoding() {
+    final RoutingRequest routingRequest =
+        new RoutingRequest(1L, 2L, 3L, EnumSet.of(ETransportationMode.TRAM), EGeometryFormat.POLYLINE);
+    Assert.assertEquals(mReflectionGson.toJson(routingRequest), mGson.toJson(routingRequest));
+    final RoutingRequest decodedRouting = mGson.fromJson(mGson.toJson(routingRequest), RoutingRequest.class);
+    Assert.assertEquals(routingRequest.toString(), decodedRouting.toString());
+
+    final MatrixRequest matrixRequest = new MatrixRequest(new long[] { 1L }, new long[] { 2L, 3L }, 4L,
+        EnumSet.of(ETransportationMode.CAR));
+    Assert.assertEquals(mReflectionGson.toJson(matrixRequest), mGson.toJson(matrixRequest));
+
+    final IsochroneRequest isochroneRequest =
+        new IsochroneRequest(1L, 2L, EnumSet.of(ETransportationMode.FOOT), new int[] { 60 });
+    Assert.assertEquals(mReflectionGson.toJson(isochroneRequest), mGson.toJson(isochroneRequest));
+
+    final NameSearchRequest nameRequest = new NameSearchRequest("Münster <Dom>", 3);
+    Assert.assertEquals(mReflectionGson.toJson(nameRequest), mGson.toJson(nameRequest));
+
+    final NearestSearchRequest nearestRequest = new NearestSearchRequest(48.0127F, 7.8352F);
+    Assert.assertEquals(mReflectionGson.toJson(nearestRequest), mGson.toJson(nearestRequest));
+  }
+
+  /**
+   * Test method for the encoding and decoding of responses. The encoding must
+   * be identical to the encoding using reflection.
+   */
+  @Test
+  public void testResponseEncoding() {
+    final RouteElement node = new RouteElement(ERouteElementType.NODE, "Start <1>",
+        Collections.singletonList(new float[] { 48.0127F, 7.8352F }));
+    final RouteElement path = new RouteElement(ERouteElementType.PATH, ETransportationMode.CAR, null,
+        Arrays.asList(new float[] { 48.0127F, 7.8352F }, new float[] { -47.9999F, 0.0F }));
+    final Journey journey = new Journey(1_000L, 2_000L, Arrays.asList(node, path));
+    final RoutingResponse routingResponse = new RoutingResponse(10L, 8L, 1L, 2L, Collections.singletonList(journey));
+    final String routingJson = mGson.toJson(routingResponse);
+    Assert.assertEquals(mReflectionGson.toJson(routingResponse), routingJson);
+    Assert.assertEquals(routingJson, mGson.toJson(mGson.fromJson(routingJson, RoutingResponse.class)));
+
+    final MatrixResponse matrixResponse = new MatrixResponse(1L, 2L, new long[] { 1L, 2L }, new long[] { 3L },
+        new long[][] { { 5L }, { MatrixResponse.UNREACHABLE } });
+    final String matrixJson = mGson.toJson(matrixResponse);
+    Assert.assertEquals(mReflectionGson.toJson(matrixResponse), matrixJson);
+    Assert.assertEquals(matrixJson, mGson.toJson(mGson.fromJson(matrixJson, MatrixResponse.class)));
+
+    final IsochroneResponse isochroneResponse = new IsochroneResponse(1L, 2L, 3L,
+        Collections.singletonList(new Isochrone(60, 3, Arrays.asList(new float[] { 1.5F, 2.5F },
+            new float[] { 1.0F, 2.0F }, new float[] { 2.0F, 3.0F }))));
+    final String isochroneJson = mGson.toJson(isochroneResponse);
+    Assert.assertEquals(mReflectionGson.toJson(isochroneResponse), isochroneJson);
+    Assert.assertEquals(isochroneJson, mGson.toJson(mGson.fromJson(isochroneJson, IsochroneResponse.class)));
+
+    final NameSearchResponse nameResponse =
+        new NameSearchResponse(1L, Arrays.asList(new Match(1L, "Freiburg"), new Match(2L, "\"Quoted\"")));
+    final String nameJson = mGson.toJson(nameResponse);
+    Assert.assertEquals(mReflectionGson.toJson(nameResponse), nameJson);
+    Assert.assertEquals(nameJson, mGson.toJson(mGson.fromJson(nameJson, NameSearchResponse.class)));
+
+    final NearestSearchResponse nearestResponse = new NearestSearchResponse(1L, 42L, 48.0127F, 7.8352F);
+    final String nearestJson = mGson.toJson(nearestResponse);
+    Assert.assertEquals(mReflectionGson.toJson(nearestResponse), nearestJson);
+    Assert.assertEquals(nearestJson, mGson.toJson(mGson.fromJson(nearestJson, NearestSearchResponse.class)));
+  }
+}
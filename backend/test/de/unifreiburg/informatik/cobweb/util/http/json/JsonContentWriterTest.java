@@ -0,0 +1,41 @@
+package de.unifreiburg.informatik.cobweb.util.http.json;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+
+import de.unifreiburg.informatik.cobweb.routing.server.model.Isochrone;
+import de.unifreiburg.informatik.cobweb.routing.server.model.IsochroneResponse;
+
+/**
+ * Test for the class {@link JsonContentWriter}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class JsonContentWriterTest {
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.http.json.JsonContentWriter#writeContent(java.io.OutputStream)}.
+   *
+   * @throws IOException If an I/O exception occurred while writing
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testWriteContent() throws IOException {
+    final Gson gson = JsonCodecs.getGson();
+    final IsochroneResponse response = new IsochroneResponse(1L, 2L, 3L,
+        Collections.singletonList(new Isochrone(60, 3, Arrays.asList(new float[] { 1.5F, 2.5F },
+            new float[] { -1.0F, 0.25F }, new float[] { 3.0F, 4.0F }))));
+
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    new JsonContentWriter<>(gson, response, IsochroneResponse.class).writeContent(output);
+    Assert.assertEquals(gson.toJson(response), new String(output.toByteArray(), StandardCharsets.UTF_8));
+  }
+}
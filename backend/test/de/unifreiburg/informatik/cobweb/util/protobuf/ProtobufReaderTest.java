@@ -0,0 +1,200 @@
+package de.unifreiburg.informatik.cobweb.util.protobuf;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for the class {@link ProtobufReader}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class ProtobufReaderTest {
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.protobuf.ProtobufReader#readCoordinates()}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testReadCoordinates() {
+    final ProtobufWriter writer = new ProtobufWriter();
+    writer.writeCoordinates(4, Arrays.asList(new float[] { 48.0127F, 7.8352F }, new float[] { -1.5F, 0.0F }));
+    final ProtobufReader reader = new ProtobufReader(writer.toByteArray());
+    Assert.assertEquals(4, reader.readTag());
+    final List<float[]> coordinates = reader.readCoordinates();
+    Assert.assertEquals(2, coordinates.size());
+    Assert.assertArrayEquals(new float[] { 48.0127F, 7.8352F }, coordinates.get(0), 0.0F);
+    Assert.assertArrayEquals(new float[] { -1.5F, 0.0F }, coordinates.get(1), 0.0F);
+    Assert.assertFalse(reader.hasRemaining());
+
+    // Incomplete coordinate
+    final ProtobufReader incomplete = new ProtobufReader(new byte[] { 0x22, 0x04, 0x00, 0x00, 0x00, 0x00 });
+    incomplete.readTag();
+    try {
+      incomplete.readCoordinates();
+      Assert.fail();
+    } catch (final IllegalArgumentException e) {
+      // Expected
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.protobuf.ProtobufReader#readInt64()}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testReadInt64() {
+    final ProtobufWriter writer = new ProtobufWriter();
+    writer.writeInt64(1, 150L);
+    writer.writeInt64(2, -1L);
+    writer.writeInt64(3, Long.MAX_VALUE);
+    final ProtobufReader reader = new ProtobufReader(writer.toByteArray());
+    reader.readTag();
+    Assert.assertEquals(150L, reader.readInt64());
+    reader.readTag();
+    Assert.assertEquals(-1L, reader.readInt64());
+    reader.readTag();
+    Assert.assertEquals(Long.MAX_VALUE, reader.readInt64());
+
+    // Truncated value
+    final ProtobufReader truncated = new ProtobufReader(new byte[] { 0x08, (byte) 0x96 });
+    truncated.readTag();
+    try {
+      truncated.readInt64();
+      Assert.fail();
+    } catch (final IllegalArgumentException e) {
+      // Expected
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.protobuf.ProtobufReader#readMessage()}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testReadMessage() {
+    final ProtobufWriter message = new ProtobufWriter();
+    message.writeString(1, "inner");
+    final ProtobufWriter writer = new ProtobufWriter();
+    writer.writeMessage(1, message);
+    writer.writeInt64(2, 5L);
+
+    final ProtobufReader reader = new ProtobufReader(writer.toByteArray());
+    reader.readTag();
+    final ProtobufReader inner = reader.readMessage();
+    Assert.assertEquals(1, inner.readTag());
+    Assert.assertEquals("inner", inner.readString());
+    Assert.assertFalse(inner.hasRemaining());
+    Assert.assertEquals(2, reader.readTag());
+    Assert.assertEquals(5L, reader.readInt64());
+
+    // Length exceeds the message
+    final ProtobufReader exceeding = new ProtobufReader(new byte[] { 0x0A, 0x05, 0x00 });
+    exceeding.readTag();
+    try {
+      exceeding.readMessage();
+      Assert.fail();
+    } catch (final IllegalArgumentException e) {
+      // Expected
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.protobuf.ProtobufReader#readPackedInts()}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testReadPackedInts() {
+    final ProtobufWriter writer = new ProtobufWriter();
+    writer.writePackedInts(4, new int[] { 3, 270, 86_942 });
+    // Unpacked values are accepted too
+    writer.writeInt64(4, 7L);
+    final ProtobufReader reader = new ProtobufReader(writer.toByteArray());
+    reader.readTag();
+    Assert.assertArrayEquals(new int[] { 3, 270, 86_942 }, reader.readPackedInts());
+    reader.readTag();
+    Assert.assertArrayEquals(new int[] { 7 }, reader.readPackedInts());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.protobuf.ProtobufReader#readSInt32()}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testReadSInt32() {
+    final ProtobufWriter writer = new ProtobufWriter();
+    final int[] values = { -1, 0, 1, Integer.MIN_VALUE, Integer.MAX_VALUE };
+    for (final int value : values) {
+      writer.writeSInt32(1, value);
+    }
+    final ProtobufReader reader = new ProtobufReader(writer.toByteArray());
+    for (final int value : values) {
+      reader.readTag();
+      Assert.assertEquals(value, reader.readSInt32());
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.protobuf.ProtobufReader#readTag()}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testReadTag() {
+    final ProtobufWriter writer = new ProtobufWriter();
+    writer.writeFloat(15, 1.0F);
+    final ProtobufReader reader = new ProtobufReader(writer.toByteArray());
+    Assert.assertTrue(reader.hasRemaining());
+    Assert.assertEquals(15, reader.readTag());
+    Assert.assertEquals(15, reader.getField());
+    Assert.assertEquals(EWireType.FIXED32, reader.getWireType());
+    Assert.assertEquals(1.0F, reader.readFloat(), 0.0F);
+    Assert.assertFalse(reader.hasRemaining());
+
+    // Wrong wire type
+    final ProtobufReader wrongType = new ProtobufReader(writer.toByteArray());
+    wrongType.readTag();
+    try {
+      wrongType.readInt64();
+      Assert.fail();
+    } catch (final IllegalArgumentException e) {
+      // Expected
+    }
+
+    // Unsupported wire type
+    try {
+      new ProtobufReader(new byte[] { 0x0B }).readTag();
+      Assert.fail();
+    } catch (final IllegalArgumentException e) {
+      // Expected
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.protobuf.ProtobufReader#skipField()}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testSkipField() {
+    final ProtobufWriter writer = new ProtobufWriter();
+    writer.writeInt64(1, 150L);
+    writer.writeFloat(2, 1.0F);
+    writer.writeString(3, "skipped");
+    writer.writeInt64(4, 9L);
+    final ProtobufReader reader = new ProtobufReader(writer.toByteArray());
+    for (int i = 0; i < 3; i++) {
+      reader.readTag();
+      reader.skipField();
+    }
+    Assert.assertEquals(4, reader.readTag());
+    Assert.assertEquals(9L, reader.readInt64());
+    Assert.assertFalse(reader.hasRemaining());
+  }
+}
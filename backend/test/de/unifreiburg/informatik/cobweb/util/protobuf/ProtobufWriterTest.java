@@ -0,0 +1,147 @@
+package de.unifreiburg.informatik.cobweb.util.protobuf;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for the class {@link ProtobufWriter}.
+ *
+ * @author Daniel Tischner {@literal <zabuza.dev@gmail.com>}
+ */
+public final class ProtobufWriterTest {
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.protobuf.ProtobufWriter#reset()}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testReset() {
+    final ProtobufWriter writer = new ProtobufWriter();
+    writer.writeInt64(1, 150L);
+    writer.reset();
+    Assert.assertEquals(0, writer.size());
+    writer.writeInt64(1, 1L);
+    Assert.assertArrayEquals(new byte[] { 0x08, 0x01 }, writer.toByteArray());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.protobuf.ProtobufWriter#writeCoordinates(int, java.util.List)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testWriteCoordinates() {
+    final ProtobufWriter writer = new ProtobufWriter();
+    writer.writeCoordinates(4, Arrays.asList(new float[] { 1.0F, 2.0F }));
+    Assert.assertArrayEquals(new byte[] { 0x22, 0x08, 0x00, 0x00, (byte) 0x80, 0x3F, 0x00, 0x00, 0x00, 0x40 },
+        writer.toByteArray());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.protobuf.ProtobufWriter#writeFloat(int, float)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testWriteFloat() {
+    final ProtobufWriter writer = new ProtobufWriter();
+    writer.writeFloat(1, 1.0F);
+    Assert.assertArrayEquals(new byte[] { 0x0D, 0x00, 0x00, (byte) 0x80, 0x3F }, writer.toByteArray());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.protobuf.ProtobufWriter#writeInt64(int, long)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testWriteInt64() {
+    final ProtobufWriter writer = new ProtobufWriter();
+    writer.writeInt64(1, 150L);
+    Assert.assertArrayEquals(new byte[] { 0x08, (byte) 0x96, 0x01 }, writer.toByteArray());
+
+    // Negative values always need ten bytes
+    writer.reset();
+    writer.writeInt64(1, -1L);
+    Assert.assertEquals(11, writer.size());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.protobuf.ProtobufWriter#writeMessage(int, ProtobufWriter)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testWriteMessage() {
+    final ProtobufWriter message = new ProtobufWriter();
+    message.writeInt64(1, 150L);
+    final ProtobufWriter writer = new ProtobufWriter();
+    writer.writeMessage(3, message);
+    Assert.assertArrayEquals(new byte[] { 0x1A, 0x03, 0x08, (byte) 0x96, 0x01 }, writer.toByteArray());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.protobuf.ProtobufWriter#writePackedInts(int, int[])}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testWritePackedInts() {
+    final ProtobufWriter writer = new ProtobufWriter();
+    writer.writePackedInts(4, new int[] { 3, 270, 86_942 });
+    Assert.assertArrayEquals(
+        new byte[] { 0x22, 0x06, 0x03, (byte) 0x8E, 0x02, (byte) 0x9E, (byte) 0xA7, 0x05 },
+        writer.toByteArray());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.protobuf.ProtobufWriter#writeSInt32(int, int)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testWriteSInt32() {
+    final ProtobufWriter writer = new ProtobufWriter();
+    writer.writeSInt32(1, -1);
+    writer.writeSInt32(1, 1);
+    writer.writeSInt32(1, -2);
+    Assert.assertArrayEquals(new byte[] { 0x08, 0x01, 0x08, 0x02, 0x08, 0x03 }, writer.toByteArray());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.protobuf.ProtobufWriter#writeString(int, String)}.
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testWriteString() {
+    final ProtobufWriter writer = new ProtobufWriter();
+    writer.writeString(2, "testing");
+    Assert.assertArrayEquals(new byte[] { 0x12, 0x07, 0x74, 0x65, 0x73, 0x74, 0x69, 0x6E, 0x67 },
+        writer.toByteArray());
+  }
+
+  /**
+   * Test method for
+   * {@link de.unifreiburg.informatik.cobweb.util.protobuf.ProtobufWriter#writeTo(java.io.OutputStream)}.
+   *
+   * @throws IOException If an I/O exception occurred while writing
+   */
+  @SuppressWarnings("static-method")
+  @Test
+  public void testWriteTo() throws IOException {
+    final ProtobufWriter writer = new ProtobufWriter();
+    // Exceed the initial capacity
+    final char[] text = new char[200];
+    Arrays.fill(text, 'a');
+    writer.writeString(1, new String(text));
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    writer.writeTo(output);
+    Assert.assertEquals(203, output.size());
+    Assert.assertArrayEquals(writer.toByteArray(), output.toByteArray());
+  }
+}